@@ -23,6 +23,7 @@ import org.eclipse.ice.datastructures.form.geometry.GeometryComponent;
 import org.eclipse.ice.datastructures.form.geometry.IShape;
 import org.eclipse.ice.datastructures.form.geometry.OperatorType;
 import org.eclipse.ice.datastructures.form.geometry.PrimitiveShape;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
 import org.eclipse.ice.datastructures.form.geometry.ShapeType;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.resource.ImageDescriptor;
@@ -221,6 +222,13 @@ public class ActionAddShape extends Action {
 				// Get the selected shape's parent
 
 				IShape selectedShape = (IShape) selectedObject;
+
+				// Shapes cannot be added next to the shape of a
+				// ReplicatedShape
+
+				if (selectedShape.getParent() instanceof ReplicatedShape) {
+					return;
+				}
 				parentComplexShape = (ComplexShape) selectedShape.getParent();
 			} else if (selectedObject instanceof BlankShape) {
 
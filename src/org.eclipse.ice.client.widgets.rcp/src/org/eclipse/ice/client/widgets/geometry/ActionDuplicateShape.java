@@ -19,6 +19,7 @@ import org.eclipse.ice.datastructures.form.geometry.AbstractShape;
 import org.eclipse.ice.datastructures.form.geometry.ComplexShape;
 import org.eclipse.ice.datastructures.form.geometry.GeometryComponent;
 import org.eclipse.ice.datastructures.form.geometry.IShape;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.viewers.ITreeSelection;
@@ -103,8 +104,12 @@ public class ActionDuplicateShape extends Action {
 				clonedShape.removeProperty("selected");
 
 				// Try to get the selected shape's parent shape
-				// We can assume that if the parent exists, it is a ComplexShape
+				// The shape of a ReplicatedShape cannot be duplicated, so we
+				// can assume that if the parent exists, it is a ComplexShape
 
+				if (selectedShape.getParent() instanceof ReplicatedShape) {
+					continue;
+				}
 				ComplexShape parentShape = (ComplexShape) selectedShape
 						.getParent();
 
@@ -19,7 +19,7 @@ import org.eclipse.ice.datastructures.form.geometry.AbstractShape;
 import org.eclipse.ice.datastructures.form.geometry.ComplexShape;
 import org.eclipse.ice.datastructures.form.geometry.GeometryComponent;
 import org.eclipse.ice.datastructures.form.geometry.IShape;
-import org.eclipse.ice.datastructures.form.geometry.OperatorType;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
 import org.eclipse.ice.datastructures.form.geometry.Transformation;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.dialogs.IDialogConstants;
@@ -142,6 +142,11 @@ public class ActionReplicateShape extends Action {
 		// If the selected shape is a direct child of a GeometryComponent,
 		// its parent shape is null.
 
+		// The shape of a ReplicatedShape cannot be replicated in place.
+
+		if (selectedShape.getParent() instanceof ReplicatedShape) {
+			return;
+		}
 		ComplexShape parentShape = (ComplexShape) selectedShape.getParent();
 
 		// Remove the selected shape from its original parent
@@ -154,30 +159,28 @@ public class ActionReplicateShape extends Action {
 			}
 		}
 
-		// Create a new parent union shape
+		// Create a new ReplicatedShape. Instead of one clone of the selected
+		// shape per copy, it stores a single clone and the transformation of
+		// each copy.
 
-		ComplexShape replicateUnion = new ComplexShape(OperatorType.Union);
-		replicateUnion.setName("Replication");
-		replicateUnion.setId(((ICEObject) selectedShape).getId());
+		ReplicatedShape replicatedShape = new ReplicatedShape();
+		replicatedShape.setName("Replication");
+		replicatedShape.setId(((ICEObject) selectedShape).getId());
 
-		for (int i = 1; i <= quantity; i++) {
+		// Clone the selected shape and remove its "selected" property. Its
+		// transformation is carried by the instances.
 
-			// Clone the selected shape and remove its "selected" property
+		IShape clonedShape = (IShape) ((AbstractShape) selectedShape).clone();
+		clonedShape.removeProperty("selected");
+		((ICEObject) clonedShape).setId(1);
+		clonedShape.setTransformation(new Transformation());
+		replicatedShape.setShape(clonedShape);
 
-			IShape clonedShape = (IShape) ((AbstractShape) selectedShape)
-					.clone();
-			clonedShape.removeProperty("selected");
-			((ICEObject) clonedShape).setId(i);
-
-			// Add the translation
-
-			clonedShape
-					.setTransformation((Transformation) accumulatedTransformation
-							.clone());
+		for (int i = 1; i <= quantity; i++) {
 
-			// Add it to the replicated union
+			// Add an instance with the current transformation
 
-			replicateUnion.addShape(clonedShape);
+			replicatedShape.addInstance(accumulatedTransformation);
 
 			// Shift the transform for the next shape
 
@@ -191,7 +194,7 @@ public class ActionReplicateShape extends Action {
 			// The parent is an IShape
 
 			synchronized (geometry) {
-				parentShape.addShape(replicateUnion);
+				parentShape.addShape(replicatedShape);
 			}
 
 			view.treeViewer.refresh(parentShape);
@@ -200,7 +203,7 @@ public class ActionReplicateShape extends Action {
 			// The parent is the root GeometryComponent
 
 			synchronized (geometry) {
-				geometry.addShape(replicateUnion);
+				geometry.addShape(replicatedShape);
 			}
 
 			view.treeViewer.refresh();
@@ -24,6 +24,7 @@ import org.eclipse.ice.datastructures.form.geometry.IShape;
 import org.eclipse.ice.datastructures.form.geometry.IShapeVisitor;
 import org.eclipse.ice.datastructures.form.geometry.OperatorType;
 import org.eclipse.ice.datastructures.form.geometry.PrimitiveShape;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
 import org.eclipse.ice.datastructures.form.geometry.ShapeType;
 import org.eclipse.ice.datastructures.form.geometry.Transformation;
 import org.slf4j.Logger;
@@ -42,6 +43,7 @@ import com.jme3.math.Quaternion;
 import com.jme3.math.Transform;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.queue.RenderQueue.Bucket;
+import com.jme3.scene.BatchNode;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Mesh;
 import com.jme3.scene.Node;
@@ -453,6 +455,61 @@ public class GeometryApplication extends SimpleApplication implements
 
 			return;
 		}
+
+		/**
+		 * Prepares the ReplicatedShape to be synchronized. The instances are
+		 * batched so that they are drawn with one call per material instead
+		 * of one call per instance.
+		 */
+		@Override
+		public void visit(ReplicatedShape replicatedShape) {
+
+			// Local Declarations
+			IShape shape = replicatedShape.getShape();
+			int instanceCount = replicatedShape.getInstanceCount();
+
+			// Create a new BatchNode. The hash is stored so that the batch is
+			// only rebuilt when the ReplicatedShape changes.
+			BatchNode batchNode = new BatchNode(replicatedShape.getName());
+			batchNode.setUserData("shape", new ShapeTransient(replicatedShape));
+			batchNode.setUserData("hash", replicatedShape.hashCode());
+			batchNode.setLocalTransform(convertTransformation(replicatedShape
+					.getTransformation()));
+			batchNode.setQueueBucket(Bucket.Transparent);
+
+			// Create the spatials for the replicated shape once. Shallow
+			// clones of them share their meshes and materials.
+			Node shapeNode = new Node();
+			if (shape != null) {
+				shape.acceptShapeVisitor(new AddShapeToNode(shapeNode));
+			}
+
+			// Add a Node for each instance
+			for (int i = 0; i < instanceCount; i++) {
+
+				Node instanceNode = new Node(replicatedShape.getName() + " "
+						+ i);
+				instanceNode.setLocalTransform(convertTransformation(replicatedShape
+						.getInstance(i)));
+
+				// Overrides are created separately
+				IShape override = replicatedShape.getOverride(i);
+				if (override != null) {
+					override.acceptShapeVisitor(new AddShapeToNode(
+							instanceNode));
+				} else {
+					for (Spatial child : shapeNode.getChildren()) {
+						instanceNode.attachChild(child.clone(false));
+					}
+				}
+
+				batchNode.attachChild(instanceNode);
+			}
+
+			// Merge the instances and attach the BatchNode to a parent
+			batchNode.batch();
+			this.node.attachChild(batchNode);
+		}
 	}
 
 	/**
@@ -478,6 +535,11 @@ public class GeometryApplication extends SimpleApplication implements
 		 */
 		private ArrayList<ComplexShape> complexShapes = new ArrayList<ComplexShape>();
 
+		/**
+		 * The temporary working list of ReplicatedShapes
+		 */
+		private ArrayList<ReplicatedShape> replicatedShapes = new ArrayList<ReplicatedShape>();
+
 		/**
 		 * Initializes an instance with a JME3 scene graph node
 		 * 
@@ -505,6 +567,14 @@ public class GeometryApplication extends SimpleApplication implements
 			primitiveShapes.add(primitiveShape);
 		}
 
+		/**
+		 * Adds a ReplicatedShape to the temporary working list
+		 */
+		@Override
+		public void visit(ReplicatedShape replicatedShape) {
+			replicatedShapes.add(replicatedShape);
+		}
+
 		/**
 		 * Performs the synchronization of the node and the list of shapes
 		 */
@@ -514,6 +584,7 @@ public class GeometryApplication extends SimpleApplication implements
 			IShape nodeShape = null;
 			int primitiveShapeIndex = -1;
 			int complexShapeIndex = -1;
+			int replicatedShapeIndex = -1;
 
 			// Create a list of Node children indices to remove at a later time
 			Vector<Integer> removeNodeIndices = new Vector<Integer>();
@@ -531,11 +602,15 @@ public class GeometryApplication extends SimpleApplication implements
 				}
 
 				// Extract the reference to the child shape if it exists
+				primitiveShapeIndex = -1;
+				complexShapeIndex = -1;
+				replicatedShapeIndex = -1;
 				if (childSpatial.getUserData("shape") != null) {
 					nodeShape = ((ShapeTransient) childSpatial
 							.getUserData("shape")).getShape();
 					primitiveShapeIndex = primitiveShapes.indexOf(nodeShape);
 					complexShapeIndex = complexShapes.indexOf(nodeShape);
+					replicatedShapeIndex = replicatedShapes.indexOf(nodeShape);
 				}
 
 				// Check if nodeShape is in one of the IShape lists
@@ -606,6 +681,16 @@ public class GeometryApplication extends SimpleApplication implements
 					this.complexShapes.remove(complexShapeIndex);
 				}
 
+				else if (replicatedShapeIndex >= 0
+						&& childSpatial.getUserData("hash").equals(
+								replicatedShapes.get(replicatedShapeIndex)
+										.hashCode())) {
+					// nodeShape is an existing ReplicatedShape that has not
+					// changed since its batch was built, so keep it
+
+					this.replicatedShapes.remove(replicatedShapeIndex);
+				}
+
 				else {
 					// nodeShape does not exist in one of the IShape lists
 
@@ -633,6 +718,10 @@ public class GeometryApplication extends SimpleApplication implements
 			for (IShape complexShape : complexShapes) {
 				complexShape.acceptShapeVisitor(addShape);
 			}
+
+			for (IShape replicatedShape : replicatedShapes) {
+				replicatedShape.acceptShapeVisitor(addShape);
+			}
 		}
 	}
 
@@ -19,6 +19,7 @@ import org.eclipse.ice.datastructures.form.geometry.IShape;
 import org.eclipse.ice.datastructures.form.geometry.IShapeVisitor;
 import org.eclipse.ice.datastructures.form.geometry.OperatorType;
 import org.eclipse.ice.datastructures.form.geometry.PrimitiveShape;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
 import org.eclipse.ice.datastructures.form.geometry.Transformation;
 
 import com.jme3.material.Material;
@@ -143,6 +144,17 @@ public class RenderShape implements IShape {
 				spatial = node;
 			}
 		}
+
+		/**
+		 * Creates a node for the instances of the replicated shape
+		 */
+		@Override
+		public void visit(ReplicatedShape replicatedShape) {
+
+			Node node = new Node();
+
+			spatial = node;
+		}
 	}
 
 	/**
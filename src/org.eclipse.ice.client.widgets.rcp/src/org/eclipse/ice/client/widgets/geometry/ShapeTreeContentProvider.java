@@ -12,11 +12,14 @@
  *******************************************************************************/
 package org.eclipse.ice.client.widgets.geometry;
 
+import java.util.ArrayList;
+
 import org.eclipse.ice.datastructures.form.geometry.ComplexShape;
 import org.eclipse.ice.datastructures.form.geometry.GeometryComponent;
 import org.eclipse.ice.datastructures.form.geometry.IShape;
 import org.eclipse.ice.datastructures.form.geometry.IShapeVisitor;
 import org.eclipse.ice.datastructures.form.geometry.PrimitiveShape;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
 import org.eclipse.jface.viewers.IContentProvider;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.Viewer;
@@ -274,4 +277,25 @@ public class ShapeTreeContentProvider implements ITreeContentProvider,
 		temporaryChildren = new Object[0];
 
 	}
+
+	/**
+	 * (non-Javadoc)
+	 * 
+	 * @see IShapeVisitor#visit(ReplicatedShape replicatedShape)
+	 */
+	@Override
+	public void visit(ReplicatedShape replicatedShape) {
+
+		// IShape is a ReplicatedShape, so display the replicated shape and the
+		// shapes that override individual instances. The instances themselves
+		// are not displayed since there may be many thousands of them.
+
+		ArrayList<Object> children = new ArrayList<Object>();
+		if (replicatedShape.getShape() != null) {
+			children.add(replicatedShape.getShape());
+		}
+		children.addAll(replicatedShape.getOverrides());
+		temporaryChildren = children.toArray();
+
+	}
 }
\ No newline at end of file
@@ -0,0 +1,835 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Jordan Deyton (UT-Battelle, LLC.) - initial API and implementation and/or
+ *      initial documentation
+ *
+ *******************************************************************************/
+package org.eclipse.ice.client.widgets.jme;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.math.Plane;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+
+/**
+ * This class provides a dynamic bounding volume hierarchy (BVH) of
+ * axis-aligned boxes. It is used to find the objects in a scene hit by a
+ * {@link Ray} or inside a selection rectangle without testing every object in
+ * the scene.
+ * <p>
+ * Each indexed item is stored in a leaf with a box that is slightly larger
+ * than the item's world bound. Updating an item whose bound is still inside
+ * its enlarged box does not change the tree, so only items that move
+ * noticeably are re-inserted. The tree is kept balanced so that queries take
+ * logarithmic time in the number of items.
+ * </p>
+ * <p>
+ * <b>Note:</b> This class is not thread-safe. It should only be used on the
+ * jME rendering thread, which is where the world bounds of spatials are
+ * updated.
+ * </p>
+ *
+ * @param <T>
+ *            The type of the indexed items, usually <code>Spatial</code>s or
+ *            controllers.
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class BoundingVolumeHierarchy<T> {
+
+	/**
+	 * The default value for {@link #margin}.
+	 */
+	public static final float DEFAULT_MARGIN = 0.1f;
+
+	/**
+	 * The amount by which the boxes of leaves are enlarged, as a fraction of
+	 * the largest dimension of the items' bounds.
+	 */
+	private final float margin;
+
+	/**
+	 * The root of the tree, or null if the tree is empty.
+	 */
+	private TreeNode<T> root;
+
+	/**
+	 * The leaves of the tree, keyed on their items.
+	 */
+	private final Map<T, TreeNode<T>> leaves;
+
+	/**
+	 * A node in the tree. Branches always have two children.
+	 */
+	private static class TreeNode<T> {
+		/**
+		 * The box containing the node's children, or the enlarged bound of a
+		 * leaf's item. The array contains the minimum x, y, and z followed by
+		 * the maximum x, y, and z.
+		 */
+		private final float[] box = new float[6];
+		/**
+		 * The exact bound of a leaf's item. This is null for branches.
+		 */
+		private float[] bound;
+		/**
+		 * The item stored in a leaf. This is null for branches.
+		 */
+		private T item;
+		/**
+		 * The parent node, or null for the root.
+		 */
+		private TreeNode<T> parent;
+		/**
+		 * The first child, or null for leaves.
+		 */
+		private TreeNode<T> child1;
+		/**
+		 * The second child, or null for leaves.
+		 */
+		private TreeNode<T> child2;
+		/**
+		 * The height of the node in the tree. Leaves have a height of 0.
+		 */
+		private int height;
+
+		/**
+		 * @return True if the node is a leaf, false if it is a branch.
+		 */
+		private boolean isLeaf() {
+			return child1 == null;
+		}
+	}
+
+	/**
+	 * The default constructor. Leaves are enlarged by
+	 * {@link #DEFAULT_MARGIN}.
+	 */
+	public BoundingVolumeHierarchy() {
+		this(DEFAULT_MARGIN);
+	}
+
+	/**
+	 * A constructor that sets the amount by which the boxes of leaves are
+	 * enlarged. Larger margins mean fewer re-insertions for moving items but
+	 * less precise queries.
+	 *
+	 * @param margin
+	 *            The margin as a fraction of the largest dimension of an
+	 *            item's bound. Negative values are treated as 0.
+	 */
+	public BoundingVolumeHierarchy(float margin) {
+		this.margin = (margin > 0f ? margin : 0f);
+
+		root = null;
+		leaves = new HashMap<T, TreeNode<T>>();
+
+		return;
+	}
+
+	/**
+	 * Adds an item to the hierarchy or updates its bound if it has already
+	 * been added.
+	 *
+	 * @param item
+	 *            The item to index. If null, nothing is done.
+	 * @param worldBound
+	 *            The current world bound of the item. This may be a
+	 *            {@link BoundingBox} or a {@link BoundingSphere}. If null, the
+	 *            item is removed.
+	 * @return True if the structure of the tree changed, false if the item
+	 *         was not added or only its bound was updated.
+	 */
+	public boolean update(T item, BoundingVolume worldBound) {
+
+		// Check the item.
+		if (item == null) {
+			return false;
+		}
+		// Items without bounds cannot be picked.
+		if (worldBound == null) {
+			return remove(item);
+		}
+
+		// Get the exact bound.
+		float[] bound = new float[6];
+		getBounds(worldBound, bound);
+
+		TreeNode<T> leaf = leaves.get(item);
+		if (leaf != null) {
+			// If the item has not moved outside the leaf's box, there is no
+			// need to change the tree.
+			leaf.bound = bound;
+			if (contains(leaf.box, bound)) {
+				return false;
+			}
+			removeLeaf(leaf);
+		} else {
+			leaf = new TreeNode<T>();
+			leaf.item = item;
+			leaf.bound = bound;
+			leaves.put(item, leaf);
+		}
+
+		// Enlarge the leaf's box and insert it.
+		float size = Math.max(bound[3] - bound[0],
+				Math.max(bound[4] - bound[1], bound[5] - bound[2]));
+		float offset = size * margin;
+		for (int i = 0; i < 3; i++) {
+			leaf.box[i] = bound[i] - offset;
+			leaf.box[i + 3] = bound[i + 3] + offset;
+		}
+		insertLeaf(leaf);
+
+		return true;
+	}
+
+	/**
+	 * Removes an item from the hierarchy.
+	 *
+	 * @param item
+	 *            The item to remove.
+	 * @return True if the item was removed, false if it was not in the
+	 *         hierarchy.
+	 */
+	public boolean remove(T item) {
+		TreeNode<T> leaf = leaves.remove(item);
+		if (leaf != null) {
+			removeLeaf(leaf);
+		}
+		return leaf != null;
+	}
+
+	/**
+	 * Determines whether an item is in the hierarchy.
+	 *
+	 * @param item
+	 *            The item.
+	 * @return True if the item has been added and not removed.
+	 */
+	public boolean contains(T item) {
+		return leaves.containsKey(item);
+	}
+
+	/**
+	 * Removes all items from the hierarchy.
+	 */
+	public void clear() {
+		root = null;
+		leaves.clear();
+	}
+
+	/**
+	 * @return The number of items in the hierarchy.
+	 */
+	public int size() {
+		return leaves.size();
+	}
+
+	/**
+	 * @return The height of the tree. An empty tree or a tree with one item
+	 *         has a height of 0.
+	 */
+	public int getHeight() {
+		return (root != null ? root.height : 0);
+	}
+
+	/**
+	 * Finds all items whose bounds are hit by a ray. Only the bounds are
+	 * tested, so the caller should test the returned items against the ray if
+	 * exact collisions are required.
+	 *
+	 * @param ray
+	 *            The ray. Its limit is respected.
+	 * @return A list of the items hit by the ray, sorted by the distance from
+	 *         the ray's origin to their bounds. The list is empty if nothing
+	 *         is hit or the ray is null.
+	 */
+	public List<T> pick(Ray ray) {
+
+		// Local Declarations
+		final List<T> items = new ArrayList<T>();
+		final Map<T, Float> distances = new HashMap<T, Float>();
+
+		if (ray != null && root != null) {
+			Vector3f origin = ray.getOrigin();
+			Vector3f direction = ray.getDirection();
+			float[] o = new float[] { origin.x, origin.y, origin.z };
+			float[] d = new float[] { direction.x, direction.y, direction.z };
+			float limit = ray.getLimit();
+
+			// Descend only into the nodes whose boxes are hit by the ray.
+			Deque<TreeNode<T>> stack = new ArrayDeque<TreeNode<T>>();
+			stack.push(root);
+			while (!stack.isEmpty()) {
+				TreeNode<T> node = stack.pop();
+				if (intersect(node.box, o, d, limit) >= 0f) {
+					if (node.isLeaf()) {
+						float distance = intersect(node.bound, o, d, limit);
+						if (distance >= 0f) {
+							items.add(node.item);
+							distances.put(node.item, distance);
+						}
+					} else {
+						stack.push(node.child1);
+						stack.push(node.child2);
+					}
+				}
+			}
+
+			// Sort the items so that the closest are first.
+			Collections.sort(items, new Comparator<T>() {
+				@Override
+				public int compare(T first, T second) {
+					return Float.compare(distances.get(first),
+							distances.get(second));
+				}
+			});
+		}
+
+		return items;
+	}
+
+	/**
+	 * Finds all items whose bounds are at least partially on the positive
+	 * side of every plane. This is used for rectangle selections (see
+	 * {@link #createSelectionPlanes(Camera, Vector2f, Vector2f)}), but any
+	 * convex volume described by planes can be used.
+	 * <p>
+	 * The test is conservative: a bound near a corner of the volume may be
+	 * returned even if it is slightly outside.
+	 * </p>
+	 *
+	 * @param planes
+	 *            The planes bounding the selected volume. Their normals point
+	 *            into the volume.
+	 * @return A list of the selected items, or an empty list if there are no
+	 *         planes.
+	 */
+	public List<T> select(Plane... planes) {
+
+		// Local Declarations
+		List<T> items = new ArrayList<T>();
+
+		if (planes != null && planes.length > 0 && root != null) {
+			Deque<TreeNode<T>> stack = new ArrayDeque<TreeNode<T>>();
+			stack.push(root);
+			while (!stack.isEmpty()) {
+				TreeNode<T> node = stack.pop();
+				int side = classify(node.isLeaf() ? node.bound : node.box,
+						planes);
+				if (side > 0) {
+					// Everything below the node is selected.
+					collectItems(node, items);
+				} else if (side == 0) {
+					if (node.isLeaf()) {
+						items.add(node.item);
+					} else {
+						stack.push(node.child1);
+						stack.push(node.child2);
+					}
+				}
+			}
+		}
+
+		return items;
+	}
+
+	/**
+	 * Creates the planes enclosing everything visible in a rectangle on the
+	 * screen. The planes can be passed to {@link #select(Plane...)}.
+	 *
+	 * @param camera
+	 *            The camera used to render the scene.
+	 * @param corner1
+	 *            One corner of the rectangle in screen coordinates.
+	 * @param corner2
+	 *            The opposite corner of the rectangle in screen coordinates.
+	 * @return The four planes along the edges of the rectangle. The near and
+	 *         far planes of the camera are not included.
+	 */
+	public static Plane[] createSelectionPlanes(Camera camera,
+			Vector2f corner1, Vector2f corner2) {
+
+		// Get the sorted bounds of the rectangle. A rectangle with no area
+		// is enlarged to a pixel so that the planes are well-defined.
+		float minX = Math.min(corner1.x, corner2.x);
+		float maxX = Math.max(corner1.x, corner2.x);
+		float minY = Math.min(corner1.y, corner2.y);
+		float maxY = Math.max(corner1.y, corner2.y);
+		if (maxX - minX < 1f) {
+			minX -= 0.5f;
+			maxX += 0.5f;
+		}
+		if (maxY - minY < 1f) {
+			minY -= 0.5f;
+			maxY += 0.5f;
+		}
+
+		// Project the corners onto the near and far planes.
+		Vector3f[] near = new Vector3f[4];
+		Vector3f[] far = new Vector3f[4];
+		Vector2f[] corners = new Vector2f[] { new Vector2f(minX, minY),
+				new Vector2f(maxX, minY), new Vector2f(maxX, maxY),
+				new Vector2f(minX, maxY) };
+		Vector3f center = new Vector3f();
+		for (int i = 0; i < 4; i++) {
+			near[i] = camera.getWorldCoordinates(corners[i], 0f);
+			far[i] = camera.getWorldCoordinates(corners[i], 1f);
+			center.addLocal(near[i]).addLocal(far[i]);
+		}
+		center.divideLocal(8f);
+
+		// Create a plane through each edge, and point it into the volume.
+		Plane[] planes = new Plane[4];
+		for (int i = 0; i < 4; i++) {
+			int j = (i + 1) % 4;
+			Plane plane = new Plane();
+			plane.setPlanePoints(near[i], near[j], far[i]);
+			if (plane.pseudoDistance(center) < 0f) {
+				plane.setNormal(plane.getNormal().negate());
+				plane.setConstant(-plane.getConstant());
+			}
+			planes[i] = plane;
+		}
+
+		return planes;
+	}
+
+	/**
+	 * Inserts a leaf whose box has been set into the tree.
+	 *
+	 * @param leaf
+	 *            The leaf to insert.
+	 */
+	private void insertLeaf(TreeNode<T> leaf) {
+
+		// The first leaf is the root.
+		if (root == null) {
+			root = leaf;
+			leaf.parent = null;
+			return;
+		}
+
+		// Find the best sibling for the leaf. At each branch, the cost of
+		// pairing the leaf with the branch is compared with the cost of
+		// descending into either child, where the cost is the surface area
+		// that is added to the tree.
+		float[] combined = new float[6];
+		TreeNode<T> node = root;
+		while (!node.isLeaf()) {
+			float area = area(node.box);
+			union(node.box, leaf.box, combined);
+			float combinedArea = area(combined);
+
+			float cost = 2f * combinedArea;
+			float inheritanceCost = 2f * (combinedArea - area);
+			float cost1 = descentCost(node.child1, leaf, combined)
+					+ inheritanceCost;
+			float cost2 = descentCost(node.child2, leaf, combined)
+					+ inheritanceCost;
+
+			if (cost < cost1 && cost < cost2) {
+				break;
+			}
+			node = (cost1 < cost2 ? node.child1 : node.child2);
+		}
+		TreeNode<T> sibling = node;
+
+		// Create a new parent for the leaf and its sibling.
+		TreeNode<T> oldParent = sibling.parent;
+		TreeNode<T> newParent = new TreeNode<T>();
+		newParent.parent = oldParent;
+		newParent.child1 = sibling;
+		newParent.child2 = leaf;
+		union(sibling.box, leaf.box, newParent.box);
+		newParent.height = sibling.height + 1;
+		sibling.parent = newParent;
+		leaf.parent = newParent;
+		if (oldParent == null) {
+			root = newParent;
+		} else if (oldParent.child1 == sibling) {
+			oldParent.child1 = newParent;
+		} else {
+			oldParent.child2 = newParent;
+		}
+
+		// Fix the boxes and heights of the ancestors.
+		refit(newParent.parent);
+
+		return;
+	}
+
+	/**
+	 * Removes a leaf from the tree. The leaf is not removed from
+	 * {@link #leaves}.
+	 *
+	 * @param leaf
+	 *            The leaf to remove.
+	 */
+	private void removeLeaf(TreeNode<T> leaf) {
+
+		if (leaf == root) {
+			root = null;
+			return;
+		}
+
+		// Replace the leaf's parent with the leaf's sibling.
+		TreeNode<T> parent = leaf.parent;
+		TreeNode<T> grandParent = parent.parent;
+		TreeNode<T> sibling = (parent.child1 == leaf ? parent.child2
+				: parent.child1);
+		sibling.parent = grandParent;
+		if (grandParent == null) {
+			root = sibling;
+		} else {
+			if (grandParent.child1 == parent) {
+				grandParent.child1 = sibling;
+			} else {
+				grandParent.child2 = sibling;
+			}
+			refit(grandParent);
+		}
+		leaf.parent = null;
+
+		return;
+	}
+
+	/**
+	 * Balances a branch and its ancestors and recomputes their boxes and
+	 * heights.
+	 *
+	 * @param node
+	 *            The lowest branch that needs to be updated.
+	 */
+	private void refit(TreeNode<T> node) {
+		while (node != null) {
+			node = balance(node);
+			node.height = 1 + Math.max(node.child1.height, node.child2.height);
+			union(node.child1.box, node.child2.box, node.box);
+			node = node.parent;
+		}
+		return;
+	}
+
+	/**
+	 * Performs a left or right rotation if a branch is imbalanced.
+	 *
+	 * @param a
+	 *            The branch to balance. The boxes and heights of its children
+	 *            must be correct.
+	 * @return The branch that replaced the given branch in the tree, or the
+	 *         given branch if it was already balanced.
+	 */
+	private TreeNode<T> balance(TreeNode<T> a) {
+
+		if (a.isLeaf() || a.height < 2) {
+			return a;
+		}
+
+		TreeNode<T> b = a.child1;
+		TreeNode<T> c = a.child2;
+		int balance = c.height - b.height;
+
+		if (balance > 1) {
+			// Rotate c up.
+			rotate(a, c, b);
+			return c;
+		} else if (balance < -1) {
+			// Rotate b up.
+			rotate(a, b, c);
+			return b;
+		}
+
+		return a;
+	}
+
+	/**
+	 * Replaces a branch with one of its children. The taller grandchild
+	 * stays with the promoted child, and the shorter one replaces the
+	 * promoted child under the original branch.
+	 *
+	 * @param a
+	 *            The imbalanced branch.
+	 * @param up
+	 *            The taller child of a, which will replace it.
+	 * @param other
+	 *            The shorter child of a.
+	 */
+	private void rotate(TreeNode<T> a, TreeNode<T> up, TreeNode<T> other) {
+
+		TreeNode<T> f = up.child1;
+		TreeNode<T> g = up.child2;
+
+		// Swap a and up.
+		up.child1 = a;
+		up.parent = a.parent;
+		a.parent = up;
+		if (up.parent == null) {
+			root = up;
+		} else if (up.parent.child1 == a) {
+			up.parent.child1 = up;
+		} else {
+			up.parent.child2 = up;
+		}
+
+		// Keep the taller grandchild under up.
+		TreeNode<T> keep = (f.height > g.height ? f : g);
+		TreeNode<T> move = (keep == f ? g : f);
+		up.child2 = keep;
+		if (a.child1 == up) {
+			a.child1 = move;
+		} else {
+			a.child2 = move;
+		}
+		move.parent = a;
+
+		// Update the boxes and heights.
+		union(other.box, move.box, a.box);
+		a.height = 1 + Math.max(other.height, move.height);
+		union(a.box, keep.box, up.box);
+		up.height = 1 + Math.max(a.height, keep.height);
+
+		return;
+	}
+
+	/**
+	 * Computes the cost of descending into a child when inserting a leaf.
+	 *
+	 * @param child
+	 *            The child.
+	 * @param leaf
+	 *            The leaf being inserted.
+	 * @param scratch
+	 *            An array used to compute the combined box.
+	 * @return The area added to the tree below the child's parent.
+	 */
+	private float descentCost(TreeNode<T> child, TreeNode<T> leaf,
+			float[] scratch) {
+		union(child.box, leaf.box, scratch);
+		float cost = area(scratch);
+		if (!child.isLeaf()) {
+			cost -= area(child.box);
+		}
+		return cost;
+	}
+
+	/**
+	 * Adds all items below a node to a list.
+	 *
+	 * @param node
+	 *            The node.
+	 * @param items
+	 *            The list of items.
+	 */
+	private void collectItems(TreeNode<T> node, List<T> items) {
+		Deque<TreeNode<T>> stack = new ArrayDeque<TreeNode<T>>();
+		stack.push(node);
+		while (!stack.isEmpty()) {
+			node = stack.pop();
+			if (node.isLeaf()) {
+				items.add(node.item);
+			} else {
+				stack.push(node.child1);
+				stack.push(node.child2);
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Gets the minimum and maximum corners of a bounding volume.
+	 *
+	 * @param volume
+	 *            The bounding volume.
+	 * @param bounds
+	 *            An array to hold the minimum x, y, and z followed by the
+	 *            maximum x, y, and z.
+	 */
+	private static void getBounds(BoundingVolume volume, float[] bounds) {
+
+		Vector3f center = volume.getCenter();
+		float x, y, z;
+
+		if (volume instanceof BoundingBox) {
+			BoundingBox box = (BoundingBox) volume;
+			x = box.getXExtent();
+			y = box.getYExtent();
+			z = box.getZExtent();
+		} else if (volume instanceof BoundingSphere) {
+			x = y = z = ((BoundingSphere) volume).getRadius();
+		} else {
+			throw new IllegalArgumentException(
+					"BoundingVolumeHierarchy error: Unsupported bounding volume "
+							+ volume.getClass().getName() + ".");
+		}
+
+		bounds[0] = center.x - x;
+		bounds[1] = center.y - y;
+		bounds[2] = center.z - z;
+		bounds[3] = center.x + x;
+		bounds[4] = center.y + y;
+		bounds[5] = center.z + z;
+
+		return;
+	}
+
+	/**
+	 * Determines whether one box contains another.
+	 *
+	 * @param outer
+	 *            The outer box.
+	 * @param inner
+	 *            The inner box.
+	 * @return True if the inner box is inside the outer box.
+	 */
+	private static boolean contains(float[] outer, float[] inner) {
+		return outer[0] <= inner[0] && outer[1] <= inner[1]
+				&& outer[2] <= inner[2] && outer[3] >= inner[3]
+				&& outer[4] >= inner[4] && outer[5] >= inner[5];
+	}
+
+	/**
+	 * Computes the smallest box containing two boxes.
+	 *
+	 * @param first
+	 *            The first box.
+	 * @param second
+	 *            The second box.
+	 * @param result
+	 *            The array to hold the combined box. This may be one of the
+	 *            other arrays.
+	 */
+	private static void union(float[] first, float[] second, float[] result) {
+		for (int i = 0; i < 3; i++) {
+			result[i] = Math.min(first[i], second[i]);
+			result[i + 3] = Math.max(first[i + 3], second[i + 3]);
+		}
+		return;
+	}
+
+	/**
+	 * Computes the surface area of a box.
+	 *
+	 * @param box
+	 *            The box.
+	 * @return The surface area of the box.
+	 */
+	private static float area(float[] box) {
+		float x = box[3] - box[0];
+		float y = box[4] - box[1];
+		float z = box[5] - box[2];
+		return 2f * (x * y + y * z + z * x);
+	}
+
+	/**
+	 * Computes where a ray enters a box.
+	 *
+	 * @param box
+	 *            The box.
+	 * @param origin
+	 *            The origin of the ray.
+	 * @param direction
+	 *            The direction of the ray.
+	 * @param limit
+	 *            The maximum distance along the ray.
+	 * @return The distance along the ray to the box, which is 0 if the origin
+	 *         is inside the box, or -1 if the ray misses the box.
+	 */
+	private static float intersect(float[] box, float[] origin,
+			float[] direction, float limit) {
+
+		float near = 0f;
+		float far = limit;
+
+		// Clip the ray against each pair of parallel faces.
+		for (int i = 0; i < 3; i++) {
+			if (direction[i] == 0f) {
+				// The ray is parallel to the faces, so it must start between
+				// them.
+				if (origin[i] < box[i] || origin[i] > box[i + 3]) {
+					return -1f;
+				}
+			} else {
+				float inverse = 1f / direction[i];
+				float t1 = (box[i] - origin[i]) * inverse;
+				float t2 = (box[i + 3] - origin[i]) * inverse;
+				if (t1 > t2) {
+					float swap = t1;
+					t1 = t2;
+					t2 = swap;
+				}
+				near = Math.max(near, t1);
+				far = Math.min(far, t2);
+				if (near > far) {
+					return -1f;
+				}
+			}
+		}
+
+		return near;
+	}
+
+	/**
+	 * Classifies a box against a set of planes.
+	 *
+	 * @param box
+	 *            The box.
+	 * @param planes
+	 *            The planes.
+	 * @return 1 if the box is on the positive side of every plane, -1 if it
+	 *         is entirely on the negative side of any plane, or 0 otherwise.
+	 */
+	private static int classify(float[] box, Plane[] planes) {
+
+		int result = 1;
+
+		for (Plane plane : planes) {
+			Vector3f normal = plane.getNormal();
+			float constant = plane.getConstant();
+
+			// Find the corners of the box that are farthest along and against
+			// the normal.
+			float max = -constant;
+			float min = -constant;
+			float[] n = new float[] { normal.x, normal.y, normal.z };
+			for (int i = 0; i < 3; i++) {
+				if (n[i] >= 0f) {
+					max += n[i] * box[i + 3];
+					min += n[i] * box[i];
+				} else {
+					max += n[i] * box[i];
+					min += n[i] * box[i + 3];
+				}
+			}
+
+			if (max < 0f) {
+				return -1;
+			} else if (min < 0f) {
+				result = 0;
+			}
+		}
+
+		return result;
+	}
+}
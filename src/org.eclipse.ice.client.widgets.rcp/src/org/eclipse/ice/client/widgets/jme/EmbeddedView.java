@@ -18,6 +18,11 @@ import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.awt.image.WritableRaster;
@@ -25,7 +30,6 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -36,6 +40,8 @@ import org.slf4j.LoggerFactory;
 
 import com.jme3.app.Application;
 import com.jme3.input.InputManager;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
 import com.jme3.post.SceneProcessor;
 import com.jme3.renderer.Camera;
 import com.jme3.renderer.RenderManager;
@@ -76,6 +82,15 @@ import com.jme3.util.BufferUtils;
  * <b>Note:</b> For each {@code EmbeddedView}, there can be only one embedded
  * {@code Frame} and one registered {@code IEmbeddedViewClient} at a time.
  * </p>
+ * <p>
+ * When its {@link MasterApplication} renders on demand, a view's scene is only
+ * rendered when the client's scene, the camera or the size of the view has
+ * changed. Changes made through {@link Application#enqueue(Callable)} and
+ * input events on the view are detected automatically. Clients that change
+ * their scene in some other way should call {@link #requestRender()}, and
+ * clients that animate their scene should enable
+ * {@link #setContinuousRendering(boolean)} while the animation runs.
+ * </p>
  * 
  * @author Jordan
  * 
@@ -131,21 +146,91 @@ public class EmbeddedView implements SceneProcessor {
 	private final ComponentListener componentListener;
 	// ----------------------------- //
 
+	/**
+	 * This listens for mouse events from the {@link #renderPanel}. Input
+	 * usually moves the camera or changes the scene, so the view is rendered
+	 * after each event.
+	 */
+	private final MouseAdapter mouseListener;
+	/**
+	 * This listens for key events from the {@link #renderPanel} and requests a
+	 * render after each event.
+	 */
+	private final KeyAdapter keyListener;
+	// ----------------------------- //
+
 	// ---- AWT Resize Event throttling ---- //
+	/**
+	 * The minimum time in nanoseconds between notifications sent to the
+	 * {@link #client} when the {@link #renderPanel} changes size.
+	 */
+	private static final long RESIZE_INTERVAL = 100000000L;
 	/**
 	 * A reference to the current AWT <code>Component</code> resize event. The
-	 * value may be null.
+	 * value may be null. The event is processed on the render thread, no more
+	 * often than every {@link #RESIZE_INTERVAL} nanoseconds.
 	 */
 	private final AtomicReference<ComponentEvent> resizeEvent;
 	/**
-	 * The currently executing Thread that throttles AWT <code>Component</code>
-	 * resize events to keep from clogging the render thread when the
-	 * {@link #client} is notified that the {@link #renderPanel} has changed
-	 * size.
+	 * The time in nanoseconds at which the last resize event was processed.
 	 */
-	private Thread resizeThread;
+	private long lastResizeTime;
 	// ------------------------------------- //
 
+	// ---- Render-on-demand ---- //
+	/**
+	 * Whether or not the view must be rendered on the next frame.
+	 */
+	private final AtomicBoolean renderRequested = new AtomicBoolean(true);
+	/**
+	 * Whether or not the view should be rendered every frame, e.g. while its
+	 * scene is animated.
+	 */
+	private final AtomicBoolean continuousRendering = new AtomicBoolean(false);
+	/**
+	 * The count of tasks queued for the {@link #app} when the view was last
+	 * rendered. This is only used on the render thread.
+	 */
+	private long lastTaskCount = -1L;
+	/**
+	 * The location of the {@link #camRenderer} when the view was last
+	 * rendered.
+	 */
+	private final Vector3f lastCameraLocation = new Vector3f();
+	/**
+	 * The rotation of the {@link #camRenderer} when the view was last
+	 * rendered.
+	 */
+	private final Quaternion lastCameraRotation = new Quaternion();
+	/**
+	 * The frustum (left, right, bottom, top, near and far) of the
+	 * {@link #camRenderer} when the view was last rendered.
+	 */
+	private final float[] lastCameraFrustum = new float[6];
+	/**
+	 * The time in nanoseconds at which the main {@link #viewPort} started
+	 * rendering the current frame.
+	 */
+	private long frameStartTime;
+	/**
+	 * The time in nanoseconds spent rendering the view's last frame.
+	 */
+	private volatile long lastFrameTime;
+	/**
+	 * The total time in nanoseconds spent rendering the view.
+	 */
+	private volatile long totalFrameTime;
+	/**
+	 * The number of frames in which the view was rendered.
+	 */
+	private volatile long renderedFrames;
+	/**
+	 * The number of frames in which the view was not rendered because it had
+	 * not changed.
+	 */
+	private volatile long skippedFrames;
+	// -------------------------- //
+
 	// ---- Client-dependent properties ---- //
 	/**
 	 * The current client that is using this {@code EmbeddedView}. Only one
@@ -165,8 +250,8 @@ public class EmbeddedView implements SceneProcessor {
 
 	/**
 	 * The current AWT {@code Frame} used to render the {@code EmbeddedView}.
-	 * This is an <code>AtomicReference</code> because the {@link #resizeThread}
-	 * uses it to determine if the view is currently embedded.
+	 * This is an <code>AtomicReference</code> because the render thread uses
+	 * it to determine if the view is currently embedded.
 	 */
 	private final AtomicReference<Frame> embeddedFrame;
 
@@ -284,8 +369,8 @@ public class EmbeddedView implements SceneProcessor {
 
 		// Create a ComponentListener to notify the client when the window has
 		// resized. Currently, this listener just updates resizeEvent when such
-		// an event has occurred. The resizeThread reads this event periodically
-		// and passes a notification to the client.
+		// an event has occurred. The render thread reads this event before
+		// each frame and passes a notification to the client.
 		resizeEvent = new AtomicReference<ComponentEvent>(null);
 		componentListener = new ComponentListener() {
 			@Override
@@ -301,14 +386,59 @@ public class EmbeddedView implements SceneProcessor {
 			@Override
 			public void componentResized(ComponentEvent event) {
 				resizeEvent.set(event);
+				requestRender();
 			}
 
 			@Override
 			public void componentShown(ComponentEvent event) {
-				// Nothing to do.
+				requestRender();
 			}
 		};
 
+		// Create the input listeners that request a new frame when the user
+		// interacts with the view.
+		mouseListener = new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent event) {
+				requestRender();
+			}
+
+			@Override
+			public void mouseReleased(MouseEvent event) {
+				requestRender();
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent event) {
+				requestRender();
+			}
+
+			@Override
+			public void mouseMoved(MouseEvent event) {
+				requestRender();
+			}
+
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent event) {
+				requestRender();
+			}
+		};
+		keyListener = new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent event) {
+				requestRender();
+			}
+
+			@Override
+			public void keyReleased(KeyEvent event) {
+				requestRender();
+			}
+		};
+		renderPanel.addMouseListener(mouseListener);
+		renderPanel.addMouseMotionListener(mouseListener);
+		renderPanel.addMouseWheelListener(mouseListener);
+		renderPanel.addKeyListener(keyListener);
+
 		return;
 	}
 
@@ -357,6 +487,9 @@ public class EmbeddedView implements SceneProcessor {
 					renderPanel.addFocusListener(focusListener);
 					renderPanel.addComponentListener(componentListener);
 
+					// Render the client's scene.
+					requestRender();
+
 					return true;
 				}
 			});
@@ -438,10 +571,8 @@ public class EmbeddedView implements SceneProcessor {
 			// Add the render panel to the Frame.
 			embeddedFrame.add(renderPanel, BorderLayout.CENTER);
 
-			// Start a thread to throttle panel resize events.
-			resizeThread = createResizeThread();
-			resizeThread.setDaemon(true);
-			resizeThread.start();
+			// Render the view in its new Frame.
+			requestRender();
 
 			// If necessary, notify the client of the panel's size.
 			if (client != null) {
@@ -477,9 +608,8 @@ public class EmbeddedView implements SceneProcessor {
 			// Remove the render panel from the Frame.
 			frame.remove(renderPanel);
 
-			// Set the resize throttling thread to null. It should terminate on
-			// its own now that embeddedFrame is null.
-			resizeThread = null;
+			// Discard any resize event that has not been processed.
+			resizeEvent.set(null);
 
 			// If necessary, disable the client's camera.
 			if (client != null) {
@@ -542,8 +672,196 @@ public class EmbeddedView implements SceneProcessor {
 		return HUD;
 	}
 
+	/**
+	 * Gets whether or not the view is rendered every frame.
+	 * 
+	 * @return True if the view is rendered continuously, false if it is only
+	 *         rendered when it changes.
+	 * @see #setContinuousRendering(boolean)
+	 */
+	public boolean isContinuousRendering() {
+		return continuousRendering.get();
+	}
+
+	/**
+	 * Sets whether or not the view should be rendered every frame, even if its
+	 * scene, camera and size have not changed. Clients should enable this
+	 * while animating their scene and disable it afterward.
+	 * 
+	 * @param continuous
+	 *            Whether or not to render the view every frame.
+	 */
+	public void setContinuousRendering(boolean continuous) {
+		continuousRendering.set(continuous);
+		requestRender();
+	}
+
+	/**
+	 * Gets the time spent rendering the view's last frame.
+	 * 
+	 * @return The time in milliseconds.
+	 */
+	public double getLastFrameTime() {
+		return lastFrameTime * 1e-6;
+	}
+
+	/**
+	 * Gets the average time spent rendering each of the view's frames.
+	 * 
+	 * @return The time in milliseconds, or 0 if the view has not been rendered.
+	 */
+	public double getAverageFrameTime() {
+		long frames = renderedFrames;
+		return (frames > 0 ? totalFrameTime * 1e-6 / frames : 0.0);
+	}
+
+	/**
+	 * Gets the number of frames in which this view was rendered.
+	 * 
+	 * @return The number of rendered frames.
+	 */
+	public long getRenderedFrameCount() {
+		return renderedFrames;
+	}
+
+	/**
+	 * Gets the number of frames in which this view was not rendered because
+	 * nothing in it had changed.
+	 * 
+	 * @return The number of skipped frames.
+	 */
+	public long getSkippedFrameCount() {
+		return skippedFrames;
+	}
+
 	// ----------------------------- //
 
+	/**
+	 * Requests that the view be rendered on the next frame. This is only
+	 * necessary for changes to the client's scene that are not made through
+	 * the {@code Application}'s render queue. It may be called from any
+	 * thread.
+	 */
+	public void requestRender() {
+		renderRequested.set(true);
+		// Wake the render thread if it is idle.
+		if (app instanceof MasterApplication) {
+			((MasterApplication) app).requestRender();
+		}
+	}
+
+	/**
+	 * Determines whether or not the view should be rendered in the current
+	 * frame and enables or disables its {@code ViewPort}s accordingly. Pending
+	 * resize events are also processed. This is called by the
+	 * {@link MasterApplication} on the render thread after the application
+	 * state has been updated and before the scene is rendered.
+	 * 
+	 * @param onDemand
+	 *            Whether or not the view should only be rendered when it has
+	 *            changed. If false, the view is always rendered.
+	 * @param taskCount
+	 *            The number of tasks queued for the {@code Application} so
+	 *            far. If it has changed since the last frame, the client's
+	 *            scene may have changed.
+	 * @return True if the view will be rendered, false otherwise.
+	 */
+	boolean prepareFrame(boolean onDemand, long taskCount) {
+
+		// Process any pending resize event.
+		final ComponentEvent e = resizeEvent.get();
+		if (e != null) {
+			long time = System.nanoTime();
+			if (time - lastResizeTime >= RESIZE_INTERVAL
+					&& resizeEvent.compareAndSet(e, null)) {
+				lastResizeTime = time;
+				resize();
+			} else {
+				// Come back to it on a later frame.
+				requestRender();
+			}
+		}
+
+		// Check the camera, which is cheap, even if a render was requested so
+		// that the last known state is always current.
+		boolean cameraChanged = updateCameraState();
+
+		// Determine whether anything has changed.
+		boolean render = renderRequested.getAndSet(false) | cameraChanged
+				| taskCount != lastTaskCount | continuousRendering.get()
+				| !onDemand;
+		lastTaskCount = taskCount;
+
+		// Enable or disable the ViewPorts and update the frame counts. A view
+		// that is not embedded in a Frame cannot be seen, so it is not counted.
+		viewPort.setEnabled(render);
+		guiViewPort.setEnabled(render);
+		if (!render && embeddedFrame.get() != null) {
+			skippedFrames++;
+		}
+
+		return render;
+	}
+
+	/**
+	 * Notifies the client of the {@link #renderPanel}'s current size and
+	 * resizes the {@link #camRenderer}. This must be called from the render
+	 * thread.
+	 */
+	private void resize() {
+		// Get the width and height of the render panel, then update the
+		// client.
+		int width = renderPanel.getWidth();
+		int height = renderPanel.getHeight();
+
+		// Update the camera's size and aspect ratio. This is done so that
+		// objects on the edge won't be culled by mistake.
+		camRenderer.resize(width, height, true);
+
+		// Tell the client of the resize event.
+		if (client != null) {
+			client.updateHUD(this, width, height);
+			client.viewResized(this, width, height);
+		}
+
+		return;
+	}
+
+	/**
+	 * Compares the {@link #camRenderer} with its state when the view was last
+	 * rendered and stores its current state.
+	 * 
+	 * @return True if the camera has moved or its frustum has changed, false
+	 *         otherwise.
+	 */
+	private boolean updateCameraState() {
+
+		boolean changed = false;
+
+		Vector3f location = camRenderer.getLocation();
+		if (!location.equals(lastCameraLocation)) {
+			lastCameraLocation.set(location);
+			changed = true;
+		}
+		Quaternion rotation = camRenderer.getRotation();
+		if (!rotation.equals(lastCameraRotation)) {
+			lastCameraRotation.set(rotation);
+			changed = true;
+		}
+		float[] frustum = { camRenderer.getFrustumLeft(),
+				camRenderer.getFrustumRight(), camRenderer.getFrustumBottom(),
+				camRenderer.getFrustumTop(), camRenderer.getFrustumNear(),
+				camRenderer.getFrustumFar() };
+		for (int i = 0; i < frustum.length; i++) {
+			if (frustum[i] != lastCameraFrustum[i]) {
+				lastCameraFrustum[i] = frustum[i];
+				changed = true;
+			}
+		}
+
+		return changed;
+	}
+
 	/**
 	 * This operation is used to clean up any resources in case a programmer was
 	 * lazy or uninformed and forgot to clean up the {@code EmbeddedView} before
@@ -572,6 +890,13 @@ public class EmbeddedView implements SceneProcessor {
 		// Restore the default camera location.
 		camRenderer.copyFrom(app.getCamera());
 
+		// Stop rendering the view until it is used again. The MasterApplication
+		// only prepares the ViewPorts of views that are in use.
+		continuousRendering.set(false);
+		viewPort.setEnabled(false);
+		guiViewPort.setEnabled(false);
+		requestRender();
+
 		return;
 	}
 
@@ -585,82 +910,10 @@ public class EmbeddedView implements SceneProcessor {
 		return renderPanel;
 	}
 
-	/**
-	 * Creates a {@code Thread} that loops while the {@link #renderPanel} is
-	 * embedded inside the {@link #embeddedFrame} and handles all of the panel's
-	 * resize events written to {@link #resizeEvent}. It pauses for a period
-	 * before processing each resize event and does not process the next one
-	 * until the render thread responds that the previous notification has been
-	 * processed. The resize events are sent to the client.
-	 * 
-	 * @return A new thread that throttles the resize events received by
-	 *         {@link #componentListener}.
-	 */
-	private Thread createResizeThread() {
-		return new Thread() {
-			@Override
-			public void run() {
-				// The minimum amount of time to sleep between each attempt to
-				// notify the client of a change in size.
-				int sleepTime = 100;
-
-				// Loop as long as the renderPanel is embedded (visible).
-				while (embeddedFrame.get() != null) {
-
-					// If there is an unprocessed resize event, process it.
-					final ComponentEvent e = resizeEvent.getAndSet(null);
-					if (e != null) {
-
-						// Enqueue a notification for the client to the app's
-						// render thread.
-						try {
-							app.enqueue(new Callable<Boolean>() {
-								@Override
-								public Boolean call() {
-									// Get the width and height of the render
-									// panel, then update the client.
-									int width = renderPanel.getWidth();
-									int height = renderPanel.getHeight();
-
-									// Update the camera's size and aspect
-									// ratio. This is done so that objects on
-									// the edge won't be culled by mistake.
-									camRenderer.resize(width, height, true);
-
-									// Tell the client of the resize event.
-									client.updateHUD(EmbeddedView.this, width,
-											height);
-									client.viewResized(EmbeddedView.this,
-											width, height);
-
-									return true;
-								}
-							}).get();
-							// The above get() makes sure the thread blocks
-							// until the render thread finishes this operation.
-						} catch (InterruptedException exception) {
-							exception.printStackTrace();
-						} catch (ExecutionException exception) {
-							exception.printStackTrace();
-						}
-					}
-
-					// Sleep between each attempt to notify the client.
-					try {
-						Thread.sleep(sleepTime);
-					} catch (InterruptedException exception) {
-						exception.printStackTrace();
-					}
-				}
-
-				return;
-			}
-		};
-	}
-
 	// ---- Implements SceneProcessor ---- //
-	// This interface is used to take screenshots. The code in this section is
-	// based off of jME's ScreenshotAppState.
+	// This interface is used to take screenshots and to time each frame. The
+	// screenshot code in this section is based off of jME's
+	// ScreenshotAppState.
 
 	/**
 	 * Cleans up resources used by this class as a {@link SceneProcessor}.
@@ -707,11 +960,11 @@ public class EmbeddedView implements SceneProcessor {
 	}
 
 	/**
-	 * Does nothing.
+	 * Starts timing the frame.
 	 */
 	@Override
 	public void preFrame(float tpf) {
-		// Nothing to do.
+		frameStartTime = System.nanoTime();
 	}
 
 	/**
@@ -723,10 +976,19 @@ public class EmbeddedView implements SceneProcessor {
 	}
 
 	/**
-	 * Takes the screenshot after the frame has been rendered.
+	 * Records the frame time and takes the screenshot after the frame has been
+	 * rendered.
 	 */
 	@Override
 	public void postFrame(FrameBuffer out) {
+
+		// Update the frame statistics. These fields are only written from the
+		// render thread.
+		long frameTime = System.nanoTime() - frameStartTime;
+		lastFrameTime = frameTime;
+		totalFrameTime += frameTime;
+		renderedFrames++;
+
 		if (takeScreenshot.compareAndSet(true, false)) {
 
 			// The code between this comment and the next big one comes from
@@ -818,6 +1080,8 @@ public class EmbeddedView implements SceneProcessor {
 				&& (!file.exists() || file.isFile() && file.canWrite())) {
 			screenshotFile = file;
 			takeScreenshot.set(true);
+			// Make sure the view is rendered so the screenshot can be taken.
+			requestRender();
 		}
 	}
 }
@@ -18,12 +18,15 @@ import java.awt.Point;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +34,9 @@ import org.slf4j.LoggerFactory;
 import com.jme3.app.DebugKeysAppState;
 import com.jme3.app.SimpleApplication;
 import com.jme3.app.StatsAppState;
+import com.jme3.app.state.AbstractAppState;
 import com.jme3.font.BitmapFont;
+import com.jme3.renderer.RenderManager;
 import com.jme3.system.AppSettings;
 import com.jme3.system.JmeSystem;
 import com.jme3.system.Natives;
@@ -73,7 +78,13 @@ import com.jme3.system.awt.PaintMode;
  * <br>
  * MasterApplication is built on {@link AwtPanel}s and the
  * {@link AwtPanelsContext}. AwtPanels (and any associated objects contained in
- * the EmbeddedView class) are reused when possible.
+ * the EmbeddedView class) are reused when possible.<br>
+ * <br>
+ * By default, the MasterApplication renders on demand. Each EmbeddedView is
+ * only rendered when its scene, camera or size changes (see
+ * {@link EmbeddedView#requestRender()}), and the render thread waits for a
+ * request when no view has changed instead of rendering idle frames. This can
+ * be disabled with {@link #setRenderOnDemand(boolean)}.
  *
  * @author Jordan Deyton
  *
@@ -126,6 +137,42 @@ public class MasterApplication extends SimpleApplication {
 	 */
 	private final AtomicBoolean initialized;
 
+	/**
+	 * The longest time, in milliseconds, that the render thread waits for a
+	 * render request when no view has changed. Frames are still processed at
+	 * this interval so that AppStates and input are updated.
+	 */
+	private static final long IDLE_FRAME_INTERVAL = 250L;
+
+	/**
+	 * Whether or not views are only rendered when they change.
+	 */
+	private final AtomicBoolean renderOnDemand;
+
+	/**
+	 * The number of tasks that have been queued for the render thread. Views
+	 * compare this with the count from the last frame to determine if their
+	 * scenes may have changed.
+	 */
+	private final AtomicLong taskCount;
+
+	/**
+	 * The lock used by the render thread to wait for render requests.
+	 */
+	private final Object renderLock;
+
+	/**
+	 * Whether or not a render has been requested since the render thread last
+	 * checked. Guarded by {@link #renderLock}.
+	 */
+	private boolean renderRequested;
+
+	/**
+	 * Whether or not any view was rendered in the last frame. This is only used
+	 * on the render thread.
+	 */
+	private boolean viewsRendered;
+
 	/**
 	 * The default constructor. You should use {@link #createApplication()}
 	 * instead. Only use this <b>if you know what you are doing</b>.
@@ -138,8 +185,10 @@ public class MasterApplication extends SimpleApplication {
 		// Initialize the integer used to give unique IDs to client views.
 		viewId = new AtomicInteger();
 
-		// Create the collections of used and unused views.
-		usedViews = new ArrayList<EmbeddedView>();
+		// Create the collections of used and unused views. The used views are
+		// read by the render thread every frame, so the list must be safe to
+		// iterate while views are acquired and released.
+		usedViews = new CopyOnWriteArrayList<EmbeddedView>();
 		unusedViews = new LinkedList<EmbeddedView>();
 
 		// Create the FocusListener responsible for setting the
@@ -190,6 +239,13 @@ public class MasterApplication extends SimpleApplication {
 		// Create the initialized flag.
 		initialized = new AtomicBoolean(false);
 
+		// Set up the render-on-demand state.
+		renderOnDemand = new AtomicBoolean(true);
+		taskCount = new AtomicLong();
+		renderLock = new Object();
+		renderRequested = true;
+		viewsRendered = true;
+
 		return;
 	}
 
@@ -253,6 +309,9 @@ public class MasterApplication extends SimpleApplication {
 	public void stop() {
 		super.stop();
 
+		// Wake the render thread so that it can exit.
+		requestRender();
+
 		// Dispose all used EmbeddedViews.
 		for (EmbeddedView view : usedViews) {
 			view.getRenderPanel().removeFocusListener(focusListener);
@@ -326,6 +385,13 @@ public class MasterApplication extends SimpleApplication {
 		// If we view can be removed from the list of used views, then we should
 		// add it to the collection of unused views for re-use later.
 		if (usedViews.remove(embeddedView)) {
+			// Report the view's frame statistics.
+			logger.debug("MasterApplication message: View "
+					+ embeddedView.getID() + " rendered "
+					+ embeddedView.getRenderedFrameCount() + " frames in "
+					+ embeddedView.getAverageFrameTime() + " ms on average and "
+					+ "skipped " + embeddedView.getSkippedFrameCount()
+					+ " frames.");
 			// Clean up the EmbeddedView before letting it be re-used elsewhere.
 			embeddedView.cleanupView();
 			unusedViews.add(embeddedView);
@@ -341,10 +407,113 @@ public class MasterApplication extends SimpleApplication {
 	 */
 	@Override
 	public void simpleInitApp() {
+		// Attach the AppState that decides which views to render each frame.
+		// Its render() method is called after all AppStates and the scene
+		// have been updated, but before the ViewPorts are rendered.
+		stateManager.attach(new AbstractAppState() {
+			@Override
+			public void render(RenderManager rm) {
+				prepareViews();
+			}
+		});
+
 		// Set the initialized flag to true.
 		initialized.set(true);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.jme3.app.SimpleApplication#update()
+	 */
+	@Override
+	public void update() {
+		// If no view changed in the last frame, wait for a render request
+		// before processing the next frame.
+		if (renderOnDemand.get() && !viewsRendered) {
+			synchronized (renderLock) {
+				if (!renderRequested) {
+					try {
+						renderLock.wait(IDLE_FRAME_INTERVAL);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				renderRequested = false;
+			}
+		}
+
+		super.update();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.jme3.app.Application#enqueue(java.util.concurrent.Callable)
+	 */
+	@Override
+	public <V> Future<V> enqueue(Callable<V> callable) {
+		Future<V> future = super.enqueue(callable);
+		// Queued tasks usually change a scene. The count is incremented after
+		// the task is queued so that any view that sees the new count is
+		// rendered after the task has run.
+		taskCount.incrementAndGet();
+		requestRender();
+		return future;
+	}
+
+	/**
+	 * Wakes the render thread if it is waiting for a view to change. Views
+	 * request renders themselves via {@link EmbeddedView#requestRender()},
+	 * which calls this method.
+	 */
+	public void requestRender() {
+		synchronized (renderLock) {
+			renderRequested = true;
+			renderLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Gets whether or not views are only rendered when they change.
+	 *
+	 * @return True if rendering on demand, false if every view is rendered
+	 *         every frame.
+	 */
+	public boolean isRenderOnDemand() {
+		return renderOnDemand.get();
+	}
+
+	/**
+	 * Sets whether or not views are only rendered when they change. If
+	 * disabled, every view is rendered every frame.
+	 *
+	 * @param onDemand
+	 *            Whether or not to render on demand.
+	 */
+	public void setRenderOnDemand(boolean onDemand) {
+		renderOnDemand.set(onDemand);
+		requestRender();
+	}
+
+	/**
+	 * Enables the ViewPorts of the views that must be rendered in the current
+	 * frame and disables the rest. This must be called on the render thread.
+	 */
+	private void prepareViews() {
+
+		boolean onDemand = renderOnDemand.get();
+		long tasks = taskCount.get();
+
+		boolean rendered = false;
+		for (EmbeddedView view : usedViews) {
+			rendered |= view.prepareFrame(onDemand, tasks);
+		}
+		viewsRendered = rendered;
+
+		return;
+	}
+
 	/**
 	 * @return Whether or not the <code>MasterApplication</code> has been
 	 *         initialized yet. Adding any <code>ViewAppState</code>s should
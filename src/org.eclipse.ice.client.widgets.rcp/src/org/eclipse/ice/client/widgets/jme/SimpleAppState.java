@@ -610,6 +610,35 @@ public abstract class SimpleAppState implements AppState, IRenderQueue {
 		return results;
 	}
 
+	/**
+	 * Gets a {@link CollisionResults} between the items in a
+	 * {@link BoundingVolumeHierarchy} and a {@link Ray}. Only the items whose
+	 * bounds are hit by the ray are tested for exact collisions, so this is
+	 * much cheaper than testing the ray against a parent Node with many
+	 * children.
+	 *
+	 * @param hierarchy
+	 *            The hierarchy containing the objects we are trying to hit.
+	 * @param ray
+	 *            A ray that is being cast at the objects.
+	 * @return A CollisionResults for the collision between the objects and
+	 *         the ray.
+	 */
+	public CollisionResults getCollision(
+			BoundingVolumeHierarchy<? extends Collidable> hierarchy, Ray ray) {
+		// Create a new results list.
+		CollisionResults results = new CollisionResults();
+
+		// Test only the candidates whose bounds are hit by the ray.
+		if (hierarchy != null && ray != null) {
+			for (Collidable candidate : hierarchy.pick(ray)) {
+				candidate.collideWith(ray, results);
+			}
+		}
+
+		return results;
+	}
+
 	/**
 	 * Gets a Ray from the crosshair's location to the grid. This uses the
 	 * camera's position and direction.
@@ -548,6 +548,19 @@ public abstract class ViewAppState extends CompositeAppState implements
 		return embeddedView;
 	}
 
+	/**
+	 * Requests that the <code>EmbeddedView</code> be rendered on the next
+	 * frame. This should be called when the scene is changed outside of the
+	 * <code>Application</code>'s render queue, for instance from
+	 * {@link #update(float)}. It may be called from any thread.
+	 */
+	public void requestRender() {
+		EmbeddedView view = embeddedView;
+		if (view != null) {
+			view.requestRender();
+		}
+	}
+
 	// ----------------------------- //
 
 	// ---- Implements IEmbeddedViewClient ---- //
@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.eclipse.ice.client.widgets.jme.BoundingVolumeHierarchy;
 import org.eclipse.ice.client.widgets.jme.InputControl;
 import org.eclipse.ice.datastructures.form.mesh.Edge;
 import org.eclipse.ice.datastructures.form.mesh.Hex;
@@ -33,6 +34,7 @@ import com.jme3.math.Ray;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
 
 /**
  * This {@link MeshAppStateMode} allows the user to add additional polygons to
@@ -51,10 +53,10 @@ public class AddMode extends MeshAppStateMode {
 	 */
 	private Geometry grid;
 	/**
-	 * The parent <code>Node</code> containing spatials in the scene for all
-	 * {@link Vertex}es in the {@link #mesh}.
+	 * The index of the spatials in the scene for all {@link Vertex vertices}
+	 * in the {@link #mesh}. It is used to pick vertices.
 	 */
-	private Node vertexSpatials;
+	private BoundingVolumeHierarchy<Spatial> vertexIndex;
 	/**
 	 * The update queue for the <code>MeshAppState</code>.
 	 */
@@ -169,7 +171,7 @@ public class AddMode extends MeshAppStateMode {
 
 		// Set up all of the variables used to update the scene.
 		grid = appState.getGrid();
-		vertexSpatials = appState.getVertexSpatials();
+		vertexIndex = appState.getVertexIndex();
 		updateQueue = appState.getUpdateQueue();
 
 		return;
@@ -278,7 +280,7 @@ public class AddMode extends MeshAppStateMode {
 
 		// Clear variables used to update the scene.
 		grid = null;
-		vertexSpatials = null;
+		vertexIndex = null;
 		updateQueue = null;
 
 		return;
@@ -450,7 +452,7 @@ public class AddMode extends MeshAppStateMode {
 
 		CollisionResults results;
 
-		if ((results = getCollision(vertexSpatials, ray)).size() > 0) {
+		if ((results = getCollision(vertexIndex, ray)).size() > 0) {
 			// Get the ID from the name of the nearest collision (a VertexView).
 			int id = Integer.parseInt(results.getClosestCollision()
 					.getGeometry().getName());
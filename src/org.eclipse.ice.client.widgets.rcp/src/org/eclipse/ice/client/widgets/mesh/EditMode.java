@@ -22,6 +22,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.eclipse.ice.client.widgets.jme.BoundingVolumeHierarchy;
 import org.eclipse.ice.client.widgets.jme.InputControl;
 import org.eclipse.ice.datastructures.form.mesh.Vertex;
 
@@ -36,6 +37,7 @@ import com.jme3.input.controls.MouseAxisTrigger;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
 
 /**
  * This {@link MeshAppStateMode} allows the user to select available vertices
@@ -55,10 +57,10 @@ public class EditMode extends MeshAppStateMode implements
 	 */
 	private Geometry grid;
 	/**
-	 * The parent {@link Node} containing spatials in the scene for all
-	 * {@link Vertex vertices} in the {@link #mesh}.
+	 * The index of the spatials in the scene for all {@link Vertex vertices}
+	 * in the {@link #mesh}. It is used to pick vertices.
 	 */
-	private Node vertexSpatials;
+	private BoundingVolumeHierarchy<Spatial> vertexIndex;
 	/**
 	 * The update queue for the <code>MeshAppState</code>.
 	 */
@@ -227,7 +229,7 @@ public class EditMode extends MeshAppStateMode implements
 
 		// Get the fields of interest from the MeshAppState.
 		grid = appState.getGrid();
-		vertexSpatials = appState.getVertexSpatials();
+		vertexIndex = appState.getVertexIndex();
 		updateQueue = appState.getUpdateQueue();
 
 		return;
@@ -376,7 +378,7 @@ public class EditMode extends MeshAppStateMode implements
 
 		// Clear references to the MeshAppState fields.
 		grid = null;
-		vertexSpatials = null;
+		vertexIndex = null;
 		updateQueue = null;
 
 		super.clearScene();
@@ -512,7 +514,7 @@ public class EditMode extends MeshAppStateMode implements
 
 				// Get the Vertex for the clicked geometry if possible and add
 				// it to the collection of selected vertices.
-				CollisionResults results = getCollision(vertexSpatials,
+				CollisionResults results = getCollision(vertexIndex,
 						appState.getCursorRayFromClick());
 				Vertex clickedVertex = null;
 				int id = 0;
@@ -22,6 +22,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.eclipse.ice.client.widgets.jme.BoundingVolumeHierarchy;
 import org.eclipse.ice.client.widgets.jme.EmbeddedView;
 import org.eclipse.ice.client.widgets.jme.InputControl;
 import org.eclipse.ice.client.widgets.jme.MasterApplication;
@@ -29,6 +30,7 @@ import org.eclipse.ice.client.widgets.jme.SimpleAppState;
 import org.eclipse.ice.client.widgets.jme.ViewAppState;
 import org.eclipse.ice.client.widgets.mesh.MeshAppStateModeFactory.Mode;
 import org.eclipse.ice.datastructures.form.mesh.Edge;
+import org.eclipse.ice.datastructures.form.mesh.MeshChangeLog;
 import org.eclipse.ice.datastructures.form.mesh.MeshComponent;
 import org.eclipse.ice.datastructures.form.mesh.Polygon;
 import org.eclipse.ice.datastructures.form.mesh.Vertex;
@@ -40,7 +42,6 @@ import com.jme3.bullet.BulletAppState;
 import com.jme3.bullet.collision.shapes.BoxCollisionShape;
 import com.jme3.bullet.control.CharacterControl;
 import com.jme3.collision.Collidable;
-import com.jme3.collision.CollisionResults;
 import com.jme3.font.BitmapFont;
 import com.jme3.font.BitmapText;
 import com.jme3.input.InputManager;
@@ -54,6 +55,7 @@ import com.jme3.material.Material;
 import com.jme3.material.RenderState.BlendMode;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.FastMath;
+import com.jme3.math.Plane;
 import com.jme3.math.Quaternion;
 import com.jme3.math.Ray;
 import com.jme3.math.Vector3f;
@@ -62,6 +64,7 @@ import com.jme3.renderer.queue.RenderQueue.Bucket;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Mesh;
 import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
 import com.jme3.scene.VertexBuffer.Type;
 import com.jme3.scene.debug.Grid;
 import com.jme3.scene.shape.Quad;
@@ -106,6 +109,18 @@ public class MeshAppState extends ViewAppState implements
 	 * This <code>Node</code> contains the spatials for all temporary objects.
 	 */
 	private final Node tempRoot;
+
+	/**
+	 * An index of the world bounds of the spatials in {@link #vertexRoot}. It
+	 * is updated as vertex controllers are synced so that vertices can be
+	 * picked without testing every vertex.
+	 */
+	private final BoundingVolumeHierarchy<Spatial> vertexIndex;
+
+	/**
+	 * The plane containing the grid's surface.
+	 */
+	private static final Plane gridPlane = new Plane(Vector3f.UNIT_Z, 0f);
 	// -------------------------- //
 
 	// ---- Grid properties ---- //
@@ -249,9 +264,10 @@ public class MeshAppState extends ViewAppState implements
 	 */
 	private final ConcurrentLinkedQueue<AbstractMeshController> updateQueue;
 	/**
-	 * A handler to listen for updates from the mesh. We use a separate thread
-	 * for this to isolate the update code and ensure that critical data
-	 * structures are not manipulated simultaneously in multiple threads.
+	 * A handler to listen for updates from the mesh. It queues the updates so
+	 * that they are applied once per frame on the render thread, which ensures
+	 * that critical data structures are not manipulated simultaneously in
+	 * multiple threads.
 	 */
 	private final MeshUpdateHandler meshUpdateHandler;
 	// -------------------------------------------- //
@@ -358,6 +374,7 @@ public class MeshAppState extends ViewAppState implements
 		vertexRoot = new Node("vertices");
 		edgeRoot = new Node("edges");
 		tempRoot = new Node("tempSpatials");
+		vertexIndex = new BoundingVolumeHierarchy<Spatial>();
 
 		// Create the mode factory. We should add all available modes to this
 		// CompositeAppState but initially disable them.
@@ -799,8 +816,9 @@ public class MeshAppState extends ViewAppState implements
 	}
 
 	/**
-	 * Updates the player location, coordinates in the HUD, and syncs all
-	 * <code>AbstractMeshController</code>s in the {@link #updateQueue}.
+	 * Updates the player location, coordinates in the HUD, applies any pending
+	 * changes to the mesh, and syncs all <code>AbstractMeshController</code>s
+	 * in the {@link #updateQueue}.
 	 * 
 	 * @see org.eclipse.ice.client.widgets.jme.SimpleAppState#update(float)
 	 */
@@ -856,15 +874,18 @@ public class MeshAppState extends ViewAppState implements
 
 			// Update the cursor's coordinates in the HUD. The cursor's position
 			// can change by the cursor's movement, the player's movement, or by
-			// zooming. It's simpler just to always update its location.
-			CollisionResults results = getCollision(grid,
-					getCursorRay(view.getCamera()));
+			// zooming. It's simpler just to always update its location. The
+			// grid's surface is flat, so the ray is intersected with its plane
+			// instead of the grid's mesh.
+			Ray ray = getCursorRay(view.getCamera());
+			Vector3f point = new Vector3f();
 
 			// Update the cursor's location in the HUD if possible.
-			if (results.size() > 0) {
+			if (ray != null && ray.intersectsWherePlane(gridPlane, point)
+					&& Math.abs(point.x) <= width * 2f
+					&& Math.abs(point.y) <= length * 2f) {
 				// Get the closest valid point.
-				Vector3f loc = getClosestGridPoint(results
-						.getClosestCollision().getContactPoint());
+				Vector3f loc = getClosestGridPoint(point);
 				String text = String.format(HUDCoordinateFormat, loc.x, loc.y);
 				// Update the cursor's location text in the HUD.
 				HUDCursorLocation.setText(text);
@@ -872,12 +893,35 @@ public class MeshAppState extends ViewAppState implements
 		}
 		/* ----------------------------------------------------------------- */
 
+		/* ---- Apply pending changes to the mesh. ---- */
+		// This requests a render if any changes were applied.
+		meshUpdateHandler.processUpdates();
+		/* -------------------------------------------- */
+
 		/* ---- Update all stale AbstractMeshViews. ---- */
 		// Stale views' controllers will be in the concurrent queue. Call
 		// syncView on the controllers as you pull them off.
+		// Vertex spatials that were added, moved, or removed are re-indexed.
 		AbstractMeshController controller;
-		while ((controller = updateQueue.poll()) != null)
+		boolean synced = false;
+		while ((controller = updateQueue.poll()) != null) {
+			synced = true;
 			controller.syncView();
+			if (controller instanceof VertexController) {
+				Spatial spatial = ((VertexController) controller)
+						.getGeometry();
+				if (spatial.getParent() == vertexRoot) {
+					vertexIndex.update(spatial, spatial.getWorldBound());
+				} else {
+					vertexIndex.remove(spatial);
+				}
+			}
+		}
+		// Synced views are not necessarily accompanied by any input, so the
+		// view must be told to render them.
+		if (synced) {
+			requestRender();
+		}
 		/* --------------------------------------------- */
 
 		return;
@@ -1037,6 +1081,86 @@ public class MeshAppState extends ViewAppState implements
 		return;
 	}
 
+	/**
+	 * Applies only the recorded changes to the mesh to what is currently
+	 * displayed. Controllers for removed vertices and edges are disposed, and
+	 * controllers for added vertices and edges are created. Modified vertices
+	 * and edges keep their controllers, which listen to them directly, but a
+	 * missing controller is created for them as well. Unlike
+	 * {@link #updateMesh(MeshComponent)}, this takes time proportional to the
+	 * number of changes rather than to the size of the mesh.
+	 * 
+	 * @param mesh
+	 *            The mesh that was updated.
+	 * @param changes
+	 *            The changes taken from the mesh. This should not be a reset.
+	 */
+	protected void updateMesh(MeshComponent mesh, MeshChangeLog changes) {
+
+		// Removals must be processed first since a replaced part is both
+		// removed and added with the same ID.
+
+		// Remove any expired polygons, edges, and vertices.
+		for (int id : changes.getRemovedPolygons()) {
+			polygons.remove(id);
+		}
+		for (int id : changes.getRemovedEdges()) {
+			EdgeController c = edgeControllers.remove(id);
+			if (c != null) {
+				c.dispose();
+			}
+		}
+		for (int id : changes.getRemovedVertices()) {
+			VertexController c = vertexControllers.remove(id);
+			if (c != null) {
+				c.dispose();
+			}
+		}
+
+		float vertexSize = getVertexSize();
+		float edgeSize = getEdgeSize();
+		float scale = getScale();
+
+		// Add all of the new vertices. If a vertex was removed again after the
+		// changes were taken, its removal will be in the next set of changes.
+		Set<Integer> ids = new HashSet<Integer>(changes.getAddedVertices());
+		ids.addAll(changes.getModifiedVertices());
+		for (int id : ids) {
+			Vertex vertex = mesh.getVertex(id);
+			if (vertex != null && !vertexControllers.containsKey(id)) {
+				VertexController c = new VertexController(vertex, updateQueue,
+						createBasicMaterial(ColorRGBA.Red));
+				vertexControllers.put(id, c);
+				c.setParentNode(vertexRoot);
+				c.setSize(vertexSize);
+				c.setScale(scale);
+			}
+		}
+		// Add all of the new edges.
+		ids = new HashSet<Integer>(changes.getAddedEdges());
+		ids.addAll(changes.getModifiedEdges());
+		for (int id : ids) {
+			Edge edge = mesh.getEdge(id);
+			if (edge != null && !edgeControllers.containsKey(id)) {
+				EdgeController c = new EdgeController(edge, updateQueue,
+						createBasicMaterial(ColorRGBA.Red));
+				edgeControllers.put(id, c);
+				c.setParentNode(edgeRoot);
+				c.setSize(edgeSize);
+				c.setScale(scale);
+			}
+		}
+		// Add all of the new polygons.
+		for (int id : changes.getAddedPolygons()) {
+			Polygon polygon = mesh.getPolygon(id);
+			if (polygon != null) {
+				polygons.put(id, polygon);
+			}
+		}
+
+		return;
+	}
+
 	// ---- Implements IMeshSelectionListener ---- //
 	/*
 	 * (non-Javadoc)
@@ -1229,6 +1353,19 @@ public class MeshAppState extends ViewAppState implements
 		return vertexRoot;
 	}
 
+	/**
+	 * Gets the index of the world bounds of the vertex spatials in the scene.
+	 * The index can be used in
+	 * {@link #getCollision(BoundingVolumeHierarchy, Ray)}, which is much
+	 * faster than colliding with {@link #getVertexSpatials()} for large
+	 * meshes. The index should only be used on the rendering thread.
+	 * 
+	 * @return A <code>BoundingVolumeHierarchy</code> of the vertex spatials.
+	 */
+	protected BoundingVolumeHierarchy<Spatial> getVertexIndex() {
+		return vertexIndex;
+	}
+
 	/**
 	 * Gets the thread-safe queue used to update vertex and edge controllers in
 	 * the <code>MeshAppState</code>. Controllers put themselves in this queue
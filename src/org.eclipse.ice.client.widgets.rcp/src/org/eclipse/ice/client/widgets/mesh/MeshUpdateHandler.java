@@ -18,9 +18,8 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
 import org.eclipse.ice.datastructures.ICEObject.IUpdateableListener;
+import org.eclipse.ice.datastructures.form.mesh.MeshChangeLog;
 import org.eclipse.ice.datastructures.form.mesh.MeshComponent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * This class handles queuing {@link MeshComponent} updates for a
@@ -30,18 +29,25 @@ import org.slf4j.LoggerFactory;
  * <p>
  * First, the {@link IUpdateableListener#update(IUpdateable)} method does not
  * give away any more information about the prospective update other than that
- * something has changed. This means that each update from the
- * <code>MeshComponent</code> requires a comprehensive comparison with what is
- * currently displayed in the <code>MeshAppState</code>. In other words, the
- * method implementing the update is heavy-weight, and multiple updates cannot
- * be performed simultaneously.
+ * something has changed. Instead of comparing the whole
+ * <code>MeshComponent</code> with what is currently displayed in the
+ * <code>MeshAppState</code>, this class takes its own {@link MeshChangeLog}
+ * from the mesh so that only the polygons, edges and vertices that were
+ * actually added, removed or modified are processed. A comprehensive comparison is only performed
+ * when the mesh is first set or when its contents are replaced wholesale.
  * </p>
  * <p>
- * Second, we need to process <i>all</i> updates. Since the update process may
- * take a significant period, it is possible that several consecutive
- * notifications from the MeshComponent arrive while the MeshApplication is
- * already updating. Instead of running the update n times for n calls, only the
- * current update and the last remaining update need to be handled.
+ * Second, we need to process <i>all</i> updates. Notifications from the
+ * MeshComponent only set a flag. The pending changes are applied by
+ * {@link #processUpdates()}, which the <code>MeshAppState</code> calls once
+ * per frame from the render thread, so any number of notifications received
+ * during a frame are coalesced into a single update and the data structures of
+ * the <code>MeshAppState</code> are never manipulated from another thread.
+ * </p>
+ * <p>
+ * Since views are only rendered when they change, a notification wakes the
+ * <code>MeshAppState</code>'s view, and the view is rendered again once the
+ * changes have been applied.
  * </p>
  *
  * @author Jordan Deyton
@@ -50,16 +56,10 @@ import org.slf4j.LoggerFactory;
 public class MeshUpdateHandler implements IUpdateableListener {
 
 	/**
-	 * Logger for handling event messages and other information.
-	 */
-	private static final Logger logger = LoggerFactory
-			.getLogger(MeshUpdateHandler.class);
-
-	/**
 	 * The current <code>MeshComponent</code> to which this listener/updater
 	 * listens.
 	 */
-	private MeshComponent mesh;
+	private volatile MeshComponent mesh;
 
 	/**
 	 * The host <code>MeshAppState</code> that needs to process updates to its
@@ -73,9 +73,10 @@ public class MeshUpdateHandler implements IUpdateableListener {
 	private final AtomicBoolean needsUpdate;
 
 	/**
-	 * This is the daemon thread that handles the updates.
+	 * A flag denoting whether or not the whole mesh must be compared with what
+	 * is displayed, as when the mesh is changed.
 	 */
-	private Thread updateThread;
+	private final AtomicBoolean needsFullUpdate;
 
 	/**
 	 * The default constructor.
@@ -85,9 +86,9 @@ public class MeshUpdateHandler implements IUpdateableListener {
 		mesh = null;
 		app = new AtomicReference<MeshAppState>(null);
 
-		// Initialize the atomics needed for the thread to run and update
-		// properly.
+		// Initialize the atomics needed to queue updates properly.
 		needsUpdate = new AtomicBoolean(false);
+		needsFullUpdate = new AtomicBoolean(false);
 
 		return;
 	}
@@ -95,8 +96,8 @@ public class MeshUpdateHandler implements IUpdateableListener {
 	/**
 	 * Changes the mesh that is currently being listened to. If an update is
 	 * currently being processed, it is finished and then all remaining
-	 * unprocessed updates are ignored. An initial update is run with the new
-	 * mesh.
+	 * unprocessed updates are ignored. An initial, full update is run with the
+	 * new mesh.
 	 *
 	 * @param mesh
 	 *            The new mesh to listen to.
@@ -118,7 +119,9 @@ public class MeshUpdateHandler implements IUpdateableListener {
 			this.mesh = mesh;
 			mesh.register(this);
 
-			// After registering with the new mesh, we need to update.
+			// After registering with the new mesh, we need to compare all of it
+			// with what is displayed.
+			needsFullUpdate.set(true);
 			update(mesh);
 		}
 
@@ -127,8 +130,8 @@ public class MeshUpdateHandler implements IUpdateableListener {
 
 	/**
 	 * Starts the <code>MeshUpdateHandler</code> so that updates from a
-	 * <code>MeshComponent</code> can be handled one at a time and reduced in
-	 * number when multiple updates are required at the same time.
+	 * <code>MeshComponent</code> are applied to the <code>MeshAppState</code>
+	 * when it calls {@link #processUpdates()}.
 	 *
 	 * @param app
 	 *            The <code>MeshAppState</code> that needs to update based on
@@ -139,13 +142,8 @@ public class MeshUpdateHandler implements IUpdateableListener {
 		// We can only proceed if the following is true:
 		// The app is not null and is initialized.
 		// The current app is null. (Note: the app is set by this condition)
-		if (app != null // && app.isInitialized()
-				&& this.app.compareAndSet(null, app)) {
-
-			// Create and start the worker thread that handles updates.
-			updateThread = createUpdateThread();
-			updateThread.setDaemon(true);
-			updateThread.start();
+		if (app != null) {
+			this.app.compareAndSet(null, app);
 		}
 
 		return;
@@ -156,10 +154,50 @@ public class MeshUpdateHandler implements IUpdateableListener {
 	 */
 	public void stop() {
 		needsUpdate.set(false);
-		// Setting the app to null stops the update thread.
+		// Setting the app to null stops updates from being processed.
 		app.set(null);
-		// The update daemon thread will terminate on its own.
-		updateThread = null;
+	}
+
+	/**
+	 * Applies all changes to the mesh made since the last call to the
+	 * <code>MeshAppState</code>. This should only be called from the render
+	 * thread, typically from {@link MeshAppState#update(float)}. It does nothing
+	 * if the handler is stopped or no changes are pending. If any changes are
+	 * applied, the <code>MeshAppState</code>'s view is rendered in the same
+	 * frame.
+	 *
+	 * @return True if changes were applied, false otherwise.
+	 */
+	public boolean processUpdates() {
+
+		// Local Declarations
+		MeshAppState currentApp = app.get();
+		MeshComponent currentMesh = mesh;
+		boolean updated = false;
+
+		// Clear the flag *before* taking the changes so that notifications
+		// received while the changes are applied are handled in the next frame.
+		if (currentApp != null && currentMesh != null
+				&& needsUpdate.compareAndSet(true, false)) {
+			MeshChangeLog changes = currentMesh.takeChanges(this);
+			// Since there are several components within the MeshAppState that
+			// need to be updated (controllers), we let the MeshAppState handle
+			// the update directly.
+			if (needsFullUpdate.getAndSet(false) || changes.isReset()) {
+				currentApp.updateMesh(currentMesh);
+				updated = true;
+			} else if (!changes.isEmpty()) {
+				currentApp.updateMesh(currentMesh, changes);
+				updated = true;
+			}
+			// The changes are not necessarily accompanied by any input or
+			// queued task, so the view must be told to render them.
+			if (updated) {
+				currentApp.requestRender();
+			}
+		}
+
+		return updated;
 	}
 
 	// ---- Implements IUpdateableListener ---- //
@@ -168,47 +206,16 @@ public class MeshUpdateHandler implements IUpdateableListener {
 	 */
 	@Override
 	public void update(IUpdateable component) {
-		// Queue an update if the component matches.
+		// Queue an update if the component matches, then wake the app so that
+		// it is processed even if the view is idle.
 		if (component == mesh) {
 			needsUpdate.set(true);
+			MeshAppState currentApp = app.get();
+			if (currentApp != null) {
+				currentApp.requestRender();
+			}
 		}
 	}
-
 	// ---------------------------------------- //
 
-	/**
-	 * Creates the thread that updates the {@link #app} when the
-	 * {@link #needsUpdate} flag is set to true.
-	 *
-	 * @return An update thread.
-	 */
-	private Thread createUpdateThread() {
-		return new Thread() {
-			@Override
-			public void run() {
-				// The outer loop will run as long as there is a MeshAppState.
-				MeshAppState currentApp;
-				while ((currentApp = app.get()) != null) {
-					if (needsUpdate.compareAndSet(true, false) && mesh != null) {
-						// Run an update! Since there are several components
-						// within the MeshAppState that need to be updated
-						// (controllers), we let the MeshAppState handle the
-						// update directly (even though this thread is doing the
-						// leg-work).
-						currentApp.updateMesh(mesh);
-					}
-
-					// Pause for 50 ms between attempts to update.
-					try {
-						Thread.sleep(50);
-					} catch (InterruptedException e) {
-						logger.error(getClass().getName() + " Exception!",e);
-					}
-				}
-
-				return;
-			}
-		};
-	}
-
 }
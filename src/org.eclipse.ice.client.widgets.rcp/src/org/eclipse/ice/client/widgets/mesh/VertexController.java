@@ -19,6 +19,7 @@ import org.eclipse.ice.datastructures.form.mesh.Vertex;
 
 import com.jme3.material.Material;
 import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
 
 /**
  * <p>
@@ -119,6 +120,20 @@ public class VertexController extends AbstractMeshController {
 		return;
 	}
 
+	/**
+	 * <p>
+	 * Gets the jME3 Geometry of the view managed by this controller. This
+	 * should only be used on the rendering thread.
+	 * </p>
+	 * 
+	 * @return <p>
+	 *         The Geometry of the VertexView.
+	 *         </p>
+	 */
+	Geometry getGeometry() {
+		return view.geometry;
+	}
+
 	/**
 	 * <p>
 	 * Gets the current location from the model.
@@ -0,0 +1,571 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.client.widgets.reactoreditor.grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.draw2d.ColorConstants;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FigureUtilities;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.MouseEvent;
+import org.eclipse.draw2d.MouseListener;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * This class provides a single Figure that draws a rectangular grid of data
+ * values. Unlike a grid of {@link CellFigure}s, the cells are not individual
+ * Figures. Instead, each cell is one pixel in an image that is scaled up to the
+ * size of the Figure, so the cost of drawing the grid does not depend on the
+ * number of cells.
+ * <p>
+ * Values are colored using a lookup table set with
+ * {@link #setColorTable(RGB[])}. When new values are set with
+ * {@link #setValues(double[], double[])}, only the cells whose colors or values
+ * changed are updated and repainted.
+ * </p>
+ * <p>
+ * Cells can be selected with the mouse. {@link IGridListener}s are notified in
+ * the same way as for the cells of a {@link Grid}.
+ * </p>
+ *
+ * @author Jordan H. Deyton
+ *
+ */
+public class DataGridFigure extends Figure {
+
+	/**
+	 * The color used for cells that are enabled but have no data.
+	 */
+	private static final RGB noDataColor = new RGB(0, 0, 0);
+	/**
+	 * The color used for cells that are disabled.
+	 */
+	private static final RGB disabledColor = new RGB(255, 255, 255);
+	/**
+	 * If more than this fraction of the cells change, the whole Figure is
+	 * repainted instead of each changed cell.
+	 */
+	private static final double fullRepaintFraction = 0.25;
+	/**
+	 * The minimum size of a cell, in pixels, before grid lines are drawn.
+	 */
+	private static final int minGridLineSize = 5;
+
+	/**
+	 * The number of rows in the grid.
+	 */
+	private int rows;
+	/**
+	 * The number of columns in the grid.
+	 */
+	private int columns;
+	/**
+	 * Whether each cell is enabled. Disabled cells are not drawn and cannot be
+	 * selected.
+	 */
+	private boolean[] enabled;
+	/**
+	 * The current value for each cell. This is displayed as text when the
+	 * cells are large enough.
+	 */
+	private double[] values;
+	/**
+	 * The index in the {@link #colorTable} for each cell, or -1 if the cell has
+	 * no data.
+	 */
+	private int[] colorIndices;
+	/**
+	 * The lookup table used to color the cells.
+	 */
+	private RGB[] colorTable;
+
+	/**
+	 * The image data containing one pixel per cell.
+	 */
+	private ImageData imageData;
+	/**
+	 * The image created from {@link #imageData}. This is re-created when the
+	 * image data changes.
+	 */
+	private Image image;
+	/**
+	 * Whether {@link #image} needs to be re-created from {@link #imageData}.
+	 */
+	private boolean imageDirty;
+
+	/**
+	 * The index of the selected cell, or -1 if no cell is selected.
+	 */
+	private int selectedIndex;
+	/**
+	 * Whether or not to draw the values as text when there is enough room.
+	 */
+	private boolean showValues;
+	/**
+	 * The listeners notified when a cell is selected or clicked.
+	 */
+	private final List<IGridListener> listeners;
+
+	/**
+	 * The default constructor. The grid is initially empty.
+	 */
+	public DataGridFigure() {
+		super();
+
+		listeners = new ArrayList<IGridListener>();
+		colorTable = new RGB[] { noDataColor };
+		selectedIndex = -1;
+		showValues = true;
+		setGrid(0, 0, new boolean[0]);
+
+		setBackgroundColor(ColorConstants.white);
+		setOpaque(true);
+
+		// Notify the listeners when a cell is clicked.
+		addMouseListener(new MouseListener.Stub() {
+			@Override
+			public void mousePressed(MouseEvent me) {
+				if (me.button == 1) {
+					int index = getCellIndex(me.getLocation());
+					if (index >= 0) {
+						for (IGridListener listener : listeners) {
+							listener.clickCell(index);
+						}
+						if (index != selectedIndex) {
+							setSelectedIndex(index);
+							for (IGridListener listener : listeners) {
+								listener.selectCell(index);
+							}
+						}
+					}
+				}
+			}
+		});
+
+		return;
+	}
+
+	/**
+	 * Resets the size of the grid. All cells will have no data and nothing
+	 * will be selected.
+	 *
+	 * @param rows
+	 *            The number of rows.
+	 * @param columns
+	 *            The number of columns.
+	 * @param enabled
+	 *            Whether each cell is enabled, by row and then by column. Its
+	 *            length must be rows * columns.
+	 */
+	public void setGrid(int rows, int columns, boolean[] enabled) {
+		if (rows >= 0 && columns >= 0 && enabled != null
+				&& enabled.length == rows * columns) {
+			this.rows = rows;
+			this.columns = columns;
+			this.enabled = Arrays.copyOf(enabled, enabled.length);
+
+			int size = rows * columns;
+			values = new double[size];
+			Arrays.fill(values, Double.NaN);
+			colorIndices = new int[size];
+			Arrays.fill(colorIndices, -1);
+			selectedIndex = -1;
+
+			// Create the image data (one pixel per cell) and fill it.
+			imageData = new ImageData(Math.max(columns, 1), Math.max(rows, 1),
+					24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+			for (int i = 0; i < size; i++) {
+				updatePixel(i);
+			}
+			imageDirty = true;
+
+			repaint();
+		}
+		return;
+	}
+
+	/**
+	 * Sets the lookup table used to color the cells. All cells are updated.
+	 *
+	 * @param colorTable
+	 *            The new lookup table. It should not be empty.
+	 */
+	public void setColorTable(RGB[] colorTable) {
+		if (colorTable != null && colorTable.length > 0
+				&& colorTable != this.colorTable) {
+			this.colorTable = colorTable;
+
+			int size = rows * columns;
+			for (int i = 0; i < size; i++) {
+				if (colorIndices[i] >= colorTable.length) {
+					colorIndices[i] = colorTable.length - 1;
+				}
+				updatePixel(i);
+			}
+			imageDirty = true;
+
+			repaint();
+		}
+		return;
+	}
+
+	/**
+	 * Sets the values of the cells. Only the cells whose values or colors
+	 * changed are redrawn.
+	 *
+	 * @param values
+	 *            The value of each cell, by row and then by column. NaN means
+	 *            that a cell has no data.
+	 * @param fractions
+	 *            The position of each value between the current extrema, from
+	 *            0 to 1. This determines the color of each cell from the lookup
+	 *            table. NaN means that a cell has no data.
+	 */
+	public void setValues(double[] values, double[] fractions) {
+
+		// Local Declarations
+		int size = rows * columns;
+		List<Integer> changed = new ArrayList<Integer>();
+		int last = colorTable.length - 1;
+
+		if (values == null || fractions == null || values.length < size
+				|| fractions.length < size) {
+			return;
+		}
+
+		// Determine which cells changed and update their pixels.
+		for (int i = 0; i < size; i++) {
+			double fraction = fractions[i];
+			int colorIndex;
+			if (Double.isNaN(values[i]) || Double.isNaN(fraction)) {
+				colorIndex = -1;
+			} else if (fraction >= 1.0) {
+				colorIndex = last;
+			} else if (fraction > 0.0) {
+				colorIndex = (int) (fraction * last + 0.5);
+			} else {
+				colorIndex = 0;
+			}
+
+			// Compare the bits so that NaN is equal to NaN.
+			if (colorIndex != colorIndices[i]
+					|| Double.doubleToLongBits(values[i]) != Double
+							.doubleToLongBits(this.values[i])) {
+				colorIndices[i] = colorIndex;
+				this.values[i] = values[i];
+				if (enabled[i]) {
+					updatePixel(i);
+					changed.add(i);
+				}
+			}
+		}
+
+		// Repaint the changed cells.
+		if (!changed.isEmpty()) {
+			imageDirty = true;
+			if (changed.size() > size * fullRepaintFraction) {
+				repaint();
+			} else {
+				for (int i : changed) {
+					repaint(getCellBounds(i));
+				}
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * Selects a cell in the grid. This does not notify the listeners.
+	 *
+	 * @param index
+	 *            The index of the cell to select, or -1 to clear the
+	 *            selection.
+	 */
+	public void setSelectedIndex(int index) {
+		if (index < -1 || index >= rows * columns
+				|| (index >= 0 && !enabled[index])) {
+			index = -1;
+		}
+		if (index != selectedIndex) {
+			if (selectedIndex >= 0) {
+				repaint(getCellBounds(selectedIndex).expand(2, 2));
+			}
+			selectedIndex = index;
+			if (selectedIndex >= 0) {
+				repaint(getCellBounds(selectedIndex).expand(2, 2));
+			}
+		}
+		return;
+	}
+
+	/**
+	 * @return The index of the selected cell, or -1 if no cell is selected.
+	 */
+	public int getSelectedIndex() {
+		return selectedIndex;
+	}
+
+	/**
+	 * Sets whether or not values are drawn as text. Text is only drawn when a
+	 * cell is large enough to contain it.
+	 *
+	 * @param showValues
+	 *            Whether or not to draw the values.
+	 */
+	public void setShowValues(boolean showValues) {
+		if (showValues != this.showValues) {
+			this.showValues = showValues;
+			repaint();
+		}
+		return;
+	}
+
+	/**
+	 * Adds a listener that will be notified when a cell is selected or
+	 * clicked.
+	 *
+	 * @param listener
+	 *            The new listener.
+	 */
+	public void addGridListener(IGridListener listener) {
+		if (listener != null && !listeners.contains(listener)) {
+			listeners.add(listener);
+		}
+		return;
+	}
+
+	/**
+	 * Removes a listener added with {@link #addGridListener(IGridListener)}.
+	 *
+	 * @param listener
+	 *            The listener to remove.
+	 */
+	public void removeGridListener(IGridListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Gets the size of the square cells based on the Figure's current size.
+	 *
+	 * @return The width (and height) of each cell in pixels.
+	 */
+	private int getCellSize() {
+		Rectangle area = getClientArea();
+		if (rows == 0 || columns == 0) {
+			return 0;
+		}
+		return Math.max(1, Math.min(area.width / columns, area.height / rows));
+	}
+
+	/**
+	 * Gets the location of the top-left corner of the grid. The grid is
+	 * centered in the Figure.
+	 *
+	 * @param cellSize
+	 *            The current size of each cell.
+	 * @return The origin of the grid.
+	 */
+	private Point getOrigin(int cellSize) {
+		Rectangle area = getClientArea();
+		return new Point(area.x + (area.width - cellSize * columns) / 2, area.y
+				+ (area.height - cellSize * rows) / 2);
+	}
+
+	/**
+	 * Gets the bounds of a cell in the Figure.
+	 *
+	 * @param index
+	 *            The index of the cell.
+	 * @return The bounds of the cell.
+	 */
+	public Rectangle getCellBounds(int index) {
+		int cellSize = getCellSize();
+		Point origin = getOrigin(cellSize);
+		return new Rectangle(origin.x + index % columns * cellSize, origin.y
+				+ index / columns * cellSize, cellSize, cellSize);
+	}
+
+	/**
+	 * Gets the index of the enabled cell at a location in the Figure.
+	 *
+	 * @param location
+	 *            The location in the Figure's coordinates.
+	 * @return The index of the cell, or -1 if there is no enabled cell at the
+	 *         location.
+	 */
+	public int getCellIndex(Point location) {
+		int cellSize = getCellSize();
+		if (cellSize > 0) {
+			Point origin = getOrigin(cellSize);
+			int x = location.x - origin.x;
+			int y = location.y - origin.y;
+			if (x >= 0 && y >= 0) {
+				int column = x / cellSize;
+				int row = y / cellSize;
+				if (row < rows && column < columns) {
+					int index = row * columns + column;
+					if (enabled[index]) {
+						return index;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Writes the current color of a cell to the image data.
+	 *
+	 * @param index
+	 *            The index of the cell.
+	 */
+	private void updatePixel(int index) {
+		RGB rgb;
+		if (!enabled[index]) {
+			rgb = disabledColor;
+		} else if (colorIndices[index] < 0) {
+			rgb = noDataColor;
+		} else {
+			rgb = colorTable[colorIndices[index]];
+		}
+		imageData.setPixel(index % columns, index / columns,
+				(rgb.red << 16) | (rgb.green << 8) | rgb.blue);
+	}
+
+	/**
+	 * Paints the grid by scaling up the image of the cells. Grid lines, values
+	 * and the selection are only drawn for cells in the clipping region.
+	 */
+	@Override
+	protected void paintFigure(Graphics graphics) {
+		super.paintFigure(graphics);
+
+		int cellSize = getCellSize();
+		if (cellSize == 0) {
+			return;
+		}
+		Point origin = getOrigin(cellSize);
+
+		// Re-create the image if the cells have changed.
+		if (imageDirty || image == null) {
+			if (image != null) {
+				image.dispose();
+			}
+			image = new Image(Display.getCurrent(), imageData);
+			imageDirty = false;
+		}
+
+		// Draw the image without smoothing so that each cell is a solid block.
+		graphics.pushState();
+		graphics.setAntialias(SWT.OFF);
+		graphics.setInterpolation(SWT.NONE);
+		graphics.drawImage(image, 0, 0, columns, rows, origin.x, origin.y,
+				columns * cellSize, rows * cellSize);
+		graphics.popState();
+
+		// Determine the range of cells that need to be decorated.
+		Rectangle clip = graphics.getClip(new Rectangle());
+		int firstColumn = Math.max(0, (clip.x - origin.x) / cellSize);
+		int lastColumn = Math.min(columns - 1, (clip.right() - origin.x)
+				/ cellSize);
+		int firstRow = Math.max(0, (clip.y - origin.y) / cellSize);
+		int lastRow = Math.min(rows - 1, (clip.bottom() - origin.y) / cellSize);
+
+		// Draw the grid lines and the values.
+		boolean drawLines = cellSize >= minGridLineSize;
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				int index = row * columns + column;
+				if (enabled[index]) {
+					Rectangle bounds = new Rectangle(origin.x + column
+							* cellSize, origin.y + row * cellSize, cellSize,
+							cellSize);
+					if (drawLines) {
+						graphics.setForegroundColor(ColorConstants.white);
+						graphics.drawRectangle(bounds.x, bounds.y,
+								cellSize - 1, cellSize - 1);
+					}
+					if (showValues && !Double.isNaN(values[index])) {
+						paintValue(graphics, index, bounds);
+					}
+				}
+			}
+		}
+
+		// Draw the selection.
+		if (selectedIndex >= 0) {
+			Rectangle bounds = getCellBounds(selectedIndex);
+			graphics.setForegroundColor(ColorConstants.red);
+			graphics.setLineWidth(2);
+			graphics.drawRectangle(bounds.x + 1, bounds.y + 1,
+					bounds.width - 2, bounds.height - 2);
+			graphics.setLineWidth(1);
+		}
+
+		return;
+	}
+
+	/**
+	 * Draws the value of a cell as text if it fits in the cell.
+	 *
+	 * @param graphics
+	 *            The graphics used to paint the Figure.
+	 * @param index
+	 *            The index of the cell.
+	 * @param bounds
+	 *            The bounds of the cell.
+	 */
+	private void paintValue(Graphics graphics, int index, Rectangle bounds) {
+
+		// Local Declarations
+		String text = String.format("%.5f", values[index]);
+		Dimension extent = FigureUtilities.getTextExtents(text, getFont());
+
+		if (extent.width <= bounds.width && extent.height <= bounds.height) {
+			// Use the same contrast rule as the data labels of the cell
+			// figures (Rec. 709 luma).
+			RGB rgb = (colorIndices[index] < 0 ? noDataColor
+					: colorTable[colorIndices[index]]);
+			int luma = (int) (0.2126 * rgb.red + 0.7152 * rgb.green + 0.0722 * rgb.blue);
+			graphics.setForegroundColor(luma < 75 ? ColorConstants.white
+					: ColorConstants.black);
+			graphics.drawText(text, bounds.x + (bounds.width - extent.width)
+					/ 2, bounds.y + (bounds.height - extent.height) / 2);
+		}
+
+		return;
+	}
+
+	/**
+	 * Disposes the image used to draw the cells. The Figure will re-create it
+	 * if it is painted again.
+	 */
+	public void dispose() {
+		if (image != null) {
+			image.dispose();
+			image = null;
+		}
+		return;
+	}
+}
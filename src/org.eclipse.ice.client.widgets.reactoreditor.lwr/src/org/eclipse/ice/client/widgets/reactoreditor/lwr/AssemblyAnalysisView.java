@@ -21,13 +21,15 @@ import java.util.TreeSet;
 import org.eclipse.draw2d.LightweightSystem;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.gef.GraphicalViewer;
-import org.eclipse.ice.analysistool.IData;
 import org.eclipse.ice.analysistool.IDataProvider;
 import org.eclipse.ice.client.common.ActionTree;
 import org.eclipse.ice.client.widgets.reactoreditor.AnalysisView;
+import org.eclipse.ice.client.widgets.reactoreditor.ColorScalePalette;
 import org.eclipse.ice.client.widgets.reactoreditor.DataSource;
+import org.eclipse.ice.client.widgets.reactoreditor.FeatureDataTable;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.Cell;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.Cell.State;
+import org.eclipse.ice.client.widgets.reactoreditor.grid.DataGridFigure;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.Grid;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.GridEditorInput;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.GridEditorTools;
@@ -46,6 +48,9 @@ import org.eclipse.jface.action.Action;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.SashForm;
+import org.eclipse.swt.custom.StackLayout;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.layout.FillLayout;
@@ -98,6 +103,21 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 	 * The GraphicalViewer used to display the grid for the reactor core.
 	 */
 	private GraphicalViewer viewer;
+	/**
+	 * The Composite containing the GEF viewer and the data canvas. Only one of
+	 * them is visible at a time.
+	 */
+	private Composite gridComposite;
+	/**
+	 * The Canvas used to display the state point data for the assembly.
+	 */
+	private Canvas dataCanvas;
+	/**
+	 * The Figure that draws the state point data for all rods as a single
+	 * image. It is shown instead of the RodFigures in the GEF viewer when the
+	 * display type is {@link DisplayType#DATA}.
+	 */
+	private DataGridFigure dataFigure;
 
 	/**
 	 * featureLevelComposite contains the widgets used to select the axial
@@ -156,6 +176,20 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 	 */
 	private final List<State> assemblyCellStates;
 
+	/**
+	 * The values of the current feature for every location in the assembly.
+	 */
+	private FeatureDataTable featureData;
+	/**
+	 * The values displayed in each cell of {@link #dataFigure}.
+	 */
+	private double[] displayedValues;
+	/**
+	 * The position of each displayed value between its extrema. This
+	 * determines the color of each cell in {@link #dataFigure}.
+	 */
+	private double[] displayedFractions;
+
 	/**
 	 * The current display type for the FuelAssembly graphics.
 	 */
@@ -317,6 +351,9 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 		assemblyData = new ArrayList<IDataProvider>();
 		featureMap = new HashMap<String, Integer>();
 		assemblyCellStates = new ArrayList<State>();
+		featureData = new FeatureDataTable(assemblyData, null);
+		displayedValues = new double[0];
+		displayedFractions = new double[0];
 
 		// Set defaults here.
 		displayType = DisplayType.GEOMETRY;
@@ -409,7 +446,12 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 		ActionTree saveImage = new ActionTree(new Action("Save Image") {
 			@Override
 			public void run() {
-				saveViewerImage(viewer);
+				// Save whichever of the rods or the data is displayed.
+				if (displayType == DisplayType.DATA) {
+					saveCanvasImage(dataCanvas);
+				} else {
+					saveViewerImage(viewer);
+				}
 			}
 		});
 		actions.add(saveImage);
@@ -534,6 +576,9 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 			} else {
 				feature = featureMap.keySet().iterator().next();
 			}
+			// Read the feature's data for all locations.
+			featureData = new FeatureDataTable(assemblyData, feature);
+			updateExtrema();
 			// Refresh the Menus.
 			updateActionManagers();
 			/* ----------------------------------- */
@@ -606,6 +651,13 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 				figure.setDisplayType(displayType);
 			}
 
+			// State point data is drawn by the data figure. Everything else is
+			// drawn by the RodFigures in the GEF viewer.
+			StackLayout layout = (StackLayout) gridComposite.getLayout();
+			layout.topControl = (displayType == DisplayType.DATA ? dataCanvas
+					: viewer.getControl());
+			gridComposite.layout();
+
 			// Set the display type for the axial view.
 			axialFigure.setDisplayType(displayType);
 		}
@@ -670,15 +722,14 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 				axialScale.setMaximum(maxAxialLevel + 1);
 				axialSpinner.setMaximum(maxAxialLevel + 1);
 
-				// Pass on the new feature to the figures.
-				for (RodFigure figure : figures) {
-					figure.setFeature(feature);
-				}
+				// Read the new feature's data for all locations at once.
+				featureData = new FeatureDataTable(assemblyData, feature);
 				axialFigure.setFeature(feature);
 
 				// If the feature changes, we may also need to update the
 				// extrema!
 				updateExtrema();
+				refreshDataFigure();
 			}
 		}
 		return;
@@ -709,9 +760,6 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 			}
 
 			// Pass the new axial level to the figures.
-			for (RodFigure figure : figures) {
-				figure.setAxialLevel(axialLevel);
-			}
 			axialFigure.setAxialLevel(axialLevel);
 
 			// If necessary, update the extrema. They should change for each
@@ -719,6 +767,7 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 			if (extrema == Extrema.LOCAL) {
 				updateExtrema();
 			}
+			refreshDataFigure();
 		}
 		return;
 	}
@@ -743,60 +792,40 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 				updateExtrema();
 			}
 
-			// Set the custom flag for each of the figures.
-			for (RodFigure figure : figures) {
-				figure.useCustomExtrema(custom);
-			}
+			// Set the custom flag for the axial figure and recolor the data.
 			axialFigure.useCustomExtrema(custom);
+			refreshDataFigure();
 		}
 		return;
 	}
 
 	/**
 	 * Recomputes the extrema based on the current extrema type and sends any
-	 * updates to all component figures.
+	 * updates to the axial figure. The data figure must be refreshed
+	 * separately with {@link #refreshDataFigure()}.
 	 */
 	private void updateExtrema() {
 
-		// Set the initial temporary min and max.
-		double min = Double.MAX_VALUE;
-		double max = Double.MIN_VALUE;
+		// Local Declarations
+		double[] newExtrema = null;
 
 		// For local extrema, find the min and max for the current axial level.
 		if (extrema == Extrema.LOCAL) {
-			for (IDataProvider dataProvider : assemblyData) {
-				ArrayList<IData> iDataList = dataProvider
-						.getDataAtCurrentTime(feature);
-				if (axialLevel < iDataList.size()) {
-					double value = iDataList.get(axialLevel).getValue();
-					min = Math.min(min, value);
-					max = Math.max(max, value);
-				}
-			}
+			newExtrema = featureData.getExtrema(axialLevel);
 		}
 		// For global extrema, find the min and max for ALL axial levels.
 		else if (extrema == Extrema.GLOBAL) {
-			for (IDataProvider dataProvider : assemblyData) {
-				for (IData iData : dataProvider.getDataAtCurrentTime(feature)) {
-					double value = iData.getValue();
-					min = Math.min(min, value);
-					max = Math.max(max, value);
-				}
-			}
+			newExtrema = featureData.getExtrema(-1);
 		}
 		// For piecewise, each component computes its own max and min.
 		// For custom extrema, there's nothing to recompute.
 
-		// If the temporary min (or max) has changed, then we'll also need to
-		// send these updates to the component figures.
-		if (min != Double.MAX_VALUE) {
-			customMinValue = min;
-			customMaxValue = max;
+		// If the extrema have changed, then we'll also need to send these
+		// updates to the axial figure.
+		if (newExtrema != null) {
+			customMinValue = newExtrema[0];
+			customMaxValue = newExtrema[1];
 
-			for (RodFigure figure : figures) {
-				figure.setMinValue(customMinValue);
-				figure.setMaxValue(customMaxValue);
-			}
 			axialFigure.setMinValue(customMinValue);
 			axialFigure.setMaxValue(customMaxValue);
 		}
@@ -804,6 +833,44 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 		return;
 	}
 
+	/**
+	 * Sends the values of the current feature at the current axial level to
+	 * the data figure. The values are read from {@link #featureData}, and only
+	 * the cells whose values or colors changed are repainted.
+	 */
+	private void refreshDataFigure() {
+
+		// Local Declarations
+		int size = fullIndices.size();
+		boolean piecewise = (extrema == Extrema.PIECEWISE || customMinValue == null);
+
+		if (displayedValues.length != size) {
+			displayedValues = new double[size];
+			displayedFractions = new double[size];
+		}
+
+		// Compute the value and color position for each displayed cell.
+		for (int i = 0; i < size; i++) {
+			int fullIndex = fullIndices.get(i);
+			double value = featureData.getValue(fullIndex, axialLevel);
+			double min;
+			double max;
+			if (piecewise) {
+				min = featureData.getMinimum(fullIndex);
+				max = featureData.getMaximum(fullIndex);
+			} else {
+				min = customMinValue;
+				max = customMaxValue;
+			}
+			displayedValues[i] = value;
+			displayedFractions[i] = (value - min) / (max - min);
+		}
+
+		dataFigure.setValues(displayedValues, displayedFractions);
+
+		return;
+	}
+
 	/**
 	 * Resets the entire graphical viewer with the current settings.
 	 */
@@ -946,21 +1013,29 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 					AssemblyCellEditPart editPart = (AssemblyCellEditPart) registry
 							.get(cells.get(gridIndex));
 
+					// The RodFigures only display the geometry. The data is
+					// displayed by the data figure.
 					RodFigure figure = (RodFigure) editPart.getFigure();
 					figures.add(figure);
 					figure.setComponent(lwrComp, maxRadius);
-					figure.setDataProvider(assemblyData.get(fullIndex));
-					figure.setFeature(feature);
-					figure.setAxialLevel(axialLevel);
 					figure.setDisplayType(displayType);
-					figure.setMinValue(customMinValue);
-					figure.setMaxValue(customMaxValue);
-					figure.useCustomExtrema(extrema != Extrema.PIECEWISE);
 				}
 			}
 		}
 		/* -------------------------------------------------------- */
 
+		/* ---- Reset the data figure. ---- */
+		// Only cells with a rod or tube are drawn.
+		boolean[] enabled = new boolean[rows * columns];
+		for (int i = 0; i < enabled.length; i++) {
+			int fullIndex = fullIndices.get(i);
+			enabled[i] = validLocations.contains(fullIndex)
+					&& assemblyLocations.get(fullIndex) != null;
+		}
+		dataFigure.setGrid(rows, columns, enabled);
+		refreshDataFigure();
+		/* -------------------------------- */
+
 		return;
 	}
 
@@ -973,6 +1048,9 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 	public void selectCell(int index) {
 		// FIXME for quadrant and octant symmetries.
 
+		// Keep the selection in the data figure in sync with the viewer.
+		dataFigure.setSelectedIndex(index);
+
 		index = fullIndices.get(index);
 
 		// Get the row and column from the cell's index.
@@ -1054,8 +1132,7 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 		/* ---- Create the SashForm containing the assembly/axial views. ---- */
 		// Create the SashForm and its components.
 		sashForm = new SashForm(container, SWT.HORIZONTAL | SWT.SMOOTH);
-		viewer = GridEditorTools.createViewer(sashForm,
-				new AssemblyEditPartFactory(this));
+		gridComposite = new Composite(sashForm, SWT.NONE);
 		axialComposite = new Composite(sashForm, SWT.NONE);
 
 		// The left side of the SashForm is the radial view of the Rod. The
@@ -1065,7 +1142,30 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 		/* ------------------------------------------------------------------ */
 
 		/* ---- Create the assembly map. ---- */
-		// Nothing to do here... the viewer is already created!
+		// The GEF viewer (rods) and the data canvas are stacked. Only one is
+		// visible depending on the display type.
+		StackLayout gridLayout = new StackLayout();
+		gridComposite.setLayout(gridLayout);
+		viewer = GridEditorTools.createViewer(gridComposite,
+				new AssemblyEditPartFactory(this));
+		dataCanvas = new Canvas(gridComposite, SWT.DOUBLE_BUFFERED);
+
+		// Create the data figure in the data canvas. It uses a precomputed
+		// color table and notifies this view when its cells are clicked.
+		dataFigure = new DataGridFigure();
+		dataFigure.setColorTable(ColorScalePalette.Rainbow1
+				.getSharedColorScale().getRGBTable());
+		dataFigure.addGridListener(this);
+		new LightweightSystem(dataCanvas).setContents(dataFigure);
+		dataCanvas.addDisposeListener(new DisposeListener() {
+			@Override
+			public void widgetDisposed(DisposeEvent e) {
+				dataFigure.dispose();
+			}
+		});
+
+		gridLayout.topControl = (displayType == DisplayType.DATA ? dataCanvas
+				: viewer.getControl());
 		/* ---------------------------------- */
 
 		/* ---- Create the axial view. ---- */
@@ -1134,6 +1234,7 @@ public class AssemblyAnalysisView extends AnalysisView implements IGridListener
 		/* ---- Configure any Menus for the container. ---- */
 		// Set the context Menu for any Composites that will need to use it.
 		viewer.setContextMenu(actionMenuManager);
+		dataCanvas.setMenu(actionMenuManager.createContextMenu(container));
 		axialCanvas.setMenu(actionMenuManager.createContextMenu(container));
 		/* ------------------------------------------------ */
 
@@ -135,7 +135,7 @@ public class AxialRodFigure extends RodFigure {
 			// Compute the background color of the value based on the current
 			// ColorScale.
 			bg = colorScale
-					.getColor((value - minValue) / (maxValue - minValue));
+					.getTableColor((value - minValue) / (maxValue - minValue));
 
 			// Determine the proper foreground color so that the text will not
 			// be an eye sore. This uses the Rec. 709 luma coefficients. We use
@@ -239,7 +239,7 @@ public class RodFigure extends CellFigure implements ILWRComponentVisitor {
 		customMinValue = null;
 		customMaxValue = null;
 		useCustomExtrema = false;
-		colorScale = ColorScalePalette.Rainbow1.getColorScale();
+		colorScale = ColorScalePalette.Rainbow1.getSharedColorScale();
 		displayType = DisplayType.GEOMETRY;
 
 		// Set the overall background color to white.
@@ -650,7 +650,7 @@ public class RodFigure extends CellFigure implements ILWRComponentVisitor {
 			// Compute the background color of the value based on the current
 			// ColorScale.
 			bg = colorScale
-					.getColor((value - minValue) / (maxValue - minValue));
+					.getTableColor((value - minValue) / (maxValue - minValue));
 
 			// Determine the proper foreground color so that the text will not
 			// be an eye sore. This uses the Rec. 709 luma coefficients. We use
@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.ice.client.widgets.reactoreditor.lwr;
 
+import java.util.concurrent.Callable;
+
 import org.eclipse.ice.analysistool.IDataProvider;
 import org.eclipse.ice.client.widgets.reactoreditor.DataSource;
 import org.eclipse.ice.client.widgets.reactoreditor.IStateBrokerHandler;
@@ -590,42 +592,57 @@ public class StateBrokerHandler implements IStateBrokerHandler,
 		return;
 	}
 
-	private void addAssembly(PWRAssembly assembly,
+	private void addAssembly(final PWRAssembly assembly,
+			final PressurizedWaterReactor parent) {
+		String key = (assembly != null ? getKey(assembly) : null);
+
+		if (key != null) {
+			// Searching the reactor for the assembly's location can take a
+			// while, so do it in the background.
+			broker.computeValue(key, new Callable<LWRComponentInfo>() {
+				@Override
+				public LWRComponentInfo call() {
+					return createAssemblyInfo(assembly, parent);
+				}
+			});
+			added = true;
+		}
+
+		return;
+	}
+
+	private LWRComponentInfo createAssemblyInfo(PWRAssembly assembly,
 			PressurizedWaterReactor parent) {
-		if (assembly != null) {
-			// Set the variables used in the loops below.
-			int row = 0, column = 0;
-			boolean found = false;
-			int size = (parent != null ? parent.getSize() : 0);
-
-			// Get the type of assembly.
-			AssemblyType type = getAssemblyType(assembly);
-			if (type != null) {
-
-				// Loop over each location in the assembly and get the data
-				// provider if the rod matches the assembly component at that
-				// location.
-				for (row = 0; !found && row < size; row++) {
-					for (column = 0; column < size; column++) {
-						if (assembly == parent.getAssemblyByLocation(type, row,
-								column)) {
-							// Break out of the loops. Make sure row is correct.
-							found = true;
-							row--;
-							break;
-						}
+		// Set the variables used in the loops below.
+		int row = 0, column = 0;
+		boolean found = false;
+		int size = (parent != null ? parent.getSize() : 0);
+
+		// Get the type of assembly.
+		AssemblyType type = getAssemblyType(assembly);
+		if (type != null) {
+
+			// Loop over each location in the assembly and get the data
+			// provider if the rod matches the assembly component at that
+			// location.
+			for (row = 0; !found && row < size; row++) {
+				for (column = 0; column < size; column++) {
+					if (assembly == parent.getAssemblyByLocation(type, row,
+							column)) {
+						// Break out of the loops. Make sure row is correct.
+						found = true;
+						row--;
+						break;
 					}
 				}
 			}
-
-			// Add the assembly. Adjust row and column if necessary.
-			if (!found) {
-				row = column = -1;
-			}
-			addAssembly(assembly, row, column);
 		}
 
-		return;
+		// Create the info. Adjust row and column if necessary.
+		if (!found) {
+			row = column = -1;
+		}
+		return new LWRComponentInfo(row, column, assembly);
 	}
 
 	private void addAssembly(PWRAssembly assembly, int row, int column) {
@@ -640,38 +657,51 @@ public class StateBrokerHandler implements IStateBrokerHandler,
 		return;
 	}
 
-	private void addRod(LWRRod rod, PWRAssembly parent) {
-		if (rod != null) {
-			// Set the variables used in the loops below.
-			IDataProvider data = null;
-			int row = 0, column = 0;
-			boolean found = false;
-			int size = (parent != null ? parent.getSize() : 0);
-
-			// Loop over each location in the assembly and get the data provider
-			// if the rod matches the assembly component at that location.
-			for (row = 0; !found && row < size; row++) {
-				for (column = 0; column < size; column++) {
-					if (rod == parent.getLWRRodByLocation(row, column)) {
-						data = parent.getLWRRodDataProviderAtLocation(row,
-								column);
+	private void addRod(final LWRRod rod, final PWRAssembly parent) {
+		String key = (rod != null ? getKey(rod) : null);
 
-						// Break out of the loops. Make sure row is correct.
-						found = true;
-						row--;
-						break;
-					}
+		if (key != null) {
+			// Searching the assembly for the rod's location can take a while,
+			// so do it in the background.
+			broker.computeValue(key, new Callable<LWRComponentInfo>() {
+				@Override
+				public LWRComponentInfo call() {
+					return createRodInfo(rod, parent);
 				}
-			}
+			});
+			added = true;
+		}
+
+		return;
+	}
 
-			// Add the rod. Adjust row and column if necessary.
-			if (!found) {
-				row = column = -1;
+	private LWRComponentInfo createRodInfo(LWRRod rod, PWRAssembly parent) {
+		// Set the variables used in the loops below.
+		IDataProvider data = null;
+		int row = 0, column = 0;
+		boolean found = false;
+		int size = (parent != null ? parent.getSize() : 0);
+
+		// Loop over each location in the assembly and get the data provider
+		// if the rod matches the assembly component at that location.
+		for (row = 0; !found && row < size; row++) {
+			for (column = 0; column < size; column++) {
+				if (rod == parent.getLWRRodByLocation(row, column)) {
+					data = parent.getLWRRodDataProviderAtLocation(row, column);
+
+					// Break out of the loops. Make sure row is correct.
+					found = true;
+					row--;
+					break;
+				}
 			}
-			addRod(rod, data, row, column);
 		}
 
-		return;
+		// Create the info. Adjust row and column if necessary.
+		if (!found) {
+			row = column = -1;
+		}
+		return new LWRComponentInfo(row, column, rod, data);
 	}
 
 	private void addRod(LWRRod rod, IDataProvider data, int row, int column) {
@@ -686,38 +716,51 @@ public class StateBrokerHandler implements IStateBrokerHandler,
 		return;
 	}
 
-	private void addTube(Tube tube, FuelAssembly parent) {
-		if (tube != null) {
-			IDataProvider data = null;
-			int row = 0, column = 0;
+	private void addTube(final Tube tube, final FuelAssembly parent) {
+		String key = (tube != null ? getKey(tube) : null);
 
-			boolean found = false;
-			int size = (parent != null ? parent.getSize() : 0);
+		if (key != null) {
+			// Searching the assembly for the tube's location can take a while,
+			// so do it in the background.
+			broker.computeValue(key, new Callable<LWRComponentInfo>() {
+				@Override
+				public LWRComponentInfo call() {
+					return createTubeInfo(tube, parent);
+				}
+			});
+			added = true;
+		}
 
-			// Loop over each location in the assembly and get the data provider
-			// if the tube matches the assembly component at that location.
-			for (row = 0; !found && row < size; row++) {
-				for (column = 0; column < size; column++) {
-					if (tube == parent.getTubeByLocation(row, column)) {
-						data = parent
-								.getTubeDataProviderAtLocation(row, column);
+		return;
+	}
 
-						// Break out of the loops. Make sure row is correct.
-						found = true;
-						row--;
-						break;
-					}
-				}
-			}
+	private LWRComponentInfo createTubeInfo(Tube tube, FuelAssembly parent) {
+		IDataProvider data = null;
+		int row = 0, column = 0;
+
+		boolean found = false;
+		int size = (parent != null ? parent.getSize() : 0);
+
+		// Loop over each location in the assembly and get the data provider
+		// if the tube matches the assembly component at that location.
+		for (row = 0; !found && row < size; row++) {
+			for (column = 0; column < size; column++) {
+				if (tube == parent.getTubeByLocation(row, column)) {
+					data = parent.getTubeDataProviderAtLocation(row, column);
 
-			// Add the tube. Adjust row and column if necessary.
-			if (!found) {
-				row = column = -1;
+					// Break out of the loops. Make sure row is correct.
+					found = true;
+					row--;
+					break;
+				}
 			}
-			addTube(tube, data, row, column);
 		}
 
-		return;
+		// Create the info. Adjust row and column if necessary.
+		if (!found) {
+			row = column = -1;
+		}
+		return new LWRComponentInfo(row, column, tube, data);
 	}
 
 	private void addTube(Tube tube, IDataProvider data, int row, int column) {
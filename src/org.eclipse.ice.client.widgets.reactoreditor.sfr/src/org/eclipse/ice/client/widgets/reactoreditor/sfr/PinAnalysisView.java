@@ -296,7 +296,14 @@ public class PinAnalysisView extends AnalysisView {
 			// number of axial levels supported.
 			for (final String feature : dataProvider.getFeatureList()) {
 				// Get the number of axial levels for this feature.
-				int count = dataProvider.getDataAtCurrentTime(feature).size();
+				// SFRComponents can count their data without copying it.
+				int count;
+				if (dataProvider instanceof SFRComponent) {
+					count = ((SFRComponent) dataProvider)
+							.getDataCountAtCurrentTime(feature);
+				} else {
+					count = dataProvider.getDataAtCurrentTime(feature).size();
+				}
 
 				// Put it in the map and create an ActionTree for it.
 				featureMap.put(feature, count);
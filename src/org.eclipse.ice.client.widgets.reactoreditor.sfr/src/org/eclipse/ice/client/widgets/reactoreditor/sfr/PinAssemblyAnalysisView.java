@@ -21,11 +21,11 @@ import java.util.TreeSet;
 import org.eclipse.draw2d.LightweightSystem;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.gef.GraphicalViewer;
-import org.eclipse.ice.analysistool.IData;
 import org.eclipse.ice.analysistool.IDataProvider;
 import org.eclipse.ice.client.common.ActionTree;
 import org.eclipse.ice.client.widgets.reactoreditor.AnalysisView;
 import org.eclipse.ice.client.widgets.reactoreditor.DataSource;
+import org.eclipse.ice.client.widgets.reactoreditor.FeatureDataTable;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.Cell;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.Cell.State;
 import org.eclipse.ice.client.widgets.reactoreditor.grid.Grid;
@@ -155,6 +155,13 @@ public class PinAssemblyAnalysisView extends AnalysisView implements
 	 */
 	private final List<State> assemblyCellStates;
 
+	/**
+	 * The values of the current feature for every location in the assembly.
+	 * This is used to compute the extrema without querying every data
+	 * provider.
+	 */
+	private FeatureDataTable featureData;
+
 	/**
 	 * The current display type for the PinAssembly graphics.
 	 */
@@ -307,6 +314,7 @@ public class PinAssemblyAnalysisView extends AnalysisView implements
 		assemblyData = new ArrayList<IDataProvider>();
 		featureMap = new HashMap<String, Integer>();
 		assemblyCellStates = new ArrayList<State>();
+		featureData = new FeatureDataTable(assemblyData, null);
 
 		// Set defaults here.
 		displayType = DisplayType.GEOMETRY;
@@ -453,7 +461,7 @@ public class PinAssemblyAnalysisView extends AnalysisView implements
 					// Try to get a component and data provider at the location.
 					SFRComponent sfrComp = assembly.getPinByLocation(row,
 							column);
-					IDataProvider sfrData = assembly.getDataProviderByLocation(
+					SFRComponent sfrData = assembly.getDataProviderByLocation(
 							row, column);
 					if (sfrComp != null) {
 						// Convert the component to a rod.
@@ -471,7 +479,7 @@ public class PinAssemblyAnalysisView extends AnalysisView implements
 						// get the maximum number of levels supported.
 						for (String feature : sfrData.getFeatureList()) {
 							int newCount = sfrData
-									.getDataAtCurrentTime(feature).size();
+									.getDataCountAtCurrentTime(feature);
 							if (!featureMap.containsKey(feature)
 									|| newCount > featureMap.get(feature)) {
 								featureMap.put(feature, newCount);
@@ -510,6 +518,8 @@ public class PinAssemblyAnalysisView extends AnalysisView implements
 			} else {
 				feature = featureMap.keySet().iterator().next();
 			}
+			// Read the feature's data for all locations.
+			featureData = new FeatureDataTable(assemblyData, feature);
 			// Refresh the Menus.
 			updateActionManagers();
 			/* ----------------------------------- */
@@ -644,6 +654,9 @@ public class PinAssemblyAnalysisView extends AnalysisView implements
 				axialScale.setMaximum(maxAxialLevel + 1);
 				axialSpinner.setMaximum(maxAxialLevel + 1);
 
+				// Read the new feature's data for all locations at once.
+				featureData = new FeatureDataTable(assemblyData, feature);
+
 				// Pass on the new feature to the figures.
 				for (PinFigure figure : figures) {
 					figure.setFeature(feature);
@@ -732,40 +745,25 @@ public class PinAssemblyAnalysisView extends AnalysisView implements
 	 */
 	private void updateExtrema() {
 
-		// Set the initial temporary min and max.
-		double min = Double.MAX_VALUE;
-		double max = Double.MIN_VALUE;
+		// Local Declarations
+		double[] newExtrema = null;
 
 		// For local extrema, find the min and max for the current axial level.
 		if (extrema == Extrema.LOCAL) {
-			for (IDataProvider dataProvider : assemblyData) {
-				ArrayList<IData> iDataList = dataProvider
-						.getDataAtCurrentTime(feature);
-				if (axialLevel < iDataList.size()) {
-					double value = iDataList.get(axialLevel).getValue();
-					min = Math.min(min, value);
-					max = Math.max(max, value);
-				}
-			}
+			newExtrema = featureData.getExtrema(axialLevel);
 		}
 		// For global extrema, find the min and max for ALL axial levels.
 		else if (extrema == Extrema.GLOBAL) {
-			for (IDataProvider dataProvider : assemblyData) {
-				for (IData iData : dataProvider.getDataAtCurrentTime(feature)) {
-					double value = iData.getValue();
-					min = Math.min(min, value);
-					max = Math.max(max, value);
-				}
-			}
+			newExtrema = featureData.getExtrema(-1);
 		}
 		// For piecewise, each component computes its own max and min.
 		// For custom extrema, there's nothing to recompute.
 
-		// If the temporary min (or max) has changed, then we'll also need to
-		// send these updates to the component figures.
-		if (min != Double.MAX_VALUE) {
-			customMinValue = min;
-			customMaxValue = max;
+		// If the extrema have changed, then we'll also need to send these
+		// updates to the component figures.
+		if (newExtrema != null) {
+			customMinValue = newExtrema[0];
+			customMaxValue = newExtrema[1];
 
 			for (PinFigure figure : figures) {
 				figure.setMinValue(customMinValue);
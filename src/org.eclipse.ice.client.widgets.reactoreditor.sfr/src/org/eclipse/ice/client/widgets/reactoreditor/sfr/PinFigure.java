@@ -233,7 +233,7 @@ public class PinFigure extends HexagonalCellFigure implements
 		customMinValue = null;
 		customMaxValue = null;
 		useCustomExtrema = false;
-		colorScale = ColorScalePalette.Rainbow1.getColorScale();
+		colorScale = ColorScalePalette.Rainbow1.getSharedColorScale();
 		displayType = DisplayType.GEOMETRY;
 
 		// Create the hexagon that will appear behind the data label.
@@ -660,7 +660,7 @@ public class PinFigure extends HexagonalCellFigure implements
 			// Compute the background color of the value based on the current
 			// ColorScale.
 			bg = colorScale
-					.getColor((value - minValue) / (maxValue - minValue));
+					.getTableColor((value - minValue) / (maxValue - minValue));
 
 			// Determine the proper foreground color so that the text will not
 			// be an eye sore. This uses the Rec. 709 luma coefficients. We use
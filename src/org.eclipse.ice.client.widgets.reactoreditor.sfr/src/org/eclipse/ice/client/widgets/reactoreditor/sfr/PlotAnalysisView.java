@@ -248,7 +248,7 @@ public class PlotAnalysisView extends AnalysisView {
 				for (int column = 0; column < columns; column++) {
 					SFRComponent component = assembly.getPinByLocation(row,
 							column);
-					IDataProvider dataProvider = assembly
+					SFRComponent dataProvider = assembly
 							.getDataProviderByLocation(row, column);
 					if (dataProvider != null) {
 						// Get the features available here. Add any new feature
@@ -256,8 +256,8 @@ public class PlotAnalysisView extends AnalysisView {
 						// location if there is actually some data available for
 						// the feature.
 						for (String feature : dataProvider.getFeatureList()) {
-							if (!dataProvider.getDataAtCurrentTime(feature)
-									.isEmpty()) {
+							if (dataProvider
+									.getDataCountAtCurrentTime(feature) > 0) {
 								if (!featureSet.contains(feature)) {
 									featureSet.add(feature);
 									validLocations.put(feature, new BitSet(
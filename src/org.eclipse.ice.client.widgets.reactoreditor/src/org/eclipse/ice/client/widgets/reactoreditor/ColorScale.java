@@ -13,6 +13,7 @@
 package org.eclipse.ice.client.widgets.reactoreditor;
 
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Display;
 
 /**
@@ -20,11 +21,24 @@ import org.eclipse.swt.widgets.Display;
  * The Class ColorScale creates a color scale based on the 3 overlapping
  * Gaussian functions representing bands of red, green and blue.
  * </p>
+ * <p>
+ * Evaluating the Gaussians for every cell of a large grid is expensive, so each
+ * ColorScale also provides a precomputed lookup table of {@link #TABLE_SIZE}
+ * colors covering the range 0 to 1. See {@link #getTableIndex(double)},
+ * {@link #getRGBTable()} and {@link #getTableColor(double)}.
+ * </p>
  * 
  * @author Eric J. Lingerfelt and Mike Guidry
  */
 public class ColorScale {
 
+	/**
+	 * <p>
+	 * The number of colors in the lookup table.
+	 * </p>
+	 */
+	public static final int TABLE_SIZE = 256;
+
 	/**
 	 * <p>
 	 * The position of the Red color band.
@@ -67,6 +81,21 @@ public class ColorScale {
 	 */
 	private double aB;
 
+	/**
+	 * <p>
+	 * The lookup table of colors. This is created when first needed.
+	 * </p>
+	 */
+	private RGB[] rgbTable;
+
+	/**
+	 * <p>
+	 * The SWT Colors for the lookup table. These are created when first needed
+	 * and shared by all callers of {@link #getTableColor(double)}.
+	 * </p>
+	 */
+	private Color[] colorTable;
+
 	/**
 	 * <p>
 	 * The Constructor.
@@ -109,6 +138,21 @@ public class ColorScale {
 	 * @return the color
 	 */
 	public Color getColor(double x) {
+		return new Color(Display.getCurrent(), getRGB(x));
+	}
+
+	/**
+	 * <p>
+	 * Computes the RGB values for the provided value between 0 and 1. If the
+	 * provided value is less than 0, then it will be set to 0. If the value is
+	 * greater than 1, then it will be set to 1.
+	 * </p>
+	 * 
+	 * @param x
+	 *            a value between 0 and 1
+	 * @return the RGB values of the color
+	 */
+	public RGB getRGB(double x) {
 
 		if (x >= 1.0) {
 			x = 1.0;
@@ -121,7 +165,71 @@ public class ColorScale {
 		int green = (int) (255 * Math.exp(-(x - x0G) * (x - x0G) / aG / aG));
 		int blue = (int) (255 * Math.exp(-(x - x0B) * (x - x0B) / aB / aB));
 
-		return new Color(Display.getCurrent(), red, green, blue);
+		return new RGB(red, green, blue);
+	}
+
+	/**
+	 * <p>
+	 * Gets the index in the lookup table for the provided value between 0 and
+	 * 1. Values outside that range (and NaN) are clamped to the nearest end of
+	 * the table.
+	 * </p>
+	 * 
+	 * @param x
+	 *            a value between 0 and 1
+	 * @return the index of the value's color in {@link #getRGBTable()}
+	 */
+	public int getTableIndex(double x) {
+		if (x >= 1.0) {
+			return TABLE_SIZE - 1;
+		} else if (!(x > 0.0)) {
+			return 0;
+		}
+		return (int) (x * (TABLE_SIZE - 1) + 0.5);
+	}
+
+	/**
+	 * <p>
+	 * Gets the lookup table of colors. Entry i holds the color for the value
+	 * i / ({@link #TABLE_SIZE} - 1). The returned array is shared and should
+	 * not be modified.
+	 * </p>
+	 * 
+	 * @return the lookup table
+	 */
+	public synchronized RGB[] getRGBTable() {
+		if (rgbTable == null) {
+			rgbTable = new RGB[TABLE_SIZE];
+			for (int i = 0; i < TABLE_SIZE; i++) {
+				rgbTable[i] = getRGB((double) i / (TABLE_SIZE - 1));
+			}
+		}
+		return rgbTable;
+	}
+
+	/**
+	 * <p>
+	 * Returns the lookup table color for the provided value between 0 and 1.
+	 * Unlike {@link #getColor(double)}, the returned Color is shared and must
+	 * not be disposed. This must be called from the UI thread.
+	 * </p>
+	 * 
+	 * @param x
+	 *            a value between 0 and 1
+	 * @return the color
+	 */
+	public Color getTableColor(double x) {
+		int index = getTableIndex(x);
+		synchronized (this) {
+			if (colorTable == null) {
+				colorTable = new Color[TABLE_SIZE];
+			}
+			if (colorTable[index] == null) {
+				colorTable[index] = new Color(Display.getCurrent(),
+						getRGBTable()[index]);
+			}
+			return colorTable[index];
+		}
 	}
 
 	/**
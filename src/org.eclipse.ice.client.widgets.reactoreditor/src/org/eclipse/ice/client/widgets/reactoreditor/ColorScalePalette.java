@@ -36,6 +36,12 @@ public enum ColorScalePalette {
 	 */
 	private final double x0R, x0G, x0B, aR, aG, aB;
 
+	/**
+	 * The shared color scale for the palette. Its lookup table is computed
+	 * once and reused by every figure that uses the palette.
+	 */
+	private ColorScale sharedColorScale;
+
 	/**
 	 * The default private constructor for the enum.
 	 * 
@@ -73,4 +79,18 @@ public enum ColorScalePalette {
 	public ColorScale getColorScale() {
 		return new ColorScale(x0R, x0G, x0B, aR, aG, aB);
 	}
+
+	/**
+	 * Gets the color scale shared by all users of the palette. ColorScales are
+	 * immutable, so this should be preferred over {@link #getColorScale()}
+	 * when many figures use the same palette.
+	 * 
+	 * @return The palette's shared {@link ColorScale}.
+	 */
+	public synchronized ColorScale getSharedColorScale() {
+		if (sharedColorScale == null) {
+			sharedColorScale = getColorScale();
+		}
+		return sharedColorScale;
+	}
 }
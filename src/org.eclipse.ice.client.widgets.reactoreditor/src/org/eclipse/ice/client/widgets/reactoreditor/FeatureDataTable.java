@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.client.widgets.reactoreditor;
+
+import java.util.List;
+
+import org.eclipse.ice.analysistool.IData;
+import org.eclipse.ice.analysistool.IDataProvider;
+
+/**
+ * A FeatureDataTable stores the values of a single feature for every location
+ * in a grid (e.g., every rod in an assembly) in a primitive array. The table is
+ * filled in one pass over the locations' {@link IDataProvider}s, after which
+ * views can switch between axial levels and compute extrema without querying
+ * the providers or boxing values again.
+ * <p>
+ * Missing values (a location without a provider or with fewer axial levels
+ * than the table) are stored as {@link Double#NaN}.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class FeatureDataTable {
+
+	/**
+	 * The feature whose values are stored in the table.
+	 */
+	private final String feature;
+
+	/**
+	 * The number of locations in the table.
+	 */
+	private final int size;
+
+	/**
+	 * The number of axial levels in the table. This is the largest number of
+	 * levels among all locations.
+	 */
+	private final int levels;
+
+	/**
+	 * The values, stored by location and then by level.
+	 */
+	private final double[] values;
+
+	/**
+	 * The minimum value across all levels for each location.
+	 */
+	private final double[] locationMinimums;
+	/**
+	 * The maximum value across all levels for each location.
+	 */
+	private final double[] locationMaximums;
+
+	/**
+	 * The default constructor. This reads the current data for the feature
+	 * from each provider.
+	 *
+	 * @param dataProviders
+	 *            The data providers for each location. A provider may be null
+	 *            if its location has no data.
+	 * @param feature
+	 *            The feature to read. If null, the table will contain no
+	 *            levels.
+	 */
+	public FeatureDataTable(List<IDataProvider> dataProviders, String feature) {
+
+		// Local Declarations
+		int locations = dataProviders.size();
+		double[][] data = new double[locations][];
+		int maxLevels = 0;
+
+		this.feature = feature;
+		size = locations;
+
+		// Read the data for each location.
+		for (int i = 0; i < locations; i++) {
+			IDataProvider dataProvider = dataProviders.get(i);
+			List<IData> dataList = null;
+			if (feature != null && dataProvider != null) {
+				dataList = dataProvider.getDataAtCurrentTime(feature);
+			}
+			int count = (dataList != null ? dataList.size() : 0);
+			data[i] = new double[count];
+			for (int level = 0; level < count; level++) {
+				data[i][level] = dataList.get(level).getValue();
+			}
+			maxLevels = Math.max(maxLevels, count);
+		}
+		levels = maxLevels;
+
+		// Flatten the data and compute the extrema for each location.
+		values = new double[locations * levels];
+		locationMinimums = new double[locations];
+		locationMaximums = new double[locations];
+		for (int i = 0; i < locations; i++) {
+			double min = Double.NaN;
+			double max = Double.NaN;
+			int offset = i * levels;
+			for (int level = 0; level < levels; level++) {
+				double value = Double.NaN;
+				if (level < data[i].length) {
+					value = data[i][level];
+					if (value < min || Double.isNaN(min)) {
+						min = value;
+					}
+					if (value > max || Double.isNaN(max)) {
+						max = value;
+					}
+				}
+				values[offset + level] = value;
+			}
+			locationMinimums[i] = min;
+			locationMaximums[i] = max;
+		}
+
+		return;
+	}
+
+	/**
+	 * @return The feature whose values are stored in the table.
+	 */
+	public String getFeature() {
+		return feature;
+	}
+
+	/**
+	 * @return The number of locations in the table.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return The number of axial levels in the table.
+	 */
+	public int getLevelCount() {
+		return levels;
+	}
+
+	/**
+	 * Gets the value at a location and axial level.
+	 *
+	 * @param index
+	 *            The index of the location.
+	 * @param level
+	 *            The axial level.
+	 * @return The value, or NaN if there is no value for that location and
+	 *         level.
+	 */
+	public double getValue(int index, int level) {
+		if (index < 0 || index >= size || level < 0 || level >= levels) {
+			return Double.NaN;
+		}
+		return values[index * levels + level];
+	}
+
+	/**
+	 * Copies the values for every location at an axial level into an array.
+	 *
+	 * @param level
+	 *            The axial level.
+	 * @param levelValues
+	 *            The array to fill. If null or too small, a new array is
+	 *            created.
+	 * @return The array containing the values at the axial level.
+	 */
+	public double[] getValues(int level, double[] levelValues) {
+		if (levelValues == null || levelValues.length < size) {
+			levelValues = new double[size];
+		}
+		for (int i = 0; i < size; i++) {
+			levelValues[i] = getValue(i, level);
+		}
+		return levelValues;
+	}
+
+	/**
+	 * Gets the minimum value across all levels for a location.
+	 *
+	 * @param index
+	 *            The index of the location.
+	 * @return The minimum value, or NaN if the location has no data.
+	 */
+	public double getMinimum(int index) {
+		return locationMinimums[index];
+	}
+
+	/**
+	 * Gets the maximum value across all levels for a location.
+	 *
+	 * @param index
+	 *            The index of the location.
+	 * @return The maximum value, or NaN if the location has no data.
+	 */
+	public double getMaximum(int index) {
+		return locationMaximums[index];
+	}
+
+	/**
+	 * Computes the minimum and maximum values among all locations.
+	 *
+	 * @param level
+	 *            The axial level to search, or -1 to search all levels.
+	 * @return An array containing the minimum and maximum values, or null if
+	 *         there is no data.
+	 */
+	public double[] getExtrema(int level) {
+
+		// Local Declarations
+		double min = Double.NaN;
+		double max = Double.NaN;
+
+		if (level < 0) {
+			for (int i = 0; i < size; i++) {
+				if (locationMinimums[i] < min || Double.isNaN(min)) {
+					min = locationMinimums[i];
+				}
+				if (locationMaximums[i] > max || Double.isNaN(max)) {
+					max = locationMaximums[i];
+				}
+			}
+		} else if (level < levels) {
+			for (int i = 0, j = level; i < size; i++, j += levels) {
+				double value = values[j];
+				if (value < min || Double.isNaN(min)) {
+					min = value;
+				}
+				if (value > max || Double.isNaN(max)) {
+					max = value;
+				}
+			}
+		}
+
+		return (Double.isNaN(min) ? null : new double[] { min, max });
+	}
+}
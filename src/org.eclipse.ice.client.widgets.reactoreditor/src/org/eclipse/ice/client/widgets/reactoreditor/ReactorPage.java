@@ -13,6 +13,7 @@
 package org.eclipse.ice.client.widgets.reactoreditor;
 
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 
 import org.eclipse.ice.client.widgets.ICEFormEditor;
 import org.eclipse.ice.client.widgets.ICEFormPage;
@@ -174,6 +175,18 @@ public class ReactorPage extends ICEFormPage implements IComponentVisitor,
 		if (broker != null) {
 			stateBroker = broker;
 
+			// Deliver the broker's notifications on the UI thread so that
+			// background computations do not block the views.
+			if (broker.getNotificationExecutor() == null) {
+				broker.setNotificationExecutor(new Executor() {
+					@Override
+					public void execute(Runnable command) {
+						PlatformUI.getWorkbench().getDisplay()
+								.asyncExec(command);
+					}
+				});
+			}
+
 			// Update the section parts.
 			if (analysisComposite != null) {
 				analysisComposite.setStateBroker(broker);
@@ -12,20 +12,70 @@
  *******************************************************************************/
 package org.eclipse.ice.client.widgets.reactoreditor;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A StateBroker instance manages a HashMap of key/value pairs and a registry
  * (also a HashMap) of IStateListeners who want to be notified when the value of
  * a certain key is changed.
+ * <p>
+ * By default, listeners are notified synchronously on the thread that changes
+ * a value. If a notification {@link Executor} is set (typically one that runs
+ * tasks on the UI thread), notifications are instead delivered asynchronously
+ * through it and are coalesced: if a key changes several times before its
+ * listeners are notified, they only receive its latest value.
+ * </p>
+ * <p>
+ * Values that are expensive to derive can be computed in the background with
+ * {@link #computeValue(String, Callable)}. Only the final result is put into
+ * the broker. A computation is cancelled if the same key is computed or put
+ * again before it finishes.
+ * </p>
  * 
  * @author Jordan H. Deyton
  * 
  */
 public class StateBroker {
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private static final Logger logger = LoggerFactory
+			.getLogger(StateBroker.class);
+
+	/**
+	 * The executor used to compute values in the background. It is shared by
+	 * all brokers.
+	 */
+	private static final ExecutorService computationExecutor = Executors
+			.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable,
+							"StateBroker Computation");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
 	/**
 	 * The values stored in the HashMap.
 	 */
@@ -36,6 +86,95 @@ public class StateBroker {
 	 */
 	private Map<String, HashSet<IStateListener>> registry;
 
+	/**
+	 * The executor used to notify listeners. If null, listeners are notified
+	 * on the thread that changed the value.
+	 */
+	private Executor notificationExecutor;
+	/**
+	 * The keys whose listeners have not yet been notified of a change. Only
+	 * used when there is a {@link #notificationExecutor}.
+	 */
+	private final Set<String> pendingKeys;
+	/**
+	 * Whether a task that notifies the listeners of the {@link #pendingKeys}
+	 * has been submitted to the {@link #notificationExecutor} but has not run.
+	 */
+	private boolean notificationScheduled;
+
+	/**
+	 * The computations that have been started but have not finished, keyed on
+	 * the keys whose values they compute.
+	 */
+	private final Map<String, Computation> computations;
+
+	/**
+	 * A computation of a value in the background. When it finishes, it puts
+	 * its result into its current broker, which may change if the broker's
+	 * values are copied to a new broker.
+	 * 
+	 * @author Jordan H. Deyton
+	 * 
+	 */
+	private static class Computation implements Runnable {
+		/**
+		 * The key whose value is computed.
+		 */
+		private final String key;
+		/**
+		 * The task that computes the value.
+		 */
+		private final Callable<?> callable;
+		/**
+		 * The broker that should receive the result. It is only changed by
+		 * {@link StateBroker#copyValues(StateBroker)} while holding the locks
+		 * of both the old and the new broker, so it can be read safely while
+		 * holding either lock.
+		 */
+		private volatile StateBroker broker;
+		/**
+		 * The Future for the running computation.
+		 */
+		private Future<?> future;
+
+		/**
+		 * The default constructor.
+		 * 
+		 * @param key
+		 *            The key whose value is computed.
+		 * @param callable
+		 *            The task that computes the value.
+		 * @param broker
+		 *            The broker that should receive the result.
+		 */
+		private Computation(String key, Callable<?> callable,
+				StateBroker broker) {
+			this.key = key;
+			this.callable = callable;
+			this.broker = broker;
+		}
+
+		@Override
+		public void run() {
+			Object result = null;
+			boolean succeeded = false;
+			try {
+				result = callable.call();
+				succeeded = !Thread.currentThread().isInterrupted();
+			} catch (InterruptedException e) {
+				// The computation was cancelled.
+			} catch (Exception e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+			// If the computation is moved to another broker while this
+			// thread is waiting for the lock, hand the result to that broker.
+			StateBroker target = broker;
+			while (!target.finishComputation(this, succeeded, result)) {
+				target = broker;
+			}
+		}
+	}
+
 	/**
 	 * The constructor. This initializes the HashMaps used for maintaining the
 	 * keys, values, and registry.
@@ -43,6 +182,8 @@ public class StateBroker {
 	public StateBroker() {
 		values = new HashMap<String, Object>();
 		registry = new HashMap<String, HashSet<IStateListener>>();
+		pendingKeys = new LinkedHashSet<String>();
+		computations = new HashMap<String, Computation>();
 
 		return;
 	}
@@ -55,13 +196,14 @@ public class StateBroker {
 	 * @return Returns an Object or null if the Object equals null or none
 	 *         exists.
 	 */
-	public Object getValue(String key) {
+	public synchronized Object getValue(String key) {
 		return values.get(key);
 	}
 
 	/**
 	 * Puts the value associated with the provided key in the HashMap. This will
-	 * notify registered IStateListeners if the value has been changed.
+	 * notify registered IStateListeners if the value has been changed. Any
+	 * computation of the key's value that has not finished is cancelled.
 	 * 
 	 * @param key
 	 *            A string.
@@ -70,30 +212,200 @@ public class StateBroker {
 	 * @return Returns the old value associated with the key.
 	 */
 	public Object putValue(String key, Object value) {
+		// The new value supersedes any value still being computed.
+		cancelComputation(key);
+		return setValue(key, value);
+	}
+
+	/**
+	 * Puts a value into the HashMap and notifies listeners if the value has
+	 * changed.
+	 * 
+	 * @param key
+	 *            A string.
+	 * @param value
+	 *            The new value.
+	 * @return Returns the old value associated with the key.
+	 */
+	private Object setValue(String key, Object value) {
 		// We need to check for null values and for equivalence of values.
 		Object oldValue;
+		boolean changed;
 
-		// We need to make sure the key exists first. This is necessary to
-		// discern whether the current value does not exist or it is null.
-		// (HashMap.put() returns null in both cases)
-		if (!values.containsKey(key)) {
-			oldValue = values.put(key, value);
-			notify(key);
-		} else {
-			// If the key does exist, insert the new value and receive its
-			// current value.
-			oldValue = values.put(key, value);
-			// Compare values to see if the value has actually changed.
-			if (oldValue != value) {
-				notify(key);
+		synchronized (this) {
+			// We need to make sure the key exists first. This is necessary to
+			// discern whether the current value does not exist or it is null.
+			// (HashMap.put() returns null in both cases)
+			if (!values.containsKey(key)) {
+				oldValue = values.put(key, value);
+				changed = true;
+			} else {
+				// If the key does exist, insert the new value and receive its
+				// current value.
+				oldValue = values.put(key, value);
+				// Compare values to see if the value has actually changed.
+				changed = (oldValue != value);
 			}
 		}
+		if (changed) {
+			notify(key);
+		}
 		// We need to return the old value.
 		return oldValue;
 	}
 
 	/**
-	 * Copies only the values from the specified StateBroker to this one.
+	 * Computes the value for a key in the background and puts it into the
+	 * broker when finished. If the key is already being computed, that
+	 * computation is cancelled. If the computation throws an exception, the
+	 * key's value is not changed.
+	 * <p>
+	 * If there is no notification executor, the value is computed on the
+	 * calling thread before this method returns.
+	 * </p>
+	 * 
+	 * @param key
+	 *            A string.
+	 * @param callable
+	 *            The task that computes the value. It should stop if its
+	 *            thread is interrupted.
+	 * @return The Future for the computation, or null if the parameters are
+	 *         invalid.
+	 */
+	public Future<?> computeValue(String key, Callable<?> callable) {
+
+		// Local Declarations
+		Future<?> future = null;
+
+		if (key != null && callable != null) {
+			Computation computation = new Computation(key, callable, this);
+			FutureTask<Object> task = null;
+			synchronized (this) {
+				Computation oldComputation = computations.put(key, computation);
+				if (oldComputation != null) {
+					oldComputation.future.cancel(true);
+				}
+				// Without a notification executor, listeners expect to be
+				// notified on the calling thread, so compute the value here.
+				if (notificationExecutor != null) {
+					computation.future = computationExecutor
+							.submit(computation);
+				} else {
+					task = new FutureTask<Object>(computation, null);
+					computation.future = task;
+				}
+				future = computation.future;
+			}
+			if (task != null) {
+				task.run();
+			}
+		}
+
+		return future;
+	}
+
+	/**
+	 * Puts the result of a finished computation into the broker if it is
+	 * still the latest computation for its key.
+	 * 
+	 * @param computation
+	 *            The finished computation.
+	 * @param succeeded
+	 *            Whether the computation finished without being cancelled or
+	 *            throwing an exception.
+	 * @param result
+	 *            The computed value.
+	 * @return True if the computation was handled, false if it was moved to
+	 *         another broker and should be finished there instead.
+	 */
+	private boolean finishComputation(Computation computation,
+			boolean succeeded, Object result) {
+		boolean current = false;
+		synchronized (this) {
+			if (computation.broker != this) {
+				return false;
+			}
+			if (computations.get(computation.key) == computation) {
+				computations.remove(computation.key);
+				current = !computation.future.isCancelled();
+			}
+		}
+		if (current && succeeded) {
+			setValue(computation.key, result);
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels the computation of a key's value if it has not finished.
+	 * 
+	 * @param key
+	 *            A string.
+	 */
+	private synchronized void cancelComputation(String key) {
+		Computation computation = computations.remove(key);
+		if (computation != null) {
+			computation.future.cancel(true);
+		}
+		return;
+	}
+
+	/**
+	 * Cancels all computations started with
+	 * {@link #computeValue(String, Callable)} that have not finished.
+	 */
+	public synchronized void cancelComputations() {
+		for (Computation computation : computations.values()) {
+			computation.future.cancel(true);
+		}
+		computations.clear();
+		return;
+	}
+
+	/**
+	 * Sets the executor used to notify listeners. If set, notifications are
+	 * delivered asynchronously through the executor, and only the latest value
+	 * of each key is delivered.
+	 * 
+	 * @param executor
+	 *            The executor for notifications, e.g., one that runs tasks on
+	 *            the UI thread. If null, listeners are notified synchronously.
+	 */
+	public void setNotificationExecutor(Executor executor) {
+		List<String> keys = null;
+		synchronized (this) {
+			notificationExecutor = executor;
+			// Deliver anything that was waiting on the previous executor.
+			if (executor == null && !pendingKeys.isEmpty()) {
+				keys = new ArrayList<String>(pendingKeys);
+				pendingKeys.clear();
+			} else if (executor != null && !pendingKeys.isEmpty()) {
+				notificationScheduled = false;
+				scheduleNotification();
+			}
+		}
+		if (keys != null) {
+			for (String key : keys) {
+				notifyListeners(key);
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Gets the executor used to notify listeners.
+	 * 
+	 * @return The executor, or null if listeners are notified synchronously.
+	 */
+	public synchronized Executor getNotificationExecutor() {
+		return notificationExecutor;
+	}
+
+	/**
+	 * Copies only the values from the specified StateBroker to this one. The
+	 * notification executor and any unfinished computations are also taken
+	 * over from the other broker, so that their results are put into this
+	 * broker.
 	 * 
 	 * @param broker
 	 *            The StateBroker whose key-value pairs should be copied.
@@ -101,14 +413,44 @@ public class StateBroker {
 	public void copyValues(StateBroker broker) {
 
 		// Make sure the source broker is valid.
-		if (broker != null) {
-			// Clear all key-value pairs.
-			values.clear();
+		if (broker != null && broker != this) {
+			Map<String, Object> otherValues;
+
+			// Both locks are held while the computations are moved so that a
+			// computation that finishes at the same time is handled by
+			// exactly one of the brokers. Only this method holds two broker
+			// locks, so brokers must not copy each other concurrently.
+			synchronized (this) {
+				synchronized (broker) {
+					otherValues = new HashMap<String, Object>(broker.values);
+
+					// Use the same executor as the other broker.
+					if (notificationExecutor == null) {
+						notificationExecutor = broker.notificationExecutor;
+					}
+
+					// Redirect the other broker's computations to this one.
+					for (Computation computation : broker.computations
+							.values()) {
+						computation.broker = this;
+						Computation oldComputation = computations.put(
+								computation.key, computation);
+						if (oldComputation != null) {
+							oldComputation.future.cancel(true);
+						}
+					}
+					broker.computations.clear();
+				}
+
+				// Clear all key-value pairs.
+				values.clear();
+			}
 
 			// Add each key-value pair from the other broker to this one. We
-			// should notify listeners when we add these pairs.
-			for (Entry<String, Object> entry : broker.values.entrySet()) {
-				putValue(entry.getKey(), entry.getValue());
+			// should notify listeners when we add these pairs. Keys that are
+			// still being computed are not cancelled.
+			for (Entry<String, Object> entry : otherValues.entrySet()) {
+				setValue(entry.getKey(), entry.getValue());
 			}
 		}
 
@@ -127,7 +469,7 @@ public class StateBroker {
 	 *            key's value.
 	 * @return Returns the current value Object associated with the key.
 	 */
-	public Object register(String key, IStateListener listener) {
+	public synchronized Object register(String key, IStateListener listener) {
 		// Get the set of listeners listening to this key.
 		HashSet<IStateListener> listeners = registry.get(key);
 
@@ -154,7 +496,7 @@ public class StateBroker {
 	 * @param listener
 	 *            The IStateListener that wants to get out of notifications.
 	 */
-	public void unregister(String key, IStateListener listener) {
+	public synchronized void unregister(String key, IStateListener listener) {
 		// Get the set of listeners listening to this key.
 		HashSet<IStateListener> listeners = registry.get(key);
 
@@ -167,18 +509,72 @@ public class StateBroker {
 	}
 
 	/**
-	 * Notifies all IStateListeners registered for a particular key.
+	 * Notifies all IStateListeners registered for a particular key. If there is
+	 * a notification executor, the notification is queued instead.
 	 * 
 	 * @param key
 	 *            A string. The value associated with it should have changed.
 	 */
 	private void notify(String key) {
+		synchronized (this) {
+			if (notificationExecutor != null) {
+				// Queue the key. If it is already queued, its listeners will
+				// only receive the latest value.
+				pendingKeys.add(key);
+				scheduleNotification();
+				return;
+			}
+		}
+		notifyListeners(key);
+	}
+
+	/**
+	 * Submits a task to the notification executor that notifies the listeners
+	 * of all pending keys. The caller must hold the lock on this broker.
+	 */
+	private void scheduleNotification() {
+		if (!notificationScheduled) {
+			notificationScheduled = true;
+			notificationExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					List<String> keys;
+					synchronized (StateBroker.this) {
+						notificationScheduled = false;
+						keys = new ArrayList<String>(pendingKeys);
+						pendingKeys.clear();
+					}
+					for (String key : keys) {
+						notifyListeners(key);
+					}
+				}
+			});
+		}
+		return;
+	}
+
+	/**
+	 * Sends the current value of a key to all IStateListeners registered for
+	 * it. Listeners are called without holding the lock on this broker.
+	 * 
+	 * @param key
+	 *            A string. The value associated with it should have changed.
+	 */
+	private void notifyListeners(String key) {
+		List<IStateListener> listeners = null;
+		Object value = null;
+
 		// Get the set of listeners listening to this key.
-		HashSet<IStateListener> listeners = registry.get(key);
+		synchronized (this) {
+			HashSet<IStateListener> registered = registry.get(key);
+			if (registered != null && !registered.isEmpty()) {
+				listeners = new ArrayList<IStateListener>(registered);
+				value = values.get(key);
+			}
+		}
 
 		// For each of the listeners, send them the key and the new value.
 		if (listeners != null) {
-			Object value = values.get(key);
 			for (IStateListener listener : listeners) {
 				listener.update(key, value);
 			}
@@ -189,20 +585,37 @@ public class StateBroker {
 
 	/**
 	 * Resets all of the keys prefixed by the provided String. This is used to
-	 * reset the values for all keys for a particular datasource.
+	 * reset the values for all keys for a particular datasource. Unfinished
+	 * computations for these keys are cancelled.
 	 * 
 	 * @param datasource
 	 *            The data source, e.g., Input, Reference, Comparison.
 	 */
 	public void resetSource(String datasource) {
 
+		List<String> keys = new ArrayList<String>();
+
 		// Loop over the keys in the Map. If the key matches the data source,
 		// (all keys are of the form "Input-some-key"), reset it.
-		for (Entry<String, Object> entry : values.entrySet()) {
-			if (entry.getKey().startsWith(datasource)) {
-				entry.setValue(null);
-				notify(entry.getKey());
+		synchronized (this) {
+			for (Entry<String, Object> entry : values.entrySet()) {
+				if (entry.getKey().startsWith(datasource)) {
+					entry.setValue(null);
+					keys.add(entry.getKey());
+				}
 			}
+			Iterator<Entry<String, Computation>> iterator = computations
+					.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Entry<String, Computation> entry = iterator.next();
+				if (entry.getKey().startsWith(datasource)) {
+					entry.getValue().future.cancel(true);
+					iterator.remove();
+				}
+			}
+		}
+		for (String key : keys) {
+			notify(key);
 		}
 
 		return;
@@ -12,9 +12,7 @@
  *******************************************************************************/
 package org.eclipse.ice.client.widgets;
 
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -29,7 +27,6 @@ import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
-import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
@@ -189,6 +186,9 @@ public class DataComponentComposite extends Composite implements
 			}
 		}
 
+		// Whether any EntryComposites were rendered and need to be re-ordered
+		boolean rendered = false;
+
 		// Begin comparing the list of Entries to the EntryComposites in
 		// entryMap to determine what needs to be done
 		int maxIterations = entries.size() > entryMap.size() ? entries.size()
@@ -212,6 +212,7 @@ public class DataComponentComposite extends Composite implements
 				// If the EntryComposite hasn't been rendered yet, render it,
 				// and add it to the entryMap
 				renderEntry(entry, i);
+				rendered = true;
 				entryComp = entryMap.get(i);
 				entryComp.setEntryValue(value);
 				entryComp.refresh();
@@ -229,6 +230,7 @@ public class DataComponentComposite extends Composite implements
 							allowedValue)) {
 						disposeEntry(i);
 						renderEntry(entry, i);
+						rendered = true;
 						entryComp = entryMap.get(i);
 						entryComp.setEntryValue(value);
 						entryComp.refresh();
@@ -237,6 +239,12 @@ public class DataComponentComposite extends Composite implements
 			}
 		}
 
+		// New EntryComposites are created at the end of the composite, so
+		// move them to the positions of their Entries.
+		if (rendered) {
+			reorderEntries();
+		}
+
 		// Layout the DataComponentComposite. This can redraw stale widgets.
 		layout();
 
@@ -318,7 +326,8 @@ public class DataComponentComposite extends Composite implements
 				// overridden method is not necessary.
 				super.setLayout(layout);
 			}
-			// Create EntryComposites for all ready Entries.
+			// Create EntryComposites for all ready Entries. They are created
+			// in order, so they do not need to be re-ordered.
 			for (int i = 0; i < entries.size(); i++) {
 				Entry entry = entries.get(i);
 				if (entry.isReady()) {
@@ -420,62 +429,29 @@ public class DataComponentComposite extends Composite implements
 		// Add the EntryComposite to the Map
 		entryMap.put(index, entryComposite);
 
-		// Lastly, reorder the EntryComposites on this DataComponentComposite
-		// to be in the correct order (according to their index in the entryMap)
-
-		// Begin by getting a list of the EntryComposites as they appear in the
-		// UI, and make a map indexing them based on their order.
-		List<Control> uiEntryComps = Arrays.asList(getChildren());
-		HashMap<Integer, EntryComposite> uiMap = new HashMap<Integer, EntryComposite>();
-		for (int i = 0; i < uiEntryComps.size(); i++) {
-			EntryComposite e = (EntryComposite) uiEntryComps.get(i);
-			if (e != null) {
-				uiMap.put(i, e);
-			}
-		}
-
-		// Go through the entryMap and compare the order to the uiMap order
-		for (int i = 0; i < entryMap.size(); i++) {
-
-			// Get the Entries from the entryMap and UI and make sure they're
-			// valid
-			Entry mapEntry = null, uiEntry = null;
-			if (entryMap.get(i) != null)
-				mapEntry = entryMap.get(i).entry;
-			if (uiMap.get(i) != null)
-				uiEntry = uiMap.get(i).entry;
-			if (mapEntry == null || uiEntry == null) {
-				continue;
-			}
-
-			// If the Entries don't match, find where in the UI the
-			// corresponding EntryComposite really is
-			int uiPosition = 0;
-			if (!mapEntry.getName().equals(uiEntry.getName())) {
-				for (int j = 0; j < uiEntryComps.size(); j++) {
-					Entry e = uiMap.get(j).entry;
-					if (e.getName().equals(mapEntry.getName())) {
-						uiPosition = j;
-						break;
-					}
-				}
+		return;
+	}
 
-				// Now determine where to move the UI EntryComposite
-				if (i - 1 >= 0) {
-					// Try getting the EntryComposite above the proper location
-					EntryComposite entryAbove = uiMap.get(i - 1);
-					// Move the UI EntryComposite into its correct position
-					if (entryAbove != null) {
-						uiMap.get(uiPosition).moveBelow(entryAbove);
-					}
-				} else if (i + 1 <= entryMap.size()) {
-					// Try getting the EntryComposite below the proper location
-					EntryComposite entryBelow = uiMap.get(i + 1);
-					// Move the UI EntryComposite into its correct position
-					if (entryBelow != null) {
-						uiMap.get(uiPosition).moveAbove(entryBelow);
-					}
+	/**
+	 * This operation reorders the EntryComposites on this
+	 * DataComponentComposite to be in the correct order (according to their
+	 * index in the entryMap). This should be called once after rendering
+	 * Entries out of order rather than after each rendered Entry, since it
+	 * looks at every EntryComposite.
+	 */
+	private void reorderEntries() {
+
+		// Move each EntryComposite below the previous one in the entryMap. The
+		// first one is moved to the top.
+		EntryComposite previous = null;
+		synchronized (entryMap) {
+			for (EntryComposite entryComp : entryMap.values()) {
+				if (previous == null) {
+					entryComp.moveAbove(null);
+				} else {
+					entryComp.moveBelow(previous);
 				}
+				previous = entryComp;
 			}
 		}
 
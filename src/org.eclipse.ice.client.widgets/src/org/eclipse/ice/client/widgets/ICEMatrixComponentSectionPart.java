@@ -14,6 +14,7 @@ package org.eclipse.ice.client.widgets;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
@@ -26,7 +27,7 @@ import org.eclipse.jface.viewers.CellLabelProvider;
 import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
 import org.eclipse.jface.viewers.ComboBoxViewerCellEditor;
 import org.eclipse.jface.viewers.ICellModifier;
-import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
@@ -112,8 +113,27 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 
 	/**
 	 * <p>
-	 * Class used to pass information for the rows in TableComponent to
-	 * TableViewer
+	 * The rows that have been shown in the TableViewer, or null for rows that
+	 * have not been shown yet. Rows are only created when the virtual table
+	 * asks for them.
+	 * </p>
+	 * 
+	 */
+	private final ArrayList<RowWrapper> rows = new ArrayList<RowWrapper>();
+
+	/**
+	 * <p>
+	 * The number of columns in the table when the column widths were last set.
+	 * </p>
+	 * 
+	 */
+	private int columnCount;
+
+	/**
+	 * <p>
+	 * Class used to pass information for the rows in MatrixComponent to
+	 * TableViewer. It keeps a copy of the row's values so that only the rows
+	 * that changed need to be updated in the table.
 	 * </p>
 	 * 
 	 */
@@ -121,74 +141,85 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 
 		/**
 		 * <p>
-		 * Holds an ArrayList of Entries in the TableComponent for TableViewer.
+		 * The values of the row in the MatrixComponent when it was last read.
 		 * </p>
 		 * 
 		 */
-		private List<Double> list;
+		private List<Double> values;
 
 		/**
 		 * <p>
+		 * The index of the row in the MatrixComponent.
 		 * </p>
 		 * 
 		 */
-		private int rowIndex;
+		private final int rowIndex;
 
 		/**
 		 * <p>
-		 * The Constructor, injects the ArrayList of Entries at this row.
+		 * The Constructor, reads the values of the row at the index.
 		 * </p>
 		 * 
-		 * @param list
+		 * @param index
 		 *            <p>
-		 *            The list of Entries that make up this RowWrapper.
+		 *            The index of the row in the MatrixComponent.
 		 *            </p>
 		 * 
 		 */
-		public RowWrapper(ArrayList<Double> row, int index) {
-			this.list = row;
+		public RowWrapper(int index) {
 			rowIndex = index;
+			read();
 		}
 
 		/**
 		 * <p>
-		 * Return the ArrayList of Entries for this row.
+		 * Reads the values of the row from the MatrixComponent.
 		 * </p>
 		 * 
 		 */
-		public List<Double> getRowWrapper() {
-			return list;
+		public void read() {
+			values = matrixComponent.getRow(rowIndex);
 		}
 
 		/**
 		 * <p>
+		 * Returns true if the row in the MatrixComponent no longer matches the
+		 * values that were last read.
 		 * </p>
 		 * 
 		 */
-		public void add() {
-			list.add(0.0);
-		}
-
-		/**
-		 * <p>
-		 * </p>
-		 * 
-		 */
-		public void add(Double value) {
-			list.add(value);
+		public boolean isStale() {
+			if (values == null
+					|| values.size() != matrixComponent.numberOfColumns()) {
+				return true;
+			}
+			for (int i = 0; i < values.size(); i++) {
+				Double value = matrixComponent.getElementValue(rowIndex, i);
+				if (value == null ? values.get(i) != null : !value.equals(values
+						.get(i))) {
+					return true;
+				}
+			}
+			return false;
 		}
 
 		/**
 		 * <p>
+		 * Returns the value of the element in the column, or the value in the
+		 * MatrixComponent if the column was added after the row was read.
 		 * </p>
 		 * 
 		 */
-		public void remove() {
-			list.remove(list.size() - 1);
+		public Double getValue(int column) {
+			if (values != null && column < values.size()) {
+				return values.get(column);
+			}
+			return matrixComponent.getElementValue(rowIndex, column);
 		}
 
 		/**
 		 * <p>
+		 * Returns the index of the row in the MatrixComponent.
 		 * </p>
 		 * 
 		 */
@@ -239,8 +270,9 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 		/**
 		 * <p>
 		 * Update is called whenever data is entered into the cell. Current
-		 * implementation simply sets the text as what's currently the value on
-		 * the Entry
+		 * implementation simply sets the text as the value of the element in
+		 * the row, which is read from the MatrixComponent when the row is
+		 * shown or changes.
 		 * </p>
 		 * 
 		 * @param cell
@@ -251,8 +283,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 		 */
 		@Override
 		public void update(ViewerCell cell) {
-			cell.setText(((RowWrapper) cell.getElement()).getRowWrapper()
-					.get(tableColumn).toString());
+			cell.setText(String.valueOf(((RowWrapper) cell.getElement())
+					.getValue(tableColumn)));
 		}
 
 		/**
@@ -354,9 +386,9 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 					counter = i;
 				}
 			}
-			// Return value of entry given the column (counter)
-			return ((RowWrapper) element).getRowWrapper().get(counter)
-					.toString();
+			// Return value of the element given the column (counter)
+			return matrixComponent.getElementValue(
+					((RowWrapper) element).getRowIndex(), counter).toString();
 		}
 
 		/**
@@ -406,15 +438,12 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 
 			}
 
-			// Set the value on the RowWrapper instance
-			row.getRowWrapper()
-					.set(counter,
-							matrixComponent.getElementValue(row.getRowIndex(),
-									counter));
+			// Read the new values into the RowWrapper instance
+			row.read();
 
-			// Set the Cell's text and refresh the TableViewer
-			item.setText(row.getRowWrapper().get(counter).toString());
-			matrixViewer.refresh();
+			// Set the Cell's text and update the row in the TableViewer
+			item.setText(counter, String.valueOf(row.getValue(counter)));
+			matrixViewer.update(row, null);
 		}
 	}
 
@@ -462,9 +491,10 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 			return;
 		}
 		// Instantiate a new JFace TableViewer with the sectionClient as its
-		// parent
+		// parent. The table is virtual so that only the visible rows are
+		// created.
 		matrixViewer = new TableViewer(sectionClient, SWT.BORDER | SWT.H_SCROLL
-				| SWT.V_SCROLL | SWT.FULL_SELECTION);
+				| SWT.V_SCROLL | SWT.FULL_SELECTION | SWT.VIRTUAL);
 
 		// Enable tooltip support for the individual ColumnViewers
 		// Original version, commented out for RAP testing. ~JJB 20120827
@@ -531,15 +561,10 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 		// Attach Cell Modifiers
 		attachCellModifiers();
 
-		// JFace Viewer Model requires an input Model.
-		// Set it up here
-		RowWrapper[] rows = new RowWrapper[matrixComponent.numberOfRows()];
-		for (int i = 0; i < matrixComponent.numberOfRows(); i++) {
-			rows[i] = new RowWrapper(matrixComponent.getRow(i), i);
-		}
-
-		// Set that input
-		matrixViewer.setInput(rows);
+		// JFace Viewer Model requires an input Model. The rows are only
+		// created when they are shown, so the input is the MatrixComponent.
+		matrixViewer.setInput(matrixComponent);
+		columnCount = matrixViewer.getTable().getColumnCount();
 
 		// Tell the TableViewer to show the column headers and the
 		// Grid lines
@@ -655,12 +680,10 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 		if (matrixViewer == null) {
 			return;
 		}
-		// Set the ContentProvider as a realization of the
-		// IStructuredContentProvider
-		// Interface. This provides input to the JFace Viewer individual Arrays
-		// representing
-		// rows in a table, or items in a list or tree.
-		matrixViewer.setContentProvider(new IStructuredContentProvider() {
+		// Set the ContentProvider as a realization of the ILazyContentProvider
+		// Interface. The input is the MatrixComponent, and a RowWrapper is only
+		// created for a row when it becomes visible in the virtual table.
+		matrixViewer.setContentProvider(new ILazyContentProvider() {
 			@Override
 			public void dispose() {
 			}
@@ -668,15 +691,81 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 			@Override
 			public void inputChanged(Viewer viewer, Object oldInput,
 					Object newInput) {
+				// Update the number of rows in the table.
+				if (newInput instanceof MatrixComponent) {
+					int rowCount = ((MatrixComponent) newInput).numberOfRows();
+					rows.clear();
+					rows.addAll(Collections.<RowWrapper> nCopies(rowCount,
+							null));
+					matrixViewer.setItemCount(rowCount);
+				}
 			}
 
 			@Override
-			public Object[] getElements(Object inputElement) {
-				return (RowWrapper[]) inputElement;
+			public void updateElement(int index) {
+				if (index < rows.size()) {
+					// Create the row the first time it is shown, and read it
+					// again if it changed while it was not shown.
+					RowWrapper row = rows.get(index);
+					if (row == null) {
+						row = new RowWrapper(index);
+						rows.set(index, row);
+					} else if (row.isStale()) {
+						row.read();
+					}
+					matrixViewer.replace(row, index);
+				}
 			}
 		});
 	}
 
+	/**
+	 * <p>
+	 * This operation updates the table after the MatrixComponent changed. The
+	 * number of rows is updated, rows that have been shown are only replaced
+	 * if their values changed, and the column widths are only set again if the
+	 * number of columns changed.
+	 * </p>
+	 * 
+	 */
+	protected void updateRows() {
+		// Make sure we have a valid TableViewer
+		if (matrixViewer == null || matrixViewer.getTable().isDisposed()) {
+			return;
+		}
+
+		// Add or remove rows. New rows are created when they are shown.
+		int rowCount = matrixComponent.numberOfRows();
+		while (rows.size() > rowCount) {
+			rows.remove(rows.size() - 1);
+		}
+		while (rows.size() < rowCount) {
+			rows.add(null);
+		}
+		matrixViewer.setItemCount(rowCount);
+
+		// Replace the rows that have been shown and changed
+		for (int i = 0; i < rowCount; i++) {
+			RowWrapper row = rows.get(i);
+			if (row != null && row.isStale()) {
+				row.read();
+				matrixViewer.replace(row, i);
+			}
+		}
+
+		// Resize the column widths if columns were added or removed
+		if (columnCount != matrixViewer.getTable().getColumnCount()) {
+			columnCount = matrixViewer.getTable().getColumnCount();
+			int columnWidth = matrixViewer.getTable().getSize().x
+					/ Math.max(columnCount, 1);
+			for (TableColumn col : matrixViewer.getTable().getColumns()) {
+				col.setWidth(columnWidth);
+			}
+		}
+
+		return;
+	}
+
 	/**
 	 * <p>
 	 * This operation attaches the CellModifiers to the TableViewer so that
@@ -710,10 +799,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 					getSection().setDescription(
 							matrixComponent.getDescription());
 
-					// Get the old input
-					RowWrapper[] rows = (RowWrapper[]) matrixViewer.getInput();
-					RowWrapper[] newRows = rows;
-					int nCols = rows[0].getRowWrapper().size();
+					// Get the number of columns in the table
+					int nCols = matrixViewer.getTable().getColumnCount();
 
 					// Check if we need to add or remove more columns
 					if (nCols != matrixComponent.numberOfColumns()) {
@@ -801,50 +888,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 						}
 					}
 
-					// Set a new input if need be. This is for when we need to
-					// add or remove Rows
-					if (rows.length != matrixComponent.numberOfRows()
-							|| rows[0].getRowWrapper().size() != matrixComponent
-									.numberOfColumns()) {
-						logger.info("Altering Rows: "
-								+ matrixComponent.numberOfRows() + " "
-								+ matrixComponent.numberOfColumns());
-						newRows = new RowWrapper[matrixComponent.numberOfRows()];
-						for (int i = 0; i < matrixComponent.numberOfRows(); i++) {
-							logger.info("Row: ");
-							for (int j = 0; j < matrixComponent
-									.numberOfColumns(); j++) {
-								logger.info(matrixComponent.getRow(i).get(
-										j)
-										+ " ");
-							}
-							logger.info("");
-							newRows[i] = new RowWrapper(matrixComponent
-									.getRow(i), i);
-						}
-
-					}
-
-					// Resize the column widths
-					int columnWidth = matrixViewer.getTable().getSize().x
-							/ matrixViewer.getTable().getColumnCount();
-					for (TableColumn col : matrixViewer.getTable().getColumns()) {
-						col.setWidth(columnWidth);
-					}
-
-					// Make sure the individual matrix elements are correct
-					for (int i = 0; i < newRows.length; i++) {
-						for (int j = 0; j < matrixComponent.numberOfColumns(); j++) {
-							newRows[i].getRowWrapper().set(j,
-									matrixComponent.getElementValue(i, j));
-						}
-					}
-
-					// Set the new input
-					matrixViewer.setInput(newRows);
-
-					// Refresh the Viewer
-					matrixViewer.refresh();
+					// Update the rows that changed and the number of rows
+					updateRows();
 
 				}
 			}
@@ -953,44 +998,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 							column.setLabelProvider(new ICECellLabelProvider(
 									matrixComponent.numberOfColumns() - 1));
 
-							// Create a new Input to set in the JFace Viewer
-							// model that is taken from the old input
-							RowWrapper[] rows = (RowWrapper[]) matrixViewer
-									.getInput();
-							RowWrapper[] newRows = new RowWrapper[rows.length + 1];
-
-							// Set the new Input
-							for (int i = 0; i < matrixComponent.numberOfRows(); i++) {
-								if (i == (matrixComponent.numberOfRows() - 1)) {
-									// If this is the last iteration, add a new
-									// RowWrapper
-									newRows[i] = new RowWrapper(matrixComponent
-											.getRow(i), i);
-								} else {
-									// Otherwise, add a column entry to each row
-									if (matrixComponent.getAllowedValueType() == AllowedValueType.Discrete) {
-										rows[i].add(matrixComponent
-												.getAllowedValues().get(0));
-									} else {
-										rows[i].add();
-									}
-									newRows[i] = rows[i];
-								}
-							}
-
-							// Set the new Input
-							matrixViewer.setInput(newRows);
-
-							// Resize the column widths
-							int columnWidth = matrixViewer.getTable().getSize().x
-									/ matrixViewer.getTable().getColumnCount();
-							for (TableColumn col : matrixViewer.getTable()
-									.getColumns()) {
-								col.setWidth(columnWidth);
-							}
-
-							// Refresh the Table
-							matrixViewer.refresh();
+							// Update the rows and columns shown in the table
+							updateRows();
 						}
 					}
 				});
@@ -1091,30 +1100,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 													.getColumnCount() - 1)
 									.dispose();
 
-							// Set up a new Input for the JFace Viewer Model
-							RowWrapper[] rows = (RowWrapper[]) matrixViewer
-									.getInput();
-							RowWrapper[] newRows = new RowWrapper[rows.length - 1];
-
-							for (int i = 0; i < matrixComponent.numberOfRows(); i++) {
-								// Remove a column entry from the row wrappers
-								rows[i].remove();
-								newRows[i] = rows[i];
-							}
-
-							// Set the Input
-							matrixViewer.setInput(newRows);
-
-							// Resize the column widths
-							int columnWidth = matrixViewer.getTable().getSize().x
-									/ matrixViewer.getTable().getColumnCount();
-							for (TableColumn col : matrixViewer.getTable()
-									.getColumns()) {
-								col.setWidth(columnWidth);
-							}
-
-							// Refresh the Viewer
-							matrixViewer.refresh();
+							// Update the rows and columns shown in the table
+							updateRows();
 
 						}
 					}
@@ -1149,35 +1136,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 							// MatrixComponent
 							matrixComponent.addRow();
 
-							// Create a new input from the old input
-							RowWrapper[] rows = (RowWrapper[]) matrixViewer
-									.getInput();
-							RowWrapper[] newRows = new RowWrapper[rows.length + 1];
-
-							// Add the old rows to the new input, but
-							// add a new row at the end
-							for (int i = 0; i < matrixComponent.numberOfRows(); i++) {
-								if (i == (matrixComponent.numberOfRows() - 1)) {
-									newRows[i] = new RowWrapper(matrixComponent
-											.getRow(i), i);
-								} else {
-									newRows[i] = rows[i];
-								}
-							}
-
-							// Set that Input
-							matrixViewer.setInput(newRows);
-
-							// Resize the column widths
-							int columnWidth = matrixViewer.getTable().getSize().x
-									/ matrixViewer.getTable().getColumnCount();
-							for (TableColumn col : matrixViewer.getTable()
-									.getColumns()) {
-								col.setWidth(columnWidth);
-							}
-
-							// Refresh the Viewer
-							matrixViewer.refresh();
+							// Update the rows and columns shown in the table
+							updateRows();
 						}
 					}
 				});
@@ -1209,31 +1169,9 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 									// Delete a Row from the Matrix
 									matrixComponent.deleteRow();
 
-									// Create a new input from the old input
-									RowWrapper[] rows = (RowWrapper[]) matrixViewer
-											.getInput();
-									RowWrapper[] newRows = new RowWrapper[rows.length - 1];
-
-									for (int i = 0; i < matrixComponent
-											.numberOfRows(); i++) {
-										newRows[i] = rows[i];
-									}
-
-									// Set that new Input
-									matrixViewer.setInput(newRows);
-
-									// Resize the column widths
-									int columnWidth = matrixViewer.getTable()
-											.getSize().x
-											/ matrixViewer.getTable()
-													.getColumnCount();
-									for (TableColumn col : matrixViewer
-											.getTable().getColumns()) {
-										col.setWidth(columnWidth);
-									}
-
-									// Refresh the Viewer
-									matrixViewer.refresh();
+									// Update the rows and columns shown in the
+									// table
+									updateRows();
 								}
 							}
 						});
@@ -1328,29 +1266,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 													.getColumnCount() - 1)
 									.dispose();
 
-							// Create a new Input from the old Input
-							RowWrapper[] rows = (RowWrapper[]) matrixViewer
-									.getInput();
-							RowWrapper[] newRows = new RowWrapper[rows.length];
-
-							for (int i = 0; i < matrixComponent.numberOfRows(); i++) {
-								rows[i].remove();
-								newRows[i] = rows[i];
-							}
-
-							// Set the new Input
-							matrixViewer.setInput(newRows);
-
-							// Resize the column widths
-							int columnWidth = matrixViewer.getTable().getSize().x
-									/ matrixViewer.getTable().getColumnCount();
-							for (TableColumn col : matrixViewer.getTable()
-									.getColumns()) {
-								col.setWidth(columnWidth);
-							}
-
-							// Refresh the Viewer
-							matrixViewer.refresh();
+							// Update the rows and columns shown in the table
+							updateRows();
 						}
 					}
 				});
@@ -1448,34 +1365,8 @@ public class ICEMatrixComponentSectionPart extends SectionPart implements
 							column.setLabelProvider(new ICECellLabelProvider(
 									matrixComponent.numberOfColumns() - 1));
 
-							// Create a new Input
-							RowWrapper[] rows = (RowWrapper[]) matrixViewer
-									.getInput();
-							RowWrapper[] newRows = new RowWrapper[rows.length];
-
-							for (int i = 0; i < matrixComponent.numberOfRows(); i++) {
-								if (matrixComponent.getAllowedValueType() == AllowedValueType.Discrete) {
-									rows[i].add(matrixComponent
-											.getAllowedValues().get(0));
-								} else {
-									rows[i].add();
-								}
-								newRows[i] = rows[i];
-							}
-
-							// Set the newly created input
-							matrixViewer.setInput(newRows);
-
-							// Resize the column widths
-							int columnWidth = matrixViewer.getTable().getSize().x
-									/ matrixViewer.getTable().getColumnCount();
-							for (TableColumn col : matrixViewer.getTable()
-									.getColumns()) {
-								col.setWidth(columnWidth);
-							}
-
-							// Viewer refresh
-							matrixViewer.refresh();
+							// Update the rows and columns shown in the table
+							updateRows();
 
 						}
 
@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.ice.client.common.PropertySource;
+import org.eclipse.ice.client.common.ViewerUpdateQueue;
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
 import org.eclipse.ice.datastructures.ICEObject.IUpdateableListener;
@@ -158,6 +159,13 @@ public class ICEResourceView extends PlayableViewPart implements
 	 */
 	private final ListComponent<VizResource> plotList;
 
+	/**
+	 * Batches updates from the {@link #resourceComponent} so that the
+	 * {@link #resourceTreeViewer} is only updated once for several resources
+	 * added in quick succession.
+	 */
+	private final ViewerUpdateQueue<ResourceComponent> updateQueue;
+
 	/**
 	 * The default constructor.
 	 */
@@ -173,6 +181,17 @@ public class ICEResourceView extends PlayableViewPart implements
 		// Initialize the list of VizResources.
 		plotList = new ListComponent<VizResource>();
 
+		// Initialize the queue of updates from the ResourceComponent.
+		updateQueue = new ViewerUpdateQueue<ResourceComponent>() {
+			@Override
+			protected void process(List<ResourceComponent> elements) {
+				// Only the current ResourceComponent is processed.
+				if (elements.contains(resourceComponent)) {
+					updateTreeContent();
+				}
+			}
+		};
+
 		return;
 	}
 
@@ -261,6 +280,7 @@ public class ICEResourceView extends PlayableViewPart implements
 		if (resourceComponent != null) {
 			// Unregister from the old ResourceComponent.
 			resourceComponent.unregister(this);
+			updateQueue.clear();
 
 			// Clear the related UI pieces.
 			if (resourceTreeViewer != null
@@ -538,29 +558,105 @@ public class ICEResourceView extends PlayableViewPart implements
 	public void update(IUpdateable component) {
 
 		// Only perform a UI update if the component is valid and the UI pieces
-		// exist.
+		// exist. The update is batched with any others that arrive before the
+		// UI thread processes it.
 		if (component != null && component == resourceComponent
 				&& resourceTreeViewer != null) {
+			updateQueue.post(resourceComponent);
+		}
 
-			// Sync with the display
-			PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable() {
-				@Override
-				public void run() {
-					// Just do a blanket update - no need to check the component
-					if (resourceTreeViewer != null
-							&& !resourceTreeViewer.getControl().isDisposed()) {
-						logger.info("ICEResourceView Message: "
-								+ "Updating resource table.");
-						sortTreeContent();
-						setTreeContent();
-						resourceTreeViewer.refresh();
-						resourceTreeViewer.getTree().redraw();
+		return;
+	}
+
+	/**
+	 * Updates the {@link #resourceTreeViewer} with the current resources from
+	 * the {@link #resourceComponent}. If resources were only added, the new
+	 * resources are added to the viewer. Otherwise, the viewer's content is
+	 * reset. This must be called on the UI thread.
+	 */
+	private void updateTreeContent() {
+
+		// Make sure the UI pieces still exist.
+		if (resourceTreeViewer != null
+				&& !resourceTreeViewer.getControl().isDisposed()) {
+			logger.info("ICEResourceView Message: "
+					+ "Updating resource table.");
+			if (!appendTreeContent()) {
+				sortTreeContent();
+				setTreeContent();
+				resourceTreeViewer.refresh();
+			}
+			resourceTreeViewer.getTree().redraw();
+		}
+
+		return;
+	}
+
+	/**
+	 * Adds any new resources from the {@link #resourceComponent} to the text-
+	 * and image-based resource lists and to the {@link #resourceTreeViewer}
+	 * without rebuilding the viewer's content.
+	 * 
+	 * @return True if the resources could be appended, false if the lists
+	 *         need to be rebuilt because resources were removed or re-ordered
+	 *         or because the displayed list was empty.
+	 */
+	private boolean appendTreeContent() {
+
+		// Local Declarations
+		List<ResourcePropertySource> newText = new ArrayList<ResourcePropertySource>();
+		List<ResourcePropertySource> newImages = new ArrayList<ResourcePropertySource>();
+		int textIndex = 0;
+		int imageIndex = 0;
+		Object input = resourceTreeViewer.getInput();
+
+		// The displayed list must have content. Otherwise, the tab and the
+		// selection need to be reset.
+		if (!(input == textList && !textList.isEmpty())
+				&& !(input == imageList && !imageList.isEmpty())) {
+			return false;
+		}
+
+		// The current lists must be a prefix of the new resources.
+		for (ICEResource i : resourceComponent.getResources()) {
+			if (!i.isPictureType()) {
+				if (textIndex < textList.size()) {
+					if (textList.get(textIndex).getWrappedData() != i) {
+						return false;
 					}
+				} else {
+					newText.add(new ResourcePropertySource(i));
 				}
-			});
+				textIndex++;
+			} else {
+				if (imageIndex < imageList.size()) {
+					if (imageList.get(imageIndex).getWrappedData() != i) {
+						return false;
+					}
+				} else {
+					newImages.add(new ResourcePropertySource(i));
+				}
+				imageIndex++;
+			}
+		}
+		if (textIndex < textList.size() || imageIndex < imageList.size()) {
+			return false;
 		}
 
-		return;
+		// Add the new resources to the lists and the displayed ones to the
+		// viewer. The labels of the existing resources are also updated.
+		List<ResourcePropertySource> displayed = (input == textList ? textList
+				: imageList);
+		resourceTreeViewer.update(displayed.toArray(), null);
+		textList.addAll(newText);
+		imageList.addAll(newImages);
+		List<ResourcePropertySource> added = (input == textList ? newText
+				: newImages);
+		if (!added.isEmpty()) {
+			resourceTreeViewer.add(input, added.toArray());
+		}
+
+		return true;
 	}
 
 	/**
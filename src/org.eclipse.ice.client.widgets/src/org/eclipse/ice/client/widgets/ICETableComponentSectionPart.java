@@ -26,8 +26,8 @@ import org.eclipse.jface.viewers.CellLabelProvider;
 import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
 import org.eclipse.jface.viewers.ComboBoxViewerCellEditor;
 import org.eclipse.jface.viewers.ICellModifier;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
-import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.TableViewer;
@@ -105,6 +105,13 @@ public class ICETableComponentSectionPart extends SectionPart implements
 	 */
 	private ICEFormEditor editor;
 
+	/**
+	 * The rows that have been shown in the TableViewer, or null for rows that
+	 * have not been shown yet. Rows are only created when the virtual table
+	 * asks for them.
+	 */
+	private final ArrayList<RowWrapper> rows = new ArrayList<RowWrapper>();
+
 	/**
 	 * Class used to pass information for the rows in TableComponent to
 	 * TableViewer
@@ -137,6 +144,30 @@ public class ICETableComponentSectionPart extends SectionPart implements
 		public List<Entry> getRowWrapper() {
 			return list;
 		}
+
+		/**
+		 * Returns true if the row at the index in the TableComponent no longer
+		 * holds the same Entries as this RowWrapper. The Entries are compared
+		 * by reference since they are edited through the RowWrapper.
+		 * 
+		 * @param index
+		 *            The index of the row in the TableComponent.
+		 */
+		public boolean isStale(int index) {
+
+			// Local Declarations
+			List<Entry> row = tableComponent.getRow(index);
+
+			if (row == null || row.size() != list.size()) {
+				return true;
+			}
+			for (int i = 0; i < list.size(); i++) {
+				if (row.get(i) != list.get(i)) {
+					return true;
+				}
+			}
+			return false;
+		}
 	}
 
 	/**
@@ -407,15 +438,8 @@ public class ICETableComponentSectionPart extends SectionPart implements
 					// Add a row to the tableComponent
 					tableComponent.addRow();
 
-					// Reset input for tableViewer
-					RowWrapper[] rows = new RowWrapper[tableComponent
-							.getRowIds().size()];
-					// add rows to list - using RowWrapper class
-					for (int i = 0; i < tableComponent.getRowIds().size(); i++) {
-						rows[i] = (new RowWrapper(tableComponent.getRow(i)));
-					}
-					// Reset the input
-					tableComponentViewer.setInput(rows);
+					// Reset the rows in the tableViewer
+					refreshRows();
 
 					// Make the editor dirty
 					editor.setDirty(true);
@@ -456,15 +480,8 @@ public class ICETableComponentSectionPart extends SectionPart implements
 					tableComponent.deleteRow(tableComponentViewer.getTable()
 							.getSelectionIndex());
 
-					// Reset input for tableViewer
-					RowWrapper[] rows = new RowWrapper[tableComponent
-							.getRowIds().size()];
-					// add rows to list - using RowWrapper class
-					for (int i = 0; i < tableComponent.getRowIds().size(); i++) {
-						rows[i] = (new RowWrapper(tableComponent.getRow(i)));
-					}
-					// Reset the input
-					tableComponentViewer.setInput(rows);
+					// Reset the rows in the tableViewer
+					refreshRows();
 
 					// Make the editor dirty
 					editor.setDirty(true);
@@ -503,8 +520,9 @@ public class ICETableComponentSectionPart extends SectionPart implements
 		// Allow for a border, horizontal scroll, vertical scroll, and
 		// full selection of the row. This style configuration is for the
 		// TableViewer.
+		// The table is virtual so that only the visible rows are created.
 		int style = SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL
-				| SWT.FULL_SELECTION;
+				| SWT.FULL_SELECTION | SWT.VIRTUAL;
 
 		// Initialize the tableViewer and set it up with the style
 		// configuration. Add it to the sectionClient composite.
@@ -582,18 +600,11 @@ public class ICETableComponentSectionPart extends SectionPart implements
 		// set cell editors to TableViewer
 		attachCellModifiers();
 
-		// These rows will be used to wrap the arraylist of tableComponent
-		// entries
-		// into the RowWrapper class.
-		RowWrapper[] rows = new RowWrapper[tableComponent.getRowIds().size()];
-
-		// add rows to list - using RowWrapper class
-		for (int i = 0; i < tableComponent.getRowIds().size(); i++) {
-			rows[i] = (new RowWrapper(tableComponent.getRow(i)));
-		}
-
-		// Set the rows in TableViewer.
-		tableComponentViewer.setInput(rows);
+		// Set the TableComponent as the input. The rows are wrapped in the
+		// RowWrapper class as they become visible.
+		rows.clear();
+		tableComponentViewer.setInput(tableComponent);
+		refreshRows();
 
 		// Set header and lines visible.
 		table.setHeaderVisible(true);
@@ -648,6 +659,10 @@ public class ICETableComponentSectionPart extends SectionPart implements
 	 * This operation creates the content provider that sets up the rows of the
 	 * TableViewer.
 	 * </p>
+	 * <p>
+	 * The content provider is lazy. Rows are only read from the TableComponent
+	 * and wrapped in RowWrappers when the virtual table needs to show them.
+	 * </p>
 	 * 
 	 */
 	protected void attachContentProvider() {
@@ -656,34 +671,79 @@ public class ICETableComponentSectionPart extends SectionPart implements
 		if (this.tableComponentViewer == null) {
 			return;
 		}
-		// Override the functionality of the content provider. Only one method
-		// is implemented here. This is for marshalling objects into
-		// RowWrappers.
+		// Override the functionality of the content provider. This is for
+		// marshalling rows into RowWrappers as they are needed.
 		this.tableComponentViewer
-				.setContentProvider(new IStructuredContentProvider() {
+				.setContentProvider(new ILazyContentProvider() {
 
 					@Override
 					public void dispose() {
-						// TODO Auto-generated method stub
+						// Nothing to do.
 					}
 
 					@Override
 					public void inputChanged(Viewer arg0, Object arg1,
 							Object arg2) {
-						// TODO Auto-generated method stub
+						// Nothing to do.
 					}
 
 					@Override
-					public Object[] getElements(Object element) {
-
-						// Return the list of rowWrapper elements from an Object
-						return (RowWrapper[]) element;
+					public void updateElement(int index) {
+						// Wrap the row at the index the first time it is shown
+						// and put it in the table.
+						if (index < rows.size()) {
+							RowWrapper row = rows.get(index);
+							if (row == null || row.isStale(index)) {
+								row = new RowWrapper(tableComponent
+										.getRow(index));
+								rows.set(index, row);
+							}
+							tableComponentViewer.replace(row, index);
+						}
 					}
 				});
 
 		return;
 	}
 
+	/**
+	 * Resets the number of rows in the {@link #tableComponentViewer} from the
+	 * {@link #tableComponent}. Rows that have been shown are only re-created if
+	 * they no longer hold the same Entries, which happens when rows are added
+	 * or deleted before them.
+	 * 
+	 * @return True if a row that has been shown was re-created or if the
+	 *         number of rows changed, false otherwise.
+	 */
+	private boolean refreshRows() {
+
+		// Local Declarations
+		int rowCount = tableComponent.numberOfRows();
+		boolean changed = (rows.size() != rowCount);
+
+		// Add or remove rows. New rows are created when they are shown.
+		while (rows.size() > rowCount) {
+			rows.remove(rows.size() - 1);
+		}
+		while (rows.size() < rowCount) {
+			rows.add(null);
+		}
+		tableComponentViewer.setItemCount(rowCount);
+
+		// Re-create the rows that have been shown and changed
+		for (int i = 0; i < rowCount; i++) {
+			RowWrapper row = rows.get(i);
+			if (row != null && row.isStale(i)) {
+				row = new RowWrapper(tableComponent.getRow(i));
+				rows.set(i, row);
+				tableComponentViewer.replace(row, i);
+				changed = true;
+			}
+		}
+
+		return changed;
+	}
+
 	/**
 	 * <p>
 	 * This operation attaches the CellModifiers to the TableViewer so that
@@ -774,8 +834,8 @@ public class ICETableComponentSectionPart extends SectionPart implements
 				// needed
 				item.setText(row.getRowWrapper().get(counter).getValue());
 
-				// Refresh changes in the table
-				tableComponentViewer.refresh();
+				// Update the changed row in the table
+				tableComponentViewer.update(row, null);
 			}
 		});
 
@@ -815,55 +875,18 @@ public class ICETableComponentSectionPart extends SectionPart implements
 				getSection().setText(tableComponent.getName());
 				getSection().setDescription(tableComponent.getDescription());
 
-				// Get the old data content
-				RowWrapper[] rows = (RowWrapper[]) tableComponentViewer
-						.getInput();
-
-				// Compare the rows to make sure they are the same
-				boolean rowStatus = true;
-				if (rows.length == tableComponent.numberOfRows()) {
-					for (int j = 0; j < rows.length; j++) {
-						List<Entry> rowList = rows[j].list;
-
-						// If the number of entries are not the same, needs to
-						// be fixed.
-						if (rowList.size() != tableComponent.getRow(j).size()) {
-							rowStatus = false;
-							break;
-						}
-
-						// Check the entries
-						for (int k = 0; k < rowList.size(); k++) {
-							// If the entries are not equal, refresh
-							if (rowList.get(k).equals(
-									tableComponent.getRow(j).get(k))) {
-								rowStatus = false;
-								break;
-							}
-						}
-					}
-				}
-
-				// If the row length is different from the tablecomponent,
-				// then we must update the tableViewer content
-				if (rows.length != tableComponent.numberOfRows() || !rowStatus) {
-					// Reset input for tableViewer
-					RowWrapper[] rowWrappers = new RowWrapper[tableComponent
-							.getRowIds().size()];
-					// add rows to list - using RowWrapper class
-					for (int i = 0; i < rowWrappers.length; i++) {
-						rowWrappers[i] = (new RowWrapper(tableComponent
-								.getRow(i)));
-					}
-
-					// Reset the input and re-pack the table.
-					tableComponentViewer.setInput(rowWrappers);
+				// Reset the rows. Since the table is virtual, only the rows
+				// that have been shown and changed are re-created. The table
+				// is only re-packed if the rows changed.
+				if (tableComponentViewer != null
+						&& !tableComponentViewer.getTable().isDisposed()
+						&& refreshRows()) {
 					packTableColumns();
-
-					// Mark stale to get a refresh
-					markStale();
 				}
 
+				// Mark stale to get a refresh
+				markStale();
+
 			}
 		});
 
@@ -13,10 +13,13 @@
 package org.eclipse.ice.client.widgets;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.ice.client.common.TreeCompositeLabelProvider;
+import org.eclipse.ice.client.common.ViewerUpdateQueue;
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
 import org.eclipse.ice.datastructures.ICEObject.IUpdateableListener;
@@ -125,6 +128,13 @@ public class TreeCompositeViewer extends ViewPart implements
 	 */
 	protected final IdentityHashMap<TreeComposite, List<TreeComposite>> childMap;
 
+	/**
+	 * Batches updates from the {@link #inputTree} and its descendants so that
+	 * each updated element is synchronized with the {@link #treeViewer} at
+	 * most once per batch.
+	 */
+	private final ViewerUpdateQueue<IUpdateable> updateQueue;
+
 	/**
 	 * The default constructor.
 	 */
@@ -141,6 +151,14 @@ public class TreeCompositeViewer extends ViewPart implements
 		// Initialize the meta data containers.
 		parentMap = new IdentityHashMap<Component, TreeComposite>();
 		childMap = new IdentityHashMap<TreeComposite, List<TreeComposite>>();
+
+		// Create the queue that batches updates from the tree.
+		updateQueue = new ViewerUpdateQueue<IUpdateable>() {
+			@Override
+			protected void process(List<IUpdateable> elements) {
+				syncElements(elements);
+			}
+		};
 	}
 
 	/**
@@ -454,9 +472,11 @@ public class TreeCompositeViewer extends ViewPart implements
 
 		if (tree != inputTree) {
 			// Unregister from the old root TreeComposite, if possible.
-			if (tree != null) {
-				tree.unregister(this);
+			if (inputTree != null) {
+				inputTree.unregister(this);
 			}
+			// Discard any pending updates from the old tree.
+			updateQueue.clear();
 			// Set the reference to the new root TreeComposite.
 			inputTree = tree;
 
@@ -515,6 +535,7 @@ public class TreeCompositeViewer extends ViewPart implements
 		super.dispose();
 
 		// Dispose of the meta data structures.
+		updateQueue.clear();
 		clearMetaData();
 	}
 
@@ -545,20 +566,144 @@ public class TreeCompositeViewer extends ViewPart implements
 
 		// Fill out the list of children if necessary.
 		if (children.size() != childCount) {
-			// Reset the list of children.
-			children.clear();
+			fillChildren(tree, children);
+		}
+
+		return children;
+	}
 
-			// Add all non-default child components to the list.
-			for (int i = 0; i < childCount; i++) {
-				TreeComposite child = tree.getChildAtIndex(i);
-				if (!("ICE Object".equals(child.getName()))) {
-					children.add(child);
-					parentMap.put(child, tree);
+	/**
+	 * Resets a cached list of a TreeComposite's children from the tree's
+	 * current children. The {@link #parentMap} is updated for all new
+	 * children.
+	 * 
+	 * @param tree
+	 *            The TreeComposite whose children are cached.
+	 * @param children
+	 *            The cached list of children from the {@link #childMap}.
+	 */
+	private void fillChildren(TreeComposite tree, List<TreeComposite> children) {
+
+		// Local Declarations
+		int childCount = tree.getNumberOfChildren();
+
+		// Reset the list of children.
+		children.clear();
+
+		// Add all non-default child components to the list.
+		for (int i = 0; i < childCount; i++) {
+			TreeComposite child = tree.getChildAtIndex(i);
+			if (!("ICE Object".equals(child.getName()))) {
+				children.add(child);
+				parentMap.put(child, tree);
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * Synchronizes the {@link #treeViewer} with a batch of updated elements.
+	 * Rather than refreshing the entire tree, this only updates the label of
+	 * each updated TreeComposite and, if its children have been loaded, the
+	 * rows for children that were added, removed, or moved. Elements that are
+	 * not displayed are ignored. This must be called on the UI thread.
+	 * 
+	 * @param elements
+	 *            The elements (TreeComposites or Components) that have been
+	 *            updated since the last batch.
+	 */
+	private void syncElements(List<IUpdateable> elements) {
+
+		// Make sure the TreeViewer still exists.
+		if (treeViewer == null || treeViewer.getControl().isDisposed()) {
+			return;
+		}
+
+		for (IUpdateable element : elements) {
+			// Only TreeComposites are displayed. Data nodes are shown in the
+			// properties view, which listens for their updates.
+			if (element instanceof TreeComposite) {
+				TreeComposite tree = (TreeComposite) element;
+				boolean displayed = parentMap.containsKey(tree);
+
+				// If the tree's children have been loaded, update the rows
+				// that changed. Otherwise, just update the number of children
+				// so that its expansion state is correct.
+				if (childMap.containsKey(tree)) {
+					syncChildren(tree);
+				} else if (displayed) {
+					treeViewer.setChildCount(tree, tree.getNumberOfChildren());
+				}
+
+				// Update the tree's label, e.g., if it was renamed. The root
+				// tree is the input and has no label.
+				if (displayed) {
+					treeViewer.update(tree, null);
 				}
 			}
 		}
 
-		return children;
+		return;
+	}
+
+	/**
+	 * Updates the rows for the children of a loaded TreeComposite. Only rows
+	 * whose child has changed are replaced. Removed children and their
+	 * descendants are removed from the meta data.
+	 * 
+	 * @param tree
+	 *            The TreeComposite whose children may have been added,
+	 *            removed, or moved.
+	 */
+	private void syncChildren(TreeComposite tree) {
+
+		// Rebuild the cached list of children, keeping a copy of the old one.
+		List<TreeComposite> children = childMap.get(tree);
+		List<TreeComposite> oldChildren = new ArrayList<TreeComposite>(
+				children);
+		fillChildren(tree, children);
+
+		// Forget any children that are no longer in the tree.
+		Set<TreeComposite> current = Collections
+				.newSetFromMap(new IdentityHashMap<TreeComposite, Boolean>());
+		current.addAll(children);
+		for (TreeComposite oldChild : oldChildren) {
+			if (!current.contains(oldChild)) {
+				forgetTree(oldChild);
+			}
+		}
+
+		// Update the number of rows, then replace the rows that changed.
+		int size = children.size();
+		treeViewer.setChildCount(tree, size);
+		for (int i = 0; i < size; i++) {
+			TreeComposite child = children.get(i);
+			if (i >= oldChildren.size() || oldChildren.get(i) != child) {
+				treeViewer.replace(tree, i, child);
+				treeViewer.setChildCount(child, child.getNumberOfChildren());
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * Removes a TreeComposite and all of its loaded descendants from the
+	 * {@link #parentMap} and {@link #childMap}.
+	 * 
+	 * @param tree
+	 *            The TreeComposite that is no longer displayed.
+	 */
+	private void forgetTree(TreeComposite tree) {
+		parentMap.remove(tree);
+		List<TreeComposite> children = childMap.remove(tree);
+		if (children != null) {
+			for (TreeComposite child : children) {
+				forgetTree(child);
+			}
+		}
+		return;
 	}
 
 	/**
@@ -581,8 +726,10 @@ public class TreeCompositeViewer extends ViewPart implements
 	// ---- Implements IUpdateableListener ---- //
 	/**
 	 * This method is only called by TreeComposites and their child data nodes
-	 * (Components). It updates the TreeViewer specifically for the updated
-	 * element rather than, say, refreshing the entire tree.
+	 * (Components). It posts the element to a queue that updates the
+	 * TreeViewer specifically for the updated elements rather than, say,
+	 * refreshing the entire tree. Updates that arrive before the queue is
+	 * processed on the UI thread are handled together.
 	 * 
 	 * @param component
 	 *            The component (a TreeComposite or Component) that has been
@@ -591,21 +738,10 @@ public class TreeCompositeViewer extends ViewPart implements
 	@Override
 	public void update(IUpdateable component) {
 
-		// Only proceed if the component is one of the TreeComposites with
-		// allocated UI resources or if it is a child of a displayed
-		// TreeComposite.
-		if (childMap.containsKey(component) || parentMap.containsKey(component)) {
-			// Create a final reference to the object that can be used in the
-			// UI thread.
-			final Object element = component;
-			PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable() {
-				@Override
-				public void run() {
-					// To be used when a particular TreeComposite has added or
-					// removed children.
-					treeViewer.refresh(element);
-				}
-			});
+		// The meta data is only used on the UI thread, so the queue decides
+		// whether the component is displayed.
+		if (component != null) {
+			updateQueue.post(component);
 		}
 
 		return;
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.client.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * This class batches updates to a JFace viewer. Model elements that have
+ * changed can be posted from any thread, and the queue will process all
+ * elements posted since the last batch in a single runnable on the UI thread.
+ * Elements posted several times before the batch runs are only processed
+ * once. Elements are compared by identity, so posting does not depend on the
+ * (possibly expensive or changing) equals and hashCode of the model elements.
+ * <p>
+ * Sub-classes should implement {@link #process(List)} to make targeted
+ * changes to the viewer (e.g., calling <code>update</code>, <code>add</code>,
+ * or <code>remove</code> for the changed elements) instead of refreshing the
+ * entire viewer.
+ * </p>
+ *
+ * @author Jordan H. Deyton
+ *
+ * @param <T>
+ *            The type of element that can be posted to the queue.
+ */
+public abstract class ViewerUpdateQueue<T> {
+
+	/**
+	 * The executor used to run each batch. By default, this runs batches
+	 * asynchronously on the workbench's UI thread.
+	 */
+	private final Executor executor;
+
+	/**
+	 * The elements posted since the last batch, compared by identity. Access
+	 * to this set must be synchronized on the set.
+	 */
+	private final Set<T> pending;
+
+	/**
+	 * The elements in {@link #pending} in the order they were first posted.
+	 * Access to this list must be synchronized on {@link #pending}.
+	 */
+	private final List<T> order;
+
+	/**
+	 * Whether a batch has been sent to the {@link #executor} but has not yet
+	 * taken the {@link #pending} elements. Access to this flag must be
+	 * synchronized on {@link #pending}.
+	 */
+	private boolean scheduled;
+
+	/**
+	 * The runnable that processes a batch. It is re-used for every batch.
+	 */
+	private final Runnable batch;
+
+	/**
+	 * The default constructor. Batches are processed asynchronously on the
+	 * workbench's UI thread.
+	 */
+	public ViewerUpdateQueue() {
+		this(null);
+	}
+
+	/**
+	 * A constructor that allows the batches to be processed by a different
+	 * executor.
+	 *
+	 * @param executor
+	 *            The executor used to run each batch. If null, batches are
+	 *            processed asynchronously on the workbench's UI thread.
+	 */
+	public ViewerUpdateQueue(Executor executor) {
+
+		// Use the UI thread if the executor is invalid.
+		if (executor == null) {
+			executor = new Executor() {
+				@Override
+				public void execute(Runnable command) {
+					PlatformUI.getWorkbench().getDisplay().asyncExec(command);
+				}
+			};
+		}
+		this.executor = executor;
+
+		pending = Collections
+				.newSetFromMap(new IdentityHashMap<T, Boolean>());
+		order = new ArrayList<T>();
+		scheduled = false;
+
+		batch = new Runnable() {
+			@Override
+			public void run() {
+				// Take all of the pending elements at once so that elements
+				// posted while processing go into the next batch.
+				List<T> elements;
+				synchronized (pending) {
+					elements = new ArrayList<T>(order);
+					order.clear();
+					pending.clear();
+					scheduled = false;
+				}
+				if (!elements.isEmpty()) {
+					process(elements);
+				}
+			}
+		};
+
+		return;
+	}
+
+	/**
+	 * Posts an element that has changed. If a batch has not already been
+	 * scheduled, one is sent to the executor. This method can be called from
+	 * any thread.
+	 *
+	 * @param element
+	 *            The changed element. Null elements are ignored.
+	 */
+	public void post(T element) {
+
+		// Local Declarations
+		boolean schedule = false;
+
+		if (element != null) {
+			synchronized (pending) {
+				if (pending.add(element)) {
+					order.add(element);
+				}
+				if (!scheduled) {
+					scheduled = true;
+					schedule = true;
+				}
+			}
+			// Schedule the batch outside the lock in case the executor runs it
+			// immediately.
+			if (schedule) {
+				executor.execute(batch);
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * Discards all elements that have been posted but not yet processed. This
+	 * should be called when the viewer's input changes.
+	 */
+	public void clear() {
+		synchronized (pending) {
+			order.clear();
+			pending.clear();
+		}
+	}
+
+	/**
+	 * Processes a batch of changed elements. This is called from the executor
+	 * (by default, the UI thread) and never with an empty list.
+	 *
+	 * @param elements
+	 *            The elements posted since the last batch, in the order they
+	 *            were first posted. Each element instance appears only once.
+	 */
+	protected abstract void process(List<T> elements);
+
+}
@@ -13,9 +13,12 @@
 package org.eclipse.ice.client.common.properties;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.ice.client.common.ViewerUpdateQueue;
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
 import org.eclipse.ice.datastructures.ICEObject.IUpdateableListener;
@@ -28,7 +31,6 @@ import org.eclipse.ice.datastructures.form.TreeComposite;
 import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
-import org.eclipse.ui.PlatformUI;
 
 /**
  * This is the content provider for the {@link TableViewer} of
@@ -57,6 +59,34 @@ public class TreePropertyContentProvider implements IStructuredContentProvider,
 	 */
 	private TreeComposite tree;
 
+	/**
+	 * The {@link TreeProperty} rows currently shown in the {@link #tableViewer}
+	 * for each data node in the {@link #tree}. This is rebuilt whenever the
+	 * elements are fetched by the viewer and is only accessed on the UI
+	 * thread.
+	 */
+	private final Map<DataComponent, List<TreeProperty>> rows;
+
+	/**
+	 * Batches updates from the {@link #tree} and its data nodes so that the
+	 * {@link #tableViewer} is only updated once per batch. If only the values
+	 * of existing properties have changed, only those rows are updated.
+	 */
+	private final ViewerUpdateQueue<IUpdateable> updateQueue;
+
+	/**
+	 * The default constructor.
+	 */
+	public TreePropertyContentProvider() {
+		rows = new IdentityHashMap<DataComponent, List<TreeProperty>>();
+		updateQueue = new ViewerUpdateQueue<IUpdateable>() {
+			@Override
+			protected void process(List<IUpdateable> elements) {
+				updateTable(elements);
+			}
+		};
+	}
+
 	// ---- Implements IStructuredContentProvider ---- //
 	/*
 	 * (non-Javadoc)
@@ -68,6 +98,7 @@ public class TreePropertyContentProvider implements IStructuredContentProvider,
 		// Clear the references and any other variables.
 		tableViewer = null;
 		tree = null;
+		updateQueue.clear();
 
 		return;
 	}
@@ -107,6 +138,7 @@ public class TreePropertyContentProvider implements IStructuredContentProvider,
 						// TableViewer updated.
 						tree = component;
 						tree.register(TreePropertyContentProvider.this);
+						updateQueue.clear();
 					}
 
 					return;
@@ -136,6 +168,9 @@ public class TreePropertyContentProvider implements IStructuredContentProvider,
 
 		Object[] elements = null;
 
+		// Forget the rows from the previous input.
+		rows.clear();
+
 		if (inputElement != null && inputElement == tree) {
 			final AtomicInteger id = new AtomicInteger();
 			// Compile a list of all Entries for all DataComponents stored in
@@ -146,11 +181,14 @@ public class TreePropertyContentProvider implements IStructuredContentProvider,
 				@Override
 				public void visit(DataComponent component) {
 					TreeProperty property;
+					List<TreeProperty> nodeRows = new ArrayList<TreeProperty>();
 					for (Entry entry : component.retrieveReadyEntries()) {
 						property = new TreeProperty(id.getAndIncrement(), tree,
 								component, entry);
 						properties.add(property);
+						nodeRows.add(property);
 					}
+					rows.put(component, nodeRows);
 				}
 			};
 			for (Component component : tree.getDataNodes()) {
@@ -167,27 +205,76 @@ public class TreePropertyContentProvider implements IStructuredContentProvider,
 
 	// ---- Implements IUpdateableListener ---- //
 	/**
-	 * If the current {@link #tree} has updated, we need to refresh the
-	 * {@link #tableViewer} to reflect the changes to the tree.
+	 * If the current {@link #tree} or one of its data nodes has updated, we
+	 * need to update the {@link #tableViewer} to reflect the changes to the
+	 * tree. The updates are batched and applied on the UI thread.
 	 */
 	@Override
 	public void update(IUpdateable component) {
 		// We need to update if the tree or any of its DataComponent data nodes
 		// are updated.
 		if (component != null) {
-			// We could be smart and just refresh the elements that have
-			// changed, but just refreshing the entire table works reasonably
-			// well enough and is a simple solution.
-			PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable() {
-				@Override
-				public void run() {
-					tableViewer.refresh();
-				}
-			});
+			updateQueue.post(component);
 		}
 
 		return;
 	}
 	// ---------------------------------------- //
 
+	/**
+	 * Updates the {@link #tableViewer} for a batch of updated components. If
+	 * the only changes are to the values of properties already in the table,
+	 * then only the rows for those properties are updated. Otherwise, the
+	 * table is refreshed.
+	 * 
+	 * @param components
+	 *            The components that have been updated since the last batch.
+	 */
+	private void updateTable(List<IUpdateable> components) {
+
+		// Local Declarations
+		boolean refresh = false;
+		List<TreeProperty> changedRows = new ArrayList<TreeProperty>();
+
+		// Make sure the table still exists.
+		if (tableViewer == null || tableViewer.getControl().isDisposed()) {
+			return;
+		}
+
+		for (IUpdateable component : components) {
+			// The tree itself notifies when its data nodes or children change.
+			if (component == tree) {
+				refresh = true;
+				break;
+			}
+			// Data nodes notify when their entries change. If the ready
+			// entries are the same as the table's rows, only the rows' values
+			// need to be updated. Data nodes of child trees are not in the map.
+			List<TreeProperty> nodeRows = rows.get(component);
+			if (nodeRows != null) {
+				List<Entry> entries = ((DataComponent) component)
+						.retrieveReadyEntries();
+				boolean same = (entries.size() == nodeRows.size());
+				for (int i = 0; same && i < entries.size(); i++) {
+					same = (entries.get(i) == nodeRows.get(i).getEntry());
+				}
+				if (same) {
+					changedRows.addAll(nodeRows);
+				} else {
+					refresh = true;
+					break;
+				}
+			}
+		}
+
+		// Apply the changes to the table.
+		if (refresh) {
+			tableViewer.refresh();
+		} else if (!changedRows.isEmpty()) {
+			tableViewer.update(changedRows.toArray(), null);
+		}
+
+		return;
+	}
+
 }
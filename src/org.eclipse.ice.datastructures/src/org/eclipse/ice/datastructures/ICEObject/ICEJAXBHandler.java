@@ -17,14 +17,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 
 /**
  * This class is responsible for reading and writing JAXB-annotated classes into
- * and out of ICE.
+ * and out of ICE. The JAXB contexts and (un)marshallers are shared through the
+ * {@link JAXBContextRegistry}.
  * 
  * @author Jay Jay Billings
  */
@@ -47,10 +45,6 @@ public class ICEJAXBHandler {
 	public Object read(ArrayList<Class> classList, InputStream inputStream)
 			throws NullPointerException, JAXBException, IOException {
 
-		// Initialize local variables
-		JAXBContext context;
-		Class[] clazzArray = {};
-
 		// If the input args are null, throw an exception
 		if (classList == null) {
 			throw new NullPointerException("NullPointerException: "
@@ -62,10 +56,8 @@ public class ICEJAXBHandler {
 		}
 
 		// Create new instance of object from file and then return it.
-		context = JAXBContext.newInstance(classList.toArray(clazzArray));
-		Unmarshaller unmarshaller = context.createUnmarshaller();
-		// New object created
-		Object dataFromFile = unmarshaller.unmarshal(inputStream);
+		Object dataFromFile = JAXBContextRegistry.getContext(classList)
+				.unmarshal(inputStream);
 
 		// Return object
 		return dataFromFile;
@@ -92,9 +84,6 @@ public class ICEJAXBHandler {
 			OutputStream outputStream) throws NullPointerException,
 			JAXBException, IOException {
 
-		JAXBContext jaxbContext = null;
-		Class[] classArray = {};
-
 		// Throw exceptions if input args are null
 		if (dataObject == null) {
 			throw new NullPointerException(
@@ -126,13 +115,9 @@ public class ICEJAXBHandler {
 
 		// Create the context and marshal the data if classes were determined
 		if (classList.size() > 0) {
-			jaxbContext = JAXBContext
-					.newInstance(classList.toArray(classArray));
-			Marshaller marshaller = jaxbContext.createMarshaller();
-			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT,
-					Boolean.TRUE);
 			// Write to file
-			marshaller.marshal(dataObject, outputStream);
+			JAXBContextRegistry.getContext(classList).marshal(dataObject,
+					outputStream);
 		}
 
 		return;
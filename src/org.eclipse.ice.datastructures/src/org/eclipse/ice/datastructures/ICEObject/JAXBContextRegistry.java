@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.datastructures.ICEObject;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.ice.datastructures.jaxbclassprovider.IJAXBClassProvider;
+
+/**
+ * <p>
+ * The JAXBContextRegistry shares {@link PooledJAXBContext}s across the
+ * application. There is one context for each distinct set of classes, no
+ * matter the order in which the classes are given, so each JAXBContext is
+ * created at most once.
+ * </p>
+ * <p>
+ * The registry also records the number of contexts created, the time spent
+ * creating them, and the number of requests that were served by an existing
+ * context.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class JAXBContextRegistry {
+
+	/**
+	 * The shared contexts, keyed on their sets of classes.
+	 */
+	private static final ConcurrentMap<Set<Class>, PooledJAXBContext> contexts = new ConcurrentHashMap<Set<Class>, PooledJAXBContext>();
+
+	/**
+	 * The number of JAXBContexts that have been created.
+	 */
+	private static final AtomicLong creationCount = new AtomicLong();
+	/**
+	 * The total time spent creating JAXBContexts, in nanoseconds.
+	 */
+	private static final AtomicLong creationTime = new AtomicLong();
+	/**
+	 * The number of requests served by an existing context.
+	 */
+	private static final AtomicLong hitCount = new AtomicLong();
+
+	/**
+	 * This class only has static operations.
+	 */
+	private JAXBContextRegistry() {
+		// Nothing to do.
+	}
+
+	/**
+	 * Gets the shared context for a set of classes.
+	 *
+	 * @param classes
+	 *            The classes that the context must bind.
+	 * @return The shared context for the classes.
+	 * @throws NullPointerException
+	 *             If the classes are null.
+	 */
+	public static PooledJAXBContext getContext(Collection<Class> classes)
+			throws NullPointerException {
+
+		// Check the parameters.
+		if (classes == null) {
+			throw new NullPointerException(
+					"JAXBContextRegistry error: The classes cannot be null.");
+		}
+
+		// Look up the context for the set of classes.
+		Set<Class> key = new HashSet<Class>(classes);
+		PooledJAXBContext context = contexts.get(key);
+		if (context == null) {
+			PooledJAXBContext newContext = new PooledJAXBContext(key);
+			context = contexts.putIfAbsent(key, newContext);
+			if (context == null) {
+				context = newContext;
+			} else {
+				hitCount.incrementAndGet();
+			}
+		} else {
+			hitCount.incrementAndGet();
+		}
+
+		return context;
+	}
+
+	/**
+	 * Gets the shared context for the classes from a list of
+	 * IJAXBClassProviders and any additional classes.
+	 *
+	 * @param providers
+	 *            The providers of the classes that the context must bind.
+	 * @param classes
+	 *            Additional classes that the context must bind. This may be
+	 *            null.
+	 * @return The shared context for the classes.
+	 * @throws NullPointerException
+	 *             If the providers are null.
+	 */
+	public static PooledJAXBContext getContext(
+			Collection<IJAXBClassProvider> providers, Collection<Class> classes)
+			throws NullPointerException {
+
+		// Check the parameters.
+		if (providers == null) {
+			throw new NullPointerException(
+					"JAXBContextRegistry error: The providers cannot be null.");
+		}
+
+		// Combine the classes from all of the providers.
+		Set<Class> allClasses = new HashSet<Class>();
+		if (classes != null) {
+			allClasses.addAll(classes);
+		}
+		for (IJAXBClassProvider provider : providers) {
+			allClasses.addAll(provider.getClasses());
+		}
+
+		return getContext(allClasses);
+	}
+
+	/**
+	 * Removes all shared contexts. Contexts that are still in use continue to
+	 * work, but later requests will create new contexts. The statistics are
+	 * not reset.
+	 */
+	public static void clear() {
+		contexts.clear();
+	}
+
+	/**
+	 * @return The number of JAXBContexts that have been created.
+	 */
+	public static long getCreationCount() {
+		return creationCount.get();
+	}
+
+	/**
+	 * @return The total time spent creating JAXBContexts in milliseconds.
+	 */
+	public static long getCreationTime() {
+		return creationTime.get() / 1000000;
+	}
+
+	/**
+	 * @return The number of requests that were served by an existing context.
+	 */
+	public static long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * Records the creation of a JAXBContext.
+	 *
+	 * @param time
+	 *            The time it took to create the context, in nanoseconds.
+	 */
+	static void contextCreated(long time) {
+		creationCount.incrementAndGet();
+		creationTime.addAndGet(time);
+	}
+}
@@ -0,0 +1,455 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.datastructures.ICEObject;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A PooledJAXBContext wraps the JAXBContext for a set of classes and keeps
+ * pools of Marshallers and Unmarshallers for it. Creating a JAXBContext is
+ * expensive, so instances should be obtained from the
+ * {@link JAXBContextRegistry}, which shares them across the application.
+ * </p>
+ * <p>
+ * The JAXBContext is created the first time it is needed. Marshallers and
+ * Unmarshallers are not thread-safe, so each (un)marshalling operation takes
+ * one from its pool and returns it afterward. If the operation fails, the
+ * Marshaller or Unmarshaller may be left in an undefined state, so it is
+ * discarded instead. All Marshallers produce formatted output.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class PooledJAXBContext {
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private static final Logger logger = LoggerFactory
+			.getLogger(PooledJAXBContext.class);
+
+	/**
+	 * The maximum number of idle Marshallers or Unmarshallers kept in each
+	 * pool.
+	 */
+	public static final int MAX_POOL_SIZE = 8;
+
+	/**
+	 * The factory used to create StAX readers for streaming unmarshalling.
+	 * Factories are expensive to create but can create readers concurrently.
+	 */
+	private static final XMLInputFactory inputFactory = XMLInputFactory
+			.newInstance();
+
+	/**
+	 * The classes bound by the context.
+	 */
+	private final Set<Class> classes;
+
+	/**
+	 * The context. This is null until it is first needed.
+	 */
+	private JAXBContext context;
+
+	/**
+	 * The idle Marshallers.
+	 */
+	private final ConcurrentLinkedQueue<Marshaller> marshallers;
+	/**
+	 * The number of idle Marshallers.
+	 */
+	private final AtomicInteger marshallerCount;
+	/**
+	 * The idle Unmarshallers.
+	 */
+	private final ConcurrentLinkedQueue<Unmarshaller> unmarshallers;
+	/**
+	 * The number of idle Unmarshallers.
+	 */
+	private final AtomicInteger unmarshallerCount;
+
+	/**
+	 * The time it took to create the context, in nanoseconds.
+	 */
+	private volatile long creationTime;
+	/**
+	 * The number of objects marshalled.
+	 */
+	private final AtomicLong marshalCount;
+	/**
+	 * The total time spent marshalling, in nanoseconds.
+	 */
+	private final AtomicLong marshalTime;
+	/**
+	 * The number of objects unmarshalled.
+	 */
+	private final AtomicLong unmarshalCount;
+	/**
+	 * The total time spent unmarshalling, in nanoseconds.
+	 */
+	private final AtomicLong unmarshalTime;
+
+	/**
+	 * The default constructor.
+	 *
+	 * @param classes
+	 *            The classes bound by the context. This set should not be
+	 *            modified afterward.
+	 */
+	PooledJAXBContext(Set<Class> classes) {
+		this.classes = Collections.unmodifiableSet(classes);
+		marshallers = new ConcurrentLinkedQueue<Marshaller>();
+		marshallerCount = new AtomicInteger();
+		unmarshallers = new ConcurrentLinkedQueue<Unmarshaller>();
+		unmarshallerCount = new AtomicInteger();
+		marshalCount = new AtomicLong();
+		marshalTime = new AtomicLong();
+		unmarshalCount = new AtomicLong();
+		unmarshalTime = new AtomicLong();
+	}
+
+	/**
+	 * @return The classes bound by the context.
+	 */
+	public Set<Class> getClasses() {
+		return classes;
+	}
+
+	/**
+	 * Gets the JAXBContext, creating it if necessary.
+	 *
+	 * @return The JAXBContext.
+	 * @throws JAXBException
+	 *             An exception indicating that the context could not be
+	 *             created.
+	 */
+	public synchronized JAXBContext getContext() throws JAXBException {
+		if (context == null) {
+			long start = System.nanoTime();
+			context = JAXBContext.newInstance(classes.toArray(new Class[classes
+					.size()]));
+			creationTime = System.nanoTime() - start;
+			JAXBContextRegistry.contextCreated(creationTime);
+			logger.info("PooledJAXBContext Message: Created JAXBContext for "
+					+ classes.size() + " classes in " + creationTime / 1000000
+					+ " ms.");
+		}
+		return context;
+	}
+
+	/**
+	 * Marshals an object to a stream.
+	 *
+	 * @param object
+	 *            The object to marshal.
+	 * @param outputStream
+	 *            The stream to which the XML should be written.
+	 * @throws JAXBException
+	 */
+	public void marshal(Object object, OutputStream outputStream)
+			throws JAXBException {
+		long start = System.nanoTime();
+		Marshaller marshaller = takeMarshaller();
+		boolean succeeded = false;
+		try {
+			marshaller.marshal(object, outputStream);
+			succeeded = true;
+		} finally {
+			releaseMarshaller(marshaller, succeeded);
+			recordMarshal(start);
+		}
+	}
+
+	/**
+	 * Marshals an object to a file.
+	 *
+	 * @param object
+	 *            The object to marshal.
+	 * @param file
+	 *            The file to which the XML should be written.
+	 * @throws JAXBException
+	 */
+	public void marshal(Object object, File file) throws JAXBException {
+		long start = System.nanoTime();
+		Marshaller marshaller = takeMarshaller();
+		boolean succeeded = false;
+		try {
+			marshaller.marshal(object, file);
+			succeeded = true;
+		} finally {
+			releaseMarshaller(marshaller, succeeded);
+			recordMarshal(start);
+		}
+	}
+
+	/**
+	 * Unmarshals an object from a stream.
+	 *
+	 * @param inputStream
+	 *            The stream from which the XML should be read.
+	 * @return The unmarshalled object.
+	 * @throws JAXBException
+	 */
+	public Object unmarshal(InputStream inputStream) throws JAXBException {
+		return unmarshal(inputStream, false);
+	}
+
+	/**
+	 * Unmarshals an object from a stream.
+	 *
+	 * @param inputStream
+	 *            The stream from which the XML should be read.
+	 * @param streaming
+	 *            If true, the XML is pulled from the stream with a StAX reader
+	 *            instead of being pushed through the default parser. This is
+	 *            intended for large documents, such as large Forms.
+	 * @return The unmarshalled object.
+	 * @throws JAXBException
+	 */
+	public Object unmarshal(InputStream inputStream, boolean streaming)
+			throws JAXBException {
+
+		// Local Declarations
+		long start = System.nanoTime();
+		Unmarshaller unmarshaller = takeUnmarshaller();
+		Object object;
+		boolean succeeded = false;
+
+		try {
+			if (streaming) {
+				object = unmarshal(unmarshaller, inputStream);
+			} else {
+				object = unmarshaller.unmarshal(inputStream);
+			}
+			succeeded = true;
+		} finally {
+			releaseUnmarshaller(unmarshaller, succeeded);
+			recordUnmarshal(start);
+		}
+
+		return object;
+	}
+
+	/**
+	 * Unmarshals an object from a file.
+	 *
+	 * @param file
+	 *            The file from which the XML should be read.
+	 * @return The unmarshalled object.
+	 * @throws JAXBException
+	 */
+	public Object unmarshal(File file) throws JAXBException {
+		long start = System.nanoTime();
+		Unmarshaller unmarshaller = takeUnmarshaller();
+		Object object;
+		boolean succeeded = false;
+
+		try {
+			object = unmarshaller.unmarshal(file);
+			succeeded = true;
+		} finally {
+			releaseUnmarshaller(unmarshaller, succeeded);
+			recordUnmarshal(start);
+		}
+
+		return object;
+	}
+
+	/**
+	 * Unmarshals an object from a stream with a StAX reader.
+	 *
+	 * @param unmarshaller
+	 *            The Unmarshaller to use.
+	 * @param inputStream
+	 *            The stream from which the XML should be read.
+	 * @return The unmarshalled object.
+	 * @throws JAXBException
+	 */
+	private Object unmarshal(Unmarshaller unmarshaller, InputStream inputStream)
+			throws JAXBException {
+
+		// Local Declarations
+		XMLStreamReader reader;
+
+		try {
+			reader = inputFactory.createXMLStreamReader(inputStream);
+		} catch (XMLStreamException e) {
+			throw new JAXBException(e);
+		}
+		try {
+			return unmarshaller.unmarshal(reader);
+		} finally {
+			try {
+				reader.close();
+			} catch (XMLStreamException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+	}
+
+	/**
+	 * @return The time it took to create the JAXBContext in milliseconds, or 0
+	 *         if it has not been created.
+	 */
+	public long getCreationTime() {
+		return creationTime / 1000000;
+	}
+
+	/**
+	 * @return The number of objects marshalled with this context.
+	 */
+	public long getMarshalCount() {
+		return marshalCount.get();
+	}
+
+	/**
+	 * @return The total time spent marshalling with this context in
+	 *         milliseconds.
+	 */
+	public long getMarshalTime() {
+		return marshalTime.get() / 1000000;
+	}
+
+	/**
+	 * @return The number of objects unmarshalled with this context.
+	 */
+	public long getUnmarshalCount() {
+		return unmarshalCount.get();
+	}
+
+	/**
+	 * @return The total time spent unmarshalling with this context in
+	 *         milliseconds.
+	 */
+	public long getUnmarshalTime() {
+		return unmarshalTime.get() / 1000000;
+	}
+
+	/**
+	 * Takes a Marshaller from the pool or creates a new one.
+	 *
+	 * @return A Marshaller that produces formatted output.
+	 * @throws JAXBException
+	 */
+	private Marshaller takeMarshaller() throws JAXBException {
+		Marshaller marshaller = marshallers.poll();
+		if (marshaller != null) {
+			marshallerCount.decrementAndGet();
+		} else {
+			marshaller = getContext().createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT,
+					Boolean.TRUE);
+		}
+		return marshaller;
+	}
+
+	/**
+	 * Returns a Marshaller to the pool unless the pool is full or the
+	 * Marshaller failed.
+	 *
+	 * @param marshaller
+	 *            The Marshaller.
+	 * @param succeeded
+	 *            Whether the Marshaller's last operation succeeded. If not,
+	 *            it is discarded.
+	 */
+	private void releaseMarshaller(Marshaller marshaller, boolean succeeded) {
+		if (!succeeded) {
+			return;
+		}
+		if (marshallerCount.incrementAndGet() <= MAX_POOL_SIZE) {
+			marshallers.offer(marshaller);
+		} else {
+			marshallerCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Takes an Unmarshaller from the pool or creates a new one.
+	 *
+	 * @return An Unmarshaller.
+	 * @throws JAXBException
+	 */
+	private Unmarshaller takeUnmarshaller() throws JAXBException {
+		Unmarshaller unmarshaller = unmarshallers.poll();
+		if (unmarshaller != null) {
+			unmarshallerCount.decrementAndGet();
+		} else {
+			unmarshaller = getContext().createUnmarshaller();
+		}
+		return unmarshaller;
+	}
+
+	/**
+	 * Returns an Unmarshaller to the pool unless the pool is full or the
+	 * Unmarshaller failed.
+	 *
+	 * @param unmarshaller
+	 *            The Unmarshaller.
+	 * @param succeeded
+	 *            Whether the Unmarshaller's last operation succeeded. If not,
+	 *            it is discarded.
+	 */
+	private void releaseUnmarshaller(Unmarshaller unmarshaller,
+			boolean succeeded) {
+		if (!succeeded) {
+			return;
+		}
+		if (unmarshallerCount.incrementAndGet() <= MAX_POOL_SIZE) {
+			unmarshallers.offer(unmarshaller);
+		} else {
+			unmarshallerCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Records a marshalling operation.
+	 *
+	 * @param start
+	 *            The time the operation started, in nanoseconds.
+	 */
+	private void recordMarshal(long start) {
+		marshalCount.incrementAndGet();
+		marshalTime.addAndGet(System.nanoTime() - start);
+	}
+
+	/**
+	 * Records an unmarshalling operation.
+	 *
+	 * @param start
+	 *            The time the operation started, in nanoseconds.
+	 */
+	private void recordUnmarshal(long start) {
+		unmarshalCount.incrementAndGet();
+		unmarshalTime.addAndGet(System.nanoTime() - start);
+	}
+}
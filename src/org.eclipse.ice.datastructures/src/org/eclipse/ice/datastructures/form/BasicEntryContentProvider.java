@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 
 import org.eclipse.ice.datastructures.ICEObject.ICEObject;
 
@@ -74,6 +75,30 @@ public class BasicEntryContentProvider extends ICEObject implements
 	 * 
 	 */
 	private AllowedValueType allowedValueType;
+	/**
+	 * <p>
+	 * The validator compiled from the allowed values and allowed value type.
+	 * It is created lazily and replaced when either one changes.
+	 * </p>
+	 * 
+	 */
+	private EntryValidator validator;
+	/**
+	 * <p>
+	 * The number of times the allowed values or allowed value type have been
+	 * set. It is compared against {@link #validatorModificationCount} to
+	 * determine whether or not the validator is out of date.
+	 * </p>
+	 * 
+	 */
+	private int modificationCount;
+	/**
+	 * <p>
+	 * The modification count at the time the validator was compiled.
+	 * </p>
+	 * 
+	 */
+	private int validatorModificationCount;
 
 	/**
 	 * <p>
@@ -134,11 +159,15 @@ public class BasicEntryContentProvider extends ICEObject implements
 	 * @see
 	 * org.eclipse.ice.datastructures.form.IEntryContentProvider#setAllowedValues
 	 * (java.util.ArrayList)
+	 * 
+	 * A list that is modified in place must be set again for the validator to
+	 * use its new values.
 	 */
 	@Override
 	public void setAllowedValues(ArrayList<String> allowedValues) {
 		if (allowedValues != null) {
 			this.allowedValues = allowedValues;
+			modificationCount++;
 		}
 	}
 
@@ -174,6 +203,7 @@ public class BasicEntryContentProvider extends ICEObject implements
 	public void setAllowedValueType(AllowedValueType allowedValueType) {
 		if (allowedValueType != null) {
 			this.allowedValueType = allowedValueType;
+			modificationCount++;
 		}
 	}
 
@@ -267,6 +297,7 @@ public class BasicEntryContentProvider extends ICEObject implements
 		}
 
 		this.allowedValueType = otherProvider.getAllowedValueType();
+		modificationCount++;
 		this.defaultValue = otherProvider.getDefaultValue();
 		this.parent = otherProvider.getParent();
 		this.tag = otherProvider.getTag();
@@ -327,4 +358,29 @@ public class BasicEntryContentProvider extends ICEObject implements
 		}
 
 	}
+
+	/**
+	 * (non-Javadoc)
+	 * 
+	 * @see IEntryContentProvider#getValidator()
+	 */
+	@Override
+	@XmlTransient
+	public EntryValidator getValidator() {
+
+		// Local Declarations
+		AllowedValueType type = getAllowedValueType();
+		ArrayList<String> values = getAllowedValues();
+
+		// Compile a new validator if the allowed values or type have been set.
+		// The getters are used so that subclasses that provide their own
+		// values are validated against them.
+		if (validator == null
+				|| validatorModificationCount != modificationCount
+				|| !validator.isCompiledFrom(type, values)) {
+			validator = new EntryValidator(type, values);
+			validatorModificationCount = modificationCount;
+		}
+		return validator;
+	}
 }
\ No newline at end of file
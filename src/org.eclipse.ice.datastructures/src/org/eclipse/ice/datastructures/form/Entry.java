@@ -223,6 +223,20 @@ public class Entry extends ICEObject implements IUpdateable {
 	 */
 	protected boolean required = false;
 
+	/**
+	 * The value that was most recently parsed by getValueAsDouble(). It is
+	 * compared by reference with the current value to decide whether or not
+	 * the parsed value is still valid.
+	 */
+	@XmlTransient
+	private String parsedValue = null;
+
+	/**
+	 * The parsed form of {@link #parsedValue}, or NaN if it is not a number.
+	 */
+	@XmlTransient
+	private double parsedDouble = Double.NaN;
+
 	/**
 	 * A constructor that will create an Entry with only a unique ID and a name.
 	 * Default values are set:
@@ -344,6 +358,59 @@ public class Entry extends ICEObject implements IUpdateable {
 		return (value != null) ? value : this.iEntryContentProvider.getDefaultValue();
 	}
 
+	/**
+	 * This operation returns the current value of the Entry as a double. The
+	 * value is only parsed the first time this is called after the value
+	 * changes, so repeated calls do not parse or allocate anything.
+	 * 
+	 * @return The current value of the Entry as a double, or NaN if it is not
+	 *         a number.
+	 */
+	public double getValueAsDouble() {
+
+		// Local Declarations
+		String currentValue = getValue();
+
+		// Parse the value if it has changed since it was last parsed.
+		if (currentValue != parsedValue) {
+			double newDouble = Double.NaN;
+			if (currentValue != null) {
+				try {
+					newDouble = Double.parseDouble(currentValue);
+				} catch (NumberFormatException e) {
+					// The value is not a number.
+				}
+			}
+			parsedDouble = newDouble;
+			parsedValue = currentValue;
+		}
+
+		return parsedDouble;
+	}
+
+	/**
+	 * This operation returns the current value of the Entry as an int. It
+	 * uses the cached value from {@link #getValueAsDouble()}, truncating it if
+	 * necessary.
+	 * 
+	 * @return The current value of the Entry as an int, or 0 if it is not a
+	 *         number.
+	 */
+	public int getValueAsInt() {
+		return (int) getValueAsDouble();
+	}
+
+	/**
+	 * This operation returns whether or not the current value of the Entry is
+	 * a number.
+	 * 
+	 * @return True if the value can be read with {@link #getValueAsDouble()},
+	 *         false otherwise.
+	 */
+	public boolean isNumericValue() {
+		return !Double.isNaN(getValueAsDouble());
+	}
+
 	/**
 	 * <p>
 	 * This operation returns the type of value that is stored in the Entry.
@@ -468,9 +535,6 @@ public class Entry extends ICEObject implements IUpdateable {
 	public boolean setValue(String newValue) {
 
 		// Local Declarations
-		Double lowerBound = null;
-		Double upperBound = null;
-		Double newValueDouble = null;
 		boolean returnCode = false;
 
 		// ---- USE BasicEntryContentProvider VALUES ONLY! ----
@@ -483,50 +547,25 @@ public class Entry extends ICEObject implements IUpdateable {
 			return true;
 		}
 
-		// Get the allowed values and allowed value type from the content
-		// provider for use below.
-		final AllowedValueType allowedValueType = iEntryContentProvider.getAllowedValueType();
-		final List<String> allowedValues = iEntryContentProvider.getAllowedValues();
+		// Get the validator compiled from the allowed values and allowed value
+		// type from the content provider for use below.
+		final EntryValidator validator = iEntryContentProvider.getValidator();
+		final AllowedValueType allowedValueType = validator.getType();
 
 		// Make sure there is a default value that makes sense - If it wasn't
 		// set in construction but allowed values were provided, it should be
 		// reset to allowedValues.get(0). The default value should always be
 		// equal to something if there are allowed values for the Entry!
-		if ("".equals(iEntryContentProvider.getDefaultValue()) && !allowedValues.isEmpty()) {
-			iEntryContentProvider.setDefaultValue(allowedValues.get(0));
-		}
-		// Check discrete values
-		if (allowedValueType == AllowedValueType.Discrete) {
-			if (allowedValues.contains(newValue)) {
-				this.value = newValue;
-				returnCode = true;
-			} else {
-				returnCode = false;
+		if ("".equals(iEntryContentProvider.getDefaultValue())) {
+			List<String> allowedValues = iEntryContentProvider.getAllowedValues();
+			if (!allowedValues.isEmpty()) {
+				iEntryContentProvider.setDefaultValue(allowedValues.get(0));
 			}
-		} else if (allowedValueType == AllowedValueType.Continuous && allowedValues != null) {
-			// Check continuous value against the bounds. Doing this with
-			// doubles is simplest. allowedValues should only have two
-			// values for Continuous values.
-			if (allowedValues.size() == 2) {
-				lowerBound = Double.valueOf(iEntryContentProvider.getAllowedValues().get(0));
-				upperBound = Double.valueOf(iEntryContentProvider.getAllowedValues().get(1));
-				// Try to cast to a double, but fail if it is impossible.
-				try {
-					newValueDouble = Double.valueOf(newValue);
-				} catch (NumberFormatException | NullPointerException e) {
-					returnCode = false;
-				}
-				// Set the value if it is within the bounds
-				if (newValueDouble != null
-						&& (newValueDouble.compareTo(lowerBound) != -1 && newValueDouble.compareTo(upperBound) != 1)) {
-					this.value = newValue;
-					returnCode = true;
-				} else {
-					returnCode = false;
-				}
-			}
-		} else if (allowedValueType == AllowedValueType.Undefined || allowedValueType == AllowedValueType.File
-				|| allowedValueType == AllowedValueType.Executable) {
+		}
+		// Check the value. Discrete values are looked up in a set and
+		// Continuous values are compared against the pre-parsed bounds.
+		// Undefined, File and Executable values are always accepted.
+		if (validator.accepts(newValue)) {
 			this.value = newValue;
 			returnCode = true;
 		}
@@ -540,7 +579,7 @@ public class Entry extends ICEObject implements IUpdateable {
 		// Setup the error messages accordingly because setting the value
 		// has failed.
 		else if (allowedValueType == AllowedValueType.Continuous) {
-			if (allowedValues.size() != 2) {
+			if (!validator.hasBounds()) {
 				// We return false here because this is an entirely unexpected
 				// error and should never occur due to user
 				// input.
@@ -557,6 +596,7 @@ public class Entry extends ICEObject implements IUpdateable {
 		// values
 		else if (allowedValueType == AllowedValueType.Discrete) {
 			String error = this.discreteErrMsg;
+			List<String> allowedValues = iEntryContentProvider.getAllowedValues();
 
 			// loop to get all the values of the allowedValues
 			String tempValues = "";
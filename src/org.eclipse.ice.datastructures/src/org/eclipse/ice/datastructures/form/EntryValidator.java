@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.datastructures.form;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * An EntryValidator checks candidate values for an Entry against an
+ * AllowedValueType and a list of allowed values. The allowed values are
+ * compiled once when the validator is created: the bounds of a Continuous
+ * range are parsed into doubles and the values of a Discrete set are stored in
+ * a hash set. Checking a value afterward does not allocate any memory.
+ * </p>
+ * <p>
+ * Validators are created and cached by IEntryContentProviders. A validator
+ * does not follow changes made to the list of allowed values after it was
+ * compiled, so providers must compile a new one whenever their allowed values
+ * are set. {@link #isCompiledFrom(AllowedValueType, List)} only checks that a
+ * cached validator was compiled from the same type and list.
+ * </p>
+ *
+ * @author Jordan H. Deyton
+ */
+public class EntryValidator {
+
+	/**
+	 * The type of values accepted by the validator.
+	 */
+	private final AllowedValueType type;
+
+	/**
+	 * The list of allowed values from which the validator was compiled.
+	 */
+	private final List<String> allowedValues;
+
+	/**
+	 * The set of allowed values if the type is Discrete.
+	 */
+	private final Set<String> discreteValues;
+
+	/**
+	 * The lower bound if the type is Continuous.
+	 */
+	private final double lowerBound;
+
+	/**
+	 * The upper bound if the type is Continuous.
+	 */
+	private final double upperBound;
+
+	/**
+	 * Whether or not the Continuous bounds are defined. A Continuous range
+	 * requires exactly two allowed values.
+	 */
+	private final boolean hasBounds;
+
+	/**
+	 * The constructor. Compiles the allowed values.
+	 *
+	 * @param type
+	 *            The type of values to accept.
+	 * @param allowedValues
+	 *            The allowed values. If the type is Continuous, these should be
+	 *            the lower and upper bound.
+	 * @throws NumberFormatException
+	 *             If the type is Continuous and one of the bounds is not a
+	 *             number.
+	 */
+	public EntryValidator(AllowedValueType type, List<String> allowedValues)
+			throws NumberFormatException {
+
+		// Local Declarations
+		int size = (allowedValues != null ? allowedValues.size() : 0);
+
+		this.type = type;
+		this.allowedValues = allowedValues;
+
+		// Compile the values for the type.
+		if (type == AllowedValueType.Discrete) {
+			discreteValues = new HashSet<String>(size * 2);
+			for (int i = 0; i < size; i++) {
+				discreteValues.add(allowedValues.get(i));
+			}
+			hasBounds = false;
+			lowerBound = 0.0;
+			upperBound = 0.0;
+		} else if (type == AllowedValueType.Continuous && size == 2) {
+			discreteValues = null;
+			hasBounds = true;
+			lowerBound = Double.parseDouble(allowedValues.get(0));
+			upperBound = Double.parseDouble(allowedValues.get(1));
+		} else {
+			discreteValues = null;
+			hasBounds = false;
+			lowerBound = 0.0;
+			upperBound = 0.0;
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation determines whether or not the validator was compiled from
+	 * the specified type and list of allowed values. The list is compared by
+	 * reference, so changes to its contents are not detected.
+	 *
+	 * @param type
+	 *            The current type of values.
+	 * @param allowedValues
+	 *            The current list of allowed values.
+	 * @return True if the validator was compiled from the type and list, false
+	 *         otherwise.
+	 */
+	public boolean isCompiledFrom(AllowedValueType type,
+			List<String> allowedValues) {
+		return type == this.type && allowedValues == this.allowedValues;
+	}
+
+	/**
+	 * This operation determines whether or not a value is accepted. Discrete
+	 * values must be one of the allowed values, and Continuous values must be
+	 * numbers between the two bounds (inclusive). Undefined, File and
+	 * Executable values are always accepted.
+	 *
+	 * @param value
+	 *            The candidate value.
+	 * @return True if the value is accepted, false otherwise.
+	 */
+	public boolean accepts(String value) {
+
+		// Local Declarations
+		boolean accepted = false;
+
+		if (type == AllowedValueType.Discrete) {
+			accepted = discreteValues.contains(value);
+		} else if (type == AllowedValueType.Continuous) {
+			if (hasBounds && value != null) {
+				try {
+					accepted = accepts(Double.parseDouble(value));
+				} catch (NumberFormatException e) {
+					accepted = false;
+				}
+			}
+		} else if (type == AllowedValueType.Undefined
+				|| type == AllowedValueType.File
+				|| type == AllowedValueType.Executable) {
+			accepted = true;
+		}
+
+		return accepted;
+	}
+
+	/**
+	 * This operation determines whether or not a number lies between the
+	 * Continuous bounds (inclusive).
+	 *
+	 * @param value
+	 *            The candidate value.
+	 * @return True if the validator is Continuous and the value is within the
+	 *         bounds, false otherwise.
+	 */
+	public boolean accepts(double value) {
+		return hasBounds && Double.compare(value, lowerBound) >= 0
+				&& Double.compare(value, upperBound) <= 0;
+	}
+
+	/**
+	 * @return The type of values accepted by the validator.
+	 */
+	public AllowedValueType getType() {
+		return type;
+	}
+
+	/**
+	 * @return The lower bound of a Continuous validator, or 0 if there are no
+	 *         bounds.
+	 */
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * @return The upper bound of a Continuous validator, or 0 if there are no
+	 *         bounds.
+	 */
+	public double getUpperBound() {
+		return upperBound;
+	}
+
+	/**
+	 * @return True if the validator is Continuous and has two bounds, false
+	 *         otherwise.
+	 */
+	public boolean hasBounds() {
+		return hasBounds;
+	}
+}
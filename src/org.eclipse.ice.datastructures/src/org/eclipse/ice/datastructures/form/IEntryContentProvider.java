@@ -171,4 +171,17 @@ public interface IEntryContentProvider {
 	 *            </p>
 	 */
 	public void setDefaultValue(String defaultValue);
+
+	/**
+	 * <p>
+	 * Returns a validator compiled from the current AllowedValueType and
+	 * allowed values. Implementations should cache the validator and only
+	 * compile a new one when the type or allowed values change.
+	 * </p>
+	 * 
+	 * @return <p>
+	 *         The validator for values of the Entry.
+	 *         </p>
+	 */
+	public EntryValidator getValidator();
 }
\ No newline at end of file
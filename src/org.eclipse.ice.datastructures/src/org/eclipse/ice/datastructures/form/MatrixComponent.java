@@ -13,9 +13,12 @@
 package org.eclipse.ice.datastructures.form;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlList;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
@@ -39,6 +42,13 @@ import org.eclipse.ice.datastructures.componentVisitor.IComponentVisitor;
  * an element of a desired set of elements, or the matrix elements must exist
  * within a given range of values.
  * </p>
+ * <p>
+ * The elements are stored in a single primitive array in row-major order.
+ * Large numbers of elements should be set with the bulk operations
+ * {@link #setRow(int, double[])}, {@link #setColumn(int, double[])} and
+ * {@link #setAll(double[])}, which validate all of the values in one pass and
+ * notify listeners only once.
+ * </p>
  * 
  * @author Jay Jay Billings
  */
@@ -56,13 +66,26 @@ public class MatrixComponent extends ICEObject implements Component {
 
 	/**
 	 * <p>
-	 * The individual elements of this matrix. This is a list of n*m double
-	 * values for a given matrix of size nxm.
+	 * The individual elements of this matrix. This is an array of n*m double
+	 * values in row-major order for a given matrix of size nxm. It is stored
+	 * as a single list of values in XML.
 	 * </p>
 	 * 
 	 */
-	@XmlElement
-	private ArrayList<Double> elements;
+	@XmlElement(name = "elementList")
+	@XmlList
+	private double[] elements;
+	/**
+	 * <p>
+	 * The elements of a matrix read from XML written before the elements were
+	 * stored as a single list, with one elements tag per value. It is only set
+	 * while reading and is folded into the elements afterward, so it is never
+	 * written.
+	 * </p>
+	 * 
+	 */
+	@XmlElement(name = "elements")
+	private ArrayList<Double> legacyElements;
 	/**
 	 * <p>
 	 * Reference to the current number of rows in this matrix.
@@ -185,8 +208,7 @@ public class MatrixComponent extends ICEObject implements Component {
 		this.valueType = allowedValueType;
 
 		// Setup a 1x1 matrix.
-		this.elements = new ArrayList<Double>();
-		elements.add(0.0);
+		this.elements = new double[] { 0.0 };
 		this.nCols = 1;
 		this.nRows = 1;
 
@@ -228,21 +250,19 @@ public class MatrixComponent extends ICEObject implements Component {
 
 		// If there is only 1 element in the list and its not default, delete
 		// the whole entity and reset
-		if (elements.size() == 1 && elements.get(0) != defaultValue) {
-			this.elements = new ArrayList<Double>();
-			this.elements.add(defaultValue);
+		if (elements.length == 1 && elements[0] != defaultValue) {
+			this.elements = new double[] { defaultValue };
 			return true; // Return
-		} else if (elements.size() == 1 && elements.get(0) == defaultValue) {
+		} else if (elements.length == 1 && elements[0] == defaultValue) {
 			return false; // Nothing to delete, return
 		}
 
 		// If there is only one row, delete whole row, reset to 1x1 matrix, and
 		// return true
-		if (elements.size() == this.nCols) {
+		if (elements.length == this.nCols) {
 			this.nCols = 1;
 			this.nRows = 1;
-			this.elements = new ArrayList<Double>();
-			this.elements.add(defaultValue);
+			this.elements = new double[] { defaultValue };
 			return true; // Return
 		}
 
@@ -321,10 +341,7 @@ public class MatrixComponent extends ICEObject implements Component {
 		if (otherMatrixComponent.elements == null) {
 			this.elements = otherMatrixComponent.elements;
 		} else {
-			this.elements = new ArrayList<Double>();
-			for (int i = 0; i < otherMatrixComponent.elements.size(); i++) {
-				this.elements.add(otherMatrixComponent.elements.get(i));
-			}
+			this.elements = otherMatrixComponent.elements.clone();
 		}
 
 		// get other attributes
@@ -398,7 +415,7 @@ public class MatrixComponent extends ICEObject implements Component {
 		retVal = (this.isSquare == castedComponent.isSquare)
 				&& (this.resizable == castedComponent.resizable)
 				&& (this.allowedValues.equals(castedComponent.allowedValues))
-				&& (this.elements.equals(castedComponent.elements))
+				&& (Arrays.equals(this.elements, castedComponent.elements))
 				&& (this.nCols == castedComponent.nCols)
 				&& (this.nRows == castedComponent.nRows)
 				&& (this.valueType == castedComponent.valueType);
@@ -438,7 +455,7 @@ public class MatrixComponent extends ICEObject implements Component {
 
 		// if elements are not null
 		if (this.elements != null) {
-			hash = 31 * hash + this.elements.hashCode();
+			hash = 31 * hash + Arrays.hashCode(this.elements);
 		}
 
 		// Value type
@@ -532,21 +549,19 @@ public class MatrixComponent extends ICEObject implements Component {
 
 		// If there is only 1 element in the list and its not default, delete
 		// the whole entity and reset
-		if (elements.size() == 1 && elements.get(0) != defaultValue) {
-			this.elements = new ArrayList<Double>();
-			this.elements.add(defaultValue);
+		if (elements.length == 1 && elements[0] != defaultValue) {
+			this.elements = new double[] { defaultValue };
 			return true; // Return
-		} else if (elements.size() == 1 && elements.get(0) == defaultValue) {
+		} else if (elements.length == 1 && elements[0] == defaultValue) {
 			return false; // Nothing to delete, return
 		}
 
 		// If there is only one col, delete whole col, reset to 1x1 matrix, and
 		// return true
-		if (elements.size() == this.nRows) {
+		if (elements.length == this.nRows) {
 			this.nCols = 1;
 			this.nRows = 1;
-			this.elements = new ArrayList<Double>();
-			this.elements.add(defaultValue);
+			this.elements = new double[] { defaultValue };
 			return true; // Return
 		}
 
@@ -612,17 +627,11 @@ public class MatrixComponent extends ICEObject implements Component {
 		}
 
 		// check value to see if valid
-		if (this.valueType == AllowedValueType.Continuous) {
-			if (value < this.allowedValues.get(0)
-					|| value > this.allowedValues.get(1)) {
-				return false;
-			}
-		} else if (this.valueType == AllowedValueType.Discrete
-				&& !this.allowedValues.contains(value)) {
+		if (!isAllowed(value)) {
 			return false;
 		}
 
-		elements.set(nCols * rowIndex + colIndex, value);
+		elements[nCols * rowIndex + colIndex] = value;
 
 		// notify listeners
 		this.notifyListeners();
@@ -667,10 +676,249 @@ public class MatrixComponent extends ICEObject implements Component {
 			return null;
 		}
 
-		return this.elements.get(nCols * rowIndex + colIndex);
+		return this.elements[nCols * rowIndex + colIndex];
 
 	}
 
+	/**
+	 * <p>
+	 * Set the values of an entire row of the matrix. All of the values are
+	 * validated before any of them are set, and listeners are notified once.
+	 * </p>
+	 * 
+	 * @param rowIndex
+	 *            <p>
+	 *            The row index.
+	 *            </p>
+	 * @param values
+	 *            <p>
+	 *            The new values of the row. There must be one value for each
+	 *            column.
+	 *            </p>
+	 * @return <p>
+	 *         Returns true if operation was successful. False otherwise.
+	 *         </p>
+	 */
+	public boolean setRow(int rowIndex, double[] values) {
+
+		// Return if the index is out of range or the values do not fit the row
+		if (rowIndex < 0 || rowIndex >= this.nRows || values == null
+				|| values.length != this.nCols) {
+			return false;
+		}
+
+		// Return if any of the values are invalid
+		if (!areAllowed(values)) {
+			return false;
+		}
+
+		System.arraycopy(values, 0, elements, rowIndex * this.nCols,
+				this.nCols);
+
+		// notify listeners
+		this.notifyListeners();
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Set the values of an entire column of the matrix. All of the values are
+	 * validated before any of them are set, and listeners are notified once.
+	 * </p>
+	 * 
+	 * @param colIndex
+	 *            <p>
+	 *            The column index.
+	 *            </p>
+	 * @param values
+	 *            <p>
+	 *            The new values of the column. There must be one value for
+	 *            each row.
+	 *            </p>
+	 * @return <p>
+	 *         Returns true if operation was successful. False otherwise.
+	 *         </p>
+	 */
+	public boolean setColumn(int colIndex, double[] values) {
+
+		// Return if the index is out of range or the values do not fit the
+		// column
+		if (colIndex < 0 || colIndex >= this.nCols || values == null
+				|| values.length != this.nRows) {
+			return false;
+		}
+
+		// Return if any of the values are invalid
+		if (!areAllowed(values)) {
+			return false;
+		}
+
+		for (int i = 0; i < this.nRows; i++) {
+			elements[i * this.nCols + colIndex] = values[i];
+		}
+
+		// notify listeners
+		this.notifyListeners();
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Set the values of every element of the matrix. All of the values are
+	 * validated before any of them are set, and listeners are notified once.
+	 * </p>
+	 * 
+	 * @param values
+	 *            <p>
+	 *            The new values of the matrix in row-major order. There must
+	 *            be one value for each element.
+	 *            </p>
+	 * @return <p>
+	 *         Returns true if operation was successful. False otherwise.
+	 *         </p>
+	 */
+	public boolean setAll(double[] values) {
+
+		// Return if the values do not fit the matrix
+		if (values == null || values.length != elements.length) {
+			return false;
+		}
+
+		// Return if any of the values are invalid
+		if (!areAllowed(values)) {
+			return false;
+		}
+
+		System.arraycopy(values, 0, elements, 0, elements.length);
+
+		// notify listeners
+		this.notifyListeners();
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Returns a copy of all of the elements of the matrix in row-major order.
+	 * </p>
+	 * 
+	 * @return <p>
+	 *         An array of numberOfRows() * numberOfColumns() values.
+	 *         </p>
+	 */
+	public double[] toArray() {
+		return elements.clone();
+	}
+
+	/**
+	 * <p>
+	 * This operation is called by JAXB after the matrix is read from XML. It
+	 * copies elements read in the older layout, with one tag per value, into
+	 * the element array.
+	 * </p>
+	 * 
+	 * @param unmarshaller
+	 *            <p>
+	 *            The Unmarshaller that read the matrix.
+	 *            </p>
+	 * @param parent
+	 *            <p>
+	 *            The parent of the matrix in the XML, or null.
+	 *            </p>
+	 */
+	void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+
+		if (legacyElements != null) {
+			elements = new double[legacyElements.size()];
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = legacyElements.get(i);
+			}
+			legacyElements = null;
+		}
+
+		return;
+	}
+
+	/**
+	 * <p>
+	 * Private operation to determine whether a value conforms to the allowed
+	 * values.
+	 * </p>
+	 * 
+	 * @param value
+	 *            <p>
+	 *            The value to check.
+	 *            </p>
+	 * @return <p>
+	 *         True if the value is allowed, false otherwise.
+	 *         </p>
+	 */
+	private boolean isAllowed(double value) {
+
+		// Values are never allowed if Continuous or Discrete and the allowed
+		// values are not set
+		if (this.valueType == AllowedValueType.Continuous) {
+			return this.allowedValues != null
+					&& !(value < this.allowedValues.get(0) || value > this.allowedValues
+							.get(1));
+		} else if (this.valueType == AllowedValueType.Discrete) {
+			if (this.allowedValues == null) {
+				return false;
+			}
+			for (int i = 0; i < this.allowedValues.size(); i++) {
+				if (Double.compare(this.allowedValues.get(i), value) == 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Private operation to determine whether all of the values in an array
+	 * conform to the allowed values.
+	 * </p>
+	 * 
+	 * @param values
+	 *            <p>
+	 *            The values to check.
+	 *            </p>
+	 * @return <p>
+	 *         True if every value is allowed, false otherwise.
+	 *         </p>
+	 */
+	private boolean areAllowed(double[] values) {
+
+		// Local Declarations
+		double lower, upper;
+
+		// Undefined values do not need to be checked.
+		if (this.valueType == AllowedValueType.Continuous
+				&& this.allowedValues != null) {
+			// Check the bounds without unboxing them for every value.
+			lower = this.allowedValues.get(0);
+			upper = this.allowedValues.get(1);
+			for (double value : values) {
+				if (value < lower || value > upper) {
+					return false;
+				}
+			}
+		} else if (this.valueType != AllowedValueType.Undefined) {
+			for (double value : values) {
+				if (!isAllowed(value)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
 	/**
 	 * <p>
 	 * If this MatrixComponent's valueType attribute is anything other than
@@ -708,11 +956,11 @@ public class MatrixComponent extends ICEObject implements Component {
 		// This should not happen, but this is a safety feature. Values can only
 		// be set IFF there is
 		// only a fresh matrix
-		if (this.elements.size() > 1 || this.elements.isEmpty()) {
+		if (this.elements.length != 1) {
 			return;
 		}
 
-		elements.set(0, values.get(0));
+		elements[0] = values.get(0);
 
 		// Set values - Do a copy
 		this.allowedValues = new ArrayList<Double>();
@@ -736,8 +984,7 @@ public class MatrixComponent extends ICEObject implements Component {
 		this.valueType = AllowedValueType.Undefined;
 
 		// Setup a 1x1 matrix.
-		this.elements = new ArrayList<Double>();
-		elements.add(0.0);
+		this.elements = new double[] { 0.0 };
 		this.nCols = 1;
 		this.nRows = 1;
 
@@ -760,8 +1007,7 @@ public class MatrixComponent extends ICEObject implements Component {
 		this.valueType = AllowedValueType.Undefined;
 
 		// Setup a 1x1 matrix.
-		this.elements = new ArrayList<Double>();
-		elements.add(0.0);
+		this.elements = new double[] { 0.0 };
 		this.nCols = 1;
 		this.nRows = 1;
 
@@ -798,7 +1044,7 @@ public class MatrixComponent extends ICEObject implements Component {
 
 		// copy contents of row
 		for (int i = placeInElements; i < this.nCols * (index + 1); i++) {
-			rowArray.add(this.elements.get(i));
+			rowArray.add(this.elements[i]);
 		}
 
 		// return array
@@ -829,14 +1075,14 @@ public class MatrixComponent extends ICEObject implements Component {
 		}
 
 		// create a new double array
-		colArray = new ArrayList<Double>();
+		colArray = new ArrayList<Double>(this.nRows);
 
-		// Figure out where in the elements list the item is
-		placeInElements = this.nRows * index;
+		// The column starts at its index in the first row
+		placeInElements = index;
 
-		// copy contents of row
-		for (int i = placeInElements; i < this.nRows * (index + 1); i++) {
-			colArray.add(this.elements.get(i));
+		// copy contents of the column, skipping over the other columns
+		for (int i = 0; i < this.nRows; i++) {
+			colArray.add(this.elements[placeInElements + i * this.nCols]);
 		}
 
 		// return array
@@ -858,7 +1104,7 @@ public class MatrixComponent extends ICEObject implements Component {
 	private void resizeRow(boolean addOrRemove) {
 
 		// Local Declaration
-		int i, j;
+		int size = this.elements.length;
 		double defaultValue = 0.0;
 
 		// Get the defaultValue
@@ -867,20 +1113,17 @@ public class MatrixComponent extends ICEObject implements Component {
 			defaultValue = this.allowedValues.get(0);
 		}
 
-		// If true, add to the arraylist
+		// If true, add to the array
 		if (addOrRemove) {
 
-			// Add for the number of columns
-			for (i = 0; i < this.nCols; i++) {
-				this.elements.add(defaultValue);
-			}
+			// Add a row of default values to the end
+			this.elements = Arrays.copyOf(this.elements, size + this.nCols);
+			Arrays.fill(this.elements, size, size + this.nCols, defaultValue);
 			// Add to the row
 			this.nRows += 1;
 		} else {
-			// Remove for the number of columns
-			for (i = 0; i < this.nCols; i++) {
-				this.elements.remove(this.elements.size() - 1);
-			}
+			// Remove the last row
+			this.elements = Arrays.copyOf(this.elements, size - this.nCols);
 			// Remove a row
 			this.nRows -= 1;
 		}
@@ -901,7 +1144,10 @@ public class MatrixComponent extends ICEObject implements Component {
 	 */
 	private void resizeColumn(boolean addOrRemove) {
 		// Local Declaration
-		int i, j;
+		int i;
+		int newCols = (addOrRemove ? this.nCols + 1 : this.nCols - 1);
+		int copiedCols = Math.min(this.nCols, newCols);
+		double[] newElements = new double[this.nRows * newCols];
 		double defaultValue = 0.0;
 
 		// Get the defaultValue
@@ -910,23 +1156,18 @@ public class MatrixComponent extends ICEObject implements Component {
 			defaultValue = this.allowedValues.get(0);
 		}
 
-		// If true, add to the arraylist
-		if (addOrRemove) {
-
-			// Add for the number of rows
-			for (i = 0; i < this.nRows; i++) {
-				this.elements.add(((i + 1) * this.nCols) + i, defaultValue);
-			}
-			// Add to the cols
-			this.nCols += 1;
-		} else {
-			// Remove for the number of rows
-			for (i = 0; i < this.nRows; i++) {
-				this.elements.remove(((i + 1) * this.nCols) - i - 1);
+		// Copy each row into the new array. If adding, the last column of
+		// each row is the default value. If removing, the last column of each
+		// row is dropped.
+		for (i = 0; i < this.nRows; i++) {
+			System.arraycopy(this.elements, i * this.nCols, newElements, i
+					* newCols, copiedCols);
+			if (addOrRemove) {
+				newElements[i * newCols + this.nCols] = defaultValue;
 			}
-			// Remove a Column
-			this.nCols -= 1;
 		}
+		this.elements = newElements;
+		this.nCols = newCols;
 
 	}
 
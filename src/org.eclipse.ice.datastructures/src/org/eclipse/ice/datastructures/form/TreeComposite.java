@@ -232,6 +232,20 @@ public class TreeComposite extends ICEObject implements Composite,
 	@XmlElement(name = "exemplar")
 	protected ArrayList<TreeComposite> childExemplars;
 
+	/**
+	 * <p>
+	 * True if the list of child exemplars, and the exemplars in it, are shared
+	 * with other TreeComposites, false if this TreeComposite owns them. Copies
+	 * of a TreeComposite share the exemplars instead of cloning every exemplar
+	 * tree. The exemplars are deep-copied the first time they are handed out
+	 * or modified, so edits made to the exemplars of one tree are never seen
+	 * by another.
+	 * </p>
+	 * 
+	 */
+	@XmlTransient
+	private boolean sharedExemplars = false;
+
 	/**
 	 * <p>
 	 * True if the TreeComposite should be considered active, false if not.
@@ -777,7 +791,9 @@ public class TreeComposite extends ICEObject implements Composite,
 	 * <p>
 	 * This operation performs a deep copy of the attributes of another
 	 * TreeComposite into the current TreeComposite. It copies ALL of the
-	 * children of the TreeComposite, data and child nodes alike.
+	 * children of the TreeComposite, data and child nodes alike. The child
+	 * exemplars are shared with the other TreeComposite and are only copied
+	 * when one of the two hands them out or modifies its set of exemplars.
 	 * 
 	 * This version of the copy method is tailored specifically for instances
 	 * of TreeComposites that can be "copied in place" in a TreeComposite
@@ -837,12 +853,18 @@ public class TreeComposite extends ICEObject implements Composite,
 		this.children.clear();
 
 		// Performs a deep copy. Please note that children's parents are reset!
+		// The clones are new, so they are wired directly instead of through
+		// setParent(), which would search the children by equality and notify
+		// for every child. Listeners are registered with them below.
+		this.children.ensureCapacity(otherTreeComposite.children.size());
 		for (int i = 0; i < otherTreeComposite.children.size(); i++) {
-
-			this.children.add((TreeComposite) otherTreeComposite.children
-					.get(i).clone());
+			TreeComposite child = (TreeComposite) otherTreeComposite.children
+					.get(i).clone();
 			// Reset parent
-			this.children.get(i).setParent(this);
+			child.parent = this;
+			child.nextSibling = null;
+			child.previousSibling = null;
+			this.children.add(child);
 		}
 
 		// Reset links for siblings
@@ -876,12 +898,12 @@ public class TreeComposite extends ICEObject implements Composite,
 		// Copy activity marker
 		this.active = otherTreeComposite.active;
 
-		// Copy the exemplars
-		this.childExemplars.clear();
-		for (int i = 0; i < otherTreeComposite.childExemplars.size(); i++) {
-			this.childExemplars
-					.add((TreeComposite) otherTreeComposite.childExemplars.get(
-							i).clone());
+		// Share the exemplars. Both trees will copy them before handing them
+		// out or changing them, so the exemplar trees are not cloned here.
+		if (this.childExemplars != otherTreeComposite.childExemplars) {
+			this.childExemplars = otherTreeComposite.childExemplars;
+			this.sharedExemplars = true;
+			otherTreeComposite.sharedExemplars = true;
 		}
 
 		// Re-register with all of the listeners.
@@ -935,6 +957,7 @@ public class TreeComposite extends ICEObject implements Composite,
 		// Check that the incoming list is valid
 		if (exemplars != null) {
 			childExemplars = (ArrayList<TreeComposite>) exemplars.clone();
+			sharedExemplars = false;
 		}
 
 		return;
@@ -956,6 +979,9 @@ public class TreeComposite extends ICEObject implements Composite,
 		// Check the input Tree is valid
 		if (exemplar != null) {
 
+			// Take ownership of the exemplars before changing them
+			ownChildExemplars();
+
 			// Check if there already is a child exemplar of the same name
 			for (int i = 0; i < childExemplars.size(); i++) {
 				currExemplar = childExemplars.get(i);
@@ -988,9 +1014,29 @@ public class TreeComposite extends ICEObject implements Composite,
 	 *         </p>
 	 */
 	public ArrayList<TreeComposite> getChildExemplars() {
+		// Take ownership of the exemplars since the caller may modify them
+		ownChildExemplars();
 		return (ArrayList<TreeComposite>) childExemplars.clone();
 	}
 
+	/**
+	 * This operation replaces the child exemplars with private deep copies if
+	 * they are shared with another TreeComposite. The nested exemplars of the
+	 * copies are shared in turn, so only one level is copied at a time.
+	 */
+	private void ownChildExemplars() {
+		if (sharedExemplars) {
+			ArrayList<TreeComposite> exemplars = new ArrayList<TreeComposite>(
+					childExemplars.size());
+			for (TreeComposite exemplar : childExemplars) {
+				exemplars.add((TreeComposite) exemplar.clone());
+			}
+			childExemplars = exemplars;
+			sharedExemplars = false;
+		}
+		return;
+	}
+
 	/**
 	 * <p>
 	 * This operation returns true if a list of exemplar child node types has
@@ -32,7 +32,8 @@ import org.eclipse.ice.datastructures.componentVisitor.IComponentVisitor;
  * 
  * @author Jay Jay Billings
  */
-@XmlSeeAlso({ PrimitiveShape.class, ComplexShape.class })
+@XmlSeeAlso({ PrimitiveShape.class, ComplexShape.class,
+		ReplicatedShape.class })
 @XmlAccessorType(XmlAccessType.FIELD)
 public abstract class AbstractShape extends ICEObject implements IShape {
 	/**
@@ -63,7 +63,8 @@ public class ComplexShape extends AbstractShape {
 	@XmlAnyElement()
 	@XmlElementRefs(value = {
 			@XmlElementRef(name = "ComplexShape", type = ComplexShape.class),
-			@XmlElementRef(name = "PrimitiveShape", type = PrimitiveShape.class) })
+			@XmlElementRef(name = "PrimitiveShape", type = PrimitiveShape.class),
+			@XmlElementRef(name = "ReplicatedShape", type = ReplicatedShape.class) })
 	private ArrayList<IShape> shapes;
 
 	/**
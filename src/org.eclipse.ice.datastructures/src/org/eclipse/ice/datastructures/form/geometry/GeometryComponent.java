@@ -57,7 +57,8 @@ public class GeometryComponent extends ICEObject implements Component,
 	@XmlAnyElement()
 	@XmlElementRefs(value = {
 			@XmlElementRef(name = "ComplexShape", type = ComplexShape.class),
-			@XmlElementRef(name = "PrimitiveShape", type = PrimitiveShape.class) })
+			@XmlElementRef(name = "PrimitiveShape", type = PrimitiveShape.class),
+			@XmlElementRef(name = "ReplicatedShape", type = ReplicatedShape.class) })
 	private ArrayList<IShape> shapes;
 
 	/**
@@ -40,4 +40,13 @@ public interface IShapeVisitor {
 	 * @param primitiveShape
 	 */
 	public void visit(PrimitiveShape primitiveShape);
+
+	/**
+	 * <p>
+	 * Visits&nbsp;an&nbsp;IShapeVisitor&nbsp;as&nbsp;a&nbsp;ReplicatedShape
+	 * </p>
+	 * 
+	 * @param replicatedShape
+	 */
+	public void visit(ReplicatedShape replicatedShape);
 }
\ No newline at end of file
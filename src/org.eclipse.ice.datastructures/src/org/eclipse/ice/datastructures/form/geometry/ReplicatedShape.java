@@ -0,0 +1,749 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.datastructures.form.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAnyElement;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementRef;
+import javax.xml.bind.annotation.XmlElementRefs;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlList;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+
+import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
+
+/**
+ * <p>
+ * Represents many copies, or instances, of a single shape
+ * </p>
+ * <p>
+ * Instead of storing a copy of the shape for each instance, a ReplicatedShape
+ * references one shape and stores one set of transformation variables per
+ * instance in a flat array. The transformation of each instance is applied
+ * after the shape's own transformation and before the ReplicatedShape's
+ * transformation. A ReplicatedShape with N instances is equivalent to a union
+ * of N copies of the shape.
+ * </p>
+ * <p>
+ * Individual instances may be overridden with a different shape. An override
+ * is placed with the instance's transformation just like the replicated shape.
+ * Overriding an instance with a ComplexShape whose OperatorType is None hides
+ * the instance.
+ * </p>
+ *
+ * @author Jay Jay Billings
+ */
+@XmlRootElement(name = "ReplicatedShape")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class ReplicatedShape extends AbstractShape {
+
+	/**
+	 * <p>
+	 * The number of values stored for each instance. In order, these are the
+	 * three skew values, the size, the three scale values, the three rotation
+	 * values and the three translation values of the instance's
+	 * Transformation.
+	 * </p>
+	 *
+	 */
+	public static final int INSTANCE_STRIDE = 13;
+
+	/**
+	 * <p>
+	 * The shape that is replicated
+	 * </p>
+	 *
+	 */
+	@XmlAnyElement()
+	@XmlElementRefs(value = {
+			@XmlElementRef(name = "ComplexShape", type = ComplexShape.class),
+			@XmlElementRef(name = "PrimitiveShape", type = PrimitiveShape.class),
+			@XmlElementRef(name = "ReplicatedShape", type = ReplicatedShape.class) })
+	private IShape shape;
+
+	/**
+	 * <p>
+	 * The transformation variables of every instance, stored consecutively
+	 * with {@link #INSTANCE_STRIDE} values per instance. It is persisted
+	 * through {@link #getPersistedInstances()} so that its spare capacity is
+	 * not written.
+	 * </p>
+	 *
+	 */
+	@XmlTransient
+	private double[] instances;
+
+	/**
+	 * <p>
+	 * The number of instances. The instances array may be larger than
+	 * required.
+	 * </p>
+	 *
+	 */
+	@XmlElement(name = "InstanceCount")
+	private int instanceCount;
+
+	/**
+	 * <p>
+	 * The indices of the overridden instances, in the same order as the
+	 * overriding shapes
+	 * </p>
+	 *
+	 */
+	@XmlElement(name = "OverrideIndices")
+	@XmlList
+	private ArrayList<Integer> overrideIndices;
+
+	/**
+	 * <p>
+	 * The shapes that override the instances in overrideIndices
+	 * </p>
+	 *
+	 */
+	@XmlElementWrapper(name = "Overrides")
+	@XmlAnyElement()
+	@XmlElementRefs(value = {
+			@XmlElementRef(name = "ComplexShape", type = ComplexShape.class),
+			@XmlElementRef(name = "PrimitiveShape", type = PrimitiveShape.class),
+			@XmlElementRef(name = "ReplicatedShape", type = ReplicatedShape.class) })
+	private ArrayList<IShape> overrides;
+
+	/**
+	 * <p>
+	 * Creates a ReplicatedShape with no shape and no instances
+	 * </p>
+	 *
+	 */
+	public ReplicatedShape() {
+
+		// Call AbstractShape's constructor
+		super();
+
+		// Initialize the instances and overrides
+		instances = new double[0];
+		instanceCount = 0;
+		overrideIndices = new ArrayList<Integer>();
+		overrides = new ArrayList<IShape>();
+
+	}
+
+	/**
+	 * <p>
+	 * Creates a ReplicatedShape of the given shape with no instances
+	 * </p>
+	 *
+	 * @param shape
+	 *            <p>
+	 *            The shape to replicate
+	 *            </p>
+	 */
+	public ReplicatedShape(IShape shape) {
+
+		// Call the nullary constructor first
+		this();
+
+		// Set the shape
+		if (shape != null && shape != this) {
+			this.shape = shape;
+			((AbstractShape) shape).setParent(this);
+		}
+
+	}
+
+	/**
+	 * <p>
+	 * Returns the shape that is replicated
+	 * </p>
+	 *
+	 * @return <p>
+	 *         The replicated shape, or null if it has not been set
+	 *         </p>
+	 */
+	public IShape getShape() {
+		return shape;
+	}
+
+	/**
+	 * <p>
+	 * Sets the shape that is replicated
+	 * </p>
+	 *
+	 * @param shape
+	 *            <p>
+	 *            The new shape to replicate
+	 *            </p>
+	 */
+	public void setShape(IShape shape) {
+
+		// Check that the shape is not null or a reference to itself
+		if (shape == null || shape == this) {
+			return;
+		}
+		// Remove the old shape's parent
+		if (this.shape != null) {
+			((AbstractShape) this.shape).setParent(null);
+		}
+
+		this.shape = shape;
+		((AbstractShape) shape).setParent(this);
+
+		// Notify listeners
+		notifyListeners();
+
+	}
+
+	/**
+	 * <p>
+	 * Returns the number of instances
+	 * </p>
+	 *
+	 * @return <p>
+	 *         The number of instances
+	 *         </p>
+	 */
+	public int getInstanceCount() {
+		return instanceCount;
+	}
+
+	/**
+	 * <p>
+	 * Appends an instance with the given transformation
+	 * </p>
+	 *
+	 * @param transformation
+	 *            <p>
+	 *            The transformation of the new instance. Its values are
+	 *            copied.
+	 *            </p>
+	 * @return <p>
+	 *         The index of the new instance, or -1 if the transformation is
+	 *         null
+	 *         </p>
+	 */
+	public int addInstance(Transformation transformation) {
+
+		// Check the transformation
+		if (transformation == null) {
+			return -1;
+		}
+		// Grow the array if necessary. It is doubled so that adding many
+		// instances does not copy the array each time.
+		int required = (instanceCount + 1) * INSTANCE_STRIDE;
+		if (required > instances.length) {
+			instances = Arrays.copyOf(instances,
+					Math.max(required, instances.length * 2));
+		}
+		// Store the transformation
+		writeInstance(instanceCount, transformation);
+		instanceCount++;
+
+		// Notify listeners
+		notifyListeners();
+
+		return instanceCount - 1;
+	}
+
+	/**
+	 * <p>
+	 * Returns a new Transformation with the values of an instance
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @return <p>
+	 *         The transformation of the instance, or null if the index is
+	 *         invalid
+	 *         </p>
+	 */
+	public Transformation getInstance(int index) {
+
+		// Check the index
+		if (index < 0 || index >= instanceCount) {
+			return null;
+		}
+		// Read the values into a new Transformation
+		int offset = index * INSTANCE_STRIDE;
+		Transformation transformation = new Transformation();
+		transformation.setSkew(instances[offset], instances[offset + 1],
+				instances[offset + 2]);
+		transformation.setSize(instances[offset + 3]);
+		transformation.setScale(instances[offset + 4], instances[offset + 5],
+				instances[offset + 6]);
+		transformation.setRotation(instances[offset + 7],
+				instances[offset + 8], instances[offset + 9]);
+		transformation.setTranslation(instances[offset + 10],
+				instances[offset + 11], instances[offset + 12]);
+
+		return transformation;
+	}
+
+	/**
+	 * <p>
+	 * Replaces the transformation of an instance
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @param transformation
+	 *            <p>
+	 *            The new transformation. Its values are copied.
+	 *            </p>
+	 * @return <p>
+	 *         True if the instance was updated, false otherwise
+	 *         </p>
+	 */
+	public boolean setInstance(int index, Transformation transformation) {
+
+		// Check the parameters
+		if (index < 0 || index >= instanceCount || transformation == null) {
+			return false;
+		}
+		writeInstance(index, transformation);
+
+		// Notify listeners
+		notifyListeners();
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Removes an instance along with its override, if any. The indices of the
+	 * following instances are decremented.
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @return <p>
+	 *         True if the instance was removed, false otherwise
+	 *         </p>
+	 */
+	public boolean removeInstance(int index) {
+
+		// Check the index
+		if (index < 0 || index >= instanceCount) {
+			return false;
+		}
+		// Shift the following instances down
+		int offset = index * INSTANCE_STRIDE;
+		System.arraycopy(instances, offset + INSTANCE_STRIDE, instances,
+				offset, (instanceCount - index - 1) * INSTANCE_STRIDE);
+		instanceCount--;
+
+		// Remove the instance's override and shift the other indices
+		for (int i = overrideIndices.size() - 1; i >= 0; i--) {
+			int overrideIndex = overrideIndices.get(i);
+			if (overrideIndex == index) {
+				overrideIndices.remove(i);
+				((AbstractShape) overrides.remove(i)).setParent(null);
+			} else if (overrideIndex > index) {
+				overrideIndices.set(i, overrideIndex - 1);
+			}
+		}
+
+		// Notify listeners
+		notifyListeners();
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Returns the shape that overrides an instance
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @return <p>
+	 *         The overriding shape, or null if the instance is not overridden
+	 *         </p>
+	 */
+	public IShape getOverride(int index) {
+		int i = overrideIndices.indexOf(index);
+		return (i >= 0 ? overrides.get(i) : null);
+	}
+
+	/**
+	 * <p>
+	 * Overrides an instance with a different shape. Any previous override of
+	 * the instance is replaced.
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @param override
+	 *            <p>
+	 *            The shape to render in place of the replicated shape
+	 *            </p>
+	 * @return <p>
+	 *         True if the override was set, false otherwise
+	 *         </p>
+	 */
+	public boolean setOverride(int index, IShape override) {
+
+		// Check the parameters
+		if (index < 0 || index >= instanceCount || override == null
+				|| override == this) {
+			return false;
+		}
+		// Replace an existing override or add a new one
+		int i = overrideIndices.indexOf(index);
+		if (i >= 0) {
+			((AbstractShape) overrides.set(i, override)).setParent(null);
+		} else {
+			overrideIndices.add(index);
+			overrides.add(override);
+		}
+		((AbstractShape) override).setParent(this);
+
+		// Notify listeners
+		notifyListeners();
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Removes the override of an instance
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @return <p>
+	 *         True if the override was removed, false if the instance was not
+	 *         overridden
+	 *         </p>
+	 */
+	public boolean removeOverride(int index) {
+
+		int i = overrideIndices.indexOf(index);
+		if (i < 0) {
+			return false;
+		}
+		overrideIndices.remove(i);
+		((AbstractShape) overrides.remove(i)).setParent(null);
+
+		// Notify listeners
+		notifyListeners();
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Returns the indices of the overridden instances
+	 * </p>
+	 *
+	 * @return <p>
+	 *         The indices of the overridden instances in the order in which
+	 *         they were overridden
+	 *         </p>
+	 */
+	public int[] getOverrideIndices() {
+		int[] indices = new int[overrideIndices.size()];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = overrideIndices.get(i);
+		}
+		return indices;
+	}
+
+	/**
+	 * <p>
+	 * Returns the overriding shapes
+	 * </p>
+	 *
+	 * @return <p>
+	 *         A list of the overriding shapes in the same order as
+	 *         getOverrideIndices()
+	 *         </p>
+	 */
+	public ArrayList<IShape> getOverrides() {
+		return new ArrayList<IShape>(overrides);
+	}
+
+	/**
+	 * <p>
+	 * Returns the shape that is rendered for an instance
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @return <p>
+	 *         The instance's override if it has one, or the replicated shape
+	 *         otherwise
+	 *         </p>
+	 */
+	public IShape getInstanceShape(int index) {
+		IShape override = getOverride(index);
+		return (override != null ? override : shape);
+	}
+
+	/**
+	 * <p>
+	 * Returns the transformation variables of the instances for persistence.
+	 * Only the values of the current instances are included.
+	 * </p>
+	 *
+	 * @return <p>
+	 *         A copy of the used part of the instances array
+	 *         </p>
+	 */
+	@XmlElement(name = "Instances")
+	@XmlList
+	private double[] getPersistedInstances() {
+		return Arrays.copyOf(instances, instanceCount * INSTANCE_STRIDE);
+	}
+
+	/**
+	 * <p>
+	 * Sets the transformation variables of the instances when they are read
+	 * from persistence
+	 * </p>
+	 *
+	 * @param persistedInstances
+	 *            <p>
+	 *            The persisted values of the instances
+	 *            </p>
+	 */
+	private void setPersistedInstances(double[] persistedInstances) {
+		instances = (persistedInstances != null ? persistedInstances
+				: new double[0]);
+	}
+
+	/**
+	 * <p>
+	 * Writes the values of a transformation into the instances array
+	 * </p>
+	 *
+	 * @param index
+	 *            <p>
+	 *            The index of the instance
+	 *            </p>
+	 * @param transformation
+	 *            <p>
+	 *            The transformation to store
+	 *            </p>
+	 */
+	private void writeInstance(int index, Transformation transformation) {
+
+		int offset = index * INSTANCE_STRIDE;
+		System.arraycopy(transformation.getSkew(), 0, instances, offset, 3);
+		instances[offset + 3] = transformation.getSize();
+		System.arraycopy(transformation.getScale(), 0, instances, offset + 4,
+				3);
+		System.arraycopy(transformation.getRotation(), 0, instances,
+				offset + 7, 3);
+		System.arraycopy(transformation.getTranslation(), 0, instances,
+				offset + 10, 3);
+
+	}
+
+	/**
+	 * <p>
+	 * This operation returns the hashcode value of the ReplicatedShape.
+	 * </p>
+	 *
+	 * @return <p>
+	 *         The hashcode of the ICEObject.
+	 *         </p>
+	 */
+	@Override
+	public int hashCode() {
+
+		// Get the initial hashcode
+		int hash = super.hashCode();
+
+		// Hash the shape
+		hash = 31 * hash + (shape != null ? shape.hashCode() : 0);
+
+		// Hash the used part of the instances array
+		hash = 31 * hash + instanceCount;
+		for (int i = 0; i < instanceCount * INSTANCE_STRIDE; i++) {
+			long bits = Double.doubleToLongBits(instances[i]);
+			hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+		}
+
+		// Hash the overrides
+		hash = 31 * hash + overrideIndices.hashCode();
+		hash = 31 * hash + overrides.hashCode();
+
+		return hash;
+
+	}
+
+	/**
+	 * <p>
+	 * This operation is used to check equality between this ReplicatedShape
+	 * and another ReplicatedShape. It returns true if the ReplicatedShapes are
+	 * equal and false if they are not.
+	 * </p>
+	 *
+	 * @param otherObject
+	 *            <p>
+	 *            The other ICEObject that should be compared with this one.
+	 *            </p>
+	 * @return <p>
+	 *         True if the ICEObjects are equal, false otherwise.
+	 *         </p>
+	 */
+	@Override
+	public boolean equals(Object otherObject) {
+
+		// Check if a similar reference
+		if (this == otherObject) {
+			return true;
+		}
+		// Check that the other object is not null and an instance of the
+		// ReplicatedShape
+		if (otherObject == null || !(otherObject instanceof ReplicatedShape)) {
+			return false;
+		}
+		// Check that these objects have the same ICEObject data
+		if (!super.equals(otherObject)) {
+			return false;
+		}
+		ReplicatedShape otherShape = (ReplicatedShape) otherObject;
+
+		// Check the shapes
+		if (shape == null ? otherShape.shape != null : !shape
+				.equals(otherShape.shape)) {
+			return false;
+		}
+		// Check the instances
+		if (instanceCount != otherShape.instanceCount) {
+			return false;
+		}
+		for (int i = 0; i < instanceCount * INSTANCE_STRIDE; i++) {
+			if (Double.compare(instances[i], otherShape.instances[i]) != 0) {
+				return false;
+			}
+		}
+		// Check the overrides
+		return overrideIndices.equals(otherShape.overrideIndices)
+				&& overrides.equals(otherShape.overrides);
+
+	}
+
+	/**
+	 * <p>
+	 * This operation copies the contents of a ReplicatedShape into the current
+	 * object using a deep copy.
+	 * </p>
+	 *
+	 * @param iceObject
+	 *            <p>
+	 *            The ICEObject from which the values should be copied.
+	 *            </p>
+	 */
+	public void copy(ReplicatedShape iceObject) {
+
+		// Return if object is null
+		if (iceObject == null) {
+			return;
+		}
+		// Copy the ICEObject data
+		super.copy(iceObject);
+
+		// Copy the shape
+		if (iceObject.shape != null) {
+			shape = (IShape) ((AbstractShape) iceObject.shape).clone();
+			((AbstractShape) shape).setParent(this);
+		} else {
+			shape = null;
+		}
+
+		// Copy the instances
+		instanceCount = iceObject.instanceCount;
+		instances = Arrays.copyOf(iceObject.instances, instanceCount
+				* INSTANCE_STRIDE);
+
+		// Copy the overrides
+		overrideIndices = new ArrayList<Integer>(iceObject.overrideIndices);
+		overrides = new ArrayList<IShape>();
+		for (IShape override : iceObject.overrides) {
+			AbstractShape clonedShape = (AbstractShape) ((AbstractShape) override)
+					.clone();
+			clonedShape.setParent(this);
+			overrides.add(clonedShape);
+		}
+
+		notifyListeners();
+
+	}
+
+	/**
+	 * <p>
+	 * This operation returns a clone of the ReplicatedShape using a deep copy.
+	 * </p>
+	 *
+	 * @return <p>
+	 *         The new clone.
+	 *         </p>
+	 */
+	@Override
+	public Object clone() {
+
+		// Create a new ReplicatedShape
+		ReplicatedShape replicatedShape = new ReplicatedShape();
+
+		// Copy `this` into replicatedShape
+		replicatedShape.copy(this);
+
+		return replicatedShape;
+
+	}
+
+	/**
+	 * (non-Javadoc)
+	 *
+	 * @see IUpdateable#update(String updatedKey, String newValue)
+	 */
+	@Override
+	public void update(String updatedKey, String newValue) {
+		// Not implemented
+	}
+
+	/**
+	 * (non-Javadoc)
+	 *
+	 * @see IShape#acceptShapeVisitor(IShapeVisitor visitor)
+	 */
+	@Override
+	public void acceptShapeVisitor(IShapeVisitor visitor) {
+
+		// Only visit if it is not null
+		if (visitor != null) {
+			visitor.visit(this);
+		}
+	}
+}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.datastructures.form.mesh;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * A MeshChangeLog records the IDs of the polygons, edges and vertices that
+ * were added to, removed from or modified in a {@link MeshComponent} since a
+ * listener last took its log with {@link MeshComponent#takeChanges}. This lets
+ * views of the mesh apply updates in time proportional to the number of
+ * changes instead of comparing the whole mesh with what they display.
+ * </p>
+ * <p>
+ * Changes are coalesced as they are recorded. A part that is added and then
+ * removed before the log is taken does not appear in the log at all. A part
+ * that is removed and then added again with the same ID (for instance, a
+ * polygon that is replaced) appears in both the removed and added sets, so
+ * clients should always process removals before additions. Modifications are
+ * only recorded for edges and vertices that were neither added nor removed
+ * since the log was taken.
+ * </p>
+ * <p>
+ * If the whole mesh was replaced, for instance by
+ * {@link MeshComponent#copy(MeshComponent)}, the log is marked as a reset and
+ * clients should re-synchronize with the entire mesh.
+ * </p>
+ *
+ * @author Jordan H. Deyton
+ */
+public class MeshChangeLog {
+
+	/**
+	 * The IDs of added polygons.
+	 */
+	private final Set<Integer> addedPolygons = new HashSet<Integer>();
+	/**
+	 * The IDs of removed polygons.
+	 */
+	private final Set<Integer> removedPolygons = new HashSet<Integer>();
+	/**
+	 * The IDs of added edges.
+	 */
+	private final Set<Integer> addedEdges = new HashSet<Integer>();
+	/**
+	 * The IDs of removed edges.
+	 */
+	private final Set<Integer> removedEdges = new HashSet<Integer>();
+	/**
+	 * The IDs of modified edges.
+	 */
+	private final Set<Integer> modifiedEdges = new HashSet<Integer>();
+	/**
+	 * The IDs of added vertices.
+	 */
+	private final Set<Integer> addedVertices = new HashSet<Integer>();
+	/**
+	 * The IDs of removed vertices.
+	 */
+	private final Set<Integer> removedVertices = new HashSet<Integer>();
+	/**
+	 * The IDs of modified vertices.
+	 */
+	private final Set<Integer> modifiedVertices = new HashSet<Integer>();
+
+	/**
+	 * Whether or not the entire mesh was replaced.
+	 */
+	private boolean reset = false;
+
+	/**
+	 * Records a removal in the appropriate sets. If the part was added since
+	 * the log was taken and did not replace an older part, the addition is
+	 * simply forgotten.
+	 *
+	 * @param added
+	 *            The set of added IDs.
+	 * @param removed
+	 *            The set of removed IDs.
+	 * @param id
+	 *            The ID of the removed part.
+	 */
+	private static void recordRemove(Set<Integer> added, Set<Integer> removed,
+			int id) {
+		if (!added.remove(id) || removed.contains(id)) {
+			removed.add(id);
+		}
+	}
+
+	/**
+	 * Records a modification in the set of modified IDs unless the part was
+	 * added or removed since the log was taken, in which case clients already
+	 * process the whole part.
+	 *
+	 * @param added
+	 *            The set of added IDs.
+	 * @param removed
+	 *            The set of removed IDs.
+	 * @param modified
+	 *            The set of modified IDs.
+	 * @param id
+	 *            The ID of the modified part.
+	 */
+	private static void recordModify(Set<Integer> added, Set<Integer> removed,
+			Set<Integer> modified, int id) {
+		if (!added.contains(id) && !removed.contains(id)) {
+			modified.add(id);
+		}
+	}
+
+	/**
+	 * Records that a polygon was added.
+	 *
+	 * @param id
+	 *            The polygon's ID.
+	 */
+	void polygonAdded(int id) {
+		addedPolygons.add(id);
+	}
+
+	/**
+	 * Records that a polygon was removed.
+	 *
+	 * @param id
+	 *            The polygon's ID.
+	 */
+	void polygonRemoved(int id) {
+		recordRemove(addedPolygons, removedPolygons, id);
+	}
+
+	/**
+	 * Records that an edge was added.
+	 *
+	 * @param id
+	 *            The edge's ID.
+	 */
+	void edgeAdded(int id) {
+		addedEdges.add(id);
+	}
+
+	/**
+	 * Records that an edge was removed.
+	 *
+	 * @param id
+	 *            The edge's ID.
+	 */
+	void edgeRemoved(int id) {
+		modifiedEdges.remove(id);
+		recordRemove(addedEdges, removedEdges, id);
+	}
+
+	/**
+	 * Records that an edge was modified.
+	 *
+	 * @param id
+	 *            The edge's ID.
+	 */
+	void edgeModified(int id) {
+		recordModify(addedEdges, removedEdges, modifiedEdges, id);
+	}
+
+	/**
+	 * Records that a vertex was added.
+	 *
+	 * @param id
+	 *            The vertex's ID.
+	 */
+	void vertexAdded(int id) {
+		addedVertices.add(id);
+	}
+
+	/**
+	 * Records that a vertex was removed.
+	 *
+	 * @param id
+	 *            The vertex's ID.
+	 */
+	void vertexRemoved(int id) {
+		modifiedVertices.remove(id);
+		recordRemove(addedVertices, removedVertices, id);
+	}
+
+	/**
+	 * Records that a vertex was modified.
+	 *
+	 * @param id
+	 *            The vertex's ID.
+	 */
+	void vertexModified(int id) {
+		recordModify(addedVertices, removedVertices, modifiedVertices, id);
+	}
+
+	/**
+	 * Marks the log as a reset. Any recorded changes are discarded since
+	 * clients must re-synchronize with the whole mesh anyway.
+	 */
+	void markReset() {
+		reset = true;
+		addedPolygons.clear();
+		removedPolygons.clear();
+		addedEdges.clear();
+		removedEdges.clear();
+		modifiedEdges.clear();
+		addedVertices.clear();
+		removedVertices.clear();
+		modifiedVertices.clear();
+	}
+
+	/**
+	 * Gets whether the entire mesh was replaced since the log was last taken or
+	 * the listener taking it was not registered with the mesh.
+	 *
+	 * @return True if clients should re-synchronize with the whole mesh, false
+	 *         if the recorded changes are sufficient.
+	 */
+	public boolean isReset() {
+		return reset;
+	}
+
+	/**
+	 * Gets whether or not any changes were recorded.
+	 *
+	 * @return True if there are no changes and the log is not a reset, false
+	 *         otherwise.
+	 */
+	public boolean isEmpty() {
+		return !reset && addedPolygons.isEmpty() && removedPolygons.isEmpty()
+				&& addedEdges.isEmpty() && removedEdges.isEmpty()
+				&& modifiedEdges.isEmpty() && addedVertices.isEmpty()
+				&& removedVertices.isEmpty() && modifiedVertices.isEmpty();
+	}
+
+	/**
+	 * @return The IDs of the polygons added since the log was last taken.
+	 */
+	public Set<Integer> getAddedPolygons() {
+		return Collections.unmodifiableSet(addedPolygons);
+	}
+
+	/**
+	 * @return The IDs of the polygons removed since the log was last taken.
+	 */
+	public Set<Integer> getRemovedPolygons() {
+		return Collections.unmodifiableSet(removedPolygons);
+	}
+
+	/**
+	 * @return The IDs of the edges added since the log was last taken.
+	 */
+	public Set<Integer> getAddedEdges() {
+		return Collections.unmodifiableSet(addedEdges);
+	}
+
+	/**
+	 * @return The IDs of the edges removed since the log was last taken.
+	 */
+	public Set<Integer> getRemovedEdges() {
+		return Collections.unmodifiableSet(removedEdges);
+	}
+
+	/**
+	 * @return The IDs of the edges modified since the log was last taken.
+	 */
+	public Set<Integer> getModifiedEdges() {
+		return Collections.unmodifiableSet(modifiedEdges);
+	}
+
+	/**
+	 * @return The IDs of the vertices added since the log was last taken.
+	 */
+	public Set<Integer> getAddedVertices() {
+		return Collections.unmodifiableSet(addedVertices);
+	}
+
+	/**
+	 * @return The IDs of the vertices removed since the log was last taken.
+	 */
+	public Set<Integer> getRemovedVertices() {
+		return Collections.unmodifiableSet(removedVertices);
+	}
+
+	/**
+	 * @return The IDs of the vertices modified since the log was last taken.
+	 */
+	public Set<Integer> getModifiedVertices() {
+		return Collections.unmodifiableSet(modifiedVertices);
+	}
+}
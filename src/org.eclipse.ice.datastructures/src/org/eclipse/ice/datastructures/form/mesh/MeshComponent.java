@@ -15,6 +15,8 @@ package org.eclipse.ice.datastructures.form.mesh;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
@@ -28,6 +30,8 @@ import javax.xml.bind.annotation.XmlTransient;
 
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.datastructures.ICEObject.ICEObject;
+import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
+import org.eclipse.ice.datastructures.ICEObject.IUpdateableListener;
 import org.eclipse.ice.datastructures.componentVisitor.IComponentVisitor;
 
 /**
@@ -112,6 +116,40 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 	@XmlTransient
 	private final AtomicBoolean copying;
 
+	/**
+	 * <p>
+	 * The logs of polygons, edges and vertices that were added, removed or
+	 * modified, keyed on the registered listener that takes them with
+	 * {@link #takeChanges(IUpdateableListener)}. Each listener has its own log
+	 * so that every view sees every change, and nothing is recorded when no
+	 * listener is registered.
+	 * </p>
+	 * 
+	 */
+	@XmlTransient
+	private final Map<IUpdateableListener, MeshChangeLog> changeLogs;
+
+	/**
+	 * <p>
+	 * The lock guarding {@link #changeLogs}. Changes are recorded on the
+	 * thread that modifies the mesh and are taken on the threads that display
+	 * it.
+	 * </p>
+	 * 
+	 */
+	@XmlTransient
+	private final Object changeLock;
+
+	/**
+	 * <p>
+	 * Listens to the vertices and edges in the mesh so that their
+	 * modifications are recorded in the change logs.
+	 * </p>
+	 * 
+	 */
+	@XmlTransient
+	private final IUpdateableListener partListener;
+
 	/**
 	 * <p>
 	 * The default constructor for a MeshComponent. Initializes the list of
@@ -136,6 +174,36 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 		// from another MeshComponent.
 		copying = new AtomicBoolean(false);
 
+		// Initialize the logs of changes to the mesh.
+		changeLogs = new IdentityHashMap<IUpdateableListener, MeshChangeLog>();
+		changeLock = new Object();
+
+		// Record modified vertices and edges while they are in the mesh.
+		partListener = new IUpdateableListener() {
+			@Override
+			public void update(IUpdateable component) {
+				if (component instanceof Vertex) {
+					int id = ((Vertex) component).getId();
+					synchronized (changeLock) {
+						if (vertices.get(id) == component) {
+							for (MeshChangeLog log : changeLogs.values()) {
+								log.vertexModified(id);
+							}
+						}
+					}
+				} else if (component instanceof Edge) {
+					int id = ((Edge) component).getId();
+					synchronized (changeLock) {
+						if (edges.get(id) == component) {
+							for (MeshChangeLog log : changeLogs.values()) {
+								log.edgeModified(id);
+							}
+						}
+					}
+				}
+			}
+		};
+
 		return;
 	}
 
@@ -252,6 +320,11 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 				// Put everything into their corresponding trees.
 				// Add the polygon to the polygon tree.
 				polygons.put(id, polygon);
+				synchronized (changeLock) {
+					for (MeshChangeLog log : changeLogs.values()) {
+						log.polygonAdded(id);
+					}
+				}
 				// Add any new vertices to the vertex tree.
 				// Add any new edges to the edge tree.
 				for (int i = 0; i < size; i++) {
@@ -272,7 +345,13 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 					// If the vertex does not exist, we need to create a new set
 					// of associated polygon IDs.
 					else {
-						vertices.put(j, vertex);
+						synchronized (changeLock) {
+							vertices.put(j, vertex);
+							for (MeshChangeLog log : changeLogs.values()) {
+								log.vertexAdded(j);
+							}
+						}
+						vertex.register(partListener);
 						// Update the polygons that use this vertex.
 						TreeSet<Integer> polygonIds = new TreeSet<Integer>();
 						polygonIds.add(id);
@@ -296,7 +375,13 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 					// If the edge does not exist, we need to create a new set
 					// of associated polygon IDs.
 					else {
-						edges.put(j, edge);
+						synchronized (changeLock) {
+							edges.put(j, edge);
+							for (MeshChangeLog log : changeLogs.values()) {
+								log.edgeAdded(j);
+							}
+						}
+						edge.register(partListener);
 						TreeSet<Integer> polygonIds = new TreeSet<Integer>();
 						polygonIds.add(id);
 						edgePolygons.put(j, polygonIds);
@@ -333,6 +418,11 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 		// If the value returned from remove is not null, we need to update our
 		// bookkeeping for the removed polygon.
 		if (polygon != null) {
+			synchronized (changeLock) {
+				for (MeshChangeLog log : changeLogs.values()) {
+					log.polygonRemoved(id);
+				}
+			}
 
 			// Remove any vertices and edges that are only associated with the
 			// removed polygon.
@@ -349,8 +439,14 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 				// If there are no more polygons associated with the vertex,
 				// remove the vertex.
 				if (polygonIds.isEmpty()) {
-					vertices.remove(vertexId);
 					vertexPolygons.remove(vertexId);
+					synchronized (changeLock) {
+						vertices.remove(vertexId);
+						for (MeshChangeLog log : changeLogs.values()) {
+							log.vertexRemoved(vertexId);
+						}
+					}
+					polygonVertices.get(i).unregister(partListener);
 				}
 
 				// Get the next edge ID.
@@ -372,8 +468,14 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 						}
 					}
 					// Remove the edge and its list of associated polygons.
-					edges.remove(edgeId);
 					edgePolygons.remove(edgeId);
+					synchronized (changeLock) {
+						edges.remove(edgeId);
+						for (MeshChangeLog log : changeLogs.values()) {
+							log.edgeRemoved(edgeId);
+						}
+					}
+					edge.unregister(partListener);
 				}
 			}
 
@@ -412,6 +514,11 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 				// update our
 				// bookkeeping for the removed polygon.
 				if (polygon != null) {
+					synchronized (changeLock) {
+						for (MeshChangeLog log : changeLogs.values()) {
+							log.polygonRemoved(id);
+						}
+					}
 
 					// Remove any vertices and edges that are only associated
 					// with the
@@ -431,8 +538,14 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 						// vertex,
 						// remove the vertex.
 						if (polygonIds.isEmpty()) {
-							vertices.remove(vertexId);
 							vertexPolygons.remove(vertexId);
+							synchronized (changeLock) {
+								vertices.remove(vertexId);
+								for (MeshChangeLog log : changeLogs.values()) {
+									log.vertexRemoved(vertexId);
+								}
+							}
+							polygonVertices.get(i).unregister(partListener);
 						}
 
 						// Get the next edge ID.
@@ -458,8 +571,14 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 							}
 							// Remove the edge and its list of associated
 							// polygons.
-							edges.remove(edgeId);
 							edgePolygons.remove(edgeId);
+							synchronized (changeLock) {
+								edges.remove(edgeId);
+								for (MeshChangeLog log : changeLogs.values()) {
+									log.edgeRemoved(edgeId);
+								}
+							}
+							edge.unregister(partListener);
 						}
 					}
 					// If the polygon is not null, then we must have removed it.
@@ -476,6 +595,74 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 		return;
 	}
 
+	/**
+	 * <p>
+	 * Takes the log of polygons, edges and vertices that were added, removed
+	 * or modified since the last time the specified listener took its changes
+	 * or was registered. Subsequent changes are recorded in a new log for the
+	 * listener. The logs of other listeners are not affected.
+	 * </p>
+	 *
+	 * @param listener
+	 *            The registered listener whose changes should be taken.
+	 * @return The changes made to the mesh since the last call. This is never
+	 *         null but may be empty. If the listener is not registered, the
+	 *         log is marked as a reset.
+	 */
+	public MeshChangeLog takeChanges(IUpdateableListener listener) {
+		MeshChangeLog changes = new MeshChangeLog();
+		synchronized (changeLock) {
+			MeshChangeLog log = changeLogs.get(listener);
+			if (log != null) {
+				changeLogs.put(listener, changes);
+				changes = log;
+			} else {
+				changes.markReset();
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * <p>
+	 * Registers a listener with the MeshComponent and starts a log of the
+	 * changes for it.
+	 * </p>
+	 * 
+	 * @see ICEObject#register(IUpdateableListener)
+	 */
+	@Override
+	public void register(IUpdateableListener listener) {
+		super.register(listener);
+		if (listener != null) {
+			synchronized (changeLock) {
+				if (!changeLogs.containsKey(listener)) {
+					changeLogs.put(listener, new MeshChangeLog());
+				}
+			}
+		}
+		return;
+	}
+
+	/**
+	 * <p>
+	 * Unregisters a listener from the MeshComponent and drops its log of
+	 * changes.
+	 * </p>
+	 * 
+	 * @see ICEObject#unregister(IUpdateableListener)
+	 */
+	@Override
+	public void unregister(IUpdateableListener listener) {
+		super.unregister(listener);
+		if (listener != null && !listeners.contains(listener)) {
+			synchronized (changeLock) {
+				changeLogs.remove(listener);
+			}
+		}
+		return;
+	}
+
 	/**
 	 * <p>
 	 * Gets a list of all polygons stored in the MeshComponent ordered by their
@@ -917,8 +1104,16 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 			polygons.clear();
 
 			// These should be updated automatically by adding the shapes.
-			vertices.clear();
-			edges.clear();
+			synchronized (changeLock) {
+				for (Vertex vertex : vertices.values()) {
+					vertex.unregister(partListener);
+				}
+				for (Edge edge : edges.values()) {
+					edge.unregister(partListener);
+				}
+				vertices.clear();
+				edges.clear();
+			}
 			polygons.clear();
 			vertexPolygons.clear();
 			edgePolygons.clear();
@@ -929,6 +1124,13 @@ public class MeshComponent extends ICEObject implements Component, IMeshPart {
 				addPolygon((Polygon) polygon.clone());
 			}
 
+			// The whole mesh was replaced, so views need to re-synchronize.
+			synchronized (changeLock) {
+				for (MeshChangeLog log : changeLogs.values()) {
+					log.markReset();
+				}
+			}
+
 			// Notify listeners of the change.
 			notifyListeners();
 
@@ -29,6 +29,7 @@ import org.eclipse.ice.datastructures.form.Entry;
 import org.eclipse.ice.datastructures.form.Form;
 import org.eclipse.ice.datastructures.form.TableComponent;
 import org.eclipse.ice.io.serializable.ITemplatedReader;
+import org.eclipse.ice.io.serializable.LineSearcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,9 +49,10 @@ public class INIReader implements ITemplatedReader {
 			.getLogger(INIReader.class);
 
 	/**
-	 * The character to use as a comment symbol
+	 * The compiled regex for the comment symbol. It is compiled once when the
+	 * comment symbol is set instead of on every line.
 	 */
-	private String comment;
+	private Pattern commentPattern;
 
 	/**
 	 * A string that can be used if there is an unusual prefix before
@@ -67,7 +69,13 @@ public class INIReader implements ITemplatedReader {
 	 * Regex to match the variable assignments. The default matches =, multiple
 	 * spaces after test, or tabs after text, in that order of precedence.
 	 */
-	private String assignmentPattern = "(=|\\b(\\s)+?|\\b\\t)";
+	private Pattern assignmentPattern = Pattern
+			.compile("(=|\\b(\\s)+?|\\b\\t)");
+
+	/**
+	 * Regex to match the separators between allowed values in a template.
+	 */
+	private static final Pattern allowedValuePattern = Pattern.compile(",\\s");
 
 	/**
 	 * The type of template to use. If null just read a bare ini file
@@ -82,10 +90,20 @@ public class INIReader implements ITemplatedReader {
 	private HashMap<String, IFile> templateMap = new HashMap<String, IFile>();
 
 	/**
-	 * Keep track of which TableComponent each template variable is in so we can
-	 * load the actual file more quickly
+	 * Keep track of the Entry for each template variable so we can load the
+	 * actual file without searching the components. The keys are built from
+	 * the section and the variable name by {@link #getVariableKey}, so that
+	 * the same variable may appear in more than one section.
 	 */
-	private HashMap<String, Integer> variableToComponentNumber = new HashMap<String, Integer>();
+	private HashMap<String, Entry> variableToEntry = new HashMap<String, Entry>();
+
+	/**
+	 * The Entry for each template variable name regardless of its section.
+	 * This is used for input files that do not declare the sections of the
+	 * template. Names that appear in more than one section map to null so
+	 * that they are never matched to the wrong section.
+	 */
+	private HashMap<String, Entry> nameToEntry = new HashMap<String, Entry>();
 
 	/**
 	 * Constructor using the ! as a comment is the default behavior
@@ -101,7 +119,7 @@ public class INIReader implements ITemplatedReader {
 	 *            the symbol to use to specify a comment
 	 */
 	public INIReader(String c) {
-		comment = c;
+		commentPattern = Pattern.compile(c);
 	}
 
 	/**
@@ -139,22 +157,21 @@ public class INIReader implements ITemplatedReader {
 					String section = "Default Section";
 					DataComponent sectionComp = new DataComponent();
 					sectionComp.setName(section);
+					Matcher sectionMatch = sectionPattern.matcher("");
 					while ((line = reader.readLine()) != null) {
 						// Make sure that comments are taken into consideration
-						splitLine = line.split(comment);
-						line = splitLine[0].trim();
+						line = stripComment(line).trim();
 						// If at a new section, add the previous section to
 						// the list and create a new DataComponent for the
 						// next section
-						Matcher sectionMatch = sectionPattern.matcher(line);
-						if (sectionMatch.matches()) {
+						if (sectionMatch.reset(line).matches()) {
 							if (sectionComp.retrieveAllEntries().size() > 0) {
 								iniForm.addComponent(sectionComp);
 							}
 							sectionComp = new DataComponent();
 							sectionComp.setName(sectionMatch.group(0).trim()
 									.replace("[", "").replace("]", ""));
-						} else if ((splitLine = line.split(assignmentPattern)).length >= 2) {
+						} else if ((splitLine = assignmentPattern.split(line)).length >= 2) {
 							// Get the key and value and put it in the Data
 							// Component
 							String var = splitLine[0].trim();
@@ -189,6 +206,9 @@ public class INIReader implements ITemplatedReader {
 	 */
 	private Form buildTemplate() {
 		Form templateForm = new Form();
+		// Forget the entries of any previously built template
+		variableToEntry.clear();
+		nameToEntry.clear();
 		ArrayList<Entry> entries = new ArrayList<Entry>();
 		Entry variableTemplate = new Entry();
 		Entry valueTemplate = new Entry();
@@ -214,12 +234,13 @@ public class INIReader implements ITemplatedReader {
 				AllowedValueType valueType;
 				sectionComp.setName(section);
 				sectionComp.setId(componentNumber);
+				Matcher sectionMatch = sectionPattern.matcher("");
+				int splitIndex;
 				while ((line = reader.readLine()) != null) {
 					// If at a new section, add the previous section to
 					// the list and create a new TableComponent for the
 					// next section
-					Matcher sectionMatch = sectionPattern.matcher(line);
-					if (sectionMatch.matches()) {
+					if (sectionMatch.reset(line).matches()) {
 						if (sectionComp.retrieveAllEntries().size() > 0) {
 							templateForm.addComponent(sectionComp);
 							++componentNumber;
@@ -231,9 +252,17 @@ public class INIReader implements ITemplatedReader {
 						sectionComp.setId(componentNumber);
 					} else if ((templateSections = line.split(";")).length >= 2) {
 						// Get the key and value and put it in the table
-						varName = templateSections[0].split("=")[0].trim();
-						defaultVal = templateSections[0].split("=")[1].trim();
-						valueArray = templateSections[1].split(",\\s");
+						splitIndex = templateSections[0].indexOf('=');
+						varName = templateSections[0].substring(0, splitIndex)
+								.trim();
+						defaultVal = templateSections[0].substring(
+								splitIndex + 1).trim();
+						if (defaultVal.indexOf('=') >= 0) {
+							defaultVal = defaultVal.substring(0,
+									defaultVal.indexOf('=')).trim();
+						}
+						valueArray = allowedValuePattern
+								.split(templateSections[1]);
 						allowedValues = new ArrayList<String>(
 								Arrays.asList(valueArray));
 
@@ -250,8 +279,14 @@ public class INIReader implements ITemplatedReader {
 						Entry newEntry = makeTemplateEntry(varName, defaultVal,
 								allowedValues, valueType);
 						sectionComp.addEntry(newEntry);
-						variableToComponentNumber.put(varName,
-								sectionComp.getId());
+						variableToEntry.put(
+								getVariableKey(sectionComp.getName(), varName),
+								newEntry);
+						if (nameToEntry.containsKey(varName)) {
+							nameToEntry.put(varName, null);
+						} else {
+							nameToEntry.put(varName, newEntry);
+						}
 					}
 				}
 				// Add the last section if needed
@@ -305,35 +340,33 @@ public class INIReader implements ITemplatedReader {
 				int rowNumber;
 				DataComponent sectionTable = new DataComponent();
 				sectionTable.setName(section);
+				Matcher sectionMatch = sectionPattern.matcher("");
 				while ((line = reader.readLine()) != null) {
-					Matcher sectionMatch = sectionPattern.matcher(line);
-					if (sectionMatch.matches()) {
-						System.err
-								.println("INIReader Message: Found invalid section header: "
-										+ sectionMatch.group(0).trim()
-												.replace("[", "")
-												.replace("]", ""));
+					if (sectionMatch.reset(line).matches()) {
+						// Variables that follow belong to this section
+						section = sectionMatch.group(0).trim()
+								.replace("[", "").replace("]", "");
 
 						// Make sure that comments are taken into consideration
-					} else if ((splitLine = line.split(comment)[0].trim()
-							.split(assignmentPattern)).length >= 2) {
+					} else if ((splitLine = assignmentPattern.split(stripComment(
+							line).trim())).length >= 2) {
 						// Get the variable name and value
 						var = splitLine[0].trim();
 						val = splitLine[splitLine.length - 1].trim();
 						foundInTemplate = false;
 
 						// Try to find the variable in the existing form. If it
-						// exists update the data component
-						if (variableToComponentNumber.containsKey(var)) {
-							DataComponent comp = (DataComponent) form
-									.getComponent(variableToComponentNumber
-											.get(var));
-							for (Entry ent : comp.retrieveAllEntries()) {
-								if (ent.getName().equals(var)) {
-									ent.setValue(val);
-									foundInTemplate = true;
-								}
-							}
+						// exists update its entry. Variables that are not in
+						// the same section of the template are only matched
+						// by name if that name is unique in the template.
+						Entry ent = variableToEntry.get(getVariableKey(
+								section, var));
+						if (ent == null) {
+							ent = nameToEntry.get(var);
+						}
+						if (ent != null) {
+							ent.setValue(val);
+							foundInTemplate = true;
 						}
 
 						// If the variable didn't exist add it to the first data
@@ -361,6 +394,19 @@ public class INIReader implements ITemplatedReader {
 		return form;
 	}
 
+	/**
+	 * Get the key used to store the template Entry of a variable.
+	 *
+	 * @param section
+	 *            the name of the section that declares the variable
+	 * @param variable
+	 *            the name of the variable
+	 * @return the key for {@link #variableToEntry}
+	 */
+	private static String getVariableKey(String section, String variable) {
+		return "[" + section + "]" + variable;
+	}
+
 	/**
 	 * Initialize an entry with the correct allowed values
 	 *
@@ -395,7 +441,20 @@ public class INIReader implements ITemplatedReader {
 	 */
 	@Override
 	public void setCommentString(String comm) {
-		comment = comm;
+		commentPattern = Pattern.compile(comm);
+	}
+
+	/**
+	 * This operation removes the comment, if any, from a line.
+	 *
+	 * @param line
+	 *            The line
+	 * @return Everything in the line before the first comment symbol
+	 */
+	private String stripComment(String line) {
+		Matcher commentMatch = commentPattern.matcher(line);
+		return commentMatch.find() ? line.substring(0, commentMatch.start())
+				: line;
 	}
 
 	/**
@@ -428,7 +487,7 @@ public class INIReader implements ITemplatedReader {
 	 */
 	@Override
 	public void setAssignmentPattern(String regex) {
-		assignmentPattern = regex;
+		assignmentPattern = Pattern.compile(regex);
 	}
 
 	/**
@@ -480,9 +539,29 @@ public class INIReader implements ITemplatedReader {
 	 */
 	@Override
 	public ArrayList<Entry> findAll(IFile file, String regex) {
-		System.err
-				.println("INIReader Message: The findAll method contains no implementation!");
-		return null;
+		// Make sure there's something to look in
+		if (file == null || !file.exists()) {
+			return null;
+		}
+
+		// Scan the file for matching lines
+		ArrayList<Entry> matchedEntries = new ArrayList<Entry>();
+		try {
+			for (String line : LineSearcher.findAll(file, regex)) {
+				Entry foundEntry = makeTemplateEntry(line, line,
+						new ArrayList<String>(), AllowedValueType.Undefined);
+				foundEntry.setDescription(regex);
+				matchedEntries.add(foundEntry);
+			}
+		} catch (CoreException e) {
+			logger.error(getClass().getName() + " Exception!", e);
+			return null;
+		} catch (IOException e) {
+			logger.error(getClass().getName() + " Exception!", e);
+			return null;
+		}
+
+		return matchedEntries;
 	}
 
 	/**
@@ -13,13 +13,14 @@
 package org.eclipse.ice.io.ips;
 
 import java.io.BufferedReader;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
@@ -30,6 +31,7 @@ import org.eclipse.ice.datastructures.form.Form;
 import org.eclipse.ice.datastructures.form.MasterDetailsComponent;
 import org.eclipse.ice.datastructures.form.TableComponent;
 import org.eclipse.ice.io.serializable.IReader;
+import org.eclipse.ice.io.serializable.LineSearcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +52,24 @@ public class IPSReader implements IReader {
 	private static final Logger logger = LoggerFactory
 			.getLogger(IPSReader.class);
 
+	/**
+	 * The pattern that matches the characters that are removed from section
+	 * headers and port entries to get the port name.
+	 */
+	private static final Pattern nonNamePattern = Pattern
+			.compile("[^a-zA-Z0-9_]");
+
+	/**
+	 * The pattern that separates the port names in the NAMES entry.
+	 */
+	private static final Pattern spacePattern = Pattern.compile(" ");
+
+	/**
+	 * The line that is returned after the last line of the file so that the
+	 * last line of the file is read in correctly.
+	 */
+	private static final String EOF = "EOF";
+
 	/**
 	 * <p>
 	 * Keeps track of the current ID for entries. Since we don't know how many
@@ -101,20 +121,37 @@ public class IPSReader implements IReader {
 		}
 		Form form = new Form();
 
-		// Read in the ini file to an ArrayList<String>
-		ArrayList<String> lines = null;
+		// Open an iterator that streams the lines of the file to the loading
+		// methods
+		LineIterator iniIterator = null;
 		try {
-			lines = readFileLines(ifile);
-		} catch (FileNotFoundException e) {
+			iniIterator = new LineIterator(ifile);
+		} catch (CoreException e) {
 			logger.info("IPSReader Message: Error!  Could not find file for loading.");
 			return null;
-		} catch (IOException e) {
-			logger.info("IPSReader Message: Error!  Trouble reading file.");
-			return null;
 		}
 
-		// Get an iterator over the input to pass to the loading methods
-		Iterator<String> iniIterator = lines.iterator();
+		try {
+			form = loadForm(form, iniIterator);
+		} finally {
+			iniIterator.close();
+		}
+
+		// Return the form
+		return form;
+	}
+
+	/**
+	 * This operation parses the lines of the file into the form in a single
+	 * pass.
+	 * 
+	 * @param form
+	 *            The form to fill
+	 * @param iniIterator
+	 *            The iterator over the lines of the file
+	 * @return the form with the imported data
+	 */
+	private Form loadForm(Form form, Iterator<String> iniIterator) {
 
 		// Read in the global configuration and ports data
 		TableComponent globalConfiguration = loadGlobalConfiguration(iniIterator);
@@ -174,13 +211,13 @@ public class IPSReader implements IReader {
 			return null;
 		}
 
-		// Read in the ini file and create the iterator
+		// Scan the file for matching lines
 		Entry foundEntry;
 		ArrayList<Entry> matchedEntries = new ArrayList<Entry>();
 		ArrayList<String> lines = null;
 		try {
-			lines = readFileLines(ifile);
-		} catch (FileNotFoundException e) {
+			lines = LineSearcher.findAll(ifile, regex);
+		} catch (CoreException e) {
 			logger.info("IPSReader Message: "
 							+ "Error!  Could not find file for loading.");
 			return null;
@@ -190,15 +227,13 @@ public class IPSReader implements IReader {
 			return null;
 		}
 
-		// Go through each line and look for matches
+		// Create an entry for each match
 		for (String line : lines) {
-			if (line.matches(regex)) {
-				foundEntry = makeIPSEntry();
-				foundEntry.setName(line);
-				foundEntry.setDescription(regex);
-				foundEntry.setValue(line);
-				matchedEntries.add(foundEntry);
-			}
+			foundEntry = makeIPSEntry();
+			foundEntry.setName(line);
+			foundEntry.setDescription(regex);
+			foundEntry.setValue(line);
+			matchedEntries.add(foundEntry);
 		}
 
 		return matchedEntries;
@@ -217,49 +252,122 @@ public class IPSReader implements IReader {
 	}
 
 	/**
-	 * Read the INI file lines into entries of an ArrayList so that it is easy
-	 * to parse the sections into ICE.
+	 * This operation removes the comment, if any, from a line.
 	 * 
-	 * @param iniFile
-	 *            The INI file to be read in.
-	 * @return An ArrayList of strings of the lines of the INI file.
-	 * @throws FileNotFoundException
-	 *             Thrown when the INI file cannot be found.
-	 * @throws IOException
-	 *             Thrown when the INI file cannot be read or closed.
+	 * @param line
+	 *            The line
+	 * @return Everything in the line before the first #
 	 */
-	private ArrayList<String> readFileLines(IFile ifile)
-			throws FileNotFoundException, IOException {
+	private static String stripComment(String line) {
+		int index = line.indexOf('#');
+		return (index < 0) ? line : line.substring(0, index);
+	}
 
-		// Read in the ini file and create the iterator
-		BufferedReader reader = null;
-		try {
+	/**
+	 * LineIterator streams the lines of an IFile one at a time so that the
+	 * file never has to be held in memory. A dummy EOF line is returned after
+	 * the last line of the file so that the last line of the file is read in
+	 * correctly by the loading methods.
+	 * 
+	 * @author Andrew Bennett
+	 */
+	private static class LineIterator implements Iterator<String> {
+
+		/**
+		 * The reader for the file. It is null once it has been closed.
+		 */
+		private BufferedReader reader;
+
+		/**
+		 * The next line that will be returned, or null if there are no more
+		 * lines.
+		 */
+		private String nextLine;
+
+		/**
+		 * The constructor. It opens the file.
+		 * 
+		 * @param ifile
+		 *            The file to read
+		 * @throws CoreException
+		 *             Thrown when the file cannot be opened.
+		 */
+		public LineIterator(IFile ifile) throws CoreException {
 			reader = new BufferedReader(new InputStreamReader(
 					ifile.getContents()));
-		} catch (CoreException e) {
-			// TODO Auto-generated catch block
-			logger.error(getClass().getName() + " Exception!",e);
+			nextLine = readLine();
 		}
 
-		// Read the FileInputStream and append to a StringBuffer
-		StringBuffer buffer = new StringBuffer();
-		int fileByte;
-		while ((fileByte = reader.read()) != -1) {
-			buffer.append((char) fileByte);
+		/**
+		 * This operation reads the next line from the file, returning the EOF
+		 * line after the last line and null after that.
+		 * 
+		 * @return The next line
+		 */
+		private String readLine() {
+			String result = null;
+			if (reader != null) {
+				try {
+					result = reader.readLine();
+				} catch (IOException e) {
+					logger.info("IPSReader Message: Error!  Trouble reading file.");
+				}
+				if (result == null) {
+					close();
+					result = EOF;
+				}
+			}
+			return result;
 		}
-		reader.close();
 
-		// Break up the StringBuffer at each newline character
-		String[] bufferSplit = (buffer.toString()).split("\n");
-		ArrayList<String> fileLines = new ArrayList<String>(
-				Arrays.asList(bufferSplit));
+		/**
+		 * This operation closes the file.
+		 */
+		public void close() {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (IOException e) {
+					logger.error(getClass().getName() + " Exception!", e);
+				}
+				reader = null;
+			}
+		}
 
-		// Add a dummy EOF line so that the last line of the file is
-		// read in correctly
-		fileLines.add("EOF");
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			return nextLine != null;
+		}
 
-		// Return the ArrayList
-		return fileLines;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public String next() {
+			if (nextLine == null) {
+				throw new NoSuchElementException();
+			}
+			String current = nextLine;
+			nextLine = readLine();
+			return current;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Iterator#remove()
+		 */
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
 	}
 
 	/**
@@ -279,8 +387,7 @@ public class IPSReader implements IReader {
 				+ "IPS framework INI input file.");
 		globalConfiguration.setId(currID);
 		currID++;
-		Entry entry;
-		String[] splitLine = null;
+		int splitIndex;
 
 		// Build the template for the ports table
 		ArrayList<Entry> entries = new ArrayList<Entry>();
@@ -299,22 +406,21 @@ public class IPSReader implements IReader {
 
 			// The format in this section is: KEY = VALUE # Comment
 			// First check if the line contains a parameter
-			if (line.contains("=")) {
+			if (line.indexOf('=') >= 0) {
 
 				// If the line has a comment split on it and disregard it
-				if (line.contains("#")) {
-					line = line.split("#", 2)[0];
-				}
-
-				// Get the content for the entry
-				splitLine = line.split("=", 2);
+				line = stripComment(line);
+				splitIndex = line.indexOf('=');
+			} else {
+				splitIndex = -1;
+			}
 
-				// Set up the data in the table
-				ArrayList<Entry> row = new ArrayList<Entry>();
+			// Set up the data in the table if there is still an assignment
+			if (splitIndex >= 0) {
 				int rowID = globalConfiguration.addRow();
-				row = globalConfiguration.getRow(rowID);
-				row.get(0).setValue(splitLine[0]);
-				row.get(1).setValue(splitLine[1]);
+				ArrayList<Entry> row = globalConfiguration.getRow(rowID);
+				row.get(0).setValue(line.substring(0, splitIndex));
+				row.get(1).setValue(line.substring(splitIndex + 1));
 			}
 
 			// Read in another line
@@ -397,8 +503,19 @@ public class IPSReader implements IReader {
 		// Get the names specified in the NAMES entry by splitting on the =
 		// sign and then keeping everything after, which we then split on each
 		// space, and turn that into an ArrayList for easier searching later
-		ArrayList<String> portNames = new ArrayList<String>(Arrays.asList(line
-				.split(" = ")[1].split(" ")));
+		int namesIndex = line.indexOf(" = ");
+		if (namesIndex < 0) {
+			System.err.println("IPS Reader Message: The NAMES entry of the "
+					+ "ports table is not an assignment.  "
+					+ "Please check your input file and try again.");
+			return null;
+		}
+		String namesValue = line.substring(namesIndex + 3);
+		if (namesValue.indexOf(" = ") >= 0) {
+			namesValue = namesValue.substring(0, namesValue.indexOf(" = "));
+		}
+		ArrayList<String> portNames = new ArrayList<String>(
+				Arrays.asList(spacePattern.split(namesValue)));
 
 		// Go through the rest of the ports table and add the entries as we
 		// find them, while making sure that we find all of them.
@@ -408,29 +525,25 @@ public class IPSReader implements IReader {
 			if (line.contains("[[") && line.contains("]]")) {
 
 				// Take care of comments
-				if (line.contains("#")) {
-					line = line.split("#", 2)[0];
-				}
+				line = stripComment(line);
 
 				// Get the port name of the entry & make sure that it is in
 				// the list of portNames.
 				int rowID = portsTable.addRow();
 				ArrayList<Entry> row = portsTable.getRow(rowID);
 
-				String portName = line.replaceAll("[^a-zA-Z0-9_]", "");
+				String portName = nonNamePattern.matcher(line).replaceAll("");
 				if (portNames.contains(portName)) {
 					// Set the details for the entry
 					row.get(0).setValue(portName);
 
 					// The next line should give details of the implementation
-					line = it.next();
-					if (line.contains("#")) {
-						line = line.split("#", 2)[0];
-					}
+					line = stripComment(it.next());
 
 					// See if the information we are looking for is there
-					if (line.contains("IMPLEMENTATION = ")) {
-						String implementation = line.split(" = ", 2)[1];
+					int valueIndex = line.indexOf(" = ");
+					if (line.contains("IMPLEMENTATION = ") && valueIndex >= 0) {
+						String implementation = line.substring(valueIndex + 3);
 						row.get(1).setValue(implementation);
 					} else {
 						System.err
@@ -472,7 +585,7 @@ public class IPSReader implements IReader {
 		// Create the port component and a generic entry
 		DataComponent portComponent = new DataComponent();
 		Entry entry;
-		String[] splitLine = null;
+		int splitIndex;
 
 		// Scan until we get to the next port component
 		while (!line.contains("[") && !line.contains("]") && it.hasNext()) {
@@ -480,7 +593,7 @@ public class IPSReader implements IReader {
 		}
 
 		// Pull the port name and start parsing through the parameters
-		String portName = line.replaceAll("[^a-zA-Z0-9_]", "");
+		String portName = nonNamePattern.matcher(line).replaceAll("");
 		portComponent.setName(portName);
 		portComponent.setDescription("A port in an IPS file.");
 		portComponent.setId(currID);
@@ -495,27 +608,20 @@ public class IPSReader implements IReader {
 		while (!foundNextPort) {
 			// The format in this section is: KEY = VALUE # Comment
 			// First check if the line contains a parameter
-			if (line.contains("=")) {
-
-				// Get the content for the entry
-				splitLine = line.split("=", 2);
+			splitIndex = line.indexOf('=');
+			if (splitIndex >= 0) {
 
 				// Set up the entry
 				entry = makeIPSEntry();
-				entry.setName(splitLine[0]);
-				entry.setValue(splitLine[1]);
+				entry.setName(line.substring(0, splitIndex));
+				entry.setValue(line.substring(splitIndex + 1));
 				entry.setId(currID);
 				currID++;
 				portComponent.addEntry(entry);
 			}
 
-			// Read in another line
-			line = it.next();
-
-			// If the line has a comment split on it and disregard it
-			if (line.contains("#")) {
-				line = line.split("#", 2)[0];
-			}
+			// Read in another line and disregard any comment
+			line = stripComment(it.next());
 
 			// Check if we are at a new port section
 			if (line.trim().startsWith("[") && line.trim().endsWith("]")) {
@@ -612,7 +718,7 @@ public class IPSReader implements IReader {
 		// Create the port component and a generic entry
 		DataComponent timeLoopData = new DataComponent();
 		Entry entry;
-		String[] splitLine = null;
+		int splitIndex;
 
 		// Scan until we get to the next port component
 		if (!it.hasNext()) {
@@ -632,20 +738,15 @@ public class IPSReader implements IReader {
 		while (it.hasNext()) {
 			// The format in this section is: KEY = VALUE # Comment
 			// First check if the line contains a parameter
-			if (line.contains("=")) {
-
-				// If the line has a comment split on it and disregard it
-				if (line.contains("#")) {
-					line = line.split("#", 2)[0];
-				}
-
-				// Get the content for the entry
-				splitLine = line.split("=", 2);
+			// If the line has a comment disregard it
+			line = stripComment(line);
+			splitIndex = line.indexOf('=');
+			if (splitIndex >= 0) {
 
 				// Set up the entry
 				entry = makeIPSEntry();
-				entry.setName(splitLine[0]);
-				entry.setValue(splitLine[1]);
+				entry.setName(line.substring(0, splitIndex));
+				entry.setValue(line.substring(splitIndex + 1));
 				entry.setId(currID);
 				currID++;
 				timeLoopData.addEntry(entry);
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.io.serializable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * LineSearcher provides a fast implementation of the search required by
+ * {@link IReader#findAll(IFile, String)} for line-based text formats. The file
+ * is read in fixed size blocks of bytes that are scanned for line feeds, each
+ * line is decoded into a reusable character buffer and matched in place and
+ * the regular expression is compiled once. Only the lines that match are ever
+ * copied into Strings and no more than one block and one line of the file are
+ * held in memory at a time.
+ *
+ * Files are decoded with the default character set, which must encode the
+ * line feed as the single byte '\n' like ASCII, UTF-8 and ISO-8859-1 do.
+ *
+ * @author Jay Jay Billings
+ */
+public class LineSearcher {
+
+	/**
+	 * The size of the blocks in which the file is read.
+	 */
+	private static final int BLOCK_SIZE = 64 * 1024;
+
+	/**
+	 * This operation returns every line of the file that matches the regular
+	 * expression in its entirety, as in {@link String#matches(String)}. Line
+	 * terminators are not part of the lines.
+	 *
+	 * @param file
+	 *            The file to search
+	 * @param regex
+	 *            The regular expression that lines must match
+	 * @return The matching lines in the order they appear in the file
+	 * @throws CoreException
+	 *             Thrown when the contents of the file cannot be opened.
+	 * @throws IOException
+	 *             Thrown when the file cannot be read.
+	 */
+	public static ArrayList<String> findAll(IFile file, String regex)
+			throws CoreException, IOException {
+
+		// Local Declarations
+		ArrayList<String> matches = new ArrayList<String>();
+		Matcher matcher = Pattern.compile(regex).matcher("");
+		CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+		CharBuffer line = CharBuffer.allocate(256);
+		InputStream stream = file.getContents();
+
+		try {
+			ReadableByteChannel channel = Channels.newChannel(stream);
+			boolean endOfFile = false;
+			while (!endOfFile) {
+				// Fill the block after the partial line left from the last one
+				endOfFile = channel.read(block) < 0;
+				block.flip();
+				// Match every complete line in the block. The last line of
+				// the file does not need a line feed.
+				int start = 0;
+				int limit = block.limit();
+				for (int i = 0; i < limit; i++) {
+					if (block.get(i) == '\n') {
+						line = match(block, start, i, decoder, line, matcher,
+								matches);
+						start = i + 1;
+					}
+				}
+				if (endOfFile && start < limit) {
+					line = match(block, start, limit, decoder, line, matcher,
+							matches);
+					start = limit;
+				}
+				// Move the partial line to the front of the block, growing the
+				// block if the line fills it
+				block.position(start);
+				if (start == 0 && limit == block.capacity()) {
+					ByteBuffer larger = ByteBuffer.allocate(2 * block
+							.capacity());
+					larger.put(block);
+					block = larger;
+				} else {
+					block.compact();
+				}
+			}
+		} finally {
+			stream.close();
+		}
+
+		return matches;
+	}
+
+	/**
+	 * This operation decodes one line of the block and adds it to the matches
+	 * if it matches the regular expression.
+	 *
+	 * @param block
+	 *            The block that contains the line
+	 * @param start
+	 *            The index of the first byte of the line in the block
+	 * @param end
+	 *            The index after the last byte of the line, which is the line
+	 *            feed or the end of the file
+	 * @param decoder
+	 *            The decoder for the default character set
+	 * @param line
+	 *            The buffer into which the line is decoded
+	 * @param matcher
+	 *            The matcher for the regular expression
+	 * @param matches
+	 *            The list of matching lines
+	 * @return The buffer into which the line was decoded, which is a new,
+	 *         larger buffer if the line did not fit into the one that was
+	 *         given
+	 */
+	private static CharBuffer match(ByteBuffer block, int start, int end,
+			CharsetDecoder decoder, CharBuffer line, Matcher matcher,
+			ArrayList<String> matches) {
+
+		// Drop the carriage return of Windows line endings
+		if (end > start && block.get(end - 1) == '\r') {
+			end--;
+		}
+
+		// Decode the line, growing the buffer if it is too small
+		ByteBuffer bytes = block.duplicate();
+		bytes.limit(end).position(start);
+		int maxChars = (int) Math.ceil((end - start)
+				* decoder.maxCharsPerByte());
+		if (maxChars > line.capacity()) {
+			line = CharBuffer.allocate(Math.max(maxChars, 2 * line.capacity()));
+		}
+		line.clear();
+		decoder.reset();
+		decoder.decode(bytes, line, true);
+		decoder.flush(line);
+		line.flip();
+
+		// Match it in place
+		if (matcher.reset(line).matches()) {
+			matches.add(line.toString());
+		}
+
+		return line;
+	}
+}
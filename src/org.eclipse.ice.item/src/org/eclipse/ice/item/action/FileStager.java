@@ -0,0 +1,736 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.item.action;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.net.URI;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * The FileStager incrementally copies local files into a staging directory
+ * that may be on any {@link IFileStore}, such as the SSH file system of a
+ * remote host or the local EFS file system. The staging directory keeps a
+ * manifest of the SHA-256 hash and length of every file staged into it, as
+ * well as the modification time of the staged copy, so a file is only
+ * transferred again if its contents changed or if the staged copy was changed
+ * by someone else. This means that re-running a job with a large mesh only
+ * transfers the mesh once per host.
+ * </p>
+ * <p>
+ * Clients that share a staging directory between jobs that run at different
+ * times should stage each file under the name returned by
+ * {@link #getStagedName(String, File)}. It includes the hash of the contents,
+ * so staging a changed file never replaces the copy that an earlier job,
+ * which may still be waiting in a queue, is going to read. Staged files that
+ * a later call to {@link #stage(Map)} does not reference are removed once
+ * they have not been used for the retention time, which is a week by default,
+ * so the staging directory does not grow with every edited input.
+ * </p>
+ * <p>
+ * Calls to {@link #stage(Map)} that use the same staging directory are
+ * serialized, even if they are made by different FileStagers, so that
+ * concurrent launches do not overwrite each other's manifest updates.
+ * </p>
+ * <p>
+ * Files that need to be transferred are copied in parallel streams. Each one
+ * is first written to a ".part" file and is only moved to its final name once
+ * it is complete. The manifest records which file is being written to each
+ * ".part" file, so an interrupted transfer of the same contents is resumed by
+ * appending the missing bytes instead of starting over.
+ * </p>
+ * <p>
+ * Hashes of local files are cached by path, length and modification time for
+ * the life of the workbench so that unchanged inputs are not re-read on every
+ * launch. Only the hash of the latest contents of a path is kept, and only for
+ * the most recently hashed paths.
+ * </p>
+ *
+ * @author Jay Jay Billings
+ */
+public class FileStager {
+
+	/**
+	 * The name of the manifest file in the staging directory.
+	 */
+	public static final String MANIFEST_NAME = ".iceStagingManifest";
+
+	/**
+	 * The suffix of files that are still being transferred.
+	 */
+	public static final String PART_SUFFIX = ".part";
+
+	/**
+	 * The default number of parallel transfer streams.
+	 */
+	public static final int DEFAULT_STREAMS = 4;
+
+	/**
+	 * The default time in milliseconds for which a staged file that is no
+	 * longer referenced is kept.
+	 */
+	public static final long DEFAULT_RETENTION_TIME = 7L * 24L * 60L * 60L
+			* 1000L;
+
+	/**
+	 * The prefix of manifest keys that describe complete files.
+	 */
+	private static final String FILE_KEY = "file:";
+
+	/**
+	 * The prefix of manifest keys that describe partially transferred files.
+	 */
+	private static final String PART_KEY = "part:";
+
+	/**
+	 * The prefix of manifest keys that record when a file was last staged or
+	 * found to be staged already.
+	 */
+	private static final String USED_KEY = "used:";
+
+	/**
+	 * The maximum number of local files whose hashes are cached.
+	 */
+	private static final int MAX_CACHED_HASHES = 1024;
+
+	/**
+	 * The size of the buffer used to copy files.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The cache of local file hashes. The key is the path of the file and the
+	 * value is its length, modification time and hash. The least recently used
+	 * paths are removed once there are more than {@link #MAX_CACHED_HASHES}.
+	 */
+	private static final Map<String, String> hashCache = Collections
+			.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<String, String> eldest) {
+					return size() > MAX_CACHED_HASHES;
+				}
+			});
+
+	/**
+	 * The locks of the staging directories, keyed on their URIs. Staging into
+	 * a directory holds its lock.
+	 */
+	private static final ConcurrentHashMap<URI, Object> directoryLocks = new ConcurrentHashMap<URI, Object>();
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private final Logger logger;
+
+	/**
+	 * The directory into which files are staged.
+	 */
+	private final IFileStore stagingDirectory;
+
+	/**
+	 * The number of parallel transfer streams.
+	 */
+	private final int numStreams;
+
+	/**
+	 * The manifest of the staging directory.
+	 */
+	private final Properties manifest;
+
+	/**
+	 * True if the staging should stop as soon as possible.
+	 */
+	private final AtomicBoolean cancelled;
+
+	/**
+	 * The number of bytes sent during the last call to stage().
+	 */
+	private final AtomicLong bytesTransferred;
+
+	/**
+	 * The number of files that were skipped during the last call to stage()
+	 * because they were already staged.
+	 */
+	private int skippedFiles;
+
+	/**
+	 * The time in milliseconds for which a staged file that is no longer
+	 * referenced is kept.
+	 */
+	private long retentionTime;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param stagingDirectory
+	 *            The directory into which files should be staged. It is
+	 *            created if it does not exist.
+	 * @param numStreams
+	 *            The number of files that may be transferred at the same time.
+	 */
+	public FileStager(IFileStore stagingDirectory, int numStreams) {
+		logger = LoggerFactory.getLogger(getClass());
+		this.stagingDirectory = stagingDirectory;
+		this.numStreams = Math.max(1, numStreams);
+		manifest = new Properties();
+		cancelled = new AtomicBoolean(false);
+		bytesTransferred = new AtomicLong();
+		retentionTime = DEFAULT_RETENTION_TIME;
+	}
+
+	/**
+	 * This operation stages the files into the staging directory. Files whose
+	 * contents are already in the staging directory under the same name are
+	 * not transferred. Once all of the files are staged, the staged files that
+	 * are not in the map and have not been used for the retention time are
+	 * removed.
+	 *
+	 * @param files
+	 *            The files to stage. The key is the name of the file in the
+	 *            staging directory and the value is the local file.
+	 * @return The names of the files that were transferred.
+	 * @throws CoreException
+	 *             if the staging directory or manifest can not be accessed,
+	 *             if a transfer fails or if the staging was cancelled.
+	 */
+	public List<String> stage(Map<String, File> files) throws CoreException {
+
+		// Local Declarations
+		List<String> transferred;
+
+		// Only one launch may stage into the directory at a time. The
+		// manifest is loaded while holding the lock, so every launch sees the
+		// updates of the previous one.
+		URI uri = stagingDirectory.toURI();
+		directoryLocks.putIfAbsent(uri, new Object());
+		synchronized (directoryLocks.get(uri)) {
+			transferred = stageFiles(files);
+			pruneManifest(files.keySet());
+		}
+
+		return transferred;
+	}
+
+	/**
+	 * This operation stages the files into the staging directory. It must be
+	 * called while holding the lock of the staging directory.
+	 *
+	 * @param files
+	 *            The files to stage.
+	 * @return The names of the files that were transferred.
+	 * @throws CoreException
+	 *             if the staging fails.
+	 */
+	private List<String> stageFiles(Map<String, File> files)
+			throws CoreException {
+
+		// Local Declarations
+		final List<String> transferred = new ArrayList<String>();
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		ExecutorService executor = null;
+
+		// Reset the counters
+		bytesTransferred.set(0);
+		skippedFiles = 0;
+
+		// Create the directory and load the manifest
+		stagingDirectory.mkdir(EFS.NONE, null);
+		loadManifest();
+
+		// Decide which files need to be transferred
+		executor = Executors.newFixedThreadPool(Math.min(numStreams,
+				Math.max(1, files.size())));
+		try {
+			for (final String name : files.keySet()) {
+				final File localFile = files.get(name);
+				final String hash = computeHash(localFile);
+				if (isStaged(name, hash, localFile.length())) {
+					skippedFiles++;
+					logger.info("FileStager Message: " + name
+							+ " is already staged.");
+					continue;
+				}
+				results.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						transfer(name, localFile, hash);
+						return name;
+					}
+				}));
+			}
+
+			// Wait for the transfers to finish
+			for (Future<String> result : results) {
+				transferred.add(result.get());
+			}
+		} catch (ExecutionException e) {
+			cancelled.set(true);
+			Throwable cause = e.getCause();
+			if (cause instanceof CoreException) {
+				throw (CoreException) cause;
+			}
+			throw new CoreException(createErrorStatus("Unable to stage file.",
+					cause));
+		} catch (InterruptedException e) {
+			cancelled.set(true);
+			throw new CoreException(createErrorStatus(
+					"Staging was interrupted.", e));
+		} finally {
+			executor.shutdown();
+		}
+
+		return transferred;
+	}
+
+	/**
+	 * This operation stops any transfers that are in progress. Their partial
+	 * files are kept so that they can be resumed later.
+	 */
+	public void cancel() {
+		cancelled.set(true);
+	}
+
+	/**
+	 * This operation returns the number of bytes that were sent during the
+	 * last call to stage().
+	 *
+	 * @return The number of bytes.
+	 */
+	public long getBytesTransferred() {
+		return bytesTransferred.get();
+	}
+
+	/**
+	 * This operation returns the number of files that were not transferred
+	 * during the last call to stage() because they were already staged.
+	 *
+	 * @return The number of skipped files.
+	 */
+	public int getSkippedFileCount() {
+		return skippedFiles;
+	}
+
+	/**
+	 * This operation sets the time for which a staged file that is no longer
+	 * referenced by a call to stage() is kept before it is removed.
+	 *
+	 * @param retentionTime
+	 *            The time in milliseconds. Unreferenced files are removed by
+	 *            the next call to stage() if it is zero.
+	 */
+	public void setRetentionTime(long retentionTime) {
+		this.retentionTime = Math.max(0L, retentionTime);
+	}
+
+	/**
+	 * This operation returns the directory into which files are staged.
+	 *
+	 * @return The staging directory.
+	 */
+	public IFileStore getStagingDirectory() {
+		return stagingDirectory;
+	}
+
+	/**
+	 * This operation returns the name under which a file should be staged so
+	 * that different contents are always staged under different names. It is
+	 * the name prefixed by the first 16 characters of the hash of the file.
+	 *
+	 * @param name
+	 *            The name of the file.
+	 * @param file
+	 *            The local file.
+	 * @return The name in the staging directory.
+	 * @throws CoreException
+	 *             if the file can not be read.
+	 */
+	public static String getStagedName(String name, File file)
+			throws CoreException {
+		return computeHash(file).substring(0, 16) + "_" + name;
+	}
+
+	/**
+	 * This operation returns the SHA-256 hash of a local file as a hex string.
+	 * The hash is cached using the path, length and modification time of the
+	 * file.
+	 *
+	 * @param file
+	 *            The file.
+	 * @return The hash.
+	 * @throws CoreException
+	 *             if the file can not be read.
+	 */
+	public static String computeHash(File file) throws CoreException {
+
+		// Check the cache first
+		String path = file.getAbsolutePath();
+		String version = file.length() + ":" + file.lastModified() + ":";
+		String cached = hashCache.get(path);
+		if (cached != null && cached.startsWith(version)) {
+			return cached.substring(version.length());
+		}
+		String hash;
+
+		// Digest the file
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[BUFFER_SIZE];
+			InputStream stream = new FileInputStream(file);
+			try {
+				int count;
+				while ((count = stream.read(buffer)) > 0) {
+					digest.update(buffer, 0, count);
+				}
+			} finally {
+				stream.close();
+			}
+			StringBuilder builder = new StringBuilder();
+			for (byte b : digest.digest()) {
+				builder.append(String.format("%02x", b));
+			}
+			hash = builder.toString();
+		} catch (IOException | NoSuchAlgorithmException e) {
+			throw new CoreException(createErrorStatus("Unable to hash "
+					+ file.getAbsolutePath(), e));
+		}
+		hashCache.put(path, version + hash);
+
+		return hash;
+	}
+
+	/**
+	 * This operation checks the manifest and the staging directory to see if
+	 * a file with the given hash is already staged under the given name. The
+	 * staged copy must still have the length and modification time that were
+	 * recorded when it was staged.
+	 *
+	 * @param name
+	 *            The name of the file in the staging directory.
+	 * @param hash
+	 *            The hash of the local file.
+	 * @param length
+	 *            The length of the local file.
+	 * @return True if it is staged, false otherwise.
+	 */
+	private boolean isStaged(String name, String hash, long length) {
+		String entry = manifest.getProperty(FILE_KEY + name);
+		String prefix = hash + "," + length + ",";
+		if (entry != null && entry.startsWith(prefix)) {
+			// Make sure nobody removed or changed the staged file
+			IFileInfo info = stagingDirectory.getChild(name).fetchInfo();
+			return info.exists()
+					&& info.getLength() == length
+					&& entry.substring(prefix.length()).equals(
+							String.valueOf(info.getLastModified()));
+		}
+		return false;
+	}
+
+	/**
+	 * This operation transfers a file into the staging directory, resuming a
+	 * previous transfer of the same contents if possible.
+	 *
+	 * @param name
+	 *            The name of the file in the staging directory.
+	 * @param localFile
+	 *            The local file.
+	 * @param hash
+	 *            The hash of the local file.
+	 * @throws CoreException
+	 *             if the transfer fails or is cancelled.
+	 */
+	private void transfer(String name, File localFile, String hash)
+			throws CoreException {
+
+		// Local Declarations
+		IFileStore partStore = stagingDirectory.getChild(name + PART_SUFFIX);
+		long offset = 0;
+
+		// Resume if the partial file is for the same contents
+		if (hash.equals(getManifestEntry(PART_KEY + name))) {
+			IFileInfo partInfo = partStore.fetchInfo();
+			if (partInfo.exists() && partInfo.getLength() <= localFile.length()) {
+				offset = partInfo.getLength();
+			}
+		} else {
+			putManifestEntry(FILE_KEY + name, null);
+			putManifestEntry(PART_KEY + name, hash);
+		}
+		logger.info("FileStager Message: Transferring " + name
+				+ (offset > 0 ? " from byte " + offset : "") + ".");
+
+		// Copy the remaining bytes
+		try {
+			InputStream input = new FileInputStream(localFile);
+			OutputStream output = null;
+			try {
+				skipFully(input, offset);
+				output = partStore.openOutputStream(offset > 0 ? EFS.APPEND
+						: EFS.NONE, null);
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int count;
+				while ((count = input.read(buffer)) > 0) {
+					if (cancelled.get()) {
+						throw new CoreException(createErrorStatus(
+								"Staging was cancelled.", null));
+					}
+					output.write(buffer, 0, count);
+					bytesTransferred.addAndGet(count);
+				}
+			} finally {
+				input.close();
+				if (output != null) {
+					output.close();
+				}
+			}
+		} catch (IOException e) {
+			throw new CoreException(createErrorStatus("Unable to transfer "
+					+ name, e));
+		}
+
+		// Move it into place and record it
+		IFileStore stagedStore = stagingDirectory.getChild(name);
+		partStore.move(stagedStore, EFS.OVERWRITE, null);
+		long lastModified = stagedStore.fetchInfo().getLastModified();
+		synchronized (manifest) {
+			manifest.remove(PART_KEY + name);
+			manifest.setProperty(FILE_KEY + name, hash + ","
+					+ localFile.length() + "," + lastModified);
+			saveManifest();
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation records that the staged files are in use and removes
+	 * the staged and partial files that are not referenced and have not been
+	 * used for the retention time. A file without a recorded use is treated as
+	 * if it was used now. Files that can not be removed are logged and kept in
+	 * the manifest so that they are removed later.
+	 *
+	 * @param names
+	 *            The names of the files that were just staged.
+	 * @throws CoreException
+	 *             if the manifest can not be saved.
+	 */
+	private void pruneManifest(Collection<String> names) throws CoreException {
+
+		// Local Declarations
+		long now = System.currentTimeMillis();
+		Set<String> unreferenced = new HashSet<String>();
+
+		synchronized (manifest) {
+			// Record the use of the staged files
+			for (String name : names) {
+				manifest.setProperty(USED_KEY + name, String.valueOf(now));
+			}
+
+			// Find the files that are not referenced
+			for (String key : manifest.stringPropertyNames()) {
+				String name = null;
+				if (key.startsWith(FILE_KEY)) {
+					name = key.substring(FILE_KEY.length());
+				} else if (key.startsWith(PART_KEY)) {
+					name = key.substring(PART_KEY.length());
+				} else if (key.startsWith(USED_KEY)) {
+					name = key.substring(USED_KEY.length());
+				}
+				if (name != null && !names.contains(name)) {
+					unreferenced.add(name);
+				}
+			}
+
+			// Remove the ones that have not been used recently
+			for (String name : unreferenced) {
+				long used = now;
+				try {
+					used = Long.parseLong(manifest.getProperty(USED_KEY
+							+ name, String.valueOf(now)));
+				} catch (NumberFormatException e) {
+					logger.error(getClass().getName() + " Exception!", e);
+				}
+				if (now - used < retentionTime) {
+					manifest.setProperty(USED_KEY + name, String.valueOf(used));
+					continue;
+				}
+				try {
+					stagingDirectory.getChild(name).delete(EFS.NONE, null);
+					stagingDirectory.getChild(name + PART_SUFFIX).delete(
+							EFS.NONE, null);
+					manifest.remove(FILE_KEY + name);
+					manifest.remove(PART_KEY + name);
+					manifest.remove(USED_KEY + name);
+					logger.info("FileStager Message: Removed " + name
+							+ " since it is no longer used.");
+				} catch (CoreException e) {
+					logger.error(getClass().getName() + " Exception!", e);
+				}
+			}
+
+			saveManifest();
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation skips the given number of bytes of the stream.
+	 *
+	 * @param stream
+	 *            The stream.
+	 * @param count
+	 *            The number of bytes to skip.
+	 * @throws IOException
+	 *             if the stream ends first.
+	 */
+	private void skipFully(InputStream stream, long count) throws IOException {
+		while (count > 0) {
+			long skipped = stream.skip(count);
+			if (skipped <= 0) {
+				throw new IOException("Unable to resume transfer.");
+			}
+			count -= skipped;
+		}
+	}
+
+	/**
+	 * This operation returns an entry from the manifest.
+	 *
+	 * @param key
+	 *            The key of the entry.
+	 * @return The value, or null if there is no entry.
+	 */
+	private String getManifestEntry(String key) {
+		synchronized (manifest) {
+			return manifest.getProperty(key);
+		}
+	}
+
+	/**
+	 * This operation sets or removes an entry in the manifest and saves it.
+	 *
+	 * @param key
+	 *            The key of the entry.
+	 * @param value
+	 *            The value, or null if the entry should be removed.
+	 * @throws CoreException
+	 *             if the manifest can not be saved.
+	 */
+	private void putManifestEntry(String key, String value)
+			throws CoreException {
+		synchronized (manifest) {
+			if (value == null) {
+				manifest.remove(key);
+			} else {
+				manifest.setProperty(key, value);
+			}
+			saveManifest();
+		}
+	}
+
+	/**
+	 * This operation loads the manifest from the staging directory. A missing
+	 * or unreadable manifest is treated as empty.
+	 */
+	private void loadManifest() {
+		synchronized (manifest) {
+			manifest.clear();
+			IFileStore manifestStore = stagingDirectory.getChild(MANIFEST_NAME);
+			if (manifestStore.fetchInfo().exists()) {
+				try {
+					InputStream stream = manifestStore.openInputStream(
+							EFS.NONE, null);
+					try {
+						manifest.load(stream);
+					} finally {
+						stream.close();
+					}
+				} catch (CoreException | IOException e) {
+					logger.error(getClass().getName() + " Exception!", e);
+					manifest.clear();
+				}
+			}
+		}
+	}
+
+	/**
+	 * This operation writes the manifest to the staging directory. It must be
+	 * called while holding the lock on the manifest.
+	 *
+	 * @throws CoreException
+	 *             if the manifest can not be written.
+	 */
+	private void saveManifest() throws CoreException {
+		try {
+			OutputStream stream = stagingDirectory.getChild(MANIFEST_NAME)
+					.openOutputStream(EFS.NONE, null);
+			try {
+				manifest.store(stream, "ICE staging manifest");
+			} finally {
+				stream.close();
+			}
+		} catch (IOException e) {
+			throw new CoreException(createErrorStatus(
+					"Unable to write the staging manifest.", e));
+		}
+	}
+
+	/**
+	 * This operation creates an error status for this bundle.
+	 *
+	 * @param message
+	 *            The message.
+	 * @param cause
+	 *            The cause, which may be null.
+	 * @return The status.
+	 */
+	private static IStatus createErrorStatus(String message, Throwable cause) {
+		return new Status(IStatus.ERROR, "org.eclipse.ice.item", 1, message,
+				cause);
+	}
+}
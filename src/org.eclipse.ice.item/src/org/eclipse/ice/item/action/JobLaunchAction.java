@@ -447,6 +447,28 @@ public class JobLaunchAction extends Action implements Runnable {
 	 */
 	private long maxFileSize;
 
+	/**
+	 * The name of the directory on remote machines where input files are
+	 * staged. It is a sibling of the working directories of the launches and
+	 * is reused by all of them, so input files that have not changed are not
+	 * uploaded again.
+	 */
+	private final String stagingDirectoryName = "iceStaging";
+
+	/**
+	 * The names of the input files of the current launch in the staging
+	 * directory, keyed by their names in the working directory. The staged
+	 * names include the hash of the contents, so a later launch with changed
+	 * inputs can not replace the files that a queued job will copy.
+	 */
+	private Hashtable<String, String> stagedNames;
+
+	/**
+	 * The stager used to upload input files to remote machines. It is null
+	 * until a remote launch uploads its input.
+	 */
+	private volatile FileStager stager;
+
 	private IRemoteConnection connection;
 
 	private IRemoteConnectionType connectionType;
@@ -459,6 +481,7 @@ public class JobLaunchAction extends Action implements Runnable {
 		// Setup the local flags
 		isLocal = new AtomicBoolean();
 		fileMap = new Hashtable<String, String>();
+		stagedNames = new Hashtable<String, String>();
 		cancelled = new AtomicBoolean(false);
 
 		// Get the maxFileSize from the system properties
@@ -1105,37 +1128,36 @@ public class JobLaunchAction extends Action implements Runnable {
 						+ "Created directory on remote system, "
 						+ directory.getName());
 
-				// Loop over all of the files in the file table and upload them
-				for (String shortInputName : fileMap.keySet()) {
+				// Upload the launch script directly since it changes for every
+				// launch
+				File launchFile = new File(fileMap.get(launchCMDFileName));
+				EFS.getLocalFileSystem().fromLocalFile(launchFile)
+						.copy(directory.getChild(launchCMDFileName),
+								EFS.NONE, null);
+				logger.info("JobLaunchAction Message: " + "Uploaded file "
+						+ launchCMDFileName);
 
-					// Check to see if the job should be cancelled.
-					if (cancelled.get()) {
-						break;
+				// Stage the input files if input file uploading is enabled.
+				// Only new or changed files are sent and the launch script
+				// copies them into the working directory.
+				if (uploadInput && !cancelled.get()) {
+					Hashtable<String, File> inputFiles = new Hashtable<String, File>();
+					for (String shortInputName : stagedNames.keySet()) {
+						inputFiles.put(stagedNames.get(shortInputName),
+								new File(fileMap.get(shortInputName)));
 					}
-
-					// If input file uploading is enabled, OR, if input file
-					// uploading is disabled BUT this is the launch script, then
-					// upload the file
-					if (uploadInput
-							|| (!uploadInput && shortInputName
-									.equals("launchJob.sh"))) {
-
-						// Get a handle where the input file will be stored
-						// remotely
-						IFileStore remoteFileStore = directory
-								.getChild(shortInputName);
-						// Get a file store handle to the local copy of the
-						// input
-						// file
-						File localFile = new File(fileMap.get(shortInputName));
-						IFileStore localFileStore = EFS.getLocalFileSystem()
-								.fromLocalFile(localFile);
-
-						// Copy the local file to the remote file
-						localFileStore.copy(remoteFileStore, EFS.NONE, null);
+					stager = new FileStager(
+							fileStore.getChild(stagingDirectoryName),
+							FileStager.DEFAULT_STREAMS);
+					for (String shortInputName : stager.stage(inputFiles)) {
 						logger.info("JobLaunchAction Message: "
 								+ "Uploaded file " + shortInputName);
 					}
+					logger.info("JobLaunchAction Message: Sent "
+							+ stager.getBytesTransferred()
+							+ " bytes, skipped "
+							+ stager.getSkippedFileCount()
+							+ " files that were already staged.");
 				}
 
 			} catch (CoreException e) {
@@ -1318,6 +1340,29 @@ public class JobLaunchAction extends Action implements Runnable {
 					.write("# End PBS directives and begin shell commands\n");
 		}
 
+		// Copy the staged input files of this launch into the working
+		// directory
+		stagedNames.clear();
+		if (uploadInput) {
+			for (String shortInputName : fileMap.keySet()) {
+				if (shortInputName.equals(shortName)) {
+					continue;
+				}
+				try {
+					stagedNames.put(shortInputName, FileStager.getStagedName(
+							shortInputName,
+							new File(fileMap.get(shortInputName))));
+				} catch (CoreException e) {
+					launchFileWriter.close();
+					throw new IOException("JobLaunchAction error: Unable to "
+							+ "stage " + shortInputName, e);
+				}
+				launchFileWriter.write("cp -p '../" + stagingDirectoryName
+						+ "/" + stagedNames.get(shortInputName) + "' '"
+						+ shortInputName + "'\n");
+			}
+		}
+
 		// Write each command into the file
 		for (String singleCMD : splitCMD) {
 			launchFileWriter.write(singleCMD + "\n");
@@ -1464,6 +1509,11 @@ public class JobLaunchAction extends Action implements Runnable {
 		// Throw the flag
 		cancelled.set(true);
 
+		// Stop any uploads
+		if (stager != null) {
+			stager.cancel();
+		}
+
 		// Stop local jobs
 		if (isLocal.get() && job != null) {
 			job.destroy();
@@ -1562,7 +1612,9 @@ public class JobLaunchAction extends Action implements Runnable {
 		// Set the appropriate working directory name
 		setWorkingDirectoryName();
 
-		// Set the command to execute.
+		// Forget the files of the previous launch and set the command to
+		// execute.
+		fileMap.clear();
 		fullCMD = fixExecutableName();
 
 		// Setup the output streams, stdout first
@@ -12,12 +12,8 @@
  *******************************************************************************/
 package org.eclipse.ice.item.jobLauncher;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -250,6 +246,14 @@ public class JobLauncher extends Item {
 	@XmlTransient()
 	private static IRemoteServicesManager remoteManager;
 
+	/**
+	 * The size in bytes at which the output file is rotated while the
+	 * stdout and stderr of the job are streamed into it. Subclasses for very
+	 * chatty codes may change it. Values less than or equal to zero disable
+	 * rotation.
+	 */
+	protected long maxOutputFileSize = OutputTailer.DEFAULT_MAX_SIZE;
+
 	/**
 	 * This is a utility class used to describe a type of file by the
 	 * JobLauncher.
@@ -1049,84 +1053,45 @@ public class JobLauncher extends Item {
 	// }
 
 	/**
-	 * This operations grabs the information from the stdout and stderr files
-	 * and puts it into the output file for JobLauncher that is consumed by
-	 * clients.
+	 * This operations forwards the information from the stdout and stderr
+	 * files into the output file for JobLauncher that is consumed by clients.
+	 * The files are tailed by the shared {@link OutputTailer}, so only newly
+	 * appended bytes are copied and no thread is dedicated to this launch.
 	 */
 	private void streamOutputData() {
 
-		// Create the thread
-		Thread streamingThread = new Thread(new Runnable() {
-			@Override
-			public void run() {
-				// Local Declarations
-				File stdout = new File(actionDataMap.get("stdOutFileName")), stderr = new File(
-						actionDataMap.get("stdErrFileName"));
-				FileWriter outputFileWriter = null;
-				BufferedWriter outputFileBufferedWriter = null;
-				FileReader stdoutReader = null, stderrReader = null;
-				BufferedReader stdoutBufferredReader = null, stderrBufferredReader = null;
-				String line = null;
+		// Local Declarations
+		ArrayList<File> sources = new ArrayList<File>();
+		sources.add(new File(actionDataMap.get("stdOutFileName")));
+		sources.add(new File(actionDataMap.get("stdErrFileName")));
 
-				try {
-					// Open the output file for writing
-					outputFileWriter = new FileWriter(outputFile);
-					outputFileBufferedWriter = new BufferedWriter(
-							outputFileWriter);
-					// Open the JobLauncherAction stdout file for reading
-					stdoutReader = new FileReader(stdout);
-					stdoutBufferredReader = new BufferedReader(stdoutReader);
-					// Open the JobLauncherAction stderr file
-					stderrReader = new FileReader(stderr);
-					stderrBufferredReader = new BufferedReader(stderrReader);
-					// Run until the launcher is done processing
-					while (status.equals(FormStatus.Processing)
-							|| status.equals(FormStatus.NeedsInfo)) {
-						// Read stdout into the output file
-						while ((line = stdoutBufferredReader.readLine()) != null) {
-							outputFileBufferedWriter.write(line);
-							outputFileBufferedWriter.write("\r\n");
-						}
-						// Read stderr into the output file
-						while ((line = stderrBufferredReader.readLine()) != null) {
-							outputFileBufferedWriter.write(line);
-							outputFileBufferedWriter.write("\r\n");
-						}
-						// Flush!
-						outputFileBufferedWriter.flush();
-						// Sleep for a bit
-						Thread.currentThread();
-						Thread.sleep(100);
-						status = action.getStatus();
-					}
-					// Close stdout
-					stdoutBufferredReader.close();
-					stdoutReader.close();
-					// Close stderr
-					stderrBufferredReader.close();
-					stderrReader.close();
-					// Close the output file
-					outputFileBufferedWriter.close();
-					outputFileWriter.close();
-					// Check the project space to see if new resources were
-					// downloaded that should be added to the ICEResource.
-					updateResourceComponent();
-				} catch (IOException e) {
-					// Complain and return
-					logger.error(getClass().getName() + " Exception!",e);
-					return;
-				} catch (InterruptedException e) {
-					// Complain and return
-					logger.error(getClass().getName() + " Exception!",e);
-					return;
-				}
+		// The listener updates the status from the action and refreshes the
+		// resources once the job is done.
+		OutputTailer.ITailListener listener = new OutputTailer.ITailListener() {
+			@Override
+			public boolean isFinished() {
+				status = action.getStatus();
+				return !(status.equals(FormStatus.Processing) || status
+						.equals(FormStatus.NeedsInfo));
+			}
 
+			@Override
+			public void tailClosed() {
+				// Check the project space to see if new resources were
+				// downloaded that should be added to the ICEResource.
+				updateResourceComponent();
 			}
-		});
+		};
 
-		// Start the thread
-		logger.info("JobLauncher Message: Starting output data stream.");
-		streamingThread.start();
+		// Start tailing
+		try {
+			logger.info("JobLauncher Message: Starting output data stream.");
+			OutputTailer.getDefault().start(sources, outputFile, listener,
+					maxOutputFileSize, OutputTailer.DEFAULT_MAX_BACKUPS);
+		} catch (IOException e) {
+			// Complain and return
+			logger.error(getClass().getName() + " Exception!", e);
+		}
 
 		return;
 	}
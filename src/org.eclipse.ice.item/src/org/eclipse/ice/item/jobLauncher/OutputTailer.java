@@ -0,0 +1,797 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.item.jobLauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * The OutputTailer forwards the bytes appended to one or more source files,
+ * such as the stdout and stderr files written by a JobLaunchAction, into a
+ * single destination file that is exposed to clients as an ICEResource. All
+ * tails are serviced by one daemon thread that waits on a {@link WatchService}
+ * for modifications in the source directories. Each source is tracked with a
+ * {@link FileChannel} position, so only newly appended bytes are copied and
+ * nothing is re-read or re-parsed.
+ * </p>
+ * <p>
+ * The destination of a tail is rotated once it grows past a maximum size. The
+ * current destination is renamed with a ".1" suffix (older copies are shifted
+ * to ".2", ".3", etc. up to the maximum number of backups) and a new, empty
+ * destination is started so that very chatty runs can not fill up the disk.
+ * </p>
+ * <p>
+ * Since some WatchService implementations only poll the file system, the
+ * tailer also checks every tail each time the wait for a watch event times
+ * out. This is also when the {@link ITailListener} of each tail is asked if
+ * the tail is finished.
+ * </p>
+ *
+ * @author Jay Jay Billings
+ */
+public class OutputTailer {
+
+	/**
+	 * The default maximum size, in bytes, of a destination file before it is
+	 * rotated.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 64L * 1024L * 1024L;
+
+	/**
+	 * The default number of rotated copies of a destination file that are
+	 * kept on disk.
+	 */
+	public static final int DEFAULT_MAX_BACKUPS = 1;
+
+	/**
+	 * The time, in milliseconds, that the tailing thread waits for a watch
+	 * event before it checks all of the tails anyway.
+	 */
+	private static final long POLL_INTERVAL = 250;
+
+	/**
+	 * The shared instance used by all JobLaunchers.
+	 */
+	private static OutputTailer defaultTailer;
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private final Logger logger;
+
+	/**
+	 * The watch service that is notified when a source file changes.
+	 */
+	private WatchService watchService;
+
+	/**
+	 * The thread that services all of the tails.
+	 */
+	private Thread tailingThread;
+
+	/**
+	 * The tails that are currently being serviced. This list is only modified
+	 * by the tailing thread and is synchronized on for reads from others.
+	 */
+	private final List<Tail> tails;
+
+	/**
+	 * The watch keys for the directories that contain the sources, keyed by
+	 * directory. This map is only accessed from the tailing thread.
+	 */
+	private final Map<Path, WatchKey> watchKeys;
+
+	/**
+	 * Tails that were started but are not yet being serviced by the tailing
+	 * thread.
+	 */
+	private final ConcurrentLinkedQueue<Tail> pendingTails;
+
+	/**
+	 * The listener interface for tails. It tells the OutputTailer when a tail
+	 * is finished and is notified after its destination is closed.
+	 */
+	public interface ITailListener {
+
+		/**
+		 * This operation is called periodically from the tailing thread to
+		 * check if the tail should be closed. Once it returns true, the
+		 * remaining bytes of the sources are copied and the tail is closed.
+		 *
+		 * @return True if the process producing the output is done, false
+		 *         otherwise.
+		 */
+		public boolean isFinished();
+
+		/**
+		 * This operation is called from the tailing thread after the last
+		 * bytes of the sources have been copied and the destination has been
+		 * closed.
+		 */
+		public void tailClosed();
+	}
+
+	/**
+	 * The constructor.
+	 */
+	public OutputTailer() {
+		logger = LoggerFactory.getLogger(getClass());
+		tails = new ArrayList<Tail>();
+		watchKeys = new HashMap<Path, WatchKey>();
+		pendingTails = new ConcurrentLinkedQueue<Tail>();
+	}
+
+	/**
+	 * This operation returns the OutputTailer that is shared by all job
+	 * launches in the workbench.
+	 *
+	 * @return The shared OutputTailer.
+	 */
+	public static synchronized OutputTailer getDefault() {
+		if (defaultTailer == null) {
+			defaultTailer = new OutputTailer();
+		}
+		return defaultTailer;
+	}
+
+	/**
+	 * This operation starts tailing the sources into the destination with the
+	 * default maximum size and number of backups.
+	 *
+	 * @param sources
+	 *            The files whose appended bytes should be forwarded. They do
+	 *            not need to exist yet.
+	 * @param destination
+	 *            The file to which the bytes should be written. It is
+	 *            truncated when the tail starts.
+	 * @param listener
+	 *            The listener that decides when the tail is finished. It may
+	 *            be null, in which case the tail runs until it is stopped.
+	 * @return The handle for the new tail.
+	 * @throws IOException
+	 *             if the destination can not be opened or the source
+	 *             directories can not be watched.
+	 */
+	public Tail start(List<File> sources, File destination,
+			ITailListener listener) throws IOException {
+		return start(sources, destination, listener, DEFAULT_MAX_SIZE,
+				DEFAULT_MAX_BACKUPS);
+	}
+
+	/**
+	 * This operation starts tailing the sources into the destination.
+	 *
+	 * @param sources
+	 *            The files whose appended bytes should be forwarded. They do
+	 *            not need to exist yet.
+	 * @param destination
+	 *            The file to which the bytes should be written. It is
+	 *            truncated when the tail starts.
+	 * @param listener
+	 *            The listener that decides when the tail is finished. It may
+	 *            be null, in which case the tail runs until it is stopped.
+	 * @param maxSize
+	 *            The size in bytes at which the destination is rotated. Values
+	 *            less than or equal to zero disable rotation.
+	 * @param maxBackups
+	 *            The number of rotated copies of the destination to keep.
+	 * @return The handle for the new tail.
+	 * @throws IOException
+	 *             if the destination can not be opened or the source
+	 *             directories can not be watched.
+	 */
+	public Tail start(List<File> sources, File destination,
+			ITailListener listener, long maxSize, int maxBackups)
+			throws IOException {
+
+		// Create the tail. This opens and truncates the destination.
+		Tail tail = new Tail(sources, destination, listener, maxSize,
+				Math.max(0, maxBackups));
+
+		// Hand it to the tailing thread, starting it if necessary
+		synchronized (this) {
+			if (watchService == null) {
+				watchService = FileSystems.getDefault().newWatchService();
+			}
+			pendingTails.add(tail);
+			if (tailingThread == null || !tailingThread.isAlive()) {
+				tailingThread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						serviceTails();
+					}
+				}, "ICE Output Tailer");
+				tailingThread.setDaemon(true);
+				tailingThread.start();
+			}
+		}
+
+		return tail;
+	}
+
+	/**
+	 * This operation stops every tail. The tailing thread copies the remaining
+	 * bytes, closes the tails and then exits, closing the watch service. It
+	 * may be called more than once and the tailer can be started again
+	 * afterwards.
+	 */
+	public void dispose() {
+		for (Tail tail : pendingTails) {
+			tail.stop();
+		}
+		for (Tail tail : getTailsSnapshot()) {
+			tail.stop();
+		}
+		return;
+	}
+
+	/**
+	 * This operation returns the number of tails that are currently active.
+	 *
+	 * @return The number of tails that have been started, but not closed.
+	 */
+	public int getActiveTailCount() {
+		int count = 0;
+		synchronized (this) {
+			count = pendingTails.size();
+		}
+		for (Tail tail : getTailsSnapshot()) {
+			if (!tail.isClosed()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * This operation returns a copy of the list of serviced tails.
+	 *
+	 * @return The copy.
+	 */
+	private List<Tail> getTailsSnapshot() {
+		synchronized (tails) {
+			return new ArrayList<Tail>(tails);
+		}
+	}
+
+	/**
+	 * This operation is the body of the tailing thread. It waits for watch
+	 * events, copies new bytes and closes finished tails until there are no
+	 * tails left, at which point the thread exits.
+	 */
+	private void serviceTails() {
+
+		WatchKey key = null;
+
+		while (true) {
+			// Pick up new tails and register their directories
+			Tail newTail = null;
+			while ((newTail = pendingTails.poll()) != null) {
+				synchronized (tails) {
+					tails.add(newTail);
+				}
+				for (Path dir : newTail.getDirectories()) {
+					registerDirectory(dir);
+				}
+			}
+
+			// Exit if there is nothing left to do. This is synchronized with
+			// start() so that a tail can not be added after the check and so
+			// that the next call to start() opens a new watch service.
+			synchronized (this) {
+				if (tails.isEmpty() && pendingTails.isEmpty()) {
+					closeWatchService();
+					tailingThread = null;
+					return;
+				}
+			}
+
+			// Wait for a change in one of the directories
+			try {
+				key = watchService.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+				// Close everything so that no tail or watch service is left
+				// open without a thread to service it.
+				synchronized (this) {
+					while ((newTail = pendingTails.poll()) != null) {
+						synchronized (tails) {
+							tails.add(newTail);
+						}
+					}
+					for (Tail tail : getTailsSnapshot()) {
+						closeTail(tail);
+					}
+					closeWatchService();
+					tailingThread = null;
+				}
+				return;
+			}
+			// Events are not inspected individually since every tail is
+			// checked below. This keeps the thread correct even if events
+			// overflow.
+			if (key != null) {
+				key.pollEvents();
+				key.reset();
+			}
+
+			// Copy any new bytes and close the finished tails
+			for (Tail tail : getTailsSnapshot()) {
+				boolean finished = tail.isStopRequested() || isFinished(tail);
+				tail.transfer();
+				if (finished) {
+					closeTail(tail);
+				}
+			}
+
+			// Stop watching directories that are no longer used
+			if (key != null || tails.isEmpty()) {
+				pruneDirectories();
+			}
+		}
+	}
+
+	/**
+	 * This operation asks the listener of a tail if the tail is finished. A
+	 * listener that throws an exception is treated as finished so that it can
+	 * not stop the tailing thread from servicing the other tails.
+	 *
+	 * @param tail
+	 *            The tail.
+	 * @return True if the tail should be closed, false otherwise.
+	 */
+	private boolean isFinished(Tail tail) {
+		boolean finished = false;
+		if (tail.listener != null) {
+			try {
+				finished = tail.listener.isFinished();
+			} catch (RuntimeException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+				finished = true;
+			}
+		}
+		return finished;
+	}
+
+	/**
+	 * This operation closes a tail, removes it from the serviced tails and
+	 * notifies its listener. Exceptions thrown by the listener are logged.
+	 *
+	 * @param tail
+	 *            The tail.
+	 */
+	private void closeTail(Tail tail) {
+		tail.close();
+		synchronized (tails) {
+			tails.remove(tail);
+		}
+		if (tail.listener != null) {
+			try {
+				tail.listener.tailClosed();
+			} catch (RuntimeException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+		return;
+	}
+
+	/**
+	 * This operation closes the watch service and forgets its watch keys. It
+	 * must be called while holding the lock on this tailer.
+	 */
+	private void closeWatchService() {
+		watchKeys.clear();
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+			watchService = null;
+		}
+		return;
+	}
+
+	/**
+	 * This operation starts watching the directory if it is not already
+	 * watched.
+	 *
+	 * @param dir
+	 *            The directory.
+	 */
+	private void registerDirectory(Path dir) {
+		if (!watchKeys.containsKey(dir) && Files.isDirectory(dir)) {
+			try {
+				watchKeys.put(dir, dir.register(watchService,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY));
+			} catch (IOException e) {
+				// The tail will still be serviced when the poll times out.
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+	}
+
+	/**
+	 * This operation cancels the watch keys of directories that are not used
+	 * by any active tail.
+	 */
+	private void pruneDirectories() {
+		List<Path> unused = new ArrayList<Path>(watchKeys.keySet());
+		for (Tail tail : getTailsSnapshot()) {
+			unused.removeAll(tail.getDirectories());
+		}
+		for (Path dir : unused) {
+			watchKeys.remove(dir).cancel();
+		}
+	}
+
+	/**
+	 * A Tail copies the appended bytes of its sources into its destination. It
+	 * is created by {@link OutputTailer#start(List, File, ITailListener)} and
+	 * serviced only by the tailing thread.
+	 *
+	 * @author Jay Jay Billings
+	 */
+	public static class Tail {
+
+		/**
+		 * The source files.
+		 */
+		private final List<Path> sources;
+
+		/**
+		 * The open channels for the sources. An entry is null until the
+		 * source exists.
+		 */
+		private final FileChannel[] sourceChannels;
+
+		/**
+		 * The positions in the sources up to which bytes have been copied.
+		 */
+		private final long[] positions;
+
+		/**
+		 * The destination file.
+		 */
+		private final Path destination;
+
+		/**
+		 * The channel for the destination. It is null if the destination could
+		 * not be opened again after a rotation, in which case it is opened on
+		 * the next transfer.
+		 */
+		private FileChannel destinationChannel;
+
+		/**
+		 * The listener, which may be null.
+		 */
+		private final ITailListener listener;
+
+		/**
+		 * The size at which the destination is rotated.
+		 */
+		private final long maxSize;
+
+		/**
+		 * The number of rotated copies to keep.
+		 */
+		private final int maxBackups;
+
+		/**
+		 * The number of bytes in the current destination file.
+		 */
+		private long destinationSize;
+
+		/**
+		 * The total number of bytes forwarded by this tail.
+		 */
+		private volatile long bytesTransferred;
+
+		/**
+		 * The number of times the destination has been rotated.
+		 */
+		private volatile int rotations;
+
+		/**
+		 * True if stop() was called.
+		 */
+		private volatile boolean stopRequested;
+
+		/**
+		 * True once the tail has been closed.
+		 */
+		private volatile boolean closed;
+
+		/**
+		 * The constructor. It opens and truncates the destination.
+		 *
+		 * @param sourceFiles
+		 *            The source files.
+		 * @param destinationFile
+		 *            The destination file.
+		 * @param listener
+		 *            The listener, which may be null.
+		 * @param maxSize
+		 *            The size at which the destination is rotated.
+		 * @param maxBackups
+		 *            The number of rotated copies to keep.
+		 * @throws IOException
+		 *             if the destination can not be opened.
+		 */
+		private Tail(List<File> sourceFiles, File destinationFile,
+				ITailListener listener, long maxSize, int maxBackups)
+				throws IOException {
+			sources = new ArrayList<Path>();
+			for (File file : sourceFiles) {
+				sources.add(file.getAbsoluteFile().toPath());
+			}
+			sourceChannels = new FileChannel[sources.size()];
+			positions = new long[sources.size()];
+			destination = destinationFile.getAbsoluteFile().toPath();
+			this.listener = listener;
+			this.maxSize = maxSize;
+			this.maxBackups = maxBackups;
+			openDestination();
+		}
+
+		/**
+		 * This operation asks the tailing thread to copy the remaining bytes
+		 * and close this tail, regardless of what the listener says.
+		 */
+		public void stop() {
+			stopRequested = true;
+		}
+
+		/**
+		 * This operation returns true if the tail has been closed.
+		 *
+		 * @return True if closed, false otherwise.
+		 */
+		public boolean isClosed() {
+			return closed;
+		}
+
+		/**
+		 * This operation returns the total number of bytes that have been
+		 * copied from the sources into the destination, including the bytes in
+		 * rotated copies.
+		 *
+		 * @return The number of bytes.
+		 */
+		public long getBytesTransferred() {
+			return bytesTransferred;
+		}
+
+		/**
+		 * This operation returns the number of times the destination has been
+		 * rotated.
+		 *
+		 * @return The number of rotations.
+		 */
+		public int getRotationCount() {
+			return rotations;
+		}
+
+		/**
+		 * This operation returns true if stop() has been called.
+		 *
+		 * @return True if a stop was requested.
+		 */
+		private boolean isStopRequested() {
+			return stopRequested;
+		}
+
+		/**
+		 * This operation returns the directories that contain the sources.
+		 *
+		 * @return The directories.
+		 */
+		private List<Path> getDirectories() {
+			List<Path> dirs = new ArrayList<Path>();
+			for (Path source : sources) {
+				Path dir = source.getParent();
+				if (dir != null && !dirs.contains(dir)) {
+					dirs.add(dir);
+				}
+			}
+			return dirs;
+		}
+
+		/**
+		 * This operation opens the destination, truncating it.
+		 *
+		 * @throws IOException
+		 *             if it can not be opened.
+		 */
+		private void openDestination() throws IOException {
+			destinationChannel = FileChannel.open(destination,
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			destinationSize = 0;
+		}
+
+		/**
+		 * This operation opens the destination without truncating it so that
+		 * new bytes are appended to the bytes it already holds. It is used
+		 * when the destination was closed by a rotation that failed.
+		 *
+		 * @throws IOException
+		 *             if it can not be opened.
+		 */
+		private void reopenDestination() throws IOException {
+			destinationChannel = FileChannel.open(destination,
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			destinationSize = destinationChannel.size();
+		}
+
+		/**
+		 * This operation copies all of the bytes that have been appended to
+		 * the sources since the last transfer into the destination. If the
+		 * destination can not be rotated, the bytes are appended to it anyway
+		 * and the rotation is tried again on the next transfer.
+		 */
+		private void transfer() {
+
+			// Local Declarations
+			boolean rotationFailed = false;
+
+			for (int i = 0; i < sources.size(); i++) {
+				try {
+					// Open the destination again if a rotation closed it and
+					// could not open it. The source bytes stay where they are
+					// until it can be opened.
+					if (destinationChannel == null) {
+						reopenDestination();
+					}
+					// Open the source once it exists
+					if (sourceChannels[i] == null) {
+						if (!Files.exists(sources.get(i))) {
+							continue;
+						}
+						sourceChannels[i] = FileChannel.open(sources.get(i),
+								StandardOpenOption.READ);
+					}
+					FileChannel source = sourceChannels[i];
+					long available = source.size() - positions[i];
+					// If the source was truncated, start over from its
+					// beginning.
+					if (available < 0) {
+						positions[i] = 0;
+						available = source.size();
+					}
+					while (available > 0) {
+						// Rotate if the destination is full
+						long room = available;
+						if (maxSize > 0 && !rotationFailed) {
+							if (destinationSize >= maxSize) {
+								rotationFailed = !rotate();
+							}
+							if (!rotationFailed) {
+								room = Math.min(available, maxSize
+										- destinationSize);
+							}
+						}
+						long count = source.transferTo(positions[i], room,
+								destinationChannel);
+						if (count <= 0) {
+							break;
+						}
+						positions[i] += count;
+						destinationSize += count;
+						bytesTransferred += count;
+						available -= count;
+					}
+				} catch (IOException e) {
+					LoggerFactory.getLogger(getClass()).error(
+							getClass().getName() + " Exception!", e);
+				}
+			}
+		}
+
+		/**
+		 * This operation rotates the destination by shifting the existing
+		 * copies and starting a new, empty destination. If the copies can not
+		 * be shifted, the failure is logged and the current destination is
+		 * opened again so that tailing continues.
+		 *
+		 * @return True if the destination was rotated, false otherwise.
+		 * @throws IOException
+		 *             if the destination can not be opened again. It will be
+		 *             opened on the next transfer.
+		 */
+		private boolean rotate() throws IOException {
+			destinationChannel.close();
+			destinationChannel = null;
+			try {
+				moveBackups();
+			} catch (IOException e) {
+				LoggerFactory.getLogger(getClass()).error(
+						getClass().getName() + " Exception!", e);
+				reopenDestination();
+				return false;
+			}
+			openDestination();
+			rotations++;
+			return true;
+		}
+
+		/**
+		 * This operation shifts the rotated copies of the destination and
+		 * moves the destination to the first copy.
+		 *
+		 * @throws IOException
+		 *             if the files can not be moved.
+		 */
+		private void moveBackups() throws IOException {
+			if (maxBackups > 0) {
+				String name = destination.getFileName().toString();
+				Files.deleteIfExists(destination.resolveSibling(name + "."
+						+ maxBackups));
+				for (int i = maxBackups - 1; i > 0; i--) {
+					Path older = destination.resolveSibling(name + "." + i);
+					if (Files.exists(older)) {
+						Files.move(older, destination.resolveSibling(name
+								+ "." + (i + 1)),
+								StandardCopyOption.REPLACE_EXISTING);
+					}
+				}
+				Files.move(destination,
+						destination.resolveSibling(name + ".1"),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+
+		/**
+		 * This operation closes all of the channels used by the tail.
+		 */
+		private void close() {
+			try {
+				for (FileChannel channel : sourceChannels) {
+					if (channel != null) {
+						channel.close();
+					}
+				}
+				if (destinationChannel != null) {
+					destinationChannel.force(false);
+					destinationChannel.close();
+				}
+			} catch (IOException e) {
+				LoggerFactory.getLogger(getClass()).error(
+						getClass().getName() + " Exception!", e);
+			}
+			closed = true;
+		}
+	}
+}
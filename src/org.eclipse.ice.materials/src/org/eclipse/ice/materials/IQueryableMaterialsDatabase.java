@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.materials;
+
+import java.util.List;
+
+import org.eclipse.ice.datastructures.form.Material;
+
+/**
+ * This interface extends the IMaterialsDatabase with operations to look up
+ * Materials without searching the whole list returned by getMaterials().
+ *
+ * The lists returned by a queryable database are unmodifiable and are sorted
+ * by name, ignoring case. Materials that are modified after they are added to
+ * the database must be committed with updateMaterial() before the queries will
+ * reflect the changes.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public interface IQueryableMaterialsDatabase extends IMaterialsDatabase {
+
+	/**
+	 * This operation returns the Material with the given name.
+	 *
+	 * @param name
+	 *            The name of the Material.
+	 * @return The Material or null if there is no Material with the name.
+	 */
+	public Material getMaterial(String name);
+
+	/**
+	 * This operation returns all of the Materials whose names start with the
+	 * given prefix, ignoring case.
+	 *
+	 * @param prefix
+	 *            The prefix of the names. An empty prefix matches every
+	 *            Material.
+	 * @return The matching Materials.
+	 */
+	public List<Material> findByNamePrefix(String prefix);
+
+	/**
+	 * This operation returns all of the Materials with a value for the given
+	 * property that is between the minimum and maximum (inclusive). Materials
+	 * that do not define the property are never returned.
+	 *
+	 * @param property
+	 *            The name of the property, such as Material.DENSITY.
+	 * @param min
+	 *            The minimum value of the property.
+	 * @param max
+	 *            The maximum value of the property.
+	 * @return The matching Materials.
+	 */
+	public List<Material> findByProperty(String property, double min,
+			double max);
+}
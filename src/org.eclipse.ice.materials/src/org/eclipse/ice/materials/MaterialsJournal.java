@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.materials;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import javax.xml.bind.JAXBException;
+
+import org.eclipse.ice.datastructures.ICEObject.PooledJAXBContext;
+import org.eclipse.ice.datastructures.form.Material;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class manages an append-only journal of the changes made to a
+ * materials database since it was last written in full. Each record either
+ * puts a Material, stored as XML, or deletes a Material by name. Records are
+ * flushed as they are written so that they survive if the database is not
+ * stopped cleanly.
+ *
+ * The journal is not thread-safe. Its owner must synchronize access to it.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+class MaterialsJournal {
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private static final Logger logger = LoggerFactory
+			.getLogger(MaterialsJournal.class);
+
+	/**
+	 * The record type for a Material that was added or updated.
+	 */
+	private static final byte PUT = 1;
+
+	/**
+	 * The record type for a Material that was deleted.
+	 */
+	private static final byte DELETE = 2;
+
+	/**
+	 * The journal file.
+	 */
+	private final File file;
+
+	/**
+	 * The context used to write the Materials in put records.
+	 */
+	private final PooledJAXBContext jaxbContext;
+
+	/**
+	 * The stream to which records are appended. It is opened with the first
+	 * record.
+	 */
+	private DataOutputStream outputStream;
+
+	/**
+	 * The number of records in the journal.
+	 */
+	private int size;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param file
+	 *            The journal file. It does not need to exist.
+	 * @param jaxbContext
+	 *            The context used to read and write Materials.
+	 */
+	MaterialsJournal(File file, PooledJAXBContext jaxbContext) {
+		this.file = file;
+		this.jaxbContext = jaxbContext;
+	}
+
+	/**
+	 * This operation appends a record of a Material that was added or updated.
+	 *
+	 * @param material
+	 *            The Material.
+	 * @throws IOException
+	 * @throws JAXBException
+	 */
+	void put(Material material) throws IOException, JAXBException {
+
+		// Write the material to a byte array first so that a JAXB failure
+		// does not leave a partial record.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		jaxbContext.marshal(material, bytes);
+
+		DataOutputStream stream = getOutputStream();
+		stream.writeByte(PUT);
+		stream.writeInt(bytes.size());
+		bytes.writeTo(stream);
+		stream.flush();
+		size++;
+	}
+
+	/**
+	 * This operation appends a record of a Material that was deleted.
+	 *
+	 * @param name
+	 *            The name of the Material.
+	 * @throws IOException
+	 */
+	void delete(String name) throws IOException {
+		DataOutputStream stream = getOutputStream();
+		stream.writeByte(DELETE);
+		stream.writeUTF(name);
+		stream.flush();
+		size++;
+	}
+
+	/**
+	 * This operation applies the records in the journal file, in order, to a
+	 * map of Materials keyed on their names. A record that was only partially
+	 * written, for example because the application was killed, ends the
+	 * replay.
+	 *
+	 * @param materials
+	 *            The map of Materials to update.
+	 * @return The number of records that were applied.
+	 * @throws IOException
+	 */
+	int replay(Map<String, Material> materials) throws IOException {
+
+		// Local Declarations
+		int count = 0;
+
+		if (!file.exists()) {
+			return 0;
+		}
+
+		DataInputStream stream = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+		try {
+			while (true) {
+				int type = stream.read();
+				if (type == PUT) {
+					byte[] bytes = new byte[stream.readInt()];
+					stream.readFully(bytes);
+					Material material = (Material) jaxbContext
+							.unmarshal(new ByteArrayInputStream(bytes));
+					materials.put(material.getName(), material);
+				} else if (type == DELETE) {
+					materials.remove(stream.readUTF());
+				} else {
+					// The end of the file or an unknown record
+					if (type != -1) {
+						logger.warn("MaterialsJournal Message: Unknown record "
+								+ "type " + type + " in " + file + ".");
+					}
+					break;
+				}
+				count++;
+			}
+		} catch (EOFException e) {
+			logger.warn("MaterialsJournal Message: The last record in " + file
+					+ " is incomplete and was ignored.");
+		} catch (JAXBException e) {
+			logger.error(getClass().getName() + " Exception!", e);
+		} finally {
+			stream.close();
+		}
+
+		size = count;
+
+		return count;
+	}
+
+	/**
+	 * This operation closes and deletes the journal file. It should be called
+	 * after all of the changes have been written to the database file.
+	 *
+	 * @throws IOException
+	 */
+	void clear() throws IOException {
+		close();
+		if (file.exists() && !file.delete()) {
+			throw new IOException("MaterialsJournal error: Unable to delete "
+					+ file + ".");
+		}
+		size = 0;
+	}
+
+	/**
+	 * This operation closes the journal file if it is open. Later records will
+	 * reopen it.
+	 *
+	 * @throws IOException
+	 */
+	void close() throws IOException {
+		if (outputStream != null) {
+			outputStream.close();
+			outputStream = null;
+		}
+	}
+
+	/**
+	 * @return The number of records in the journal.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * This operation gets the output stream, opening the journal file for
+	 * appending if necessary.
+	 *
+	 * @return The output stream.
+	 * @throws IOException
+	 */
+	private DataOutputStream getOutputStream() throws IOException {
+		if (outputStream == null) {
+			outputStream = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(file, true)));
+		}
+		return outputStream;
+	}
+}
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.materials;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.ice.datastructures.form.Material;
+
+/**
+ * This class is an immutable view of the Materials in a database at one point
+ * in time. The Materials are sorted by name, ignoring case, so that name
+ * prefixes can be found with a binary search. Indexes of numeric properties
+ * are built the first time that each property is queried.
+ *
+ * Snapshots can be shared by any number of threads without copying.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+class MaterialsSnapshot {
+
+	/**
+	 * The version of the database from which the snapshot was created.
+	 */
+	final long version;
+
+	/**
+	 * The Materials, sorted by their lower case names.
+	 */
+	private final Material[] materials;
+
+	/**
+	 * The lower case names of the Materials, in the same order.
+	 */
+	private final String[] names;
+
+	/**
+	 * An unmodifiable list backed by the array of Materials.
+	 */
+	private final List<Material> materialList;
+
+	/**
+	 * The indexes of the properties that have been queried, keyed on the
+	 * property names.
+	 */
+	private final ConcurrentMap<String, PropertyIndex> propertyIndexes;
+
+	/**
+	 * An index of the Materials that define a property, sorted by the values of
+	 * the property.
+	 */
+	private static class PropertyIndex {
+
+		/**
+		 * The sorted values of the property.
+		 */
+		private final double[] values;
+
+		/**
+		 * The Materials in the same order as the values.
+		 */
+		private final Material[] materials;
+
+		/**
+		 * The constructor.
+		 *
+		 * @param values
+		 *            The sorted values.
+		 * @param materials
+		 *            The Materials in the same order.
+		 */
+		private PropertyIndex(double[] values, Material[] materials) {
+			this.values = values;
+			this.materials = materials;
+		}
+	}
+
+	/**
+	 * The constructor. Sorts the Materials.
+	 *
+	 * @param version
+	 *            The version of the database.
+	 * @param materials
+	 *            The Materials in the database.
+	 */
+	MaterialsSnapshot(long version, Collection<Material> materials) {
+
+		// Sort the Materials on their names
+		final Material[] sorted = materials.toArray(new Material[materials
+				.size()]);
+		Arrays.sort(sorted, new Comparator<Material>() {
+			@Override
+			public int compare(Material first, Material second) {
+				int result = first.getName().compareToIgnoreCase(
+						second.getName());
+				return (result != 0 ? result : first.getName().compareTo(
+						second.getName()));
+			}
+		});
+
+		// Store the lower case names for prefix searches
+		names = new String[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			names[i] = sorted[i].getName().toLowerCase();
+		}
+
+		this.version = version;
+		this.materials = sorted;
+		materialList = Collections.unmodifiableList(Arrays.asList(sorted));
+		propertyIndexes = new ConcurrentHashMap<String, PropertyIndex>();
+	}
+
+	/**
+	 * This operation returns all of the Materials without copying them.
+	 *
+	 * @return An unmodifiable list of the Materials, sorted by name.
+	 */
+	List<Material> getMaterials() {
+		return materialList;
+	}
+
+	/**
+	 * This operation returns the Materials whose names start with the prefix,
+	 * ignoring case.
+	 *
+	 * @param prefix
+	 *            The prefix.
+	 * @return An unmodifiable list of the matching Materials.
+	 */
+	List<Material> findByNamePrefix(String prefix) {
+
+		// Local Declarations
+		String lowerPrefix = prefix.toLowerCase();
+		int first = lowerBound(lowerPrefix);
+		int last = first;
+
+		// The matches are contiguous in the sorted array
+		while (last < names.length && names[last].startsWith(lowerPrefix)) {
+			last++;
+		}
+
+		return Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(
+				materials, first, last)));
+	}
+
+	/**
+	 * This operation returns the Materials with values of a property between
+	 * the minimum and maximum (inclusive).
+	 *
+	 * @param property
+	 *            The name of the property.
+	 * @param min
+	 *            The minimum value.
+	 * @param max
+	 *            The maximum value.
+	 * @return An unmodifiable list of the matching Materials, sorted by the
+	 *         value of the property.
+	 */
+	List<Material> findByProperty(String property, double min, double max) {
+
+		// Local Declarations
+		PropertyIndex index = getPropertyIndex(property);
+		int first, last;
+
+		// Find the first value that is not less than the minimum
+		first = 0;
+		last = index.values.length;
+		while (first < last) {
+			int middle = (first + last) >>> 1;
+			if (index.values[middle] < min) {
+				first = middle + 1;
+			} else {
+				last = middle;
+			}
+		}
+		// Find the last value that is not greater than the maximum
+		last = first;
+		while (last < index.values.length && index.values[last] <= max) {
+			last++;
+		}
+
+		return Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(
+				index.materials, first, last)));
+	}
+
+	/**
+	 * This operation finds the index of the first name that is not less than
+	 * the key.
+	 *
+	 * @param key
+	 *            The lower case key.
+	 * @return The index of the first name that is not less than the key.
+	 */
+	private int lowerBound(String key) {
+		int first = 0;
+		int last = names.length;
+		while (first < last) {
+			int middle = (first + last) >>> 1;
+			if (names[middle].compareTo(key) < 0) {
+				first = middle + 1;
+			} else {
+				last = middle;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * This operation returns the index for a property, building it if it has
+	 * not been queried yet.
+	 *
+	 * @param property
+	 *            The name of the property.
+	 * @return The index of the property.
+	 */
+	private PropertyIndex getPropertyIndex(String property) {
+
+		PropertyIndex index = propertyIndexes.get(property);
+		if (index == null) {
+			// Collect the Materials that define the property
+			final List<Material> indexed = new ArrayList<Material>();
+			final List<Double> values = new ArrayList<Double>();
+			for (Material material : materials) {
+				Map<String, Double> properties = material.getProperties();
+				Double value = properties.get(property);
+				if (value != null && !value.isNaN()) {
+					indexed.add(material);
+					values.add(value);
+				}
+			}
+
+			// Sort them by value
+			Integer[] order = new Integer[indexed.size()];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer first, Integer second) {
+					return Double.compare(values.get(first),
+							values.get(second));
+				}
+			});
+			double[] sortedValues = new double[order.length];
+			Material[] sortedMaterials = new Material[order.length];
+			for (int i = 0; i < order.length; i++) {
+				sortedValues[i] = values.get(order[i]);
+				sortedMaterials[i] = indexed.get(order[i]);
+			}
+
+			// Only one index is kept if two threads build it at once
+			index = new PropertyIndex(sortedValues, sortedMaterials);
+			PropertyIndex existing = propertyIndexes
+					.putIfAbsent(property, index);
+			if (existing != null) {
+				index = existing;
+			}
+		}
+
+		return index;
+	}
+}
@@ -15,18 +15,27 @@ package org.eclipse.ice.materials;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.ice.datastructures.ICEObject.ICEList;
+import org.eclipse.ice.datastructures.ICEObject.JAXBContextRegistry;
+import org.eclipse.ice.datastructures.ICEObject.PooledJAXBContext;
 import org.eclipse.ice.datastructures.form.Material;
 import org.eclipse.ice.datastructures.form.MaterialStack;
 import org.osgi.framework.Bundle;
@@ -51,10 +60,22 @@ import ca.odell.glazedlists.gui.TableFormat;
  * bundle. It stores the (possibly) modified user list of Materials in its
  * bundle directory in the workspace.
  *
+ * Materials are kept in a concurrent map. Readers are given an immutable,
+ * sorted snapshot of the map that is only rebuilt after the database changes,
+ * so getMaterials() does not copy the database and the queries of
+ * IQueryableMaterialsDatabase use the snapshot's indexes.
+ *
+ * Changes are not written by rewriting the whole user database. Instead, each
+ * change is appended to a journal next to the user database, and the journal
+ * is replayed when the database is loaded. Once the journal grows past
+ * {@link #COMPACTION_THRESHOLD} records, the user database is rewritten and
+ * the journal is cleared on a background thread. The database is also
+ * compacted when the service is stopped.
+ *
  * @author Jay Jay Billings
  *
  */
-public class XMLMaterialsDatabase implements IMaterialsDatabase {
+public class XMLMaterialsDatabase implements IQueryableMaterialsDatabase {
 
 	/**
 	 * Logger for handling event messages and other information.
@@ -75,16 +96,55 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	private File defaultDatabase;
 
 	/**
-	 * This context is used to create all of the JAXB related utilities for
-	 * marshalling and unmarshalling the file.
+	 * This shared context is used for marshalling and unmarshalling the file.
+	 */
+	private PooledJAXBContext jaxbContext;
+
+	/**
+	 * The number of journal records after which the database is compacted.
+	 */
+	public static final int COMPACTION_THRESHOLD = 64;
+
+	/**
+	 * The list of materials loaded from the database. They are stored in a
+	 * concurrent map for fast, thread-safe manipulation.
+	 */
+	volatile ConcurrentHashMap<String, Material> materialsMap = new ConcurrentHashMap<String, Material>();
+
+	/**
+	 * The version of the materials map. It is incremented whenever the map
+	 * changes so that out of date snapshots are not used.
+	 */
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * The most recent snapshot of the materials map. It may be out of date or
+	 * null, in which case a new snapshot is created when it is needed.
 	 */
-	private JAXBContext jaxbContext;
+	private volatile MaterialsSnapshot snapshot;
 
 	/**
-	 * The list of materials loaded from the database. They are stored as a
-	 * Hashtable for fast, sychronized manipulation.
+	 * The journal of changes made since the user database was last written.
+	 * It is null until the service is started.
 	 */
-	Hashtable<String, Material> materialsMap;
+	private MaterialsJournal journal;
+
+	/**
+	 * The lock that guards the journal and the user database file. Changes to
+	 * the materials map are made while holding it so that the journal records
+	 * them in the same order and a compaction never misses one.
+	 */
+	private final Object journalLock = new Object();
+
+	/**
+	 * The executor that compacts the database in the background.
+	 */
+	private ExecutorService compactor;
+
+	/**
+	 * Whether or not a compaction has been requested but not yet started.
+	 */
+	private final AtomicBoolean compactionPending = new AtomicBoolean();
 
 	/**
 	 * The service tracker to track the LoggingService.
@@ -125,7 +185,7 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	 */
 	@Override
 	public List<Material> getMaterials() {
-		return new ArrayList<Material>(materialsMap.values());
+		return getSnapshot().getMaterials();
 	}
 
 	/*
@@ -138,7 +198,12 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	@Override
 	public void addMaterial(Material material) {
 		if (material != null) {
-			materialsMap.put(material.getName(), material);
+			synchronized (journalLock) {
+				materialsMap.put(material.getName(), material);
+				changed();
+				journalPut(material);
+			}
+			requestCompaction();
 		}
 
 	}
@@ -153,7 +218,14 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	@Override
 	public void deleteMaterial(String name) {
 		if (name != null) {
-			materialsMap.remove(name);
+			synchronized (journalLock) {
+				if (materialsMap.remove(name) == null) {
+					return;
+				}
+				changed();
+				journalDelete(name);
+			}
+			requestCompaction();
 		}
 	}
 
@@ -167,7 +239,7 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	@Override
 	public void deleteMaterial(Material material) {
 		if (material != null) {
-			materialsMap.remove(material.getName());
+			deleteMaterial(material.getName());
 		}
 	}
 
@@ -181,10 +253,145 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	@Override
 	public void updateMaterial(Material material) {
 		if (material != null) {
-			materialsMap.put(material.getName(), material);
+			synchronized (journalLock) {
+				materialsMap.put(material.getName(), material);
+				changed();
+				journalPut(material);
+			}
+			requestCompaction();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.ice.materials.IQueryableMaterialsDatabase#getMaterial(java
+	 * .lang.String)
+	 */
+	@Override
+	public Material getMaterial(String name) {
+		return (name != null ? materialsMap.get(name) : null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.ice.materials.IQueryableMaterialsDatabase#findByNamePrefix
+	 * (java.lang.String)
+	 */
+	@Override
+	public List<Material> findByNamePrefix(String prefix) {
+		return getSnapshot().findByNamePrefix(prefix != null ? prefix : "");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.ice.materials.IQueryableMaterialsDatabase#findByProperty(java
+	 * .lang.String, double, double)
+	 */
+	@Override
+	public List<Material> findByProperty(String property, double min,
+			double max) {
+		List<Material> materials = new ArrayList<Material>();
+		if (property != null) {
+			materials = getSnapshot().findByProperty(property, min, max);
+		}
+		return materials;
+	}
+
+	/**
+	 * This operation returns a snapshot of the current materials, creating a
+	 * new one if the materials have changed since the last snapshot was made.
+	 *
+	 * @return The current snapshot.
+	 */
+	private MaterialsSnapshot getSnapshot() {
+
+		// Local Declarations
+		MaterialsSnapshot currentSnapshot = snapshot;
+		long currentVersion = version.get();
+
+		if (currentSnapshot == null || currentSnapshot.version != currentVersion) {
+			currentSnapshot = new MaterialsSnapshot(currentVersion,
+					materialsMap.values());
+			snapshot = currentSnapshot;
+		}
+
+		return currentSnapshot;
+	}
+
+	/**
+	 * This operation marks the materials as changed so that the next snapshot
+	 * is rebuilt.
+	 */
+	private void changed() {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * This operation appends a put record to the journal. The caller must hold
+	 * the journal lock.
+	 *
+	 * @param material
+	 *            The Material that was added or updated.
+	 */
+	private void journalPut(Material material) {
+		if (journal != null) {
+			try {
+				journal.put(material);
+			} catch (IOException | JAXBException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+	}
+
+	/**
+	 * This operation appends a delete record to the journal. The caller must
+	 * hold the journal lock.
+	 *
+	 * @param name
+	 *            The name of the Material that was deleted.
+	 */
+	private void journalDelete(String name) {
+		if (journal != null) {
+			try {
+				journal.delete(name);
+			} catch (IOException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
 		}
 	}
 
+	/**
+	 * This operation compacts the database in the background if the journal
+	 * has grown past the threshold and a compaction is not already pending.
+	 */
+	private void requestCompaction() {
+
+		// Local Declarations
+		int size;
+
+		synchronized (journalLock) {
+			size = (journal != null ? journal.size() : 0);
+		}
+		if (size >= COMPACTION_THRESHOLD && compactor != null
+				&& compactionPending.compareAndSet(false, true)) {
+			compactor.execute(new Runnable() {
+				@Override
+				public void run() {
+					compactionPending.set(false);
+					writeDatabase();
+				}
+			});
+		}
+
+		return;
+	}
+
 	/**
 	 * This operation loads the database that is in the provided file.
 	 *
@@ -194,39 +401,59 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	 */
 	private void loadDatabase(File fileToLoad) {
 		try {
-			// Create the necessary JAXB equipment to load the file
-			Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-			// And unmarshall it into the list
-			ICEList<Material> rawList = (ICEList<Material>) jaxbUnmarshaller
+			// Unmarshall the file into the list
+			ICEList<Material> rawList = (ICEList<Material>) jaxbContext
 					.unmarshal(fileToLoad);
 
 			// Load the list into the material map
-			materialsMap = new Hashtable<String, Material>();
+			ConcurrentHashMap<String, Material> newMap = new ConcurrentHashMap<String, Material>();
 			for (Material material : rawList.getList()) {
-				materialsMap.put(material.getName(), material);
+				newMap.put(material.getName(), material);
 			}
+			materialsMap = newMap;
+			changed();
 		} catch (JAXBException e) {
 			logger.error(getClass().getName() + " Exception!",e);
 		}
 	}
 
 	/**
-	 * This operation writes the database to disk in the user database file.
+	 * This operation writes the database to disk in the user database file and
+	 * clears the journal. The database is written to a temporary file first
+	 * and then moved over the user database, so the user database is never
+	 * left partially written. The journal is kept if the move fails.
 	 */
 	private void writeDatabase() {
 
-		try {
-			// Create the necessary JAXB equipment to dump the file
-			Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-			jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-			// Create the ICEList of Materials
-			ICEList<Material> materialsList = new ICEList<Material>();
-			materialsList.setList(new ArrayList<Material>(getMaterials()));
-			// And dump it into the file
-			jaxbMarshaller.marshal(materialsList, userDatabase);
-		} catch (JAXBException e) {
-			System.err.println("XMLMaterialDatabase: Error writing database!");
-			logger.error(getClass().getName() + " Exception!",e);
+		// Local Declarations
+		File tempFile = new File(userDatabase.getPath() + ".tmp");
+
+		// Changes made while the database is written wait for the journal.
+		// Readers are not blocked.
+		synchronized (journalLock) {
+			try {
+				// Create the ICEList of Materials
+				ICEList<Material> materialsList = new ICEList<Material>();
+				materialsList.setList(new ArrayList<Material>(getMaterials()));
+				// And dump it into the file
+				jaxbContext.marshal(materialsList, tempFile);
+				// Replace the user database in one step if the file system
+				// allows it
+				try {
+					Files.move(tempFile.toPath(), userDatabase.toPath(),
+							StandardCopyOption.ATOMIC_MOVE,
+							StandardCopyOption.REPLACE_EXISTING);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempFile.toPath(), userDatabase.toPath(),
+							StandardCopyOption.REPLACE_EXISTING);
+				}
+				// The journal is no longer needed
+				if (journal != null) {
+					journal.clear();
+				}
+			} catch (JAXBException | IOException e) {
+				logger.error("XMLMaterialDatabase: Error writing database!", e);
+			}
 		}
 	}
 
@@ -237,10 +464,14 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	 */
 	@Override
 	public void restoreDefaults() {
-		// Load the default database
-		loadDatabase(defaultDatabase);
-		// Overwrite the user database
-		writeDatabase();
+		// Changes must not be journaled between loading the defaults and
+		// discarding the journal.
+		synchronized (journalLock) {
+			// Load the default database
+			loadDatabase(defaultDatabase);
+			// Overwrite the user database and discard the journal
+			writeDatabase();
+		}
 	}
 
 	/**
@@ -253,8 +484,10 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 
 		// Create the JAXB context to manipulate the files
 		try {
-			jaxbContext = JAXBContext
-					.newInstance(ICEList.class, Material.class, MaterialStack.class);
+			jaxbContext = JAXBContextRegistry.getContext(Arrays
+					.<Class> asList(ICEList.class, Material.class,
+							MaterialStack.class));
+			jaxbContext.getContext();
 		} catch (JAXBException e) {
 			// Complain to the logger service
 			if (logger != null) {
@@ -275,8 +508,37 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 			fileToLoad = defaultDatabase;
 		}
 
-		// Load it up and throw some info in the log
+		// Load it up
 		loadDatabase(fileToLoad);
+
+		// Apply the changes that were journaled after the database was last
+		// written. Replaying changes that were already written is harmless.
+		synchronized (journalLock) {
+			journal = new MaterialsJournal(new File(userDatabase.getPath()
+					+ ".journal"), jaxbContext);
+			try {
+				int count = journal.replay(materialsMap);
+				if (count > 0) {
+					changed();
+					logger.info("Applied " + count + " journaled changes.");
+				}
+			} catch (IOException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+
+		// Create the thread that compacts the database
+		compactor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable,
+						"Materials Database Compactor");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		// Throw some info in the log
 		if (logger != null) {
 			logger.info("Started!");
 		}
@@ -321,6 +583,18 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	 */
 	public void stop() {
 
+		// Wait for any compaction in progress
+		if (compactor != null) {
+			compactor.shutdown();
+			try {
+				compactor.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+				Thread.currentThread().interrupt();
+			}
+			compactor = null;
+		}
+
 		// Write the database
 		writeDatabase();
 
@@ -340,7 +614,7 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 	public EventList<Material> getElements() {
 		// Create a new event list and return it using the standard factory
 		// method for GlazedLists.
-		EventList<Material> list = GlazedLists.eventList(materialsMap.values());
+		EventList<Material> list = GlazedLists.eventList(getMaterials());
 		return list;
 	}
 
@@ -357,12 +631,10 @@ public class XMLMaterialsDatabase implements IMaterialsDatabase {
 
 		// Build and return a table format if there are materials in the
 		// database
-		if (!materialsMap.isEmpty()) {
-			// Get the properties off the map. Pulling back the array is more
-			// efficient than getting an iterator. I think...
-			Material[] emptyArray = {};
-			Map<String, Double> props = materialsMap.values().toArray(
-					emptyArray)[0].getProperties();
+		List<Material> materials = getMaterials();
+		if (!materials.isEmpty()) {
+			// Get the properties off the first material in the snapshot.
+			Map<String, Double> props = materials.get(0).getProperties();
 			ArrayList<String> propNames = new ArrayList<String>(props.keySet());
 			// Initialize the table format
 			format = new MaterialWritableTableFormat(propNames);
@@ -0,0 +1,488 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.nek5000;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * This class formats the fixed-width fields of a Nek5000 reafile into a
+ * growable byte buffer. It produces the same text as the String.format()
+ * conversions used by the NekWriter ("%6s", "%-3s", "%3d", "%14.7G" and so
+ * on), but without parsing a format string or creating intermediate Strings
+ * for each number. The decimal separator is always '.', regardless of the
+ * default locale, because Nek5000 requires it.
+ *
+ * Instances are not thread-safe, but they are cheap enough to create one for
+ * each chunk of a file that is formatted in parallel.
+ *
+ * @author Anna Wojtowicz
+ *
+ */
+public class FixedWidthFormatter {
+
+	/**
+	 * Powers of ten that are exactly representable as doubles.
+	 */
+	private static final double[] doublePowers = new double[23];
+
+	/**
+	 * Powers of ten that fit in a long.
+	 */
+	private static final long[] longPowers = new long[19];
+
+	static {
+		doublePowers[0] = 1.0;
+		for (int i = 1; i < doublePowers.length; i++) {
+			doublePowers[i] = doublePowers[i - 1] * 10.0;
+		}
+		longPowers[0] = 1L;
+		for (int i = 1; i < longPowers.length; i++) {
+			longPowers[i] = longPowers[i - 1] * 10L;
+		}
+	}
+
+	/**
+	 * The formatted bytes.
+	 */
+	private byte[] bytes;
+
+	/**
+	 * The number of formatted bytes in the buffer.
+	 */
+	private int size;
+
+	/**
+	 * The digits of the number that is being formatted, in reverse order.
+	 */
+	private final byte[] digits;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param capacity
+	 *            The initial capacity of the buffer in bytes
+	 */
+	public FixedWidthFormatter(int capacity) {
+		bytes = new byte[Math.max(capacity, 16)];
+		size = 0;
+		digits = new byte[20];
+	}
+
+	/**
+	 * Returns the number of formatted bytes.
+	 *
+	 * @return The number of bytes in the buffer
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Discards the formatted bytes so that the buffer can be reused.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Writes the formatted bytes to a stream.
+	 *
+	 * @param stream
+	 *            The OutputStream to write to
+	 * @throws IOException
+	 *             Thrown when writing to the OutputStream fails
+	 */
+	public void writeTo(OutputStream stream) throws IOException {
+		stream.write(bytes, 0, size);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return new String(bytes, 0, size);
+	}
+
+	/**
+	 * Appends a single ASCII character.
+	 *
+	 * @param c
+	 *            The character
+	 * @return This formatter
+	 */
+	public FixedWidthFormatter append(char c) {
+		ensureCapacity(1);
+		bytes[size++] = (byte) c;
+		return this;
+	}
+
+	/**
+	 * Appends a String, equivalent to "%s".
+	 *
+	 * @param value
+	 *            The String
+	 * @return This formatter
+	 */
+	public FixedWidthFormatter append(String value) {
+		return append(value, 0, false);
+	}
+
+	/**
+	 * Appends a String padded with spaces to a minimum width, equivalent to
+	 * "%{width}s" or "%-{width}s". Like String.format(), a null String is
+	 * written as "null" and a String longer than the width is not truncated.
+	 *
+	 * @param value
+	 *            The String
+	 * @param width
+	 *            The minimum width of the field
+	 * @param leftJustify
+	 *            True if the String should be padded on the right, false if
+	 *            it should be padded on the left
+	 * @return This formatter
+	 */
+	public FixedWidthFormatter append(String value, int width,
+			boolean leftJustify) {
+
+		// Local declarations
+		String text = (value != null ? value : "null");
+		int length = text.length();
+		boolean ascii = true;
+
+		// Strings that are not plain ASCII are encoded with the default
+		// charset, like String.getBytes()
+		for (int i = 0; i < length && ascii; i++) {
+			ascii = text.charAt(i) < 128;
+		}
+		if (!ascii) {
+			byte[] encoded = text.getBytes();
+			ensureCapacity(Math.max(encoded.length, width));
+			if (!leftJustify) {
+				pad(width - length);
+			}
+			System.arraycopy(encoded, 0, bytes, size, encoded.length);
+			size += encoded.length;
+			if (leftJustify) {
+				pad(width - length);
+			}
+			return this;
+		}
+
+		ensureCapacity(Math.max(length, width));
+		if (!leftJustify) {
+			pad(width - length);
+		}
+		for (int i = 0; i < length; i++) {
+			bytes[size++] = (byte) text.charAt(i);
+		}
+		if (leftJustify) {
+			pad(width - length);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Appends an integer padded with spaces on the left to a minimum width,
+	 * equivalent to "%{width}d".
+	 *
+	 * @param value
+	 *            The integer
+	 * @param width
+	 *            The minimum width of the field
+	 * @return This formatter
+	 */
+	public FixedWidthFormatter append(long value, int width) {
+
+		// Local declarations
+		int numDigits = 0;
+		boolean negative = value < 0;
+
+		// Collect the digits in reverse. The magnitude is negated rather than
+		// made positive so that Long.MIN_VALUE works.
+		long remainder = (negative ? value : -value);
+		do {
+			digits[numDigits++] = (byte) ('0' - (remainder % 10));
+			remainder /= 10;
+		} while (remainder != 0);
+
+		// Write the padding, sign and digits
+		int length = numDigits + (negative ? 1 : 0);
+		ensureCapacity(Math.max(length, width));
+		pad(width - length);
+		if (negative) {
+			bytes[size++] = '-';
+		}
+		while (numDigits > 0) {
+			bytes[size++] = digits[--numDigits];
+		}
+
+		return this;
+	}
+
+	/**
+	 * Appends a floating point number in general scientific notation padded
+	 * with spaces on the left to a minimum width, equivalent to
+	 * "%{width}.{precision}G" for a Float argument. The number is rounded
+	 * half-up to the precision in significant digits. It is written in
+	 * positional notation if the rounded magnitude is at least 10^-4 and less
+	 * than 10^precision, and in computerized scientific notation (1.000E+00)
+	 * otherwise.
+	 *
+	 * @param value
+	 *            The number
+	 * @param width
+	 *            The minimum width of the field
+	 * @param precision
+	 *            The number of significant digits, from 1 to 17
+	 * @return This formatter
+	 */
+	public FixedWidthFormatter append(float value, int width, int precision) {
+
+		// Local declarations
+		double magnitude = Math.abs((double) value);
+		boolean negative = (Float.floatToRawIntBits(value) < 0);
+		long mantissa;
+		int exponent;
+
+		// Handle the special values
+		if (Float.isNaN(value)) {
+			return append("NAN", width, false);
+		} else if (Float.isInfinite(value)) {
+			return append(negative ? "-INFINITY" : "INFINITY", width, false);
+		}
+
+		// Round the number to the precision. The mantissa is an integer with
+		// exactly precision digits, unless the number is zero.
+		if (magnitude == 0.0) {
+			mantissa = 0L;
+			exponent = 0;
+		} else {
+			exponent = (int) Math.floor(Math.log10(magnitude));
+			mantissa = roundToPrecision(magnitude, precision - 1 - exponent);
+			// Correct the exponent if the logarithm was inexact
+			if (mantissa >= longPowers[precision]) {
+				exponent++;
+				mantissa = roundToPrecision(magnitude, precision - 1
+						- exponent);
+			} else if (mantissa >= 0 && mantissa < longPowers[precision - 1]) {
+				exponent--;
+				mantissa = roundToPrecision(magnitude, precision - 1
+						- exponent);
+			}
+			// Fall back to exact decimal arithmetic if the scale was too
+			// large to compute exactly with doubles
+			if (mantissa < 0) {
+				BigDecimal rounded = new BigDecimal(Double.toString(magnitude))
+						.round(new MathContext(precision, RoundingMode.HALF_UP));
+				mantissa = rounded.unscaledValue().longValue();
+				exponent = rounded.precision() - rounded.scale() - 1;
+				// Strip or add trailing zeros to get exactly precision digits
+				int numDigits = rounded.precision();
+				if (numDigits > precision) {
+					mantissa /= longPowers[numDigits - precision];
+				} else if (numDigits < precision) {
+					mantissa *= longPowers[precision - numDigits];
+				}
+			}
+			// Handle carries from rounding up, like 9.9999999 to 10.00000
+			if (mantissa == longPowers[precision]) {
+				mantissa = longPowers[precision - 1];
+				exponent++;
+			}
+		}
+
+		// Collect the digits of the mantissa in reverse
+		for (int i = 0; i < precision; i++) {
+			digits[i] = (byte) ('0' + (mantissa % 10));
+			mantissa /= 10;
+		}
+
+		// Write the number in positional or scientific notation
+		if (exponent >= -4 && exponent < precision) {
+			appendPositional(negative, exponent, precision, width);
+		} else {
+			appendScientific(negative, exponent, precision, width);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Writes the digits of a rounded number in positional notation.
+	 *
+	 * @param negative
+	 *            True if the number is negative
+	 * @param exponent
+	 *            The decimal exponent of the first digit
+	 * @param precision
+	 *            The number of digits
+	 * @param width
+	 *            The minimum width of the field
+	 */
+	private void appendPositional(boolean negative, int exponent,
+			int precision, int width) {
+
+		// Local declarations
+		int integerDigits = Math.max(exponent + 1, 1);
+		int fractionDigits = precision - 1 - exponent;
+		int length = (negative ? 1 : 0) + integerDigits
+				+ (fractionDigits > 0 ? fractionDigits + 1 : 0);
+		int next = precision - 1;
+
+		ensureCapacity(Math.max(length, width));
+		pad(width - length);
+		if (negative) {
+			bytes[size++] = '-';
+		}
+
+		// Write the integer part, which is 0 for numbers less than 1
+		if (exponent < 0) {
+			bytes[size++] = '0';
+		} else {
+			for (int i = 0; i <= exponent; i++) {
+				bytes[size++] = digits[next--];
+			}
+		}
+
+		// Write the fraction, with leading zeros for numbers less than 0.1
+		if (fractionDigits > 0) {
+			bytes[size++] = '.';
+			for (int i = exponent + 1; i < 0; i++) {
+				bytes[size++] = '0';
+			}
+			while (next >= 0) {
+				bytes[size++] = digits[next--];
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * Writes the digits of a rounded number in scientific notation.
+	 *
+	 * @param negative
+	 *            True if the number is negative
+	 * @param exponent
+	 *            The decimal exponent of the first digit
+	 * @param precision
+	 *            The number of digits
+	 * @param width
+	 *            The minimum width of the field
+	 */
+	private void appendScientific(boolean negative, int exponent,
+			int precision, int width) {
+
+		// Local declarations
+		int magnitude = Math.abs(exponent);
+		int exponentDigits = (magnitude >= 100 ? 3 : 2);
+		int length = (negative ? 1 : 0) + precision
+				+ (precision > 1 ? 1 : 0) + 2 + exponentDigits;
+		int next = precision - 1;
+
+		ensureCapacity(Math.max(length, width));
+		pad(width - length);
+		if (negative) {
+			bytes[size++] = '-';
+		}
+
+		// Write the mantissa
+		bytes[size++] = digits[next--];
+		if (precision > 1) {
+			bytes[size++] = '.';
+			while (next >= 0) {
+				bytes[size++] = digits[next--];
+			}
+		}
+
+		// Write the exponent with at least two digits
+		bytes[size++] = 'E';
+		bytes[size++] = (byte) (exponent < 0 ? '-' : '+');
+		if (exponentDigits == 3) {
+			bytes[size++] = (byte) ('0' + magnitude / 100);
+		}
+		bytes[size++] = (byte) ('0' + (magnitude / 10) % 10);
+		bytes[size++] = (byte) ('0' + magnitude % 10);
+
+		return;
+	}
+
+	/**
+	 * Scales a number by a power of ten and rounds it half-up to an integer.
+	 * Since the number came from a float, the scaled value is exact or
+	 * correctly rounded for the scales that are computed.
+	 *
+	 * @param magnitude
+	 *            The positive number
+	 * @param scale
+	 *            The power of ten to scale by
+	 * @return The rounded integer, or -1 if the scale is too large to compute
+	 *         exactly
+	 */
+	private static long roundToPrecision(double magnitude, int scale) {
+
+		// Local declarations
+		double scaled;
+
+		if (scale >= doublePowers.length || -scale >= doublePowers.length) {
+			return -1L;
+		} else if (scale >= 0) {
+			scaled = magnitude * doublePowers[scale];
+		} else {
+			scaled = magnitude / doublePowers[-scale];
+		}
+
+		// The fraction is computed exactly, so this rounds half-up
+		long integer = (long) scaled;
+		if (scaled - integer >= 0.5) {
+			integer++;
+		}
+
+		return integer;
+	}
+
+	/**
+	 * Writes spaces to the buffer. The capacity must already be available.
+	 *
+	 * @param count
+	 *            The number of spaces, which may be zero or negative
+	 */
+	private void pad(int count) {
+		for (int i = 0; i < count; i++) {
+			bytes[size++] = ' ';
+		}
+	}
+
+	/**
+	 * Grows the buffer if it cannot hold more bytes.
+	 *
+	 * @param count
+	 *            The number of bytes that will be written
+	 */
+	private void ensureCapacity(int count) {
+		if (size + count > bytes.length) {
+			bytes = Arrays.copyOf(bytes,
+					Math.max(2 * bytes.length, size + count));
+		}
+	}
+
+}
@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.ice.nek5000;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.datastructures.ICEObject.ListComponent;
 import org.eclipse.ice.datastructures.componentVisitor.IComponentVisitor;
@@ -32,31 +34,77 @@ import org.eclipse.ice.datastructures.form.mesh.BoundaryCondition;
 import org.eclipse.ice.datastructures.form.mesh.BoundaryConditionType;
 import org.eclipse.ice.datastructures.form.mesh.Edge;
 import org.eclipse.ice.datastructures.form.mesh.MeshComponent;
-import org.eclipse.ice.datastructures.form.mesh.Quad;
+import org.eclipse.ice.datastructures.form.mesh.Polygon;
 import org.eclipse.ice.datastructures.form.mesh.Vertex;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * This class is responsible for writing the contents of a Component collection
  * into a file appropriate to be used as a Nek5000 .rea file.
  * 
+ * The file is streamed to disk through a buffered FileChannel. The mesh
+ * elements and boundary conditions, which make up most of a large file, are
+ * formatted in chunks of elements by a pool of threads while earlier chunks
+ * are written, so the whole mesh is never held in memory as text. The chunks
+ * are always written in order, so the file is the same as if it were written
+ * by a single thread.
+ * 
  * @author Anna Wojtowicz
  * 
  */
 public class NekWriter implements IComponentVisitor {
 
+	/**
+	 * The number of mesh elements formatted by each task.
+	 */
+	private static final int chunkSize = 512;
+
+	/**
+	 * The size in bytes of the buffer in front of the output file.
+	 */
+	private static final int bufferSize = 1 << 16;
+
+	/**
+	 * The identifier of the mesh element section for
+	 * writeMeshSection(...). The fluid and thermal boundary conditions have
+	 * their own identifiers, and passive scalar set k is identified by k.
+	 */
+	private static final int elementSection = -2;
+
+	/**
+	 * The identifier of the fluid boundary condition section.
+	 */
+	private static final int fluidSection = -1;
+
+	/**
+	 * The identifier of the thermal boundary condition section.
+	 */
+	private static final int thermalSection = 0;
+
 	/*
 	 * HashMap of 13 Components to define a Nek5000 problem, keyed by Component
 	 * name.
@@ -70,6 +118,29 @@ public class NekWriter implements IComponentVisitor {
 	 */
 	private ProblemProperties properties;
 
+	/*
+	 * The elements of the mesh that is being written.
+	 */
+	private ArrayList<Polygon> polygons;
+
+	/*
+	 * The threads that format chunks of the mesh, or null if the mesh is
+	 * small enough to format on the writing thread.
+	 */
+	private ExecutorService executor;
+
+	/*
+	 * The maximum number of chunks that may be formatted ahead of the chunk
+	 * that is being written.
+	 */
+	private int maxPendingChunks;
+
+	/*
+	 * The monitor that receives the progress of the file that is being
+	 * written.
+	 */
+	private IProgressMonitor monitor;
+
 	/**
 	 * Nullary constructor
 	 */
@@ -101,6 +172,41 @@ public class NekWriter implements IComponentVisitor {
 	public void writeReaFile(ArrayList<Component> components, File outputFile,
 			ProblemProperties properties) throws FileNotFoundException,
 			IOException {
+		writeReaFile(components, outputFile, properties, null);
+	}
+
+	/**
+	 * Reads in an ArrayList of Components, creates a HashMap keyed by Component
+	 * name, and then writes the contents into the specified output file using
+	 * formatting appropriate for a Nek5000 reafile. Verifies the list of
+	 * Components is correctly constructed before writing. The progress is
+	 * reported in units of mesh elements, once for each section of the file
+	 * that covers the whole mesh.
+	 * 
+	 * @param components
+	 *            An ArrayList of Components, can be assumed to be a mix of
+	 *            DataComponents and MeshComponents
+	 * @param outputFile
+	 *            The output file to write to
+	 * @param properties
+	 *            Properties of the Nek problem
+	 * @param monitor
+	 *            The monitor that receives the progress of the file, or null
+	 *            if the progress should not be reported. If it is canceled,
+	 *            the file is left incomplete.
+	 * @throws FileNotFoundException
+	 *             Thrown when the output file cannot be found
+	 * @throws InterruptedIOException
+	 *             Thrown when the monitor is canceled or the writing thread
+	 *             is interrupted
+	 * @throws IOException
+	 *             Thrown when any of the writeSomething(...) methods fail to
+	 *             write to the OutputStream
+	 * 
+	 */
+	public void writeReaFile(ArrayList<Component> components, File outputFile,
+			ProblemProperties properties, IProgressMonitor monitor)
+			throws FileNotFoundException, IOException {
 
 		// Check that all input parameters are valid
 		if (components != null && outputFile.isFile() && properties != null
@@ -111,13 +217,14 @@ public class NekWriter implements IComponentVisitor {
 
 			// Local declarations
 			OutputStream stream = null;
+			FileChannel channel;
 			Component currComponent;
+			int numThreads = Runtime.getRuntime().availableProcessors();
 
 			// Set the problem properties
 			this.properties = properties;
-
-			// Set the output stream to the output file
-			stream = new FileOutputStream(outputFile);
+			this.monitor = (monitor != null ? monitor
+					: new NullProgressMonitor());
 
 			// Verify all the Components are valid and then add componentMap Map
 			for (int i = 0; i < components.size(); i++) {
@@ -125,23 +232,62 @@ public class NekWriter implements IComponentVisitor {
 				currComponent.accept(this);
 			}
 
-			// Write the output file sections
-			writeParameters(stream);
-			writePassiveScalarData(stream);
-			writeLogicalSwitches(stream);
-			writePreNekAxes(stream);
-			writeMesh(stream);
-			writePresolveRestartOpts(stream);
-			writeInitialConditions(stream);
-			writeDriveForceData(stream);
-			writeVarPropertyData(stream);
-			writeHistoryIntegralData(stream);
-			writeOutputFieldSpec(stream);
-			writeObjectSpec(stream);
-			writeICEHeader(stream);
-
-			// Close the output stream
-			stream.close();
+			// Get the mesh elements once, since the MeshComponent copies them
+			polygons = ((MeshComponent) componentMap.get("Mesh Data"))
+					.getPolygons();
+
+			// Only start threads if there is more than one chunk to format
+			if (polygons.size() > chunkSize && numThreads > 1) {
+				executor = Executors.newFixedThreadPool(numThreads,
+						new ThreadFactory() {
+							@Override
+							public Thread newThread(Runnable runnable) {
+								Thread thread = new Thread(runnable,
+										"NekWriter");
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+			}
+			maxPendingChunks = 2 * numThreads;
+
+			// Count each element once for the boundary condition count, the
+			// mesh data, the fluid and thermal boundary conditions and each
+			// passive scalar set
+			this.monitor.beginTask("Writing " + outputFile.getName(),
+					polygons.size()
+							* (4 + properties.getNumPassiveScalars()));
+
+			// Set the output stream to a buffered channel on the output file
+			channel = new FileOutputStream(outputFile).getChannel();
+			stream = new BufferedOutputStream(Channels.newOutputStream(channel),
+					bufferSize);
+
+			try {
+				// Write the output file sections
+				writeParameters(stream);
+				writePassiveScalarData(stream);
+				writeLogicalSwitches(stream);
+				writePreNekAxes(stream);
+				writeMesh(stream);
+				writePresolveRestartOpts(stream);
+				writeInitialConditions(stream);
+				writeDriveForceData(stream);
+				writeVarPropertyData(stream);
+				writeHistoryIntegralData(stream);
+				writeOutputFieldSpec(stream);
+				writeObjectSpec(stream);
+				writeICEHeader(stream);
+			} finally {
+				// Close the output stream and stop the threads
+				stream.close();
+				if (executor != null) {
+					executor.shutdownNow();
+					executor = null;
+				}
+				polygons = null;
+				this.monitor.done();
+			}
 
 		}
 
@@ -380,11 +526,9 @@ public class NekWriter implements IComponentVisitor {
 
 	/**
 	 * Grabs the MESH DATA MeshComponent from the componentMap and writes the
-	 * contents to the specified OutputStream. In the process of iterating
-	 * through each element/quad, this method also constructs 2+ ArrayLists of
-	 * Strings (thermal, fluid and if any passive scalar BCs) representing lines
-	 * of boundary conditions in a reafile. These ArrayLists are passed into the
-	 * writeBoundaryConditions(...) method.
+	 * contents to the specified OutputStream, followed by the curved side data
+	 * and the boundary conditions. The boundary conditions are counted before
+	 * anything is written because the counts are needed for the mesh header.
 	 * 
 	 * @param stream
 	 *            The OutputStream to write to
@@ -394,197 +538,308 @@ public class NekWriter implements IComponentVisitor {
 	private void writeMesh(OutputStream stream) throws IOException {
 
 		// Local declarations
-		MeshComponent mesh = (MeshComponent) componentMap.get("Mesh Data");
-		Quad currQuad;
-		Edge currEdge;
+		Polygon currPolygon;
+		ArrayList<Edge> currEdges;
 		int currEdgeId;
-		ArrayList<Vertex> currVertices = new ArrayList<Vertex>();
-		String currValue;
-
-		// String buffer used to construct the mesh data, as the MeshComponent
-		// must be read first before its header can be written, preventing a
-		// simple top-down writing to the output stream
-		StringBuffer buffer = new StringBuffer();
-		ArrayList<String> bufferArray = new ArrayList<String>();
-
-		ArrayList<Float> xCoords = new ArrayList<Float>();
-		ArrayList<Float> yCoords = new ArrayList<Float>();
-
-		BoundaryCondition currBC;
-		ArrayList<Float> currBCValues = new ArrayList<Float>();
-		ArrayList<String> thermalBCs = new ArrayList<String>();
-		ArrayList<String> fluidBCs = new ArrayList<String>();
-		ArrayList<ArrayList<String>> passiveScalarBCs = null;
-
-		// Iterate through the mesh elements
-		for (int i = 0; i < mesh.getPolygons().size(); i++) {
-
-			// Define the current mesh element
-			currQuad = (Quad) mesh.getPolygons().get(i);
-			currValue = String.format("           ELEMENT%6s [ %4s]" // FORMAT:
-																		// 18X,I6,4X,I3,A1,11x,i5
-					+ "  GROUP   %5s\n", (i + 1), currQuad
-					.getPolygonProperties().getMaterialId(), currQuad
-					.getPolygonProperties().getGroupNum());
-
-			// Write the mesh element header
-			buffer.append(currValue);
-
-			/* --- Construct mesh elements --- */
-
-			// Extract the x, y coordinates of the Quad's vertices
-			currVertices = currQuad.getVertices();
-			for (int k = 0; k < 4; k++) {
-				xCoords.add(currVertices.get(k).getLocation()[0]);
-				yCoords.add(currVertices.get(k).getLocation()[1]);
-			}
-
-			// Iterate through the Edges of the current Quad
+		int numFluidBCs = 0;
+		int numThermalBCs = 0;
+
+		// Count the fluid and thermal boundary conditions
+		monitor.subTask("Counting boundary conditions");
+		for (int i = 0; i < polygons.size(); i++) {
+			currPolygon = polygons.get(i);
+			currEdges = currPolygon.getEdges();
 			for (int j = 0; j < 4; j++) {
+				currEdgeId = currEdges.get(j).getId();
+				if (isSet(currPolygon.getFluidBoundaryCondition(currEdgeId))) {
+					numFluidBCs++;
+				}
+				if (isSet(currPolygon.getThermalBoundaryCondition(currEdgeId))) {
+					numThermalBCs++;
+				}
+			}
+		}
+		monitor.worked(polygons.size());
 
-				// Define the current edge
-				currEdge = currQuad.getEdges().get(j);
-				currEdgeId = currEdge.getId();
+		// Update the ProblemProperties if any mesh element counts changed
+		updateProperties(properties.getNumDimensions(),
+				numThermalBCs == 0 ? properties.getNumThermalElements()
+						: numThermalBCs / 4,
+				numFluidBCs == 0 ? properties.getNumFluidElements()
+						: numFluidBCs / 4, properties.getNumPassiveScalars());
 
-				/*
-				 * Boundary condition format strings:
-				 * 
-				 * < 1,000 elements (1X, A3, 2I3, 5G14.6) < 100,000 elements
-				 * (1X, A3, I5, I1, 5G14.6) else { (1X, A3, I10, I1, 5G14.6) }
-				 * FIXME assuming only the case of < 1k elements
-				 */
+		// Construct the header
+		String meshHeader = String
+				.format("  *** MESH DATA ***\n"
+						+ "      %3d      %3d      %3d           NEL,NDIM,NELV\n",
+						properties.getNumThermalElements(),
+						properties.getNumDimensions(),
+						properties.getNumFluidElements());
 
-				/* --- Construct fluid boundary condition --- */
+		// Write the mesh data header and then the mesh elements
+		byte[] byteArray = meshHeader.getBytes();
+		stream.write(byteArray);
+		monitor.subTask("Writing mesh data");
+		writeMeshSection(stream, elementSection);
 
-				// Grab the current edge's fluid boundary conditions
-				currBC = currQuad.getFluidBoundaryCondition(currEdgeId);
+		// Write curved side data
+		writeCurvedSideData(stream);
 
-				// Check if the current edge has a valid fluid BC
-				if (currBC.getType() != BoundaryConditionType.None) {
+		// Write boundary conditions
+		writeBoundaryConditions(stream, numFluidBCs, numThermalBCs);
 
-					// Get its values
-					currBCValues = currBC.getValues();
+		return;
+	}
 
-					// Construct the proper string format
-					currValue = String.format(
-							" %-3s%3d%3d%14.7G%14.7G%14.7G%14.7G%14.7G\n",
-							currBC.getType().id, (i + 1), (j + 1),
-							currBCValues.get(0), currBCValues.get(1),
-							currBCValues.get(2), currBCValues.get(3),
-							currBCValues.get(4));
+	/**
+	 * Writes one section of the file that has a part for each mesh element.
+	 * The elements are formatted in chunks, in parallel if the executor is
+	 * available, and the chunks are written to the stream in order as soon as
+	 * they are ready. Only a limited number of chunks are formatted ahead of
+	 * the stream.
+	 * 
+	 * @param stream
+	 *            The OutputStream to write to
+	 * @param section
+	 *            The section to write: elementSection, fluidSection,
+	 *            thermalSection or the number of a passive scalar set
+	 * @throws IOException
+	 *             Thrown when writing to OutputStream fails or the writing is
+	 *             canceled
+	 */
+	private void writeMeshSection(OutputStream stream, final int section)
+			throws IOException {
 
-					// Add to fluid boundary conditions list
-					fluidBCs.add(currValue);
+		// Local declarations
+		ArrayDeque<Future<FixedWidthFormatter>> pendingChunks = new ArrayDeque<Future<FixedWidthFormatter>>();
+		int numElements = polygons.size();
+		int nextElement = 0;
+		int writtenElements = 0;
+
+		try {
+			while (writtenElements < numElements) {
+
+				// Start formatting chunks until enough are pending
+				while (nextElement < numElements
+						&& pendingChunks.size() < maxPendingChunks) {
+					final int first = nextElement;
+					final int last = Math.min(first + chunkSize, numElements);
+					Callable<FixedWidthFormatter> task = new Callable<FixedWidthFormatter>() {
+						@Override
+						public FixedWidthFormatter call() {
+							return formatChunk(section, first, last);
+						}
+					};
+					if (executor != null) {
+						pendingChunks.add(executor.submit(task));
+					} else {
+						FutureTask<FixedWidthFormatter> future = new FutureTask<FixedWidthFormatter>(
+								task);
+						future.run();
+						pendingChunks.add(future);
+					}
+					nextElement = last;
 				}
 
-				/* --- Construct thermal boundary condition --- */
-
-				// Grab the current edge's thermal boundary condition
-				currBC = currQuad.getThermalBoundaryCondition(currEdgeId);
-
-				// Check if the current Quad has a valid thermal BC
-				if (currBC.getType() != BoundaryConditionType.None) {
-
-					// Get its values
-					currBCValues = currBC.getValues();
-
-					// Construct the proper string format
-					currValue = String.format(
-							" %-3s%3d%3d%14.7G%14.7G%14.7G%14.7G%14.7G\n",
-							currBC.getType().id, (i + 1), (j + 1),
-							currBCValues.get(0), currBCValues.get(1),
-							currBCValues.get(2), currBCValues.get(3),
-							currBCValues.get(4));
-
-					// Add to thermal boundary conditions list
-					thermalBCs.add(currValue);
+				// Write the oldest chunk
+				pendingChunks.remove().get().writeTo(stream);
+				int chunkElements = Math.min(chunkSize, numElements
+						- writtenElements);
+				writtenElements += chunkElements;
+				monitor.worked(chunkElements);
+
+				// Stop if the user canceled the write
+				if (monitor.isCanceled()) {
+					throw new InterruptedIOException("NekWriter error: "
+							+ "Writing the reafile was canceled.");
 				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("NekWriter error: "
+					+ "Interrupted while writing the reafile.");
+		} catch (ExecutionException e) {
+			// Rethrow the problem from the formatting thread
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IOException("NekWriter error: "
+					+ "Failed to format the mesh.", e.getCause());
+		} finally {
+			// Stop formatting any chunks that will not be written
+			for (Future<FixedWidthFormatter> future : pendingChunks) {
+				future.cancel(true);
+			}
+		}
 
-				/* --- Construct passive scalar boundary condition line --- */
-
-				if (properties.getNumPassiveScalars() > 0) {
-
-					passiveScalarBCs = new ArrayList<ArrayList<String>>(
-							properties.getNumPassiveScalars());
-
-					// Iterate through as many passive scalars as there are
-					for (int k = 1; k <= properties.getNumPassiveScalars(); k++) {
+		return;
+	}
 
-						// Grab the current element's kth passive scalar
-						// boundary condition
-						currBC = currQuad.getOtherBoundaryCondition(currEdgeId,
-								k);
+	/**
+	 * Formats one section of the file for a range of mesh elements. This is
+	 * called on the formatting threads, so it only reads from the mesh.
+	 * 
+	 * @param section
+	 *            The section to format: elementSection, fluidSection,
+	 *            thermalSection or the number of a passive scalar set
+	 * @param first
+	 *            The index of the first element to format
+	 * @param last
+	 *            The index after the last element to format
+	 * @return The formatter that holds the text of the chunk
+	 */
+	private FixedWidthFormatter formatChunk(int section, int first, int last) {
 
-						// Check if the current Quad has a valid passive scalar
-						// BC
-						if (currBC.getType() != BoundaryConditionType.None) {
+		// Local declarations
+		FixedWidthFormatter chunk = new FixedWidthFormatter((last - first)
+				* (section == elementSection ? 160 : 4 * 81));
+		float[] coords = new float[8];
+		Polygon currPolygon;
+		ArrayList<Edge> currEdges;
+		BoundaryCondition currBC;
 
-							// Get its values
-							currBCValues = currBC.getValues();
+		for (int i = first; i < last; i++) {
 
-							// Construct the proper string format
-							currValue = String
-									.format(" %-3s%3d%3d%14.7G%14.7G%14.7G%14.7G%14.7G\n",
-											currBC.getType().id, (i + 1),
-											(j + 1), currBCValues.get(0),
-											currBCValues.get(1),
-											currBCValues.get(2),
-											currBCValues.get(3),
-											currBCValues.get(4));
+			// Define the current mesh element
+			currPolygon = polygons.get(i);
 
-							// Add to passive scalar boundary condition list
-							passiveScalarBCs.get(k).add(currValue);
-						}
+			if (section == elementSection) {
+				formatElement(chunk, currPolygon, i, coords);
+			} else {
+				// Format the boundary condition of each edge that has one of
+				// this section's type
+				currEdges = currPolygon.getEdges();
+				for (int j = 0; j < 4; j++) {
+					currBC = getBoundaryCondition(currPolygon, currEdges.get(j)
+							.getId(), section);
+					if (isSet(currBC)) {
+						formatBoundaryCondition(chunk, currBC, i, j);
 					}
-
 				}
-
 			}
+		}
 
-			// Write the coordinates to the buffer
-			currValue = String.format(" %9.6G     %9.6G     %9.6G     %9.6G\n"
-					+ " %9.6G     %9.6G     %9.6G     %9.6G\n", xCoords.get(0),
-					xCoords.get(1), xCoords.get(2), xCoords.get(3),
-					yCoords.get(0), yCoords.get(1), yCoords.get(2),
-					yCoords.get(3));
-			buffer.append(currValue);
+		return chunk;
+	}
 
-			// Clear the coordinates for the next edge
-			xCoords.clear();
-			yCoords.clear();
+	/**
+	 * Formats the header and vertex coordinates of a mesh element. This is
+	 * equivalent to the format strings
+	 * "           ELEMENT%6s [ %4s]  GROUP   %5s\n" (FORMAT:
+	 * 18X,I6,4X,I3,A1,11x,i5) and two lines of
+	 * " %9.6G     %9.6G     %9.6G     %9.6G\n", first for the x coordinates
+	 * and then for the y coordinates.
+	 * 
+	 * @param line
+	 *            The formatter to write to
+	 * @param polygon
+	 *            The mesh element
+	 * @param index
+	 *            The index of the element in the mesh
+	 * @param coords
+	 *            An array of eight floats for the coordinates
+	 */
+	private void formatElement(FixedWidthFormatter line, Polygon polygon,
+			int index, float[] coords) {
+
+		// Write the mesh element header
+		line.append("           ELEMENT").append(index + 1, 6).append(" [ ")
+				.append(polygon.getPolygonProperties().getMaterialId(), 4,
+						false).append("]  GROUP   ")
+				.append(polygon.getPolygonProperties().getGroupNum(), 5)
+				.append('\n');
+
+		// Extract the x, y coordinates of the element's vertices
+		ArrayList<Vertex> currVertices = polygon.getVertices();
+		for (int k = 0; k < 4; k++) {
+			float[] location = currVertices.get(k).getLocation();
+			coords[k] = location[0];
+			coords[k + 4] = location[1];
+		}
 
+		// Write the x coordinates and then the y coordinates
+		for (int k = 0; k < 8; k++) {
+			line.append(k % 4 == 0 ? " " : "     ").append(coords[k], 9, 6);
+			if (k % 4 == 3) {
+				line.append('\n');
+			}
 		}
 
-		// Update the ProblemProperties if any mesh element counts changed
-		updateProperties(properties.getNumDimensions(),
-				thermalBCs.isEmpty() ? properties.getNumThermalElements()
-						: thermalBCs.size() / 4,
-				fluidBCs.isEmpty() ? properties.getNumFluidElements()
-						: fluidBCs.size() / 4, passiveScalarBCs == null ? 0
-						: passiveScalarBCs.size() / 4);
+		return;
+	}
 
-		// Construct the header
-		String meshHeader = String
-				.format("  *** MESH DATA ***\n"
-						+ "      %3d      %3d      %3d           NEL,NDIM,NELV\n",
-						properties.getNumThermalElements(),
-						properties.getNumDimensions(),
-						properties.getNumFluidElements());
+	/**
+	 * Formats a boundary condition line. This is equivalent to the format
+	 * string " %-3s%3d%3d%14.7G%14.7G%14.7G%14.7G%14.7G\n".
+	 * 
+	 * Boundary condition format strings:
+	 * 
+	 * < 1,000 elements (1X, A3, 2I3, 5G14.6) < 100,000 elements (1X, A3, I5,
+	 * I1, 5G14.6) else { (1X, A3, I10, I1, 5G14.6) } FIXME assuming only the
+	 * case of < 1k elements
+	 * 
+	 * @param line
+	 *            The formatter to write to
+	 * @param condition
+	 *            The boundary condition
+	 * @param index
+	 *            The index of the element in the mesh
+	 * @param edge
+	 *            The index of the edge in the element
+	 */
+	private void formatBoundaryCondition(FixedWidthFormatter line,
+			BoundaryCondition condition, int index, int edge) {
 
-		// Write the mesh data header to the beginning of the StringBuffer
-		buffer.insert(0, meshHeader);
+		// Get its values
+		ArrayList<Float> currBCValues = condition.getValues();
 
-		// Write the StringBuffer to the OutputStream
-		byte[] byteArray = buffer.toString().getBytes();
-		stream.write(byteArray);
+		// Construct the proper format
+		line.append(' ').append(condition.getType().id, 3, true)
+				.append(index + 1, 3).append(edge + 1, 3);
+		for (int k = 0; k < 5; k++) {
+			line.append(currBCValues.get(k), 14, 7);
+		}
+		line.append('\n');
 
-		// Write curved side data
-		writeCurvedSideData(stream);
+		return;
+	}
 
-		// Write boundary conditions
-		writeBoundaryConditions(stream, fluidBCs, thermalBCs, passiveScalarBCs);
+	/**
+	 * Gets the boundary condition of a mesh element's edge for a section of
+	 * boundary conditions.
+	 * 
+	 * @param polygon
+	 *            The mesh element
+	 * @param edgeId
+	 *            The ID of the edge
+	 * @param section
+	 *            fluidSection, thermalSection or the number of a passive
+	 *            scalar set
+	 * @return The boundary condition, or null if the edge does not have one
+	 */
+	private BoundaryCondition getBoundaryCondition(Polygon polygon,
+			int edgeId, int section) {
 
-		return;
+		if (section == fluidSection) {
+			return polygon.getFluidBoundaryCondition(edgeId);
+		} else if (section == thermalSection) {
+			return polygon.getThermalBoundaryCondition(edgeId);
+		}
+		return polygon.getOtherBoundaryCondition(edgeId, section);
+	}
+
+	/**
+	 * Checks that a boundary condition should be written.
+	 * 
+	 * @param condition
+	 *            The boundary condition, which may be null
+	 * @return True if the condition exists and its type is not None
+	 */
+	private boolean isSet(BoundaryCondition condition) {
+		return condition != null
+				&& condition.getType() != BoundaryConditionType.None;
 	}
 
 	/**
@@ -619,27 +874,21 @@ public class NekWriter implements IComponentVisitor {
 	}
 
 	/**
-	 * Reads in ArrayLists of boundary conditions constructed by writeMesh(...)
-	 * and writes them to the specified OutputStream.
+	 * Writes the boundary conditions of the mesh to the specified
+	 * OutputStream. The boundary condition lines are formatted by
+	 * writeMeshSection(...).
 	 * 
 	 * @param stream
 	 *            The OutputStream to write to
-	 * @param fluidBCs
-	 *            ArrayList of Strings representing the lines of fluid boundary
-	 *            conditions in a reafile
-	 * @param thermalBCs
-	 *            ArrayList of Strings representing the lines of thermal
-	 *            boundary conditions in a reafile
-	 * @param passiveScalarBCs
-	 *            ArrayList of ArrayLists of Strings representing all possible
-	 *            sets (if any) of passive scalar boundary conditions, where
-	 *            each String represents a line in a reafile
+	 * @param numFluidBCs
+	 *            The number of fluid boundary condition lines
+	 * @param numThermalBCs
+	 *            The number of thermal boundary condition lines
 	 * @throws IOException
 	 *             Thrown when writing to OutputStream fails
 	 */
 	private void writeBoundaryConditions(OutputStream stream,
-			ArrayList<String> fluidBCs, ArrayList<String> thermalBCs,
-			ArrayList<ArrayList<String>> passiveScalarBCs) throws IOException {
+			int numFluidBCs, int numThermalBCs) throws IOException {
 
 		// Construct the header
 		String boundaryConditionHeader = "  ***** BOUNDARY CONDITIONS *****\n";
@@ -649,67 +898,52 @@ public class NekWriter implements IComponentVisitor {
 		stream.write(byteArray);
 
 		// Check that there are fluid boundary conditions
-		if (!fluidBCs.isEmpty()) {
+		if (numFluidBCs > 0) {
 			// Write the fluid boundary conditions header
 			String fluidHeader = "  ***** FLUID   BOUNDARY CONDITIONS *****\n";
 			byteArray = fluidHeader.getBytes();
 			stream.write(byteArray);
 
 			// Write fluid boundary condition lines
-			for (int i = 0; i < fluidBCs.size(); i++) {
-				byteArray = fluidBCs.get(i).getBytes();
-				stream.write(byteArray);
-			}
+			monitor.subTask("Writing fluid boundary conditions");
+			writeMeshSection(stream, fluidSection);
 		} else {
 			String noFluidHeader = "  ***** NO FLUID   BOUNDARY CONDITIONS *****\n";
 			byteArray = noFluidHeader.getBytes();
 			stream.write(byteArray);
+			monitor.worked(polygons.size());
 		}
 
 		// Check that there are thermal boundary conditions
-		if (!thermalBCs.isEmpty()) {
+		if (numThermalBCs > 0) {
 			// Write the thermal boundary conditions header
 			String thermalHeader = "  ***** THERMAL BOUNDARY CONDITIONS *****\n";
 			byteArray = thermalHeader.getBytes();
 			stream.write(byteArray);
 
 			// Write thermal boundary condition lines
-			for (int i = 0; i < thermalBCs.size(); i++) {
-				byteArray = thermalBCs.get(i).getBytes();
-				stream.write(byteArray);
-			}
+			monitor.subTask("Writing thermal boundary conditions");
+			writeMeshSection(stream, thermalSection);
 		} else {
 			String noThermalHeader = "  ***** NO THERMAL BOUNDARY CONDITIONS *****\n";
 			byteArray = noThermalHeader.getBytes();
 			stream.write(byteArray);
+			monitor.worked(polygons.size());
 		}
 
 		// Write passive scalar boundary condition lines
-		if (properties.getNumPassiveScalars() > 0) {
-
-			ArrayList<String> currPassiveScalarBC = new ArrayList<String>();
-
-			// Write passive scalar boundary condition lines
-			for (int i = 0; i < properties.getNumPassiveScalars(); i++) {
+		for (int i = 0; i < properties.getNumPassiveScalars(); i++) {
 
-				// Define the current passive scalar set
-				currPassiveScalarBC = passiveScalarBCs.get(i);
-
-				// Write the passive scalar boundary conditions header
-				String passiveScalarHeader = String
-						.format("  ***** PASSIVE SCALAR         %3s BOUNDARY CONDITIONS *****\n",
-								(i + 1));
-				byteArray = passiveScalarHeader.getBytes();
-				stream.write(byteArray);
-
-				// Iterate through the boundary conditions of the set
-				for (int j = 0; j < currPassiveScalarBC.size(); j++) {
+			// Write the passive scalar boundary conditions header
+			String passiveScalarHeader = String
+					.format("  ***** PASSIVE SCALAR         %3s BOUNDARY CONDITIONS *****\n",
+							(i + 1));
+			byteArray = passiveScalarHeader.getBytes();
+			stream.write(byteArray);
 
-					// Write the current passive scalar boundary condition
-					byteArray = currPassiveScalarBC.get(j).getBytes();
-					stream.write(byteArray);
-				}
-			}
+			// Write the boundary conditions of the set
+			monitor.subTask("Writing passive scalar boundary conditions");
+			writeMeshSection(stream, i + 1);
 		}
 
 		return;
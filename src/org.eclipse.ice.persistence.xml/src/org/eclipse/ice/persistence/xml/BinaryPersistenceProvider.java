@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.persistence.xml;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.bind.JAXBException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * This class is an alternative to the {@link XMLPersistenceProvider} that
+ * stores Items in the compact binary format of the {@link BinaryXMLCodec}
+ * instead of as formatted XML. Items are stored in the same project as
+ * <itemName>_<itemId>.icb files and are otherwise handled exactly like the
+ * XMLPersistenceProvider handles them.
+ *
+ * Items that were stored as <itemName>_<itemId>.xml files are still found and
+ * loaded. They are replaced by .icb files the next time they are persisted.
+ *
+ * Files are still read if they contain XML, and
+ * {@link #importXML(IFile, IFile)} and {@link #exportXML(IFile, IFile)} convert
+ * files between the two formats.
+ *
+ * This provider is registered with the framework but disabled by default. To
+ * use it, enable its component and disable the XMLPersistenceProvider's
+ * component.
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class BinaryPersistenceProvider extends XMLPersistenceProvider {
+
+	/**
+	 * Empty default constructor. No work to do.
+	 */
+	public BinaryPersistenceProvider() {
+		super();
+	}
+
+	/**
+	 * An alternative constructor that allows the project space to be set for
+	 * testing.
+	 *
+	 * @param projectSpace
+	 *            The project space that should be used instead of the default.
+	 */
+	public BinaryPersistenceProvider(IProject projectSpace) {
+		super(projectSpace);
+	}
+
+	/*
+	 * Overrides a method from XMLPersistenceProvider.
+	 */
+	@Override
+	protected String getFileExtension() {
+		return "icb";
+	}
+
+	/*
+	 * Overrides a method from XMLPersistenceProvider.
+	 */
+	@Override
+	protected byte[] createFileContents(Object obj) throws IOException {
+
+		// Local Declarations
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		// Encode the object's XML. A failure is passed on so that the file is
+		// not overwritten with an incomplete document.
+		BinaryXMLCodec.encode(
+				new ByteArrayInputStream(super.createFileContents(obj)),
+				outputStream);
+
+		return outputStream.toByteArray();
+	}
+
+	/*
+	 * Overrides a method from XMLPersistenceProvider.
+	 */
+	@Override
+	protected Object readFileContents(InputStream inputStream,
+			boolean streaming) throws JAXBException, IOException {
+		return super.readFileContents(toXML(inputStream), streaming);
+	}
+
+	/*
+	 * Overrides a method from XMLPersistenceProvider.
+	 */
+	@Override
+	public String getReaderType() {
+		return "icb";
+	}
+
+	/*
+	 * Overrides a method from XMLPersistenceProvider.
+	 */
+	@Override
+	public String getWriterType() {
+		return "icb";
+	}
+
+	/**
+	 * This operation converts an XML file to the binary format.
+	 *
+	 * @param xmlFile
+	 *            The XML file to read.
+	 * @param binaryFile
+	 *            The file to which the binary document should be written. It
+	 *            is created if necessary.
+	 * @throws CoreException
+	 *             An exception indicating that a file could not be read or
+	 *             written.
+	 * @throws IOException
+	 *             An exception indicating that the XML could not be encoded.
+	 */
+	public void importXML(IFile xmlFile, IFile binaryFile)
+			throws CoreException, IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		InputStream inputStream = xmlFile.getContents();
+		try {
+			BinaryXMLCodec.encode(inputStream, outputStream);
+		} finally {
+			inputStream.close();
+		}
+		setContents(binaryFile, outputStream.toByteArray());
+	}
+
+	/**
+	 * This operation converts a file in the binary format to XML.
+	 *
+	 * @param binaryFile
+	 *            The binary file to read.
+	 * @param xmlFile
+	 *            The file to which the XML should be written. It is created if
+	 *            necessary.
+	 * @throws CoreException
+	 *             An exception indicating that a file could not be read or
+	 *             written.
+	 * @throws IOException
+	 *             An exception indicating that the binary document could not
+	 *             be decoded.
+	 */
+	public void exportXML(IFile binaryFile, IFile xmlFile)
+			throws CoreException, IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		InputStream inputStream = binaryFile.getContents();
+		try {
+			BinaryXMLCodec.decode(inputStream, outputStream);
+		} finally {
+			inputStream.close();
+		}
+		setContents(xmlFile, outputStream.toByteArray());
+	}
+
+	/**
+	 * This operation converts the contents of a file to XML if they are in the
+	 * binary format.
+	 *
+	 * @param inputStream
+	 *            The contents of the file.
+	 * @return A stream containing the XML.
+	 * @throws IOException
+	 */
+	private InputStream toXML(InputStream inputStream) throws IOException {
+
+		// Local Declarations
+		BufferedInputStream bufferedStream = new BufferedInputStream(
+				inputStream);
+
+		// Files that already contain XML are read directly.
+		if (!BinaryXMLCodec.isBinary(bufferedStream)) {
+			return bufferedStream;
+		}
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			BinaryXMLCodec.decode(bufferedStream, outputStream);
+		} finally {
+			bufferedStream.close();
+		}
+		return new ByteArrayInputStream(outputStream.toByteArray());
+	}
+
+	/**
+	 * This operation sets the contents of a file, creating it if necessary.
+	 *
+	 * @param file
+	 *            The file.
+	 * @param contents
+	 *            The new contents.
+	 * @throws CoreException
+	 */
+	private void setContents(IFile file, byte[] contents)
+			throws CoreException {
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(contents);
+		if (file.exists()) {
+			file.setContents(inputStream, IResource.FORCE, null);
+		} else {
+			file.create(inputStream, IResource.FORCE, null);
+		}
+	}
+}
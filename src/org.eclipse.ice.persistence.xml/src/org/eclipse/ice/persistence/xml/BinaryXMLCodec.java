@@ -0,0 +1,878 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.persistence.xml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * <p>
+ * This class converts XML documents, such as those written by JAXB for Items,
+ * to and from a compact binary format. The binary format stores the same
+ * elements, attributes and text, but:
+ * </p>
+ * <ul>
+ * <li>every name and string value is stored once and referred to by a varint
+ * index afterward,</li>
+ * <li>integers are stored as varints and decimal numbers as 8-byte doubles,</li>
+ * <li>runs of sibling elements that only contain a number, such as the
+ * allowed values of a MatrixComponent or the elements of a matrix saved one
+ * tag per value, are stored as a single primitive array, and</li>
+ * <li>indentation is dropped.</li>
+ * </ul>
+ * <p>
+ * Numbers are only stored in binary when they are written exactly as Java
+ * would print them, so decoding a document produces the same text (less
+ * indentation) that was encoded. Comments and processing instructions are not
+ * kept.
+ * </p>
+ * <p>
+ * Each file starts with the bytes "ICEB" and a version number so that the
+ * format can be extended later.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class BinaryXMLCodec {
+
+	/**
+	 * The bytes at the start of every encoded document.
+	 */
+	private static final byte[] MAGIC = { 'I', 'C', 'E', 'B' };
+
+	/**
+	 * The current version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	// ---- Record tags ---- //
+	/**
+	 * Marks the end of the document.
+	 */
+	private static final int END_DOCUMENT = 0;
+	/**
+	 * Starts an element. Followed by its name and attributes.
+	 */
+	private static final int START_ELEMENT = 1;
+	/**
+	 * Ends the current element.
+	 */
+	private static final int END_ELEMENT = 2;
+	/**
+	 * Text content. Followed by a value.
+	 */
+	private static final int TEXT = 3;
+	/**
+	 * A run of sibling elements that only contain doubles. Followed by their
+	 * name, the number of elements and the doubles.
+	 */
+	private static final int DOUBLE_RUN = 4;
+	/**
+	 * A run of sibling elements that only contain integers. Followed by their
+	 * name, the number of elements and the integers as varints.
+	 */
+	private static final int LONG_RUN = 5;
+	// --------------------- //
+
+	// ---- Value types ---- //
+	/**
+	 * A string value. Followed by a string reference.
+	 */
+	private static final int STRING_VALUE = 0;
+	/**
+	 * A double value. Followed by 8 bytes.
+	 */
+	private static final int DOUBLE_VALUE = 1;
+	/**
+	 * An integer value. Followed by a zig-zag varint.
+	 */
+	private static final int LONG_VALUE = 2;
+	// --------------------- //
+
+	/**
+	 * The character set used for all strings.
+	 */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * The factory used to create StAX readers for the XML.
+	 */
+	private static final XMLInputFactory inputFactory;
+
+	static {
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+	}
+
+	/**
+	 * This class only has static operations.
+	 */
+	private BinaryXMLCodec() {
+		// Nothing to do.
+	}
+
+	/**
+	 * Checks whether the data in a stream is in the binary format. The stream
+	 * must support marks, and it is reset afterward.
+	 *
+	 * @param inputStream
+	 *            The stream to check.
+	 * @return True if the stream starts with the binary format's header,
+	 *         false otherwise.
+	 * @throws IOException
+	 */
+	public static boolean isBinary(InputStream inputStream) throws IOException {
+		byte[] header = new byte[MAGIC.length];
+		inputStream.mark(header.length);
+		int read = 0;
+		while (read < header.length) {
+			int count = inputStream.read(header, read, header.length - read);
+			if (count < 0) {
+				break;
+			}
+			read += count;
+		}
+		inputStream.reset();
+		return Arrays.equals(header, MAGIC);
+	}
+
+	/**
+	 * Encodes an XML document in the binary format.
+	 *
+	 * @param xmlStream
+	 *            The stream from which the XML should be read.
+	 * @param binaryStream
+	 *            The stream to which the binary document should be written.
+	 *            It is flushed but not closed.
+	 * @throws IOException
+	 *             If the XML could not be read or the binary document could
+	 *             not be written.
+	 */
+	public static void encode(InputStream xmlStream, OutputStream binaryStream)
+			throws IOException {
+		try {
+			XMLStreamReader reader = inputFactory
+					.createXMLStreamReader(xmlStream);
+			try {
+				new Encoder(reader, binaryStream).encode();
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Decodes a binary document to XML.
+	 *
+	 * @param binaryStream
+	 *            The stream from which the binary document should be read.
+	 * @param xmlStream
+	 *            The stream to which the XML should be written in UTF-8. It is
+	 *            flushed but not closed.
+	 * @throws IOException
+	 *             If the binary document is invalid or from a newer version,
+	 *             or if the XML could not be written.
+	 */
+	public static void decode(InputStream binaryStream, OutputStream xmlStream)
+			throws IOException {
+		new Decoder(binaryStream, xmlStream).decode();
+	}
+
+	/**
+	 * Writes XML events to the binary format.
+	 *
+	 * @author Jordan Deyton
+	 *
+	 */
+	private static class Encoder {
+
+		/**
+		 * The source of the XML events.
+		 */
+		private final XMLStreamReader reader;
+		/**
+		 * The binary output.
+		 */
+		private final DataOutputStream output;
+
+		/**
+		 * The indices of the strings that have been written, keyed on the
+		 * strings.
+		 */
+		private final Map<String, Integer> strings;
+
+		/**
+		 * The text for the current element that has not been written.
+		 */
+		private final StringBuilder pendingText;
+		/**
+		 * Whether each open element has child elements.
+		 */
+		private final List<Boolean> hasChildren;
+
+		/**
+		 * The name of the elements in the current run, or null if there is no
+		 * run.
+		 */
+		private String runName;
+		/**
+		 * The type of value in the current run, either DOUBLE_RUN or LONG_RUN.
+		 */
+		private int runType;
+		/**
+		 * The double values in the current run.
+		 */
+		private double[] runDoubles;
+		/**
+		 * The integer values in the current run.
+		 */
+		private long[] runLongs;
+		/**
+		 * The number of values in the current run.
+		 */
+		private int runSize;
+
+		/**
+		 * The default constructor.
+		 *
+		 * @param reader
+		 *            The source of the XML events.
+		 * @param outputStream
+		 *            The binary output.
+		 */
+		public Encoder(XMLStreamReader reader, OutputStream outputStream) {
+			this.reader = reader;
+			output = new DataOutputStream(new BufferedOutputStream(
+					outputStream));
+			strings = new HashMap<String, Integer>();
+			pendingText = new StringBuilder();
+			hasChildren = new ArrayList<Boolean>();
+			runDoubles = new double[16];
+			runLongs = new long[16];
+		}
+
+		/**
+		 * Encodes the entire document.
+		 *
+		 * @throws XMLStreamException
+		 * @throws IOException
+		 */
+		public void encode() throws XMLStreamException, IOException {
+
+			// Local Declarations
+			StringBuilder leafText = new StringBuilder();
+
+			// Write the header.
+			output.write(MAGIC);
+			writeVarint(VERSION);
+
+			int event = reader.next();
+			while (event != XMLStreamConstants.END_DOCUMENT) {
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					writePendingText();
+					markChild();
+					String name = getName(reader.getPrefix(),
+							reader.getLocalName());
+
+					// Elements without attributes might only contain a number
+					// and can be added to a run.
+					if (reader.getAttributeCount() == 0
+							&& reader.getNamespaceCount() == 0) {
+						leafText.setLength(0);
+						event = reader.next();
+						while (isText(event)) {
+							leafText.append(reader.getText());
+							event = reader.next();
+						}
+						if (event == XMLStreamConstants.END_ELEMENT
+								&& addToRun(name, leafText.toString())) {
+							event = reader.next();
+							continue;
+						}
+						// Otherwise, start the element normally. The text read
+						// so far is its content, and the current event has not
+						// been handled.
+						flushRun();
+						writeStartElement(name, 0);
+						pendingText.append(leafText);
+						continue;
+					}
+
+					flushRun();
+					writeStartElement(name, reader.getNamespaceCount()
+							+ reader.getAttributeCount());
+					// Namespace declarations are written as attributes.
+					for (int i = 0; i < reader.getNamespaceCount(); i++) {
+						String prefix = reader.getNamespacePrefix(i);
+						writeString(prefix == null || prefix.isEmpty() ? "xmlns"
+								: "xmlns:" + prefix);
+						writeValue(reader.getNamespaceURI(i));
+					}
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						writeString(getName(reader.getAttributePrefix(i),
+								reader.getAttributeLocalName(i)));
+						writeValue(reader.getAttributeValue(i));
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					// Text is kept if it is not indentation. Whitespace is
+					// kept for elements with no children.
+					boolean children = hasChildren
+							.remove(hasChildren.size() - 1);
+					if (pendingText.length() > 0
+							&& (!children || !isWhitespace(pendingText))) {
+						flushRun();
+						output.write(TEXT);
+						writeValue(pendingText.toString());
+					}
+					pendingText.setLength(0);
+					flushRun();
+					output.write(END_ELEMENT);
+				} else if (isText(event)) {
+					pendingText.append(reader.getText());
+				}
+				event = reader.next();
+			}
+
+			// Finish the document.
+			flushRun();
+			output.write(END_DOCUMENT);
+			output.flush();
+
+			return;
+		}
+
+		/**
+		 * Writes the start of an element and updates the open elements.
+		 *
+		 * @param name
+		 *            The element's name.
+		 * @param attributes
+		 *            The number of attributes that will follow.
+		 * @throws IOException
+		 */
+		private void writeStartElement(String name, int attributes)
+				throws IOException {
+			output.write(START_ELEMENT);
+			writeString(name);
+			writeVarint(attributes);
+			hasChildren.add(false);
+		}
+
+		/**
+		 * Marks the current element as having children.
+		 */
+		private void markChild() {
+			if (!hasChildren.isEmpty()) {
+				hasChildren.set(hasChildren.size() - 1, true);
+			}
+		}
+
+		/**
+		 * Writes the text between two child elements unless it is indentation.
+		 *
+		 * @throws IOException
+		 */
+		private void writePendingText() throws IOException {
+			if (pendingText.length() > 0 && !isWhitespace(pendingText)) {
+				flushRun();
+				output.write(TEXT);
+				writeValue(pendingText.toString());
+			}
+			pendingText.setLength(0);
+		}
+
+		/**
+		 * Adds an element containing only a number to the current run,
+		 * starting a new run if necessary.
+		 *
+		 * @param name
+		 *            The element's name.
+		 * @param text
+		 *            The element's text.
+		 * @return True if the element was added to a run, false if its text is
+		 *         not a number.
+		 * @throws IOException
+		 */
+		private boolean addToRun(String name, String text) throws IOException {
+
+			// Determine the type of number, if any.
+			int type;
+			long longValue = 0;
+			double doubleValue = 0.0;
+			Long parsedLong = parseLong(text);
+			if (parsedLong != null) {
+				type = LONG_RUN;
+				longValue = parsedLong;
+			} else {
+				Double parsedDouble = parseDouble(text);
+				if (parsedDouble == null) {
+					return false;
+				}
+				type = DOUBLE_RUN;
+				doubleValue = parsedDouble;
+			}
+
+			// Start a new run if this element does not match the current one.
+			if (runName == null || runType != type || !runName.equals(name)) {
+				flushRun();
+				runName = name;
+				runType = type;
+			}
+
+			// Add the value.
+			if (type == LONG_RUN) {
+				if (runSize == runLongs.length) {
+					runLongs = Arrays.copyOf(runLongs, runSize * 2);
+				}
+				runLongs[runSize++] = longValue;
+			} else {
+				if (runSize == runDoubles.length) {
+					runDoubles = Arrays.copyOf(runDoubles, runSize * 2);
+				}
+				runDoubles[runSize++] = doubleValue;
+			}
+
+			return true;
+		}
+
+		/**
+		 * Writes the current run, if any.
+		 *
+		 * @throws IOException
+		 */
+		private void flushRun() throws IOException {
+			if (runName != null) {
+				output.write(runType);
+				writeString(runName);
+				writeVarint(runSize);
+				for (int i = 0; i < runSize; i++) {
+					if (runType == DOUBLE_RUN) {
+						output.writeDouble(runDoubles[i]);
+					} else {
+						writeVarint(zigZag(runLongs[i]));
+					}
+				}
+				runName = null;
+				runSize = 0;
+			}
+		}
+
+		/**
+		 * Writes a value, storing it as a number if possible.
+		 *
+		 * @param value
+		 *            The value.
+		 * @throws IOException
+		 */
+		private void writeValue(String value) throws IOException {
+			Long longValue = parseLong(value);
+			if (longValue != null) {
+				output.write(LONG_VALUE);
+				writeVarint(zigZag(longValue));
+			} else {
+				Double doubleValue = parseDouble(value);
+				if (doubleValue != null) {
+					output.write(DOUBLE_VALUE);
+					output.writeDouble(doubleValue);
+				} else {
+					output.write(STRING_VALUE);
+					writeString(value);
+				}
+			}
+		}
+
+		/**
+		 * Writes a reference to a string. The first time a string is written,
+		 * its contents are written and it is given the next index.
+		 *
+		 * @param string
+		 *            The string.
+		 * @throws IOException
+		 */
+		private void writeString(String string) throws IOException {
+			Integer index = strings.get(string);
+			if (index != null) {
+				writeVarint(index + 1);
+			} else {
+				strings.put(string, strings.size());
+				byte[] bytes = string.getBytes(UTF8);
+				writeVarint(0);
+				writeVarint(bytes.length);
+				output.write(bytes);
+			}
+		}
+
+		/**
+		 * Writes an unsigned varint.
+		 *
+		 * @param value
+		 *            The value. Negative values are written as large unsigned
+		 *            values.
+		 * @throws IOException
+		 */
+		private void writeVarint(long value) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				output.write((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			output.write((int) value);
+		}
+	}
+
+	/**
+	 * Writes XML from the binary format.
+	 *
+	 * @author Jordan Deyton
+	 *
+	 */
+	private static class Decoder {
+
+		/**
+		 * The binary input.
+		 */
+		private final DataInputStream input;
+		/**
+		 * The XML output.
+		 */
+		private final Writer writer;
+
+		/**
+		 * The strings that have been read, in order of their indices.
+		 */
+		private final List<String> strings;
+		/**
+		 * The names of the open elements.
+		 */
+		private final List<String> openElements;
+
+		/**
+		 * The default constructor.
+		 *
+		 * @param inputStream
+		 *            The binary input.
+		 * @param outputStream
+		 *            The XML output.
+		 */
+		public Decoder(InputStream inputStream, OutputStream outputStream) {
+			input = new DataInputStream(new BufferedInputStream(inputStream));
+			writer = new BufferedWriter(new OutputStreamWriter(outputStream,
+					UTF8));
+			strings = new ArrayList<String>();
+			openElements = new ArrayList<String>();
+		}
+
+		/**
+		 * Decodes the entire document.
+		 *
+		 * @throws IOException
+		 */
+		public void decode() throws IOException {
+
+			// Check the header.
+			byte[] header = new byte[MAGIC.length];
+			input.readFully(header);
+			if (!Arrays.equals(header, MAGIC)) {
+				throw new IOException("BinaryXMLCodec error: "
+						+ "The document is not in the binary format.");
+			}
+			long version = readVarint();
+			if (version > VERSION) {
+				throw new IOException("BinaryXMLCodec error: "
+						+ "The document has unsupported version " + version
+						+ ".");
+			}
+
+			writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+
+			// Read records until the end of the document.
+			int tag = input.readUnsignedByte();
+			while (tag != END_DOCUMENT) {
+				if (tag == START_ELEMENT) {
+					String name = readString();
+					writer.write('<');
+					writer.write(name);
+					long attributes = readVarint();
+					for (long i = 0; i < attributes; i++) {
+						writer.write(' ');
+						writer.write(readString());
+						writer.write("=\"");
+						writeEscaped(readValue(), true);
+						writer.write('"');
+					}
+					writer.write('>');
+					openElements.add(name);
+				} else if (tag == END_ELEMENT) {
+					if (openElements.isEmpty()) {
+						throw new IOException("BinaryXMLCodec error: "
+								+ "Unexpected end of element.");
+					}
+					writer.write("</");
+					writer.write(openElements.remove(openElements.size() - 1));
+					writer.write('>');
+				} else if (tag == TEXT) {
+					writeEscaped(readValue(), false);
+				} else if (tag == DOUBLE_RUN || tag == LONG_RUN) {
+					String name = readString();
+					long count = readVarint();
+					for (long i = 0; i < count; i++) {
+						String value = (tag == DOUBLE_RUN ? Double
+								.toString(input.readDouble()) : Long
+								.toString(unZigZag(readVarint())));
+						writer.write('<');
+						writer.write(name);
+						writer.write('>');
+						writer.write(value);
+						writer.write("</");
+						writer.write(name);
+						writer.write('>');
+					}
+				} else {
+					throw new IOException("BinaryXMLCodec error: "
+							+ "Unknown record " + tag + ".");
+				}
+				tag = input.readUnsignedByte();
+			}
+
+			writer.flush();
+
+			return;
+		}
+
+		/**
+		 * Reads a value.
+		 *
+		 * @return The value as it was written in the XML.
+		 * @throws IOException
+		 */
+		private String readValue() throws IOException {
+			int type = input.readUnsignedByte();
+			if (type == LONG_VALUE) {
+				return Long.toString(unZigZag(readVarint()));
+			} else if (type == DOUBLE_VALUE) {
+				return Double.toString(input.readDouble());
+			} else if (type == STRING_VALUE) {
+				return readString();
+			}
+			throw new IOException("BinaryXMLCodec error: Unknown value type "
+					+ type + ".");
+		}
+
+		/**
+		 * Reads a reference to a string, reading the string itself if this is
+		 * its first reference.
+		 *
+		 * @return The string.
+		 * @throws IOException
+		 */
+		private String readString() throws IOException {
+			long index = readVarint();
+			if (index == 0) {
+				byte[] bytes = new byte[(int) readVarint()];
+				input.readFully(bytes);
+				String string = new String(bytes, UTF8);
+				strings.add(string);
+				return string;
+			} else if (index <= strings.size()) {
+				return strings.get((int) index - 1);
+			}
+			throw new IOException("BinaryXMLCodec error: "
+					+ "Invalid string reference " + index + ".");
+		}
+
+		/**
+		 * Reads an unsigned varint.
+		 *
+		 * @return The value.
+		 * @throws IOException
+		 */
+		private long readVarint() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = input.readUnsignedByte();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new EOFException("BinaryXMLCodec error: Invalid varint.");
+		}
+
+		/**
+		 * Writes text with the XML special characters escaped.
+		 *
+		 * @param text
+		 *            The text.
+		 * @param attribute
+		 *            Whether the text is an attribute value, in which case
+		 *            quotes and whitespace characters are also escaped.
+		 * @throws IOException
+		 */
+		private void writeEscaped(String text, boolean attribute)
+				throws IOException {
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c == '&') {
+					writer.write("&amp;");
+				} else if (c == '<') {
+					writer.write("&lt;");
+				} else if (c == '>') {
+					writer.write("&gt;");
+				} else if (c == '\r') {
+					writer.write("&#13;");
+				} else if (attribute && c == '"') {
+					writer.write("&quot;");
+				} else if (attribute && c == '\n') {
+					writer.write("&#10;");
+				} else if (attribute && c == '\t') {
+					writer.write("&#9;");
+				} else {
+					writer.write(c);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the qualified name of an element or attribute.
+	 *
+	 * @param prefix
+	 *            The namespace prefix, which may be null or empty.
+	 * @param localName
+	 *            The local name.
+	 * @return The qualified name.
+	 */
+	private static String getName(String prefix, String localName) {
+		return (prefix == null || prefix.isEmpty() ? localName : prefix + ":"
+				+ localName);
+	}
+
+	/**
+	 * @param event
+	 *            A StAX event type.
+	 * @return True if the event contains text, false otherwise.
+	 */
+	private static boolean isText(int event) {
+		return event == XMLStreamConstants.CHARACTERS
+				|| event == XMLStreamConstants.CDATA
+				|| event == XMLStreamConstants.SPACE;
+	}
+
+	/**
+	 * @param text
+	 *            Some text.
+	 * @return True if the text only contains whitespace, false otherwise.
+	 */
+	private static boolean isWhitespace(CharSequence text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses an integer that is written exactly as Java would print it.
+	 *
+	 * @param text
+	 *            The text.
+	 * @return The integer, or null if the text is not such an integer.
+	 */
+	private static Long parseLong(String text) {
+		if (text.isEmpty() || text.length() > 20 || !startsLikeNumber(text)) {
+			return null;
+		}
+		try {
+			long value = Long.parseLong(text);
+			return (Long.toString(value).equals(text) ? value : null);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses a double that is written exactly as Java would print it.
+	 *
+	 * @param text
+	 *            The text.
+	 * @return The double, or null if the text is not such a double.
+	 */
+	private static Double parseDouble(String text) {
+		if (text.isEmpty() || text.length() > 32 || !startsLikeNumber(text)) {
+			return null;
+		}
+		try {
+			double value = Double.parseDouble(text);
+			return (Double.toString(value).equals(text) ? value : null);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param text
+	 *            Some non-empty text.
+	 * @return True if the text starts with a digit or a minus sign, false
+	 *         otherwise.
+	 */
+	private static boolean startsLikeNumber(String text) {
+		char c = text.charAt(0);
+		return (c >= '0' && c <= '9') || c == '-';
+	}
+
+	/**
+	 * Maps a signed integer to an unsigned integer so that small negative
+	 * values have short varints.
+	 *
+	 * @param value
+	 *            The signed integer.
+	 * @return The unsigned integer.
+	 */
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Reverses {@link #zigZag(long)}.
+	 *
+	 * @param value
+	 *            The unsigned integer.
+	 * @return The signed integer.
+	 */
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
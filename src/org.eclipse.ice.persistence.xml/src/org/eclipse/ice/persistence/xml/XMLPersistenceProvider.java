@@ -14,6 +14,8 @@ package org.eclipse.ice.persistence.xml;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.List;
@@ -23,10 +25,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.naming.OperationNotSupportedException;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -36,6 +35,8 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.ice.core.iCore.IPersistenceProvider;
+import org.eclipse.ice.datastructures.ICEObject.JAXBContextRegistry;
+import org.eclipse.ice.datastructures.ICEObject.PooledJAXBContext;
 import org.eclipse.ice.datastructures.form.Entry;
 import org.eclipse.ice.datastructures.form.Form;
 import org.eclipse.ice.datastructures.jaxbclassprovider.IJAXBClassProvider;
@@ -161,10 +162,9 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 	private List<IJAXBClassProvider> classProviders;
 
 	/**
-	 * The JAXBContext that is used to create (un)marshalling tools for the XML
-	 * files.
+	 * The shared JAXB context that is used to (un)marshal the XML files.
 	 */
-	JAXBContext context;
+	PooledJAXBContext context;
 
 	/**
 	 * Empty default constructor. No work to do.
@@ -218,12 +218,15 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 			// Get the list of files in the project space
 			members = project.members();
 			for (IResource resource : members) {
-				// Only add the resources that are xml files with the format
+				// Only add the resources that are Item files with the format
 				// that we expect. This uses a regular expression that checks
-				// for <itemName>_<itemId>.xml.
+				// for <itemName>_<itemId>.<extension>. Files stored as xml are
+				// always included so that they can still be loaded if the
+				// provider uses a different extension.
 				if (resource.getType() == IResource.FILE
 						&& resource.getName().matches(
-								"^[a-zA-Z0-9_\\-]*_\\d+\\.xml$")) {
+								"^[a-zA-Z0-9_\\-]*_\\d+\\.(" + getFileExtension()
+										+ "|xml)$")) {
 					names.add(resource.getName());
 				}
 			}
@@ -240,8 +243,12 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 				String[] nameMinusExtParts = nameMinusExt.split("_");
 				String idString = nameMinusExtParts[nameMinusExtParts.length - 1];
 				id = Integer.valueOf(idString);
-				// Put the info in the map
-				itemIdMap.put(id, name);
+				// Put the info in the map, preferring the provider's own
+				// extension if the Item was stored with both
+				if (!itemIdMap.containsKey(id)
+						|| name.endsWith("." + getFileExtension())) {
+					itemIdMap.put(id, name);
+				}
 			}
 
 		} catch (CoreException e) {
@@ -297,7 +304,6 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 	private void createJAXBContext() throws JAXBException {
 		// Make an array to store the class list of registered Items
 		ArrayList<Class> classList = new ArrayList<Class>();
-		Class[] classArray = {};
 		// Create the list of classes for the JAXBContext
 		for (Item refItem : referenceItems) {
 			classList.add(refItem.getClass());
@@ -308,14 +314,11 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 		// read from all of the Items above.
 		// classList.add(Material.class);
 
-		// Now add all Classes provided by the registered
-		// IJAXBClassProviders.
-		for (IJAXBClassProvider provider : classProviders) {
-			classList.addAll(provider.getClasses());
-		}
-
-		// Create new JAXB class context and unmarshaller
-		context = JAXBContext.newInstance(classList.toArray(classArray));
+		// Get the shared JAXB context for these classes and all Classes
+		// provided by the registered IJAXBClassProviders. The context itself
+		// is created now so that the first load does not pay for it.
+		context = JAXBContextRegistry.getContext(classProviders, classList);
+		context.getContext();
 	}
 
 	/**
@@ -424,30 +427,57 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 	}
 
 	/**
-	 * This operation returns an output stream containing the XML representation
-	 * of an Item stored in a QueuedTask.
+	 * This operation returns the extension, without the period, of the files
+	 * used to store Items.
+	 * 
+	 * @return The file extension. The default is "xml".
+	 */
+	protected String getFileExtension() {
+		return "xml";
+	}
+
+	/**
+	 * This operation creates the contents of the file for an object. By
+	 * default, this is the object's XML.
 	 * 
 	 * @param obj
-	 *            the object to write to the stream
-	 * @return the output stream containing the Item as XML
+	 *            the object to write
+	 * @return the contents of the file
+	 * @throws IOException
+	 *             An exception indicating that the contents could not be
+	 *             created. Nothing should be written in this case.
 	 */
-	private ByteArrayOutputStream createXMLStream(Object obj) {
+	protected byte[] createFileContents(Object obj) throws IOException {
 		// Get the XML
 		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-		// Create the marshaller and write the item
-		Marshaller marshaller;
+		// Write the item with a pooled marshaller
 		try {
-			marshaller = context.createMarshaller();
-			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT,
-					Boolean.TRUE);
-			marshaller.marshal(obj, outputStream);
+			context.marshal(obj, outputStream);
 		} catch (JAXBException e) {
-			// Complain
-			logger.error(getClass().getName() + " Exception!",e);
-			logger.info("XMLPersistenceProvider Message: "
-					+ "Failed to execute persistence task for " + obj);
+			throw new IOException("XMLPersistenceProvider error: "
+					+ "Failed to create the XML for " + obj, e);
 		}
-		return outputStream;
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * This operation reads an object from the contents of a file created by
+	 * {@link #createFileContents(Object)}.
+	 * 
+	 * @param inputStream
+	 *            the contents of the file
+	 * @param streaming
+	 *            whether the XML should be streamed in, which is intended for
+	 *            large objects like Forms
+	 * @return the object read from the file
+	 * @throws JAXBException
+	 *             An exception indicating that the XML could not be read.
+	 * @throws IOException
+	 *             An exception indicating that the file could not be read.
+	 */
+	protected Object readFileContents(InputStream inputStream,
+			boolean streaming) throws JAXBException, IOException {
+		return context.unmarshal(inputStream, streaming);
 	}
 
 	/**
@@ -457,13 +487,26 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 	 *            The object to be written
 	 * @param file
 	 *            The file to where it should be written
+	 * @return True if the file was written, false otherwise. The file is left
+	 *         untouched if its contents could not be created.
 	 */
-	private void writeFile(Object obj, IFile file) {
-		// Create an output stream containing the XML.
-		ByteArrayOutputStream outputStream = createXMLStream(obj);
-		// Convert it to an input stream so it can be pushed to file
-		ByteArrayInputStream inputStream = new ByteArrayInputStream(
-				outputStream.toByteArray());
+	private boolean writeFile(Object obj, IFile file) {
+
+		// Local Declarations
+		ByteArrayInputStream inputStream;
+
+		// Create the contents before touching the file so that a failure does
+		// not leave it empty
+		try {
+			inputStream = new ByteArrayInputStream(createFileContents(obj));
+		} catch (IOException e) {
+			// Complain
+			logger.error(getClass().getName() + " Exception!",e);
+			logger.info("XMLPersistenceProvider Message: "
+					+ "Failed to execute persistence task for " + obj);
+			return false;
+		}
+
 		try {
 			// Update the output file if it already exists
 			if (file.exists()) {
@@ -475,8 +518,10 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 		} catch (CoreException e) {
 			// Complain
 			logger.error(getClass().getName() + " Exception!",e);
+			return false;
 		}
-		return;
+
+		return true;
 	}
 
 	/**
@@ -489,6 +534,7 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 
 		// Local Declarations
 		String name = null;
+		String storedName;
 		IFile file = null;
 
 		try {
@@ -499,17 +545,32 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 						|| "delete".equals(currentTask.task)) {
 					// Setup the file name
 					name = currentTask.item.getName().replaceAll("\\s+", "_")
-							+ "_" + currentTask.item.getId() + ".xml";
+							+ "_" + currentTask.item.getId() + "."
+							+ getFileExtension();
+					// Deletes use the file the Item is stored in, which may
+					// have been written with a different extension
+					storedName = itemIdMap.get(currentTask.item.getId());
+					if ("delete".equals(currentTask.task) && storedName != null) {
+						name = storedName;
+					}
 					// Get the file in the project
 					file = project.getFile(name);
 				}
 				// Process persists
 				if ("persist".equals(currentTask.task)
 						&& !(currentTask.item instanceof ReactorAnalyzer)) {
-					// Send the Item off to be written to the file
-					writeFile(currentTask.item, file);
-					// Update the item id map
-					itemIdMap.put(currentTask.item.getId(), file.getName());
+					// Send the Item off to be written to the file and update
+					// the item id map if it was written
+					if (writeFile(currentTask.item, file)) {
+						storedName = itemIdMap.put(currentTask.item.getId(),
+								file.getName());
+						// Remove the file the Item was stored in before if it
+						// had a different name or extension
+						if (storedName != null && !storedName.equals(name)
+								&& project.getFile(storedName).exists()) {
+							project.getFile(storedName).delete(true, null);
+						}
+					}
 				} else if ("delete".equals(currentTask.task) && file.exists()) {
 					// Handle deletes
 					file.delete(true, null);
@@ -647,16 +708,20 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 			// If the map contains the item, load it.
 			fileName = itemIdMap.get(itemID);
 			if (fileName != null) {
-				// Create the unmarshaller and load the item
-				Unmarshaller unmarshaller = context.createUnmarshaller();
-				item = (Item) unmarshaller.unmarshal(project.getFile(fileName)
-						.getContents());
+				// Load the item with a pooled unmarshaller
+				item = (Item) readFileContents(project.getFile(fileName)
+						.getContents(), false);
 			}
 		} catch (CoreException e) {
 			// Complain
 			logger.error(getClass().getName() + " Exception!",e);
 			// Null out the Item so that it can't be returned uninitialized
 			item = null;
+		} catch (IOException e) {
+			// Complain
+			logger.error(getClass().getName() + " Exception!",e);
+			// Null out the Item so that it can't be returned uninitialized
+			item = null;
 		} catch (JAXBException e) {
 			// Complain
 			logger.error(getClass().getName() + " Exception!",e);
@@ -776,10 +841,10 @@ public class XMLPersistenceProvider implements IPersistenceProvider, Runnable,
 		Form form = null;
 
 		try {
-			// Create the marshaller
-			Unmarshaller unmarshaller = context.createUnmarshaller();
-			// Grab the form
-			form = (Form) unmarshaller.unmarshal(file.getContents());
+			// Grab the form. Forms can be large, so stream them in.
+			form = (Form) readFileContents(file.getContents(), true);
+		} catch (IOException e) {
+			logger.error(getClass().getName() + " Exception!",e);
 		} catch (JAXBException e) {
 			// TODO Auto-generated catch block
 			logger.error(getClass().getName() + " Exception!",e);
@@ -54,6 +54,14 @@ import org.eclipse.jface.viewers.Viewer;
  */
 public class ReactorTreeContentProvider implements ITreeContentProvider {
 
+	/**
+	 * The factory used to read reactor files. It keeps the files open so that
+	 * their data can be read when it is needed, so it is closed when this
+	 * provider is disposed. Closing it reads the remaining data into the
+	 * reactors, so reactors shown in editors stay usable.
+	 */
+	private final ReactorReaderFactory readerFactory = new ReactorReaderFactory();
+
 	/**
 	 * A ParentVisitor is used to get the parent object for an
 	 * IReactorComponent.
@@ -388,6 +396,7 @@ public class ReactorTreeContentProvider implements ITreeContentProvider {
 
 	@Override
 	public void dispose() {
+		readerFactory.close();
 		return;
 	}
 
@@ -482,8 +491,7 @@ public class ReactorTreeContentProvider implements ITreeContentProvider {
 			// references to the LWR and SFR readers.
 			else {
 				// Read the first structure from the reactor file.
-				ReactorReaderFactory reader = new ReactorReaderFactory();
-				IReactorComponent parentRC = reader.readReactor(resource
+				IReactorComponent parentRC = readerFactory.readReactor(resource
 						.getPath());
 
 				// Add the parent component to the return structure
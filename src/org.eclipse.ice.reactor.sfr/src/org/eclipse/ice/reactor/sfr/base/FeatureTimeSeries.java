@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.reactor.sfr.base;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A FeatureTimeSeries stores all of the data for a single feature of an
+ * {@link SFRComponent} across every time in one primitive array. Each piece of
+ * data is stored as a row of {@link #STRIDE} doubles: the value, the
+ * uncertainty, the three position coordinates, and the ID of the units in the
+ * owning {@link SFRDataStore}. This is the same layout used for the state point
+ * data Datasets in SFR HDF5 files.
+ * </p>
+ * <p>
+ * The rows are sorted by time, and the rows for each time are contiguous, so
+ * the data for a time can be read or written as a single block.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class FeatureTimeSeries {
+
+	/**
+	 * The number of doubles stored for each piece of data.
+	 */
+	public static final int STRIDE = 6;
+	/**
+	 * The column containing the value.
+	 */
+	public static final int VALUE = 0;
+	/**
+	 * The column containing the uncertainty.
+	 */
+	public static final int UNCERTAINTY = 1;
+	/**
+	 * The first of the three columns containing the position.
+	 */
+	public static final int POSITION = 2;
+	/**
+	 * The column containing the ID of the units.
+	 */
+	public static final int UNITS = 5;
+
+	/**
+	 * The name of the feature.
+	 */
+	private final String feature;
+
+	/**
+	 * The times that have data, in increasing order.
+	 */
+	private double[] times;
+	/**
+	 * The index of the first row for each time.
+	 */
+	private int[] offsets;
+	/**
+	 * The number of rows for each time.
+	 */
+	private int[] counts;
+	/**
+	 * The number of times in use.
+	 */
+	private int timeCount;
+
+	/**
+	 * The rows of data.
+	 */
+	private double[] rows;
+	/**
+	 * The number of rows in use.
+	 */
+	private int rowCount;
+
+	/**
+	 * The default constructor. Creates an empty series.
+	 *
+	 * @param feature
+	 *            The name of the feature.
+	 */
+	public FeatureTimeSeries(String feature) {
+		this.feature = feature;
+		times = new double[4];
+		offsets = new int[4];
+		counts = new int[4];
+		rows = new double[4 * STRIDE];
+	}
+
+	/**
+	 * Creates a series from existing arrays without copying them.
+	 *
+	 * @param feature
+	 *            The name of the feature.
+	 * @param times
+	 *            The times, in increasing order.
+	 * @param offsets
+	 *            The index of the first row for each time. The rows for each
+	 *            time must directly follow the rows for the previous time.
+	 * @param counts
+	 *            The number of rows for each time.
+	 * @param rows
+	 *            The rows of data.
+	 */
+	public FeatureTimeSeries(String feature, double[] times, int[] offsets,
+			int[] counts, double[] rows) {
+		this.feature = feature;
+		this.times = times;
+		this.offsets = offsets;
+		this.counts = counts;
+		this.rows = rows;
+		timeCount = times.length;
+		rowCount = (timeCount > 0 ? offsets[timeCount - 1]
+				+ counts[timeCount - 1] : 0);
+	}
+
+	/**
+	 * A copy constructor. The arrays are copied and trimmed to their size.
+	 *
+	 * @param series
+	 *            The series to copy.
+	 */
+	public FeatureTimeSeries(FeatureTimeSeries series) {
+		feature = series.feature;
+		timeCount = series.timeCount;
+		rowCount = series.rowCount;
+		times = Arrays.copyOf(series.times, timeCount);
+		offsets = Arrays.copyOf(series.offsets, timeCount);
+		counts = Arrays.copyOf(series.counts, timeCount);
+		rows = Arrays.copyOf(series.rows, rowCount * STRIDE);
+	}
+
+	/**
+	 * @return The name of the feature.
+	 */
+	public String getFeature() {
+		return feature;
+	}
+
+	/**
+	 * @return The number of times that have data.
+	 */
+	public int getTimeCount() {
+		return timeCount;
+	}
+
+	/**
+	 * Gets a time.
+	 *
+	 * @param index
+	 *            The index of the time.
+	 * @return The time.
+	 */
+	public double getTime(int index) {
+		return times[index];
+	}
+
+	/**
+	 * Finds the index of a time.
+	 *
+	 * @param time
+	 *            The time.
+	 * @return The index of the time, or -1 if the series has no data at the
+	 *         time.
+	 */
+	public int getTimeIndex(double time) {
+		int index = Arrays.binarySearch(times, 0, timeCount, time);
+		return (index >= 0 ? index : -1);
+	}
+
+	/**
+	 * Gets the index of the first row for a time.
+	 *
+	 * @param index
+	 *            The index of the time.
+	 * @return The index of the time's first row.
+	 */
+	public int getRowOffset(int index) {
+		return offsets[index];
+	}
+
+	/**
+	 * Gets the number of rows for a time.
+	 *
+	 * @param index
+	 *            The index of the time.
+	 * @return The number of rows for the time.
+	 */
+	public int getRowCount(int index) {
+		return counts[index];
+	}
+
+	/**
+	 * @return The number of rows for all times.
+	 */
+	public int getTotalRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Gets the array containing the rows. The array may be larger than
+	 * {@link #getTotalRowCount()} rows and should not be modified.
+	 *
+	 * @return The rows of data.
+	 */
+	public double[] getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets a single value from a row.
+	 *
+	 * @param row
+	 *            The index of the row.
+	 * @param column
+	 *            The column, e.g., {@link #VALUE}.
+	 * @return The value.
+	 */
+	public double get(int row, int column) {
+		return rows[row * STRIDE + column];
+	}
+
+	/**
+	 * Adds rows of data after any existing rows for a time.
+	 *
+	 * @param time
+	 *            The time of the data.
+	 * @param source
+	 *            The array containing the new rows.
+	 * @param sourceRow
+	 *            The index of the first new row in the source array.
+	 * @param count
+	 *            The number of rows to add.
+	 */
+	public void addRows(double time, double[] source, int sourceRow, int count) {
+
+		// Local Declarations
+		int index = Arrays.binarySearch(times, 0, timeCount, time);
+		int insertRow;
+
+		if (count <= 0) {
+			return;
+		}
+
+		// Find where the rows go, adding the time if necessary.
+		if (index >= 0) {
+			insertRow = offsets[index] + counts[index];
+		} else {
+			index = -index - 1;
+			insertRow = (index < timeCount ? offsets[index] : rowCount);
+			if (timeCount == times.length) {
+				int capacity = Math.max(4, timeCount * 2);
+				times = Arrays.copyOf(times, capacity);
+				offsets = Arrays.copyOf(offsets, capacity);
+				counts = Arrays.copyOf(counts, capacity);
+			}
+			int moved = timeCount - index;
+			System.arraycopy(times, index, times, index + 1, moved);
+			System.arraycopy(offsets, index, offsets, index + 1, moved);
+			System.arraycopy(counts, index, counts, index + 1, moved);
+			times[index] = time;
+			offsets[index] = insertRow;
+			counts[index] = 0;
+			timeCount++;
+		}
+
+		// Make room for the rows. Data is usually added in time order, in which
+		// case nothing needs to be moved.
+		if ((rowCount + count) * STRIDE > rows.length) {
+			rows = Arrays.copyOf(rows,
+					Math.max(rowCount * 2, rowCount + count) * STRIDE);
+		}
+		System.arraycopy(rows, insertRow * STRIDE, rows, (insertRow + count)
+				* STRIDE, (rowCount - insertRow) * STRIDE);
+		System.arraycopy(source, sourceRow * STRIDE, rows, insertRow * STRIDE,
+				count * STRIDE);
+		rowCount += count;
+
+		// Update the indexes of the affected times.
+		counts[index] += count;
+		for (int i = index + 1; i < timeCount; i++) {
+			offsets[i] += count;
+		}
+
+		return;
+	}
+}
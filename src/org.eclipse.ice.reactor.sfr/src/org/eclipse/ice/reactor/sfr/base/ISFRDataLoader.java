@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.reactor.sfr.base;
+
+/**
+ * <p>
+ * An ISFRDataLoader loads the state point data for an {@link SFRComponent} the
+ * first time the data is needed. This allows a reactor to be read without
+ * reading the data for every one of its components.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ * @see SFRComponent#setDataLoader(ISFRDataLoader)
+ * @see SFRDataFile
+ */
+public interface ISFRDataLoader {
+
+	/**
+	 * Loads the data for a component. This is called without holding the
+	 * component's lock, and it may be called again after the component's data
+	 * has been unloaded.
+	 *
+	 * @param component
+	 *            The component whose data should be loaded.
+	 * @return A new store containing the component's data. This should never
+	 *         be null.
+	 * @throws IllegalStateException
+	 *             Thrown if the data can no longer be loaded, for instance
+	 *             because its file was closed. The component stays unloaded.
+	 */
+	public SFRDataStore load(SFRComponent component);
+
+	/**
+	 * Records that a component used the data it loaded, so that data that was
+	 * used less recently can be unloaded first. This is called without
+	 * holding the component's lock.
+	 *
+	 * @param component
+	 *            The component whose loaded data was used.
+	 */
+	public void dataUsed(SFRComponent component);
+}
@@ -13,13 +13,11 @@
 package org.eclipse.ice.reactor.sfr.base;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import org.eclipse.ice.analysistool.IData;
 import org.eclipse.ice.analysistool.IDataProvider;
@@ -93,12 +91,50 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 	private String timeUnits;
 	/**
 	 * <p>
-	 * A TreeMap implementation of IData and features. Keep in mind that there
+	 * The store of IData for all features and times. Keep in mind that there
 	 * can be multiple IData for the same feature.
 	 * </p>
 	 * 
 	 */
-	private TreeMap<Double, HashMap<String, FeatureSet>> dataTree;
+	private SFRDataStore dataStore;
+
+	/**
+	 * <p>
+	 * If not null, this loads the data store the first time it is needed. It
+	 * is cleared when the data is modified so that modified data is never
+	 * unloaded.
+	 * </p>
+	 * 
+	 */
+	private ISFRDataLoader dataLoader;
+
+	/**
+	 * <p>
+	 * Whether the data store has been loaded. This is always true when there
+	 * is no data loader.
+	 * </p>
+	 * 
+	 */
+	private boolean loaded;
+
+	/**
+	 * <p>
+	 * The hash of the data that was loaded by {@link #hashedLoader}. It is
+	 * used to hash this component without loading the data again after it
+	 * has been unloaded.
+	 * </p>
+	 * 
+	 */
+	private int dataHash;
+
+	/**
+	 * <p>
+	 * The data loader that loaded the data hashed in {@link #dataHash}, or
+	 * null if the hash has not been computed.
+	 * </p>
+	 * 
+	 */
+	private ISFRDataLoader hashedLoader;
 
 	/**
 	 * <p>
@@ -109,6 +145,24 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 	 */
 	private List<IUpdateableListener> listeners;
 
+	/**
+	 * <p>
+	 * The executor used to notify listeners of all SFRComponents. It uses a
+	 * single thread so that notifications are delivered in order.
+	 * </p>
+	 * 
+	 */
+	private static final ExecutorService notifier = Executors
+			.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable,
+							"SFRComponent Notifier");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
 	/**
 	 * <p>
 	 * Nullary constructor.
@@ -129,11 +183,12 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 		time = 0.0;
 		timeUnits = "seconds";
 
-		// Initialize the tree used to store IData.
-		dataTree = new TreeMap<Double, HashMap<String, FeatureSet>>();
+		// Initialize the store used for IData.
+		dataStore = new SFRDataStore();
+		loaded = true;
 
 		// Initialize the List of listeners.
-		listeners = new ArrayList<IUpdateableListener>();
+		listeners = new CopyOnWriteArrayList<IUpdateableListener>();
 
 		return;
 	}
@@ -170,27 +225,20 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 		if (listeners.isEmpty()) {
 			return;
 		}
-		// Notify the listeners through a separate thread.
-		Thread notifierThread = new Thread() {
+		// Notify the listeners through the shared notifier thread.
+		notifier.execute(new Runnable() {
 			@Override
 			public void run() {
 
-				// Loop over the listeners and update them.
-				for (int i = 0; i < listeners.size(); i++) {
-					listeners.get(i).update(SFRComponent.this);
+				// Loop over the listeners and update them. The list is
+				// copy-on-write, so listeners may register during the loop.
+				for (IUpdateableListener listener : listeners) {
+					listener.update(SFRComponent.this);
 				}
-				// FIXME - The iterator-based loop below throws
-				// ConcurrentModificationExceptions. Although the List itself is
-				// not modified, the listeners in it may be.
-				// for (IUpdateableListener listener : listeners)
-				// listener.update(SFRComponent.this);
 
 				return;
 			}
-		};
-
-		// Start the thread to send out the notifications.
-		notifierThread.start();
+		});
 
 		return;
 	}
@@ -311,14 +359,15 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 
 	/**
 	 * <p>
-	 * Adds a IData piece, keyed on the feature and time, to the dataTree. If
-	 * the feature exists in the tree, it will append to the end of the list.
+	 * Adds a IData piece, keyed on the feature and time, to the data store. If
+	 * the feature exists in the store, it will append to the end of the list.
 	 * </p>
 	 * 
 	 * @param data
-	 *            The piece of data to be added to the dataTree. Cannot be null.
+	 *            The piece of data to be added to the data store. Cannot be
+	 *            null.
 	 * @param time
-	 *            The time at which the data will be added to the dataTree. If
+	 *            The time at which the data will be added to the data store. If
 	 *            the time does not exist, it will be created. Time cannot be
 	 *            negative.
 	 */
@@ -328,44 +377,21 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 		if (data == null || time < 0) {
 			return;
 		}
-		// Get the name of the feature in the data.
-		String feature = data.getFeature();
-
-		// Get the list of FeatureSets for the time in the data tree.
-		HashMap<String, FeatureSet> featureSetMap = dataTree.get(time);
-
-		// If the timestep is not in the map, add a new entry in the data tree.
-		if (featureSetMap == null) {
-			// Initialize a new list of FeatureSets and add it to the tree.
-			featureSetMap = new HashMap<String, FeatureSet>();
-			dataTree.put(time, featureSetMap);
-		}
-
-		// At this point, we have a FeatureSet Map that is in the data tree. Try
-		// to get the FeatureSet for the feature name.
-		FeatureSet featureSet = featureSetMap.get(feature);
-
-		// If no existing set matches the feature name, create a new set.
-		if (featureSet == null) {
-			// Create a new FeatureSet and add it to the list.
-			featureSet = new FeatureSet(feature);
-			featureSetMap.put(feature, featureSet);
-		}
+		// Add the data to the store and notify listeners.
+		getModifiableStore().addData(data, time);
+		notifyListeners();
 
-		// We have either found or created a FeatureSet. Add the data to it and
-		// notify listeners if the data has changed.
-		if (featureSet.addIData(data)) {
-			notifyListeners();
-		}
 		return;
 	}
 
 	/**
 	 * <p>
-	 * Removes the feature and all associated IData from the dataTree at all
-	 * time steps. If a user wishes to remove a single piece of IData from the
-	 * tree, then use the appropriate getData operation on that feature and
-	 * manipulate the data that way.
+	 * Removes the feature and all associated IData from the data store at all
+	 * time steps. The IData returned by {@link #getDataAtCurrentTime(String)}
+	 * are copies, so a single piece of IData cannot be removed through them.
+	 * To remove or change individual pieces of IData, remove the feature and
+	 * add the remaining data again, or modify the series for the feature in
+	 * the {@link #getDataStore()} and call {@link #notifyListeners()}.
 	 * </p>
 	 * 
 	 * @param feature
@@ -378,21 +404,8 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 		if (feature == null) {
 			return;
 		}
-		// Whether or not we have removed data.
-		boolean updated = false;
-
-		// For each list of FeatureSets, remove the feature's data.
-		for (HashMap<String, FeatureSet> featureSetMap : dataTree.values()) {
-
-			// Remove any FeatureSet with the feature name. If the Map returns a
-			// non-null value, then we have removed something.
-			if (featureSetMap.remove(feature) != null) {
-				updated = true;
-			}
-		}
-
 		// If we have removed data, notify listeners of this change.
-		if (updated) {
+		if (getModifiableStore().removeFeature(feature)) {
 			notifyListeners();
 		}
 		return;
@@ -500,13 +513,75 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 					&& name.equals(component.name)
 					&& description.equals(component.description)
 					&& timeUnits.equals(component.timeUnits)
-					&& sourceInfo.equals(component.sourceInfo) && dataTree
-					.equals(component.dataTree));
+					&& sourceInfo.equals(component.sourceInfo)
+					&& dataEquals(component));
 		}
 
 		return equals;
 	}
 
+	/**
+	 * <p>
+	 * Compares the data of this component with the data of another component.
+	 * Components that get their unmodified data from the same loader have the
+	 * same data, so it is not loaded to compare them.
+	 * </p>
+	 * 
+	 * @param component
+	 *            The other component.
+	 * @return True if the data is equal, false otherwise.
+	 */
+	private boolean dataEquals(SFRComponent component) {
+
+		// Local Declarations
+		ISFRDataLoader loader, otherLoader;
+
+		synchronized (this) {
+			loader = dataLoader;
+		}
+		synchronized (component) {
+			otherLoader = component.dataLoader;
+		}
+
+		return (loader != null && loader == otherLoader)
+				|| getStore().equals(component.getStore());
+	}
+
+	/**
+	 * <p>
+	 * Gets the hash of this component's data. Data from a loader never
+	 * changes until it is modified, so its hash is remembered and the data is
+	 * not loaded again to compute it.
+	 * </p>
+	 * 
+	 * @return The hash of the data store.
+	 */
+	private int getDataHash() {
+
+		// Local Declarations
+		ISFRDataLoader loader;
+
+		synchronized (this) {
+			if (!loaded && dataLoader != null && hashedLoader == dataLoader) {
+				return dataHash;
+			}
+			loader = dataLoader;
+		}
+
+		int hash = getStore().hashCode();
+
+		// Only remember the hash if the data was not modified in the
+		// meantime.
+		synchronized (this) {
+			if (loader != null && dataLoader == loader) {
+				dataHash = hash;
+				hashedLoader = loader;
+			}
+		}
+
+		return hash;
+	}
+
 	/**
 	 * <p>
 	 * Returns the hashCode of the object.
@@ -528,7 +603,7 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 		hash += 31 * sourceInfo.hashCode();
 		hash += 31 * time;
 		hash += 31 * timeUnits.hashCode();
-		hash += 31 * dataTree.hashCode();
+		hash += 31 * getDataHash();
 
 		return hash;
 	}
@@ -578,17 +653,14 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 		time = component.time;
 		timeUnits = component.timeUnits;
 
-		// Copy the data tree used to store IData.
-		dataTree = new TreeMap<Double, HashMap<String, FeatureSet>>();
-
-		// FIXME - The corresponding LWR code also does a shallow copy here.
-		// Should we really do a deep copy on all of this? Otherwise, the
-		// documentation is sort of lying about deep copying.
-
-		// Perform a shallow copy on the data tree.
-		for (Entry<Double, HashMap<String, FeatureSet>> entry : component.dataTree
-				.entrySet()) {
-			dataTree.put(entry.getKey(), entry.getValue());
+		// Deep copy the store used for IData. Its data is stored in primitive
+		// arrays, so this is cheap. The other component's data is loaded
+		// first if necessary.
+		SFRDataStore store = new SFRDataStore(component.getStore());
+		synchronized (this) {
+			dataStore = store;
+			dataLoader = null;
+			loaded = true;
 		}
 
 		// Add the listeners from the other component.
@@ -692,48 +764,32 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 
 	/**
 	 * <!-- begin-UML-doc --> Returns an ArrayList of strings representing the
-	 * names of all features contained in the SFRComponent's dataTree. <!--
+	 * names of all features contained in the SFRComponent's data store. <!--
 	 * end-UML-doc -->
 	 * 
 	 * @return ArrayList of strings representing all unique features in the
-	 *         dataTree.
+	 *         data store.
 	 * @see IDataProvider#getFeatureList()
 	 */
 	@Override
 	public ArrayList<String> getFeatureList() {
 
-		// Initialize the list of feature names.
-		ArrayList<String> featureList = new ArrayList<String>();
-
-		// Initialize a Set of Strings to hold only unique feature names.
-		Set<String> featureNames = new HashSet<String>();
-
-		// Loop over all of the lists of FeatureSets.
-		for (HashMap<String, FeatureSet> featureSetMap : dataTree.values()) {
-
-			// Add all of the features (keys) from this key set.
-			featureNames.addAll(featureSetMap.keySet());
-		}
-
-		// Add each name from the Set to the List.
-		featureList.addAll(featureNames);
-
 		// Return the list of feature names.
-		return featureList;
+		return getStore().getFeatures();
 	}
 
 	/**
 	 * <!-- begin-UML-doc --> Returns the total number of time steps contained
-	 * in the SFRComponent's dataTree. <!-- end-UML-doc -->
+	 * in the SFRComponent's data store. <!-- end-UML-doc -->
 	 * 
-	 * @return Returns the total time steps in the dataTree.
+	 * @return Returns the total time steps in the data store.
 	 * @see IDataProvider#getNumberOfTimeSteps()
 	 */
 	@Override
 	public int getNumberOfTimeSteps() {
 
-		// Return the size of the data tree ( which is keyed on time values).
-		return dataTree.size();
+		// Return the number of times in the data store.
+		return getStore().getTimeCount();
 	}
 
 	/**
@@ -773,73 +829,63 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 
 		// Don't process anything if the parameter is invalid.
 		if (feature != null) {
+			return getStore().getData(feature, time);
+		}
 
-			// Get the list of FeatureSets at the current time.
-			HashMap<String, FeatureSet> featureSetMap = dataTree.get(time);
+		// No data was found, so return an empty list.
+		return new ArrayList<IData>();
+	}
 
-			// If the time is in the data tree, find the FeatureSet with the
-			// requested name.
-			if (featureSetMap != null) {
-				FeatureSet featureSet = featureSetMap.get(feature);
+	/**
+	 * <p>
+	 * Returns the number of IData for the specified feature at the current
+	 * time. Unlike {@link #getDataAtCurrentTime(String)}, this does not copy
+	 * the data.
+	 * </p>
+	 * 
+	 * @param feature
+	 *            The feature of IData to count. Cannot be null.
+	 * @return The number of IData with the specified feature at the current
+	 *         time, or 0 if there are none.
+	 */
+	public int getDataCountAtCurrentTime(String feature) {
 
-				// If the FeatureSet exists, get its data.
-				if (featureSet != null) {
-					return featureSet.getData();
-				}
-			}
+		// Don't process anything if the parameter is invalid.
+		if (feature != null) {
+			return getStore().getDataCount(feature, time);
 		}
 
-		// No data was found, so return an empty list.
-		return new ArrayList<IData>();
+		return 0;
 	}
 
 	/**
 	 * <!-- begin-UML-doc --> Returns an ArrayList of strings representing all
-	 * features found in the SFRComponent's dataTree, at the current time. <!--
+	 * features found in the SFRComponent's data store, at the current time. <!--
 	 * end-UML-doc -->
 	 * 
 	 * @return An ArrayList of strings representing all features in the
-	 *         dataTree, at the current time.
+	 *         data store, at the current time.
 	 * @see IDataProvider#getFeaturesAtCurrentTime()
 	 */
 	@Override
 	public ArrayList<String> getFeaturesAtCurrentTime() {
 
-		// Initialize the list of features to return.
-		ArrayList<String> features = new ArrayList<String>();
-
-		// Get the list of FeatureSets at the current time.
-		HashMap<String, FeatureSet> featureSets = dataTree.get(time);
-
-		// If the time is in the data tree, add all of the corresponding feature
-		// names to the list.
-		if (featureSets != null) {
-			features.addAll(featureSets.keySet());
-		}
-		// Return the list of features.
-		return features;
+		// Return the list of features at the current time.
+		return getStore().getFeatures(time);
 	}
 
 	/**
 	 * <!-- begin-UML-doc --> Returns an ArrayList of doubles representing all
-	 * times found in the SFRComponent's dataTree. <!-- end-UML-doc -->
+	 * times found in the SFRComponent's data store. <!-- end-UML-doc -->
 	 * 
-	 * @return An ArrayList of doubles representing all times in the dataTree.
+	 * @return An ArrayList of doubles representing all times in the data store.
 	 * @see IDataProvider#getTimes()
 	 */
 	@Override
 	public ArrayList<Double> getTimes() {
 
-		// Initialize the list of times.
-		ArrayList<Double> times = new ArrayList<Double>();
-
-		// Add each time in the data tree to the list.
-		for (double time : dataTree.keySet()) {
-			times.add(time);
-		}
-
 		// Return the list of times.
-		return times;
+		return getStore().getTimes();
 	}
 
 	/**
@@ -855,23 +901,142 @@ public class SFRComponent implements IReactorComponent, IDataProvider {
 	@Override
 	public int getTimeStep(double time) {
 
-		// Initialize an iterator over the data tree's keys and a counter.
-		Iterator<Double> iter = dataTree.keySet().iterator();
-		int counter = 0;
+		// Return the index of the time in the data store.
+		return getStore().getTimeStep(time);
+	}
+
+	/**
+	 * <p>
+	 * Returns the store that contains the IData for all features and times.
+	 * This can be used to add data in bulk. Listeners are not notified of
+	 * changes made directly to the store, so {@link #notifyListeners()}
+	 * should be called afterward. Since the store may be modified, this
+	 * detaches the component's data loader and the data is never unloaded.
+	 * The IDataProvider operations should be used to only read the data.
+	 * </p>
+	 * 
+	 * @return The store of IData.
+	 */
+	public SFRDataStore getDataStore() {
+		return getModifiableStore();
+	}
 
-		// Loop over the keys in the data tree.
-		while (iter.hasNext()) {
+	/**
+	 * <p>
+	 * Sets the loader used to read this component's data the first time it is
+	 * needed. Any data currently in the component is discarded, and listeners
+	 * are not notified.
+	 * </p>
+	 * 
+	 * @param loader
+	 *            The new data loader. If null, the component's data will be
+	 *            empty.
+	 */
+	public synchronized void setDataLoader(ISFRDataLoader loader) {
+		dataStore = new SFRDataStore();
+		dataLoader = loader;
+		loaded = (loader == null);
+	}
 
-			// If the key matches, return the key's index.
-			if (iter.next().equals(time)) {
-				return counter;
+	/**
+	 * <p>
+	 * Loads this component's data if necessary and detaches its data loader,
+	 * so that the data no longer depends on the loader and is never unloaded.
+	 * </p>
+	 * 
+	 * @throws IllegalStateException
+	 *             Thrown if the data loader can no longer load the data.
+	 */
+	public void detachDataLoader() {
+		getModifiableStore();
+		return;
+	}
+
+	/**
+	 * <p>
+	 * Releases this component's data if it was loaded by its data loader and
+	 * has not been modified since. The data is loaded again the next time it
+	 * is needed. Listeners are not notified.
+	 * </p>
+	 * 
+	 * @return True if the data was unloaded, false otherwise.
+	 */
+	public synchronized boolean unloadData() {
+		boolean unloaded = false;
+		if (dataLoader != null && loaded) {
+			dataStore = new SFRDataStore();
+			loaded = false;
+			unloaded = true;
+		}
+		return unloaded;
+	}
+
+	/**
+	 * <p>
+	 * Gets the data store, loading it first if necessary. The loader is called
+	 * without holding this component's lock so that a loader may unload other
+	 * components. The store must not be modified, since it may be unloaded
+	 * and read again. Use {@link #getDataStore()} to modify it.
+	 * </p>
+	 * 
+	 * @return The current data store.
+	 * @throws IllegalStateException
+	 *             Thrown if the data loader can no longer load the data.
+	 */
+	SFRDataStore getStore() {
+
+		// Local Declarations
+		ISFRDataLoader loader;
+		SFRDataStore current = null;
+
+		synchronized (this) {
+			loader = dataLoader;
+			if (loaded) {
+				current = dataStore;
+			}
+		}
+
+		// If the data is loaded, tell its loader that it is still in use.
+		if (current != null) {
+			if (loader != null) {
+				loader.dataUsed(this);
 			}
-			// Update the index counter.
-			counter++;
+			return current;
 		}
 
-		// A matching time was not found.
-		return -1;
+		SFRDataStore store = loader.load(this);
+
+		// Only use the loaded store if the loader was not changed while it was
+		// loading.
+		synchronized (this) {
+			if (!loaded && dataLoader == loader) {
+				dataStore = store;
+				loaded = true;
+			}
+			return dataStore;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Gets the data store, loading it first if necessary, and detaches the
+	 * data loader so that the store is never unloaded. This should be used
+	 * before modifying the store.
+	 * </p>
+	 * 
+	 * @return The current data store.
+	 */
+	private SFRDataStore getModifiableStore() {
+		while (true) {
+			SFRDataStore store = getStore();
+			synchronized (this) {
+				// If the data was unloaded in the meantime, load it again.
+				if (loaded && store == dataStore) {
+					dataLoader = null;
+					return store;
+				}
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.reactor.sfr.base;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import ncsa.hdf.hdf5lib.H5;
+import ncsa.hdf.hdf5lib.HDF5Constants;
+import ncsa.hdf.hdf5lib.exceptions.HDF5Exception;
+
+import org.eclipse.ice.reactor.sfr.core.SFReactor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * An SFRDataFile is an SFR HDF5 file that is kept open so that the state point
+ * data for the components of its {@link SFReactor} can be read the first time
+ * it is needed. It is created by {@link SFReactorIOHandler#openHDF5}.
+ * </p>
+ * <p>
+ * Only a limited number of components keep their data loaded at once. When
+ * this capacity is exceeded, the data for the least recently used component
+ * is unloaded and will be read again if it is needed. Components whose data
+ * has been modified are never unloaded. If the data for a component cannot be
+ * read, the component throws an {@link IllegalStateException} and stays
+ * unloaded.
+ * </p>
+ * <p>
+ * The file should be closed when the reactor is no longer needed. Data that
+ * has not been loaded by then, or that is unloaded afterward, can no longer be
+ * read, and components that need it throw an {@link IllegalStateException}.
+ * If the reactor may still be used, {@link #detachAndClose()} reads the
+ * remaining data into its components before closing the file.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class SFRDataFile implements Closeable {
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private static final Logger logger = LoggerFactory
+			.getLogger(SFRDataFile.class);
+
+	/**
+	 * The default maximum number of components whose data is kept loaded. An
+	 * assembly has up to 271 pins, so this keeps the data for several
+	 * assemblies loaded while they are displayed.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The path to the HDF5 file.
+	 */
+	private final String path;
+
+	/**
+	 * The maximum number of components whose data is kept loaded.
+	 */
+	private final int capacity;
+
+	/**
+	 * The handler used to read the data from the file. It is only used while
+	 * holding this file's lock.
+	 */
+	private final SFReactorIOHandler handler;
+
+	/**
+	 * The components whose data is currently loaded, keyed on their loaders,
+	 * from least to most recently used.
+	 */
+	private final LinkedHashMap<GroupLoader, SFRComponent> loadedComponents;
+
+	/**
+	 * The components that were given a loader from this file.
+	 */
+	private final List<SFRComponent> components;
+
+	/**
+	 * Whether the remaining data is being read so that the file can be
+	 * closed. No data is unloaded while this is true.
+	 */
+	private boolean detaching;
+
+	/**
+	 * The ID of the open HDF5 file, or -1 if it has not been opened.
+	 */
+	private int fileId;
+
+	/**
+	 * Whether the file has been closed.
+	 */
+	private boolean closed;
+
+	/**
+	 * The reactor read from the file.
+	 */
+	private SFReactor reactor;
+
+	/**
+	 * The default constructor. The file is not opened until data is first
+	 * loaded.
+	 *
+	 * @param path
+	 *            The path to the HDF5 file.
+	 * @param capacity
+	 *            The maximum number of components whose data is kept loaded.
+	 *            If not positive, {@link #DEFAULT_CAPACITY} is used.
+	 */
+	SFRDataFile(String path, int capacity) {
+		this.path = path;
+		this.capacity = (capacity > 0 ? capacity : DEFAULT_CAPACITY);
+		handler = new SFReactorIOHandler();
+		loadedComponents = new LinkedHashMap<GroupLoader, SFRComponent>(16,
+				0.75f, true);
+		components = new ArrayList<SFRComponent>();
+		fileId = -1;
+	}
+
+	/**
+	 * @return The reactor read from the file.
+	 */
+	public SFReactor getReactor() {
+		return reactor;
+	}
+
+	/**
+	 * Sets the reactor read from the file.
+	 *
+	 * @param reactor
+	 *            The reactor.
+	 */
+	void setReactor(SFReactor reactor) {
+		this.reactor = reactor;
+	}
+
+	/**
+	 * @return The maximum number of components whose data is kept loaded.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return The number of components whose data is currently loaded.
+	 */
+	public synchronized int getLoadedCount() {
+		return loadedComponents.size();
+	}
+
+	/**
+	 * @return Whether the file has been closed.
+	 */
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Creates a loader that reads an IDataProvider's data from an HDF5 Group
+	 * in this file.
+	 *
+	 * @param groupPath
+	 *            The absolute path of the IDataProvider's Group.
+	 * @param component
+	 *            The component that will use the loader.
+	 * @return A new loader.
+	 */
+	synchronized ISFRDataLoader createLoader(String groupPath,
+			SFRComponent component) {
+		components.add(component);
+		return new GroupLoader(groupPath);
+	}
+
+	/**
+	 * Reads the data that has not been loaded yet into the components that use
+	 * this file, detaches their loaders, and then closes the file. Unlike
+	 * {@link #close()}, this leaves the reactor usable after the file is
+	 * closed, at the cost of reading all of its data.
+	 */
+	public void detachAndClose() {
+
+		// Local Declarations
+		List<SFRComponent> detached;
+
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			detaching = true;
+			detached = new ArrayList<SFRComponent>(components);
+		}
+
+		// Load the data outside of the file's lock, since each component has
+		// its own lock.
+		for (SFRComponent component : detached) {
+			try {
+				component.detachDataLoader();
+			} catch (IllegalStateException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+
+		close();
+
+		return;
+	}
+
+	/**
+	 * Closes the HDF5 file. Data that has already been loaded is kept and is
+	 * no longer unloaded, but no more data will be read.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (closed) {
+			return;
+		}
+		closed = true;
+		loadedComponents.clear();
+		components.clear();
+
+		// Close the H5file if it was opened.
+		if (fileId >= 0) {
+			try {
+				if (H5.H5Fclose(fileId) < 0) {
+					logger.error("SFRDataFile error: Closing file \"" + path
+							+ "\"");
+				}
+			} catch (HDF5Exception e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+			fileId = -1;
+		}
+
+		return;
+	}
+
+	/**
+	 * Reads the data in an IDataProvider's Group and records its component as
+	 * loaded.
+	 *
+	 * @param loader
+	 *            The loader for the IDataProvider's Group.
+	 * @param component
+	 *            The component whose data is being loaded.
+	 * @param store
+	 *            The store to read the data into.
+	 * @return The components that should be unloaded to stay within the
+	 *         capacity.
+	 * @throws IllegalStateException
+	 *             Thrown if the file has been closed or the data could not be
+	 *             read.
+	 */
+	private synchronized List<SFRComponent> load(GroupLoader loader,
+			SFRComponent component, SFRDataStore store) {
+
+		// Local Declarations
+		List<SFRComponent> evicted = new ArrayList<SFRComponent>();
+
+		// The data cannot be read once the file is closed, and an empty store
+		// must not be passed off as the component's data.
+		if (closed) {
+			throw new IllegalStateException("SFRDataFile error: The file \""
+					+ path + "\" was closed before the data for \""
+					+ loader.groupPath + "\" was read.");
+		}
+
+		try {
+			// Open the H5 file with read-only access the first time it is
+			// needed.
+			if (fileId < 0) {
+				int status = H5.H5Fopen(path, HDF5Constants.H5F_ACC_RDONLY,
+						HDF5Constants.H5P_DEFAULT);
+				if (status < 0) {
+					throw new IllegalStateException(
+							"SFRDataFile error: Opening file \"" + path + "\"");
+				}
+				fileId = status;
+			}
+
+			// Read the data from the Group.
+			int groupId = H5.H5Gopen(fileId, loader.groupPath,
+					HDF5Constants.H5P_DEFAULT);
+			if (groupId < 0) {
+				throw new IllegalStateException(
+						"SFRDataFile error: Opening group \"" + loader.groupPath
+								+ "\" in file \"" + path + "\"");
+			}
+			try {
+				handler.readDataProvider(store, groupId);
+			} finally {
+				H5.H5Gclose(groupId);
+			}
+		} catch (HDF5Exception e) {
+			logger.error(getClass().getName() + " Exception!", e);
+			throw new IllegalStateException("SFRDataFile error: Reading group "
+					+ "\"" + loader.groupPath + "\" in file \"" + path + "\"",
+					e);
+		} catch (NullPointerException e) {
+			logger.error(getClass().getName() + " Exception!", e);
+			throw new IllegalStateException("SFRDataFile error: Reading group "
+					+ "\"" + loader.groupPath + "\" in file \"" + path + "\"",
+					e);
+		}
+
+		// Mark the component as the most recently used, then evict the least
+		// recently used components.
+		loadedComponents.remove(loader);
+		loadedComponents.put(loader, component);
+		Iterator<SFRComponent> iter = loadedComponents.values().iterator();
+		while (!detaching && loadedComponents.size() > capacity) {
+			evicted.add(iter.next());
+			iter.remove();
+		}
+
+		return evicted;
+	}
+
+	/**
+	 * Marks a component's loaded data as the most recently used.
+	 *
+	 * @param loader
+	 *            The loader for the component's Group.
+	 */
+	private synchronized void used(GroupLoader loader) {
+		// Getting the entry moves it to the end of the access order.
+		loadedComponents.get(loader);
+	}
+
+	/**
+	 * Loads an SFRComponent's data from its Group in the file.
+	 *
+	 * @author Jordan Deyton
+	 *
+	 */
+	private class GroupLoader implements ISFRDataLoader {
+
+		/**
+		 * The absolute path of the IDataProvider's Group.
+		 */
+		private final String groupPath;
+
+		/**
+		 * The default constructor.
+		 *
+		 * @param groupPath
+		 *            The absolute path of the IDataProvider's Group.
+		 */
+		public GroupLoader(String groupPath) {
+			this.groupPath = groupPath;
+		}
+
+		/*
+		 * Implements a method from ISFRDataLoader.
+		 */
+		@Override
+		public SFRDataStore load(SFRComponent component) {
+
+			SFRDataStore store = new SFRDataStore();
+
+			// Unload the evicted components outside of the file's lock, since
+			// each one has its own lock.
+			for (SFRComponent evictedComponent : SFRDataFile.this.load(this,
+					component, store)) {
+				evictedComponent.unloadData();
+			}
+
+			return store;
+		}
+
+		/*
+		 * Implements a method from ISFRDataLoader.
+		 */
+		@Override
+		public void dataUsed(SFRComponent component) {
+			used(this);
+		}
+	}
+}
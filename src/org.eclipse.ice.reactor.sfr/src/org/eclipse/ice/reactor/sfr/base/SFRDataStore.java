@@ -0,0 +1,428 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.reactor.sfr.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.ice.analysistool.IData;
+
+/**
+ * <p>
+ * An SFRDataStore holds the state point data for an {@link SFRComponent}. The
+ * data for each feature is stored in a {@link FeatureTimeSeries}, which keeps
+ * every piece of data for the feature in a single primitive array instead of
+ * as individual {@link SFRData} objects. The units are stored once in a table
+ * shared by all features.
+ * </p>
+ * <p>
+ * {@link SFRData} instances are only created when data is requested with
+ * {@link #getData(String, double)}, so modifying them does not change the
+ * stored data.
+ * </p>
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class SFRDataStore {
+
+	/**
+	 * The series of data for each feature, keyed on the feature names.
+	 */
+	private final TreeMap<String, FeatureTimeSeries> seriesMap;
+
+	/**
+	 * All times that have been given data. Times are not removed when their
+	 * data is removed.
+	 */
+	private final TreeSet<Double> times;
+
+	/**
+	 * The table of units. The index of each units String is its ID.
+	 */
+	private final List<String> units;
+	/**
+	 * The IDs of the units, keyed on the units Strings.
+	 */
+	private final Map<String, Integer> unitsIds;
+
+	/**
+	 * The default constructor. Creates an empty store.
+	 */
+	public SFRDataStore() {
+		seriesMap = new TreeMap<String, FeatureTimeSeries>();
+		times = new TreeSet<Double>();
+		units = new ArrayList<String>();
+		unitsIds = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * A copy constructor. All data is copied.
+	 *
+	 * @param store
+	 *            The store to copy.
+	 */
+	public SFRDataStore(SFRDataStore store) {
+		this();
+		for (Entry<String, FeatureTimeSeries> entry : store.seriesMap
+				.entrySet()) {
+			seriesMap.put(entry.getKey(),
+					new FeatureTimeSeries(entry.getValue()));
+		}
+		times.addAll(store.times);
+		units.addAll(store.units);
+		unitsIds.putAll(store.unitsIds);
+	}
+
+	/**
+	 * Gets the ID of a units String, adding it to the table if necessary.
+	 *
+	 * @param unitsString
+	 *            The units.
+	 * @return The ID of the units.
+	 */
+	public int getUnitsId(String unitsString) {
+		Integer id = unitsIds.get(unitsString);
+		if (id == null) {
+			id = units.size();
+			units.add(unitsString);
+			unitsIds.put(unitsString, id);
+		}
+		return id;
+	}
+
+	/**
+	 * @return The table of units. The index of each units String is its ID.
+	 */
+	public List<String> getUnits() {
+		return Collections.unmodifiableList(units);
+	}
+
+	/**
+	 * Adds a piece of data.
+	 *
+	 * @param data
+	 *            The data to add.
+	 * @param time
+	 *            The time of the data.
+	 */
+	public void addData(IData data, double time) {
+
+		// Local Declarations
+		double[] row = new double[FeatureTimeSeries.STRIDE];
+		List<Double> position = data.getPosition();
+
+		// Convert the data to a row.
+		row[FeatureTimeSeries.VALUE] = data.getValue();
+		row[FeatureTimeSeries.UNCERTAINTY] = data.getUncertainty();
+		for (int i = 0; i < 3 && position != null && i < position.size(); i++) {
+			row[FeatureTimeSeries.POSITION + i] = position.get(i);
+		}
+		row[FeatureTimeSeries.UNITS] = getUnitsId(data.getUnits());
+
+		addRows(data.getFeature(), time, row, 0, 1);
+
+		return;
+	}
+
+	/**
+	 * Adds rows of data for a feature. The units column must contain IDs from
+	 * this store's units table.
+	 *
+	 * @param feature
+	 *            The feature of the data.
+	 * @param time
+	 *            The time of the data.
+	 * @param rows
+	 *            The array containing the new rows.
+	 * @param rowOffset
+	 *            The index of the first new row in the array.
+	 * @param count
+	 *            The number of rows to add.
+	 */
+	public void addRows(String feature, double time, double[] rows,
+			int rowOffset, int count) {
+		if (count <= 0) {
+			return;
+		}
+		FeatureTimeSeries series = seriesMap.get(feature);
+		if (series == null) {
+			series = new FeatureTimeSeries(feature);
+			seriesMap.put(feature, series);
+		}
+		series.addRows(time, rows, rowOffset, count);
+		times.add(time);
+	}
+
+	/**
+	 * Adds all of the data from a series. If there is no data for the feature,
+	 * the series itself is stored. The units column must contain IDs from
+	 * this store's units table.
+	 *
+	 * @param series
+	 *            The series to add.
+	 */
+	public void addSeries(FeatureTimeSeries series) {
+		String feature = series.getFeature();
+		FeatureTimeSeries existingSeries = seriesMap.get(feature);
+		if (existingSeries == null) {
+			seriesMap.put(feature, series);
+		}
+		for (int i = 0; i < series.getTimeCount(); i++) {
+			double time = series.getTime(i);
+			if (existingSeries != null) {
+				existingSeries.addRows(time, series.getRows(),
+						series.getRowOffset(i), series.getRowCount(i));
+			}
+			times.add(time);
+		}
+		return;
+	}
+
+	/**
+	 * Gets the series of data for a feature.
+	 *
+	 * @param feature
+	 *            The feature.
+	 * @return The series, or null if there is no data for the feature.
+	 */
+	public FeatureTimeSeries getSeries(String feature) {
+		return seriesMap.get(feature);
+	}
+
+	/**
+	 * Removes all of the data for a feature.
+	 *
+	 * @param feature
+	 *            The feature.
+	 * @return True if there was data for the feature, false otherwise.
+	 */
+	public boolean removeFeature(String feature) {
+		return seriesMap.remove(feature) != null;
+	}
+
+	/**
+	 * @return The names of all features with data, in sorted order.
+	 */
+	public ArrayList<String> getFeatures() {
+		return new ArrayList<String>(seriesMap.keySet());
+	}
+
+	/**
+	 * Gets the names of all features with data at a time.
+	 *
+	 * @param time
+	 *            The time.
+	 * @return The names of the features, in sorted order.
+	 */
+	public ArrayList<String> getFeatures(double time) {
+		ArrayList<String> features = new ArrayList<String>();
+		for (FeatureTimeSeries series : seriesMap.values()) {
+			if (series.getTimeIndex(time) >= 0) {
+				features.add(series.getFeature());
+			}
+		}
+		return features;
+	}
+
+	/**
+	 * @return All times that have been given data, in increasing order.
+	 */
+	public ArrayList<Double> getTimes() {
+		return new ArrayList<Double>(times);
+	}
+
+	/**
+	 * @return The number of times that have been given data.
+	 */
+	public int getTimeCount() {
+		return times.size();
+	}
+
+	/**
+	 * Gets the index of a time.
+	 *
+	 * @param time
+	 *            The time.
+	 * @return The index of the time, or -1 if the time has not been given
+	 *         data.
+	 */
+	public int getTimeStep(double time) {
+		return (times.contains(time) ? times.headSet(time).size() : -1);
+	}
+
+	/**
+	 * Gets the number of pieces of data for a feature at a time without
+	 * creating any {@link SFRData}.
+	 *
+	 * @param feature
+	 *            The feature.
+	 * @param time
+	 *            The time.
+	 * @return The number of pieces of data, or 0 if there is no data.
+	 */
+	public int getDataCount(String feature, double time) {
+		FeatureTimeSeries series = seriesMap.get(feature);
+		int index = (series != null ? series.getTimeIndex(time) : -1);
+		return (index >= 0 ? series.getRowCount(index) : 0);
+	}
+
+	/**
+	 * Creates {@link SFRData} for all of the data for a feature at a time.
+	 *
+	 * @param feature
+	 *            The feature.
+	 * @param time
+	 *            The time.
+	 * @return A new list of the data, in the order it was added. This list is
+	 *         empty if there is no data.
+	 */
+	public ArrayList<IData> getData(String feature, double time) {
+
+		// Local Declarations
+		ArrayList<IData> dataList = new ArrayList<IData>();
+		FeatureTimeSeries series = seriesMap.get(feature);
+		int index = (series != null ? series.getTimeIndex(time) : -1);
+
+		if (index >= 0) {
+			int firstRow = series.getRowOffset(index);
+			int lastRow = firstRow + series.getRowCount(index);
+			dataList.ensureCapacity(lastRow - firstRow);
+			for (int row = firstRow; row < lastRow; row++) {
+				SFRData data = new SFRData(feature);
+				data.setValue(series.get(row, FeatureTimeSeries.VALUE));
+				data.setUncertainty(series.get(row,
+						FeatureTimeSeries.UNCERTAINTY));
+				ArrayList<Double> position = new ArrayList<Double>(3);
+				for (int i = 0; i < 3; i++) {
+					position.add(series.get(row, FeatureTimeSeries.POSITION
+							+ i));
+				}
+				data.setPosition(position);
+				data.setUnits(units.get((int) series.get(row,
+						FeatureTimeSeries.UNITS)));
+				dataList.add(data);
+			}
+		}
+
+		return dataList;
+	}
+
+	/**
+	 * Compares the stored data. Units are compared by their Strings, not their
+	 * IDs.
+	 */
+	@Override
+	public boolean equals(Object otherObject) {
+
+		// By default, the objects are not equivalent.
+		boolean equals = false;
+
+		// Check the reference.
+		if (this == otherObject) {
+			equals = true;
+		}
+		// Check the information stored in the other object.
+		else if (otherObject != null && otherObject instanceof SFRDataStore) {
+			SFRDataStore store = (SFRDataStore) otherObject;
+
+			equals = (times.equals(store.times) && seriesMap.keySet().equals(
+					store.seriesMap.keySet()));
+
+			// Compare each series.
+			for (Iterator<FeatureTimeSeries> iter = seriesMap.values()
+					.iterator(); equals && iter.hasNext();) {
+				FeatureTimeSeries series = iter.next();
+				equals = seriesEquals(series,
+						store.seriesMap.get(series.getFeature()), store);
+			}
+		}
+
+		return equals;
+	}
+
+	/**
+	 * Compares a series from this store with a series from another store.
+	 *
+	 * @param series
+	 *            The series from this store.
+	 * @param otherSeries
+	 *            The series from the other store.
+	 * @param store
+	 *            The other store.
+	 * @return True if the series contain the same data, false otherwise.
+	 */
+	private boolean seriesEquals(FeatureTimeSeries series,
+			FeatureTimeSeries otherSeries, SFRDataStore store) {
+
+		// Compare the times and the number of rows for each time.
+		int timeCount = series.getTimeCount();
+		if (timeCount != otherSeries.getTimeCount()) {
+			return false;
+		}
+		for (int i = 0; i < timeCount; i++) {
+			if (Double.compare(series.getTime(i), otherSeries.getTime(i)) != 0
+					|| series.getRowCount(i) != otherSeries.getRowCount(i)) {
+				return false;
+			}
+		}
+
+		// Compare the rows. Since the times match, the rows are in the same
+		// order.
+		for (int row = 0; row < series.getTotalRowCount(); row++) {
+			for (int column = 0; column < FeatureTimeSeries.UNITS; column++) {
+				if (series.get(row, column) != otherSeries.get(row, column)) {
+					return false;
+				}
+			}
+			String unitsString = units.get((int) series.get(row,
+					FeatureTimeSeries.UNITS));
+			if (!unitsString.equals(store.units.get((int) otherSeries.get(
+					row, FeatureTimeSeries.UNITS)))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+
+		// Static hash at 31.
+		int hash = 31;
+
+		hash += 31 * times.hashCode();
+		for (FeatureTimeSeries series : seriesMap.values()) {
+			hash += 31 * series.getFeature().hashCode();
+			for (int row = 0; row < series.getTotalRowCount(); row++) {
+				long bits = Double.doubleToLongBits(series.get(row,
+						FeatureTimeSeries.VALUE));
+				hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+				hash = 31
+						* hash
+						+ units.get(
+								(int) series.get(row, FeatureTimeSeries.UNITS))
+								.hashCode();
+			}
+		}
+
+		return hash;
+	}
+}
@@ -15,10 +15,13 @@ package org.eclipse.ice.reactor.sfr.base;
 import java.io.File;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Stack;
+import java.util.TreeMap;
 import java.util.TreeSet;
 
 import ncsa.hdf.hdf5lib.H5;
@@ -27,7 +30,6 @@ import ncsa.hdf.hdf5lib.exceptions.HDF5Exception;
 import ncsa.hdf.hdf5lib.exceptions.HDF5LibraryException;
 import ncsa.hdf.hdf5lib.structs.H5O_info_t;
 
-import org.eclipse.ice.analysistool.IData;
 import org.eclipse.ice.reactor.sfr.core.AssemblyType;
 import org.eclipse.ice.reactor.sfr.core.Material;
 import org.eclipse.ice.reactor.sfr.core.MaterialBlock;
@@ -58,6 +60,17 @@ public class SFReactorIOHandler {
 	private static final Logger logger = LoggerFactory
 			.getLogger(SFReactorIOHandler.class);
 
+	/**
+	 * The absolute paths of the currently open Groups, keyed on their IDs.
+	 */
+	private final Map<Integer, String> groupPaths;
+
+	/**
+	 * If not null, the file is being read lazily, and components are given
+	 * loaders from this file instead of having their data read.
+	 */
+	private SFRDataFile dataFile;
+
 	/**
 	 * <p>
 	 * Nullary constructor.
@@ -66,7 +79,7 @@ public class SFReactorIOHandler {
 	 */
 	public SFReactorIOHandler() {
 
-		// Nothing to do here.
+		groupPaths = new HashMap<Integer, String>();
 
 	}
 
@@ -77,6 +90,57 @@ public class SFReactorIOHandler {
 	 *         {@code null} if the file could not be opened.
 	 */
 	public SFReactor readHDF5(URI uri) {
+		return readHDF5(uri, null);
+	}
+
+	/**
+	 * Opens an input HDF5 file and reads the SFReactor's structure and
+	 * properties. The state point data for each component is not read until it
+	 * is first needed, at which point it is read from the open file. The
+	 * returned file should be closed when the reactor is no longer needed.
+	 *
+	 * @param uri
+	 *            The URI of the file.
+	 * @param capacity
+	 *            The maximum number of components whose data is kept loaded at
+	 *            once. The least recently loaded components are unloaded when
+	 *            this is exceeded.
+	 * @return The open file containing a valid {@link SFReactor}, or
+	 *         {@code null} if the file could not be opened.
+	 */
+	public SFRDataFile openHDF5(URI uri, int capacity) {
+
+		// Check the parameters.
+		if (uri == null) {
+			return null;
+		}
+
+		// Read the reactor, giving each component a loader from the file.
+		SFRDataFile file = new SFRDataFile(new File(uri).getPath(), capacity);
+		SFReactor reactor = readHDF5(uri, file);
+		if (reactor == null) {
+			file.close();
+			return null;
+		}
+		file.setReactor(reactor);
+
+		return file;
+	}
+
+	/**
+	 * Reads data from an input HDF5 file into a SFReactor.
+	 *
+	 * @param uri
+	 *            The URI of the file.
+	 * @param dataFile
+	 *            If not null, components' data is not read. Instead, they are
+	 *            given loaders from this file.
+	 * @return A valid {@link SFReactor} if the file could be completely read,
+	 *         {@code null} if the file could not be opened.
+	 */
+	private SFReactor readHDF5(URI uri, SFRDataFile dataFile) {
+
+		this.dataFile = dataFile;
 
 		// The SFReactor that will receive the data from the file.
 		SFReactor reactor = null;
@@ -501,6 +565,8 @@ public class SFReactorIOHandler {
 		} catch (NullPointerException e) {
 			logger.error(getClass().getName() + " Exception!",e);
 		}
+		this.dataFile = null;
+		groupPaths.clear();
 
 		// Return the loaded SFReactor.
 		return reactor;
@@ -908,6 +974,10 @@ public class SFReactorIOHandler {
 		if (status < 0) {
 			throwException("Opening group \"" + name + "\"", status);
 		}
+		// Record the Group's path so that lazily-read data can be found.
+		String parentPath = groupPaths.get(parentId);
+		groupPaths.put(status, (parentPath == null || name.startsWith("/") ? name
+				: parentPath + "/" + name));
 		return status;
 	}
 
@@ -940,6 +1010,7 @@ public class SFReactorIOHandler {
 	 * @throws HDF5LibraryException
 	 */
 	private void closeGroup(int groupId) throws HDF5LibraryException {
+		groupPaths.remove(groupId);
 		int status = H5.H5Gclose(groupId);
 		if (status < 0) {
 			throwException("Closing group \"/SFReactor\"", status);
@@ -1330,6 +1401,90 @@ public class SFReactorIOHandler {
 		return;
 	}
 
+	/**
+	 * Writes a block of rows from a {@link FeatureTimeSeries} array as a
+	 * Dataset. The rows are selected from the array with a hyperslab, so they
+	 * do not need to be copied into a separate buffer.
+	 *
+	 * @param groupId
+	 *            The ID of the HDF5 Group, which should be open, in which to
+	 *            create the Dataset.
+	 * @param name
+	 *            The name of the Dataset.
+	 * @param rows
+	 *            The array containing the rows.
+	 * @param totalRows
+	 *            The number of rows in use in the array.
+	 * @param rowOffset
+	 *            The index of the first row to write.
+	 * @param rowCount
+	 *            The number of rows to write.
+	 * @throws NullPointerException
+	 * @throws HDF5Exception
+	 */
+	private void writeRows(int groupId, String name, double[] rows,
+			int totalRows, int rowOffset, int rowCount)
+			throws NullPointerException, HDF5Exception {
+		int status;
+		int stride = FeatureTimeSeries.STRIDE;
+		int type = HDF5Constants.H5T_NATIVE_DOUBLE;
+		int H5P_DEFAULT = HDF5Constants.H5P_DEFAULT;
+
+		// Create the dataspace for the Dataset.
+		status = H5.H5Screate_simple(2, new long[] { rowCount, stride }, null);
+		if (status < 0) {
+			throwException("Creating dataspace for dataset \"" + name + "\"",
+					status);
+		}
+		int dataspaceId = status;
+
+		// Create the dataspace for the array and select the rows.
+		status = H5.H5Screate_simple(2, new long[] { totalRows, stride }, null);
+		if (status < 0) {
+			throwException("Creating memory dataspace for dataset \"" + name
+					+ "\"", status);
+		}
+		int memspaceId = status;
+		status = H5.H5Sselect_hyperslab(memspaceId,
+				HDF5Constants.H5S_SELECT_SET, new long[] { rowOffset, 0 },
+				null, new long[] { rowCount, stride }, null);
+		if (status < 0) {
+			throwException("Selecting rows for dataset \"" + name + "\"",
+					status);
+		}
+
+		// Create and write the dataset.
+		status = H5.H5Dcreate(groupId, name, type, dataspaceId, H5P_DEFAULT,
+				H5P_DEFAULT, H5P_DEFAULT);
+		if (status < 0) {
+			throwException("Creating dataset \"" + name + "\"", status);
+		}
+		int datasetId = status;
+		status = H5.H5Dwrite(datasetId, type, memspaceId, dataspaceId,
+				H5P_DEFAULT, rows);
+		if (status < 0) {
+			throwException("Writing dataset \"" + name + "\"", status);
+		}
+
+		// Close the dataset and dataspaces.
+		status = H5.H5Dclose(datasetId);
+		if (status < 0) {
+			throwException("Closing dataset \"" + name + "\"", status);
+		}
+		status = H5.H5Sclose(memspaceId);
+		if (status < 0) {
+			throwException("Closing memory dataspace for dataset \"" + name
+					+ "\"", status);
+		}
+		status = H5.H5Sclose(dataspaceId);
+		if (status < 0) {
+			throwException("Closing dataspace for dataset \"" + name + "\"",
+					status);
+		}
+
+		return;
+	}
+
 	/**
 	 * Writes all of the properties and data stored for an SFRComponent.
 	 *
@@ -1391,6 +1546,13 @@ public class SFReactorIOHandler {
 		/* --------------------------------------------- */
 
 		/* ---- Read the data. ---- */
+		// If reading lazily, the data is read from the Data Group later.
+		if (dataFile != null) {
+			component.setDataLoader(dataFile.createLoader(groupPaths
+					.get(groupId) + "/Data", component));
+			return;
+		}
+
 		// Open the data Group.
 		int dataGroupId = openGroup(groupId, "Data");
 
@@ -1460,67 +1622,33 @@ public class SFReactorIOHandler {
 	private void writeDataProvider(SFRComponent provider, int groupId)
 			throws NullPointerException, HDF5Exception {
 
-		// Get the times.
-		ArrayList<Double> times = provider.getTimes();
-		double currentTime = provider.getCurrentTime();
-
-		// Use a Map to keep track of the different units used.
-		double unitsCount = 0;
-		Map<String, Double> unitsMap = new HashMap<String, Double>();
-		List<String> unitsList = new ArrayList<String>(2);
+		// Get the provider's data store without pinning it in memory. Its units
+		// IDs are written directly.
+		SFRDataStore store = provider.getStore();
+		List<String> unitsList = store.getUnits();
+		double unitsCount = unitsList.size();
 		int unitsStringLength = 0;
+		for (String units : unitsList) {
+			if (units.length() > unitsStringLength) {
+				unitsStringLength = units.length();
+			}
+		}
 
-		// Default properties defining the Dataset of doubles.
-		int rank = 2;
-		long[] dims = new long[] { 0, 6 };
-		int type = HDF5Constants.H5T_NATIVE_DOUBLE;
+		// Properties defining the units Dataset.
+		int rank;
+		long[] dims;
+		int type;
 
-		for (String feature : provider.getFeatureList()) {
+		for (String feature : store.getFeatures()) {
 			// Create a group to contain state point data.
 			int featureGroupId = createGroup(groupId, feature);
 
-			// Loop over the possible times.
-			for (double time : times) {
-				provider.setTime(time);
-
-				// Get the data from the pin.
-				ArrayList<IData> dataList = provider
-						.getDataAtCurrentTime(feature);
-				int length = dataList.size();
-
-				// Construct the buffer of data for HDF5 writing.
-				double[] dataBuffer = new double[dataList.size() * 6];
-				int bufferIndex = 0;
-				for (IData data : dataList) {
-					dataBuffer[bufferIndex++] = data.getValue();
-					dataBuffer[bufferIndex++] = data.getUncertainty();
-					dataBuffer[bufferIndex++] = data.getPosition().get(0);
-					dataBuffer[bufferIndex++] = data.getPosition().get(1);
-					dataBuffer[bufferIndex++] = data.getPosition().get(2);
-
-					// Get the units.
-					String units = data.getUnits();
-
-					// Get the units ID from the Map. If the units are not in
-					// the Map, then we need to add it.
-					if (unitsMap.containsKey(units)) {
-						dataBuffer[bufferIndex++] = unitsMap.get(units);
-					} else {
-						unitsMap.put(units, unitsCount);
-						unitsList.add(units);
-						dataBuffer[bufferIndex++] = unitsCount++;
-						if (units.length() > unitsStringLength) {
-							unitsStringLength = units.length();
-						}
-					}
-				}
-
-				// Store the length (rows) of the array of data.
-				dims[0] = length;
-
-				// Write the state point data for this feature.
-				writeDataset(featureGroupId, Double.toString(time), rank, dims,
-						type, dataBuffer);
+			// Write each time's rows straight from the feature's array.
+			FeatureTimeSeries series = store.getSeries(feature);
+			for (int i = 0; i < series.getTimeCount(); i++) {
+				writeRows(featureGroupId, Double.toString(series.getTime(i)),
+						series.getRows(), series.getTotalRowCount(),
+						series.getRowOffset(i), series.getRowCount(i));
 			}
 
 			// Close the state point data group.
@@ -1565,8 +1693,6 @@ public class SFReactorIOHandler {
 			// Close the Datatype.
 			H5.H5Tclose(type);
 		}
-		// Restore the current time.
-		provider.setTime(currentTime);
 
 		return;
 	}
@@ -1585,6 +1711,20 @@ public class SFReactorIOHandler {
 	private void readGridData(List<SFRComponent> providers, int groupId)
 			throws NullPointerException, HDF5Exception {
 
+		// If reading lazily, each provider's data is read from its position's
+		// Group later.
+		if (dataFile != null) {
+			String path = groupPaths.get(groupId) + "/GridData/";
+			for (int i = 0; i < providers.size(); i++) {
+				SFRComponent provider = providers.get(i);
+				if (provider != null) {
+					provider.setDataLoader(dataFile.createLoader(path + i,
+							provider));
+				}
+			}
+			return;
+		}
+
 		// Open the GridData Group.
 		int gridDataGroupId = openGroup(groupId, "GridData");
 
@@ -1626,6 +1766,29 @@ public class SFReactorIOHandler {
 	 */
 	private void readDataProvider(SFRComponent provider, int groupId)
 			throws NullPointerException, HDF5Exception {
+
+		// Notify the provider's listeners once for all of the new data.
+		if (readDataProvider(provider.getDataStore(), groupId)) {
+			provider.notifyListeners();
+		}
+
+		return;
+	}
+
+	/**
+	 * Reads all of the data for an IDataProvider into a data store.
+	 *
+	 * @param store
+	 *            The store to read the data into.
+	 * @param groupId
+	 *            The ID of the IDataProvider's HDF5 Group, which should be
+	 *            open.
+	 * @return True if any data was added to the store, false otherwise.
+	 * @throws NullPointerException
+	 * @throws HDF5Exception
+	 */
+	boolean readDataProvider(SFRDataStore store, int groupId)
+			throws NullPointerException, HDF5Exception {
 		int status;
 
 		// Commonly-used constants.
@@ -1740,96 +1903,174 @@ public class SFReactorIOHandler {
 		/* ---------------------------------------------------------- */
 
 		/* ---- Read in the data for each feature. ---- */
+		// Map the IDs of the units in the file to IDs in the store.
+		int[] unitsIds;
+		if (units != null) {
+			unitsIds = new int[units.length];
+			for (int i = 0; i < units.length; i++) {
+				unitsIds[i] = store.getUnitsId(units[i]);
+			}
+		} else {
+			unitsIds = new int[] { store.getUnitsId(new SFRData().getUnits()) };
+		}
+
 		// Loop over the groups in the Data group. These groups are named after
 		// the feature whose data they contain.
+		boolean added = false;
 		for (String feature : getChildNames(groupId,
 				HDF5Constants.H5O_TYPE_GROUP)) {
 
 			// Open the feature group.
 			int featureGroupId = openGroup(groupId, feature);
 
-			// Get the list of times.
-			for (String timeString : getChildNames(featureGroupId,
-					HDF5Constants.H5O_TYPE_DATASET)) {
-
-				// Open the dataset.
-				status = H5.H5Dopen(featureGroupId, timeString, H5P_DEFAULT);
-				if (status < 0) {
-					throwException("Opening dataset for IDataProvider.", status);
+			// Read every time's Dataset into one array for the feature.
+			FeatureTimeSeries series = readFeatureTimeSeries(feature,
+					featureGroupId);
+			if (series.getTimeCount() > 0) {
+				// Convert the units column to the store's IDs.
+				double[] rows = series.getRows();
+				int length = series.getTotalRowCount()
+						* FeatureTimeSeries.STRIDE;
+				for (int j = FeatureTimeSeries.UNITS; j < length; j += FeatureTimeSeries.STRIDE) {
+					int fileId = (int) rows[j];
+					rows[j] = unitsIds[fileId < unitsIds.length ? fileId : 0];
 				}
-				int datasetId = status;
+				store.addSeries(series);
+				added = true;
+			}
+
+			// Close the feature group.
+			closeGroup(featureGroupId);
+		}
+		/* -------------------------------------------- */
+
+		return added;
+	}
+
+	/**
+	 * Reads all of the Datasets for a feature into a single
+	 * {@link FeatureTimeSeries}. Each Dataset is read directly into its block
+	 * of the series' array with a hyperslab. The units column is not
+	 * converted.
+	 *
+	 * @param feature
+	 *            The name of the feature.
+	 * @param featureGroupId
+	 *            The ID of the feature's HDF5 Group, which should be open. Its
+	 *            Datasets are named after their times.
+	 * @return A new series containing the feature's data.
+	 * @throws NullPointerException
+	 * @throws HDF5Exception
+	 */
+	private FeatureTimeSeries readFeatureTimeSeries(String feature,
+			int featureGroupId) throws NullPointerException, HDF5Exception {
+		int status;
+		int stride = FeatureTimeSeries.STRIDE;
+		int type = HDF5Constants.H5T_NATIVE_DOUBLE;
+		int H5P_DEFAULT = HDF5Constants.H5P_DEFAULT;
+
+		// Sort the Datasets by time, since their names are sorted as Strings.
+		TreeMap<Double, String> timeNames = new TreeMap<Double, String>();
+		for (String timeString : getChildNames(featureGroupId,
+				HDF5Constants.H5O_TYPE_DATASET)) {
+			timeNames.put(Double.parseDouble(timeString), timeString);
+		}
+
+		// Open each non-empty Dataset and get its number of rows.
+		int size = timeNames.size();
+		double[] times = new double[size];
+		int[] offsets = new int[size];
+		int[] counts = new int[size];
+		int[] datasetIds = new int[size];
+		int timeCount = 0;
+		int totalRows = 0;
+		for (Entry<Double, String> entry : timeNames.entrySet()) {
+
+			// Open the dataset.
+			status = H5.H5Dopen(featureGroupId, entry.getValue(), H5P_DEFAULT);
+			if (status < 0) {
+				throwException("Opening dataset for IDataProvider.", status);
+			}
+			int datasetId = status;
+
+			// Get the size of the data array.
+			status = H5.H5Dget_space(datasetId);
+			if (status < 0) {
+				throwException("Opening dataspace for IDataProvider.", status);
+			}
+			int dataspaceId = status;
+			long[] dims = new long[2];
+			status = H5.H5Sget_simple_extent_dims(dataspaceId, dims, null);
+			if (status != 2 || dims[1] != stride) {
+				throwException(
+						"Reading dataspace dimensions for IDataProvider.",
+						status);
+			}
+			status = H5.H5Sclose(dataspaceId);
+			if (status < 0) {
+				throwException("Closing dataspace for IDataProvider.", status);
+			}
 
-				// Open the dataspace.
-				status = H5.H5Dget_space(datasetId);
+			// Keep the dataset open if it has data.
+			if (dims[0] > 0) {
+				times[timeCount] = entry.getKey();
+				offsets[timeCount] = totalRows;
+				counts[timeCount] = (int) dims[0];
+				datasetIds[timeCount++] = datasetId;
+				totalRows += (int) dims[0];
+			} else {
+				status = H5.H5Dclose(datasetId);
 				if (status < 0) {
-					throwException("Opening dataspace for IDataProvider.",
+					throwException("Closing dataset for IDataProvider.",
 							status);
 				}
-				int dataspaceId = status;
-
-				// Initialize the properties defining the dataspace.
-				int rank = 2;
-				long[] dims = new long[2];
-				int type = HDF5Constants.H5T_NATIVE_DOUBLE;
-
-				// Get the size of the data array.
-				status = H5.H5Sget_simple_extent_dims(dataspaceId, dims, null);
-				if (status != rank || dims[1] != 6) {
-					throwException(
-							"Reading dataspace dimensions for IDataProvider.",
-							status);
-				}
-
-				// Initialize the buffer.
-				int size = (int) dims[0];
-				double[][] buffer = new double[size][6];
+			}
+		}
 
-				// Read in the data into the buffer.
-				status = H5.H5Dread(datasetId, type, H5S_ALL, H5S_ALL,
-						H5P_DEFAULT, buffer);
+		// Read each dataset into its block of rows.
+		double[] rows = new double[totalRows * stride];
+		if (timeCount > 0) {
+			status = H5.H5Screate_simple(2, new long[] { totalRows, stride },
+					null);
+			if (status < 0) {
+				throwException("Creating memory dataspace for IDataProvider.",
+						status);
+			}
+			int memspaceId = status;
+
+			for (int i = 0; i < timeCount; i++) {
+				// Select the block for this time.
+				status = H5.H5Sselect_hyperslab(memspaceId,
+						HDF5Constants.H5S_SELECT_SET, new long[] { offsets[i],
+								0 }, null, new long[] { counts[i], stride },
+						null);
 				if (status < 0) {
-					throwException("Reading dataset for IDataProvider.", status);
+					throwException("Selecting rows for IDataProvider.", status);
 				}
-				// Close the dataspace.
-				status = H5.H5Sclose(dataspaceId);
+
+				// Read in the data.
+				status = H5.H5Dread(datasetIds[i], type, memspaceId,
+						HDF5Constants.H5S_ALL, H5P_DEFAULT, rows);
 				if (status < 0) {
-					throwException("Closing dataspace for IDataProvider.",
-							status);
+					throwException("Reading dataset for IDataProvider.", status);
 				}
 				// Close the dataset.
-				status = H5.H5Dclose(datasetId);
+				status = H5.H5Dclose(datasetIds[i]);
 				if (status < 0) {
 					throwException("Closing dataset for IDataProvider.", status);
 				}
-				double time = Double.parseDouble(timeString);
-
-				// Initialize the IData for the timestep.
-				for (double[] dataBlock : buffer) {
-					// Initialize an iData.
-					SFRData data = new SFRData(feature);
-
-					// Set its data.
-					data.setValue(dataBlock[0]);
-					data.setUncertainty(dataBlock[1]);
-					ArrayList<Double> position = new ArrayList<Double>(3);
-					position.add(dataBlock[2]);
-					position.add(dataBlock[3]);
-					position.add(dataBlock[4]);
-					data.setPosition(position);
-
-					// Set the units from the pre-constructed array of data.
-					data.setUnits(units[(int) dataBlock[5]]);
-
-					// Add it to the component.
-					provider.addData(data, time);
-				}
 			}
-			// Close the feature group.
-			closeGroup(featureGroupId);
+
+			status = H5.H5Sclose(memspaceId);
+			if (status < 0) {
+				throwException("Closing memory dataspace for IDataProvider.",
+						status);
+			}
 		}
-		/* -------------------------------------------- */
 
-		return;
+		return new FeatureTimeSeries(feature, Arrays.copyOf(times, timeCount),
+				Arrays.copyOf(offsets, timeCount), Arrays.copyOf(counts,
+						timeCount), rows);
 	}
 
 	/**
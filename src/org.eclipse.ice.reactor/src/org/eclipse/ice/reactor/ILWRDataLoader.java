@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.reactor;
+
+/**
+ * <p>
+ * An ILWRDataLoader loads the state point data for an {@link LWRDataProvider}
+ * the first time the data is needed. This allows a reactor to be read without
+ * reading the data for every one of its rod positions.
+ * </p>
+ *
+ * @author Jordan H. Deyton
+ *
+ * @see LWRDataProvider#setDataLoader(ILWRDataLoader)
+ * @see LWRDataFile
+ */
+public interface ILWRDataLoader {
+
+	/**
+	 * Loads the data for a provider. This is called without holding the
+	 * provider's lock, and it may be called again after the provider's data
+	 * has been unloaded.
+	 *
+	 * @param provider
+	 *            The provider whose data should be loaded.
+	 * @return A new provider containing the data. This should never be null.
+	 * @throws IllegalStateException
+	 *             Thrown if the data can no longer be loaded, for instance
+	 *             because its file was closed. The provider stays unloaded.
+	 */
+	public LWRDataProvider load(LWRDataProvider provider);
+
+	/**
+	 * Records that a provider used the data it loaded, so that data that was
+	 * used less recently can be unloaded first. This is called without
+	 * holding the provider's lock.
+	 *
+	 * @param provider
+	 *            The provider whose loaded data was used.
+	 */
+	public void dataUsed(LWRDataProvider provider);
+}
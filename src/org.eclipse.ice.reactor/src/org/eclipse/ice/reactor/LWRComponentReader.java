@@ -53,6 +53,15 @@ public class LWRComponentReader implements IHdfReader {
 	 */
 	private HashMap<HDF5LWRTagType, LWRComponent> lWRComponentInstanceMap;
 
+	/**
+	 * <p>
+	 * The file that state point data is read from when it is first needed, or
+	 * null if the data is read immediately. It is only set while
+	 * {@link #open(URI, int)} reads the reactor.
+	 * </p>
+	 */
+	private LWRDataFile dataFile;
+
 	/**
 	 * The Constructor.
 	 */
@@ -134,6 +143,67 @@ public class LWRComponentReader implements IHdfReader {
 
 	}
 
+	/**
+	 * <p>
+	 * Opens the file at the provided URI and reads its LWRComponent, but not
+	 * the state point data of its rod positions. That data is read from the
+	 * open file when it is first needed. The returned file should be closed
+	 * when the component is no longer needed.
+	 * </p>
+	 * 
+	 * @param uri
+	 *            <p>
+	 *            The URI of the file to open.
+	 *            </p>
+	 * @param capacity
+	 *            <p>
+	 *            The maximum number of rod positions whose data is kept
+	 *            loaded. If not positive, {@link LWRDataFile#DEFAULT_CAPACITY}
+	 *            is used.
+	 *            </p>
+	 * @return <p>
+	 *         The open file, whose reactor is the LWRComponent that was read,
+	 *         or null if the file could not be read.
+	 *         </p>
+	 */
+	public LWRDataFile open(URI uri, int capacity) {
+
+		// Open the file at the provided uri
+		H5File h5File = HdfFileFactory.openH5File(uri);
+
+		// If the file is null, then return null
+		if (h5File == null) {
+			return null;
+		}
+		LWRDataFile file = new LWRDataFile(h5File, capacity);
+
+		// Get the root group from the file
+		H5Group rootH5Group = (H5Group) ((javax.swing.tree.DefaultMutableTreeNode) h5File
+				.getRootNode()).getUserObject();
+
+		// Read the first child group of the root group into the
+		// iHdfReadable. The file stays open for the state point data.
+		IHdfReadable iHdfReadable = null;
+		if (rootH5Group != null) {
+			dataFile = file;
+			try {
+				iHdfReadable = this.read(HdfReaderFactory.getChildH5Group(
+						rootH5Group, 0));
+			} finally {
+				dataFile = null;
+			}
+		}
+
+		// If nothing was read, close the file
+		if (!(iHdfReadable instanceof LWRComponent)) {
+			file.close();
+			return null;
+		}
+		file.setReactor((LWRComponent) iHdfReadable);
+
+		return file;
+	}
+
 	/**
 	 * <p>
 	 * Returns a clone of the LWRComponent instance corresponding to the
@@ -195,8 +265,13 @@ public class LWRComponentReader implements IHdfReader {
 			// Read in the attributes
 			iHdfReadable.readAttributes(h5Group);
 
-			// Read in the datasets
-			iHdfReadable.readDatasets(h5Group);
+			// Read in the datasets. If the file is kept open, the state point
+			// data of grid managers is read when it is first needed.
+			if (dataFile != null && iHdfReadable instanceof LWRGridManager) {
+				((LWRGridManager) iHdfReadable).readDatasets(h5Group, dataFile);
+			} else {
+				iHdfReadable.readDatasets(h5Group);
+			}
 
 			// Get a list of child groups
 			ArrayList<H5Group> childGroupList = HdfReaderFactory
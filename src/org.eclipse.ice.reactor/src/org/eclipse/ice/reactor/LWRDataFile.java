@@ -0,0 +1,368 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.reactor;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import ncsa.hdf.object.h5.H5File;
+import ncsa.hdf.object.h5.H5Group;
+
+import org.eclipse.ice.io.hdf.HdfFileFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * An LWRDataFile is an LWR HDF5 file that is kept open so that the state point
+ * data for the rod positions of its reactor can be read the first time it is
+ * needed. It is created by {@link LWRComponentReader#open}.
+ * </p>
+ * <p>
+ * Only a limited number of {@link LWRDataProvider}s keep their data loaded at
+ * once. When this capacity is exceeded, the data for the least recently used
+ * provider is unloaded and will be read again if it is needed. Providers whose
+ * data has been modified are never unloaded. If the data for a provider cannot
+ * be read, the provider throws an {@link IllegalStateException} and stays
+ * unloaded.
+ * </p>
+ * <p>
+ * The file should be closed when the reactor is no longer needed. Data that
+ * has not been loaded by then, or that is unloaded afterward, can no longer be
+ * read, and providers that need it throw an {@link IllegalStateException}.
+ * If the reactor may still be used, {@link #detachAndClose()} reads the
+ * remaining data into its providers before closing the file.
+ * </p>
+ *
+ * @author Jordan H. Deyton
+ *
+ */
+public class LWRDataFile implements Closeable {
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private static final Logger logger = LoggerFactory
+			.getLogger(LWRDataFile.class);
+
+	/**
+	 * The default maximum number of providers whose data is kept loaded. A
+	 * 17x17 assembly has 289 rod positions, so this keeps the data for several
+	 * assemblies loaded while they are displayed.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The open HDF5 file.
+	 */
+	private final H5File h5File;
+
+	/**
+	 * The maximum number of providers whose data is kept loaded.
+	 */
+	private final int capacity;
+
+	/**
+	 * The providers whose data is currently loaded, keyed on their loaders,
+	 * from least to most recently used.
+	 */
+	private final LinkedHashMap<PositionLoader, LWRDataProvider> loadedProviders;
+
+	/**
+	 * The providers that were given a loader from this file.
+	 */
+	private final List<LWRDataProvider> providers;
+
+	/**
+	 * Whether the remaining data is being read so that the file can be
+	 * closed. No data is unloaded while this is true.
+	 */
+	private boolean detaching;
+
+	/**
+	 * Whether the file has been closed.
+	 */
+	private boolean closed;
+
+	/**
+	 * The reactor read from the file.
+	 */
+	private LWRComponent reactor;
+
+	/**
+	 * The default constructor.
+	 *
+	 * @param h5File
+	 *            The open HDF5 file. It is closed when this file is closed.
+	 * @param capacity
+	 *            The maximum number of providers whose data is kept loaded. If
+	 *            not positive, {@link #DEFAULT_CAPACITY} is used.
+	 */
+	LWRDataFile(H5File h5File, int capacity) {
+		this.h5File = h5File;
+		this.capacity = (capacity > 0 ? capacity : DEFAULT_CAPACITY);
+		loadedProviders = new LinkedHashMap<PositionLoader, LWRDataProvider>(
+				16, 0.75f, true);
+		providers = new ArrayList<LWRDataProvider>();
+	}
+
+	/**
+	 * @return The reactor read from the file.
+	 */
+	public LWRComponent getReactor() {
+		return reactor;
+	}
+
+	/**
+	 * Sets the reactor read from the file.
+	 *
+	 * @param reactor
+	 *            The reactor.
+	 */
+	void setReactor(LWRComponent reactor) {
+		this.reactor = reactor;
+	}
+
+	/**
+	 * @return The maximum number of providers whose data is kept loaded.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return The number of providers whose data is currently loaded.
+	 */
+	public synchronized int getLoadedCount() {
+		return loadedProviders.size();
+	}
+
+	/**
+	 * @return Whether the file has been closed.
+	 */
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Creates a loader that reads the state point data for a rod position of
+	 * a grid manager in this file.
+	 *
+	 * @param manager
+	 *            The grid manager that reads the data.
+	 * @param timeGroups
+	 *            The H5Groups for the time steps of the position.
+	 * @param units
+	 *            The units table of the grid manager.
+	 * @param provider
+	 *            The provider that will use the loader.
+	 * @return A new loader.
+	 */
+	synchronized ILWRDataLoader createLoader(LWRGridManager manager,
+			ArrayList<H5Group> timeGroups, String[] units,
+			LWRDataProvider provider) {
+		providers.add(provider);
+		return new PositionLoader(manager, timeGroups, units);
+	}
+
+	/**
+	 * Reads the data that has not been loaded yet into the providers that use
+	 * this file, detaches their loaders, and then closes the file. Unlike
+	 * {@link #close()}, this leaves the reactor usable after the file is
+	 * closed, at the cost of reading all of its data.
+	 */
+	public void detachAndClose() {
+
+		// Local Declarations
+		List<LWRDataProvider> detached;
+
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			detaching = true;
+			detached = new ArrayList<LWRDataProvider>(providers);
+		}
+
+		// Load the data outside of the file's lock, since each provider has
+		// its own lock.
+		for (LWRDataProvider provider : detached) {
+			try {
+				provider.detachDataLoader();
+			} catch (IllegalStateException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+
+		close();
+
+		return;
+	}
+
+	/**
+	 * Closes the HDF5 file. Data that has already been loaded is kept and is
+	 * no longer unloaded, but no more data will be read.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (closed) {
+			return;
+		}
+		closed = true;
+		loadedProviders.clear();
+		providers.clear();
+
+		// Close the H5File.
+		HdfFileFactory.closeH5File(h5File);
+
+		return;
+	}
+
+	/**
+	 * Reads the state point data for a rod position and records its provider
+	 * as loaded.
+	 *
+	 * @param loader
+	 *            The loader for the position.
+	 * @param provider
+	 *            The provider whose data is being loaded.
+	 * @param data
+	 *            The provider to read the data into.
+	 * @return The providers that should be unloaded to stay within the
+	 *         capacity.
+	 * @throws IllegalStateException
+	 *             Thrown if the file has been closed or the data could not be
+	 *             read.
+	 */
+	private synchronized List<LWRDataProvider> load(PositionLoader loader,
+			LWRDataProvider provider, LWRDataProvider data) {
+
+		// Local Declarations
+		List<LWRDataProvider> evicted = new ArrayList<LWRDataProvider>();
+
+		// The data cannot be read once the file is closed, and an empty
+		// provider must not be passed off as the provider's data.
+		if (closed) {
+			throw new IllegalStateException("LWRDataFile error: The file \""
+					+ h5File.getFilePath() + "\" was closed before the data "
+					+ "for a position was read.");
+		}
+
+		// Read the data from the time step Groups.
+		if (!loader.manager.readTimeStepsAtFeature(data, loader.timeGroups,
+				loader.units)) {
+			throw new IllegalStateException("LWRDataFile error: Reading the "
+					+ "data for a position of \"" + loader.manager.getName()
+					+ "\" in file \"" + h5File.getFilePath() + "\"");
+		}
+
+		// Mark the provider as the most recently used, then evict the least
+		// recently used providers. A copy of a provider shares its loader,
+		// so the provider that previously used the loader is evicted too.
+		LWRDataProvider previous = loadedProviders.remove(loader);
+		if (previous != null && previous != provider) {
+			evicted.add(previous);
+		}
+		loadedProviders.put(loader, provider);
+		Iterator<LWRDataProvider> iter = loadedProviders.values().iterator();
+		while (!detaching && loadedProviders.size() > capacity) {
+			evicted.add(iter.next());
+			iter.remove();
+		}
+
+		return evicted;
+	}
+
+	/**
+	 * Marks a provider's loaded data as the most recently used.
+	 *
+	 * @param loader
+	 *            The loader for the provider's position.
+	 */
+	private synchronized void used(PositionLoader loader) {
+		// Getting the entry moves it to the end of the access order.
+		loadedProviders.get(loader);
+	}
+
+	/**
+	 * Loads an LWRDataProvider's data from the time step Groups of its rod
+	 * position in the file.
+	 *
+	 * @author Jordan H. Deyton
+	 *
+	 */
+	private class PositionLoader implements ILWRDataLoader {
+
+		/**
+		 * The grid manager that reads the data.
+		 */
+		private final LWRGridManager manager;
+
+		/**
+		 * The H5Groups for the time steps of the position.
+		 */
+		private final ArrayList<H5Group> timeGroups;
+
+		/**
+		 * The units table of the grid manager.
+		 */
+		private final String[] units;
+
+		/**
+		 * The default constructor.
+		 *
+		 * @param manager
+		 *            The grid manager that reads the data.
+		 * @param timeGroups
+		 *            The H5Groups for the time steps of the position.
+		 * @param units
+		 *            The units table of the grid manager.
+		 */
+		public PositionLoader(LWRGridManager manager,
+				ArrayList<H5Group> timeGroups, String[] units) {
+			this.manager = manager;
+			this.timeGroups = timeGroups;
+			this.units = units;
+		}
+
+		/*
+		 * Implements a method from ILWRDataLoader.
+		 */
+		@Override
+		public LWRDataProvider load(LWRDataProvider provider) {
+
+			LWRDataProvider data = new LWRDataProvider();
+
+			// Unload the evicted providers outside of the file's lock, since
+			// each one has its own lock.
+			for (LWRDataProvider evictedProvider : LWRDataFile.this.load(this,
+					provider, data)) {
+				evictedProvider.unloadData();
+			}
+
+			return data;
+		}
+
+		/*
+		 * Implements a method from ILWRDataLoader.
+		 */
+		@Override
+		public void dataUsed(LWRDataProvider provider) {
+			used(this);
+		}
+	}
+}
@@ -62,6 +62,25 @@ public class LWRDataProvider implements IDataProvider {
 	 */
 	private String timeUnit;
 
+	/**
+	 * <p>
+	 * If not null, this loads the dataTree the first time it is needed. It is
+	 * cleared when the data is modified so that modified data is never
+	 * unloaded.
+	 * </p>
+	 * 
+	 */
+	private ILWRDataLoader dataLoader;
+
+	/**
+	 * <p>
+	 * Whether the dataTree has been loaded. This is always true when there is
+	 * no data loader.
+	 * </p>
+	 * 
+	 */
+	private boolean loaded;
+
 	/**
 	 * <p>
 	 * The constructor.
@@ -71,6 +90,7 @@ public class LWRDataProvider implements IDataProvider {
 	public LWRDataProvider() {
 		// Setup TreeMap
 		this.dataTree = new TreeMap<Double, ArrayList<FeatureSet>>();
+		this.loaded = true;
 
 		// Setup Source
 		this.sourceInfo = "No Source Available";
@@ -122,7 +142,8 @@ public class LWRDataProvider implements IDataProvider {
 			return;
 		}
 
-		featureSetList = this.dataTree.get(time);
+		TreeMap<Double, ArrayList<FeatureSet>> dataTree = getModifiableDataTree();
+		featureSetList = dataTree.get(time);
 
 		// If the timestep does not exist in the list, add it to the list
 		if (featureSetList == null) {
@@ -130,7 +151,7 @@ public class LWRDataProvider implements IDataProvider {
 			set = new FeatureSet(data.getFeature());
 			set.addIData(data);
 			featureSetList.add(set);
-			this.dataTree.put(time, featureSetList);
+			dataTree.put(time, featureSetList);
 
 		}
 
@@ -167,7 +188,9 @@ public class LWRDataProvider implements IDataProvider {
 	 * Removes the feature and all associated IData from the dataTree at all
 	 * time steps. If a user wishes to remove a single piece of IData from the
 	 * tree, then use the appropriate getData operation on that feature and
-	 * manipulate the data that way.
+	 * manipulate the data that way. Changes made that way are lost if the
+	 * data is unloaded, so they should only be made to providers without a
+	 * data loader.
 	 * </p>
 	 * 
 	 * @param feature
@@ -182,12 +205,13 @@ public class LWRDataProvider implements IDataProvider {
 			return;
 		}
 		// Get the iterator
+		TreeMap<Double, ArrayList<FeatureSet>> dataTree = getModifiableDataTree();
 		Iterator<Double> iter;
-		iter = this.dataTree.keySet().iterator();
+		iter = dataTree.keySet().iterator();
 
 		// Iterate over the list of all timesteps and remove all the features
 		while (iter.hasNext()) {
-			ArrayList<FeatureSet> list = this.dataTree.get(iter.next());
+			ArrayList<FeatureSet> list = dataTree.get(iter.next());
 
 			// If the FeatureSet with the feature name exists, remove it
 			for (int i = 0; i < list.size(); i++) {
@@ -215,23 +239,41 @@ public class LWRDataProvider implements IDataProvider {
 
 		// Local Declarations
 		Iterator<Double> iter;
+		ILWRDataLoader loader;
 
 		// If null, return
 		if (otherObject == null) {
 			return;
 		}
-		// Copy dataTree
-		this.dataTree.clear();
-
-		// Setup the iterator
-		iter = otherObject.dataTree.keySet().iterator();
+		// If the other object's data has not been modified, share its loader
+		// instead of loading its data.
+		synchronized (otherObject) {
+			loader = otherObject.dataLoader;
+		}
+		if (loader != null) {
+			setDataLoader(loader);
+		} else {
+			// Copy dataTree
+			TreeMap<Double, ArrayList<FeatureSet>> otherDataTree = otherObject
+					.getDataTree();
+			TreeMap<Double, ArrayList<FeatureSet>> dataTree = new TreeMap<Double, ArrayList<FeatureSet>>();
+
+			// Setup the iterator
+			iter = otherDataTree.keySet().iterator();
+
+			// Currently, this will only shallow copy the ArrayList on value.
+			// IData will have to implement copy and clone routines for it to be
+			// a deep copy
+			while (iter.hasNext()) {
+				Double key = iter.next();
+				dataTree.put(key, otherDataTree.get(key));
+			}
 
-		// Currently, this will only shallow copy the ArrayList on value. IData
-		// will have to implement copy and clone routines for it to be a deep
-		// copy
-		while (iter.hasNext()) {
-			Double key = iter.next();
-			this.dataTree.put(key, otherObject.dataTree.get(key));
+			synchronized (this) {
+				this.dataTree = dataTree;
+				this.dataLoader = null;
+				this.loaded = true;
+			}
 		}
 
 		// Copy Time info
@@ -311,11 +353,12 @@ public class LWRDataProvider implements IDataProvider {
 		if (otherObject != null && otherObject instanceof LWRDataProvider) {
 			component = (LWRDataProvider) otherObject;
 
-			// Check values
-			retVal = (this.dataTree.equals(component.dataTree)
-					&& this.time == component.time
-					&& this.sourceInfo.equals(component.sourceInfo) && this.timeUnit
-					.equals(component.timeUnit));
+			// Check values. The data is compared last so that it is only
+			// loaded if everything else is equal.
+			retVal = (this.time == component.time
+					&& this.sourceInfo.equals(component.sourceInfo)
+					&& this.timeUnit.equals(component.timeUnit)
+					&& dataEquals(component));
 
 		}
 
@@ -338,7 +381,7 @@ public class LWRDataProvider implements IDataProvider {
 		int hash = 31;
 
 		// Calculate IDataProvider info
-		hash += 31 * this.dataTree.hashCode();
+		hash += 31 * getDataTree().hashCode();
 		hash += 31 * this.time;
 		hash += 31 * this.sourceInfo.hashCode();
 		hash += 31 * this.timeUnit.hashCode();
@@ -359,12 +402,13 @@ public class LWRDataProvider implements IDataProvider {
 		HashMap<String, Integer> map = new HashMap<String, Integer>();
 
 		// Get the iterator
+		TreeMap<Double, ArrayList<FeatureSet>> dataTree = getDataTree();
 		Iterator<Double> iter;
-		iter = this.dataTree.keySet().iterator();
+		iter = dataTree.keySet().iterator();
 
 		// Iterate over the list of all timesteps get one unique feature
 		while (iter.hasNext()) {
-			ArrayList<FeatureSet> list = this.dataTree.get(iter.next());
+			ArrayList<FeatureSet> list = dataTree.get(iter.next());
 
 			// If the map does not have the feature name, add it
 			for (int i = 0; i < list.size(); i++) {
@@ -390,7 +434,7 @@ public class LWRDataProvider implements IDataProvider {
 	@Override
 	public int getNumberOfTimeSteps() {
 
-		return this.dataTree.size();
+		return getDataTree().size();
 	}
 
 	/*
@@ -415,7 +459,7 @@ public class LWRDataProvider implements IDataProvider {
 			return new ArrayList<IData>();
 		}
 		// Locate the list
-		ArrayList<FeatureSet> list = this.dataTree.get(this.time);
+		ArrayList<FeatureSet> list = getDataTree().get(this.time);
 
 		if (list != null) {
 			// If the list exists, return the iData
@@ -453,7 +497,7 @@ public class LWRDataProvider implements IDataProvider {
 		ArrayList<FeatureSet> list = null;
 
 		// Get the list at the time
-		list = this.dataTree.get(this.time);
+		list = getDataTree().get(this.time);
 
 		// If the time does not exist, return empty
 		if (list == null) {
@@ -478,7 +522,7 @@ public class LWRDataProvider implements IDataProvider {
 		ArrayList<Double> times = new ArrayList<Double>();
 
 		// Get the iterator
-		Iterator<Double> iter = this.dataTree.keySet().iterator();
+		Iterator<Double> iter = getDataTree().keySet().iterator();
 
 		// Add the times to the arraylist
 		while (iter.hasNext()) {
@@ -497,7 +541,7 @@ public class LWRDataProvider implements IDataProvider {
 	public int getTimeStep(double time) {
 
 		// Get the iterator
-		Iterator<Double> iter = this.dataTree.keySet().iterator();
+		Iterator<Double> iter = getDataTree().keySet().iterator();
 		int counter = 0;
 
 		// Iterate the list
@@ -539,4 +583,159 @@ public class LWRDataProvider implements IDataProvider {
 
 		return this.time;
 	}
+
+	/**
+	 * <p>
+	 * Sets the loader used to read this provider's data the first time it is
+	 * needed. Any data currently in the provider is discarded.
+	 * </p>
+	 * 
+	 * @param loader
+	 *            <p>
+	 *            The new data loader. If null, the provider's data will be
+	 *            empty.
+	 *            </p>
+	 */
+	public synchronized void setDataLoader(ILWRDataLoader loader) {
+		this.dataTree = new TreeMap<Double, ArrayList<FeatureSet>>();
+		this.dataLoader = loader;
+		this.loaded = (loader == null);
+	}
+
+	/**
+	 * <p>
+	 * Loads this provider's data if necessary and detaches its data loader,
+	 * so that the data no longer depends on the loader and is never unloaded.
+	 * </p>
+	 * 
+	 * @throws IllegalStateException
+	 *             Thrown if the data loader can no longer load the data.
+	 */
+	public void detachDataLoader() {
+		getModifiableDataTree();
+		return;
+	}
+
+	/**
+	 * <p>
+	 * Releases this provider's data if it was loaded by its data loader and
+	 * has not been modified since. The data is loaded again the next time it
+	 * is needed.
+	 * </p>
+	 * 
+	 * @return <p>
+	 *         True if the data was unloaded, false otherwise.
+	 *         </p>
+	 */
+	public synchronized boolean unloadData() {
+		boolean unloaded = false;
+		if (this.dataLoader != null && this.loaded) {
+			this.dataTree = new TreeMap<Double, ArrayList<FeatureSet>>();
+			this.loaded = false;
+			unloaded = true;
+		}
+		return unloaded;
+	}
+
+	/**
+	 * <p>
+	 * Compares the data of this provider with the data of another provider.
+	 * Providers that get their unmodified data from the same loader have the
+	 * same data, so it is not loaded to compare them.
+	 * </p>
+	 * 
+	 * @param provider
+	 *            <p>
+	 *            The other provider.
+	 *            </p>
+	 * @return <p>
+	 *         True if the data is equal, false otherwise.
+	 *         </p>
+	 */
+	private boolean dataEquals(LWRDataProvider provider) {
+
+		// Local Declarations
+		ILWRDataLoader loader, otherLoader;
+
+		synchronized (this) {
+			loader = this.dataLoader;
+		}
+		synchronized (provider) {
+			otherLoader = provider.dataLoader;
+		}
+
+		return (loader != null && loader == otherLoader)
+				|| getDataTree().equals(provider.getDataTree());
+	}
+
+	/**
+	 * <p>
+	 * Gets the dataTree, loading it first if necessary. The loader is called
+	 * without holding this provider's lock so that a loader may unload other
+	 * providers.
+	 * </p>
+	 * 
+	 * @return <p>
+	 *         The current dataTree.
+	 *         </p>
+	 * @throws IllegalStateException
+	 *             Thrown if the data loader can no longer load the data.
+	 */
+	private TreeMap<Double, ArrayList<FeatureSet>> getDataTree() {
+
+		// Local Declarations
+		ILWRDataLoader loader;
+		TreeMap<Double, ArrayList<FeatureSet>> current = null;
+
+		synchronized (this) {
+			loader = this.dataLoader;
+			if (this.loaded) {
+				current = this.dataTree;
+			}
+		}
+
+		// If the data is loaded, tell its loader that it is still in use.
+		if (current != null) {
+			if (loader != null) {
+				loader.dataUsed(this);
+			}
+			return current;
+		}
+
+		LWRDataProvider data = loader.load(this);
+
+		// Only use the loaded data if the loader was not changed while it was
+		// loading.
+		synchronized (this) {
+			if (!this.loaded && this.dataLoader == loader) {
+				this.dataTree = data.dataTree;
+				this.loaded = true;
+			}
+			return this.dataTree;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Gets the dataTree, loading it first if necessary, and detaches the data
+	 * loader so that the data is never unloaded. This should be used before
+	 * modifying the dataTree.
+	 * </p>
+	 * 
+	 * @return <p>
+	 *         The current dataTree.
+	 *         </p>
+	 */
+	private TreeMap<Double, ArrayList<FeatureSet>> getModifiableDataTree() {
+		while (true) {
+			TreeMap<Double, ArrayList<FeatureSet>> dataTree = getDataTree();
+			synchronized (this) {
+				// If the data was unloaded in the meantime, load it again.
+				if (this.loaded && dataTree == this.dataTree) {
+					this.dataLoader = null;
+					return dataTree;
+				}
+			}
+		}
+	}
 }
\ No newline at end of file
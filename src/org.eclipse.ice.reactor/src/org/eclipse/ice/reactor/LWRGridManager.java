@@ -691,6 +691,21 @@ public class LWRGridManager extends LWRComponent implements IGridManager {
 	 */
 	@Override
 	public boolean readDatasets(H5Group h5Group) {
+		return readDatasets(h5Group, null);
+	}
+
+	/**
+	 * Reads the datasets of the grid manager. If a data file is given, the
+	 * state point data of each position is not read until it is needed.
+	 *
+	 * @param h5Group
+	 *            The H5Group to read.
+	 * @param dataFile
+	 *            The open file that the state point data is read from later,
+	 *            or null to read the data now.
+	 * @return True if the operation was successful, false otherwise.
+	 */
+	boolean readDatasets(H5Group h5Group, LWRDataFile dataFile) {
 
 		// Call super
 		boolean flag = super.readDatasets(h5Group);
@@ -810,11 +825,17 @@ public class LWRGridManager extends LWRComponent implements IGridManager {
 					.getChildH5Groups(position);
 			LWRDataProvider provider = location.getLWRDataProvider();
 
+			// If the file is kept open, read the time steps when they are
+			// first needed.
+			if (dataFile != null) {
+				provider.setDataLoader(dataFile.createLoader(this,
+						timeStepsMemberList, arrayStrings, provider));
+			}
 			// Pass the LWRDataProvider, the groups, and the array of units to
 			// read the time steps at the feature.
 			// Return if the operation returns false
-			if (!this.readTimeStepsAtFeature(provider, timeStepsMemberList,
-					arrayStrings)) {
+			else if (!this.readTimeStepsAtFeature(provider,
+					timeStepsMemberList, arrayStrings)) {
 				return false;
 			}
 
@@ -837,7 +858,7 @@ public class LWRGridManager extends LWRComponent implements IGridManager {
 	 *            An array of strings used to specify the unit list.
 	 * @return True if the operation was successful, false otherwise.
 	 */
-	private boolean readTimeStepsAtFeature(LWRDataProvider provider,
+	boolean readTimeStepsAtFeature(LWRDataProvider provider,
 			ArrayList<H5Group> timeStepsMemberList, String[] arrayStrings) {
 
 		// Iterate over the time groups
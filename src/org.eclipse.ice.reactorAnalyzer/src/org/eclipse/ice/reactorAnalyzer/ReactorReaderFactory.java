@@ -12,9 +12,13 @@
  *******************************************************************************/
 package org.eclipse.ice.reactorAnalyzer;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import ncsa.hdf.hdf5lib.H5;
@@ -24,7 +28,9 @@ import ncsa.hdf.hdf5lib.structs.H5O_info_t;
 
 import org.eclipse.ice.datastructures.componentVisitor.IReactorComponent;
 import org.eclipse.ice.reactor.LWRComponentReader;
+import org.eclipse.ice.reactor.LWRDataFile;
 import org.eclipse.ice.reactor.pwr.PressurizedWaterReactor;
+import org.eclipse.ice.reactor.sfr.base.SFRDataFile;
 import org.eclipse.ice.reactor.sfr.base.SFReactorIOHandler;
 import org.eclipse.ice.reactor.sfr.core.SFReactor;
 import org.slf4j.Logger;
@@ -49,15 +55,41 @@ public class ReactorReaderFactory {
 
 	private Map<Class, IReactorFactory> reactorFactoryMap;
 
+	/**
+	 * The files that were opened to lazily read reactors, keyed on their URIs.
+	 * Only one file is kept open for each URI, and its reactor is returned
+	 * until the file changes. These stay open until {@link #close()} is
+	 * called. Since their reactors may still be shown in editors, the
+	 * remaining data is read into the reactors before the files are closed.
+	 */
+	private final Map<URI, OpenFile> openFiles;
+
 	public ReactorReaderFactory() {
 
+		openFiles = new HashMap<URI, OpenFile>();
+
 		reactorFactoryMap = new HashMap<Class, IReactorFactory>();
 		reactorFactoryMap.put(PressurizedWaterReactor.class,
 				new IReactorFactory() {
 					@Override
 					public IReactorComponent read(URI uri) {
-						return (PressurizedWaterReactor) new LWRComponentReader()
-								.read(uri);
+						// Record the state of the file before it is read so
+						// that any later change is detected.
+						File source = new File(uri);
+						long lastModified = source.lastModified();
+						long length = source.length();
+
+						// Only read the reactor's structure. The state point
+						// data is read from the open file when it is first
+						// needed.
+						LWRDataFile file = new LWRComponentReader().open(uri,
+								LWRDataFile.DEFAULT_CAPACITY);
+						if (file == null) {
+							return null;
+						}
+						addOpenFile(uri, new OpenFile(file, file.getReactor(),
+								lastModified, length));
+						return file.getReactor();
 					}
 
 					@Override
@@ -71,7 +103,22 @@ public class ReactorReaderFactory {
 		reactorFactoryMap.put(SFReactor.class, new IReactorFactory() {
 			@Override
 			public IReactorComponent read(URI uri) {
-				return new SFReactorIOHandler().readHDF5(uri);
+				// Record the state of the file before it is read so that any
+				// later change is detected.
+				File source = new File(uri);
+				long lastModified = source.lastModified();
+				long length = source.length();
+
+				// Only read the reactor's structure. The state point data is
+				// read from the open file when it is first needed.
+				SFRDataFile file = new SFReactorIOHandler().openHDF5(uri,
+						SFRDataFile.DEFAULT_CAPACITY);
+				if (file == null) {
+					return null;
+				}
+				addOpenFile(uri, new OpenFile(file, file.getReactor(),
+						lastModified, length));
+				return file.getReactor();
 			}
 
 			@Override
@@ -113,6 +160,17 @@ public class ReactorReaderFactory {
 			return component;
 		}
 
+		// If the file is already open and has not changed, return the same
+		// reactor instead of opening it again.
+		synchronized (openFiles) {
+			OpenFile openFile = openFiles.get(source);
+			if (openFile != null
+					&& openFile.lastModified == file.lastModified()
+					&& openFile.length == file.length()) {
+				return openFile.reactor;
+			}
+		}
+
 		// The name of the reactor group (the first group in the .h5 file).
 		Class type = null;
 
@@ -263,4 +321,116 @@ public class ReactorReaderFactory {
 
 		return copied;
 	}
+
+	/**
+	 * Closes any files that were kept open to lazily read the data for the
+	 * reactors read by this factory. The data that has not been read yet is
+	 * read first, so the reactors can still be used afterward.
+	 */
+	public void close() {
+
+		// Local Declarations
+		List<OpenFile> closedFiles;
+
+		// Reading the remaining data may take a while, so the files are closed
+		// outside of the lock.
+		synchronized (openFiles) {
+			closedFiles = new ArrayList<OpenFile>(openFiles.values());
+			openFiles.clear();
+		}
+		for (OpenFile openFile : closedFiles) {
+			closeFile(openFile);
+		}
+		return;
+	}
+
+	/**
+	 * Keeps a file open for a URI. Any file that was open for the same URI is
+	 * closed after its remaining data is read.
+	 *
+	 * @param uri
+	 *            The URI of the file.
+	 * @param openFile
+	 *            The open file.
+	 */
+	private void addOpenFile(URI uri, OpenFile openFile) {
+		OpenFile oldFile;
+		synchronized (openFiles) {
+			oldFile = openFiles.put(uri, openFile);
+		}
+		if (oldFile != null) {
+			closeFile(oldFile);
+		}
+		return;
+	}
+
+	/**
+	 * Closes a file that was kept open. The reactor read from the file may
+	 * still be used elsewhere, for instance in a Reactor Editor, so the data
+	 * that has not been read yet is read into the reactor first.
+	 *
+	 * @param openFile
+	 *            The open file.
+	 */
+	private void closeFile(OpenFile openFile) {
+		if (openFile.file instanceof SFRDataFile) {
+			((SFRDataFile) openFile.file).detachAndClose();
+		} else if (openFile.file instanceof LWRDataFile) {
+			((LWRDataFile) openFile.file).detachAndClose();
+		} else {
+			try {
+				openFile.file.close();
+			} catch (IOException e) {
+				logger.error(getClass().getName() + " Exception!", e);
+			}
+		}
+		return;
+	}
+
+	/**
+	 * A file that was opened to lazily read a reactor, its reactor, and the
+	 * state of the file when it was opened.
+	 */
+	private static class OpenFile {
+
+		/**
+		 * The open file.
+		 */
+		private final Closeable file;
+
+		/**
+		 * The reactor read from the file.
+		 */
+		private final IReactorComponent reactor;
+
+		/**
+		 * The modification time of the file when it was opened.
+		 */
+		private final long lastModified;
+
+		/**
+		 * The length of the file when it was opened.
+		 */
+		private final long length;
+
+		/**
+		 * The default constructor.
+		 *
+		 * @param file
+		 *            The open file.
+		 * @param reactor
+		 *            The reactor read from the file.
+		 * @param lastModified
+		 *            The modification time of the file when it was opened.
+		 * @param length
+		 *            The length of the file when it was opened.
+		 */
+		public OpenFile(Closeable file, IReactorComponent reactor,
+				long lastModified, long length) {
+			this.file = file;
+			this.reactor = reactor;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+	}
 }
\ No newline at end of file
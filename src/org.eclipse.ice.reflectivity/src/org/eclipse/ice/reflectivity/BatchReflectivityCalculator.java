@@ -0,0 +1,707 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation -
+ *   Jay Jay Billings
+ *******************************************************************************/
+package org.eclipse.ice.reflectivity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class evaluates many reflectivity curves for variations of a single
+ * stack of slabs. The wave vector and resolution are fixed when it is
+ * created, and each curve sets a list of
+ * {@link ReflectivityParameter}s to new values. It can be used for parameter
+ * sweeps or for fitting the parameters to the measured data with the
+ * Levenberg-Marquardt method.
+ *
+ * The curves are evaluated in parallel on a pool of daemon threads that is
+ * shared by all calculators and lives as long as the application. Each thread
+ * keeps its own copy of the slabs and its own {@link ReflectivityCalculator}
+ * for each calculator, so neither is created again by later calls and the tile
+ * layout is reused between curves that only change the scattering or
+ * absorption lengths. Results are passed to an {@link ICurveListener} in the
+ * same order as the parameter values, so they can be written out while the
+ * rest of the curves are computed.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public class BatchReflectivityCalculator {
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private static final Logger logger = LoggerFactory
+			.getLogger(BatchReflectivityCalculator.class);
+
+	/**
+	 * The number of threads used to evaluate the curves.
+	 */
+	private static final int numThreads = Runtime.getRuntime()
+			.availableProcessors();
+
+	/**
+	 * The threads that evaluate the curves for every calculator. They are
+	 * daemons so that they do not keep the application running.
+	 */
+	private static final ExecutorService executor = Executors
+			.newFixedThreadPool(numThreads, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable,
+							"BatchReflectivityCalculator-"
+									+ count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	/**
+	 * This interface is implemented by classes that receive the curves
+	 * calculated by
+	 * {@link BatchReflectivityCalculator#calculate(List, List, ICurveListener)}
+	 * .
+	 *
+	 * @author Jay Jay Billings
+	 *
+	 */
+	public interface ICurveListener {
+
+		/**
+		 * This operation is called for each curve in the order of the
+		 * parameter values. It is never called by two threads at once.
+		 *
+		 * @param index
+		 *            the index of the parameter values
+		 * @param values
+		 *            the parameter values for the curve
+		 * @param reflectivity
+		 *            the reflectivity at each point in the wave vector, or
+		 *            null if it could not be calculated
+		 * @param chiSquare
+		 *            the chi-squared difference from the measured data, or NaN
+		 *            if there is no measured data or no reflectivity
+		 */
+		public void curveCalculated(int index, double[] values,
+				double[] reflectivity, double chiSquare);
+	}
+
+	/**
+	 * This interface is implemented by classes that follow the progress of
+	 * {@link BatchReflectivityCalculator#fit(List, int, IFitListener)}.
+	 *
+	 * @author Jay Jay Billings
+	 *
+	 */
+	public interface IFitListener {
+
+		/**
+		 * This operation is called after each iteration that improves the
+		 * fit.
+		 *
+		 * @param iteration
+		 *            the iteration, starting at zero for the initial values
+		 * @param values
+		 *            the current parameter values
+		 * @param chiSquare
+		 *            the chi-squared difference from the measured data
+		 */
+		public void iterationCompleted(int iteration, double[] values,
+				double chiSquare);
+	}
+
+	/**
+	 * The slabs that define the material before any parameters are changed.
+	 */
+	private final Slab[] slabs;
+
+	/**
+	 * The number of layers of roughness.
+	 */
+	private final int numRough;
+
+	/**
+	 * The resolution and wavelength used for every curve.
+	 */
+	private final double deltaQ0, deltaQ1ByQ, wavelength;
+
+	/**
+	 * The wave vector used for every curve.
+	 */
+	private final double[] waveVector;
+
+	/**
+	 * The measured reflectivity and its error at each point in the wave
+	 * vector. These are null if there is no measured data.
+	 */
+	private double[] measuredData, measuredError;
+
+	/**
+	 * The calculator used by each thread. It is kept between calls so that
+	 * its tile layout can be reused.
+	 */
+	private final ThreadLocal<ReflectivityCalculator> calculators = new ThreadLocal<ReflectivityCalculator>() {
+		@Override
+		protected ReflectivityCalculator initialValue() {
+			return new ReflectivityCalculator();
+		}
+	};
+
+	/**
+	 * The copy of the slabs used by each thread. The parameters of a curve
+	 * are applied to it instead of to {@link #slabs}.
+	 */
+	private final ThreadLocal<Slab[]> workSlabs = new ThreadLocal<Slab[]>() {
+		@Override
+		protected Slab[] initialValue() {
+			return copySlabs(slabs);
+		}
+	};
+
+	/**
+	 * The number of curves evaluated by this calculator.
+	 */
+	private long curveCount;
+
+	/**
+	 * The time spent evaluating curves in nanoseconds.
+	 */
+	private long elapsedTime;
+
+	/**
+	 * The constructor. The slabs and wave vector are copied.
+	 *
+	 * @param slabs
+	 *            the slabs that define the material
+	 * @param numRough
+	 *            the number of layers of roughness
+	 * @param deltaQ0
+	 *            the zeroth order term of the Q resolution
+	 * @param deltaQ1ByQ
+	 *            the first order term of the Q resolution
+	 * @param wavelength
+	 *            the wavelength of the incident neutrons
+	 * @param waveVector
+	 *            the wave vector
+	 */
+	public BatchReflectivityCalculator(Slab[] slabs, int numRough,
+			double deltaQ0, double deltaQ1ByQ, double wavelength,
+			double[] waveVector) {
+		this.slabs = copySlabs(slabs);
+		this.numRough = numRough;
+		this.deltaQ0 = deltaQ0;
+		this.deltaQ1ByQ = deltaQ1ByQ;
+		this.wavelength = wavelength;
+		this.waveVector = waveVector.clone();
+	}
+
+	/**
+	 * This operation sets the measured data that the curves are compared
+	 * against.
+	 *
+	 * @param reflectivity
+	 *            the measured reflectivity at each point in the wave vector
+	 * @param error
+	 *            the error of each measured value. If it is null or an error
+	 *            is not positive, the difference is taken relative to the
+	 *            measured value instead.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the measured data does not match the wave vector
+	 *             or the error does not match the measured data
+	 */
+	public void setMeasuredData(double[] reflectivity, double[] error) {
+		if (reflectivity != null && reflectivity.length != waveVector.length) {
+			throw new IllegalArgumentException(
+					"BatchReflectivityCalculator error: "
+							+ "The measured data does not match the wave vector.");
+		}
+		if (error != null
+				&& (reflectivity == null || error.length != reflectivity.length)) {
+			throw new IllegalArgumentException(
+					"BatchReflectivityCalculator error: "
+							+ "The measured error does not match the measured data.");
+		}
+		measuredData = reflectivity;
+		measuredError = error;
+	}
+
+	/**
+	 * This operation calculates the reflectivity for each set of parameter
+	 * values. It blocks until all of the curves have been passed to the
+	 * listener.
+	 *
+	 * @param parameters
+	 *            the parameters that are changed for each curve
+	 * @param values
+	 *            the parameter values for each curve, in the same order as the
+	 *            parameters
+	 * @param listener
+	 *            the listener that receives the curves in order
+	 * @throws InterruptedException
+	 *             Thrown if the thread is interrupted while waiting for the
+	 *             curves
+	 */
+	public void calculate(final List<ReflectivityParameter> parameters,
+			final List<double[]> values, final ICurveListener listener)
+			throws InterruptedException {
+
+		// Local Declarations
+		final AtomicInteger next = new AtomicInteger();
+		final Map<Integer, double[]> pending = new HashMap<Integer, double[]>();
+		final double[] chiSquares = new double[values.size()];
+		final int[] nextDelivery = new int[1];
+		int threads = Math.max(1, Math.min(numThreads, values.size()));
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		long startTime = System.nanoTime();
+
+		// Each worker takes the next set of values until they are all gone.
+		for (int i = 0; i < threads; i++) {
+			futures.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					// Scratch space for this thread
+					ReflectivityCalculator calculator = calculators.get();
+					Slab[] threadSlabs = workSlabs.get();
+					int index;
+					while ((index = next.getAndIncrement()) < values.size()) {
+						double[] reflectivity = calculate(calculator,
+								threadSlabs, parameters, values.get(index));
+						chiSquares[index] = getChiSquare(reflectivity);
+						// Deliver every curve that is ready, in order.
+						synchronized (pending) {
+							pending.put(index, reflectivity);
+							while (pending.containsKey(nextDelivery[0])) {
+								int delivered = nextDelivery[0]++;
+								listener.curveCalculated(delivered,
+										values.get(delivered),
+										pending.remove(delivered),
+										chiSquares[delivered]);
+							}
+						}
+					}
+					return null;
+				}
+			}));
+		}
+
+		// Wait for the workers to finish
+		try {
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(
+					"BatchReflectivityCalculator error: "
+							+ "Unable to calculate the reflectivity.",
+					e.getCause());
+		} finally {
+			// If a curve failed or this thread was interrupted, the workers
+			// stop after their current curve. The threads are kept.
+			next.set(values.size());
+			for (Future<Void> future : futures) {
+				future.cancel(false);
+			}
+		}
+
+		// Update the throughput
+		synchronized (this) {
+			curveCount += values.size();
+			elapsedTime += System.nanoTime() - startTime;
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation calculates the reflectivity for each set of parameter
+	 * values and returns them all at once.
+	 *
+	 * @param parameters
+	 *            the parameters that are changed for each curve
+	 * @param values
+	 *            the parameter values for each curve
+	 * @return the reflectivity for each set of values. A curve is null if it
+	 *         could not be calculated.
+	 * @throws InterruptedException
+	 *             Thrown if the thread is interrupted while waiting for the
+	 *             curves
+	 */
+	public double[][] calculate(List<ReflectivityParameter> parameters,
+			List<double[]> values) throws InterruptedException {
+
+		final double[][] curves = new double[values.size()][];
+
+		calculate(parameters, values, new ICurveListener() {
+			@Override
+			public void curveCalculated(int index, double[] values,
+					double[] reflectivity, double chiSquare) {
+				curves[index] = reflectivity;
+			}
+		});
+
+		return curves;
+	}
+
+	/**
+	 * This operation fits the parameters to the measured data with the
+	 * Levenberg-Marquardt method. The Jacobian is computed with forward
+	 * differences, so each iteration evaluates one curve per parameter in
+	 * parallel. The trial steps for several damping factors are also
+	 * evaluated in parallel, and the best one is kept.
+	 *
+	 * @param parameters
+	 *            the parameters to fit
+	 * @param maxIterations
+	 *            the maximum number of iterations
+	 * @param listener
+	 *            the listener that follows the progress of the fit. It may be
+	 *            null.
+	 * @return the fitted parameter values
+	 * @throws InterruptedException
+	 *             Thrown if the thread is interrupted while waiting for the
+	 *             curves
+	 */
+	public double[] fit(List<ReflectivityParameter> parameters,
+			int maxIterations, IFitListener listener)
+			throws InterruptedException {
+
+		// Local Declarations
+		int numParams = parameters.size(), numPoints = waveVector.length;
+		double[] values = new double[numParams];
+		double lambda = 1.0e-3;
+		boolean converged = false;
+		final double[] dampingFactors = { 0.1, 1.0, 10.0, 100.0 };
+
+		// Fitting requires measured data
+		if (measuredData == null) {
+			throw new IllegalStateException(
+					"BatchReflectivityCalculator error: "
+							+ "There is no measured data to fit.");
+		}
+
+		// Start from the values in the slabs
+		for (int i = 0; i < numParams; i++) {
+			values[i] = parameters.get(i).getValue(slabs);
+		}
+		double[] reflectivity = calculate(parameters, asList(values))[0];
+		double chiSquare = getChiSquare(reflectivity);
+		if (Double.isNaN(chiSquare)) {
+			throw new IllegalStateException(
+					"BatchReflectivityCalculator error: "
+							+ "Unable to calculate the initial reflectivity.");
+		}
+		if (listener != null) {
+			listener.iterationCompleted(0, values.clone(), chiSquare);
+		}
+
+		for (int iteration = 1; iteration <= maxIterations
+				&& !converged; iteration++) {
+
+			// Evaluate the Jacobian of the weighted residuals by perturbing
+			// each parameter
+			double[] steps = new double[numParams];
+			List<double[]> perturbed = new ArrayList<double[]>();
+			for (int j = 0; j < numParams; j++) {
+				double[] point = values.clone();
+				steps[j] = values[j] != 0.0 ? 1.0e-4 * Math.abs(values[j])
+						: 1.0e-10;
+				point[j] += steps[j];
+				perturbed.add(point);
+			}
+			double[][] curves = calculate(parameters, perturbed);
+			double[][] jacobian = new double[numPoints][numParams];
+			double[] residuals = new double[numPoints];
+			for (int i = 0; i < numPoints; i++) {
+				double weight = getWeight(i);
+				residuals[i] = weight * (measuredData[i] - reflectivity[i]);
+				for (int j = 0; j < numParams; j++) {
+					if (curves[j] != null) {
+						jacobian[i][j] = weight
+								* (curves[j][i] - reflectivity[i]) / steps[j];
+					}
+				}
+			}
+
+			// Build the normal equations
+			double[][] normal = new double[numParams][numParams];
+			double[] gradient = new double[numParams];
+			for (int i = 0; i < numPoints; i++) {
+				for (int j = 0; j < numParams; j++) {
+					gradient[j] += jacobian[i][j] * residuals[i];
+					for (int k = 0; k < numParams; k++) {
+						normal[j][k] += jacobian[i][j] * jacobian[i][k];
+					}
+				}
+			}
+
+			// Try several damping factors at once. Increase the damping until
+			// one of them improves the fit.
+			boolean improved = false;
+			for (int attempt = 0; attempt < 4 && !improved; attempt++) {
+				List<double[]> trials = new ArrayList<double[]>();
+				List<Double> trialLambdas = new ArrayList<Double>();
+				for (double factor : dampingFactors) {
+					double[] step = solveDamped(normal, gradient, lambda
+							* factor);
+					if (step != null) {
+						double[] trial = new double[numParams];
+						for (int j = 0; j < numParams; j++) {
+							trial[j] = parameters.get(j).constrain(
+									values[j] + step[j]);
+						}
+						trials.add(trial);
+						trialLambdas.add(lambda * factor);
+					}
+				}
+				double[][] trialCurves = calculate(parameters, trials);
+				int best = -1;
+				double bestChiSquare = chiSquare;
+				for (int t = 0; t < trials.size(); t++) {
+					double trialChiSquare = getChiSquare(trialCurves[t]);
+					if (trialChiSquare < bestChiSquare) {
+						best = t;
+						bestChiSquare = trialChiSquare;
+					}
+				}
+				if (best >= 0) {
+					improved = true;
+					lambda = trialLambdas.get(best);
+					double change = (chiSquare - bestChiSquare) / chiSquare;
+					values = trials.get(best);
+					reflectivity = trialCurves[best];
+					chiSquare = bestChiSquare;
+					if (listener != null) {
+						listener.iterationCompleted(iteration, values.clone(),
+								chiSquare);
+					}
+					// Stop if the fit is no longer improving
+					converged = change < 1.0e-6;
+				} else {
+					lambda *= 1000.0;
+				}
+			}
+
+			// Stop if no step improves the fit
+			converged |= !improved;
+		}
+
+		logger.info("BatchReflectivityCalculator Message: Fit finished with "
+				+ "chi-squared " + chiSquare + " at "
+				+ getCurvesPerSecond() + " curves/second.");
+
+		return values;
+	}
+
+	/**
+	 * This operation computes the chi-squared difference between a curve and
+	 * the measured data.
+	 *
+	 * @param reflectivity
+	 *            the reflectivity at each point in the wave vector
+	 * @return the sum of the squared, weighted differences, or NaN if there is
+	 *         no measured data or the reflectivity is null
+	 */
+	public double getChiSquare(double[] reflectivity) {
+
+		double chiSquare = Double.NaN;
+
+		if (measuredData != null && reflectivity != null) {
+			chiSquare = 0.0;
+			for (int i = 0; i < reflectivity.length; i++) {
+				double residual = getWeight(i)
+						* (measuredData[i] - reflectivity[i]);
+				chiSquare += residual * residual;
+			}
+		}
+
+		return chiSquare;
+	}
+
+	/**
+	 * This operation returns the number of curves that have been evaluated.
+	 *
+	 * @return the number of curves
+	 */
+	public synchronized long getCurveCount() {
+		return curveCount;
+	}
+
+	/**
+	 * This operation returns the average number of curves evaluated per
+	 * second.
+	 *
+	 * @return the throughput in curves per second, or zero if no curves have
+	 *         been evaluated
+	 */
+	public synchronized double getCurvesPerSecond() {
+		return elapsedTime > 0 ? curveCount * 1.0e9 / elapsedTime : 0.0;
+	}
+
+	/**
+	 * This operation calculates a single curve using a thread's scratch space.
+	 *
+	 * @param calculator
+	 *            the thread's calculator
+	 * @param threadSlabs
+	 *            the thread's copy of the slabs
+	 * @param parameters
+	 *            the parameters that are changed
+	 * @param values
+	 *            the parameter values
+	 * @return the reflectivity, or null if it could not be calculated
+	 */
+	private double[] calculate(ReflectivityCalculator calculator,
+			Slab[] threadSlabs, List<ReflectivityParameter> parameters,
+			double[] values) {
+
+		// Reset the slabs and apply the parameters
+		for (int i = 0; i < slabs.length; i++) {
+			copySlab(slabs[i], threadSlabs[i]);
+		}
+		for (int i = 0; i < parameters.size(); i++) {
+			parameters.get(i).setValue(threadSlabs, values[i]);
+		}
+
+		return calculator.getReflectivity(threadSlabs, numRough, deltaQ0,
+				deltaQ1ByQ, wavelength, waveVector, false);
+	}
+
+	/**
+	 * This operation returns the weight of the residual at a point in the
+	 * wave vector.
+	 *
+	 * @param i
+	 *            the index of the point
+	 * @return one over the error of the measured value if it is positive,
+	 *         otherwise one over the measured value itself
+	 */
+	private double getWeight(int i) {
+
+		double scale = 1.0;
+
+		if (measuredError != null && measuredError[i] > 0.0) {
+			scale = measuredError[i];
+		} else if (measuredData[i] != 0.0) {
+			scale = Math.abs(measuredData[i]);
+		}
+
+		return 1.0 / scale;
+	}
+
+	/**
+	 * This operation solves the damped normal equations (A + lambda*diag(A))x
+	 * = b with Gaussian elimination and partial pivoting.
+	 *
+	 * @param normal
+	 *            the matrix A
+	 * @param gradient
+	 *            the vector b
+	 * @param lambda
+	 *            the damping factor
+	 * @return the solution x, or null if the system is singular
+	 */
+	private static double[] solveDamped(double[][] normal, double[] gradient,
+			double lambda) {
+
+		// Local Declarations
+		int n = gradient.length;
+		double[][] a = new double[n][n + 1];
+
+		// Build the augmented matrix
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(normal[i], 0, a[i], 0, n);
+			double diagonal = normal[i][i] > 0.0 ? normal[i][i] : 1.0;
+			a[i][i] += lambda * diagonal;
+			a[i][n] = gradient[i];
+		}
+
+		// Eliminate
+		for (int col = 0; col < n; col++) {
+			int pivot = col;
+			for (int row = col + 1; row < n; row++) {
+				if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+					pivot = row;
+				}
+			}
+			if (a[pivot][col] == 0.0 || Double.isNaN(a[pivot][col])) {
+				return null;
+			}
+			double[] tmp = a[col];
+			a[col] = a[pivot];
+			a[pivot] = tmp;
+			for (int row = col + 1; row < n; row++) {
+				double factor = a[row][col] / a[col][col];
+				for (int k = col; k <= n; k++) {
+					a[row][k] -= factor * a[col][k];
+				}
+			}
+		}
+
+		// Back substitute
+		double[] x = new double[n];
+		for (int row = n - 1; row >= 0; row--) {
+			double sum = a[row][n];
+			for (int k = row + 1; k < n; k++) {
+				sum -= a[row][k] * x[k];
+			}
+			x[row] = sum / a[row][row];
+		}
+
+		return x;
+	}
+
+	/**
+	 * This operation wraps a single set of parameter values in a list.
+	 */
+	private static List<double[]> asList(double[] values) {
+		List<double[]> list = new ArrayList<double[]>(1);
+		list.add(values);
+		return list;
+	}
+
+	/**
+	 * This operation copies the properties of one slab into another.
+	 */
+	private static void copySlab(Slab source, Slab target) {
+		target.scatteringLength = source.scatteringLength;
+		target.trueAbsLength = source.trueAbsLength;
+		target.incAbsLength = source.incAbsLength;
+		target.thickness = source.thickness;
+		target.interfaceWidth = source.interfaceWidth;
+	}
+
+	/**
+	 * This operation copies a set of slabs.
+	 */
+	private static Slab[] copySlabs(Slab[] slabs) {
+		Slab[] copies = new Slab[slabs.length];
+		for (int i = 0; i < slabs.length; i++) {
+			copies[i] = new Slab();
+			copySlab(slabs[i], copies[i]);
+		}
+		return copies;
+	}
+
+}
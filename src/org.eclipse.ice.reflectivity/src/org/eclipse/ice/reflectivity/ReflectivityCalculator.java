@@ -13,6 +13,10 @@
  *******************************************************************************/
 package org.eclipse.ice.reflectivity;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.apache.commons.math.MathException;
 import org.apache.commons.math.complex.Complex;
 import org.apache.commons.math.special.Erf;
@@ -53,6 +57,33 @@ public class ReflectivityCalculator {
 	 */
 	private static final double cE = 1.665;
 
+	/**
+	 * The number of slabs below which the tile layout is computed on the
+	 * calling thread. Each slab requires roughly numRough evaluations of the
+	 * error function, so this is small.
+	 */
+	private static final int interfaceGrain = 8;
+
+	/**
+	 * The number of tiles below which tile properties and profiles are
+	 * computed on the calling thread.
+	 */
+	private static final int tileGrain = 4096;
+
+	/**
+	 * The pool used to compute tiles and profiles in parallel. Its threads are
+	 * daemon threads, so it does not need to be shut down.
+	 */
+	private static final ForkJoinPool pool = new ForkJoinPool();
+
+	/**
+	 * The layout of the tiles computed for the last set of slabs passed to
+	 * {@link #generateTileArray(Slab[], int, double[], double[])}. Layouts are
+	 * not modified once they are computed, so it can be shared between
+	 * threads.
+	 */
+	private volatile TileLayout layout;
+
 	/**
 	 * This operation returns the value of the squared modulus of the specular
 	 * reflectivity for a single wave vector Q.
@@ -69,24 +100,42 @@ public class ReflectivityCalculator {
 	 */
 	public double getModSqrdSpecRef(double waveVectorQ, double wavelength,
 			Tile[] tiles) {
+		return getModSqrdSpecRef(waveVectorQ, wavelength,
+				TileArray.fromTiles(tiles));
+	}
+
+	/**
+	 * This operation returns the value of the squared modulus of the specular
+	 * reflectivity for a single wave vector Q.
+	 *
+	 * @param waveVectorQ
+	 *            the value of the wave vector
+	 * @param wavelength
+	 *            the wavelength of the incident neutrons
+	 * @param tiles
+	 *            the array of tiles that contains the physical parameters
+	 *            needed for the calculation, including the scattering
+	 *            densities, absorption parameters and thicknesses.
+	 * @return the squared modulus of the specular reflectivity
+	 */
+	public double getModSqrdSpecRef(double waveVectorQ, double wavelength,
+			TileArray tiles) {
 
 		double modSqrdSpecRef = 0.0;
 
 		if (wavelength > 0.0) {
 			// Variables only needed if we are going to do the work, i.e. -
 			// wavelength > 0.0.
-			Tile tile;
 			Complex aNm1Sq, fNm1N, rNm1N = new Complex(0.0, 0.0), one = new Complex(
 					1.0, 0.0), qN = new Complex(0.0, 0.0), rNNp1 = new Complex(
 					0.0, 0.0);
 			// Get the bottom tile
-			int nLayers = tiles.length;
-			tile = tiles[nLayers - 1];
+			int nLayers = tiles.size();
 			// Starting point--no reflected beam in bottom-most (bulk) layer
-			double qCSq = 16.0 * Math.PI * tile.scatteringLength;
-			double muLAbs = tile.trueAbsLength;
-			double mulInc = tile.incAbsLength;
-			double thickness = tile.thickness;
+			double qCSq = 16.0 * Math.PI * tiles.scatteringLength[nLayers - 1];
+			double muLAbs = tiles.trueAbsLength[nLayers - 1];
+			double mulInc = tiles.incAbsLength[nLayers - 1];
+			double thickness = tiles.thickness[nLayers - 1];
 			// Setup other values for the problem
 			double betaNm1 = 4.0 * Math.PI * (muLAbs + mulInc / wavelength);
 			Complex qNm1 = new Complex(waveVectorQ * waveVectorQ - qCSq, -2.0
@@ -95,14 +144,13 @@ public class ReflectivityCalculator {
 			// Loop through to calculate recursion formula described in Parratt.
 			// Start at the bottom and work up.
 			for (int i = nLayers - 1; i > 0; i--) {
-				// Get the tile above tile[i] (started at the bottom
-				tile = tiles[i - 1];
 				// Calculate the normal component of Q for layer and layer-1
+				// using the tile above tile i (started at the bottom)
 				qN = qNm1;
-				qCSq = 16.0 * Math.PI * tile.scatteringLength;
-				muLAbs = tile.trueAbsLength;
-				mulInc = tile.incAbsLength;
-				thickness = tile.thickness;
+				qCSq = 16.0 * Math.PI * tiles.scatteringLength[i - 1];
+				muLAbs = tiles.trueAbsLength[i - 1];
+				mulInc = tiles.incAbsLength[i - 1];
+				thickness = tiles.thickness[i - 1];
 				betaNm1 = 4.0 * Math.PI * (muLAbs + mulInc / wavelength);
 				qNm1 = new Complex(waveVectorQ * waveVectorQ - qCSq, -2.0
 						* betaNm1);
@@ -396,198 +444,315 @@ public class ReflectivityCalculator {
 	 * @return the system of generated tiles
 	 * @throws MathException
 	 *             Thrown if the error function cannot be calculated
+	 * @see #generateTileArray(Slab[], int, double[], double[])
 	 */
 	public Tile[] generateTiles(Slab[] slabs, int numRough, double[] zInt,
 			double[] rufInt) throws MathException {
+		return generateTileArray(slabs, numRough, zInt, rufInt).toTiles();
+	}
+
+	/**
+	 * This operation generates an array of tiles from the slabs with the
+	 * corresponding number of ordinate steps.
+	 *
+	 * The thicknesses of the tiles and the weights used to mix the properties
+	 * of neighboring slabs only depend on the thicknesses and interface widths
+	 * of the slabs and the interfacial profile. This calculator keeps the
+	 * layout computed from the last set of slabs and reuses it when only the
+	 * scattering lengths or absorption lengths of the slabs change, so that
+	 * the error function does not need to be re-evaluated. Both the layout and
+	 * the tile properties are computed in parallel across the interfaces when
+	 * there are many slabs.
+	 *
+	 * @param slabs
+	 *            the slabs of materials that define the system
+	 * @param numRough
+	 *            the number of ordinate steps
+	 * @param zInt
+	 *            FIXME! This array must be preallocated with a size n =
+	 *            maxRoughSize.
+	 * @param rufInt
+	 *            FIXME! This array must be preallocated with a size n =
+	 *            maxRoughSize.
+	 * @return the system of generated tiles
+	 * @throws MathException
+	 *             Thrown if the error function cannot be calculated
+	 */
+	public TileArray generateTileArray(Slab[] slabs, int numRough,
+			double[] zInt, double[] rufInt) throws MathException {
+
+		// Reuse the last layout if the geometry has not changed
+		TileLayout tileLayout = layout;
+		if (tileLayout == null
+				|| !tileLayout.matches(slabs, numRough, zInt, rufInt)) {
+			tileLayout = createTileLayout(slabs, numRough, zInt, rufInt);
+			layout = tileLayout;
+		}
+
+		// Mix the properties of the slabs into the tiles
+		return createTiles(tileLayout, slabs);
+	}
+
+	/**
+	 * This operation computes the layout of the tiles for a set of slabs. The
+	 * tiles for the vacuum interface, each slab between the vacuum and the
+	 * substrate, and the substrate interface form separate blocks. The size of
+	 * each block is computed first so that the blocks can be filled in
+	 * parallel.
+	 *
+	 * @param slabs
+	 *            the slabs of materials that define the system
+	 * @param numRough
+	 *            the number of ordinate steps
+	 * @param zInt
+	 *            the normalized thicknesses of the interfacial steps
+	 * @param rufInt
+	 *            the roughness of the interfacial steps
+	 * @return the layout of the tiles
+	 * @throws MathException
+	 *             Thrown if the error function cannot be calculated
+	 */
+	private TileLayout createTileLayout(final Slab[] slabs,
+			final int numRough, double[] zInt, double[] rufInt)
+			throws MathException {
 
 		// Local Declarations
-		int nGlay = 0;
-		double totalThickness = 0.0, gDMid = 0.0, step = 0.0, dist = 0.0;
-		// The number of slabs was not defined in the original code. I computed
-		// it by counting up the loops. This formula is currently off a little
-		// bit.
-		int numSlabs = 2 + 2 * (numRough / 2 + 1) + (slabs.length - 2)
-				* (2 + numRough);
-		Tile[] generatedSlabs = new Tile[numSlabs];
-		// Create the slabs
-		for (int i = 0; i < numSlabs; i++) {
-			generatedSlabs[i] = new Slab();
-		}
-
-		// Evaluate the first half of the vacuum interface. Create the first
-		// slab.
-		Tile tmpSlab = generatedSlabs[0];
-		Slab refSlab = slabs[0], secondRefSlab = slabs[1], thirdRefSlab;
-		tmpSlab.scatteringLength = refSlab.scatteringLength;
-		tmpSlab.trueAbsLength = refSlab.trueAbsLength;
-		tmpSlab.incAbsLength = refSlab.incAbsLength;
-		tmpSlab.thickness = refSlab.thickness;
-		++nGlay;
-		// Create the other slabs for this half
-		for (int i = 0; i < numRough / 2 + 1; i++) {
-			tmpSlab = generatedSlabs[nGlay + i];
-			updateTileByInterface(tmpSlab, refSlab, secondRefSlab, zInt[i],
-					rufInt[i]);
-		}
-		nGlay += numRough / 2 + 1;
+		final TileLayout tileLayout = new TileLayout(slabs, numRough, zInt,
+				rufInt);
+		final int half = numRough / 2 + 1;
+		final double[] gDMid = new double[slabs.length];
+		int[] blockStart = new int[slabs.length + 1];
+		double totalThickness = 0.0;
 
 		// Evaluate the total normalized thickness of the surface
 		for (int i = 0; i < numRough + 1; i++) {
 			totalThickness += zInt[i];
 		}
 
-		// Calculate gradation of layers. Using slabs.length - 1 because the
-		// last layer is at index 4.
+		// The first block is the vacuum and the first half of its interface.
+		blockStart[1] = 1 + half;
+		// Calculate the size of the gradation of each layer. Overlapping
+		// interfaces are stepped through the entire slab. Otherwise, the
+		// interfaces are evaluated separately around a bulk-like center.
 		for (int i = 1; i < slabs.length - 1; i++) {
-			refSlab = slabs[i];
-			secondRefSlab = slabs[i + 1];
-			thirdRefSlab = slabs[i - 1];
 			// FIXME! Review gDMid calculation with John because it can be
 			// negative.
-			gDMid = refSlab.thickness - 0.5 * totalThickness
-					* (refSlab.interfaceWidth + secondRefSlab.interfaceWidth);
-			if (gDMid <= 1.0e-10) {
-				// The interfaces are overlapping. Step through the entire slab
-				step = refSlab.thickness / (numRough + 1);
-				// Take the first half step
-				tmpSlab = generatedSlabs[nGlay];
-				tmpSlab.thickness = step / 2.0;
-				dist = step / 4.0;
-				updateTileByLayer(tmpSlab, thirdRefSlab, refSlab,
-						secondRefSlab, dist);
-				++nGlay;
-				dist += 0.75 * step;
-				// Take the remaining steps
-				for (int j = 0; j < numRough; j++) {
-					tmpSlab = generatedSlabs[nGlay + j];
-					tmpSlab.thickness = step;
-					updateTileByLayer(tmpSlab, thirdRefSlab, refSlab,
-							secondRefSlab, dist);
-					dist += step;
-				}
-				nGlay += numRough;
-				// Take final half step
-				tmpSlab = generatedSlabs[nGlay];
-				tmpSlab.thickness = step / 2.0;
-				dist = refSlab.thickness - step / 4.0;
-				updateTileByLayer(tmpSlab, thirdRefSlab, refSlab,
-						secondRefSlab, dist);
-				++nGlay;
+			gDMid[i] = slabs[i].thickness - 0.5 * totalThickness
+					* (slabs[i].interfaceWidth + slabs[i + 1].interfaceWidth);
+			if (gDMid[i] <= 1.0e-10) {
+				blockStart[i + 1] = blockStart[i] + numRough + 2;
 			} else {
-				// Evaluate contributions from interfaces separately.
-				// Top interface
-				for (int j = numRough / 2 + 1; j < numRough + 1; j++) {
-					// Get the next slab and update it by considering the
-					// interface contribution.
-					tmpSlab = generatedSlabs[nGlay + j - numRough / 2 - 1];
-					updateTileByInterface(tmpSlab, thirdRefSlab, refSlab,
-							zInt[j], rufInt[j]);
-				}
-				nGlay += numRough / 2 + 1;
-				// Central, bulk-like portion
-				tmpSlab = generatedSlabs[nGlay];
-				tmpSlab.scatteringLength = refSlab.scatteringLength;
-				tmpSlab.thickness = gDMid;
-				tmpSlab.trueAbsLength = refSlab.trueAbsLength;
-				tmpSlab.incAbsLength = refSlab.incAbsLength;
-				++nGlay;
-				// Bottom interface
-				for (int j = 0; j < numRough / 2 + 1; j++) {
-					tmpSlab = generatedSlabs[nGlay + j];
-					updateTileByInterface(tmpSlab, refSlab, secondRefSlab,
-							zInt[j], rufInt[j]);
+				blockStart[i + 1] = blockStart[i] + 2 * half + 1;
+			}
+		}
+		// The last block is the substrate and the second half of its
+		// interface.
+		blockStart[slabs.length] = blockStart[slabs.length - 1] + half + 1;
+		tileLayout.allocate(blockStart);
+
+		// Fill the blocks. The first error from any block is kept and thrown
+		// once all of the blocks are done.
+		final AtomicReference<MathException> error = new AtomicReference<MathException>();
+		runInParallel(slabs.length, interfaceGrain, new TileLoop() {
+			@Override
+			public void run(int start, int end) {
+				try {
+					for (int i = start; i < end; i++) {
+						fillBlock(tileLayout, i, slabs, gDMid[i]);
+					}
+				} catch (MathException e) {
+					error.compareAndSet(null, e);
 				}
-				nGlay += numRough / 2 + 1;
 			}
+		});
+		if (error.get() != null) {
+			throw error.get();
 		}
 
-		// Evaluate substrate gradation
-		refSlab = slabs[slabs.length - 1];
-		secondRefSlab = slabs[slabs.length - 2];
-		for (int i = numRough / 2 + 1; i < numRough + 1; i++) {
-			tmpSlab = generatedSlabs[nGlay + i - numRough / 2 - 1];
-			updateTileByInterface(tmpSlab, secondRefSlab, refSlab, zInt[i],
-					rufInt[i]);
-		}
-		nGlay += numRough / 2 + 1;
-		// Handle the last layer
-		refSlab = slabs[slabs.length - 1];
-		tmpSlab = generatedSlabs[nGlay];
-		tmpSlab.scatteringLength = refSlab.scatteringLength;
-		tmpSlab.trueAbsLength = refSlab.trueAbsLength;
-		tmpSlab.incAbsLength = refSlab.incAbsLength;
-		tmpSlab.thickness = refSlab.thickness;
-		++nGlay;
-
-		return generatedSlabs;
+		return tileLayout;
 	}
 
 	/**
-	 * This operation performs the tile updates needed by the generateTile()
-	 * operation where interfaces should be considered.
+	 * This operation fills the layout of a single block of tiles. It follows
+	 * the stepping of the original tile generation code.
 	 *
-	 * @param tile
-	 *            the tile to update
-	 * @param slabM1
-	 *            the slab one index less than (so above) the middle slab
-	 * @param slab
-	 *            the middle slab
-	 * @param dist
-	 *            the step distance
+	 * @param tileLayout
+	 *            the layout to fill
+	 * @param block
+	 *            the index of the block, which is also the index of the slab
+	 *            for all but the first and last blocks
+	 * @param slabs
+	 *            the slabs of materials that define the system
+	 * @param gDMid
+	 *            the thickness of the bulk-like center of the slab
+	 * @throws MathException
+	 *             Thrown if the error function cannot be calculated
 	 */
-	private void updateTileByInterface(Tile tile, Slab slabM1, Slab slab,
-			double zInt, double rufInt) {
+	private void fillBlock(TileLayout tileLayout, int block, Slab[] slabs,
+			double gDMid) throws MathException {
 
-		// Update the tile
-		tile.thickness = zInt * slab.interfaceWidth;
-		tile.scatteringLength = 0.5 * (slab.scatteringLength
-				+ slabM1.scatteringLength + rufInt
-				* (slab.scatteringLength - slabM1.scatteringLength));
-		tile.trueAbsLength = 0.5 * (slab.trueAbsLength + slabM1.trueAbsLength + rufInt
-				* (slab.trueAbsLength - slabM1.trueAbsLength));
-		tile.incAbsLength = 0.5 * (slab.incAbsLength + slabM1.incAbsLength + rufInt
-				* (slab.incAbsLength - slabM1.incAbsLength));
+		// Local Declarations
+		int numRough = tileLayout.numRough, half = numRough / 2 + 1;
+		int last = slabs.length - 1;
+		int tile = tileLayout.blockStart[block];
+		double[] zInt = tileLayout.zInt, rufInt = tileLayout.rufInt;
+		double step = 0.0, dist = 0.0;
+
+		if (block == 0) {
+			// Evaluate the first half of the vacuum interface.
+			tileLayout.setCopy(tile++, 0, slabs[0].thickness);
+			for (int i = 0; i < half; i++) {
+				tileLayout.setInterface(tile++, 1, zInt[i]
+						* slabs[1].interfaceWidth, rufInt[i]);
+			}
+		} else if (block == last) {
+			// Evaluate substrate gradation
+			for (int i = half; i < numRough + 1; i++) {
+				tileLayout.setInterface(tile++, last, zInt[i]
+						* slabs[last].interfaceWidth, rufInt[i]);
+			}
+			// Handle the last layer
+			tileLayout.setCopy(tile, last, slabs[last].thickness);
+		} else if (gDMid <= 1.0e-10) {
+			// The interfaces are overlapping. Step through the entire slab
+			Slab slab = slabs[block];
+			step = slab.thickness / (numRough + 1);
+			// Take the first half step
+			dist = step / 4.0;
+			setLayer(tileLayout, tile++, block, slabs, step / 2.0, dist);
+			dist += 0.75 * step;
+			// Take the remaining steps
+			for (int j = 0; j < numRough; j++) {
+				setLayer(tileLayout, tile++, block, slabs, step, dist);
+				dist += step;
+			}
+			// Take final half step
+			dist = slab.thickness - step / 4.0;
+			setLayer(tileLayout, tile, block, slabs, step / 2.0, dist);
+		} else {
+			// Evaluate contributions from interfaces separately.
+			// Top interface
+			for (int j = half; j < numRough + 1; j++) {
+				tileLayout.setInterface(tile++, block, zInt[j]
+						* slabs[block].interfaceWidth, rufInt[j]);
+			}
+			// Central, bulk-like portion
+			tileLayout.setCopy(tile++, block, gDMid);
+			// Bottom interface
+			for (int j = 0; j < half; j++) {
+				tileLayout.setInterface(tile++, block + 1, zInt[j]
+						* slabs[block + 1].interfaceWidth, rufInt[j]);
+			}
+		}
 
 		return;
 	}
 
 	/**
-	 * This operation performs the tile updates needed by the generateTile()
-	 * operation.
+	 * This operation sets up a tile in the layout that mixes the properties of
+	 * a slab and both of its neighbors where the interfaces overlap.
 	 *
+	 * @param tileLayout
+	 *            the layout to update
 	 * @param tile
-	 *            the tile to update
-	 * @param slabM1
-	 *            the slab one index less than (so above) the middle slab
+	 *            the index of the tile
 	 * @param slab
-	 *            the middle slab
-	 * @param slabP1
-	 *            the slab one index greater than (so below) the middle slab
+	 *            the index of the middle slab
+	 * @param slabs
+	 *            the slabs of materials that define the system
+	 * @param thickness
+	 *            the thickness of the tile
 	 * @param dist
 	 *            the step distance
 	 * @throws MathException
 	 *             Thrown if the error function cannot be evaluated
 	 */
-	private void updateTileByLayer(Tile updateSlab, Slab slabM1, Slab slab,
-			Slab slabP1, double dist) throws MathException {
+	private void setLayer(TileLayout tileLayout, int tile, int slab,
+			Slab[] slabs, double thickness, double dist) throws MathException {
 
 		// Compute the exponentials
-		double tExpFac = Erf.erf(cE * dist / slab.interfaceWidth);
-		double bExpFac = Erf.erf(cE * (dist - slab.thickness)
-				/ (slabP1.interfaceWidth));
-
-		// Update the slab properties
-		updateSlab.scatteringLength = getTileValue(slabM1.scatteringLength,
-				slab.scatteringLength, slabP1.scatteringLength, tExpFac,
-				bExpFac);
-		updateSlab.trueAbsLength = getTileValue(slabM1.trueAbsLength,
-				slab.trueAbsLength, slabP1.trueAbsLength, tExpFac, bExpFac);
-		updateSlab.incAbsLength = getTileValue(slabM1.incAbsLength,
-				slab.incAbsLength, slabP1.incAbsLength, tExpFac, bExpFac);
+		double tExpFac = Erf.erf(cE * dist / slabs[slab].interfaceWidth);
+		double bExpFac = Erf.erf(cE * (dist - slabs[slab].thickness)
+				/ (slabs[slab + 1].interfaceWidth));
+
+		tileLayout.setLayer(tile, slab, thickness, tExpFac, bExpFac);
 
 		return;
 	}
 
+	/**
+	 * This operation mixes the properties of the slabs into a new array of
+	 * tiles using a layout.
+	 *
+	 * @param tileLayout
+	 *            the layout of the tiles
+	 * @param slabs
+	 *            the slabs of materials that define the system
+	 * @return the tiles
+	 */
+	private TileArray createTiles(final TileLayout tileLayout, Slab[] slabs) {
+
+		// Local Declarations
+		final TileArray tiles = new TileArray(tileLayout.size());
+		final double[] scatteringLength = new double[slabs.length];
+		final double[] trueAbsLength = new double[slabs.length];
+		final double[] incAbsLength = new double[slabs.length];
+
+		// Gather the properties of the slabs
+		for (int i = 0; i < slabs.length; i++) {
+			scatteringLength[i] = slabs[i].scatteringLength;
+			trueAbsLength[i] = slabs[i].trueAbsLength;
+			incAbsLength[i] = slabs[i].incAbsLength;
+		}
+
+		// Mix them into the tiles
+		System.arraycopy(tileLayout.thickness, 0, tiles.thickness, 0,
+				tiles.size());
+		runInParallel(tiles.size(), tileGrain, new TileLoop() {
+			@Override
+			public void run(int start, int end) {
+				for (int i = start; i < end; i++) {
+					tiles.scatteringLength[i] = getTileValue(tileLayout, i,
+							scatteringLength);
+					tiles.trueAbsLength[i] = getTileValue(tileLayout, i,
+							trueAbsLength);
+					tiles.incAbsLength[i] = getTileValue(tileLayout, i,
+							incAbsLength);
+				}
+			}
+		});
+
+		return tiles;
+	}
+
+	/**
+	 * This operation computes a property of a tile from the property of the
+	 * slabs that it mixes.
+	 *
+	 * @param tileLayout
+	 *            the layout of the tiles
+	 * @param tile
+	 *            the index of the tile
+	 * @param x
+	 *            the property for each slab
+	 * @return the property of the tile
+	 */
+	private double getTileValue(TileLayout tileLayout, int tile, double[] x) {
+
+		int slab = tileLayout.slab[tile];
+
+		switch (tileLayout.kind[tile]) {
+		case TileLayout.INTERFACE:
+			return 0.5 * (x[slab] + x[slab - 1] + tileLayout.topFactor[tile]
+					* (x[slab] - x[slab - 1]));
+		case TileLayout.LAYER:
+			return getTileValue(x[slab - 1], x[slab], x[slab + 1],
+					tileLayout.topFactor[tile], tileLayout.bottomFactor[tile]);
+		default:
+			return x[slab];
+		}
+	}
+
 	/**
 	 * This is a convenience operation that performs a lengthy, complicated
 	 * update operation. In the original code this formula was used for several
@@ -632,6 +797,32 @@ public class ReflectivityCalculator {
 	 */
 	public double[] convoluteReflectivity(double deltaQ0, double deltaQ1ByQ,
 			double wavelength, boolean getRQ4, double[] waveVector, Tile[] tiles) {
+		return convoluteReflectivity(deltaQ0, deltaQ1ByQ, wavelength, getRQ4,
+				waveVector, TileArray.fromTiles(tiles));
+	}
+
+	/**
+	 * This operation computes the convolution of the reflectivity with a
+	 * variable Gaussian resolution function.
+	 *
+	 * @param deltaQ0
+	 *            - FIXME!
+	 * @param deltaQ1ByQ
+	 *            - FIXME!
+	 * @param wavelength
+	 *            - FIXME!
+	 * @param getRQ4
+	 *            - FIXME! True if the routine should compute rq^4, false
+	 *            otherwise.
+	 * @param waveVector
+	 *            The wave vector - FIXME!
+	 * @param tiles
+	 *            The tiles that define the layered structure of the materials.
+	 * @return the reflectivity
+	 */
+	public double[] convoluteReflectivity(double deltaQ0, double deltaQ1ByQ,
+			double wavelength, boolean getRQ4, double[] waveVector,
+			TileArray tiles) {
 
 		// Local Declarations
 		double qEff = 0.0;
@@ -704,35 +895,110 @@ public class ReflectivityCalculator {
 	 * @return The neutron scattering density profile.
 	 */
 	public ScatteringDensityProfile getScatteringDensityProfile(Tile[] tiles) {
+		return getScatteringDensityProfile(TileArray.fromTiles(tiles));
+	}
+
+	/**
+	 * This operation computes the neutron scattering density profile for an
+	 * array of tiles. The depth of each tile is a running sum of the
+	 * thicknesses, so large arrays are split into chunks whose total
+	 * thicknesses are summed in parallel before the chunks are filled in
+	 * parallel.
+	 *
+	 * @param tiles
+	 *            the array of tiles that define the material
+	 * @return The neutron scattering density profile.
+	 */
+	public ScatteringDensityProfile getScatteringDensityProfile(
+			final TileArray tiles) {
+
+		// Local Declarations
+		final int numTiles = tiles.size();
+		final int numChunks = (numTiles + tileGrain - 1) / tileGrain;
+		final double[] chunkDepth = new double[numChunks + 1];
+
 		// Create an empty profile
-		ScatteringDensityProfile profile = new ScatteringDensityProfile();
-		profile.depth = new double[2 * tiles.length];
-		profile.scatteringDensity = new double[2 * tiles.length];
-
-		// Put down the first tile as two steps. Step one
-		profile.depth[0] = -10.0;
-		// Note that I am doing 2.0*n because that layer is the same as the
-		// first slab. The original code ready n[slab] + n[tile], but they are
-		// always the same.
-		profile.scatteringDensity[0] = 2.0 * tiles[0].scatteringLength;
-		double sumD = tiles[0].thickness;
-		// Step two
-		profile.depth[1] = sumD;
-		profile.scatteringDensity[1] = 2.0 * tiles[0].scatteringLength;
-
-		// Load the remaining tiles
-		for (int i = 1; i < tiles.length; i++) {
-			profile.depth[2 * i] = sumD;
-			sumD += tiles[i].thickness;
-			profile.depth[2 * i + 1] = sumD;
-			profile.scatteringDensity[2 * i] = tiles[i].scatteringLength
-					+ tiles[0].scatteringLength;
-			profile.scatteringDensity[2 * i + 1] = profile.scatteringDensity[2 * i];
+		final ScatteringDensityProfile profile = new ScatteringDensityProfile();
+		profile.depth = new double[2 * numTiles];
+		profile.scatteringDensity = new double[2 * numTiles];
+
+		// Sum the thickness of each chunk and then find the depth at which
+		// each chunk starts.
+		runInParallel(numChunks, 1, new TileLoop() {
+			@Override
+			public void run(int start, int end) {
+				for (int i = start; i < end; i++) {
+					double sumD = 0.0;
+					for (int j = i * tileGrain; j < Math.min(numTiles, (i + 1)
+							* tileGrain); j++) {
+						sumD += tiles.thickness[j];
+					}
+					chunkDepth[i + 1] = sumD;
+				}
+			}
+		});
+		for (int i = 1; i < numChunks; i++) {
+			chunkDepth[i] += chunkDepth[i - 1];
 		}
 
+		// Load the tiles in each chunk
+		runInParallel(numChunks, 1, new TileLoop() {
+			@Override
+			public void run(int start, int end) {
+				for (int i = start; i < end; i++) {
+					fillProfile(profile, tiles, i * tileGrain, Math.min(
+							numTiles, (i + 1) * tileGrain), chunkDepth[i]);
+				}
+			}
+		});
+
 		return profile;
 	}
 
+	/**
+	 * This operation loads a range of tiles into the neutron scattering density
+	 * profile.
+	 *
+	 * @param profile
+	 *            the profile to fill
+	 * @param tiles
+	 *            the array of tiles that define the material
+	 * @param start
+	 *            the index of the first tile to load
+	 * @param end
+	 *            the index after the last tile to load
+	 * @param sumD
+	 *            the depth at which the first tile starts
+	 */
+	private void fillProfile(ScatteringDensityProfile profile,
+			TileArray tiles, int start, int end, double sumD) {
+
+		for (int i = start; i < end; i++) {
+			if (i == 0) {
+				// Put down the first tile as two steps. Step one
+				profile.depth[0] = -10.0;
+				// Note that I am doing 2.0*n because that layer is the same as
+				// the first slab. The original code ready n[slab] + n[tile],
+				// but they are always the same.
+				profile.scatteringDensity[0] = 2.0 * tiles.scatteringLength[0];
+				sumD += tiles.thickness[0];
+				// Step two
+				profile.depth[1] = sumD;
+				profile.scatteringDensity[1] = 2.0 * tiles.scatteringLength[0];
+			} else {
+				// Load the remaining tiles
+				profile.depth[2 * i] = sumD;
+				sumD += tiles.thickness[i];
+				profile.depth[2 * i + 1] = sumD;
+				profile.scatteringDensity[2 * i] = tiles.scatteringLength[i]
+						+ tiles.scatteringLength[0];
+				profile.scatteringDensity[2 * i + 1] = profile.scatteringDensity[2 * i];
+			}
+		}
+
+		return;
+	}
+
 	/**
 	 * This operation returns the reflectivity profile for the given wave vector
 	 * and set of slabs that define the material.
@@ -764,41 +1030,8 @@ public class ReflectivityCalculator {
 		ReflectivityProfile profile = new ReflectivityProfile();
 
 		try {
-			// Generate the interfacial profile
-			double[] zInt = new double[ReflectivityCalculator.maxRoughSize];
-			double[] rufInt = new double[ReflectivityCalculator.maxRoughSize];
-			getInterfacialProfile(numRough, zInt, rufInt);
-
-			// Correct the refractive indices for incident medium
-			double qCCorr = slabs[0].scatteringLength;
-			for (int i = 0; i < slabs.length; i++) {
-				slabs[i].scatteringLength -= qCCorr;
-			}
-
-			// Makes sure that numRough is an odd number, and is at least 1.
-			if(numRough<2){
-				numRough = 1;
-			} else if (numRough%2==0){
-				numRough++;
-			}
-			
-			// Generate the tiled roughness layers
-			Tile[] tiles;
-			
-			// Check to see if user wants to not generate the layers
-			if(numRough==1){
-				// If not, then just use the slabs
-				tiles = slabs;
-			} else {
-				// Use the regular stepping function to generate the interfacial
-				// tiled layers
-				tiles = generateTiles(slabs, numRough, zInt, rufInt);
-			}
-
-			// Un-correct the refractive indices for incident medium
-			for (int i = 0; i < slabs.length; i++) {
-				slabs[i].scatteringLength += qCCorr;
-			}
+			// Generate the tiles
+			TileArray tiles = getSlabTiles(slabs, numRough);
 
 			// Calculate the reflectivities
 			double[] reflectivity = convoluteReflectivity(deltaQ0, deltaQ1ByQ,
@@ -824,4 +1057,381 @@ public class ReflectivityCalculator {
 		return profile;
 	}
 
+	/**
+	 * This operation returns the reflectivity for the given wave vector and set
+	 * of slabs that define the material. It is the same as
+	 * {@link #getReflectivityProfile(Slab[], int, double, double, double, double[], boolean)}
+	 * , but it skips the scattering density profile. It is meant for
+	 * evaluating many reflectivity curves, such as during a fit.
+	 *
+	 * @param slabs
+	 *            the slabs that define the material
+	 * @param numRough
+	 *            the number of layers of roughness
+	 * @param deltaQ0
+	 *            FIXME!
+	 * @param deltaQ1ByQ
+	 *            FIXME!
+	 * @param wavelength
+	 *            FIXME!
+	 * @param waveVector
+	 *            the wave vector
+	 * @param getRQ4
+	 *            true if the RQ^4 should be calculated, false otherwise
+	 * @return The reflectivity as a function of the wave vector, or null if
+	 *         the interfacial profile could not be generated.
+	 */
+	public double[] getReflectivity(Slab[] slabs, int numRough,
+			double deltaQ0, double deltaQ1ByQ, double wavelength,
+			double[] waveVector, boolean getRQ4) {
+
+		double[] reflectivity = null;
+
+		try {
+			// Generate the tiles and calculate the reflectivities
+			TileArray tiles = getSlabTiles(slabs, numRough);
+			reflectivity = convoluteReflectivity(deltaQ0, deltaQ1ByQ,
+					wavelength, getRQ4, waveVector, tiles);
+		} catch (MathException e) {
+			// Complain
+			logger.error(getClass().getName() + " Exception!", e);
+		}
+
+		return reflectivity;
+	}
+
+	/**
+	 * This operation generates the tiles for a set of slabs after correcting
+	 * the refractive indices for the incident medium.
+	 *
+	 * @param slabs
+	 *            the slabs that define the material. Their scattering lengths
+	 *            are temporarily modified.
+	 * @param numRough
+	 *            the number of layers of roughness
+	 * @return the tiles
+	 * @throws MathException
+	 *             Thrown if the error function cannot be calculated
+	 */
+	private TileArray getSlabTiles(Slab[] slabs, int numRough)
+			throws MathException {
+
+		// Generate the interfacial profile
+		double[] zInt = new double[ReflectivityCalculator.maxRoughSize];
+		double[] rufInt = new double[ReflectivityCalculator.maxRoughSize];
+		getInterfacialProfile(numRough, zInt, rufInt);
+
+		// Correct the refractive indices for incident medium
+		double qCCorr = slabs[0].scatteringLength;
+		for (int i = 0; i < slabs.length; i++) {
+			slabs[i].scatteringLength -= qCCorr;
+		}
+
+		// Makes sure that numRough is an odd number, and is at least 1.
+		if(numRough<2){
+			numRough = 1;
+		} else if (numRough%2==0){
+			numRough++;
+		}
+		
+		// Generate the tiled roughness layers
+		TileArray tiles = null;
+		
+		// Check to see if user wants to generate the layers
+		try {
+			if(numRough>1){
+				// Use the regular stepping function to generate the
+				// interfacial tiled layers
+				tiles = generateTileArray(slabs, numRough, zInt, rufInt);
+			}
+		} finally {
+			// Un-correct the refractive indices for incident medium
+			for (int i = 0; i < slabs.length; i++) {
+				slabs[i].scatteringLength += qCCorr;
+			}
+		}
+
+		// If the layers were not generated, then just use the slabs
+		if (tiles == null) {
+			tiles = TileArray.fromTiles(slabs);
+		}
+
+		return tiles;
+	}
+
+	/**
+	 * This operation runs a loop over a range of indices, splitting it into
+	 * parallel tasks if it is larger than the grain size.
+	 *
+	 * @param size
+	 *            the number of indices in the loop
+	 * @param grain
+	 *            the largest number of indices run by a single task
+	 * @param loop
+	 *            the body of the loop
+	 */
+	private static void runInParallel(int size, int grain, TileLoop loop) {
+
+		if (size <= grain) {
+			loop.run(0, size);
+		} else {
+			pool.invoke(new TileLoopTask(loop, 0, size, grain));
+		}
+
+		return;
+	}
+
+	/**
+	 * This is the body of a loop run by
+	 * {@link ReflectivityCalculator#runInParallel(int, int, TileLoop)}.
+	 *
+	 * @author Jay Jay Billings
+	 *
+	 */
+	private interface TileLoop {
+
+		/**
+		 * This operation runs the loop over a range of indices.
+		 *
+		 * @param start
+		 *            the first index
+		 * @param end
+		 *            the index after the last index
+		 */
+		public void run(int start, int end);
+	}
+
+	/**
+	 * This class splits a {@link TileLoop} in half until each range of
+	 * indices is no larger than the grain size.
+	 *
+	 * @author Jay Jay Billings
+	 *
+	 */
+	private static class TileLoopTask extends RecursiveAction {
+
+		/**
+		 * ID used for serialization.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The body of the loop.
+		 */
+		private final TileLoop loop;
+
+		/**
+		 * The first index and the index after the last index of this task.
+		 */
+		private final int start, end;
+
+		/**
+		 * The largest number of indices run by a single task.
+		 */
+		private final int grain;
+
+		/**
+		 * The constructor.
+		 */
+		public TileLoopTask(TileLoop loop, int start, int end, int grain) {
+			this.loop = loop;
+			this.start = start;
+			this.end = end;
+			this.grain = grain;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (end - start > grain) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new TileLoopTask(loop, start, middle, grain),
+						new TileLoopTask(loop, middle, end, grain));
+			} else {
+				loop.run(start, end);
+			}
+		}
+	}
+
+	/**
+	 * This class stores the geometric part of a set of generated tiles: the
+	 * thickness of each tile and how it mixes the properties of the slabs
+	 * around it. It also stores the inputs that it was computed from so that
+	 * it can be reused when they have not changed.
+	 *
+	 * @author Jay Jay Billings
+	 *
+	 */
+	private static class TileLayout {
+
+		/**
+		 * The kind of tile that copies the properties of a slab.
+		 */
+		public static final byte COPY = 0;
+
+		/**
+		 * The kind of tile that mixes the properties of a slab and the slab
+		 * above it across their interface.
+		 */
+		public static final byte INTERFACE = 1;
+
+		/**
+		 * The kind of tile that mixes the properties of a slab and the slabs
+		 * above and below it where their interfaces overlap.
+		 */
+		public static final byte LAYER = 2;
+
+		/**
+		 * The number of ordinate steps used to compute the layout.
+		 */
+		public final int numRough;
+
+		/**
+		 * The interfacial profile used to compute the layout. Only the first
+		 * numRough + 1 values are stored.
+		 */
+		public final double[] zInt, rufInt;
+
+		/**
+		 * The thicknesses and interface widths of the slabs used to compute
+		 * the layout.
+		 */
+		public final double[] slabThickness, interfaceWidth;
+
+		/**
+		 * The index of the first tile for each block of tiles, followed by
+		 * the total number of tiles.
+		 */
+		public int[] blockStart;
+
+		/**
+		 * The kind of each tile.
+		 */
+		public byte[] kind;
+
+		/**
+		 * The index of the slab that each tile is centered on.
+		 */
+		public int[] slab;
+
+		/**
+		 * The thickness of each tile.
+		 */
+		public double[] thickness;
+
+		/**
+		 * The factors used to mix the properties with the slab above and
+		 * below each tile.
+		 */
+		public double[] topFactor, bottomFactor;
+
+		/**
+		 * The constructor. It copies the inputs used to compute the layout.
+		 */
+		public TileLayout(Slab[] slabs, int numRough, double[] zInt,
+				double[] rufInt) {
+			this.numRough = numRough;
+			this.zInt = new double[numRough + 1];
+			this.rufInt = new double[numRough + 1];
+			System.arraycopy(zInt, 0, this.zInt, 0, numRough + 1);
+			System.arraycopy(rufInt, 0, this.rufInt, 0, numRough + 1);
+			slabThickness = new double[slabs.length];
+			interfaceWidth = new double[slabs.length];
+			for (int i = 0; i < slabs.length; i++) {
+				slabThickness[i] = slabs[i].thickness;
+				interfaceWidth[i] = slabs[i].interfaceWidth;
+			}
+		}
+
+		/**
+		 * This operation allocates the arrays for the tiles.
+		 *
+		 * @param blockStart
+		 *            the index of the first tile for each block of tiles,
+		 *            followed by the total number of tiles
+		 */
+		public void allocate(int[] blockStart) {
+			int size = blockStart[blockStart.length - 1];
+			this.blockStart = blockStart;
+			kind = new byte[size];
+			slab = new int[size];
+			thickness = new double[size];
+			topFactor = new double[size];
+			bottomFactor = new double[size];
+		}
+
+		/**
+		 * This operation returns the number of tiles in the layout.
+		 */
+		public int size() {
+			return thickness.length;
+		}
+
+		/**
+		 * This operation determines whether or not this layout was computed
+		 * from the same geometry.
+		 *
+		 * @return true if the layout can be reused, false otherwise
+		 */
+		public boolean matches(Slab[] slabs, int numRough, double[] zInt,
+				double[] rufInt) {
+
+			if (this.numRough != numRough
+					|| slabThickness.length != slabs.length) {
+				return false;
+			}
+			for (int i = 0; i < slabs.length; i++) {
+				if (slabThickness[i] != slabs[i].thickness
+						|| interfaceWidth[i] != slabs[i].interfaceWidth) {
+					return false;
+				}
+			}
+			for (int i = 0; i < numRough + 1; i++) {
+				if (this.zInt[i] != zInt[i] || this.rufInt[i] != rufInt[i]) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		/**
+		 * This operation sets up a tile that copies the properties of a slab.
+		 */
+		public void setCopy(int tile, int slab, double thickness) {
+			kind[tile] = COPY;
+			this.slab[tile] = slab;
+			this.thickness[tile] = thickness;
+		}
+
+		/**
+		 * This operation sets up a tile that mixes the properties of a slab
+		 * and the slab above it across their interface.
+		 */
+		public void setInterface(int tile, int slab, double thickness,
+				double rufInt) {
+			kind[tile] = INTERFACE;
+			this.slab[tile] = slab;
+			this.thickness[tile] = thickness;
+			topFactor[tile] = rufInt;
+		}
+
+		/**
+		 * This operation sets up a tile that mixes the properties of a slab
+		 * and the slabs above and below it.
+		 */
+		public void setLayer(int tile, int slab, double thickness,
+				double tExpFac, double bExpFac) {
+			kind[tile] = LAYER;
+			this.slab[tile] = slab;
+			this.thickness[tile] = thickness;
+			topFactor[tile] = tExpFac;
+			bottomFactor[tile] = bExpFac;
+		}
+	}
+
 }
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation -
+ *   Jay Jay Billings
+ *******************************************************************************/
+package org.eclipse.ice.reflectivity;
+
+/**
+ * This class holds the wave vector, measured reflectivity and error bars read
+ * from a reflectivity data file. The values for point i are stored at index i
+ * in each array.
+ *
+ * Instances are shared by everything that reads the same file through the
+ * {@link ReflectivityDataCache}, so the arrays returned by this class are not
+ * copied and must not be modified.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public class ReflectivityData {
+
+	/**
+	 * The wave vector (Q).
+	 */
+	private final double[] waveVector;
+
+	/**
+	 * The measured reflectivity at each point of the wave vector.
+	 */
+	private final double[] reflectivity;
+
+	/**
+	 * The error in the measured reflectivity at each point of the wave
+	 * vector.
+	 */
+	private final double[] error;
+
+	/**
+	 * The constructor. The arrays are not copied.
+	 *
+	 * @param waveVector
+	 *            the wave vector
+	 * @param reflectivity
+	 *            the measured reflectivity
+	 * @param error
+	 *            the error in the measured reflectivity
+	 * @throws IllegalArgumentException
+	 *             Thrown if the arrays are not the same size
+	 */
+	public ReflectivityData(double[] waveVector, double[] reflectivity,
+			double[] error) {
+
+		if (waveVector.length != reflectivity.length
+				|| waveVector.length != error.length) {
+			throw new IllegalArgumentException("ReflectivityData error: "
+					+ "The wave vector, reflectivity and error arrays must "
+					+ "be the same size.");
+		}
+
+		this.waveVector = waveVector;
+		this.reflectivity = reflectivity;
+		this.error = error;
+	}
+
+	/**
+	 * This operation returns the number of points in the data.
+	 *
+	 * @return the number of points
+	 */
+	public int size() {
+		return waveVector.length;
+	}
+
+	/**
+	 * This operation returns the wave vector. The array must not be modified.
+	 *
+	 * @return the wave vector
+	 */
+	public double[] getWaveVector() {
+		return waveVector;
+	}
+
+	/**
+	 * This operation returns the measured reflectivity. The array must not be
+	 * modified.
+	 *
+	 * @return the measured reflectivity
+	 */
+	public double[] getReflectivity() {
+		return reflectivity;
+	}
+
+	/**
+	 * This operation returns the error in the measured reflectivity. The array
+	 * must not be modified.
+	 *
+	 * @return the error bars
+	 */
+	public double[] getError() {
+		return error;
+	}
+
+}
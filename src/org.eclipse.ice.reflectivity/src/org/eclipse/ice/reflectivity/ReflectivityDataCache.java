@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation -
+ *   Jay Jay Billings
+ *******************************************************************************/
+package org.eclipse.ice.reflectivity;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class reads reflectivity data files and keeps the parsed values so that
+ * the same file is only parsed again when it changes. A file is identified by
+ * its absolute path and is considered changed when its modification time or
+ * its length is different from when it was last read.
+ *
+ * The files are CSV files with the wave vector, measured reflectivity and
+ * error bars in the first three columns. Like the CSVReader, comments begin
+ * with the "#" character. Blank lines are ignored.
+ *
+ * The cache returned by {@link #getDefault()} is shared by every
+ * {@link ReflectivityModel} and should be used by any other tool that reads
+ * the same files. This class is thread-safe. Different files can be read at
+ * the same time, but a file that is being read by one thread will not be read
+ * again by another.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public class ReflectivityDataCache {
+
+	/**
+	 * Logger for handling event messages and other information.
+	 */
+	private static final Logger logger = LoggerFactory
+			.getLogger(ReflectivityDataCache.class);
+
+	/**
+	 * The cache that is shared by everything in the workbench.
+	 */
+	private static final ReflectivityDataCache defaultCache = new ReflectivityDataCache();
+
+	/**
+	 * The cached files, keyed by absolute path.
+	 */
+	private final ConcurrentHashMap<String, CachedFile> files;
+
+	/**
+	 * The number of times a file has been parsed.
+	 */
+	private final AtomicInteger parseCount;
+
+	/**
+	 * The constructor.
+	 */
+	public ReflectivityDataCache() {
+		files = new ConcurrentHashMap<String, CachedFile>();
+		parseCount = new AtomicInteger();
+	}
+
+	/**
+	 * This operation returns the cache that is shared by everything in the
+	 * workbench.
+	 *
+	 * @return the shared cache
+	 */
+	public static ReflectivityDataCache getDefault() {
+		return defaultCache;
+	}
+
+	/**
+	 * This operation returns the data in a file. The file is only parsed if
+	 * it has not been read before or if it has changed since it was last read.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the data in the file
+	 * @throws IOException
+	 *             Thrown if the file does not exist, cannot be read or is not
+	 *             a valid reflectivity data file
+	 */
+	public ReflectivityData read(File file) throws IOException {
+
+		// Local Declarations
+		String path = file.getAbsolutePath();
+		CachedFile cachedFile = files.get(path);
+
+		// Add an entry for the file if it is new
+		if (cachedFile == null) {
+			CachedFile newFile = new CachedFile();
+			cachedFile = files.putIfAbsent(path, newFile);
+			if (cachedFile == null) {
+				cachedFile = newFile;
+			}
+		}
+
+		return cachedFile.get(file);
+	}
+
+	/**
+	 * This operation removes a file from the cache. It will be parsed the next
+	 * time it is read.
+	 *
+	 * @param file
+	 *            the file to remove
+	 */
+	public void invalidate(File file) {
+		files.remove(file.getAbsolutePath());
+		return;
+	}
+
+	/**
+	 * This operation removes every file from the cache.
+	 */
+	public void clear() {
+		files.clear();
+		return;
+	}
+
+	/**
+	 * This operation returns the number of times a file has been parsed by
+	 * this cache.
+	 *
+	 * @return the number of parses
+	 */
+	public int getParseCount() {
+		return parseCount.get();
+	}
+
+	/**
+	 * This operation parses a reflectivity data file.
+	 *
+	 * @param file
+	 *            the file to parse
+	 * @return the data in the file
+	 * @throws IOException
+	 *             Thrown if the file cannot be read or is not a valid
+	 *             reflectivity data file
+	 */
+	private ReflectivityData parse(File file) throws IOException {
+
+		// Local Declarations
+		double[] waveVector = new double[64];
+		double[] reflectivity = new double[64];
+		double[] error = new double[64];
+		double[] values = new double[3];
+		int size = 0, lineNumber = 0;
+		String line;
+
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				// Clip the line at the comment symbol and skip it if nothing
+				// is left
+				int comment = line.indexOf('#');
+				if (comment >= 0) {
+					line = line.substring(0, comment);
+				}
+				line = line.trim();
+				if (line.isEmpty()) {
+					continue;
+				}
+				// Parse the first three columns
+				parseLine(file, line, lineNumber, values);
+				// Grow the arrays if needed and store the values
+				if (size == waveVector.length) {
+					waveVector = Arrays.copyOf(waveVector, 2 * size);
+					reflectivity = Arrays.copyOf(reflectivity, 2 * size);
+					error = Arrays.copyOf(error, 2 * size);
+				}
+				waveVector[size] = values[0];
+				reflectivity[size] = values[1];
+				error[size] = values[2];
+				size++;
+			}
+		} finally {
+			reader.close();
+		}
+
+		return new ReflectivityData(Arrays.copyOf(waveVector, size),
+				Arrays.copyOf(reflectivity, size), Arrays.copyOf(error, size));
+	}
+
+	/**
+	 * This operation parses the first three columns of a line of a
+	 * reflectivity data file.
+	 *
+	 * @param file
+	 *            the file that is being parsed
+	 * @param line
+	 *            the line, without comments or surrounding whitespace
+	 * @param lineNumber
+	 *            the number of the line in the file
+	 * @param values
+	 *            the array in which the values should be stored
+	 * @throws IOException
+	 *             Thrown if the line does not have three numbers
+	 */
+	private void parseLine(File file, String line, int lineNumber,
+			double[] values) throws IOException {
+
+		// Local Declarations
+		int start = 0;
+
+		for (int i = 0; i < values.length; i++) {
+			// The last column may be the end of the line
+			int end = line.indexOf(',', start);
+			if (end < 0 && i < values.length - 1) {
+				throw new IOException("ReflectivityDataCache error: "
+						+ "Line " + lineNumber + " of " + file.getName()
+						+ " does not have three columns.");
+			} else if (end < 0) {
+				end = line.length();
+			}
+			try {
+				values[i] = Double.parseDouble(line.substring(start, end)
+						.trim());
+			} catch (NumberFormatException e) {
+				throw new IOException("ReflectivityDataCache error: "
+						+ "Line " + lineNumber + " of " + file.getName()
+						+ " does not contain a number in column " + (i + 1)
+						+ ".", e);
+			}
+			start = end + 1;
+		}
+
+		return;
+	}
+
+	/**
+	 * This class holds the data from one file and the modification time and
+	 * length of the file when it was read.
+	 *
+	 * @author Jay Jay Billings
+	 *
+	 */
+	private class CachedFile {
+
+		/**
+		 * The modification time of the file when it was read.
+		 */
+		private long lastModified = -1L;
+
+		/**
+		 * The length of the file when it was read.
+		 */
+		private long length = -1L;
+
+		/**
+		 * The data in the file, or null if it has not been read.
+		 */
+		private ReflectivityData data;
+
+		/**
+		 * This operation returns the data in the file, parsing the file first
+		 * if it has changed.
+		 *
+		 * @param file
+		 *            the file
+		 * @return the data in the file
+		 * @throws IOException
+		 *             Thrown if the file cannot be read or parsed
+		 */
+		private synchronized ReflectivityData get(File file)
+				throws IOException {
+
+			// Local Declarations
+			long fileModified = file.lastModified();
+			long fileLength = file.length();
+
+			if (!file.isFile()) {
+				data = null;
+				throw new IOException("ReflectivityDataCache error: "
+						+ "The file " + file.getPath() + " does not exist.");
+			}
+
+			// Parse the file if it is new or has changed
+			if (data == null || fileModified != lastModified
+					|| fileLength != length) {
+				data = null;
+				ReflectivityData newData = parse(file);
+				parseCount.incrementAndGet();
+				logger.debug("ReflectivityDataCache Message: Parsed "
+						+ newData.size() + " points from " + file.getPath());
+				data = newData;
+				lastModified = fileModified;
+				length = fileLength;
+			}
+
+			return data;
+		}
+	}
+
+}
@@ -13,14 +13,19 @@
 package org.eclipse.ice.reflectivity;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.ice.datastructures.ICEObject.ListComponent;
 import org.eclipse.ice.datastructures.form.AllowedValueType;
@@ -30,11 +35,13 @@ import org.eclipse.ice.datastructures.form.Form;
 import org.eclipse.ice.datastructures.form.FormStatus;
 import org.eclipse.ice.datastructures.form.Material;
 import org.eclipse.ice.datastructures.form.ResourceComponent;
+import org.eclipse.ice.datastructures.resource.ICEResource;
 import org.eclipse.ice.datastructures.resource.VizResource;
-import org.eclipse.ice.io.csv.CSVReader;
 import org.eclipse.ice.item.model.Model;
 import org.eclipse.ice.materials.IMaterialsDatabase;
 import org.eclipse.ice.materials.MaterialWritableTableFormat;
+import org.eclipse.ice.reflectivity.BatchReflectivityCalculator.ICurveListener;
+import org.eclipse.ice.reflectivity.BatchReflectivityCalculator.IFitListener;
 
 /**
  * This classes calculates the reflectivity profile of a set of materials
@@ -45,6 +52,12 @@ import org.eclipse.ice.materials.MaterialWritableTableFormat;
  * Finally, the last component gives access to the computed data as both
  * editable graphs (see CSVPlotEditor) and .csv files.
  * 
+ * Besides calculating a single reflectivity profile, the model can sweep one
+ * property of a layer over a range of values or fit several properties to the
+ * measured data in the wave vector file. Both evaluate many curves in
+ * parallel with a {@link BatchReflectivityCalculator} and stream their results
+ * to .csv files in the last component.
+ * 
  * @author Jay Jay Billings, Alex McCaskey, Kasper Gammeltoft
  */
 @XmlRootElement(name = "ReflectivityModel")
@@ -55,6 +68,22 @@ public class ReflectivityModel extends Model {
 	 */
 	private final String processActionName = "Calculate Reflectivity";
 
+	/**
+	 * The process action name for sweeping a parameter of the material layers.
+	 */
+	private final String sweepActionName = "Sweep Reflectivity";
+
+	/**
+	 * The process action name for fitting parameters of the material layers to
+	 * the measured data.
+	 */
+	private final String fitActionName = "Fit Reflectivity";
+
+	/**
+	 * The maximum number of iterations used by the fit.
+	 */
+	private static final int maxFitIterations = 50;
+
 	/**
 	 * The name for the wave vector entry.
 	 */
@@ -80,6 +109,21 @@ public class ReflectivityModel extends Model {
 	 */
 	private static final String WaveLengthEntryName = "Wave Length";
 
+	/**
+	 * The sweep parameter entry name.
+	 */
+	private static final String SweepParameterEntryName = "Sweep Parameter";
+
+	/**
+	 * The sweep range entry name.
+	 */
+	private static final String SweepRangeEntryName = "Sweep Range";
+
+	/**
+	 * The fit parameters entry name.
+	 */
+	private static final String FitParametersEntryName = "Fit Parameters";
+
 	/**
 	 * Identification number for the component that contains the parameters.
 	 */
@@ -119,7 +163,8 @@ public class ReflectivityModel extends Model {
 	/**
 	 * If the action name is ReflectivityModel.processActionName, then
 	 * calculates the reflectivity and scattering density profiles for the
-	 * material layers and input fields.
+	 * material layers and input fields. The sweep and fit actions evaluate
+	 * many reflectivity curves instead.
 	 * 
 	 * @see {@link org.eclipse.ice.item.Item#process(String)}
 	 */
@@ -132,86 +177,49 @@ public class ReflectivityModel extends Model {
 
 		if (actionName.equals(processActionName)) {
 
-			// Get the material list from the form.
-			ListComponent<Material> matList = (ListComponent<Material>) form
-					.getComponent(matListId);
-			ArrayList<Slab> slabs = new ArrayList<Slab>();
-
 			// Create the slabs from the materials
-			for (Material mat : matList) {
-				Slab slab = new Slab();
-				slab.thickness = mat.getProperty("Thickness (A)");
-				slab.interfaceWidth = mat.getProperty("Roughness (A)");
-				slab.scatteringLength = mat
-						.getProperty(Material.SCAT_LENGTH_DENSITY);
-				slab.trueAbsLength = mat
-						.getProperty(Material.MASS_ABS_COHERENT);
-				slab.incAbsLength = mat
-						.getProperty(Material.MASS_ABS_INCOHERENT);
-				slabs.add(slab);
-			}
+			Slab[] slabs = createSlabs();
 
 			// Get the roughness from the form.
-			int numRough = Integer
-					.parseInt(((DataComponent) form.getComponent(paramsCompId))
-							.retrieveEntry(RoughnessEntryName).getValue());
+			int numRough = Integer.parseInt(getParameter(RoughnessEntryName));
 
 			// Get the deltaQ0 from the form.
-			double deltaQ0 = Double.parseDouble(
-					((DataComponent) form.getComponent(paramsCompId))
-							.retrieveEntry(deltaQ0EntryName).getValue());
+			double deltaQ0 = Double
+					.parseDouble(getParameter(deltaQ0EntryName));
 
 			// Get the deltaQ0 from the form.
-			double deltaQ1ByQ = Double.parseDouble(
-					((DataComponent) form.getComponent(paramsCompId))
-							.retrieveEntry(deltaQ1ByQEntryName).getValue());
+			double deltaQ1ByQ = Double
+					.parseDouble(getParameter(deltaQ1ByQEntryName));
 
 			// Get the wave length from the form.
-			double wavelength = Double.parseDouble(
-					((DataComponent) form.getComponent(paramsCompId))
-							.retrieveEntry(WaveLengthEntryName).getValue());
+			double wavelength = Double
+					.parseDouble(getParameter(WaveLengthEntryName));
 
 			// Get the wave vector, r data, and error bars from the file picker
-			// in the paramters
-			// component.
-			double[] waveVector;
-			double[] rData;
-			double[] error;
-			String fileName = ((DataComponent) form.getComponent(paramsCompId))
-					.retrieveEntry(WaveEntryName).getValue();
-
-			// Get the file that should have been pulled into the local project.
-			IFile userDataFile = project.getFile(fileName);
-
-			// Get the reader and read in the values.
-			Form dataForm = new CSVReader().read(userDataFile);
-			ListComponent<String[]> userData = (ListComponent<String[]>) dataForm
-					.getComponent(1);
-
-			// Pull the data from the form into an array.
-			waveVector = new double[userData.size()];
-			rData = new double[userData.size()];
-			error = new double[userData.size()];
-			for (int i = 0; i < userData.size(); i++) {
-				String[] dataLine = userData.get(i);
-				double waveDataPoint = Double.parseDouble(dataLine[0]);
-				waveVector[i] = waveDataPoint;
-				double rDataPoint = Double.parseDouble(dataLine[1]);
-				rData[i] = rDataPoint;
-				double errorDataPoint = Double.parseDouble(dataLine[2]);
-				error[i] = errorDataPoint;
+			// in the paramters component.
+			ReflectivityData userData;
+			try {
+				userData = readUserData();
+			} catch (IOException e) {
+				System.err.println("ReflectivityModel Error: "
+						+ "Problem reading the wave vector file.");
+				logger.error(getClass().getName() + " Exception!", e);
+				return FormStatus.InfoError;
 			}
+			double[] waveVector = userData.getWaveVector();
+			double[] rData = userData.getReflectivity();
+			double[] error = userData.getError();
 
 			// Calculate the reflectivity - first is regular R calculation
 			ReflectivityCalculator calculator = new ReflectivityCalculator();
 			ReflectivityProfile profile = calculator.getReflectivityProfile(
-					slabs.toArray(new Slab[slabs.size()]), numRough, deltaQ0,
-					deltaQ1ByQ, wavelength, waveVector, false);
+					slabs, numRough, deltaQ0, deltaQ1ByQ, wavelength,
+					waveVector, false);
 
 			// The second profile is for the QR^4 data model
 			ReflectivityProfile rq4Profile = calculator.getReflectivityProfile(
-					slabs.toArray(new Slab[slabs.size()]), numRough, deltaQ0,
-					deltaQ1ByQ, wavelength, waveVector, true);
+					slabs, numRough, deltaQ0, deltaQ1ByQ, wavelength,
+					waveVector, true);
 
 			// Get the data from the profile
 			double[] reflectivity = profile.reflectivity;
@@ -284,10 +292,13 @@ public class ReflectivityModel extends Model {
 			ResourceComponent resources = (ResourceComponent) form
 					.getComponent(resourceCompId);
 
-			// Create the new resources to output the data to!
-			if (resources.isEmpty()) {
-				// Create names with id from the form (should be unique)
-				String basename = "reflectivityModel_" + form.getId() + "_";
+			// Create names with id from the form (should be unique)
+			String basename = getOutputBaseName();
+
+			// Create the new resources to output the data to! The sweep and
+			// fit resources may already be in the component, so look for the
+			// reflectivity file.
+			if (findResource(resources, basename + "rfd.csv") == null) {
 				// Create the output file for the reflectivity data
 				IFile reflectivityFile = project.getFile(basename + "rfd.csv");
 				// Create the output file for the scattering density data
@@ -350,7 +361,8 @@ public class ReflectivityModel extends Model {
 				// Write the data to the files.
 				try {
 					// First the reflectivity file
-					VizResource reflectSource = (VizResource) resources.get(0);
+					VizResource reflectSource = findResource(resources,
+							basename + "rfd.csv");
 					IFile reflectivityFile = project
 							.getFile(reflectSource.getContents().getName());
 					reflectivityFile.setContents(
@@ -361,7 +373,8 @@ public class ReflectivityModel extends Model {
 					reflectSource.setName(reflectSource.getName());
 
 					// Then the scattering density file
-					VizResource scatSource = (VizResource) resources.get(1);
+					VizResource scatSource = findResource(resources, basename
+							+ "scdens.csv");
 					IFile scatteringFile = project
 							.getFile(scatSource.getContents().getName());
 					scatteringFile.setContents(
@@ -372,7 +385,8 @@ public class ReflectivityModel extends Model {
 					scatSource.setName(scatSource.getName());
 
 					// Finally the rq4 data file
-					VizResource rq4Source = (VizResource) resources.get(2);
+					VizResource rq4Source = findResource(resources, basename
+							+ "rq4.csv");
 					IFile rq4File = project
 							.getFile(rq4Source.getContents().getName());
 					rq4File.setContents(new BufferedInputStream(rq4Stream),
@@ -396,6 +410,12 @@ public class ReflectivityModel extends Model {
 				retVal = FormStatus.Processed;
 			}
 
+			// Evaluate a set of reflectivity curves
+		} else if (actionName.equals(sweepActionName)) {
+			retVal = sweep();
+			// Fit the reflectivity to the measured data
+		} else if (actionName.equals(fitActionName)) {
+			retVal = fit();
 			// Some other process action.
 		} else {
 			retVal = super.process(actionName);
@@ -405,6 +425,485 @@ public class ReflectivityModel extends Model {
 		return retVal;
 	}
 
+	/**
+	 * This operation evaluates the reflectivity for each value of the sweep
+	 * parameter in parallel. The curves are written to a CSV file in the
+	 * resource component as they are calculated.
+	 * 
+	 * @return the status of the sweep
+	 */
+	private FormStatus sweep() {
+
+		// Local Declarations
+		FormStatus retVal = FormStatus.Processed;
+		final IOException[] writeError = new IOException[1];
+
+		try {
+			// Set up the calculator and the sweep
+			final ReflectivityData userData = readUserData();
+			BatchReflectivityCalculator calculator = createBatchCalculator(
+					userData);
+			final ReflectivityParameter parameter = parseParameter(
+					getParameter(SweepParameterEntryName));
+			List<double[]> values = parseSweepRange(
+					getParameter(SweepRangeEntryName));
+
+			// Stream the curves to the file as they are calculated
+			IFile file = project.getFile(getOutputBaseName() + "sweep.csv");
+			final BufferedWriter writer = new BufferedWriter(new FileWriter(
+					file.getLocation().toFile()));
+			try {
+				writer.write("R,Q,Value,ChiSquare\n#units,R,A-1,"
+						+ parameter.getProperty() + ",X^2\n");
+				calculator.calculate(Collections.singletonList(parameter),
+						values, new ICurveListener() {
+							@Override
+							public void curveCalculated(int index,
+									double[] curveValues,
+									double[] reflectivity, double chiSquare) {
+								if (reflectivity != null
+										&& writeError[0] == null) {
+									try {
+										writeCurve(writer,
+												userData.getWaveVector(),
+												reflectivity, curveValues[0],
+												chiSquare);
+									} catch (IOException e) {
+										writeError[0] = e;
+									}
+								}
+							}
+						});
+			} finally {
+				writer.close();
+			}
+			if (writeError[0] != null) {
+				throw writeError[0];
+			}
+
+			// Update the resource
+			String description = "Sweep of " + parameter + " over "
+					+ values.size() + " curves at "
+					+ (int) calculator.getCurvesPerSecond() + " curves/second";
+			logger.info("ReflectivityModel Message: " + description);
+			updateResource(file, "Reflectivity Sweep File", 4, description);
+
+		} catch (IllegalArgumentException | IllegalStateException
+				| CoreException | IOException e) {
+			retVal = reportFailure(sweepActionName,
+					"Problem sweeping the reflectivity.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			retVal = reportFailure(sweepActionName,
+					"The sweep was interrupted.", e);
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * This operation fits the fit parameters to the measured data. The
+	 * progress of the fit is written to a CSV file in the resource component
+	 * and the fitted values are stored in the materials.
+	 * 
+	 * @return the status of the fit
+	 */
+	private FormStatus fit() {
+
+		// Local Declarations
+		FormStatus retVal = FormStatus.Processed;
+		final IOException[] writeError = new IOException[1];
+
+		try {
+			// Set up the calculator and the fit
+			BatchReflectivityCalculator calculator = createBatchCalculator(
+					readUserData());
+			List<ReflectivityParameter> parameters = new ArrayList<ReflectivityParameter>();
+			for (String parameter : getParameter(FitParametersEntryName)
+					.split(";")) {
+				if (!parameter.trim().isEmpty()) {
+					parameters.add(parseParameter(parameter));
+				}
+			}
+			if (parameters.isEmpty()) {
+				throw new IllegalArgumentException("No fit parameters.");
+			}
+
+			// Stream the progress of the fit to the file
+			IFile file = project.getFile(getOutputBaseName() + "fit.csv");
+			final BufferedWriter writer = new BufferedWriter(new FileWriter(
+					file.getLocation().toFile()));
+			double[] fitted;
+			try {
+				writer.write("Iteration,ChiSquare");
+				for (ReflectivityParameter parameter : parameters) {
+					writer.write("," + parameter);
+				}
+				writer.write("\n");
+				fitted = calculator.fit(parameters, maxFitIterations,
+						new IFitListener() {
+							@Override
+							public void iterationCompleted(int iteration,
+									double[] values, double chiSquare) {
+								try {
+									writer.write(iteration + ","
+											+ Double.toString(chiSquare));
+									for (double value : values) {
+										writer.write(","
+												+ Double.toString(value));
+									}
+									writer.write("\n");
+								} catch (IOException e) {
+									writeError[0] = e;
+								}
+							}
+						});
+			} finally {
+				writer.close();
+			}
+			if (writeError[0] != null) {
+				throw writeError[0];
+			}
+
+			// Store the fitted values in the materials
+			ListComponent<Material> matList = (ListComponent<Material>) form
+					.getComponent(matListId);
+			for (int i = 0; i < parameters.size(); i++) {
+				ReflectivityParameter parameter = parameters.get(i);
+				Material material = matList.get(parameter.getLayer());
+				material.setProperty(parameter.getProperty(), fitted[i]);
+				matList.set(parameter.getLayer(), material);
+			}
+
+			// Update the resource
+			String description = "Fit of " + parameters.size()
+					+ " parameters over " + calculator.getCurveCount()
+					+ " curves at " + (int) calculator.getCurvesPerSecond()
+					+ " curves/second";
+			logger.info("ReflectivityModel Message: " + description);
+			updateResource(file, "Reflectivity Fit File", 5, description);
+
+		} catch (IllegalArgumentException | IllegalStateException
+				| CoreException | IOException e) {
+			retVal = reportFailure(fitActionName,
+					"Problem fitting the reflectivity.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			retVal = reportFailure(fitActionName, "The fit was interrupted.",
+					e);
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * This operation logs the failure of a sweep or fit and shows it to the
+	 * user.
+	 * 
+	 * @param action
+	 *            the name of the action that failed
+	 * @param problem
+	 *            a description of the problem
+	 * @param e
+	 *            the exception that caused the failure
+	 * @return the status to return from the action, which is always
+	 *         {@link FormStatus#InfoError}
+	 */
+	private FormStatus reportFailure(String action, String problem,
+			Exception e) {
+
+		logger.error("ReflectivityModel Error: " + problem, e);
+		throwErrorMessage(action, "org.eclipse.ice.reflectivity", problem
+				+ (e.getMessage() != null ? "\n\n" + e.getMessage() : ""));
+
+		return FormStatus.InfoError;
+	}
+
+	/**
+	 * This operation writes one curve of a sweep to a CSV file.
+	 * 
+	 * @param writer
+	 *            the writer for the file
+	 * @param waveVector
+	 *            the wave vector
+	 * @param reflectivity
+	 *            the reflectivity at each point in the wave vector
+	 * @param value
+	 *            the value of the sweep parameter
+	 * @param chiSquare
+	 *            the chi-squared difference from the measured data
+	 * @throws IOException
+	 *             Thrown if the file cannot be written
+	 */
+	private void writeCurve(BufferedWriter writer, double[] waveVector,
+			double[] reflectivity, double value, double chiSquare)
+			throws IOException {
+
+		String suffix = "," + Double.toString(value) + ","
+				+ Double.toString(chiSquare) + "\n";
+
+		for (int i = 0; i < reflectivity.length; i++) {
+			writer.write(Double.toString(reflectivity[i]));
+			writer.write(',');
+			writer.write(Double.toString(waveVector[i]));
+			writer.write(suffix);
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation creates the slabs from the materials in the form.
+	 * 
+	 * @return the slabs, one per material
+	 */
+	private Slab[] createSlabs() {
+
+		// Get the material list from the form.
+		ListComponent<Material> matList = (ListComponent<Material>) form
+				.getComponent(matListId);
+		ArrayList<Slab> slabs = new ArrayList<Slab>();
+
+		// Create the slabs from the materials
+		for (Material mat : matList) {
+			Slab slab = new Slab();
+			slab.thickness = mat.getProperty(ReflectivityParameter.THICKNESS);
+			slab.interfaceWidth = mat
+					.getProperty(ReflectivityParameter.ROUGHNESS);
+			slab.scatteringLength = mat
+					.getProperty(Material.SCAT_LENGTH_DENSITY);
+			slab.trueAbsLength = mat.getProperty(Material.MASS_ABS_COHERENT);
+			slab.incAbsLength = mat.getProperty(Material.MASS_ABS_INCOHERENT);
+			slabs.add(slab);
+		}
+
+		return slabs.toArray(new Slab[slabs.size()]);
+	}
+
+	/**
+	 * This operation gets the value of an entry in the parameters component.
+	 * 
+	 * @param name
+	 *            the name of the entry
+	 * @return the value of the entry
+	 * @throws IllegalArgumentException
+	 *             Thrown if the entry is not in the form
+	 */
+	private String getParameter(String name) {
+
+		Entry entry = ((DataComponent) form.getComponent(paramsCompId))
+				.retrieveEntry(name);
+		if (entry == null) {
+			throw new IllegalArgumentException("ReflectivityModel error: "
+					+ "The form does not have the entry \"" + name + "\".");
+		}
+
+		return entry.getValue();
+	}
+
+	/**
+	 * This operation reads the wave vector, measured reflectivity and error
+	 * bars from the file in the wave vector entry. The file is read through
+	 * the shared {@link ReflectivityDataCache}, so it is only parsed again if
+	 * it has changed since any model last read it.
+	 * 
+	 * @return the wave vector, reflectivity and error bars. The arrays are
+	 *         shared and must not be modified.
+	 * @throws IOException
+	 *             Thrown if the file cannot be read
+	 */
+	private ReflectivityData readUserData() throws IOException {
+
+		// Get the file that should have been pulled into the local project.
+		IFile userDataFile = project.getFile(getParameter(WaveEntryName));
+		if (userDataFile.getLocation() == null) {
+			throw new IOException("ReflectivityModel error: "
+					+ "The wave vector file is not on the local file system.");
+		}
+
+		return ReflectivityDataCache.getDefault().read(
+				userDataFile.getLocation().toFile());
+	}
+
+	/**
+	 * This operation creates a batch calculator for the materials and
+	 * parameters in the form.
+	 * 
+	 * @param userData
+	 *            the wave vector, measured reflectivity and error bars
+	 * @return the calculator
+	 */
+	private BatchReflectivityCalculator createBatchCalculator(
+			ReflectivityData userData) {
+
+		BatchReflectivityCalculator calculator = new BatchReflectivityCalculator(
+				createSlabs(),
+				Integer.parseInt(getParameter(RoughnessEntryName)),
+				Double.parseDouble(getParameter(deltaQ0EntryName)),
+				Double.parseDouble(getParameter(deltaQ1ByQEntryName)),
+				Double.parseDouble(getParameter(WaveLengthEntryName)),
+				userData.getWaveVector());
+		calculator.setMeasuredData(userData.getReflectivity(),
+				userData.getError());
+
+		return calculator;
+	}
+
+	/**
+	 * This operation parses a parameter written as layer:property. The layer
+	 * may be the name of a material or its index in the material list.
+	 * 
+	 * @param text
+	 *            the text to parse
+	 * @return the parameter
+	 * @throws IllegalArgumentException
+	 *             Thrown if the text does not describe a valid parameter
+	 */
+	private ReflectivityParameter parseParameter(String text) {
+
+		// Local Declarations
+		ListComponent<Material> matList = (ListComponent<Material>) form
+				.getComponent(matListId);
+		int separator = text.indexOf(':');
+		int layer = -1;
+
+		if (separator < 0) {
+			throw new IllegalArgumentException("ReflectivityModel error: "
+					+ "Parameter \"" + text + "\" is not layer:property.");
+		}
+
+		// Look for the layer by name and then by index
+		String layerText = text.substring(0, separator).trim();
+		for (int i = 0; i < matList.size() && layer < 0; i++) {
+			if (layerText.equals(matList.get(i).getName())) {
+				layer = i;
+			}
+		}
+		if (layer < 0) {
+			// This throws a NumberFormatException, which is an
+			// IllegalArgumentException, if the layer is not a number.
+			layer = Integer.parseInt(layerText);
+		}
+		if (layer >= matList.size()) {
+			throw new IllegalArgumentException("ReflectivityModel error: "
+					+ "Invalid layer in parameter \"" + text + "\".");
+		}
+
+		return new ReflectivityParameter(layer, text.substring(separator + 1)
+				.trim());
+	}
+
+	/**
+	 * This operation parses the sweep range, written as first value, last
+	 * value and number of values separated by commas.
+	 * 
+	 * @param text
+	 *            the text to parse
+	 * @return the evenly spaced values of the sweep, one per curve
+	 * @throws IllegalArgumentException
+	 *             Thrown if the text is not a valid range
+	 */
+	private List<double[]> parseSweepRange(String text) {
+
+		// Local Declarations
+		String[] range = text.split(",");
+		List<double[]> values = new ArrayList<double[]>();
+
+		if (range.length != 3) {
+			throw new IllegalArgumentException("ReflectivityModel error: "
+					+ "Sweep range \"" + text + "\" is not first,last,count.");
+		}
+
+		double first = Double.parseDouble(range[0].trim());
+		double last = Double.parseDouble(range[1].trim());
+		int count = Integer.parseInt(range[2].trim());
+		for (int i = 0; i < count; i++) {
+			double value = count > 1 ? first + (last - first) * i
+					/ (count - 1) : first;
+			values.add(new double[] { value });
+		}
+
+		return values;
+	}
+
+	/**
+	 * This operation returns the prefix of the names of the output files.
+	 * 
+	 * @return the prefix, which uses the id of the form
+	 */
+	private String getOutputBaseName() {
+		return "reflectivityModel_" + form.getId() + "_";
+	}
+
+	/**
+	 * This operation finds a resource in the resource component by the name of
+	 * its file.
+	 * 
+	 * @param resources
+	 *            the resource component
+	 * @param fileName
+	 *            the name of the file
+	 * @return the resource, or null if it is not in the component
+	 */
+	private VizResource findResource(ResourceComponent resources,
+			String fileName) {
+
+		for (ICEResource resource : resources.getResources()) {
+			if (resource instanceof VizResource
+					&& resource.getContents() != null
+					&& fileName.equals(resource.getContents().getName())) {
+				return (VizResource) resource;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * This operation refreshes a file that was written outside of the
+	 * workspace and adds it to the resource component if it is not already
+	 * there.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param name
+	 *            the name of the resource
+	 * @param id
+	 *            the id of the resource
+	 * @param description
+	 *            the description of the resource
+	 * @throws CoreException
+	 *             Thrown if the file cannot be refreshed
+	 * @throws IOException
+	 *             Thrown if the resource cannot be created
+	 */
+	private void updateResource(IFile file, String name, int id,
+			String description) throws CoreException, IOException {
+
+		// Local Declarations
+		ResourceComponent resources = (ResourceComponent) form
+				.getComponent(resourceCompId);
+
+		// Let the workspace know that the file changed
+		file.refreshLocal(IResource.DEPTH_ZERO, null);
+
+		// Add or update the resource
+		VizResource resource = findResource(resources, file.getName());
+		if (resource == null) {
+			resource = new VizResource(file.getLocation().toFile());
+			resource.setName(name);
+			resource.setId(id);
+			resource.setDescription(description);
+			resources.addResource(resource);
+		} else {
+			resource.setDescription(description);
+			// Updates the viz resource
+			resource.setName(resource.getName());
+		}
+
+		return;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -509,6 +1008,54 @@ public class ReflectivityModel extends Model {
 		waveEntry.setDescription("The wavelength of the neutron beam.");
 		paramComponent.addEntry(waveEntry);
 
+		// Add an entry for the parameter that is swept
+		Entry sweepParameterEntry = new Entry() {
+			@Override
+			protected void setup() {
+				allowedValueType = AllowedValueType.Undefined;
+				defaultValue = "Ni:" + ReflectivityParameter.THICKNESS;
+				return;
+			}
+		};
+		sweepParameterEntry.setId(6);
+		sweepParameterEntry.setName(SweepParameterEntryName);
+		sweepParameterEntry.setDescription("The layer and property swept by "
+				+ "the sweep action, written as layer:property. The layer "
+				+ "can be a material name or its index in the list.");
+		paramComponent.addEntry(sweepParameterEntry);
+
+		// Add an entry for the range of the sweep
+		Entry sweepRangeEntry = new Entry() {
+			@Override
+			protected void setup() {
+				allowedValueType = AllowedValueType.Undefined;
+				defaultValue = "540,560,21";
+				return;
+			}
+		};
+		sweepRangeEntry.setId(7);
+		sweepRangeEntry.setName(SweepRangeEntryName);
+		sweepRangeEntry.setDescription("The first value, last value and "
+				+ "number of values of the sweep, separated by commas.");
+		paramComponent.addEntry(sweepRangeEntry);
+
+		// Add an entry for the parameters that are fit
+		Entry fitParametersEntry = new Entry() {
+			@Override
+			protected void setup() {
+				allowedValueType = AllowedValueType.Undefined;
+				defaultValue = "Ni:" + ReflectivityParameter.THICKNESS
+						+ ";SiNiOx:" + ReflectivityParameter.ROUGHNESS;
+				return;
+			}
+		};
+		fitParametersEntry.setId(8);
+		fitParametersEntry.setName(FitParametersEntryName);
+		fitParametersEntry.setDescription("The parameters varied by the fit "
+				+ "action, written as layer:property and separated by "
+				+ "semicolons.");
+		paramComponent.addEntry(fitParametersEntry);
+
 		// Configure a list of property names for the materials
 		ArrayList<String> names = new ArrayList<String>();
 		names.add("Material ID");
@@ -545,6 +1092,8 @@ public class ReflectivityModel extends Model {
 		// Put the action name in the form so that the reflectivity can be
 		// calculated.
 		allowedActions.add(0, processActionName);
+		allowedActions.add(1, sweepActionName);
+		allowedActions.add(2, fitActionName);
 
 		return;
 	}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation -
+ *   Jay Jay Billings
+ *******************************************************************************/
+package org.eclipse.ice.reflectivity;
+
+import org.eclipse.ice.datastructures.form.Material;
+
+/**
+ * This class identifies a single property of one layer in a stack of slabs so
+ * that it can be varied in a parameter sweep or a fit. The properties are
+ * named with the same keys that the {@link ReflectivityModel} uses for the
+ * properties of its materials.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public class ReflectivityParameter {
+
+	/**
+	 * The name of the thickness property.
+	 */
+	public static final String THICKNESS = "Thickness (A)";
+
+	/**
+	 * The name of the roughness (interface width) property.
+	 */
+	public static final String ROUGHNESS = "Roughness (A)";
+
+	/**
+	 * The index of the layer in the stack of slabs.
+	 */
+	private final int layer;
+
+	/**
+	 * The name of the property.
+	 */
+	private final String property;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param layer
+	 *            the index of the layer in the stack of slabs
+	 * @param property
+	 *            the name of the property. It must be {@link #THICKNESS},
+	 *            {@link #ROUGHNESS}, {@link Material#SCAT_LENGTH_DENSITY},
+	 *            {@link Material#MASS_ABS_COHERENT} or
+	 *            {@link Material#MASS_ABS_INCOHERENT}.
+	 * @throws IllegalArgumentException
+	 *             Thrown if the layer is negative or the property is not
+	 *             supported
+	 */
+	public ReflectivityParameter(int layer, String property) {
+
+		if (layer < 0) {
+			throw new IllegalArgumentException("ReflectivityParameter error: "
+					+ "Invalid layer " + layer + ".");
+		} else if (!THICKNESS.equals(property) && !ROUGHNESS.equals(property)
+				&& !Material.SCAT_LENGTH_DENSITY.equals(property)
+				&& !Material.MASS_ABS_COHERENT.equals(property)
+				&& !Material.MASS_ABS_INCOHERENT.equals(property)) {
+			throw new IllegalArgumentException("ReflectivityParameter error: "
+					+ "Unsupported property \"" + property + "\".");
+		}
+
+		this.layer = layer;
+		this.property = property;
+	}
+
+	/**
+	 * This operation returns the index of the layer in the stack of slabs.
+	 *
+	 * @return the layer
+	 */
+	public int getLayer() {
+		return layer;
+	}
+
+	/**
+	 * This operation returns the name of the property.
+	 *
+	 * @return the property
+	 */
+	public String getProperty() {
+		return property;
+	}
+
+	/**
+	 * This operation gets the value of the parameter from a stack of slabs.
+	 *
+	 * @param slabs
+	 *            the slabs that define the material
+	 * @return the value of the parameter
+	 */
+	public double getValue(Slab[] slabs) {
+
+		Slab slab = slabs[layer];
+
+		if (THICKNESS.equals(property)) {
+			return slab.thickness;
+		} else if (ROUGHNESS.equals(property)) {
+			return slab.interfaceWidth;
+		} else if (Material.SCAT_LENGTH_DENSITY.equals(property)) {
+			return slab.scatteringLength;
+		} else if (Material.MASS_ABS_COHERENT.equals(property)) {
+			return slab.trueAbsLength;
+		} else {
+			return slab.incAbsLength;
+		}
+	}
+
+	/**
+	 * This operation sets the value of the parameter in a stack of slabs.
+	 *
+	 * @param slabs
+	 *            the slabs that define the material
+	 * @param value
+	 *            the new value of the parameter
+	 */
+	public void setValue(Slab[] slabs, double value) {
+
+		Slab slab = slabs[layer];
+
+		if (THICKNESS.equals(property)) {
+			slab.thickness = value;
+		} else if (ROUGHNESS.equals(property)) {
+			slab.interfaceWidth = value;
+		} else if (Material.SCAT_LENGTH_DENSITY.equals(property)) {
+			slab.scatteringLength = value;
+		} else if (Material.MASS_ABS_COHERENT.equals(property)) {
+			slab.trueAbsLength = value;
+		} else {
+			slab.incAbsLength = value;
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation limits a value to the physically valid range of the
+	 * parameter. Thicknesses, roughnesses and absorption lengths cannot be
+	 * negative, but scattering length densities can be.
+	 *
+	 * @param value
+	 *            the value to limit
+	 * @return the value if it is valid, or the nearest valid value
+	 */
+	public double constrain(double value) {
+		if (!Material.SCAT_LENGTH_DENSITY.equals(property) && value < 0.0) {
+			value = 0.0;
+		}
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return layer + ":" + property;
+	}
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation -
+ *   Jay Jay Billings
+ *******************************************************************************/
+package org.eclipse.ice.reflectivity;
+
+/**
+ * This class stores a set of tiles in the reflectivity calculator as parallel
+ * arrays instead of an array of {@link Tile}s. The properties of tile i are
+ * stored at index i in each array. This keeps the values for each property
+ * together in memory and avoids allocating an object for every tile when the
+ * interfacial roughness is finely discretized.
+ *
+ * Like {@link Tile}, it has no accessors and everything is public because it
+ * is made for a calculation. It should not be used outside of its package.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public class TileArray {
+
+	/**
+	 * The scattering lengths of the reflecting tiles/layers.
+	 */
+	public final double[] scatteringLength;
+
+	/**
+	 * The true absorption lengths of the reflecting tiles/layers.
+	 */
+	public final double[] trueAbsLength;
+
+	/**
+	 * The incoherent absorption lengths of the reflecting tiles/layers.
+	 */
+	public final double[] incAbsLength;
+
+	/**
+	 * The thicknesses of the tiles/layers.
+	 */
+	public final double[] thickness;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param size
+	 *            the number of tiles
+	 */
+	public TileArray(int size) {
+		scatteringLength = new double[size];
+		trueAbsLength = new double[size];
+		incAbsLength = new double[size];
+		thickness = new double[size];
+	}
+
+	/**
+	 * This operation returns the number of tiles in the array.
+	 *
+	 * @return the number of tiles
+	 */
+	public int size() {
+		return thickness.length;
+	}
+
+	/**
+	 * This operation copies a set of tiles into a new tile array.
+	 *
+	 * @param tiles
+	 *            the tiles to copy
+	 * @return the tile array with the same properties as the tiles
+	 */
+	public static TileArray fromTiles(Tile[] tiles) {
+
+		TileArray array = new TileArray(tiles.length);
+
+		for (int i = 0; i < tiles.length; i++) {
+			Tile tile = tiles[i];
+			array.scatteringLength[i] = tile.scatteringLength;
+			array.trueAbsLength[i] = tile.trueAbsLength;
+			array.incAbsLength[i] = tile.incAbsLength;
+			array.thickness[i] = tile.thickness;
+		}
+
+		return array;
+	}
+
+	/**
+	 * This operation copies the tile array into a new set of tiles.
+	 *
+	 * @return the tiles with the same properties as this array
+	 */
+	public Tile[] toTiles() {
+
+		Tile[] tiles = new Tile[size()];
+
+		for (int i = 0; i < tiles.length; i++) {
+			Tile tile = new Tile();
+			tile.scatteringLength = scatteringLength[i];
+			tile.trueAbsLength = trueAbsLength[i];
+			tile.incAbsLength = incAbsLength[i];
+			tile.thickness = thickness[i];
+			tiles[i] = tile;
+		}
+
+		return tiles;
+	}
+
+}
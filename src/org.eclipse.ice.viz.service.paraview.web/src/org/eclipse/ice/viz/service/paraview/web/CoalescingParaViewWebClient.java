@@ -0,0 +1,597 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Jordan Deyton (UT-Battelle, LLC.) - initial API and implementation and/or
+ *      initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.viz.service.paraview.web;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * This {@link IParaViewWebClient} is intended for interactive views. Like the
+ * {@link HttpParaViewWebClient}, it sends requests to the server one at a time
+ * and in order over persistent HTTP connections, but it does not blindly queue
+ * every request:
+ * <ul>
+ * <li>Consecutive mouse <code>"move"</code> events for the same view with the
+ * same button and key state are coalesced into the latest one while they wait
+ * to be sent. All of their futures receive the latest event's response.</li>
+ * <li>A new render request for a view supersedes any render request for the
+ * same view that has not been sent yet. The superseded request's future is
+ * cancelled.</li>
+ * <li>If adaptive quality is enabled, the quality of renders is lowered while
+ * the measured render latency exceeds the target latency and is raised back
+ * toward the requested quality once the server keeps up.</li>
+ * </ul>
+ * The client also keeps metrics for the frame latency and throughput and the
+ * number of requests that were never sent.
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class CoalescingParaViewWebClient extends HttpParaViewWebClient {
+
+	/**
+	 * The ParaView Web action for mouse movement. Only these events are
+	 * coalesced. Button presses and releases must always reach the server.
+	 */
+	private static final String MOVE_ACTION = "move";
+
+	/**
+	 * The number of recent frames used to compute the frame rate.
+	 */
+	private static final int FRAME_WINDOW = 30;
+
+	/**
+	 * The weight given to the latest latency in the running average.
+	 */
+	private static final double LATENCY_WEIGHT = 0.2;
+
+	/**
+	 * The ordered queue of requests that have not been sent yet. This is also
+	 * the lock for all request bookkeeping.
+	 */
+	private final LinkedList<Request> queue;
+
+	/**
+	 * The thread that sends queued requests, or null if it has not been
+	 * started or the client was disconnected.
+	 */
+	private Thread dispatcher;
+
+	/**
+	 * Whether or not render quality is adapted to the measured latency.
+	 */
+	private volatile boolean adaptiveQuality = true;
+
+	/**
+	 * The render latency, in milliseconds, that adaptive quality aims for.
+	 */
+	private volatile long targetLatency = 100;
+
+	/**
+	 * The lowest quality adaptive quality will use.
+	 */
+	private volatile int minimumQuality = 30;
+
+	/**
+	 * The amount by which adaptive quality changes the quality at a time.
+	 */
+	private volatile int qualityStep = 10;
+
+	/**
+	 * The current cap on render quality used by adaptive quality.
+	 */
+	private int currentQuality = 100;
+
+	/**
+	 * The running average of the render latency in milliseconds.
+	 */
+	private double averageLatency = 0.0;
+
+	/**
+	 * The total number of renders that completed.
+	 */
+	private long frameCount = 0;
+
+	/**
+	 * The completion times, in nanoseconds, of the last
+	 * {@link #FRAME_WINDOW} renders. This is a ring buffer indexed by
+	 * {@link #frameCount}.
+	 */
+	private final long[] frameTimes = new long[FRAME_WINDOW];
+
+	/**
+	 * The number of events that were merged into a later event.
+	 */
+	private long coalescedEventCount = 0;
+
+	/**
+	 * The number of renders that were cancelled by a later render.
+	 */
+	private long supersededRenderCount = 0;
+
+	/**
+	 * The kinds of requests handled by this client.
+	 */
+	private enum Kind {
+		RENDER, EVENT, CALL
+	}
+
+	/**
+	 * A request waiting to be sent. Its content may be replaced until it is
+	 * sent, which is how events are coalesced.
+	 */
+	private class Request implements Callable<JsonObject> {
+		/**
+		 * The kind of request.
+		 */
+		private final Kind kind;
+		/**
+		 * The ParaView Web method.
+		 */
+		private final String method;
+		/**
+		 * The view ID for renders and events, or -1 for other calls.
+		 */
+		private final int viewId;
+		/**
+		 * The content of the request.
+		 */
+		private JsonObject content;
+		/**
+		 * The action for events, otherwise null.
+		 */
+		private String action;
+		/**
+		 * The mouse state for events, otherwise null.
+		 */
+		private boolean[] mouseState;
+		/**
+		 * The requested quality for renders.
+		 */
+		private int quality;
+		/**
+		 * The future returned to clients.
+		 */
+		private final FutureTask<JsonObject> future;
+
+		/**
+		 * The default constructor.
+		 *
+		 * @param kind
+		 *            The kind of request.
+		 * @param method
+		 *            The ParaView Web method.
+		 * @param viewId
+		 *            The view ID, or -1 for other calls.
+		 * @param content
+		 *            The content of the request.
+		 */
+		private Request(Kind kind, String method, int viewId,
+				JsonObject content) {
+			this.kind = kind;
+			this.method = method;
+			this.viewId = viewId;
+			this.content = content;
+			future = new FutureTask<JsonObject>(this);
+		}
+
+		/*
+		 * Implements a method from Callable.
+		 */
+		@Override
+		public JsonObject call() throws Exception {
+
+			// Local Declarations
+			JsonObject reqObj = content;
+			JsonObject response;
+
+			if (kind == Kind.RENDER) {
+				// Cap the quality before sending the request.
+				int sentQuality = quality;
+				if (adaptiveQuality) {
+					synchronized (frameTimes) {
+						sentQuality = Math.min(quality, currentQuality);
+					}
+				}
+				reqObj.get("args").getAsJsonArray().get(0).getAsJsonObject()
+						.addProperty("quality", sentQuality);
+
+				// Time the request and record the frame.
+				long start = System.nanoTime();
+				response = makeRequest(method, reqObj);
+				long end = System.nanoTime();
+				if (response != null) {
+					recordFrame(quality, start, end);
+				}
+			} else {
+				response = makeRequest(method, reqObj);
+			}
+
+			return response;
+		}
+	}
+
+	/**
+	 * The default constructor.
+	 */
+	public CoalescingParaViewWebClient() {
+		super();
+		queue = new LinkedList<Request>();
+	}
+
+	/*
+	 * Overrides a method from HttpParaViewWebClient.
+	 */
+	@Override
+	public Future<JsonObject> render(int viewId, int quality, int width,
+			int height) {
+
+		// Set up the size array (with x height).
+		JsonArray size = new JsonArray();
+		size.add(new JsonPrimitive(width));
+		size.add(new JsonPrimitive(height));
+
+		// Set up the content of the request. The quality is set when the
+		// request is sent.
+		JsonObject reqObj = new JsonObject();
+		reqObj.add("size", size);
+		reqObj.addProperty("view", viewId);
+		reqObj.addProperty("quality", quality);
+		reqObj.addProperty("localtime", System.currentTimeMillis());
+
+		Request request = new Request(Kind.RENDER, "viewport.image.render",
+				viewId, wrapArguments(reqObj));
+		request.quality = quality;
+
+		synchronized (queue) {
+			// Cancel any render for the same view that has not been sent. The
+			// new render will show everything the old one would have.
+			Iterator<Request> iterator = queue.iterator();
+			while (iterator.hasNext()) {
+				Request queued = iterator.next();
+				if (queued.kind == Kind.RENDER && queued.viewId == viewId) {
+					iterator.remove();
+					queued.future.cancel(false);
+					supersededRenderCount++;
+				}
+			}
+			enqueue(request);
+		}
+
+		return request.future;
+	}
+
+	/*
+	 * Overrides a method from HttpParaViewWebClient.
+	 */
+	@Override
+	public Future<JsonObject> event(int viewId, double x, double y,
+			String action, boolean[] mouseState) {
+
+		// Set up the content of the request.
+		JsonObject reqObj = new JsonObject();
+		reqObj.addProperty("view", viewId);
+		reqObj.addProperty("x", x);
+		reqObj.addProperty("y", y);
+		reqObj.addProperty("buttonLeft", mouseState[0] ? 1 : 0);
+		reqObj.addProperty("buttonMiddle", mouseState[1] ? 1 : 0);
+		reqObj.addProperty("buttonRight", mouseState[2] ? 1 : 0);
+		reqObj.addProperty("shiftKey", mouseState[3] ? 1 : 0);
+		reqObj.addProperty("ctrlKey", mouseState[4] ? 1 : 0);
+		reqObj.addProperty("altKey", mouseState[5] ? 1 : 0);
+		reqObj.addProperty("metaKey", mouseState[6] ? 1 : 0);
+		reqObj.addProperty("action", action);
+		JsonObject mainObj = wrapArguments(reqObj);
+
+		synchronized (queue) {
+			// Look for the last unsent event for the same view. Renders for
+			// the view do not change its state, so they can be skipped, but
+			// anything else must be sent in order.
+			if (MOVE_ACTION.equals(action)) {
+				Iterator<Request> iterator = queue.descendingIterator();
+				while (iterator.hasNext()) {
+					Request queued = iterator.next();
+					if (queued.kind == Kind.RENDER && queued.viewId == viewId) {
+						continue;
+					}
+					// Replace the content of a compatible event.
+					if (queued.kind == Kind.EVENT && queued.viewId == viewId
+							&& action.equals(queued.action)
+							&& Arrays.equals(mouseState, queued.mouseState)) {
+						queued.content = mainObj;
+						coalescedEventCount++;
+						return queued.future;
+					}
+					break;
+				}
+			}
+
+			// Otherwise, queue a new event.
+			Request request = new Request(Kind.EVENT,
+					"viewport.mouse.interaction", viewId, mainObj);
+			request.action = action;
+			request.mouseState = Arrays.copyOf(mouseState, mouseState.length);
+			enqueue(request);
+			return request.future;
+		}
+	}
+
+	/*
+	 * Overrides a method from HttpParaViewWebClient.
+	 */
+	@Override
+	public Future<JsonObject> call(String method, JsonArray args) {
+
+		JsonObject reqObj = new JsonObject();
+		reqObj.add("args", args);
+
+		Request request = new Request(Kind.CALL, method, -1, reqObj);
+		synchronized (queue) {
+			enqueue(request);
+		}
+		return request.future;
+	}
+
+	/*
+	 * Overrides a method from HttpParaViewWebClient.
+	 */
+	@Override
+	public Future<Boolean> disconnect() {
+
+		// Cancel everything that has not been sent and stop the dispatcher.
+		synchronized (queue) {
+			for (Request request : queue) {
+				request.future.cancel(false);
+			}
+			queue.clear();
+			dispatcher = null;
+			queue.notifyAll();
+		}
+
+		return super.disconnect();
+	}
+
+	/**
+	 * Wraps the content of a request in the main request object. Note that it
+	 * *must* provide an "args" property set to a JSON array.
+	 *
+	 * @param reqObj
+	 *            The content of the request.
+	 * @return The main request object.
+	 */
+	private JsonObject wrapArguments(JsonObject reqObj) {
+		JsonArray args = new JsonArray();
+		args.add(reqObj);
+		JsonObject mainObj = new JsonObject();
+		mainObj.add("args", args);
+		return mainObj;
+	}
+
+	/**
+	 * Adds a request to the end of the queue and makes sure the dispatcher is
+	 * running. The caller must hold the lock on the {@link #queue}.
+	 *
+	 * @param request
+	 *            The new request.
+	 */
+	private void enqueue(Request request) {
+
+		queue.add(request);
+
+		if (dispatcher == null) {
+			dispatcher = createDispatcher();
+			dispatcher.start();
+		}
+		queue.notifyAll();
+
+		return;
+	}
+
+	/**
+	 * Creates the daemon thread that sends queued requests in order until the
+	 * client is disconnected.
+	 *
+	 * @return The dispatcher thread.
+	 */
+	private Thread createDispatcher() {
+		Thread thread = new Thread("ParaView Web Request Dispatcher") {
+			@Override
+			public void run() {
+				Request request;
+				while ((request = nextRequest(this)) != null) {
+					// FutureTask skips requests that were already cancelled.
+					request.future.run();
+				}
+				return;
+			}
+		};
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	/**
+	 * Waits for the next request to send.
+	 *
+	 * @param thread
+	 *            The dispatcher asking for the request.
+	 * @return The next request, or null if the dispatcher should stop.
+	 */
+	private Request nextRequest(Thread thread) {
+		synchronized (queue) {
+			while (dispatcher == thread && queue.isEmpty()) {
+				try {
+					queue.wait();
+				} catch (InterruptedException e) {
+					return null;
+				}
+			}
+			return (dispatcher == thread) ? queue.poll() : null;
+		}
+	}
+
+	/**
+	 * Records a completed render and adapts the quality to its latency.
+	 *
+	 * @param requestedQuality
+	 *            The quality requested by the client.
+	 * @param start
+	 *            The time the request was sent, in nanoseconds.
+	 * @param end
+	 *            The time the response was received, in nanoseconds.
+	 */
+	private void recordFrame(int requestedQuality, long start, long end) {
+
+		double latency = (end - start) / 1.0e6;
+
+		synchronized (frameTimes) {
+			// Update the running average latency and the frame times.
+			averageLatency = (frameCount == 0) ? latency
+					: (1.0 - LATENCY_WEIGHT) * averageLatency + LATENCY_WEIGHT
+							* latency;
+			frameTimes[(int) (frameCount % FRAME_WINDOW)] = end;
+			frameCount++;
+
+			// Lower the quality while the server is slow, and raise it back
+			// toward the requested quality when it has time to spare.
+			if (averageLatency > targetLatency) {
+				currentQuality = Math.max(minimumQuality, currentQuality
+						- qualityStep);
+			} else if (averageLatency < targetLatency / 2.0) {
+				currentQuality = Math.min(Math.max(requestedQuality,
+						minimumQuality), currentQuality + qualityStep);
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * Sets whether or not render quality should be adapted to the measured
+	 * latency. It is enabled by default.
+	 *
+	 * @param adaptive
+	 *            True to adapt the quality, false to always use the requested
+	 *            quality.
+	 */
+	public void setAdaptiveQuality(boolean adaptive) {
+		adaptiveQuality = adaptive;
+	}
+
+	/**
+	 * Sets the render latency that adaptive quality aims for.
+	 *
+	 * @param milliseconds
+	 *            The target latency. Must be positive.
+	 */
+	public void setTargetLatency(long milliseconds) {
+		if (milliseconds > 0) {
+			targetLatency = milliseconds;
+		}
+	}
+
+	/**
+	 * Sets the lowest quality adaptive quality will use.
+	 *
+	 * @param quality
+	 *            The minimum quality, between 0 and 100.
+	 */
+	public void setMinimumQuality(int quality) {
+		if (quality >= 0 && quality <= 100) {
+			minimumQuality = quality;
+		}
+	}
+
+	/**
+	 * Gets the current cap on render quality used by adaptive quality.
+	 *
+	 * @return The current quality cap.
+	 */
+	public int getCurrentQuality() {
+		synchronized (frameTimes) {
+			return currentQuality;
+		}
+	}
+
+	/**
+	 * Gets the running average of the latency of completed renders.
+	 *
+	 * @return The average latency in milliseconds, or 0 if no renders have
+	 *         completed.
+	 */
+	public double getAverageFrameLatency() {
+		synchronized (frameTimes) {
+			return averageLatency;
+		}
+	}
+
+	/**
+	 * Gets the rate at which recent renders completed.
+	 *
+	 * @return The frames per second over the last few frames, or 0 if fewer
+	 *         than two renders have completed.
+	 */
+	public double getFrameRate() {
+		synchronized (frameTimes) {
+			int frames = (int) Math.min(frameCount, FRAME_WINDOW);
+			if (frames < 2) {
+				return 0.0;
+			}
+			long last = frameTimes[(int) ((frameCount - 1) % FRAME_WINDOW)];
+			long first = frameTimes[(int) ((frameCount - frames) % FRAME_WINDOW)];
+			return (last > first) ? (frames - 1) * 1.0e9 / (last - first)
+					: 0.0;
+		}
+	}
+
+	/**
+	 * Gets the number of renders that completed.
+	 *
+	 * @return The frame count.
+	 */
+	public long getFrameCount() {
+		synchronized (frameTimes) {
+			return frameCount;
+		}
+	}
+
+	/**
+	 * Gets the number of mouse events that were merged into later events
+	 * instead of being sent.
+	 *
+	 * @return The number of coalesced events.
+	 */
+	public long getCoalescedEventCount() {
+		synchronized (queue) {
+			return coalescedEventCount;
+		}
+	}
+
+	/**
+	 * Gets the number of renders that were cancelled by later renders instead
+	 * of being sent.
+	 *
+	 * @return The number of superseded renders.
+	 */
+	public long getSupersededRenderCount() {
+		synchronized (queue) {
+			return supersededRenderCount;
+		}
+	}
+}
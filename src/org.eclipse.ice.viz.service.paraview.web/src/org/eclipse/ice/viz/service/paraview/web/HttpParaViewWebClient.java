@@ -19,6 +19,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.concurrent.Callable;
@@ -58,10 +59,20 @@ public class HttpParaViewWebClient implements IParaViewWebClient {
 		requestExecutor = Executors.newSingleThreadExecutor();
 	}
 
-	/*
-	 * Implements a method from ParaViewWebClient.
+	/**
+	 * Posts a request to the ParaView Web server and waits for its response.
+	 * The request body is sent with its exact length and the response is read
+	 * completely, which lets the underlying HTTP connection be kept alive and
+	 * reused by subsequent requests to the same server.
+	 * 
+	 * @param method
+	 *            The ParaView Web method, appended to the base URL.
+	 * @param content
+	 *            The content of the request.
+	 * @return The response, an empty object if it could not be parsed, or null
+	 *         if the request failed.
 	 */
-	private JsonObject makeRequest(String method, JsonObject content) {
+	protected JsonObject makeRequest(String method, JsonObject content) {
 
 		JsonObject retVal = null;
 
@@ -71,28 +82,43 @@ public class HttpParaViewWebClient implements IParaViewWebClient {
 			// Create connection
 			String fullUrl = baseEndPointURL + method;
 			url = new URL(fullUrl);
+			byte[] body = content.toString().getBytes("UTF-8");
 			connection = (HttpURLConnection) url.openConnection();
 			connection.setRequestMethod("POST");
 			connection.setRequestProperty("Content-Type",
 					"application/octetstream");
-			connection.setRequestProperty("Content-Length",
-					Integer.toString(content.entrySet().size()));
 			connection.setRequestProperty("Content-Language", "en-US");
+			connection.setFixedLengthStreamingMode(body.length);
 
 			connection.setUseCaches(false);
 			connection.setDoInput(true);
 			connection.setDoOutput(true);
 
 			// Send request
-			connection.getOutputStream().write(content.toString().getBytes());
-			connection.getOutputStream().flush();
-			connection.getOutputStream().close();
-
-			// Get Response
-			InputStream is = connection.getInputStream();
-			BufferedReader rd = new BufferedReader(new InputStreamReader(is));
+			OutputStream os = connection.getOutputStream();
+			os.write(body);
+			os.flush();
+			os.close();
+
+			// Get Response. If the server returned an error, drain the error
+			// stream so that the connection can still be reused.
+			InputStream is;
+			try {
+				is = connection.getInputStream();
+			} catch (IOException e) {
+				InputStream es = connection.getErrorStream();
+				if (es != null) {
+					while (es.read() != -1) {
+						// Discard the error body.
+					}
+					es.close();
+				}
+				throw e;
+			}
+			BufferedReader rd = new BufferedReader(new InputStreamReader(is,
+					"UTF-8"));
 			String line;
-			StringBuffer response = new StringBuffer();
+			StringBuilder response = new StringBuilder();
 			while ((line = rd.readLine()) != null) {
 				response.append(line);
 				response.append('\n');
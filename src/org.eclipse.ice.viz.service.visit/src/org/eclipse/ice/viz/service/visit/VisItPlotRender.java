@@ -23,6 +23,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.ice.client.common.ActionTree;
 import org.eclipse.ice.viz.service.connections.ConnectionPlotRender;
 import org.eclipse.ice.viz.service.connections.IConnectionAdapter;
+import org.eclipse.ice.viz.service.visit.widgets.ITimestepRenderer;
 import org.eclipse.ice.viz.service.visit.widgets.TimeSliderComposite;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.MenuManager;
@@ -90,9 +91,10 @@ public class VisItPlotRender extends ConnectionPlotRender<VisItSwtConnection> {
 	private TimeSliderComposite timeSlider;
 
 	/**
-	 * The currently timestep rendered by the VisIt widget.
+	 * The currently timestep rendered by the VisIt widget. This is updated by
+	 * the worker thread and read on the UI thread during playback.
 	 */
-	private int renderedTimestep = 0;
+	private volatile int renderedTimestep = 0;
 	/**
 	 * The current timestep as reported by the {@link #timeSlider} on the UI
 	 * thread.
@@ -261,6 +263,16 @@ public class VisItPlotRender extends ConnectionPlotRender<VisItSwtConnection> {
 			}
 		});
 
+		// During playback, the time slider should skip timesteps rather than
+		// queue them while the VisIt server is still catching up. The worker
+		// is busy until it has stepped to the timestep in the slider.
+		timeSlider.setTimestepRenderer(new ITimestepRenderer() {
+			@Override
+			public boolean isRendering() {
+				return renderedTimestep != widgetTimestep.get();
+			}
+		});
+
 		// TODO We need to figure out how to get the actual times from the VisIt
 		// client API. We are currently using the timestep indices.
 		// Get the available timesteps.
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.viz.service.visit.widgets;
+
+/**
+ * An {@code ITimestepRenderer} tells a {@link TimeSliderComposite} whether the
+ * plot is still drawing the last timestep that was selected. During playback,
+ * the slider does not advance while the renderer is busy. Once it is done, the
+ * slider jumps to the timestep due at that time, so timesteps are dropped
+ * instead of being queued behind a slow rendering server.
+ * <p>
+ * <b>Note:</b> This method is called on the UI thread and should return
+ * quickly.
+ * </p>
+ * 
+ * @author Jordan Deyton
+ *
+ */
+public interface ITimestepRenderer {
+
+	/**
+	 * Gets whether the renderer is still drawing the timestep that was most
+	 * recently selected in the slider.
+	 * 
+	 * @return True if the renderer is busy, false if it can draw a new
+	 *         timestep immediately.
+	 */
+	public boolean isRendering();
+}
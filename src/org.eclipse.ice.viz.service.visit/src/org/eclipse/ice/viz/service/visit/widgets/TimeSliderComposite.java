@@ -137,9 +137,29 @@ public class TimeSliderComposite extends Composite {
 	/**
 	 * The runnable operation used for "playback". It increments the timestep
 	 * and schedules itself to execute later based on the value of
-	 * {@link #playbackInterval}.
+	 * {@link #fpsDelay}.
 	 */
 	private Runnable playbackRunnable;
+	/**
+	 * The time, in nanoseconds, at which the last frame was shown during
+	 * playback. Playback advances based on the time elapsed since then so that
+	 * it keeps pace with the FPS when frames are late.
+	 */
+	private long lastFrameTime;
+	/**
+	 * The running average of the achieved playback rate in frames per second.
+	 */
+	private double achievedFPS = 0.0;
+	/**
+	 * The number of timesteps skipped during playback because playback fell
+	 * behind or the renderer was busy.
+	 */
+	private long droppedFrameCount = 0;
+	/**
+	 * The optional renderer that reports whether the plot is still drawing the
+	 * last selected timestep.
+	 */
+	private ITimestepRenderer timestepRenderer;
 
 	/**
 	 * The current timestep, or -1 if there are no times available.
@@ -674,6 +694,68 @@ public class TimeSliderComposite extends Composite {
 		return fps;
 	}
 
+	/**
+	 * Gets the playback rate actually achieved. This is less than the FPS if
+	 * frames could not be shown as quickly as requested.
+	 * 
+	 * @return The running average of the achieved frames per second, or 0 if
+	 *         no frames have been shown since playback started.
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                </ul>
+	 */
+	public double getAchievedFPS() {
+		// Check that this widget can be accessed.
+		checkWidget();
+		return achievedFPS;
+	}
+
+	/**
+	 * Gets the number of timesteps that were skipped during playback because
+	 * playback fell behind or the renderer was busy.
+	 * 
+	 * @return The number of dropped frames.
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                </ul>
+	 */
+	public long getDroppedFrameCount() {
+		// Check that this widget can be accessed.
+		checkWidget();
+		return droppedFrameCount;
+	}
+
+	/**
+	 * Sets the renderer that draws the selected timesteps. While playing, the
+	 * widget does not advance while the renderer is busy and skips the
+	 * timesteps that became due in the meantime rather than queueing them.
+	 * 
+	 * @param renderer
+	 *            The new renderer, or null to show every timestep on time
+	 *            regardless of whether the previous one has been drawn.
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                </ul>
+	 */
+	public void setTimestepRenderer(ITimestepRenderer renderer) {
+		// Check that this widget can be accessed.
+		checkWidget();
+		timestepRenderer = renderer;
+		return;
+	}
+
 	/**
 	 * Gets whether or not playback will loop back to the first timestep after
 	 * the last timestep is reached.
@@ -1080,23 +1162,19 @@ public class TimeSliderComposite extends Composite {
 				// from the first (next) timestep. Otherwise, insert a delay.
 				time = (timestep < times.size() - 1 ? fpsDelay : 0);
 
+				// Reset the playback statistics.
+				lastFrameTime = System.nanoTime();
+				achievedFPS = 0.0;
+
 				// The playback runnable should be created.
 				playbackRunnable = new Runnable() {
 					@Override
 					public void run() {
-						// If the last timestep is reached and playback
-						// shouldn't be looped, halt playback.
-						if (!loopPlayback && timestep == times.size() - 2) {
-							setPlayback(false, null);
-						}
-						// Otherwise, schedule the next frame change.
-						else {
+						// Show the next frame if possible and, unless playback
+						// just finished, schedule the next frame change.
+						if (advancePlayback(e)) {
 							getDisplay().timerExec(fpsDelay, this);
 						}
-						// Increment the timestep.
-						if (incrementTimestep()) {
-							notifyListeners(e);
-						}
 						return;
 					}
 				};
@@ -1119,6 +1197,69 @@ public class TimeSliderComposite extends Composite {
 		return;
 	}
 
+	/**
+	 * Advances playback to the timestep due at the current time. If playback
+	 * has fallen behind (for instance, because listeners took longer than the
+	 * frame delay), intermediate timesteps are skipped rather than shown late.
+	 * If a {@link #timestepRenderer} is set, playback waits while it is still
+	 * drawing the previous timestep, including before the last timestep when
+	 * playback is not looped.
+	 * 
+	 * @param e
+	 *            The selection event sent to listeners when the timestep
+	 *            changes.
+	 * @return True if playback should continue, false if it was stopped.
+	 */
+	private boolean advancePlayback(SelectionEvent e) {
+
+		// Local Declarations
+		int size = times.size();
+		long now = System.nanoTime();
+		long delay = Math.max(1L, fpsDelay) * 1000000L;
+		boolean keepPlaying = true;
+		int current = timestep;
+
+		// Wait for the renderer to finish the previous timestep.
+		if (timestepRenderer != null && timestepRenderer.isRendering()) {
+			return true;
+		}
+
+		// If playback is not looped but was started on the last timestep,
+		// start over from the first timestep.
+		if (!loopPlayback && current == size - 1) {
+			current = -1;
+		}
+
+		// Determine how many frames are due. At least one frame is due since
+		// this is called once per frame delay.
+		int due = (int) Math.max(1L,
+				Math.min(size, (now - lastFrameTime) / delay));
+		int next = current + due;
+
+		// Without looping, playback stops on the last timestep.
+		if (!loopPlayback && next >= size - 1) {
+			next = size - 1;
+			keepPlaying = false;
+		}
+
+		// Update the statistics and show the frame.
+		droppedFrameCount += Math.max(0, next - current - 1);
+		double elapsed = (now - lastFrameTime) / 1.0e9;
+		if (elapsed > 0.0) {
+			achievedFPS = (achievedFPS == 0.0) ? 1.0 / elapsed : 0.8
+					* achievedFPS + 0.2 / elapsed;
+		}
+		lastFrameTime = now;
+		if (!keepPlaying) {
+			setPlayback(false, null);
+		}
+		if (setValidTimestep(next % size)) {
+			notifyListeners(e);
+		}
+
+		return keepPlaying;
+	}
+
 	/**
 	 * Updates the timestep and all embedded widgets based on the new timestep
 	 * value.
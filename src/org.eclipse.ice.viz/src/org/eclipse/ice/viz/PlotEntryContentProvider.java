@@ -15,6 +15,7 @@ package org.eclipse.ice.viz;
 import java.util.ArrayList;
 
 import org.eclipse.ice.datastructures.form.AllowedValueType;
+import org.eclipse.ice.datastructures.form.EntryValidator;
 import org.eclipse.ice.datastructures.form.IEntryContentProvider;
 
 /**
@@ -31,6 +32,14 @@ import org.eclipse.ice.datastructures.form.IEntryContentProvider;
  */
 public class PlotEntryContentProvider implements IEntryContentProvider {
 
+	/**
+	 * The validator shared by all plot Entries. Their allowed values never
+	 * change.
+	 */
+	private static final EntryValidator validator = new EntryValidator(
+			AllowedValueType.Discrete, new PlotEntryContentProvider(null)
+					.getAllowedValues());
+
 	/**
 	 * The parent entry's name.
 	 */
@@ -156,4 +165,12 @@ public class PlotEntryContentProvider implements IEntryContentProvider {
 	public Object clone() {
 		return new PlotEntryContentProvider(parent);
 	}
+
+	/**
+	 * Returns the validator for the values "true" and "false".
+	 */
+	@Override
+	public EntryValidator getValidator() {
+		return validator;
+	}
 }
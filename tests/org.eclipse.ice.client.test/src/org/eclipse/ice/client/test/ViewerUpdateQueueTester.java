@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.client.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.eclipse.ice.client.common.ViewerUpdateQueue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests the {@link ViewerUpdateQueue}. Instead of the UI thread,
+ * the queue uses an executor that holds the batches until the test runs them.
+ *
+ * @author Jordan H. Deyton
+ *
+ */
+public class ViewerUpdateQueueTester {
+
+	/**
+	 * The batches sent to the executor but not yet run.
+	 */
+	private List<Runnable> scheduled;
+
+	/**
+	 * The batches of elements processed by the queue.
+	 */
+	private List<List<String>> batches;
+
+	/**
+	 * The queue being tested.
+	 */
+	private ViewerUpdateQueue<String> queue;
+
+	/**
+	 * Creates the queue and an executor that holds its batches.
+	 */
+	@Before
+	public void beforeEachTest() {
+		scheduled = new ArrayList<Runnable>();
+		batches = new ArrayList<List<String>>();
+		queue = new ViewerUpdateQueue<String>(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				scheduled.add(command);
+			}
+		}) {
+			@Override
+			protected void process(List<String> elements) {
+				batches.add(new ArrayList<String>(elements));
+			}
+		};
+	}
+
+	/**
+	 * Runs all of the batches that have been sent to the executor.
+	 */
+	private void runScheduled() {
+		List<Runnable> runnables = new ArrayList<Runnable>(scheduled);
+		scheduled.clear();
+		for (Runnable runnable : runnables) {
+			runnable.run();
+		}
+	}
+
+	/**
+	 * Checks that posted elements are coalesced into a single batch and that
+	 * each element is only processed once per batch.
+	 */
+	@Test
+	public void checkBatching() {
+
+		// Post several elements, some more than once. Only one batch should
+		// be scheduled.
+		queue.post("a");
+		queue.post("b");
+		queue.post("a");
+		queue.post(null);
+		queue.post("c");
+		assertEquals(1, scheduled.size());
+		assertTrue(batches.isEmpty());
+
+		// The batch should contain each element once, in the order posted.
+		runScheduled();
+		assertEquals(1, batches.size());
+		assertEquals(Arrays.asList("a", "b", "c"), batches.get(0));
+
+		// Posting after the batch has run should schedule a new batch.
+		queue.post("b");
+		assertEquals(1, scheduled.size());
+		runScheduled();
+		assertEquals(2, batches.size());
+		assertEquals(Arrays.asList("b"), batches.get(1));
+
+		// Null elements should not schedule a batch.
+		queue.post(null);
+		assertTrue(scheduled.isEmpty());
+
+		return;
+	}
+
+	/**
+	 * Checks that elements are compared by identity, so equal elements are
+	 * each processed and elements that change while queued are processed
+	 * once.
+	 */
+	@Test
+	public void checkIdentity() {
+
+		// Local Declarations
+		final List<List<List<String>>> processed;
+		processed = new ArrayList<List<List<String>>>();
+		ViewerUpdateQueue<List<String>> listQueue;
+		listQueue = new ViewerUpdateQueue<List<String>>(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				scheduled.add(command);
+			}
+		}) {
+			@Override
+			protected void process(List<List<String>> elements) {
+				processed.add(new ArrayList<List<String>>(elements));
+			}
+		};
+		List<String> first = new ArrayList<String>();
+		List<String> second = new ArrayList<String>();
+
+		// Distinct elements with equal contents should both be processed.
+		listQueue.post(first);
+		listQueue.post(second);
+
+		// An element whose contents (and hash code) change while it is queued
+		// should still only be processed once.
+		first.add("a");
+		listQueue.post(first);
+
+		runScheduled();
+		assertEquals(1, processed.size());
+		assertEquals(2, processed.get(0).size());
+		assertSame(first, processed.get(0).get(0));
+		assertSame(second, processed.get(0).get(1));
+
+		return;
+	}
+
+	/**
+	 * Checks that clearing the queue discards pending elements.
+	 */
+	@Test
+	public void checkClear() {
+
+		// Post an element and clear the queue. The scheduled batch should not
+		// process anything.
+		queue.post("a");
+		queue.clear();
+		runScheduled();
+		assertTrue(batches.isEmpty());
+
+		// The queue should still schedule new batches.
+		queue.post("b");
+		assertEquals(1, scheduled.size());
+		runScheduled();
+		assertEquals(1, batches.size());
+		assertEquals(Arrays.asList("b"), batches.get(0));
+
+		return;
+	}
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.client.widgets.jme.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.ice.client.widgets.jme.BoundingVolumeHierarchy;
+import org.junit.Test;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.math.Plane;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector3f;
+
+/**
+ * Checks the {@link BoundingVolumeHierarchy} against brute-force searches of
+ * the same boxes.
+ *
+ * @author Jordan H. Deyton
+ */
+public class BoundingVolumeHierarchyTester {
+
+	/**
+	 * The number of boxes on each side of the grid of test boxes.
+	 */
+	private static final int gridSize = 32;
+
+	/**
+	 * Creates a unit box centered on a point.
+	 */
+	private static BoundingBox createBox(float x, float y, float z) {
+		return new BoundingBox(new Vector3f(x, y, z), 0.25f, 0.25f, 0.25f);
+	}
+
+	/**
+	 * Creates a hierarchy of boxes on a grid in the xy-plane. The items are
+	 * the indices of the boxes.
+	 */
+	private BoundingVolumeHierarchy<Integer> createGrid(
+			List<BoundingBox> boxes) {
+		BoundingVolumeHierarchy<Integer> bvh = new BoundingVolumeHierarchy<Integer>();
+		for (int i = 0; i < gridSize; i++) {
+			for (int j = 0; j < gridSize; j++) {
+				BoundingBox box = createBox(i, j, 0f);
+				assertTrue(bvh.update(boxes.size(), box));
+				boxes.add(box);
+			}
+		}
+		return bvh;
+	}
+
+	/**
+	 * Checks adding, moving, and removing items.
+	 */
+	@Test
+	public void checkUpdate() {
+
+		List<BoundingBox> boxes = new ArrayList<BoundingBox>();
+		BoundingVolumeHierarchy<Integer> bvh = createGrid(boxes);
+
+		// The tree should contain every box and be balanced.
+		int size = gridSize * gridSize;
+		assertEquals(size, bvh.size());
+		assertTrue(bvh.contains(0));
+		assertTrue(bvh.contains(size - 1));
+		assertFalse(bvh.contains(size));
+		int log = 32 - Integer.numberOfLeadingZeros(size);
+		assertTrue("Height " + bvh.getHeight() + " for " + size + " items",
+				bvh.getHeight() <= 2 * log);
+
+		// A small move should not change the tree.
+		assertFalse(bvh.update(0, createBox(0.01f, 0f, 0f)));
+		// But the item should be found at its new bound.
+		Ray ray = new Ray(new Vector3f(0.255f, 0f, 5f), new Vector3f(0f, 0f,
+				-1f));
+		assertEquals(0, (int) bvh.pick(ray).get(0));
+
+		// A large move should re-insert the item.
+		assertTrue(bvh.update(0, createBox(100f, 100f, 0f)));
+		assertTrue(bvh.pick(ray).isEmpty());
+		ray = new Ray(new Vector3f(100f, 100f, 5f), new Vector3f(0f, 0f, -1f));
+		assertEquals(0, (int) bvh.pick(ray).get(0));
+
+		// Spheres are supported.
+		assertTrue(bvh.update(size, new BoundingSphere(1f, new Vector3f(200f,
+				0f, 0f))));
+		ray = new Ray(new Vector3f(200.9f, 0f, 5f), new Vector3f(0f, 0f, -1f));
+		assertEquals(size, (int) bvh.pick(ray).get(0));
+
+		// Removing items, either directly or with a null bound, should work.
+		assertTrue(bvh.remove(size));
+		assertFalse(bvh.remove(size));
+		assertTrue(bvh.update(0, null));
+		assertFalse(bvh.contains(0));
+		assertEquals(size - 1, bvh.size());
+
+		// Null items are ignored.
+		assertFalse(bvh.update(null, createBox(0f, 0f, 0f)));
+
+		// Remove everything else.
+		for (int i = 1; i < size; i++) {
+			assertTrue(bvh.remove(i));
+		}
+		assertEquals(0, bvh.size());
+		assertEquals(0, bvh.getHeight());
+		assertTrue(bvh.pick(ray).isEmpty());
+
+		// Clear should also empty the tree.
+		bvh = createGrid(new ArrayList<BoundingBox>());
+		bvh.clear();
+		assertEquals(0, bvh.size());
+		assertTrue(bvh.pick(ray).isEmpty());
+
+		return;
+	}
+
+	/**
+	 * Checks ray picks against a brute-force search.
+	 */
+	@Test
+	public void checkPick() {
+
+		List<BoundingBox> boxes = new ArrayList<BoundingBox>();
+		BoundingVolumeHierarchy<Integer> bvh = createGrid(boxes);
+		Random random = new Random(42);
+
+		// A ray straight down onto a box should hit only that box.
+		Ray ray = new Ray(new Vector3f(3f, 4f, 10f), new Vector3f(0f, 0f, -1f));
+		List<Integer> hits = bvh.pick(ray);
+		assertEquals(1, hits.size());
+		assertEquals(3 * gridSize + 4, (int) hits.get(0));
+
+		// A ray along a row should hit the row in order.
+		ray = new Ray(new Vector3f(-5f, 2f, 0f), new Vector3f(1f, 0f, 0f));
+		hits = bvh.pick(ray);
+		assertEquals(gridSize, hits.size());
+		for (int i = 0; i < gridSize; i++) {
+			assertEquals(i * gridSize + 2, (int) hits.get(i));
+		}
+		// The limit of the ray should be respected.
+		ray.setLimit(5.5f);
+		assertEquals(1, bvh.pick(ray).size());
+
+		// Compare random rays with a brute-force search.
+		for (int n = 0; n < 100; n++) {
+			Vector3f origin = new Vector3f(random.nextFloat() * gridSize,
+					random.nextFloat() * gridSize, 5f);
+			Vector3f direction = new Vector3f(random.nextFloat() - 0.5f,
+					random.nextFloat() - 0.5f, -1f).normalizeLocal();
+			ray = new Ray(origin, direction);
+
+			// Rays that graze a box may or may not hit it, so the result is
+			// compared with slightly smaller and larger boxes.
+			HashSet<Integer> picked = new HashSet<Integer>(bvh.pick(ray));
+			for (int i = 0; i < boxes.size(); i++) {
+				if (hits(boxes.get(i), ray, -0.01f)) {
+					assertTrue(picked.contains(i));
+				} else if (!hits(boxes.get(i), ray, 0.01f)) {
+					assertFalse(picked.contains(i));
+				}
+			}
+		}
+
+		// Null rays hit nothing.
+		assertTrue(bvh.pick(null).isEmpty());
+
+		return;
+	}
+
+	/**
+	 * Checks selections with planes against a brute-force search.
+	 */
+	@Test
+	public void checkSelect() {
+
+		List<BoundingBox> boxes = new ArrayList<BoundingBox>();
+		BoundingVolumeHierarchy<Integer> bvh = createGrid(boxes);
+
+		// Select the boxes in the rectangle 2.5 <= x <= 5.5, 9.5 <= y <= 10.5.
+		Plane[] planes = new Plane[] {
+				new Plane(new Vector3f(1f, 0f, 0f), 2.5f),
+				new Plane(new Vector3f(-1f, 0f, 0f), -5.5f),
+				new Plane(new Vector3f(0f, 1f, 0f), 9.5f),
+				new Plane(new Vector3f(0f, -1f, 0f), -10.5f) };
+		HashSet<Integer> expected = new HashSet<Integer>();
+		for (int i = 3; i <= 5; i++) {
+			expected.add(i * gridSize + 10);
+		}
+		assertEquals(expected, new HashSet<Integer>(bvh.select(planes)));
+
+		// Selecting everything should return every box.
+		planes = new Plane[] { new Plane(new Vector3f(0f, 0f, 1f), -1f) };
+		assertEquals(boxes.size(), bvh.select(planes).size());
+
+		// Selecting nothing should return nothing.
+		planes = new Plane[] { new Plane(new Vector3f(0f, 0f, 1f), 1f) };
+		assertTrue(bvh.select(planes).isEmpty());
+		assertTrue(bvh.select().isEmpty());
+
+		return;
+	}
+
+	/**
+	 * Determines whether a ray pointing down the z-axis hits a box by
+	 * stepping along the ray through the box's z range. This is slow but
+	 * independent of the implementation being tested.
+	 */
+	private static boolean hits(BoundingBox box, Ray ray, float padding) {
+		Vector3f center = box.getCenter();
+		Vector3f origin = ray.getOrigin();
+		Vector3f direction = ray.getDirection();
+		float x = box.getXExtent() + padding;
+		float y = box.getYExtent() + padding;
+		float z = box.getZExtent() + padding;
+		float start = (origin.z - center.z - z) / -direction.z;
+		float end = (origin.z - center.z + z) / -direction.z;
+		for (float t = start; t <= end; t += 0.001f) {
+			if (Math.abs(origin.x + direction.x * t - center.x) <= x
+					&& Math.abs(origin.y + direction.y * t - center.y) <= y) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.client.widgets.mesh.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.ice.client.widgets.mesh.MeshAppState;
+import org.eclipse.ice.client.widgets.mesh.MeshUpdateHandler;
+import org.eclipse.ice.datastructures.form.mesh.Edge;
+import org.eclipse.ice.datastructures.form.mesh.MeshChangeLog;
+import org.eclipse.ice.datastructures.form.mesh.MeshComponent;
+import org.eclipse.ice.datastructures.form.mesh.Polygon;
+import org.eclipse.ice.datastructures.form.mesh.Vertex;
+import org.junit.Test;
+
+/**
+ * This class tests that the {@link MeshUpdateHandler} applies changes to a
+ * {@link MeshComponent} and asks the {@link MeshAppState} to render them.
+ *
+ * @author Jordan H. Deyton
+ *
+ */
+public class MeshUpdateHandlerTester {
+
+	/**
+	 * Checks that a change to the mesh that is not accompanied by any input
+	 * wakes the view and that the frame in which the change is applied is
+	 * rendered.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void checkRenderOnChange() throws InterruptedException {
+
+		// Local Declarations
+		final AtomicInteger fullUpdates = new AtomicInteger();
+		final AtomicInteger partialUpdates = new AtomicInteger();
+		final Semaphore renders = new Semaphore(0);
+		MeshUpdateHandler handler = new MeshUpdateHandler();
+		MeshComponent mesh = new MeshComponent();
+
+		// Record the updates and render requests instead of changing a scene.
+		MeshAppState app = new MeshAppState() {
+			@Override
+			protected void updateMesh(MeshComponent mesh) {
+				fullUpdates.incrementAndGet();
+			}
+
+			@Override
+			protected void updateMesh(MeshComponent mesh,
+					MeshChangeLog changes) {
+				partialUpdates.incrementAndGet();
+			}
+
+			@Override
+			public void requestRender() {
+				renders.release();
+			}
+		};
+
+		// The first frame after the mesh is set compares the whole mesh and is
+		// rendered.
+		handler.start(app);
+		handler.setMesh(mesh);
+		assertTrue(handler.processUpdates());
+		assertEquals(1, fullUpdates.get());
+		assertTrue(renders.tryAcquire());
+		renders.drainPermits();
+
+		// A frame without changes does not request a render.
+		assertFalse(handler.processUpdates());
+		assertEquals(0, renders.availablePermits());
+
+		// Change the mesh without any input. The notification arrives on
+		// another thread and must wake the view.
+		mesh.addPolygon(createPolygon());
+		assertTrue(renders.tryAcquire(5, TimeUnit.SECONDS));
+		renders.drainPermits();
+
+		// The next frame applies the change and renders it.
+		assertTrue(handler.processUpdates());
+		assertEquals(1, partialUpdates.get());
+		assertEquals(1, renders.availablePermits());
+
+		// A stopped handler neither applies changes nor requests renders.
+		handler.stop();
+		renders.drainPermits();
+		assertFalse(handler.processUpdates());
+		assertEquals(0, renders.availablePermits());
+
+		return;
+	}
+
+	/**
+	 * Checks that two handlers listening to the same mesh are each given every
+	 * change.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void checkMultipleViews() throws InterruptedException {
+
+		// Local Declarations
+		final AtomicInteger addedPolygons = new AtomicInteger();
+		final Semaphore renders = new Semaphore(0);
+		MeshComponent mesh = new MeshComponent();
+		MeshUpdateHandler[] handlers = new MeshUpdateHandler[2];
+
+		// Set up two handlers whose apps count the added polygons.
+		for (int i = 0; i < handlers.length; i++) {
+			MeshAppState app = new MeshAppState() {
+				@Override
+				protected void updateMesh(MeshComponent mesh) {
+					// Nothing to do.
+				}
+
+				@Override
+				protected void updateMesh(MeshComponent mesh,
+						MeshChangeLog changes) {
+					addedPolygons.addAndGet(changes.getAddedPolygons().size());
+				}
+
+				@Override
+				public void requestRender() {
+					renders.release();
+				}
+			};
+			handlers[i] = new MeshUpdateHandler();
+			handlers[i].start(app);
+			handlers[i].setMesh(mesh);
+			assertTrue(handlers[i].processUpdates());
+		}
+		renders.drainPermits();
+
+		// Add a polygon and wait for both views to be notified.
+		mesh.addPolygon(createPolygon());
+		assertTrue(renders.tryAcquire(2, 5, TimeUnit.SECONDS));
+
+		// Both views should apply the new polygon.
+		for (MeshUpdateHandler handler : handlers) {
+			assertTrue(handler.processUpdates());
+			handler.stop();
+		}
+		assertEquals(2, addedPolygons.get());
+
+		return;
+	}
+
+	/**
+	 * Creates a triangle with new vertices and edges.
+	 *
+	 * @return A new Polygon.
+	 */
+	private Polygon createPolygon() {
+
+		// Local Declarations
+		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+		ArrayList<Edge> edges = new ArrayList<Edge>();
+
+		vertices.add(new Vertex(0f, 0f, 0f));
+		vertices.add(new Vertex(1f, 0f, 0f));
+		vertices.add(new Vertex(0f, 1f, 0f));
+		for (int i = 0; i < 3; i++) {
+			vertices.get(i).setId(i + 1);
+		}
+		for (int i = 0; i < 3; i++) {
+			edges.add(new Edge(vertices.get(i), vertices.get((i + 1) % 3)));
+			edges.get(i).setId(i + 1);
+		}
+
+		Polygon polygon = new Polygon(edges, vertices);
+		polygon.setId(1);
+
+		return polygon;
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.client.widgets.reactoreditor.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.ice.analysistool.IDataProvider;
+import org.eclipse.ice.client.widgets.reactoreditor.ColorScale;
+import org.eclipse.ice.client.widgets.reactoreditor.ColorScalePalette;
+import org.eclipse.ice.client.widgets.reactoreditor.FeatureDataTable;
+import org.eclipse.ice.reactor.LWRData;
+import org.eclipse.ice.reactor.LWRDataProvider;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Test;
+
+/**
+ * Tests the {@link FeatureDataTable} and the lookup tables of
+ * {@link ColorScale}, which are used to draw state point data for large grids.
+ * 
+ * @author Jordan Deyton
+ * 
+ */
+public class FeatureDataTableTester {
+
+	/**
+	 * Creates a data provider with values for a feature at time 0.
+	 * 
+	 * @param feature
+	 *            The feature.
+	 * @param values
+	 *            The value for each axial level.
+	 * @return The new data provider.
+	 */
+	private IDataProvider createDataProvider(String feature, double... values) {
+		LWRDataProvider dataProvider = new LWRDataProvider();
+		for (double value : values) {
+			LWRData data = new LWRData(feature);
+			data.setValue(value);
+			dataProvider.addData(data, 0.0);
+		}
+		return dataProvider;
+	}
+
+	/**
+	 * Checks that values, missing values and extrema are read correctly.
+	 */
+	@Test
+	public void checkValues() {
+
+		// Create three locations: one with two levels, one with three levels,
+		// and one without a provider.
+		List<IDataProvider> dataProviders = new ArrayList<IDataProvider>();
+		dataProviders.add(createDataProvider("power", 2.0, 4.0));
+		dataProviders.add(createDataProvider("power", 1.0, 5.0, 3.0));
+		dataProviders.add(null);
+
+		FeatureDataTable table = new FeatureDataTable(dataProviders, "power");
+		assertEquals("power", table.getFeature());
+		assertEquals(3, table.getSize());
+		assertEquals(3, table.getLevelCount());
+
+		// Check the values, including the missing ones.
+		assertEquals(4.0, table.getValue(0, 1), 0.0);
+		assertEquals(3.0, table.getValue(1, 2), 0.0);
+		assertTrue(Double.isNaN(table.getValue(0, 2)));
+		assertTrue(Double.isNaN(table.getValue(2, 0)));
+		assertTrue(Double.isNaN(table.getValue(3, 0)));
+		assertTrue(Double.isNaN(table.getValue(0, -1)));
+
+		// Check copying a level into an existing array.
+		double[] values = new double[3];
+		assertSame(values, table.getValues(1, values));
+		assertEquals(4.0, values[0], 0.0);
+		assertEquals(5.0, values[1], 0.0);
+		assertTrue(Double.isNaN(values[2]));
+
+		// Check the extrema for each location.
+		assertEquals(2.0, table.getMinimum(0), 0.0);
+		assertEquals(4.0, table.getMaximum(0), 0.0);
+		assertEquals(1.0, table.getMinimum(1), 0.0);
+		assertEquals(5.0, table.getMaximum(1), 0.0);
+		assertTrue(Double.isNaN(table.getMinimum(2)));
+
+		// Check the extrema for a level and for all levels. Missing values
+		// should be ignored.
+		double[] extrema = table.getExtrema(2);
+		assertEquals(3.0, extrema[0], 0.0);
+		assertEquals(3.0, extrema[1], 0.0);
+		extrema = table.getExtrema(-1);
+		assertEquals(1.0, extrema[0], 0.0);
+		assertEquals(5.0, extrema[1], 0.0);
+		assertNull(table.getExtrema(3));
+
+		// A feature that is not present has no levels or extrema.
+		table = new FeatureDataTable(dataProviders, "flux");
+		assertEquals(0, table.getLevelCount());
+		assertNull(table.getExtrema(-1));
+		table = new FeatureDataTable(dataProviders, null);
+		assertEquals(0, table.getLevelCount());
+
+		return;
+	}
+
+	/**
+	 * Checks that the lookup table of a ColorScale matches the computed colors.
+	 */
+	@Test
+	public void checkColorScaleTable() {
+
+		ColorScale colorScale = ColorScalePalette.Rainbow1
+				.getSharedColorScale();
+		assertSame(colorScale,
+				ColorScalePalette.Rainbow1.getSharedColorScale());
+
+		// The table should be computed once and shared.
+		RGB[] table = colorScale.getRGBTable();
+		assertEquals(ColorScale.TABLE_SIZE, table.length);
+		assertSame(table, colorScale.getRGBTable());
+
+		// The ends and middle of the table match the computed colors.
+		assertEquals(colorScale.getRGB(0.0), table[0]);
+		assertEquals(colorScale.getRGB(1.0), table[ColorScale.TABLE_SIZE - 1]);
+		int middle = (ColorScale.TABLE_SIZE - 1) / 2;
+		assertEquals(colorScale.getRGB((double) middle
+				/ (ColorScale.TABLE_SIZE - 1)), table[middle]);
+
+		// Values are clamped to the table.
+		assertEquals(0, colorScale.getTableIndex(-1.0));
+		assertEquals(0, colorScale.getTableIndex(Double.NaN));
+		assertEquals(ColorScale.TABLE_SIZE - 1, colorScale.getTableIndex(2.0));
+		assertEquals(middle, colorScale.getTableIndex((double) middle
+				/ (ColorScale.TABLE_SIZE - 1)));
+
+		return;
+	}
+}
@@ -15,10 +15,16 @@ package org.eclipse.ice.client.widgets.reactoreditor.test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.ice.client.widgets.reactoreditor.DataSource;
 import org.eclipse.ice.client.widgets.reactoreditor.IStateListener;
@@ -365,6 +371,173 @@ public class StateBrokerTester {
 
 	}
 
+	/**
+	 * Checks that notifications are delivered through the broker's
+	 * notification executor and that repeated changes to a key are coalesced.
+	 */
+	@Test
+	public void checkAsyncNotification() {
+
+		// Use an executor that queues its tasks until they are run manually.
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		};
+		broker.setNotificationExecutor(executor);
+		assertSame(executor, broker.getNotificationExecutor());
+
+		TestListener listener = new TestListener("key", broker);
+		listener.registerKeys();
+		TestListener otherListener = new TestListener("otherKey", broker);
+		otherListener.registerKeys();
+
+		// Change the values several times. The values are updated immediately,
+		// but the listeners are not notified yet.
+		broker.putValue("key", 1);
+		broker.putValue("key", 2);
+		broker.putValue("otherKey", "a");
+		broker.putValue("key", 3);
+		assertEquals(3, broker.getValue("key"));
+		assertEquals(0, listener.getUpdateCount());
+		assertEquals(0, otherListener.getUpdateCount());
+
+		// Only one task should have been scheduled. It should only deliver the
+		// latest value for each key.
+		assertEquals(1, tasks.size());
+		tasks.remove(0).run();
+		assertEquals(1, listener.getUpdateCount());
+		assertEquals(3, listener.getValue());
+		assertEquals(1, otherListener.getUpdateCount());
+		assertEquals("a", otherListener.getValue());
+
+		// Later changes schedule a new task.
+		broker.putValue("key", 4);
+		assertEquals(1, tasks.size());
+
+		// Removing the executor delivers pending notifications immediately.
+		broker.setNotificationExecutor(null);
+		assertEquals(2, listener.getUpdateCount());
+		assertEquals(4, listener.getValue());
+		tasks.remove(0).run();
+		assertEquals(2, listener.getUpdateCount());
+
+		return;
+	}
+
+	/**
+	 * Checks that values computed in the background are put into the broker
+	 * and that superseded computations are discarded.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void checkComputation() throws Exception {
+
+		// Without a notification executor, values are computed immediately.
+		TestListener listener = new TestListener("key", broker);
+		listener.registerKeys();
+		Future<?> future = broker.computeValue("key", new Callable<Object>() {
+			@Override
+			public Object call() {
+				return "computed";
+			}
+		});
+		assertTrue(future.isDone());
+		assertEquals("computed", broker.getValue("key"));
+		assertEquals(1, listener.getUpdateCount());
+
+		// Use an executor that notifies listeners on the computation thread.
+		broker.setNotificationExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		});
+
+		// Start a computation that blocks until it is released.
+		final CountDownLatch release = new CountDownLatch(1);
+		Future<?> slowFuture = broker.computeValue("key",
+				new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						release.await();
+						return "slow";
+					}
+				});
+		// Start a faster computation for the same key. It should cancel the
+		// first.
+		future = broker.computeValue("key", new Callable<Object>() {
+			@Override
+			public Object call() {
+				return "fast";
+			}
+		});
+		future.get(5, TimeUnit.SECONDS);
+		release.countDown();
+		assertTrue(slowFuture.isCancelled());
+		assertEquals("fast", broker.getValue("key"));
+		assertEquals(2, listener.getUpdateCount());
+
+		// A value put into the broker supersedes a running computation.
+		final CountDownLatch release2 = new CountDownLatch(1);
+		future = broker.computeValue("key", new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				release2.await();
+				return "late";
+			}
+		});
+		broker.putValue("key", "put");
+		release2.countDown();
+		assertTrue(future.isCancelled());
+		Thread.sleep(50);
+		assertEquals("put", broker.getValue("key"));
+		assertEquals(3, listener.getUpdateCount());
+
+		// Resetting the source also cancels computations.
+		final CountDownLatch release3 = new CountDownLatch(1);
+		future = broker.computeValue("key", new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				release3.await();
+				return "reset";
+			}
+		});
+		broker.resetSource("key");
+		release3.countDown();
+		assertTrue(future.isCancelled());
+		assertNull(broker.getValue("key"));
+
+		// Computations that finish while they are moved to another broker
+		// must put their results into the new broker.
+		for (int i = 0; i < 200; i++) {
+			StateBroker oldBroker = new StateBroker();
+			StateBroker newBroker = new StateBroker();
+			oldBroker.setNotificationExecutor(broker
+					.getNotificationExecutor());
+			final String value = "moved" + i;
+			future = oldBroker.computeValue("key", new Callable<Object>() {
+				@Override
+				public Object call() {
+					return value;
+				}
+			});
+			newBroker.copyValues(oldBroker);
+			future.get(5, TimeUnit.SECONDS);
+			// The result goes to exactly one broker. If it was put into the
+			// old one before the copy, the copy brings it over.
+			for (int j = 0; j < 100 && newBroker.getValue("key") == null; j++) {
+				Thread.sleep(10);
+			}
+			assertEquals(value, newBroker.getValue("key"));
+		}
+
+		return;
+	}
+
 	/**
 	 * I use this basic test class to test the broker's ability to store and
 	 * compare class instances. The contents of the class don't really matter.
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.ice.client.widgets.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -19,8 +20,11 @@ import static org.junit.Assert.assertTrue;
 import org.eclipse.ice.client.widgets.ICEFormEditor;
 import org.eclipse.ice.client.widgets.ICEMatrixComponentSectionPart;
 import org.eclipse.ice.datastructures.form.MatrixComponent;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
 import org.eclipse.ui.forms.ManagedForm;
 import org.eclipse.ui.forms.widgets.FormToolkit;
 import org.eclipse.ui.forms.widgets.Section;
@@ -29,8 +33,8 @@ import org.junit.Test;
 /**
  * <p>
  * This class is responsible for testing the ICEMatrixComponentSectionPart
- * class. It only tests the accessor operations for the MatrixComponent and the
- * update routine from IComponentListener.
+ * class. It tests the accessor operations for the MatrixComponent, the update
+ * routine from IComponentListener and the lazy creation of the table's rows.
  * </p>
  *
  * @author Jay Jay Billings
@@ -108,4 +112,106 @@ public class ICEMatrixComponentSectionPartTester {
 
 		return;
 	}
+	/**
+	 * <p>
+	 * This operation checks that the rows of the table are only created when
+	 * they are shown and that a change to the MatrixComponent only updates the
+	 * rows that changed.
+	 * </p>
+	 *
+	 */
+	@Test
+	public void checkLazyRows() {
+
+		// Local Declarations
+		final MatrixComponent matrixComponent = new MatrixComponent();
+		final Table[] table = new Table[1];
+		final int nRows = 1000;
+		final Display display;
+
+		// Set up a 1000x2 matrix. The first column holds the row index.
+		matrixComponent.addColumn();
+		for (int i = 1; i < nRows; i++) {
+			matrixComponent.addRow();
+		}
+		for (int i = 0; i < nRows; i++) {
+			matrixComponent.setElementValue(i, 0, (double) i);
+		}
+		matrixComponent.setName("Matrix 2");
+		matrixComponent.setId(2);
+		matrixComponent.setDescription("Description");
+
+		// Setup the display, form toolkit and test form, then render the
+		// matrix.
+		display = Display.getDefault();
+		display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				FormToolkit formTk = new FormToolkit(display);
+				ManagedForm eclipseTestForm = new ManagedForm(
+						new Shell(display));
+				ICEMatrixComponentSectionPart sectionPart = new ICEMatrixComponentSectionPart(
+						formTk.createSection(eclipseTestForm.getForm()
+								.getBody(), Section.TITLE_BAR
+								| Section.DESCRIPTION | Section.TWISTIE
+								| Section.EXPANDED), new ICEFormEditor(),
+						eclipseTestForm);
+				sectionPart.setMatrixComponent(matrixComponent);
+				sectionPart.renderSection();
+				table[0] = findTable((Composite) sectionPart.getSection()
+						.getClient());
+			}
+		});
+		assertNotNull(table[0]);
+
+		display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				// Every row has an item, but a row that has not been shown
+				// has not been created.
+				assertEquals(nRows, table[0].getItemCount());
+				assertNull(table[0].getItem(nRows - 1).getData());
+				assertNull(table[0].getItem(nRows / 2).getData());
+
+				// Showing the row creates it.
+				assertEquals("999.0", table[0].getItem(nRows - 1).getText(0));
+				assertNotNull(table[0].getItem(nRows - 1).getData());
+			}
+		});
+
+		// Change the shown row and add a row. The update is posted to the UI
+		// thread before the next check.
+		matrixComponent.setElementValue(nRows - 1, 0, 5.0);
+		matrixComponent.addRow();
+
+		display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				// The shown row is updated, the new row is added and the rows
+				// that have not been shown are still not created.
+				assertEquals(nRows + 1, table[0].getItemCount());
+				assertEquals("5.0", table[0].getItem(nRows - 1).getText(0));
+				assertNull(table[0].getItem(nRows / 2).getData());
+				assertEquals("0.0", table[0].getItem(nRows).getText(0));
+			}
+		});
+
+		return;
+	}
+
+	/**
+	 * Finds the Table in the Composite of the SectionPart.
+	 *
+	 * @param composite
+	 *            The Composite of the SectionPart.
+	 * @return The Table, or null if it was not found.
+	 */
+	private Table findTable(Composite composite) {
+		for (Control control : composite.getChildren()) {
+			if (control instanceof Table) {
+				return (Table) control;
+			}
+		}
+		return null;
+	}
 }
\ No newline at end of file
@@ -24,8 +24,11 @@ import org.eclipse.ice.client.widgets.ICETableComponentSectionPart;
 import org.eclipse.ice.datastructures.form.AllowedValueType;
 import org.eclipse.ice.datastructures.form.Entry;
 import org.eclipse.ice.datastructures.form.TableComponent;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
 import org.eclipse.ui.forms.ManagedForm;
 import org.eclipse.ui.forms.widgets.FormToolkit;
 import org.eclipse.ui.forms.widgets.Section;
@@ -257,4 +260,105 @@ public class ICETableComponentSectionPartTester {
 		assertEquals(3, tempTableC.numberOfRows());
 
 	}
+
+	/**
+	 * This operation checks that the rows of the table are only created when
+	 * they are shown and that deleting a row only re-creates the shown rows
+	 * that moved.
+	 */
+	@Test
+	public void checkLazyRows() {
+
+		// Local Declarations
+		final TableComponent tableComponent = new TableComponent();
+		final ArrayList<Entry> template = new ArrayList<Entry>();
+		final Table[] table = new Table[1];
+		final int nRows = 500;
+		final Display display;
+
+		// Set up a table with one column. Each row's value is its index.
+		Entry column = new Entry();
+		column.setName("Column1");
+		column.setId(1);
+		column.setValue("0");
+		template.add(column);
+		tableComponent.setName("Table 3");
+		tableComponent.setId(3);
+		tableComponent.setRowTemplate(template);
+		for (int i = 0; i < nRows; i++) {
+			tableComponent.addRow();
+			tableComponent.getRow(i).get(0).setValue(String.valueOf(i));
+		}
+
+		// Setup the display, form toolkit and test form, then render the
+		// table.
+		display = Display.getDefault();
+		display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				FormToolkit formTk = new FormToolkit(display);
+				ManagedForm eclipseTestForm = new ManagedForm(
+						new Shell(display));
+				ICETableComponentSectionPart sectionPart = new ICETableComponentSectionPart(
+						formTk.createSection(eclipseTestForm.getForm()
+								.getBody(), Section.TITLE_BAR
+								| Section.DESCRIPTION | Section.TWISTIE
+								| Section.EXPANDED), new ICEFormEditor(),
+						eclipseTestForm);
+				sectionPart.setTableComponent(tableComponent);
+				sectionPart.renderSection();
+				table[0] = findTable((Composite) sectionPart.getSection()
+						.getClient());
+			}
+		});
+		assertNotNull(table[0]);
+
+		display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				// Every row has an item, but a row that has not been shown
+				// has not been created.
+				assertEquals(nRows, table[0].getItemCount());
+				assertNull(table[0].getItem(nRows - 1).getData());
+				assertNull(table[0].getItem(nRows / 2).getData());
+
+				// Showing the row creates it.
+				assertEquals("1", table[0].getItem(1).getText(0));
+				assertNotNull(table[0].getItem(1).getData());
+			}
+		});
+
+		// Delete the first row. The update is posted to the UI thread before
+		// the next check.
+		tableComponent.deleteRow(0);
+
+		display.syncExec(new Runnable() {
+			@Override
+			public void run() {
+				// The shown row now holds the next row's Entries, and the rows
+				// that have not been shown are still not created.
+				assertEquals(nRows - 1, table[0].getItemCount());
+				assertEquals("2", table[0].getItem(1).getText(0));
+				assertNull(table[0].getItem(nRows / 2).getData());
+			}
+		});
+
+		return;
+	}
+
+	/**
+	 * Finds the Table in the Composite of the SectionPart.
+	 *
+	 * @param composite
+	 *            The Composite of the SectionPart.
+	 * @return The Table, or null if it was not found.
+	 */
+	private Table findTable(Composite composite) {
+		for (Control control : composite.getChildren()) {
+			if (control instanceof Table) {
+				return (Table) control;
+			}
+		}
+		return null;
+	}
 }
\ No newline at end of file
@@ -15,7 +15,9 @@ package org.eclipse.ice.datastructures.test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -31,6 +33,7 @@ import org.eclipse.ice.datastructures.ICEObject.ICEJAXBHandler;
 import org.eclipse.ice.datastructures.form.AllowedValueType;
 import org.eclipse.ice.datastructures.form.BasicEntryContentProvider;
 import org.eclipse.ice.datastructures.form.Entry;
+import org.eclipse.ice.datastructures.form.EntryValidator;
 import org.eclipse.ice.datastructures.form.IEntryContentProvider;
 import org.junit.Test;
 
@@ -397,6 +400,81 @@ public class EntryTester {
 		return;
 	}
 
+	/**
+	 * This operation checks that the Entry's value can be read as a number and
+	 * that the validator from the content provider follows changes to the
+	 * allowed values.
+	 */
+	@Test
+	public void checkTypedValue() {
+
+		// Local Declarations
+		IEntryContentProvider contentProvider = new BasicEntryContentProvider();
+		ArrayList<String> allowedValues = new ArrayList<String>(2);
+		EntryValidator validator;
+
+		// Create a Continuous Entry.
+		allowedValues.add("0");
+		allowedValues.add("10");
+		contentProvider.setAllowedValues(allowedValues);
+		contentProvider.setAllowedValueType(AllowedValueType.Continuous);
+		entry = new Entry(contentProvider);
+
+		// The validator is only compiled once.
+		validator = contentProvider.getValidator();
+		assertSame(validator, contentProvider.getValidator());
+		assertTrue(validator.hasBounds());
+		assertEquals(10.0, validator.getUpperBound(), 0.0);
+
+		// Check the typed getters.
+		assertTrue(entry.setValue("2.5"));
+		assertEquals(2.5, entry.getValueAsDouble(), 0.0);
+		assertEquals(2, entry.getValueAsInt());
+		assertTrue(entry.isNumericValue());
+
+		// Setting the bounds again after changing them in place compiles a
+		// new validator.
+		assertFalse(entry.setValue("12"));
+		allowedValues.set(1, "20");
+		contentProvider.setAllowedValues(allowedValues);
+		assertNotSame(validator, contentProvider.getValidator());
+		assertTrue(entry.setValue("12"));
+		assertEquals(12.0, entry.getValueAsDouble(), 0.0);
+
+		// Discrete values that are not numbers are reported as NaN.
+		allowedValues.clear();
+		allowedValues.add("red");
+		allowedValues.add("blue");
+		contentProvider.setAllowedValueType(AllowedValueType.Discrete);
+		assertTrue(entry.setValue("blue"));
+		assertFalse(entry.setValue("green"));
+		assertTrue(Double.isNaN(entry.getValueAsDouble()));
+		assertFalse(entry.isNumericValue());
+
+		// Providers that override the getters are validated against the
+		// values they provide.
+		final ArrayList<String> providedValues = new ArrayList<String>(1);
+		providedValues.add("green");
+		contentProvider = new BasicEntryContentProvider() {
+			@Override
+			public ArrayList<String> getAllowedValues() {
+				return providedValues;
+			}
+
+			@Override
+			public AllowedValueType getAllowedValueType() {
+				return AllowedValueType.Discrete;
+			}
+		};
+		validator = contentProvider.getValidator();
+		assertSame(validator, contentProvider.getValidator());
+		assertEquals(AllowedValueType.Discrete, validator.getType());
+		assertTrue(validator.accepts("green"));
+		assertFalse(validator.accepts("blue"));
+
+		return;
+	}
+
 	/**
 	 * This operation checks the changed state of the Entry by first setting the
 	 * value of the Entry and then making sure that isModified() returns true.
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.datastructures.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBException;
+
+import org.eclipse.ice.datastructures.ICEObject.ICEList;
+import org.eclipse.ice.datastructures.ICEObject.JAXBContextRegistry;
+import org.eclipse.ice.datastructures.ICEObject.PooledJAXBContext;
+import org.eclipse.ice.datastructures.jaxbclassprovider.IJAXBClassProvider;
+import org.junit.Test;
+
+/**
+ * This class tests the {@link JAXBContextRegistry} and the
+ * {@link PooledJAXBContext}s that it shares.
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class JAXBContextRegistryTester {
+
+	/**
+	 * Checks that contexts are shared for the same sets of classes.
+	 */
+	@Test
+	public void checkSharing() {
+
+		// The order and duplication of the classes does not matter.
+		PooledJAXBContext context = JAXBContextRegistry.getContext(Arrays
+				.<Class> asList(SimpleJAXBTestClass.class, ICEList.class));
+		PooledJAXBContext context2 = JAXBContextRegistry.getContext(Arrays
+				.<Class> asList(ICEList.class, SimpleJAXBTestClass.class,
+						ICEList.class));
+		assertSame(context, context2);
+		assertEquals(2, context.getClasses().size());
+
+		// Classes from providers are combined with the other classes.
+		List<IJAXBClassProvider> providers = new ArrayList<IJAXBClassProvider>();
+		providers.add(new IJAXBClassProvider() {
+			@Override
+			public List<Class> getClasses() {
+				return Arrays.<Class> asList(ICEList.class);
+			}
+
+			@Override
+			public String getProviderName() {
+				return "Test Provider";
+			}
+		});
+		context2 = JAXBContextRegistry.getContext(providers,
+				Arrays.<Class> asList(SimpleJAXBTestClass.class));
+		assertSame(context, context2);
+
+		// A different set of classes has a different context.
+		context2 = JAXBContextRegistry.getContext(Arrays
+				.<Class> asList(SimpleJAXBTestClass.class));
+		assertNotSame(context, context2);
+
+		return;
+	}
+
+	/**
+	 * Checks that objects can be repeatedly written and read with pooled
+	 * (un)marshallers and that the operations are recorded.
+	 *
+	 * @throws JAXBException
+	 */
+	@Test
+	public void checkMarshalling() throws JAXBException {
+
+		// Local Declarations
+		PooledJAXBContext context = JAXBContextRegistry.getContext(Arrays
+				.<Class> asList(SimpleJAXBTestClass.class));
+		long creationCount, marshalCount, unmarshalCount;
+
+		// Only the first operation creates the JAXBContext. The context may
+		// be shared with other tests, so only changes are checked below.
+		context.getContext();
+		creationCount = JAXBContextRegistry.getCreationCount();
+		marshalCount = context.getMarshalCount();
+		unmarshalCount = context.getUnmarshalCount();
+		assertSame(context.getContext(), context.getContext());
+
+		for (int i = 0; i < 3; i++) {
+			// Write the object.
+			SimpleJAXBTestClass object = new SimpleJAXBTestClass();
+			object.setInt(i);
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			context.marshal(object, outputStream);
+
+			// Read it back with and without streaming.
+			byte[] bytes = outputStream.toByteArray();
+			SimpleJAXBTestClass readObject = (SimpleJAXBTestClass) context
+					.unmarshal(new ByteArrayInputStream(bytes));
+			assertEquals(i, readObject.getInt());
+			readObject = (SimpleJAXBTestClass) context.unmarshal(
+					new ByteArrayInputStream(bytes), true);
+			assertEquals(i, readObject.getInt());
+		}
+
+		// Check the statistics.
+		assertEquals(creationCount, JAXBContextRegistry.getCreationCount());
+		assertEquals(marshalCount + 3, context.getMarshalCount());
+		assertEquals(unmarshalCount + 6, context.getUnmarshalCount());
+		assertTrue(context.getMarshalTime() >= 0);
+
+		return;
+	}
+
+	/**
+	 * Checks that a failed read does not affect later reads, since the
+	 * Unmarshaller that failed is not returned to its pool.
+	 *
+	 * @throws JAXBException
+	 */
+	@Test
+	public void checkFailedUnmarshalling() throws JAXBException {
+
+		// Local Declarations
+		PooledJAXBContext context = JAXBContextRegistry.getContext(Arrays
+				.<Class> asList(SimpleJAXBTestClass.class));
+		byte[] badBytes = "<simpleJAXBTestClass><unclosed>".getBytes();
+
+		// Write a valid object.
+		SimpleJAXBTestClass object = new SimpleJAXBTestClass();
+		object.setInt(7);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		context.marshal(object, outputStream);
+		byte[] bytes = outputStream.toByteArray();
+
+		for (int i = 0; i < PooledJAXBContext.MAX_POOL_SIZE + 1; i++) {
+			// Reading invalid XML fails with and without streaming.
+			for (boolean streaming : new boolean[] { false, true }) {
+				try {
+					context.unmarshal(new ByteArrayInputStream(badBytes),
+							streaming);
+					fail();
+				} catch (JAXBException e) {
+					// Expected
+				}
+			}
+			// The next read succeeds.
+			SimpleJAXBTestClass readObject = (SimpleJAXBTestClass) context
+					.unmarshal(new ByteArrayInputStream(bytes));
+			assertEquals(7, readObject.getInt());
+		}
+
+		return;
+	}
+}
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.ice.datastructures.test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -382,6 +383,67 @@ public class MatrixComponentTester {
 		// Check contents
 		assertTrue(loadMatrix.equals(matrixComponent));
 
+		// The elements are written as a single list, not one tag per value.
+		assertTrue(xmlFile2.contains("<elementList>"));
+		assertFalse(xmlFile2.contains("<elements>"));
+
+	}
+
+	/**
+	 * This operation checks that a MatrixComponent saved with one elements tag
+	 * per value, as it was before its elements were written as a single list,
+	 * can still be loaded.
+	 * 
+	 * @throws IOException
+	 * @throws JAXBException
+	 * @throws NullPointerException
+	 */
+	@Test
+	public void checkLoadingLegacyXML() throws NullPointerException,
+			JAXBException, IOException {
+		// Local declarations
+		ICEJAXBHandler xmlHandler = new ICEJAXBHandler();
+		ArrayList<Class> classList = new ArrayList<Class>();
+		classList.add(MatrixComponent.class);
+		MatrixComponent loadMatrix;
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" "
+				+ "standalone=\"yes\"?>\n"
+				+ "<MatrixComponent isSquare=\"false\" nRows=\"2\" "
+				+ "nCols=\"3\" valueType=\"Undefined\" id=\"4\" "
+				+ "name=\"Old\" description=\"A baseline matrix\">\n"
+				+ "    <elements>1.0</elements>\n"
+				+ "    <elements>2.0</elements>\n"
+				+ "    <elements>3.0</elements>\n"
+				+ "    <elements>4.0</elements>\n"
+				+ "    <elements>5.0</elements>\n"
+				+ "    <elements>6.0</elements>\n"
+				+ "</MatrixComponent>\n";
+
+		// Create the same matrix with the current operations
+		matrixComponent = new MatrixComponent(false);
+		matrixComponent.addRow();
+		matrixComponent.addColumn();
+		matrixComponent.addColumn();
+		assertTrue(matrixComponent.setAll(new double[] { 1.0, 2.0, 3.0, 4.0,
+				5.0, 6.0 }));
+		matrixComponent.setId(4);
+		matrixComponent.setName("Old");
+		matrixComponent.setDescription("A baseline matrix");
+
+		// Load the baseline XML and check its contents
+		loadMatrix = (MatrixComponent) xmlHandler.read(classList,
+				new ByteArrayInputStream(xml.getBytes("UTF-8")));
+		assertTrue(loadMatrix.equals(matrixComponent));
+		assertEquals(6.0, loadMatrix.getElementValue(1, 2), 0.0);
+
+		// Writing it again uses the single list
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		xmlHandler.write(loadMatrix, classList, outputStream);
+		String newXML = new String(outputStream.toByteArray());
+		assertTrue(newXML.contains("<elementList>"));
+		assertFalse(newXML.contains("<elements>"));
+
+		return;
 	}
 
 	/**
@@ -2113,4 +2175,84 @@ public class MatrixComponentTester {
 		assertEquals(10.0, matrixComponent.getAllowedValues().get(3), 0.0);
 
 	}
+
+	/**
+	 * <p>
+	 * An operation that checks the bulk operations setRow, setColumn and
+	 * setAll along with getColumn and toArray.
+	 * </p>
+	 * 
+	 */
+	@Test
+	public void checkBulkOperations() {
+
+		// Local Declarations
+		ArrayList<Double> values = new ArrayList<Double>();
+		testComponentListener = new TestComponentListener();
+
+		// Create a 2x3 Continuous matrix.
+		values.add(0.0);
+		values.add(10.0);
+		matrixComponent = new MatrixComponent(false,
+				AllowedValueType.Continuous);
+		matrixComponent.setAllowedValues(values);
+		matrixComponent.addRow();
+		matrixComponent.addColumn();
+		matrixComponent.addColumn();
+		matrixComponent.register(testComponentListener);
+
+		// Set all of the values.
+		assertTrue(matrixComponent.setAll(new double[] { 1.0, 2.0, 3.0, 4.0,
+				5.0, 6.0 }));
+		assertTrue(testComponentListener.wasNotified());
+		testComponentListener.reset();
+		assertEquals(2.0, matrixComponent.getElementValue(0, 1), 0.0);
+		assertEquals(4.0, matrixComponent.getElementValue(1, 0), 0.0);
+
+		// Rows and columns are read in the right order.
+		assertEquals(3.0, matrixComponent.getRow(0).get(2), 0.0);
+		assertEquals(2, matrixComponent.getColumn(2).size());
+		assertEquals(3.0, matrixComponent.getColumn(2).get(0), 0.0);
+		assertEquals(6.0, matrixComponent.getColumn(2).get(1), 0.0);
+
+		// Set a row and a column.
+		assertTrue(matrixComponent.setRow(1, new double[] { 7.0, 8.0, 9.0 }));
+		assertTrue(testComponentListener.wasNotified());
+		testComponentListener.reset();
+		assertTrue(matrixComponent.setColumn(0, new double[] { 0.5, 0.25 }));
+		assertTrue(testComponentListener.wasNotified());
+		assertArrayEquals(new double[] { 0.5, 2.0, 3.0, 0.25, 8.0, 9.0 },
+				matrixComponent.toArray(), 0.0);
+
+		// Nothing is set if a single value is invalid or the sizes are wrong.
+		assertFalse(matrixComponent.setRow(0, new double[] { 1.0, 11.0, 1.0 }));
+		assertFalse(matrixComponent.setColumn(1, new double[] { -1.0, 1.0 }));
+		assertFalse(matrixComponent.setAll(new double[] { 1.0 }));
+		assertFalse(matrixComponent.setRow(2, new double[] { 1.0, 1.0, 1.0 }));
+		assertFalse(matrixComponent.setColumn(0, null));
+		assertArrayEquals(new double[] { 0.5, 2.0, 3.0, 0.25, 8.0, 9.0 },
+				matrixComponent.toArray(), 0.0);
+
+		// Adding and removing columns keeps the rows intact.
+		matrixComponent.addColumn();
+		assertArrayEquals(new double[] { 0.5, 2.0, 3.0, 0.0, 0.25, 8.0, 9.0,
+				0.0 }, matrixComponent.toArray(), 0.0);
+		matrixComponent.deleteColumn();
+		matrixComponent.deleteColumn();
+		assertArrayEquals(new double[] { 0.5, 2.0, 0.25, 8.0 },
+				matrixComponent.toArray(), 0.0);
+
+		// Discrete matrices only accept the allowed values.
+		values.clear();
+		values.add(0.0);
+		values.add(1.0);
+		matrixComponent = new MatrixComponent(true, AllowedValueType.Discrete);
+		matrixComponent.setAllowedValues(values);
+		matrixComponent.addRow();
+		assertTrue(matrixComponent.setAll(new double[] { 0.0, 1.0, 1.0, 0.0 }));
+		assertFalse(matrixComponent.setRow(0, new double[] { 0.5, 1.0 }));
+		assertEquals(1.0, matrixComponent.getElementValue(0, 1), 0.0);
+
+		return;
+	}
 }
\ No newline at end of file
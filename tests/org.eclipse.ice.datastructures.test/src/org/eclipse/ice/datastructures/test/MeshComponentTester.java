@@ -22,13 +22,18 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.xml.bind.JAXBException;
 
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.datastructures.ICEObject.ICEJAXBHandler;
+import org.eclipse.ice.datastructures.ICEObject.IUpdateable;
+import org.eclipse.ice.datastructures.ICEObject.IUpdateableListener;
 import org.eclipse.ice.datastructures.form.mesh.Edge;
+import org.eclipse.ice.datastructures.form.mesh.MeshChangeLog;
 import org.eclipse.ice.datastructures.form.mesh.MeshComponent;
 import org.eclipse.ice.datastructures.form.mesh.Polygon;
 import org.eclipse.ice.datastructures.form.mesh.Vertex;
@@ -865,4 +870,173 @@ public class MeshComponentTester {
 
 		return;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * <p>
+	 * This operation checks that the MeshComponent records added, removed and
+	 * modified polygons, edges and vertices in a change log for each
+	 * registered listener, coalesces them, and marks the logs as a reset when
+	 * the mesh is copied.
+	 * </p>
+	 * 
+	 */
+	@Test
+	public void checkChangeLog() {
+
+		// Create two triangles that share edge 2 and vertices 2 and 3.
+		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+		vertices.add(new Vertex(0f, 0f, 0f));
+		vertices.add(new Vertex(1f, 0f, 0f));
+		vertices.add(new Vertex(0f, 0f, 1f));
+		for (int i = 0; i < 3; i++) {
+			vertices.get(i).setId(i + 1);
+		}
+		ArrayList<Edge> edges = new ArrayList<Edge>();
+		for (int i = 0; i < 3; i++) {
+			edges.add(new Edge(vertices.get(i), vertices.get((i + 1) % 3)));
+			edges.get(i).setId(i + 1);
+		}
+		Polygon shape = new Polygon(edges, vertices);
+		shape.setId(1);
+
+		vertices.set(0, vertices.get(1));
+		vertices.set(1, vertices.get(2));
+		vertices.set(2, new Vertex(1f, 0f, 1f));
+		vertices.get(2).setId(4);
+		edges.set(0, edges.get(1));
+		for (int i = 1; i < 3; i++) {
+			edges.set(i, new Edge(vertices.get(i), vertices.get((i + 1) % 3)));
+			edges.get(i).setId(i + 3);
+		}
+		Polygon shape2 = new Polygon(edges, vertices);
+		shape2.setId(2);
+
+		MeshComponent mesh = new MeshComponent();
+		MeshChangeLog changes;
+
+		// Create two views that take the changes independently.
+		IUpdateableListener view = new IUpdateableListener() {
+			@Override
+			public void update(IUpdateable component) {
+				// Nothing to do.
+			}
+		};
+		IUpdateableListener otherView = new IUpdateableListener() {
+			@Override
+			public void update(IUpdateable component) {
+				// Nothing to do.
+			}
+		};
+
+		// A listener that is not registered must re-synchronize.
+		assertTrue(mesh.takeChanges(view).isReset());
+
+		// Changes are not recorded while no listener is registered.
+		mesh.addPolygon(shape);
+		mesh.removePolygon(1);
+
+		// A newly registered listener has no changes.
+		mesh.register(view);
+		changes = mesh.takeChanges(view);
+		assertNotNull(changes);
+		assertTrue(changes.isEmpty());
+
+		// Add both polygons. Everything should be in the added sets.
+		mesh.addPolygon(shape);
+		mesh.addPolygon(shape2);
+		changes = mesh.takeChanges(view);
+		assertFalse(changes.isEmpty());
+		assertFalse(changes.isReset());
+		assertEquals(2, changes.getAddedPolygons().size());
+		assertEquals(5, changes.getAddedEdges().size());
+		assertEquals(4, changes.getAddedVertices().size());
+		assertTrue(changes.getRemovedPolygons().isEmpty());
+		assertTrue(changes.getRemovedEdges().isEmpty());
+		assertTrue(changes.getRemovedVertices().isEmpty());
+
+		// The changes should only be reported once.
+		assertTrue(mesh.takeChanges(view).isEmpty());
+
+		// Remove the second polygon. Only its unshared parts are removed. Both
+		// views should see the removal.
+		mesh.register(otherView);
+		mesh.removePolygon(2);
+		for (IUpdateableListener listener : new IUpdateableListener[] { view,
+				otherView }) {
+			changes = mesh.takeChanges(listener);
+			assertEquals(1, changes.getRemovedPolygons().size());
+			assertTrue(changes.getRemovedPolygons().contains(2));
+			assertEquals(2, changes.getRemovedEdges().size());
+			assertTrue(changes.getRemovedEdges().contains(4));
+			assertTrue(changes.getRemovedEdges().contains(5));
+			assertEquals(1, changes.getRemovedVertices().size());
+			assertTrue(changes.getRemovedVertices().contains(4));
+			assertTrue(changes.getAddedPolygons().isEmpty());
+		}
+
+		// Taking the changes for one view does not affect the other.
+		mesh.addPolygon(shape2);
+		assertTrue(mesh.takeChanges(view).getAddedPolygons().contains(2));
+		assertTrue(mesh.takeChanges(otherView).getAddedPolygons().contains(2));
+
+		// Adding and then removing a polygon before the changes are taken
+		// should cancel out.
+		mesh.removePolygon(2);
+		mesh.takeChanges(otherView);
+		mesh.addPolygon(shape2);
+		mesh.removePolygon(2);
+		assertTrue(mesh.takeChanges(otherView).isEmpty());
+
+		// Replacing a polygon should report it as removed and added.
+		mesh.addPolygon(shape2);
+		mesh.takeChanges(view);
+		mesh.removePolygon(2);
+		mesh.addPolygon(shape2);
+		changes = mesh.takeChanges(view);
+		assertTrue(changes.getRemovedPolygons().contains(2));
+		assertTrue(changes.getAddedPolygons().contains(2));
+		assertTrue(changes.getRemovedVertices().contains(4));
+		assertTrue(changes.getAddedVertices().contains(4));
+
+		// Moving a vertex should report it and its edges as modified. The
+		// notifications are sent on another thread, so wait for them.
+		mesh.takeChanges(otherView);
+		mesh.getVertex(4).setLocation(2f, 0f, 1f);
+		Set<Integer> modifiedVertices = new HashSet<Integer>();
+		Set<Integer> modifiedEdges = new HashSet<Integer>();
+		for (int i = 0; i < 100 && modifiedEdges.size() < 2; i++) {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+			changes = mesh.takeChanges(view);
+			assertTrue(changes.getAddedVertices().isEmpty());
+			modifiedVertices.addAll(changes.getModifiedVertices());
+			modifiedEdges.addAll(changes.getModifiedEdges());
+		}
+		assertEquals(1, modifiedVertices.size());
+		assertTrue(modifiedVertices.contains(4));
+		assertEquals(2, modifiedEdges.size());
+		assertTrue(modifiedEdges.contains(4));
+		assertTrue(modifiedEdges.contains(5));
+		assertTrue(mesh.takeChanges(otherView).getModifiedVertices()
+				.contains(4));
+
+		// Unregistering a listener drops its log.
+		mesh.unregister(otherView);
+		assertTrue(mesh.takeChanges(otherView).isReset());
+
+		// Copying the mesh should mark the log as a reset.
+		MeshComponent copy = new MeshComponent();
+		copy.register(view);
+		copy.copy(mesh);
+		changes = copy.takeChanges(view);
+		assertTrue(changes.isReset());
+		assertFalse(changes.isEmpty());
+		assertTrue(changes.getAddedPolygons().isEmpty());
+		assertTrue(copy.takeChanges(view).isEmpty());
+
+		return;
+	}
+}
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.datastructures.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import javax.xml.bind.JAXBException;
+
+import org.eclipse.ice.datastructures.ICEObject.ICEJAXBHandler;
+import org.eclipse.ice.datastructures.form.geometry.ComplexShape;
+import org.eclipse.ice.datastructures.form.geometry.OperatorType;
+import org.eclipse.ice.datastructures.form.geometry.PrimitiveShape;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
+import org.eclipse.ice.datastructures.form.geometry.ShapeType;
+import org.eclipse.ice.datastructures.form.geometry.Transformation;
+import org.junit.Test;
+
+/**
+ * <p>
+ * Tests the ReplicatedShape class
+ * </p>
+ *
+ * @author Jay Jay Billings
+ */
+public class ReplicatedShapeTester {
+
+	/**
+	 * <p>
+	 * Creates a Transformation translated along the x-axis
+	 * </p>
+	 *
+	 * @param x
+	 *            The translation along the x-axis
+	 * @return The Transformation
+	 */
+	private Transformation createTransformation(double x) {
+		Transformation transformation = new Transformation();
+		transformation.setTranslation(x, 0.0, 0.0);
+		transformation.setRotation(0.0, x / 10.0, 0.0);
+		return transformation;
+	}
+
+	/**
+	 * <p>
+	 * Checks adding, getting, setting and removing instances
+	 * </p>
+	 *
+	 */
+	@Test
+	public void checkInstances() {
+
+		// Create a ReplicatedShape of a sphere
+		PrimitiveShape sphere = new PrimitiveShape(ShapeType.Sphere);
+		ReplicatedShape replicatedShape = new ReplicatedShape(sphere);
+		assertSame(sphere, replicatedShape.getShape());
+		assertSame(replicatedShape, sphere.getParent());
+		assertEquals(0, replicatedShape.getInstanceCount());
+		assertNull(replicatedShape.getInstance(0));
+
+		// Add enough instances to grow the array a few times
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, replicatedShape.addInstance(createTransformation(i)));
+		}
+		assertEquals(100, replicatedShape.getInstanceCount());
+		assertEquals(-1, replicatedShape.addInstance(null));
+
+		// The instances should be copies of the transformations
+		for (int i = 0; i < 100; i++) {
+			assertEquals(createTransformation(i),
+					replicatedShape.getInstance(i));
+		}
+		Transformation transformation = replicatedShape.getInstance(5);
+		transformation.setSize(3.0);
+		assertEquals(1.0, replicatedShape.getInstance(5).getSize(), 0.0);
+
+		// Replace an instance
+		assertTrue(replicatedShape.setInstance(5, transformation));
+		assertEquals(transformation, replicatedShape.getInstance(5));
+		assertFalse(replicatedShape.setInstance(100, transformation));
+		assertFalse(replicatedShape.setInstance(0, null));
+
+		// Remove an instance. The following instances should shift down.
+		assertTrue(replicatedShape.removeInstance(0));
+		assertEquals(99, replicatedShape.getInstanceCount());
+		assertEquals(createTransformation(1), replicatedShape.getInstance(0));
+		assertEquals(createTransformation(99), replicatedShape.getInstance(98));
+		assertNull(replicatedShape.getInstance(99));
+		assertFalse(replicatedShape.removeInstance(99));
+
+		// Replace the shape
+		ComplexShape union = new ComplexShape(OperatorType.Union);
+		replicatedShape.setShape(union);
+		assertSame(union, replicatedShape.getShape());
+		assertNull(sphere.getParent());
+		replicatedShape.setShape(null);
+		assertSame(union, replicatedShape.getShape());
+
+	}
+
+	/**
+	 * <p>
+	 * Checks overriding individual instances
+	 * </p>
+	 *
+	 */
+	@Test
+	public void checkOverrides() {
+
+		// Create a ReplicatedShape of a sphere with four instances
+		PrimitiveShape sphere = new PrimitiveShape(ShapeType.Sphere);
+		ReplicatedShape replicatedShape = new ReplicatedShape(sphere);
+		for (int i = 0; i < 4; i++) {
+			replicatedShape.addInstance(createTransformation(i));
+		}
+
+		// Override the second instance with a cube and hide the fourth
+		PrimitiveShape cube = new PrimitiveShape(ShapeType.Cube);
+		ComplexShape hidden = new ComplexShape();
+		assertTrue(replicatedShape.setOverride(1, cube));
+		assertTrue(replicatedShape.setOverride(3, hidden));
+		assertFalse(replicatedShape.setOverride(4, cube));
+		assertFalse(replicatedShape.setOverride(0, null));
+		assertSame(replicatedShape, cube.getParent());
+
+		// Check the shapes of the instances
+		assertSame(sphere, replicatedShape.getInstanceShape(0));
+		assertSame(cube, replicatedShape.getInstanceShape(1));
+		assertSame(sphere, replicatedShape.getInstanceShape(2));
+		assertSame(hidden, replicatedShape.getInstanceShape(3));
+		assertNull(replicatedShape.getOverride(0));
+		assertEquals(2, replicatedShape.getOverrides().size());
+		assertEquals(1, replicatedShape.getOverrideIndices()[0]);
+		assertEquals(3, replicatedShape.getOverrideIndices()[1]);
+
+		// Replace an override
+		PrimitiveShape cylinder = new PrimitiveShape(ShapeType.Cylinder);
+		assertTrue(replicatedShape.setOverride(1, cylinder));
+		assertSame(cylinder, replicatedShape.getOverride(1));
+		assertNull(cube.getParent());
+		assertEquals(2, replicatedShape.getOverrides().size());
+
+		// Removing an instance should remove its override and shift the
+		// indices of the others
+		assertTrue(replicatedShape.removeInstance(1));
+		assertEquals(1, replicatedShape.getOverrideIndices().length);
+		assertEquals(2, replicatedShape.getOverrideIndices()[0]);
+		assertSame(hidden, replicatedShape.getOverride(2));
+		assertSame(sphere, replicatedShape.getInstanceShape(1));
+
+		// Remove the last override
+		assertTrue(replicatedShape.removeOverride(2));
+		assertFalse(replicatedShape.removeOverride(2));
+		assertEquals(0, replicatedShape.getOverrideIndices().length);
+		assertSame(sphere, replicatedShape.getInstanceShape(2));
+
+	}
+
+	/**
+	 * <p>
+	 * Checks that the ReplicatedShape notifies its listeners when it changes
+	 * </p>
+	 *
+	 */
+	@Test
+	public void checkNotifications() {
+
+		// Setup the listener
+		TestComponentListener testComponentListener = new TestComponentListener();
+		ReplicatedShape replicatedShape = new ReplicatedShape();
+		replicatedShape.register(testComponentListener);
+
+		// Set the shape
+		replicatedShape.setShape(new PrimitiveShape(ShapeType.Sphere));
+		assertTrue(testComponentListener.wasNotified());
+		testComponentListener.reset();
+
+		// Add an instance
+		replicatedShape.addInstance(new Transformation());
+		assertTrue(testComponentListener.wasNotified());
+		testComponentListener.reset();
+
+		// Override it
+		replicatedShape.setOverride(0, new ComplexShape());
+		assertTrue(testComponentListener.wasNotified());
+		testComponentListener.reset();
+
+		// Remove it
+		replicatedShape.removeInstance(0);
+		assertTrue(testComponentListener.wasNotified());
+
+	}
+
+	/**
+	 * <p>
+	 * Checks that the ReplicatedShape accepts visitors
+	 * </p>
+	 *
+	 */
+	@Test
+	public void checkVisitation() {
+
+		TestShapeVisitor testVisitor = new TestShapeVisitor();
+		ReplicatedShape replicatedShape = new ReplicatedShape();
+
+		replicatedShape.acceptShapeVisitor(testVisitor);
+		assertEquals(1, testVisitor.getVisits());
+
+		// Null visitors should be ignored
+		replicatedShape.acceptShapeVisitor(null);
+		assertEquals(1, testVisitor.getVisits());
+
+	}
+
+	/**
+	 * <p>
+	 * Checks the equals() and hashCode() operations
+	 * </p>
+	 *
+	 */
+	@Test
+	public void checkEquality() {
+
+		// Create two equal shapes and an unequal one
+		ReplicatedShape replicatedShape = new ReplicatedShape(
+				new PrimitiveShape(ShapeType.Sphere));
+		ReplicatedShape equalShape = new ReplicatedShape(new PrimitiveShape(
+				ShapeType.Sphere));
+		ReplicatedShape unequalShape = new ReplicatedShape(new PrimitiveShape(
+				ShapeType.Sphere));
+		for (int i = 0; i < 3; i++) {
+			replicatedShape.addInstance(createTransformation(i));
+			equalShape.addInstance(createTransformation(i));
+			unequalShape.addInstance(createTransformation(i + 1));
+		}
+
+		// Check reflexivity, symmetry and the hash codes
+		assertTrue(replicatedShape.equals(replicatedShape));
+		assertTrue(replicatedShape.equals(equalShape));
+		assertTrue(equalShape.equals(replicatedShape));
+		assertEquals(replicatedShape.hashCode(), equalShape.hashCode());
+		assertFalse(replicatedShape.equals(unequalShape));
+		assertFalse(replicatedShape.hashCode() == unequalShape.hashCode());
+		assertFalse(replicatedShape.equals(null));
+		assertFalse(replicatedShape.equals(new ComplexShape()));
+
+		// Overrides should break equality
+		equalShape.setOverride(2, new ComplexShape());
+		assertFalse(replicatedShape.equals(equalShape));
+		replicatedShape.setOverride(2, new ComplexShape());
+		assertTrue(replicatedShape.equals(equalShape));
+
+		// So should removing instances, even though the arrays keep spare
+		// capacity
+		equalShape.removeInstance(0);
+		assertFalse(replicatedShape.equals(equalShape));
+
+	}
+
+	/**
+	 * <p>
+	 * Checks the copy() and clone() operations
+	 * </p>
+	 *
+	 */
+	@Test
+	public void checkCopying() {
+
+		// Create a ReplicatedShape with an override
+		ReplicatedShape replicatedShape = new ReplicatedShape(
+				new PrimitiveShape(ShapeType.Sphere));
+		replicatedShape.setName("Replication");
+		replicatedShape.setId(5);
+		for (int i = 0; i < 10; i++) {
+			replicatedShape.addInstance(createTransformation(i));
+		}
+		replicatedShape.setOverride(4, new PrimitiveShape(ShapeType.Cube));
+
+		// Clone it and check the clone
+		ReplicatedShape clone = (ReplicatedShape) replicatedShape.clone();
+		assertEquals(replicatedShape, clone);
+		assertNotSame(replicatedShape.getShape(), clone.getShape());
+		assertSame(clone, clone.getShape().getParent());
+		assertNotSame(replicatedShape.getOverride(4), clone.getOverride(4));
+		assertSame(clone, clone.getOverride(4).getParent());
+
+		// Changing the clone should not change the original
+		clone.setInstance(0, createTransformation(20));
+		assertEquals(createTransformation(0), replicatedShape.getInstance(0));
+
+		// Copy it
+		ReplicatedShape copy = new ReplicatedShape();
+		copy.copy(replicatedShape);
+		assertEquals(replicatedShape, copy);
+		copy.copy(null);
+		assertEquals(replicatedShape, copy);
+
+	}
+
+	/**
+	 * <p>
+	 * Checks that the ReplicatedShape can be written to and read from XML
+	 * </p>
+	 *
+	 * @throws IOException
+	 * @throws JAXBException
+	 * @throws NullPointerException
+	 */
+	@Test
+	public void checkLoadingFromXML() throws NullPointerException,
+			JAXBException, IOException {
+
+		// Local Declarations
+		ICEJAXBHandler xmlHandler = new ICEJAXBHandler();
+		ArrayList<Class> classList = new ArrayList<Class>();
+		classList.add(ReplicatedShape.class);
+
+		// Create a ReplicatedShape of a union with an override
+		ComplexShape union = new ComplexShape(OperatorType.Union);
+		union.addShape(new PrimitiveShape(ShapeType.Sphere));
+		ReplicatedShape replicatedShape = new ReplicatedShape(union);
+		replicatedShape.setId(25);
+		replicatedShape.setName("name");
+		replicatedShape.setDescription("description");
+		for (int i = 0; i < 5; i++) {
+			replicatedShape.addInstance(createTransformation(i));
+		}
+		replicatedShape.setOverride(3, new PrimitiveShape(ShapeType.Cube));
+
+		// Write it to XML and read it back
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		xmlHandler.write(replicatedShape, classList, outputStream);
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(
+				outputStream.toByteArray());
+		ReplicatedShape loadedShape = (ReplicatedShape) xmlHandler.read(
+				classList, inputStream);
+
+		// Check contents
+		assertEquals(replicatedShape, loadedShape);
+
+		// Only the values of the 5 instances should be written, not the spare
+		// capacity of the array
+		String xml = new String(outputStream.toByteArray(), "UTF-8");
+		int start = xml.indexOf("<Instances>") + "<Instances>".length();
+		int end = xml.indexOf("</Instances>");
+		assertEquals(5 * ReplicatedShape.INSTANCE_STRIDE,
+				xml.substring(start, end).trim().split("\\s+").length);
+
+		// The loaded shape should still be able to grow
+		loadedShape.addInstance(createTransformation(5));
+		replicatedShape.addInstance(createTransformation(5));
+		assertEquals(6, loadedShape.getInstanceCount());
+		assertEquals(replicatedShape, loadedShape);
+
+	}
+}
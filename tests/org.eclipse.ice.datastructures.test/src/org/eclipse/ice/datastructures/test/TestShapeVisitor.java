@@ -15,6 +15,7 @@ package org.eclipse.ice.datastructures.test;
 import org.eclipse.ice.datastructures.form.geometry.ComplexShape;
 import org.eclipse.ice.datastructures.form.geometry.IShapeVisitor;
 import org.eclipse.ice.datastructures.form.geometry.PrimitiveShape;
+import org.eclipse.ice.datastructures.form.geometry.ReplicatedShape;
 
 /**
  * <p>
@@ -87,4 +88,14 @@ public class TestShapeVisitor implements IShapeVisitor {
 	public void visit(PrimitiveShape primitiveShape) {
 		visits++;
 	}
+
+	/**
+	 * (non-Javadoc)
+	 * 
+	 * @see IShapeVisitor#visit(ReplicatedShape replicatedShape)
+	 */
+	@Override
+	public void visit(ReplicatedShape replicatedShape) {
+		visits++;
+	}
 }
\ No newline at end of file
@@ -1120,6 +1120,38 @@ public class TreeCompositeTester extends SelectiveComponentVisitor {
 		assertTrue(testTree.equals(copiedTestTree));
 		assertEquals(testTree.hashCode(), copiedTestTree.hashCode());
 
+		// The clone and the original must not hand out the same exemplars,
+		// so editing the exemplars of one does not change the other.
+		TreeComposite copiedExemplar = copiedTestTree.getChildExemplars()
+				.get(0);
+		assertFalse(testTree.getChildExemplars().get(0) == copiedExemplar);
+		copiedExemplar.setName("Caligula");
+		assertEquals(exemplars, testTree.getChildExemplars());
+		assertEquals("Caligula", copiedTestTree.getChildExemplars().get(0)
+				.getName());
+		copiedTestTree = (TreeComposite) testTree.clone();
+
+		// Adding an exemplar to the clone must not change the original.
+		TreeComposite exemplar6 = new TreeComposite();
+		exemplar6.setId(6);
+		exemplar6.setName("Nero");
+		copiedTestTree.addChildExemplar(exemplar6);
+		assertEquals(exemplars.size() + 1, copiedTestTree.getChildExemplars()
+				.size());
+		assertEquals(exemplars, testTree.getChildExemplars());
+
+		// Nor should adding one to the original change the clone.
+		copiedTestTree = (TreeComposite) testTree.clone();
+		testTree.addChildExemplar(exemplar6);
+		assertEquals(exemplars, copiedTestTree.getChildExemplars());
+		assertEquals(exemplars.size() + 1, testTree.getChildExemplars()
+				.size());
+
+		// The cloned child must be wired to the clone.
+		TreeComposite clonedChild = copiedTestTree.getChildAtIndex(0);
+		assertTrue(clonedChild.getParent() == copiedTestTree);
+		assertFalse(clonedChild == testTree.getChildAtIndex(0));
+
 	}
 
 	/**
@@ -15,6 +15,7 @@ package org.eclipse.ice.io.ini.test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
@@ -31,6 +32,7 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.datastructures.form.DataComponent;
+import org.eclipse.ice.datastructures.form.Entry;
 import org.eclipse.ice.datastructures.form.Form;
 import org.eclipse.ice.io.ini.INIReader;
 import org.junit.BeforeClass;
@@ -143,6 +145,37 @@ public class INIReaderTester {
 		assertEquals(((DataComponent)sections.get(1)).retrieveAllEntries().size(), 4);
 		assertEquals(((DataComponent)sections.get(2)).retrieveAllEntries().size(), 1);		
 		assertEquals(((DataComponent)sections.get(3)).retrieveAllEntries().size(), 1);					
+
+		// Reading the file again must load the values into the new form
+		// instead of the entries of the previous one
+		Form secondForm = reader.read(inputFile);
+		assertNotNull(secondForm);
+		ArrayList<Component> secondSections = secondForm.getComponents();
+		assertEquals(sections.size(), secondSections.size());
+		for (int i = 0; i < sections.size(); i++) {
+			ArrayList<Entry> firstEntries = ((DataComponent) sections.get(i))
+					.retrieveAllEntries();
+			ArrayList<Entry> secondEntries = ((DataComponent) secondSections
+					.get(i)).retrieveAllEntries();
+			assertEquals(firstEntries.size(), secondEntries.size());
+			for (int j = 0; j < firstEntries.size(); j++) {
+				assertEquals(firstEntries.get(j).getName(), secondEntries
+						.get(j).getName());
+				assertEquals(firstEntries.get(j).getValue(), secondEntries
+						.get(j).getValue());
+			}
+		}
+		
+		/* --- Test the findAll method --- */
+		assertNull(reader.findAll(fakeFile, ".*"));
+		ArrayList<Entry> matches = reader.findAll(inputFile, "\\[.*\\]");
+		ArrayList<Entry> fakes = reader.findAll(inputFile, "Sassafras my mass");
+		assertEquals(0, fakes.size());
+		assertTrue(matches.size() > 0);
+		for (Entry match : matches) {
+			assertEquals("\\[.*\\]", match.getDescription());
+			assertTrue(match.getValue().startsWith("["));
+		}
 		
 		// Okay good job
 		return;
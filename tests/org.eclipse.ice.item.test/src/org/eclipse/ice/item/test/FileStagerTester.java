@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.item.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.ice.item.action.FileStager;
+import org.junit.Test;
+
+/**
+ * This class is responsible for checking that the FileStager only transfers
+ * new or changed files and that it resumes interrupted transfers. It uses the
+ * local EFS file system as the target.
+ *
+ * @author Jay Jay Billings
+ */
+public class FileStagerTester {
+
+	/**
+	 * This operation writes text to a file.
+	 *
+	 * @param file
+	 *            The file.
+	 * @param text
+	 *            The text.
+	 * @throws IOException
+	 */
+	private void write(File file, String text) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		writer.write(text);
+		writer.close();
+	}
+
+	/**
+	 * This operation checks that unchanged files are skipped and changed
+	 * files are transferred again.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkIncrementalStaging() throws Exception {
+
+		// Local Declarations
+		File localDir = Files.createTempDirectory("stagerLocal").toFile();
+		File remoteDir = Files.createTempDirectory("stagerRemote").toFile();
+		IFileStore stagingStore = EFS.getLocalFileSystem().fromLocalFile(
+				new File(remoteDir, "iceStaging"));
+		File mesh = new File(localDir, "mesh.e");
+		File input = new File(localDir, "input.i");
+		HashMap<String, File> files = new HashMap<String, File>();
+
+		// Create the inputs and stage them
+		write(mesh, "a very large mesh");
+		write(input, "[Mesh]\n");
+		files.put("mesh.e", mesh);
+		files.put("input.i", input);
+		FileStager stager = new FileStager(stagingStore, 2);
+		List<String> transferred = stager.stage(files);
+		assertEquals(2, transferred.size());
+		assertEquals(0, stager.getSkippedFileCount());
+		assertEquals(mesh.length() + input.length(),
+				stager.getBytesTransferred());
+		assertEquals("a very large mesh", new String(Files.readAllBytes(new File(
+				remoteDir, "iceStaging/mesh.e").toPath())));
+
+		// Change the input and stage again with a new stager. Only the input
+		// should be sent.
+		write(input, "[Mesh]\n[Variables]\n");
+		stager = new FileStager(stagingStore, 2);
+		transferred = stager.stage(files);
+		assertEquals(1, transferred.size());
+		assertEquals("input.i", transferred.get(0));
+		assertEquals(1, stager.getSkippedFileCount());
+		assertEquals(input.length(), stager.getBytesTransferred());
+
+		// Delete the staged mesh behind the stager's back. It should be sent
+		// again.
+		assertTrue(new File(remoteDir, "iceStaging/mesh.e").delete());
+		transferred = stager.stage(files);
+		assertEquals(1, transferred.size());
+		assertEquals("mesh.e", transferred.get(0));
+
+		// Change the staged mesh without changing its length. It should also
+		// be sent again.
+		File stagedMesh = new File(remoteDir, "iceStaging/mesh.e");
+		write(stagedMesh, "a very small mesh");
+		stagedMesh.setLastModified(stagedMesh.lastModified() - 10000L);
+		transferred = stager.stage(files);
+		assertEquals(1, transferred.size());
+		assertEquals("a very large mesh",
+				new String(Files.readAllBytes(stagedMesh.toPath())));
+
+		return;
+	}
+
+	/**
+	 * This operation checks that different contents of a file are staged
+	 * under different names.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkStagedNames() throws Exception {
+
+		// Local Declarations
+		File localDir = Files.createTempDirectory("stagerLocal").toFile();
+		File input = new File(localDir, "input.i");
+
+		// The name should end with the original name and change with the
+		// contents
+		write(input, "[Mesh]\n");
+		String firstName = FileStager.getStagedName("input.i", input);
+		assertTrue(firstName.endsWith("_input.i"));
+		assertEquals(firstName, FileStager.getStagedName("input.i", input));
+		write(input, "[Mesh]\n[Variables]\n");
+		assertFalse(firstName.equals(FileStager.getStagedName("input.i",
+				input)));
+
+		return;
+	}
+
+	/**
+	 * This operation checks that staged files that are no longer referenced
+	 * are only removed once they have not been used for the retention time.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkPruning() throws Exception {
+
+		// Local Declarations
+		File localDir = Files.createTempDirectory("stagerLocal").toFile();
+		File remoteDir = Files.createTempDirectory("stagerRemote").toFile();
+		IFileStore stagingStore = EFS.getLocalFileSystem().fromLocalFile(
+				remoteDir);
+		File input = new File(localDir, "input.i");
+		HashMap<String, File> files = new HashMap<String, File>();
+
+		// Stage two versions of the input under their staged names
+		write(input, "[Mesh]\n");
+		String firstName = FileStager.getStagedName("input.i", input);
+		files.put(firstName, input);
+		FileStager stager = new FileStager(stagingStore, 1);
+		stager.stage(files);
+		write(input, "[Mesh]\n[Variables]\n");
+		String secondName = FileStager.getStagedName("input.i", input);
+		files.clear();
+		files.put(secondName, input);
+		stager.stage(files);
+
+		// The first version is kept for the default retention time
+		assertTrue(new File(remoteDir, firstName).exists());
+		assertTrue(new File(remoteDir, secondName).exists());
+
+		// Without a retention time, it is removed from the directory and the
+		// manifest by the next launch
+		stager.setRetentionTime(0);
+		assertEquals(0, stager.stage(files).size());
+		assertFalse(new File(remoteDir, firstName).exists());
+		assertTrue(new File(remoteDir, secondName).exists());
+		Properties manifest = readManifest(stagingStore);
+		for (String key : manifest.stringPropertyNames()) {
+			assertFalse(key.endsWith(firstName));
+		}
+		assertTrue(manifest.containsKey("file:" + secondName));
+
+		return;
+	}
+
+	/**
+	 * This operation checks that concurrent launches that stage into the same
+	 * directory do not lose each other's manifest entries.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkConcurrentStaging() throws Exception {
+
+		// Local Declarations
+		File localDir = Files.createTempDirectory("stagerLocal").toFile();
+		File remoteDir = Files.createTempDirectory("stagerRemote").toFile();
+		final IFileStore stagingStore = EFS.getLocalFileSystem()
+				.fromLocalFile(new File(remoteDir, "iceStaging"));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<List<String>>> results = new ArrayList<Future<List<String>>>();
+		final HashMap<String, File> allFiles = new HashMap<String, File>();
+
+		// Each launch stages all of the files, so none of them are pruned
+		for (int i = 0; i < 8; i++) {
+			File file = new File(localDir, "input" + i + ".i");
+			write(file, "input " + i);
+			allFiles.put(file.getName(), file);
+		}
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(new Callable<List<String>>() {
+				@Override
+				public List<String> call() throws Exception {
+					return new FileStager(stagingStore, 2).stage(allFiles);
+				}
+			}));
+		}
+
+		// Every file should be transferred exactly once
+		int transferred = 0;
+		for (Future<List<String>> result : results) {
+			transferred += result.get().size();
+		}
+		executor.shutdown();
+		assertEquals(allFiles.size(), transferred);
+		Properties manifest = readManifest(stagingStore);
+		for (String name : allFiles.keySet()) {
+			assertTrue(manifest.containsKey("file:" + name));
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation reads the manifest of a staging directory.
+	 *
+	 * @param stagingStore
+	 *            The staging directory.
+	 * @return The manifest.
+	 * @throws Exception
+	 */
+	private Properties readManifest(IFileStore stagingStore) throws Exception {
+		Properties manifest = new Properties();
+		InputStream stream = stagingStore.getChild(FileStager.MANIFEST_NAME)
+				.openInputStream(EFS.NONE, null);
+		manifest.load(stream);
+		stream.close();
+		return manifest;
+	}
+
+	/**
+	 * This operation checks that an interrupted transfer is resumed instead of
+	 * being started over.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkResume() throws Exception {
+
+		// Local Declarations
+		File localDir = Files.createTempDirectory("stagerLocal").toFile();
+		File remoteDir = Files.createTempDirectory("stagerRemote").toFile();
+		IFileStore stagingStore = EFS.getLocalFileSystem().fromLocalFile(
+				remoteDir);
+		File mesh = new File(localDir, "mesh.e");
+		HashMap<String, File> files = new HashMap<String, File>();
+		files.put("mesh.e", mesh);
+		write(mesh, "0123456789");
+
+		// Fake an interrupted transfer of the first four bytes
+		write(new File(remoteDir, "mesh.e" + FileStager.PART_SUFFIX), "0123");
+		Properties manifest = new Properties();
+		manifest.setProperty("part:mesh.e", FileStager.computeHash(mesh));
+		OutputStream stream = stagingStore.getChild(FileStager.MANIFEST_NAME)
+				.openOutputStream(EFS.NONE, null);
+		manifest.store(stream, null);
+		stream.close();
+
+		// Stage it and make sure only the rest was sent
+		FileStager stager = new FileStager(stagingStore, 1);
+		assertEquals(1, stager.stage(files).size());
+		assertEquals(6, stager.getBytesTransferred());
+		assertEquals("0123456789", new String(Files.readAllBytes(new File(
+				remoteDir, "mesh.e").toPath())));
+		assertFalse(new File(remoteDir, "mesh.e" + FileStager.PART_SUFFIX)
+				.exists());
+
+		return;
+	}
+}
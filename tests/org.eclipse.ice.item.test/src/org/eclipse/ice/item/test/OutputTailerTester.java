@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.item.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.ice.item.jobLauncher.OutputTailer;
+import org.eclipse.ice.item.jobLauncher.OutputTailer.Tail;
+import org.junit.Test;
+
+/**
+ * This class is responsible for checking that the OutputTailer forwards only
+ * the appended bytes of its sources and rotates its destinations.
+ *
+ * @author Jay Jay Billings
+ */
+public class OutputTailerTester {
+
+	/**
+	 * This operation appends text to a file.
+	 *
+	 * @param file
+	 *            The file.
+	 * @param text
+	 *            The text to append.
+	 * @throws IOException
+	 */
+	private void append(File file, String text) throws IOException {
+		FileWriter writer = new FileWriter(file, true);
+		writer.write(text);
+		writer.close();
+	}
+
+	/**
+	 * This operation checks that the bytes appended to several sources end up
+	 * in the destination and that the listener is used to close the tail.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkTailing() throws Exception {
+
+		// Local Declarations
+		File dir = Files.createTempDirectory("tailer").toFile();
+		File stdout = new File(dir, "stdout.txt");
+		File stderr = new File(dir, "stderr.txt");
+		File output = new File(dir, "output.txt");
+		ArrayList<File> sources = new ArrayList<File>();
+		final AtomicBoolean finished = new AtomicBoolean(false);
+		final CountDownLatch closed = new CountDownLatch(1);
+
+		// Only create one of the sources for now
+		append(stdout, "first\n");
+		sources.add(stdout);
+		sources.add(stderr);
+
+		// Start the tail
+		OutputTailer tailer = new OutputTailer();
+		Tail tail = tailer.start(sources, output,
+				new OutputTailer.ITailListener() {
+					@Override
+					public boolean isFinished() {
+						return finished.get();
+					}
+
+					@Override
+					public void tailClosed() {
+						closed.countDown();
+					}
+				});
+		assertEquals(1, tailer.getActiveTailCount());
+
+		// Write some more, including to the source that did not exist.
+		append(stdout, "second\n");
+		append(stderr, "error\n");
+		Thread.sleep(600);
+		assertFalse(tail.isClosed());
+
+		// Finish it and make sure everything was copied exactly once
+		append(stdout, "last\n");
+		finished.set(true);
+		assertTrue(closed.await(5, TimeUnit.SECONDS));
+		assertTrue(tail.isClosed());
+		String text = new String(Files.readAllBytes(output.toPath()));
+		assertEquals("first\nsecond\nlast\nerror\n".length(), text.length());
+		assertTrue(text.startsWith("first\nsecond\n"));
+		assertTrue(text.contains("error\n"));
+		assertTrue(text.contains("last\n"));
+		assertEquals(text.length(), tail.getBytesTransferred());
+		assertEquals(0, tailer.getActiveTailCount());
+
+		return;
+	}
+
+	/**
+	 * This operation checks that the destination is rotated once it reaches
+	 * its maximum size.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkRotation() throws Exception {
+
+		// Local Declarations
+		File dir = Files.createTempDirectory("tailer").toFile();
+		File stdout = new File(dir, "stdout.txt");
+		File output = new File(dir, "output.txt");
+		ArrayList<File> sources = new ArrayList<File>();
+		sources.add(stdout);
+
+		// Write 25 bytes and tail them with a 10 byte limit and two backups
+		append(stdout, "0123456789abcdefghijABCDE");
+		OutputTailer tailer = new OutputTailer();
+		Tail tail = tailer.start(sources, output, null, 10, 2);
+		tail.stop();
+
+		// Wait for it to close
+		for (int i = 0; i < 50 && !tail.isClosed(); i++) {
+			Thread.sleep(100);
+		}
+		assertTrue(tail.isClosed());
+
+		// Check the files
+		assertEquals(2, tail.getRotationCount());
+		assertEquals("ABCDE", new String(Files.readAllBytes(output.toPath())));
+		assertEquals("abcdefghij", new String(Files.readAllBytes(new File(
+				dir, "output.txt.1").toPath())));
+		assertEquals("0123456789", new String(Files.readAllBytes(new File(
+				dir, "output.txt.2").toPath())));
+
+		return;
+	}
+
+	/**
+	 * This operation checks that a failed rotation does not stop the tail and
+	 * that the rotation is tried again later.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkRotationFailure() throws Exception {
+
+		// Local Declarations
+		File dir = Files.createTempDirectory("tailer").toFile();
+		File stdout = new File(dir, "stdout.txt");
+		File output = new File(dir, "output.txt");
+		File backup = new File(dir, "output.txt.1");
+		File blocker = new File(backup, "blocker.txt");
+		ArrayList<File> sources = new ArrayList<File>();
+		sources.add(stdout);
+
+		// Block the backup with a directory that can not be replaced
+		assertTrue(backup.mkdir());
+		append(blocker, "blocked");
+
+		// Write 25 bytes with a 10 byte limit. They can not be rotated, so
+		// they should all be in the destination.
+		append(stdout, "0123456789abcdefghijABCDE");
+		OutputTailer tailer = new OutputTailer();
+		Tail tail = tailer.start(sources, output, null, 10, 1);
+		for (int i = 0; i < 50 && tail.getBytesTransferred() < 25; i++) {
+			Thread.sleep(100);
+		}
+		assertEquals(25, tail.getBytesTransferred());
+		assertEquals(0, tail.getRotationCount());
+		assertEquals("0123456789abcdefghijABCDE", new String(
+				Files.readAllBytes(output.toPath())));
+
+		// Remove the blocker. The next bytes should rotate the destination.
+		assertTrue(blocker.delete());
+		assertTrue(backup.delete());
+		append(stdout, "xyz");
+		tail.stop();
+		for (int i = 0; i < 50 && !tail.isClosed(); i++) {
+			Thread.sleep(100);
+		}
+		assertTrue(tail.isClosed());
+		assertEquals(1, tail.getRotationCount());
+		assertEquals("xyz", new String(Files.readAllBytes(output.toPath())));
+		assertEquals("0123456789abcdefghijABCDE", new String(
+				Files.readAllBytes(backup.toPath())));
+
+		return;
+	}
+
+	/**
+	 * This operation checks that a listener that throws an exception does not
+	 * stop the other tails from being serviced and that dispose() closes every
+	 * tail.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkListenerFailure() throws Exception {
+
+		// Local Declarations
+		File dir = Files.createTempDirectory("tailer").toFile();
+		File stdout = new File(dir, "stdout.txt");
+		File badOutput = new File(dir, "bad.txt");
+		File output = new File(dir, "output.txt");
+		ArrayList<File> sources = new ArrayList<File>();
+		final CountDownLatch closed = new CountDownLatch(1);
+		sources.add(stdout);
+		append(stdout, "text\n");
+
+		// Start one tail whose listener always fails and one that works
+		OutputTailer tailer = new OutputTailer();
+		Tail badTail = tailer.start(sources, badOutput,
+				new OutputTailer.ITailListener() {
+					@Override
+					public boolean isFinished() {
+						throw new IllegalStateException();
+					}
+
+					@Override
+					public void tailClosed() {
+						throw new IllegalStateException();
+					}
+				});
+		Tail tail = tailer.start(sources, output,
+				new OutputTailer.ITailListener() {
+					@Override
+					public boolean isFinished() {
+						return false;
+					}
+
+					@Override
+					public void tailClosed() {
+						closed.countDown();
+					}
+				});
+
+		// The failing tail should be closed and the other one still serviced
+		for (int i = 0; i < 50 && !badTail.isClosed(); i++) {
+			Thread.sleep(100);
+		}
+		assertTrue(badTail.isClosed());
+		append(stdout, "more\n");
+		for (int i = 0; i < 50 && tail.getBytesTransferred() < 10; i++) {
+			Thread.sleep(100);
+		}
+		assertEquals(10, tail.getBytesTransferred());
+		assertFalse(tail.isClosed());
+
+		// Disposing the tailer should close the remaining tail
+		tailer.dispose();
+		assertTrue(closed.await(5, TimeUnit.SECONDS));
+		assertTrue(tail.isClosed());
+		assertEquals(0, tailer.getActiveTailCount());
+
+		return;
+	}
+}
@@ -13,7 +13,9 @@
 package org.eclipse.ice.materials.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -95,6 +97,11 @@ public class XMLMaterialDatabaseTester {
 		if (defaultTestFile.exists()) {
 			defaultTestFile.delete();
 		}
+		// Delete the journal
+		File journalFile = new File(userTestFile.getPath() + ".journal");
+		if (journalFile.exists()) {
+			journalFile.delete();
+		}
 	}
 
 	/**
@@ -230,4 +237,105 @@ public class XMLMaterialDatabaseTester {
 			fail();
 		}
 	}
+
+	/**
+	 * This operation checks the queries of the IQueryableMaterialsDatabase
+	 * interface and makes sure that changes are journaled so that they are not
+	 * lost if the service is not stopped.
+	 */
+	@Test
+	public void checkQueriesAndJournal() {
+
+		// Create a couple of materials...
+		Material co2 = TestMaterialFactory.createCO2();
+		Material h2o = TestMaterialFactory.createH2O();
+		ArrayList<Material> materials = new ArrayList<Material>();
+		ICEList<Material> jaxbMaterialsList = new ICEList<Material>();
+		materials.add(h2o);
+		materials.add(co2);
+		jaxbMaterialsList.setList(materials);
+
+		try {
+			// ...and dump them to the test files
+			JAXBContext jaxbContext = JAXBContext.newInstance(ICEList.class,
+					Material.class);
+			Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
+			jaxbMarshaller.marshal(jaxbMaterialsList, userTestFile);
+			jaxbMarshaller.marshal(jaxbMaterialsList, defaultTestFile);
+
+			// Start the service
+			XMLMaterialsDatabase database = new XMLMaterialsDatabase(
+					userTestFile, defaultTestFile);
+			database.start();
+
+			// Add another material
+			Material co2_2 = TestMaterialFactory.createCO2();
+			co2_2.setName("co2_2");
+			co2_2.setProperty("molar mass (g/mol)", 45.0);
+			database.addMaterial(co2_2);
+
+			// The materials should be sorted by name, ignoring case.
+			List<Material> databaseMaterials = database.getMaterials();
+			assertEquals(3, databaseMaterials.size());
+			assertEquals("CO2", databaseMaterials.get(0).getName());
+			assertEquals("co2_2", databaseMaterials.get(1).getName());
+			assertEquals("H2O", databaseMaterials.get(2).getName());
+
+			// Check the look up by name
+			assertEquals(co2_2, database.getMaterial("co2_2"));
+			assertNull(database.getMaterial("CO2_2"));
+			assertNull(database.getMaterial(null));
+
+			// Check the prefix queries
+			List<Material> found = database.findByNamePrefix("Co2");
+			assertEquals(2, found.size());
+			assertTrue(found.contains(co2));
+			assertTrue(found.contains(co2_2));
+			assertEquals(1, database.findByNamePrefix("h").size());
+			assertEquals(3, database.findByNamePrefix("").size());
+			assertTrue(database.findByNamePrefix("N").isEmpty());
+
+			// Check the property queries, which are sorted by value
+			found = database.findByProperty("molar mass (g/mol)", 20.0, 50.0);
+			assertEquals(2, found.size());
+			assertEquals(co2, found.get(0));
+			assertEquals(co2_2, found.get(1));
+			found = database.findByProperty("molar mass (g/mol)", 18.01, 44.01);
+			assertEquals(2, found.size());
+			assertEquals(h2o, found.get(0));
+			assertEquals(co2, found.get(1));
+			assertTrue(database.findByProperty("molar mass (g/mol)", 50.0,
+					60.0).isEmpty());
+			assertTrue(database.findByProperty("fake property", 0.0, 1.0)
+					.isEmpty());
+
+			// The queries should see updates and deletions
+			database.deleteMaterial("H2O");
+			assertTrue(database.findByNamePrefix("H").isEmpty());
+			found = database.findByProperty("molar mass (g/mol)", 0.0, 50.0);
+			assertEquals(2, found.size());
+			assertFalse(found.contains(h2o));
+
+			// Start a second instance without stopping the first. It should
+			// replay the journal.
+			XMLMaterialsDatabase otherDatabase = new XMLMaterialsDatabase(
+					userTestFile, defaultTestFile);
+			otherDatabase.start();
+			assertEquals(database.getMaterials(),
+					otherDatabase.getMaterials());
+
+			// Stopping the database should clear the journal.
+			database.stop();
+			assertFalse(new File(userTestFile.getPath() + ".journal").exists());
+			otherDatabase.stop();
+			database.start();
+			assertEquals(2, database.getMaterials().size());
+			assertNull(database.getMaterial("H2O"));
+			database.stop();
+		} catch (NullPointerException | JAXBException e) {
+			// Complain
+			e.printStackTrace();
+			fail();
+		}
+	}
 }
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation - Jay Jay Billings,
+ *   Jordan H. Deyton, Dasha Gorin, Alexander J. McCaskey, Taylor Patterson,
+ *   Claire Saunders, Matthew Wang, Anna Wojtowicz
+ *******************************************************************************/
+package org.eclipse.ice.nek5000.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+
+import org.eclipse.ice.nek5000.FixedWidthFormatter;
+import org.junit.Test;
+
+/**
+ * Tests the methods of the FixedWidthFormatter class by comparing its output
+ * to String.format().
+ *
+ * @author Anna Wojtowicz
+ *
+ */
+public class FixedWidthFormatterTester {
+
+	/**
+	 * Checks that floats are formatted like "%{width}.{precision}G".
+	 */
+	@Test
+	public void checkFloats() {
+
+		// Local declarations
+		FixedWidthFormatter formatter = new FixedWidthFormatter(1);
+		Random random = new Random(42);
+		float[] values = { 0.0f, -0.0f, 1.0f, -1.0f, 0.1f, 0.5f, 2.5f,
+				9.9999999f, 999999.95f, 9999999.5f, 12345675.0f, 1.0e-4f,
+				9.9999995e-5f, 1.0e7f, 1.0e-20f, 3.4e38f, Float.MIN_VALUE,
+				Float.MAX_VALUE, Float.NaN, Float.POSITIVE_INFINITY,
+				Float.NEGATIVE_INFINITY };
+
+		// Check the edge cases
+		for (float value : values) {
+			checkFloat(formatter, value, 14, 7);
+			checkFloat(formatter, value, 9, 6);
+			checkFloat(formatter, value, 1, 1);
+		}
+
+		// Check random values of all magnitudes and random bit patterns
+		for (int i = 0; i < 100000; i++) {
+			float value = (float) ((random.nextDouble() - 0.5) * Math.pow(10,
+					random.nextInt(24) - 12));
+			checkFloat(formatter, value, 14, 7);
+			checkFloat(formatter, value, 9, 6);
+			value = Float.intBitsToFloat(random.nextInt());
+			checkFloat(formatter, value, 14, 7);
+			checkFloat(formatter, value, 9, 6);
+		}
+
+		return;
+	}
+
+	/**
+	 * Checks that integers and Strings are formatted like "%{width}d",
+	 * "%{width}s" and "%-{width}s".
+	 */
+	@Test
+	public void checkIntegersAndStrings() {
+
+		// Local declarations
+		FixedWidthFormatter formatter = new FixedWidthFormatter(1);
+		long[] integers = { 0, 1, -1, 42, 999, 1000, 123456, -98765,
+				Long.MAX_VALUE, Long.MIN_VALUE };
+		String[] strings = { "", "W", "abc", "abcdef", null };
+		int[] widths = { 1, 3, 6, 25 };
+
+		for (int width : widths) {
+			for (long integer : integers) {
+				formatter.reset();
+				formatter.append(integer, width);
+				assertEquals(String.format("%" + width + "d", integer),
+						formatter.toString());
+			}
+			for (String string : strings) {
+				formatter.reset();
+				formatter.append(string, width, true).append(string, width,
+						false);
+				assertEquals(String.format("%-" + width + "s%" + width + "s",
+						string, string), formatter.toString());
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * Checks that a line built from several fields is written to a stream.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void checkLine() throws IOException {
+
+		// Local declarations
+		FixedWidthFormatter formatter = new FixedWidthFormatter(4);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+		// Build a boundary condition line
+		formatter.append(' ').append("W", 3, true).append(12, 3).append(4, 3);
+		for (int i = 0; i < 5; i++) {
+			formatter.append(1.5f * i - 2.0f, 14, 7);
+		}
+		formatter.append('\n');
+		formatter.writeTo(stream);
+
+		// It should match the line from String.format()
+		String expected = String.format(Locale.US,
+				" %-3s%3d%3d%14.7G%14.7G%14.7G%14.7G%14.7G\n", "W", 12, 4,
+				-2.0f, -0.5f, 1.0f, 2.5f, 4.0f);
+		assertEquals(expected, new String(stream.toByteArray()));
+		assertEquals(expected.length(), formatter.size());
+
+		return;
+	}
+
+	/**
+	 * Checks the formatting of a float against String.format().
+	 *
+	 * @param formatter
+	 *            The formatter to check
+	 * @param value
+	 *            The float to format
+	 * @param width
+	 *            The minimum width of the field
+	 * @param precision
+	 *            The number of significant digits
+	 */
+	private void checkFloat(FixedWidthFormatter formatter, float value,
+			int width, int precision) {
+		formatter.reset();
+		formatter.append(value, width, precision);
+		assertEquals(String.format(Locale.US, "%" + width + "." + precision
+				+ "G", value), formatter.toString());
+	}
+
+}
@@ -23,8 +23,11 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.ice.datastructures.ICEObject.Component;
 import org.eclipse.ice.nek5000.NekReader;
 import org.eclipse.ice.nek5000.NekWriter;
@@ -1077,4 +1080,79 @@ public class NekWriterTester {
 		return;
 	}
 
+	/**
+	 * Checks that the writer reports its progress to a monitor and stops when
+	 * the monitor is canceled.
+	 */
+	@Test
+	public void checkProgress() {
+
+		// Local declarations
+		String separator = System.getProperty("file.separator");
+		String userDir = System.getProperty("user.home") + separator
+				+ "ICETests" + separator + "nek5000Data";
+		File outputFile = new File(userDir + separator
+				+ "conj_ht_ProgressTest.rea");
+		File exampleFile = new File(userDir + separator + "conj_ht.rea");
+		ArrayList<Component> components = null;
+		final int[] work = new int[2];
+		final boolean[] done = new boolean[1];
+
+		// Load the example components
+		try {
+			components = new NekReader().loadREAFile(exampleFile);
+			outputFile.createNewFile();
+		} catch (IOException e) {
+			e.printStackTrace();
+			fail("Failed to read conj_ht.rea file");
+		}
+
+		// Write the file and check that all of the work was reported
+		try {
+			new NekWriter().writeReaFile(components, outputFile,
+					new ProblemProperties(2, 64, 32, 0),
+					new NullProgressMonitor() {
+						@Override
+						public void beginTask(String name, int totalWork) {
+							work[1] = totalWork;
+						}
+
+						@Override
+						public void worked(int amount) {
+							work[0] += amount;
+						}
+
+						@Override
+						public void done() {
+							done[0] = true;
+						}
+					});
+		} catch (IOException e) {
+			e.printStackTrace();
+			fail("Failed to write conj_ht_ProgressTest.rea");
+		}
+		assertTrue(work[1] > 0);
+		assertEquals(work[1], work[0]);
+		assertTrue(done[0]);
+
+		// Writing with a canceled monitor should stop with an exception
+		IProgressMonitor canceledMonitor = new NullProgressMonitor();
+		canceledMonitor.setCanceled(true);
+		try {
+			new NekWriter().writeReaFile(components, outputFile,
+					new ProblemProperties(2, 64, 32, 0), canceledMonitor);
+			fail("The canceled write should throw an exception");
+		} catch (InterruptedIOException e) {
+			// Expected
+		} catch (IOException e) {
+			e.printStackTrace();
+			fail("Failed to write conj_ht_ProgressTest.rea");
+		}
+
+		// Delete the test output file
+		outputFile.delete();
+
+		return;
+	}
+
 }
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package xmlpp.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.eclipse.ice.persistence.xml.BinaryXMLCodec;
+import org.junit.Test;
+
+/**
+ * This class tests the {@link BinaryXMLCodec}.
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class BinaryXMLCodecTester {
+
+	/**
+	 * The XML declaration written by the decoder.
+	 */
+	private static final String declaration = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	/**
+	 * Checks that documents are decoded to the same XML, less indentation.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void checkRoundTrip() throws IOException {
+
+		// Namespaces, attributes of every type, escaped text and whitespace
+		// are all kept.
+		String xml = declaration
+				+ "<Form xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" "
+				+ "id=\"3\" name=\"A &amp; &quot;B&quot;\" value=\"-2.5\">"
+				+ "<component xsi:type=\"dataComponent\" id=\"0\">"
+				+ "<description>x &lt; y</description>"
+				+ "<blank>  </blank><empty></empty>"
+				+ "<number>007</number><number>1e3</number></component>"
+				+ "</Form>";
+		assertEquals(xml, decode(encode(xml)));
+
+		// Indentation between elements is dropped.
+		String indented = declaration + "<a>\n    <b>text</b>\n</a>\n";
+		assertEquals(declaration + "<a><b>text</b></a>", decode(encode(indented)));
+
+		return;
+	}
+
+	/**
+	 * Checks that runs of numeric elements are stored compactly and decoded
+	 * in order.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void checkNumericRuns() throws IOException {
+
+		// Build a matrix with many elements, mixing types and names.
+		StringBuilder builder = new StringBuilder(declaration);
+		builder.append("<matrix><rows>100</rows>");
+		for (int i = 0; i < 1000; i++) {
+			builder.append("<elements>").append(Double.toString(i * 0.5 - 7.0))
+					.append("</elements>");
+		}
+		builder.append("<elements>-3</elements><other>2.0</other></matrix>");
+		String xml = builder.toString();
+
+		// The round trip should be exact.
+		byte[] binary = encode(xml);
+		assertEquals(xml, decode(binary));
+
+		// The doubles take about 8 bytes each, far less than the XML.
+		assertTrue(binary.length < 1000 * 8 + 100);
+		assertTrue(binary.length * 3 < xml.length());
+
+		return;
+	}
+
+	/**
+	 * Checks that binary documents are recognized and that invalid ones are
+	 * rejected.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void checkHeader() throws IOException {
+
+		String xml = declaration + "<a/>";
+		byte[] binary = encode(xml);
+
+		// Check the header.
+		assertTrue(BinaryXMLCodec.isBinary(new BufferedInputStream(
+				new ByteArrayInputStream(binary))));
+		assertFalse(BinaryXMLCodec.isBinary(new BufferedInputStream(
+				new ByteArrayInputStream(xml.getBytes("UTF-8")))));
+
+		// XML cannot be decoded.
+		try {
+			decode(xml.getBytes("UTF-8"));
+			fail("BinaryXMLCodecTester error: XML was decoded.");
+		} catch (IOException e) {
+			// Expected.
+		}
+
+		// Newer versions cannot be decoded.
+		binary[4] = (byte) (BinaryXMLCodec.VERSION + 1);
+		try {
+			decode(binary);
+			fail("BinaryXMLCodecTester error: A newer version was decoded.");
+		} catch (IOException e) {
+			// Expected.
+		}
+
+		return;
+	}
+
+	/**
+	 * Encodes XML.
+	 *
+	 * @param xml
+	 *            The XML.
+	 * @return The binary document.
+	 * @throws IOException
+	 */
+	private byte[] encode(String xml) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		BinaryXMLCodec.encode(new ByteArrayInputStream(xml.getBytes("UTF-8")),
+				outputStream);
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Decodes a binary document.
+	 *
+	 * @param binary
+	 *            The binary document.
+	 * @return The XML.
+	 * @throws IOException
+	 */
+	private String decode(byte[] binary) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		BinaryXMLCodec.decode(new ByteArrayInputStream(binary), outputStream);
+		return outputStream.toString("UTF-8");
+	}
+}
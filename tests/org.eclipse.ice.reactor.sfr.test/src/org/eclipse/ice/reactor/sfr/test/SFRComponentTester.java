@@ -25,8 +25,10 @@ import org.eclipse.ice.analysistool.IData;
 import org.eclipse.ice.datastructures.componentVisitor.IReactorComponent;
 import org.eclipse.ice.datastructures.componentVisitor.SelectiveComponentVisitor;
 import org.eclipse.ice.datastructures.test.TestComponentListener;
+import org.eclipse.ice.reactor.sfr.base.ISFRDataLoader;
 import org.eclipse.ice.reactor.sfr.base.SFRComponent;
 import org.eclipse.ice.reactor.sfr.base.SFRData;
+import org.eclipse.ice.reactor.sfr.base.SFRDataStore;
 import org.junit.Test;
 
 /**
@@ -965,6 +967,117 @@ public class SFRComponentTester {
 		return;
 	}
 
+	/**
+	 * <p>
+	 * Checks that data is loaded from an ISFRDataLoader when it is first
+	 * needed, that it can be unloaded and loaded again, and that modified data
+	 * is not unloaded.
+	 * </p>
+	 * 
+	 */
+	@Test
+	public void checkDataLoader() {
+
+		// Local Declarations
+		SFRComponent component = new SFRComponent();
+		final int[] loads = new int[1];
+		final int[] uses = new int[1];
+		ISFRDataLoader loader = new ISFRDataLoader() {
+			@Override
+			public SFRDataStore load(SFRComponent component) {
+				loads[0]++;
+				SFRData data = new SFRData("flux");
+				data.setValue(1.0);
+				SFRDataStore store = new SFRDataStore();
+				store.addData(data, 0.0);
+				return store;
+			}
+
+			@Override
+			public void dataUsed(SFRComponent component) {
+				uses[0]++;
+			}
+		};
+
+		// Setting the loader does not load the data.
+		component.setDataLoader(loader);
+		assertEquals(0, loads[0]);
+
+		// The data is loaded once, when it is first needed.
+		assertEquals(1, component.getNumberOfTimeSteps());
+		assertEquals(1, component.getDataAtCurrentTime("flux").size());
+		assertEquals(1, loads[0]);
+
+		// Using the loaded data is reported to the loader.
+		assertTrue(uses[0] > 0);
+
+		// Unloaded data is loaded again when it is needed.
+		assertTrue(component.unloadData());
+		assertFalse(component.unloadData());
+		assertEquals(1, loads[0]);
+		assertEquals(1, component.getFeatureList().size());
+		assertEquals(2, loads[0]);
+
+		// Copies have the loaded data.
+		SFRComponent copy = (SFRComponent) component.clone();
+		assertEquals(component, copy);
+		assertFalse(copy.unloadData());
+
+		// The hash of loaded data is remembered, so unloaded data is not
+		// loaded again to hash it. Components with the same loader are
+		// compared without loading their data.
+		int hash = component.hashCode();
+		assertTrue(component.unloadData());
+		assertEquals(hash, component.hashCode());
+		SFRComponent other = new SFRComponent();
+		other.setDataLoader(loader);
+		assertEquals(component, other);
+		assertEquals(2, loads[0]);
+
+		// A loader that fails leaves the component unloaded.
+		SFRComponent failed = new SFRComponent();
+		failed.setDataLoader(new ISFRDataLoader() {
+			@Override
+			public SFRDataStore load(SFRComponent component) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void dataUsed(SFRComponent component) {
+				// Nothing to do.
+			}
+		});
+		try {
+			failed.getFeatureList();
+			fail();
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+		assertFalse(failed.unloadData());
+		assertEquals(1, component.getFeatureList().size());
+		assertEquals(3, loads[0]);
+
+		// Detached data is loaded and never unloaded.
+		other.detachDataLoader();
+		assertEquals(4, loads[0]);
+		assertFalse(other.unloadData());
+		assertEquals(1, other.getFeatureList().size());
+		assertEquals(4, loads[0]);
+
+		// Modified data is never unloaded.
+		component.addData(new SFRData("power"), 0.0);
+		assertFalse(component.unloadData());
+		assertEquals(2, component.getFeatureList().size());
+		assertEquals(4, loads[0]);
+
+		// Removing the loader clears the data.
+		component.setDataLoader(null);
+		assertTrue(component.getFeatureList().isEmpty());
+		assertFalse(component.unloadData());
+
+		return;
+	}
+
 	/**
 	 * This is a fake visitor class to test the accept(IComponentVisitor) method
 	 * of SFRComponent.
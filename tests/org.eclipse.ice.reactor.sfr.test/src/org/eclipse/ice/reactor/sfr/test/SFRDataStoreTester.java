@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Jordan Deyton (UT-Battelle, LLC.) - Initial API and implementation and/or
+ *     initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.reactor.sfr.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.ice.analysistool.IData;
+import org.eclipse.ice.reactor.sfr.base.FeatureTimeSeries;
+import org.eclipse.ice.reactor.sfr.base.SFRData;
+import org.eclipse.ice.reactor.sfr.base.SFRDataStore;
+import org.junit.Test;
+
+/**
+ * <p>
+ * Tests the operations of the SFRDataStore and FeatureTimeSeries classes.
+ * </p>
+ *
+ * @author Jordan Deyton
+ */
+public class SFRDataStoreTester {
+
+	/**
+	 * Checks that data added out of time order is stored by time and returned
+	 * in the order it was added.
+	 */
+	@Test
+	public void checkAddData() {
+
+		SFRDataStore store = new SFRDataStore();
+
+		// Add data at three times, out of order.
+		SFRData data1 = createData("flux", 1.0, "m");
+		SFRData data2 = createData("flux", 2.0, "s");
+		SFRData data3 = createData("flux", 3.0, "m");
+		SFRData data4 = createData("power", 4.0, "W");
+		store.addData(data1, 2.0);
+		store.addData(data2, 0.5);
+		store.addData(data3, 2.0);
+		store.addData(data4, 1.0);
+
+		// Check the times and features.
+		assertEquals(Arrays.asList(0.5, 1.0, 2.0), store.getTimes());
+		assertEquals(1, store.getTimeStep(1.0));
+		assertEquals(-1, store.getTimeStep(1.5));
+		assertEquals(Arrays.asList("flux", "power"), store.getFeatures());
+		assertEquals(Arrays.asList("flux"), store.getFeatures(2.0));
+		assertEquals(Arrays.asList("power"), store.getFeatures(1.0));
+
+		// Units are only stored once.
+		assertEquals(Arrays.asList("m", "s", "W"), store.getUnits());
+
+		// Check the data.
+		List<IData> expected = new ArrayList<IData>();
+		expected.add(data1);
+		expected.add(data3);
+		assertEquals(expected, store.getData("flux", 2.0));
+		assertEquals(Arrays.asList(data2), store.getData("flux", 0.5));
+		assertTrue(store.getData("power", 2.0).isEmpty());
+		assertTrue(store.getData("missing", 2.0).isEmpty());
+
+		// The data can be counted without creating it.
+		assertEquals(2, store.getDataCount("flux", 2.0));
+		assertEquals(1, store.getDataCount("flux", 0.5));
+		assertEquals(0, store.getDataCount("power", 2.0));
+		assertEquals(0, store.getDataCount("missing", 2.0));
+
+		// The rows for a feature are contiguous and sorted by time.
+		FeatureTimeSeries series = store.getSeries("flux");
+		assertEquals(2, series.getTimeCount());
+		assertEquals(3, series.getTotalRowCount());
+		assertEquals(0.5, series.getTime(0), 0.0);
+		assertEquals(1, series.getRowOffset(1));
+		assertEquals(2, series.getRowCount(1));
+		assertEquals(2.0, series.get(0, FeatureTimeSeries.VALUE), 0.0);
+		assertEquals(3.0, series.get(2, FeatureTimeSeries.VALUE), 0.0);
+
+		// Removing a feature keeps its times.
+		assertTrue(store.removeFeature("flux"));
+		assertFalse(store.removeFeature("flux"));
+		assertNull(store.getSeries("flux"));
+		assertEquals(3, store.getTimeCount());
+
+		return;
+	}
+
+	/**
+	 * Checks copying, bulk additions, and equality.
+	 */
+	@Test
+	public void checkCopyingAndEquality() {
+
+		SFRDataStore store = new SFRDataStore();
+		store.addData(createData("flux", 1.0, "m"), 0.0);
+		store.addData(createData("flux", 2.0, "s"), 1.0);
+
+		// Copies are equal but independent.
+		SFRDataStore copy = new SFRDataStore(store);
+		assertEquals(store, copy);
+		assertEquals(store.hashCode(), copy.hashCode());
+		copy.addData(createData("flux", 3.0, "m"), 1.0);
+		assertFalse(store.equals(copy));
+		assertEquals(1, store.getData("flux", 1.0).size());
+
+		// Stores with different units IDs for the same data are equal.
+		SFRDataStore other = new SFRDataStore();
+		other.getUnitsId("s");
+		other.getUnitsId("m");
+		other.addData(createData("flux", 1.0, "m"), 0.0);
+		other.addData(createData("flux", 2.0, "s"), 1.0);
+		assertEquals(store, other);
+		assertEquals(store.hashCode(), other.hashCode());
+
+		// Add a series in bulk. Its rows use the store's units IDs.
+		int m = store.getUnitsId("m");
+		double[] rows = new double[] { 5.0, 0.0, 0.0, 0.0, 0.0, m, 6.0, 0.0,
+				0.0, 0.0, 0.0, m };
+		store.addSeries(new FeatureTimeSeries("power", new double[] { 0.0,
+				2.0 }, new int[] { 0, 1 }, new int[] { 1, 1 }, rows));
+		assertEquals(Arrays.asList(0.0, 1.0, 2.0), store.getTimes());
+		assertEquals(Arrays.asList(createData("power", 6.0, "m")),
+				store.getData("power", 2.0));
+
+		// Adding a series for an existing feature merges the rows.
+		store.addSeries(new FeatureTimeSeries("flux", new double[] { 0.5 },
+				new int[] { 0 }, new int[] { 1 }, rows));
+		FeatureTimeSeries series = store.getSeries("flux");
+		assertEquals(3, series.getTimeCount());
+		assertEquals(0.5, series.getTime(1), 0.0);
+		assertEquals(5.0, series.get(1, FeatureTimeSeries.VALUE), 0.0);
+		assertEquals(2.0, series.get(2, FeatureTimeSeries.VALUE), 0.0);
+
+		return;
+	}
+
+	/**
+	 * Creates a piece of data.
+	 *
+	 * @param feature
+	 *            The feature.
+	 * @param value
+	 *            The value.
+	 * @param units
+	 *            The units.
+	 * @return The new data.
+	 */
+	private SFRData createData(String feature, double value, String units) {
+		SFRData data = new SFRData(feature);
+		data.setValue(value);
+		data.setUnits(units);
+		return data;
+	}
+}
@@ -17,6 +17,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import org.eclipse.ice.reactor.ILWRDataLoader;
 import org.eclipse.ice.reactor.LWRData;
 import org.eclipse.ice.reactor.LWRDataProvider;
 import org.junit.Test;
@@ -304,6 +305,82 @@ public class LWRDataProviderTester {
 
 	}
 
+	/**
+	 * <p>
+	 * Checks that data is loaded by a data loader when it is first needed and
+	 * can be unloaded until it is modified.
+	 * </p>
+	 * 
+	 */
+	@Test
+	public void checkDataLoader() {
+
+		// Local Declarations
+		LWRDataProvider provider = new LWRDataProvider();
+		final int[] loads = new int[1];
+		final int[] uses = new int[1];
+		ILWRDataLoader loader = new ILWRDataLoader() {
+			@Override
+			public LWRDataProvider load(LWRDataProvider provider) {
+				loads[0]++;
+				LWRDataProvider data = new LWRDataProvider();
+				data.addData(new LWRData("Feature 1"), 0.0);
+				return data;
+			}
+
+			@Override
+			public void dataUsed(LWRDataProvider provider) {
+				uses[0]++;
+			}
+		};
+
+		// Setting the loader does not load the data.
+		provider.setDataLoader(loader);
+		assertEquals(0, loads[0]);
+
+		// The data is loaded once, when it is first needed.
+		assertEquals(1, provider.getNumberOfTimeSteps());
+		assertEquals(1, provider.getDataAtCurrentTime("Feature 1").size());
+		assertEquals(1, loads[0]);
+
+		// Using the loaded data is reported to the loader.
+		assertTrue(uses[0] > 0);
+
+		// Unloaded data is loaded again when it is needed.
+		assertTrue(provider.unloadData());
+		assertFalse(provider.unloadData());
+		assertEquals(1, provider.getFeatureList().size());
+		assertEquals(2, loads[0]);
+
+		// Copies share the loader instead of loading the data, and are equal
+		// without loading it.
+		assertTrue(provider.unloadData());
+		LWRDataProvider copy = (LWRDataProvider) provider.clone();
+		assertTrue(provider.equals(copy));
+		assertEquals(2, loads[0]);
+		assertEquals(1, copy.getTimes().size());
+		assertEquals(3, loads[0]);
+
+		// Detached data is never unloaded.
+		copy.detachDataLoader();
+		assertFalse(copy.unloadData());
+		assertEquals(1, copy.getTimes().size());
+		assertEquals(3, loads[0]);
+
+		// Modified data is never unloaded.
+		provider.addData(new LWRData("Feature 2"), 0.0);
+		assertFalse(provider.unloadData());
+		assertEquals(2, provider.getFeatureList().size());
+		assertEquals(4, loads[0]);
+		assertFalse(provider.equals(copy));
+
+		// Removing the loader clears the data.
+		provider.setDataLoader(null);
+		assertTrue(provider.getFeatureList().isEmpty());
+		assertFalse(provider.unloadData());
+
+	}
+
 	/**
 	 * <p>
 	 * Checks the equals and hashCode operations.
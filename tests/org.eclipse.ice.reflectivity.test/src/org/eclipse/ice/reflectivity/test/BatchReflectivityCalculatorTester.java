@@ -0,0 +1,337 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation -
+ *   Jay Jay Billings
+ *******************************************************************************/
+package org.eclipse.ice.reflectivity.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.ice.datastructures.form.Material;
+import org.eclipse.ice.reflectivity.BatchReflectivityCalculator;
+import org.eclipse.ice.reflectivity.BatchReflectivityCalculator.ICurveListener;
+import org.eclipse.ice.reflectivity.BatchReflectivityCalculator.IFitListener;
+import org.eclipse.ice.reflectivity.ReflectivityCalculator;
+import org.eclipse.ice.reflectivity.ReflectivityParameter;
+import org.eclipse.ice.reflectivity.Slab;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests {@link BatchReflectivityCalculator}. The measured data is
+ * generated with a {@link ReflectivityCalculator} so that the fit has a known
+ * answer.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public class BatchReflectivityCalculatorTester {
+
+	/**
+	 * The number of layers of roughness used for every curve.
+	 */
+	private static final int numRough = 41;
+
+	/**
+	 * The resolution and wavelength used for every curve.
+	 */
+	private static final double deltaQ0 = 0.0002, deltaQ1ByQ = 0.03,
+			wavelength = 4.25;
+
+	/**
+	 * The slabs that define the system.
+	 */
+	private Slab[] slabs;
+
+	/**
+	 * The wave vector.
+	 */
+	private double[] waveVector;
+
+	/**
+	 * This operation creates the slabs and wave vector for each test.
+	 */
+	@Before
+	public void setUp() {
+
+		// Create the slabs that define the system, starting with air
+		slabs = new Slab[4];
+		for (int i = 0; i < slabs.length; i++) {
+			slabs[i] = new Slab();
+		}
+		slabs[0].thickness = 200.0;
+		// NiOx
+		slabs[1].scatteringLength = (0.00000686 + 0.00000715) / 2.0;
+		slabs[1].trueAbsLength = 2.27931868269305E-09;
+		slabs[1].incAbsLength = 4.74626235093697E-09;
+		slabs[1].thickness = 22.0;
+		slabs[1].interfaceWidth = 4.0 * 2.35;
+		// Ni
+		slabs[2].scatteringLength = 9.31e-6;
+		slabs[2].trueAbsLength = 2.27931868269305E-09;
+		slabs[2].incAbsLength = 4.74626235093697E-09;
+		slabs[2].thickness = 551.0;
+		slabs[2].interfaceWidth = 4.3 * 2.35;
+		// Si
+		slabs[3].scatteringLength = 2.070e-6;
+		slabs[3].trueAbsLength = 4.74981478870069E-11;
+		slabs[3].incAbsLength = 1.99769988072137E-12;
+		slabs[3].thickness = 100.0;
+		slabs[3].interfaceWidth = 17.5;
+
+		// Create the wave vector
+		waveVector = new double[100];
+		for (int i = 0; i < waveVector.length; i++) {
+			waveVector[i] = 0.008 + 0.001 * i;
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation checks that the curves of a sweep are delivered in order
+	 * and match the curves from a single calculator.
+	 */
+	@Test
+	public void checkCalculate() throws InterruptedException {
+
+		// Local Declarations
+		ReflectivityParameter thickness = new ReflectivityParameter(2,
+				ReflectivityParameter.THICKNESS);
+		final List<double[]> curves = new ArrayList<double[]>();
+		final List<double[]> values = new ArrayList<double[]>();
+		for (int i = 0; i < 20; i++) {
+			values.add(new double[] { 500.0 + 5.0 * i });
+		}
+
+		// Sweep the thickness of the Ni layer
+		BatchReflectivityCalculator calculator = new BatchReflectivityCalculator(
+				slabs, numRough, deltaQ0, deltaQ1ByQ, wavelength, waveVector);
+		calculator.calculate(Arrays.asList(thickness), values,
+				new ICurveListener() {
+					@Override
+					public void curveCalculated(int index,
+							double[] curveValues, double[] reflectivity,
+							double chiSquare) {
+						// The curves should arrive in order
+						assertEquals(curves.size(), index);
+						assertEquals(values.get(index), curveValues);
+						// There is no measured data
+						assertTrue(Double.isNaN(chiSquare));
+						curves.add(reflectivity);
+					}
+				});
+		assertEquals(values.size(), curves.size());
+		assertEquals(values.size(), calculator.getCurveCount());
+		assertTrue(calculator.getCurvesPerSecond() > 0.0);
+
+		// Each curve should match a single calculation. The original slabs
+		// should not be changed.
+		ReflectivityCalculator single = new ReflectivityCalculator();
+		for (int i = 0; i < values.size(); i++) {
+			slabs[2].thickness = values.get(i)[0];
+			double[] expected = single.getReflectivity(slabs, numRough,
+					deltaQ0, deltaQ1ByQ, wavelength, waveVector, false);
+			assertNotNull(curves.get(i));
+			for (int j = 0; j < waveVector.length; j++) {
+				assertEquals(expected[j], curves.get(i)[j], 0.0);
+			}
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation checks that later calls reuse the threads' scratch space
+	 * without carrying the parameters of one call over to the next.
+	 */
+	@Test
+	public void checkRepeatedCalculate() throws InterruptedException {
+
+		// Local Declarations
+		List<ReflectivityParameter> thickness = Arrays
+				.asList(new ReflectivityParameter(2,
+						ReflectivityParameter.THICKNESS));
+		List<ReflectivityParameter> roughness = Arrays
+				.asList(new ReflectivityParameter(3,
+						ReflectivityParameter.ROUGHNESS));
+		List<double[]> values = new ArrayList<double[]>();
+		for (int i = 0; i < 8; i++) {
+			values.add(new double[] { 10.0 + i });
+		}
+
+		// Change a different parameter in each call
+		BatchReflectivityCalculator calculator = new BatchReflectivityCalculator(
+				slabs, numRough, deltaQ0, deltaQ1ByQ, wavelength, waveVector);
+		double[][] first = calculator.calculate(roughness, values);
+		calculator.calculate(thickness, values);
+		double[][] second = calculator.calculate(roughness, values);
+
+		// The curves should not depend on the earlier calls
+		for (int i = 0; i < values.size(); i++) {
+			assertNotNull(second[i]);
+			for (int j = 0; j < waveVector.length; j++) {
+				assertEquals(first[i][j], second[i][j], 0.0);
+			}
+		}
+		assertEquals(3 * values.size(), calculator.getCurveCount());
+
+		return;
+	}
+
+	/**
+	 * This operation checks that measured data and errors that do not match
+	 * are rejected.
+	 */
+	@Test
+	public void checkMeasuredData() {
+
+		// Local Declarations
+		BatchReflectivityCalculator calculator = new BatchReflectivityCalculator(
+				slabs, numRough, deltaQ0, deltaQ1ByQ, wavelength, waveVector);
+		double[] data = new double[waveVector.length];
+		Arrays.fill(data, 1.0);
+
+		// Matching data and errors are accepted
+		calculator.setMeasuredData(data, data.clone());
+		calculator.setMeasuredData(data, null);
+		calculator.setMeasuredData(null, null);
+
+		// The data must match the wave vector
+		try {
+			calculator.setMeasuredData(new double[waveVector.length - 1],
+					null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+
+		// The error must match the data
+		try {
+			calculator.setMeasuredData(data, new double[data.length - 1]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			calculator.setMeasuredData(null, data.clone());
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation checks that a fit recovers the parameters used to
+	 * generate the measured data.
+	 */
+	@Test
+	public void checkFit() throws InterruptedException {
+
+		// Local Declarations
+		List<ReflectivityParameter> parameters = Arrays.asList(
+				new ReflectivityParameter(2, ReflectivityParameter.THICKNESS),
+				new ReflectivityParameter(3, ReflectivityParameter.ROUGHNESS),
+				new ReflectivityParameter(1, Material.SCAT_LENGTH_DENSITY));
+		final List<Double> chiSquares = new ArrayList<Double>();
+
+		// Generate the measured data with five percent error bars
+		double[] data = new ReflectivityCalculator().getReflectivity(slabs,
+				numRough, deltaQ0, deltaQ1ByQ, wavelength, waveVector, false);
+		double[] error = new double[data.length];
+		for (int i = 0; i < data.length; i++) {
+			error[i] = 0.05 * data[i];
+		}
+
+		// Start the fit away from the answer
+		double[] expected = { 551.0, 17.5, slabs[1].scatteringLength };
+		slabs[2].thickness = 545.0;
+		slabs[3].interfaceWidth = 15.0;
+		slabs[1].scatteringLength *= 1.05;
+		BatchReflectivityCalculator calculator = new BatchReflectivityCalculator(
+				slabs, numRough, deltaQ0, deltaQ1ByQ, wavelength, waveVector);
+		calculator.setMeasuredData(data, error);
+
+		// Fit and check the parameters
+		double[] fitted = calculator.fit(parameters, 50, new IFitListener() {
+			@Override
+			public void iterationCompleted(int iteration, double[] values,
+					double chiSquare) {
+				assertEquals(3, values.length);
+				chiSquares.add(chiSquare);
+			}
+		});
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], fitted[i], Math.abs(expected[i]) * 1.0e-3);
+		}
+
+		// The fit should only report improvements
+		assertTrue(chiSquares.size() > 1);
+		for (int i = 1; i < chiSquares.size(); i++) {
+			assertTrue(chiSquares.get(i) < chiSquares.get(i - 1));
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation checks the parameters.
+	 */
+	@Test
+	public void checkParameters() {
+
+		// Each property should read and write the right field
+		String[] properties = { ReflectivityParameter.THICKNESS,
+				ReflectivityParameter.ROUGHNESS, Material.SCAT_LENGTH_DENSITY,
+				Material.MASS_ABS_COHERENT, Material.MASS_ABS_INCOHERENT };
+		for (int i = 0; i < properties.length; i++) {
+			ReflectivityParameter parameter = new ReflectivityParameter(1,
+					properties[i]);
+			parameter.setValue(slabs, i + 1.0);
+			assertEquals(i + 1.0, parameter.getValue(slabs), 0.0);
+		}
+		assertEquals(1.0, slabs[1].thickness, 0.0);
+		assertEquals(2.0, slabs[1].interfaceWidth, 0.0);
+		assertEquals(3.0, slabs[1].scatteringLength, 0.0);
+		assertEquals(4.0, slabs[1].trueAbsLength, 0.0);
+		assertEquals(5.0, slabs[1].incAbsLength, 0.0);
+
+		// Only the scattering length density can be negative
+		assertEquals(0.0, new ReflectivityParameter(1,
+				ReflectivityParameter.THICKNESS).constrain(-1.0), 0.0);
+		assertEquals(-1.0, new ReflectivityParameter(1,
+				Material.SCAT_LENGTH_DENSITY).constrain(-1.0), 0.0);
+
+		// Invalid parameters should be rejected
+		try {
+			new ReflectivityParameter(1, "Color");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			new ReflectivityParameter(-1, ReflectivityParameter.THICKNESS);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+
+		return;
+	}
+
+}
@@ -33,6 +33,7 @@ import org.eclipse.ice.reflectivity.ReflectivityProfile;
 import org.eclipse.ice.reflectivity.ScatteringDensityProfile;
 import org.eclipse.ice.reflectivity.Slab;
 import org.eclipse.ice.reflectivity.Tile;
+import org.eclipse.ice.reflectivity.TileArray;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -470,6 +471,86 @@ public class ReflectivityCalculatorTester {
 		return;
 	}
 
+	/**
+	 * This operation tests
+	 * {@link ReflectivityCalculator#generateTileArray(Slab[], int, double[], double[])}
+	 * and checks that the tiles are correct when the calculator reuses the
+	 * layout of the previous tiles.
+	 * 
+	 * @throws MathException
+	 */
+	@Test
+	public void testGenerateTileArray() throws MathException {
+
+		// Create the calculator
+		ReflectivityCalculator calculator = new ReflectivityCalculator();
+
+		// Create the test arrays
+		double[] zInt = new double[ReflectivityCalculator.maxRoughSize];
+		double[] rufInt = new double[ReflectivityCalculator.maxRoughSize];
+
+		// Get the interfacial profile
+		int numRough = 41;
+		calculator.getInterfacialProfile(numRough, zInt, rufInt);
+
+		// The tile array should match the tiles
+		TileArray tiles = calculator.generateTileArray(slabs, numRough, zInt,
+				rufInt);
+		checkTiles(calculator.generateTiles(slabs, numRough, zInt, rufInt),
+				tiles);
+
+		// Copy the slabs so that they can be changed
+		Slab[] changedSlabs = new Slab[slabs.length];
+		for (int i = 0; i < slabs.length; i++) {
+			Slab slab = new Slab();
+			slab.scatteringLength = slabs[i].scatteringLength;
+			slab.trueAbsLength = slabs[i].trueAbsLength;
+			slab.incAbsLength = slabs[i].incAbsLength;
+			slab.thickness = slabs[i].thickness;
+			slab.interfaceWidth = slabs[i].interfaceWidth;
+			changedSlabs[i] = slab;
+		}
+
+		// Change the scattering length, which does not change the geometry.
+		// The tiles should match those from a new calculator.
+		changedSlabs[2].scatteringLength = 8.0e-6;
+		tiles = calculator.generateTileArray(changedSlabs, numRough, zInt,
+				rufInt);
+		checkTiles(new ReflectivityCalculator().generateTiles(changedSlabs,
+				numRough, zInt, rufInt), tiles);
+
+		// Change the thickness so that the interfaces overlap. The tiles
+		// should still match those from a new calculator.
+		changedSlabs[2].thickness = 5.0;
+		tiles = calculator.generateTileArray(changedSlabs, numRough, zInt,
+				rufInt);
+		checkTiles(new ReflectivityCalculator().generateTiles(changedSlabs,
+				numRough, zInt, rufInt), tiles);
+
+		return;
+	}
+
+	/**
+	 * This operation checks that an array of tiles has exactly the same
+	 * properties as a set of tiles.
+	 * 
+	 * @param expected
+	 *            the expected tiles
+	 * @param tiles
+	 *            the array of tiles to check
+	 */
+	private void checkTiles(Tile[] expected, TileArray tiles) {
+		assertEquals(expected.length, tiles.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].scatteringLength,
+					tiles.scatteringLength[i], 0.0);
+			assertEquals(expected[i].trueAbsLength, tiles.trueAbsLength[i],
+					0.0);
+			assertEquals(expected[i].incAbsLength, tiles.incAbsLength[i], 0.0);
+			assertEquals(expected[i].thickness, tiles.thickness[i], 0.0);
+		}
+	}
+
 	/**
 	 * This operation tests
 	 * {@link ReflectivityCalculator#convoluteReflectivity()}.
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Initial API and implementation and/or initial documentation -
+ *   Jay Jay Billings
+ *******************************************************************************/
+package org.eclipse.ice.reflectivity.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.eclipse.ice.reflectivity.ReflectivityData;
+import org.eclipse.ice.reflectivity.ReflectivityDataCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests {@link ReflectivityDataCache}.
+ *
+ * @author Jay Jay Billings
+ *
+ */
+public class ReflectivityDataCacheTester {
+
+	/**
+	 * The data file read by the tests.
+	 */
+	private File file;
+
+	/**
+	 * This operation creates the data file for each test.
+	 *
+	 * @throws IOException
+	 */
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("reflectivityData", ".csv");
+		write("# Q, R, error\n0.01,0.9,0.09\n\n0.02, 0.5 ,0.05 # point 2\n"
+				+ "0.03,0.1,0.01,extra\n");
+		return;
+	}
+
+	/**
+	 * This operation deletes the data file after each test.
+	 */
+	@After
+	public void tearDown() {
+		file.delete();
+		return;
+	}
+
+	/**
+	 * This operation checks that files are parsed into arrays and only parsed
+	 * again when they change.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void checkRead() throws IOException {
+
+		// Local Declarations
+		ReflectivityDataCache cache = new ReflectivityDataCache();
+
+		// Read the file and check the values. Comments, blank lines and
+		// extra columns should be ignored.
+		ReflectivityData data = cache.read(file);
+		assertEquals(3, data.size());
+		assertEquals(0.02, data.getWaveVector()[1], 0.0);
+		assertEquals(0.5, data.getReflectivity()[1], 0.0);
+		assertEquals(0.05, data.getError()[1], 0.0);
+		assertEquals(0.03, data.getWaveVector()[2], 0.0);
+		assertEquals(1, cache.getParseCount());
+
+		// Reading it again should return the same data without parsing
+		assertSame(data, cache.read(file));
+		assertSame(data, cache.read(new File(file.getPath())));
+		assertEquals(1, cache.getParseCount());
+
+		// Changing the file should cause it to be parsed again
+		write("0.01,0.8,0.08\n");
+		file.setLastModified(file.lastModified() + 2000L);
+		ReflectivityData newData = cache.read(file);
+		assertNotSame(data, newData);
+		assertEquals(1, newData.size());
+		assertEquals(0.8, newData.getReflectivity()[0], 0.0);
+		assertEquals(2, cache.getParseCount());
+
+		// Invalidating the file should also cause it to be parsed again
+		cache.invalidate(file);
+		assertNotSame(newData, cache.read(file));
+		assertEquals(3, cache.getParseCount());
+
+		return;
+	}
+
+	/**
+	 * This operation checks that invalid files are rejected.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void checkInvalidFiles() throws IOException {
+
+		// Local Declarations
+		ReflectivityDataCache cache = new ReflectivityDataCache();
+
+		// Files with missing columns or values that are not numbers should be
+		// rejected
+		String[] contents = { "0.01,0.9\n", "0.01,abc,0.09\n" };
+		for (int i = 0; i < contents.length; i++) {
+			write(contents[i]);
+			file.setLastModified(file.lastModified() + 2000L * (i + 1));
+			try {
+				cache.read(file);
+				fail();
+			} catch (IOException e) {
+				// Expected
+			}
+		}
+
+		// Files that do not exist should be rejected
+		file.delete();
+		try {
+			cache.read(file);
+			fail();
+		} catch (IOException e) {
+			// Expected
+		}
+
+		return;
+	}
+
+	/**
+	 * This operation writes the data file.
+	 *
+	 * @param contents
+	 *            the contents of the file
+	 * @throws IOException
+	 */
+	private void write(String contents) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(contents);
+		} finally {
+			writer.close();
+		}
+		return;
+	}
+
+}
@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (c) 2015 UT-Battelle, LLC.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Jordan Deyton (UT-Battelle, LLC.) - initial API and implementation and/or
+ *      initial documentation
+ *******************************************************************************/
+package org.eclipse.ice.viz.service.paraview.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.ice.viz.service.paraview.web.CoalescingParaViewWebClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * This class tests the {@link CoalescingParaViewWebClient} against a local
+ * stand-in for a ParaView Web server.
+ *
+ * @author Jordan Deyton
+ *
+ */
+public class CoalescingParaViewWebClientTester {
+
+	/**
+	 * A minimal HTTP/1.1 server that answers every request with an empty JSON
+	 * object after a configurable delay and records what it received.
+	 */
+	private static class StandInServer extends Thread {
+		/**
+		 * The server socket.
+		 */
+		private final ServerSocket serverSocket;
+		/**
+		 * The number of accepted connections.
+		 */
+		private final AtomicInteger connections = new AtomicInteger();
+		/**
+		 * The received POST requests, as "method body" strings.
+		 */
+		private final List<String> requests = Collections
+				.synchronizedList(new ArrayList<String>());
+		/**
+		 * The delay before each response, in milliseconds.
+		 */
+		private volatile long delay = 0;
+
+		/**
+		 * The default constructor. Binds to a free local port.
+		 *
+		 * @throws IOException
+		 */
+		private StandInServer() throws IOException {
+			serverSocket = new ServerSocket(0);
+			setDaemon(true);
+		}
+
+		/**
+		 * @return The base URL of the server.
+		 */
+		private String getURL() {
+			return "http://localhost:" + serverSocket.getLocalPort() + "/";
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					final Socket socket = serverSocket.accept();
+					connections.incrementAndGet();
+					Thread handler = new Thread() {
+						@Override
+						public void run() {
+							handle(socket);
+						}
+					};
+					handler.setDaemon(true);
+					handler.start();
+				}
+			} catch (IOException e) {
+				// The server was closed.
+			}
+		}
+
+		/**
+		 * Answers requests on a connection until the client closes it.
+		 *
+		 * @param socket
+		 *            The connection.
+		 */
+		private void handle(Socket socket) {
+			try {
+				BufferedReader reader = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), "UTF-8"));
+				OutputStream out = socket.getOutputStream();
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isEmpty()) {
+						continue;
+					}
+					// Read the request line and headers.
+					String[] requestLine = line.split(" ");
+					int length = 0;
+					while ((line = reader.readLine()) != null
+							&& !line.isEmpty()) {
+						if (line.toLowerCase().startsWith("content-length:")) {
+							length = Integer.parseInt(line.substring(15)
+									.trim());
+						}
+					}
+					// Read the body. It is plain JSON, so characters are bytes.
+					char[] body = new char[length];
+					int read = 0;
+					while (read < length) {
+						read += reader.read(body, read, length - read);
+					}
+
+					// Respond.
+					if ("POST".equals(requestLine[0])) {
+						requests.add(requestLine[1].substring(1) + " "
+								+ new String(body));
+						Thread.sleep(delay);
+						byte[] response = "{}".getBytes("UTF-8");
+						out.write(("HTTP/1.1 200 OK\r\n"
+								+ "Content-Type: application/json\r\n"
+								+ "Content-Length: " + response.length + "\r\n\r\n")
+								.getBytes("UTF-8"));
+						out.write(response);
+					} else {
+						out.write("HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n"
+								.getBytes("UTF-8"));
+					}
+					out.flush();
+				}
+				socket.close();
+			} catch (Exception e) {
+				// The connection was closed.
+			}
+		}
+
+		/**
+		 * Gets the content of the received requests for a method.
+		 *
+		 * @param method
+		 *            The ParaView Web method.
+		 * @return The first argument of each request for the method.
+		 */
+		private List<JsonObject> getRequests(String method) {
+			List<JsonObject> matches = new ArrayList<JsonObject>();
+			synchronized (requests) {
+				for (String request : requests) {
+					if (request.startsWith(method + " ")) {
+						JsonObject content = new JsonParser().parse(
+								request.substring(method.length() + 1))
+								.getAsJsonObject();
+						matches.add(content.get("args").getAsJsonArray()
+								.get(0).getAsJsonObject());
+					}
+				}
+			}
+			return matches;
+		}
+	}
+
+	/**
+	 * The stand-in server.
+	 */
+	private StandInServer server;
+
+	/**
+	 * The client under test.
+	 */
+	private CoalescingParaViewWebClient client;
+
+	/**
+	 * The mouse state used for events (left button down).
+	 */
+	private final boolean[] mouseState = new boolean[] { true, false, false,
+			false, false, false, false };
+
+	/**
+	 * Starts the server and connects the client.
+	 *
+	 * @throws Exception
+	 */
+	@Before
+	public void beforeEachTest() throws Exception {
+		server = new StandInServer();
+		server.start();
+		client = new CoalescingParaViewWebClient();
+		assertTrue(client.connect(server.getURL()).get(5, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Disconnects the client and stops the server.
+	 *
+	 * @throws Exception
+	 */
+	@After
+	public void afterEachTest() throws Exception {
+		client.disconnect().get(5, TimeUnit.SECONDS);
+		server.serverSocket.close();
+	}
+
+	/**
+	 * Checks that queued mouse movements are coalesced, superseded renders are
+	 * cancelled, and everything else is sent in order.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkCoalescing() throws Exception {
+
+		// Slow the server down so that requests pile up behind the first.
+		server.delay = 200;
+		Future<JsonObject> first = client.call("first", new JsonArray());
+		Thread.sleep(50);
+
+		// Press the button, then drag while rendering after each event.
+		List<Future<JsonObject>> events = new ArrayList<Future<JsonObject>>();
+		List<Future<JsonObject>> renders = new ArrayList<Future<JsonObject>>();
+		Future<JsonObject> down = client.event(1, 0, 0, "down", mouseState);
+		for (int i = 1; i <= 10; i++) {
+			events.add(client.event(1, i, i, "move", mouseState));
+			renders.add(client.render(1, 100, 200, 100));
+		}
+
+		// Wait for everything to be processed.
+		assertNotNull(first.get(5, TimeUnit.SECONDS));
+		assertNotNull(down.get(5, TimeUnit.SECONDS));
+		assertNotNull(renders.get(9).get(5, TimeUnit.SECONDS));
+
+		// All of the moves should share the response of the last one.
+		for (Future<JsonObject> event : events) {
+			assertTrue(event.isDone());
+			assertFalse(event.isCancelled());
+		}
+		// All but the last render should have been cancelled.
+		for (int i = 0; i < 9; i++) {
+			assertTrue(renders.get(i).isCancelled());
+		}
+
+		// Check what the server actually received.
+		List<JsonObject> sentEvents = server
+				.getRequests("viewport.mouse.interaction");
+		assertEquals(2, sentEvents.size());
+		assertEquals("down", sentEvents.get(0).get("action").getAsString());
+		assertEquals("move", sentEvents.get(1).get("action").getAsString());
+		assertEquals(10.0, sentEvents.get(1).get("x").getAsDouble(), 1e-10);
+		assertEquals(1, server.getRequests("viewport.image.render").size());
+		assertEquals(9, client.getCoalescedEventCount());
+		assertEquals(9, client.getSupersededRenderCount());
+
+		// The requests should have been sent over a single connection.
+		assertEquals(1, server.connections.get());
+
+		return;
+	}
+
+	/**
+	 * Checks that the render quality is lowered when the server is slower than
+	 * the target latency and that metrics are collected.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void checkAdaptiveQuality() throws Exception {
+
+		// Make every render take longer than the target.
+		server.delay = 30;
+		client.setTargetLatency(10);
+		client.setMinimumQuality(50);
+
+		// Render several frames, waiting for each one.
+		for (int i = 0; i < 8; i++) {
+			assertNotNull(client.render(1, 100, 200, 100).get(5,
+					TimeUnit.SECONDS));
+		}
+
+		// The quality should have dropped to the minimum.
+		assertEquals(50, client.getCurrentQuality());
+		List<JsonObject> sentRenders = server
+				.getRequests("viewport.image.render");
+		assertEquals(8, sentRenders.size());
+		assertEquals(100, sentRenders.get(0).get("quality").getAsInt());
+		assertEquals(50, sentRenders.get(7).get("quality").getAsInt());
+
+		// Check the metrics.
+		assertEquals(8, client.getFrameCount());
+		assertTrue(client.getAverageFrameLatency() >= 30.0);
+		assertTrue(client.getFrameRate() > 0.0);
+
+		// Without adaptive quality, the requested quality is always used.
+		client.setAdaptiveQuality(false);
+		client.render(1, 90, 200, 100).get(5, TimeUnit.SECONDS);
+		sentRenders = server.getRequests("viewport.image.render");
+		assertEquals(90, sentRenders.get(8).get("quality").getAsInt());
+
+		return;
+	}
+}